@@ -0,0 +1,357 @@
+package api;
+
+import lombok.Getter;
+import lombok.NonNull;
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static api.ApiProtocol.*;
+
+/**
+ * Blocking client of an {@link ApiServer}, built around pipelining.
+ *
+ * <p>Requests are queued on a {@link Pipeline} and sent together by {@link Pipeline#sync()},
+ * which then reads all of their responses; each queued call returns a {@link Reply} that
+ * is filled in by the sync. A batch of N lookups thus costs one round trip instead of N.
+ * The single-call methods are pipelines of one.</p>
+ *
+ * <p>Not thread-safe: give each thread its own client, and sync a pipeline before starting
+ * the next.</p>
+ */
+public class ApiClient implements AutoCloseable {
+
+    @Getter
+    private final String address;
+
+    private final SocketChannel channel;
+
+    /** Requests of the current pipeline, in write mode. */
+    private ByteBuffer out = ByteBuffer.allocateDirect(ApiServer.INITIAL_BUFFER);
+
+    /** Received bytes not yet parsed, in read mode during a sync. */
+    private ByteBuffer in = ByteBuffer.allocateDirect(ApiServer.INITIAL_BUFFER);
+
+    private int nextId;
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server's {@code host:port}.
+     * @throws IllegalArgumentException if the address is malformed.
+     * @throws UncheckedIOException if the server cannot be reached.
+     */
+    public ApiClient(@NonNull String address) {
+        this.address = address;
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Server address must be host:port: " + address);
+        }
+        try {
+            InetSocketAddress socketAddress = new InetSocketAddress(address.substring(0, colon),
+                    Integer.parseInt(address.substring(colon + 1)));
+            this.channel = SocketChannel.open(socketAddress);
+            channel.socket().setTcpNoDelay(true);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Server address must be host:port: " + address);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Server " + address + " unreachable", e);
+        }
+    }
+
+    /**
+     * @return an empty pipeline on this client's connection.
+     */
+    public Pipeline pipeline() {
+        return new Pipeline();
+    }
+
+    public void ping() {
+        sync(pipeline().ping());
+    }
+
+    public void registerStudent(Student student) {
+        sync(pipeline().registerStudent(student));
+    }
+
+    public Student getStudent(String id) {
+        return sync(pipeline().getStudent(id));
+    }
+
+    public Course getCourse(String code) {
+        return sync(pipeline().getCourse(code));
+    }
+
+    public EnrollmentStatus enroll(String studentId, String courseCode, String semester) {
+        return sync(pipeline().enroll(null, studentId, courseCode, semester));
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already closed.
+        }
+    }
+
+    private <T> T sync(Reply<T> reply) {
+        reply.pipeline.sync();
+        return reply.get();
+    }
+
+    /**
+     * The result of one pipelined call, available after {@link Pipeline#sync()}.
+     */
+    public static final class Reply<T> {
+
+        private final Pipeline pipeline;
+
+        private final Decoder<T> reader;
+
+        private boolean done;
+
+        private T value;
+
+        private RuntimeException error;
+
+        private Reply(Pipeline pipeline, Decoder<T> reader) {
+            this.pipeline = pipeline;
+            this.reader = reader;
+        }
+
+        /**
+         * @return the call's result.
+         * @throws IllegalStateException if the pipeline has not been synced.
+         * @throws RuntimeException the exception the server raised, as
+         *         {@link IllegalArgumentException} or {@link IllegalStateException}.
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("Pipeline not synced");
+            }
+            if (error != null) {
+                throw error;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Calls queued for one round trip.
+     */
+    public final class Pipeline {
+
+        private final List<Reply<?>> replies = new ArrayList<>();
+
+        private final int firstId = nextId;
+
+        private boolean synced;
+
+        private Pipeline() {
+            out.clear();
+        }
+
+        /**
+         * @return number of calls queued.
+         */
+        public int size() {
+            return replies.size();
+        }
+
+        public Reply<Void> ping() {
+            return call(PING, EMPTY, NONE);
+        }
+
+        public Reply<Void> registerStudent(@NonNull Student student) {
+            return call(REGISTER_STUDENT, o -> putStudent(o, student), NONE);
+        }
+
+        public Reply<Student> getStudent(String id) {
+            return call(GET_STUDENT, o -> putString(o, id), i -> getNullable(i, ApiProtocol::getStudent));
+        }
+
+        public Reply<List<Student>> searchStudents(String token) {
+            return call(SEARCH_STUDENTS, o -> putString(o, token), i -> getList(i, ApiProtocol::getStudent));
+        }
+
+        public Reply<Void> updateContact(String id, String email, String phone) {
+            return call(UPDATE_CONTACT, o -> {
+                putString(o, id);
+                putString(o, email);
+                putString(o, phone);
+            }, NONE);
+        }
+
+        public Reply<Void> updateAttributes(String id, Map<String, String> attributes) {
+            return call(UPDATE_ATTRIBUTES, o -> {
+                putString(o, id);
+                putMap(o, attributes);
+            }, NONE);
+        }
+
+        public Reply<Void> deleteStudent(String id) {
+            return call(DELETE_STUDENT, o -> putString(o, id), NONE);
+        }
+
+        public Reply<Void> createCourse(@NonNull Course course) {
+            return call(CREATE_COURSE, o -> putCourse(o, course), NONE);
+        }
+
+        public Reply<Course> getCourse(String code) {
+            return call(GET_COURSE, o -> putString(o, code), i -> getNullable(i, ApiProtocol::getCourse));
+        }
+
+        public Reply<List<Course>> listCourses(String department) {
+            return call(LIST_COURSES, o -> putString(o, department), i -> getList(i, ApiProtocol::getCourse));
+        }
+
+        public Reply<Void> deleteCourse(String code) {
+            return call(DELETE_COURSE, o -> putString(o, code), NONE);
+        }
+
+        /**
+         * @param requestId idempotency key, or null for a plain enrollment.
+         */
+        public Reply<EnrollmentStatus> enroll(String requestId, String studentId, String courseCode, String semester) {
+            return call(ENROLL, o -> {
+                putString(o, requestId);
+                putString(o, studentId);
+                putString(o, courseCode);
+                putString(o, semester);
+            }, ApiProtocol::getStatus);
+        }
+
+        /**
+         * @param requestId idempotency key, or null for a plain drop.
+         */
+        public Reply<Void> drop(String requestId, String studentId, String courseCode, String semester) {
+            return call(DROP, o -> {
+                putString(o, requestId);
+                putString(o, studentId);
+                putString(o, courseCode);
+                putString(o, semester);
+            }, NONE);
+        }
+
+        public Reply<List<Enrollment>> getEnrollmentsForStudent(String studentId) {
+            return call(ENROLLMENTS_FOR_STUDENT, o -> putString(o, studentId),
+                    i -> getList(i, ApiProtocol::getEnrollment));
+        }
+
+        public Reply<List<String>> getStudentsForCourse(String courseCode) {
+            return call(STUDENTS_FOR_COURSE, o -> putString(o, courseCode), ApiProtocol::getStrings);
+        }
+
+        public Reply<Enrollment> recordGrade(String studentId, String courseCode, String semester,
+                                             @NonNull GradeType gradeType, double score) {
+            return call(RECORD_GRADE, o -> {
+                putString(o, studentId);
+                putString(o, courseCode);
+                putString(o, semester);
+                putString(o, gradeType.getCode());
+                o.putDouble(score);
+            }, i -> getNullable(i, ApiProtocol::getEnrollment));
+        }
+
+        /**
+         * Sends every queued call with one write and reads all of their responses.
+         *
+         * @throws IllegalStateException if the pipeline was already synced, or the server
+         *         answered out of order.
+         * @throws UncheckedIOException if the connection fails.
+         */
+        public void sync() {
+            if (synced) {
+                throw new IllegalStateException("Pipeline already synced");
+            }
+            synced = true;
+            try {
+                out.flip();
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                in.clear().flip();
+                for (int i = 0; i < replies.size(); i++) {
+                    int length = awaitFrame();
+                    int end = in.position() + 4 + length;
+                    int limit = in.limit();
+                    in.position(in.position() + 4).limit(end);
+                    int id = in.getInt();
+                    if (id != firstId + i) {
+                        throw new IllegalStateException("Response " + id + " out of order, expected " + (firstId + i));
+                    }
+                    complete(replies.get(i), in);
+                    in.limit(limit).position(end);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Server " + address + " unreachable", e);
+            } finally {
+                out.clear();
+            }
+        }
+
+        private <T> Reply<T> call(byte opcode, Body body, Decoder<T> reader) {
+            if (synced) {
+                throw new IllegalStateException("Pipeline already synced");
+            }
+            out = putFrame(out, nextId++, opcode, body);
+            Reply<T> reply = new Reply<>(this, reader);
+            replies.add(reply);
+            return reply;
+        }
+
+        private <T> void complete(Reply<T> reply, ByteBuffer frame) {
+            if (frame.get() == OK) {
+                reply.value = reply.reader.get(frame);
+            } else {
+                reply.error = readError(frame);
+            }
+            reply.done = true;
+        }
+
+        /**
+         * Reads until {@code in} (in read mode) holds a whole frame at its position.
+         *
+         * @return the frame's length, prefix excluded.
+         */
+        private int awaitFrame() throws IOException {
+            while (true) {
+                if (in.remaining() >= 4) {
+                    int length = in.getInt(in.position());
+                    if (length < HEADER || length > MAX_FRAME) {
+                        throw new IOException("Invalid frame length " + length);
+                    }
+                    if (in.remaining() >= 4 + length) {
+                        return length;
+                    }
+                    if (in.capacity() < 4 + length) {
+                        in.compact();
+                        in = grow(in, 4 + length);
+                        in.flip();
+                    }
+                }
+                in.compact();
+                int read = channel.read(in);
+                in.flip();
+                if (read < 0) {
+                    throw new EOFException("Server closed the connection");
+                }
+            }
+        }
+    }
+
+    private static final Decoder<Void> NONE = in -> null;
+}
@@ -0,0 +1,281 @@
+package api;
+
+import codec.ModelCodec;
+import codec.ModelCodecs;
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.Student;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary protocol spoken between an {@link ApiClient} and an {@link ApiServer}.
+ *
+ * <p>Every message is a frame: a 4-byte length, a 4-byte request ID chosen by the client,
+ * a one-byte opcode (request) or status (response), then the body. Responses carry the ID
+ * of their request and come back in request order, so a client may send many requests
+ * before reading any response. Bodies are written straight into (direct) {@link ByteBuffer}s:
+ * strings as a length and UTF-8 bytes (length -1 for null), collections as a count and
+ * their elements, statuses by their codes, and students, courses and enrollments as a
+ * length and their {@link ModelCodecs} encoding.</p>
+ */
+final class ApiProtocol {
+
+    /** Largest frame accepted, length prefix excluded. */
+    static final int MAX_FRAME = 16 * 1024 * 1024;
+
+    /** Request ID and opcode or status, after the length prefix. */
+    static final int HEADER = 5;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    /** Error kinds: rethrown as the same exception type by the client. */
+    static final byte ILLEGAL_ARGUMENT = 1;
+    static final byte ILLEGAL_STATE = 2;
+    static final byte OTHER = 3;
+
+    static final byte PING = 0;
+
+    // Students.
+    static final byte REGISTER_STUDENT = 1;
+    static final byte GET_STUDENT = 2;
+    static final byte SEARCH_STUDENTS = 3;
+    static final byte UPDATE_CONTACT = 4;
+    static final byte UPDATE_ATTRIBUTES = 5;
+    static final byte DELETE_STUDENT = 6;
+
+    // Courses.
+    static final byte CREATE_COURSE = 10;
+    static final byte GET_COURSE = 11;
+    static final byte LIST_COURSES = 12;
+    static final byte DELETE_COURSE = 13;
+
+    // Enrollments.
+    static final byte ENROLL = 20;
+    static final byte DROP = 21;
+    static final byte ENROLLMENTS_FOR_STUDENT = 22;
+    static final byte STUDENTS_FOR_COURSE = 23;
+    static final byte RECORD_GRADE = 24;
+
+    private ApiProtocol() {}
+
+    /**
+     * Writes a message body.
+     */
+    @FunctionalInterface
+    interface Body {
+        void put(ByteBuffer out);
+    }
+
+    @FunctionalInterface
+    interface Encoder<T> {
+        void put(ByteBuffer out, T value);
+    }
+
+    @FunctionalInterface
+    interface Decoder<T> {
+        T get(ByteBuffer in);
+    }
+
+    static final Body EMPTY = out -> {};
+
+    /**
+     * Appends a frame to a buffer in write mode, growing the buffer if the frame does
+     * not fit.
+     *
+     * @return the buffer holding the frame: {@code out} or a larger copy of it.
+     * @throws IllegalArgumentException if the frame would exceed {@link #MAX_FRAME}.
+     */
+    static ByteBuffer putFrame(ByteBuffer out, int id, byte head, Body body) {
+        while (true) {
+            int start = out.position();
+            try {
+                out.putInt(0).putInt(id).put(head);
+                body.put(out);
+                out.putInt(start, out.position() - start - 4);
+                return out;
+            } catch (BufferOverflowException e) {
+                out.position(start);
+                if (out.capacity() - start > MAX_FRAME) {
+                    throw new IllegalArgumentException("Frame exceeds " + MAX_FRAME + " bytes");
+                }
+                out = grow(out, out.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * @return a direct buffer of at least {@code capacity} bytes holding the data of
+     *         {@code buffer} (in write mode: everything before its position).
+     */
+    static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /**
+     * @return an error body describing the exception.
+     */
+    static Body error(RuntimeException e) {
+        byte kind = e instanceof IllegalArgumentException ? ILLEGAL_ARGUMENT
+                : e instanceof IllegalStateException ? ILLEGAL_STATE : OTHER;
+        String message = kind == OTHER ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getMessage();
+        return out -> {
+            out.put(kind);
+            putString(out, message);
+        };
+    }
+
+    /**
+     * @return the exception an error body describes.
+     */
+    static RuntimeException readError(ByteBuffer in) {
+        byte kind = in.get();
+        String message = getString(in);
+        if (kind == ILLEGAL_ARGUMENT) return new IllegalArgumentException(message);
+        if (kind == ILLEGAL_STATE) return new IllegalStateException(message);
+        return new IllegalStateException("Server failed: " + message);
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds frame");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putStrings(ByteBuffer out, Collection<String> values) {
+        putList(out, values, ApiProtocol::putString);
+    }
+
+    static List<String> getStrings(ByteBuffer in) {
+        return getList(in, ApiProtocol::getString);
+    }
+
+    static <T> void putList(ByteBuffer out, Collection<T> values, Encoder<T> encoder) {
+        out.putInt(values.size());
+        for (T value : values) {
+            encoder.put(out, value);
+        }
+    }
+
+    static <T> List<T> getList(ByteBuffer in, Decoder<T> decoder) {
+        int size = in.getInt();
+        if (size < 0 || size > in.remaining()) {
+            throw new IllegalArgumentException("List size " + size + " exceeds frame");
+        }
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(decoder.get(in));
+        }
+        return values;
+    }
+
+    /**
+     * Writes a nullable value as a presence byte followed by the value.
+     */
+    static <T> void putNullable(ByteBuffer out, T value, Encoder<T> encoder) {
+        out.put((byte) (value == null ? 0 : 1));
+        if (value != null) encoder.put(out, value);
+    }
+
+    static <T> T getNullable(ByteBuffer in, Decoder<T> decoder) {
+        return in.get() == 0 ? null : decoder.get(in);
+    }
+
+    static void putMap(ByteBuffer out, Map<String, String> map) {
+        Map<String, String> entries = map == null ? Map.of() : map;
+        out.putInt(entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            putString(out, entry.getKey());
+            putString(out, entry.getValue());
+        }
+    }
+
+    static Map<String, String> getMap(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0 || size > in.remaining()) {
+            throw new IllegalArgumentException("Map size " + size + " exceeds frame");
+        }
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(getString(in), getString(in));
+        }
+        return map;
+    }
+
+    static void putStatus(ByteBuffer out, EnrollmentStatus status) {
+        putString(out, status == null ? null : status.getCode());
+    }
+
+    static EnrollmentStatus getStatus(ByteBuffer in) {
+        String code = getString(in);
+        return code == null ? null : EnrollmentStatus.fromCode(code);
+    }
+
+    /**
+     * Writes a value in its {@link ModelCodec} form, prefixed with its length.
+     */
+    static <T> void putModel(ByteBuffer out, ModelCodec<T> codec, T value) {
+        byte[] bytes = codec.encode(value);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    static <T> T getModel(ByteBuffer in, ModelCodec<T> codec) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Record length " + length + " exceeds frame");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return codec.decode(bytes);
+    }
+
+    static void putStudent(ByteBuffer out, Student student) {
+        putModel(out, ModelCodecs.STUDENT, student);
+    }
+
+    static Student getStudent(ByteBuffer in) {
+        return getModel(in, ModelCodecs.STUDENT);
+    }
+
+    static void putCourse(ByteBuffer out, Course course) {
+        putModel(out, ModelCodecs.COURSE, course);
+    }
+
+    static Course getCourse(ByteBuffer in) {
+        return getModel(in, ModelCodecs.COURSE);
+    }
+
+    static void putEnrollment(ByteBuffer out, Enrollment enrollment) {
+        putModel(out, ModelCodecs.ENROLLMENT, enrollment);
+    }
+
+    static Enrollment getEnrollment(ByteBuffer in) {
+        return getModel(in, ModelCodecs.ENROLLMENT);
+    }
+}
@@ -0,0 +1,471 @@
+package api;
+
+import lombok.Getter;
+import lombok.NonNull;
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+import service.CourseService;
+import service.EnrollmentService;
+import service.StudentService;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static api.ApiProtocol.*;
+
+/**
+ * Non-blocking server of the {@link ApiProtocol} for high-volume internal clients.
+ *
+ * <p>Threading: a fixed set of event loops, each a {@link Selector} thread owning its
+ * connections; the first loop also accepts and deals new connections out round-robin. A
+ * loop reads whatever has arrived on a connection, runs every complete request in it, in
+ * order, straight against the {@link ServiceGraph}'s services, and writes all of their
+ * responses with one write. Clients may therefore pipeline: send many requests, then read
+ * the responses, which come back in request order.</p>
+ *
+ * <p>Buffers are direct and per connection; they grow to fit the largest frame seen. A
+ * connection whose unsent responses exceed {@link #HIGH_WATER_MARK} is not read until
+ * they drain, so a client that never reads cannot grow the server's memory.</p>
+ *
+ * <p>Requests run on the loop thread, which suits the in-memory backends. Run a server
+ * in its own process with {@code java api.ApiServer [port] [storage.properties]}.
+ * Closing the server stops serving; the service graph belongs to the caller.</p>
+ */
+public class ApiServer implements AutoCloseable {
+
+    /** Initial size of each connection's buffers. */
+    static final int INITIAL_BUFFER = 64 * 1024;
+
+    /** Unsent response bytes above which a connection is not read. */
+    static final int HIGH_WATER_MARK = 4 * 1024 * 1024;
+
+    @Getter
+    private final ServiceGraph services;
+
+    /** The {@code host:port} the server listens on. */
+    @Getter
+    private final String address;
+
+    private final ServerSocketChannel server;
+
+    private final EventLoop[] loops;
+
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Listens on a loopback port with one event loop per processor.
+     *
+     * @param services the services requests call into.
+     * @param port the port, or 0 for any free port.
+     * @throws UncheckedIOException if the port cannot be bound.
+     */
+    public ApiServer(@NonNull ServiceGraph services, int port) {
+        this(services, new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param bindAddress the address to listen on.
+     * @param eventLoops number of selector threads.
+     * @throws IllegalArgumentException if {@code eventLoops} is not positive.
+     * @throws UncheckedIOException if the address cannot be bound.
+     */
+    public ApiServer(@NonNull ServiceGraph services, @NonNull InetSocketAddress bindAddress, int eventLoops) {
+        if (eventLoops <= 0) {
+            throw new IllegalArgumentException("Event loop count must be positive");
+        }
+        this.services = services;
+        try {
+            this.server = ServerSocketChannel.open();
+            server.bind(bindAddress, 128);
+            server.configureBlocking(false);
+            InetSocketAddress local = (InetSocketAddress) server.getLocalAddress();
+            this.address = local.getAddress().getHostAddress() + ":" + local.getPort();
+            this.loops = new EventLoop[eventLoops];
+            for (int i = 0; i < eventLoops; i++) {
+                loops[i] = new EventLoop("api-loop-" + local.getPort() + "-" + i);
+            }
+            server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind " + bindAddress, e);
+        }
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+    }
+
+    /**
+     * @return requests executed so far.
+     */
+    public long requestsServed() {
+        return requests.sum();
+    }
+
+    /**
+     * @return socket writes issued so far; below {@link #requestsServed} when responses
+     *         to pipelined requests were batched.
+     */
+    public long responseWrites() {
+        return writes.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // Already closed.
+        }
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (EventLoop loop : loops) {
+            try {
+                loop.thread.join(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs a server in this process until it is killed.
+     *
+     * <p>Usage: {@code java api.ApiServer [port] [storage.properties]}. Prints
+     * {@code API server listening on <host:port>} once it accepts connections.</p>
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        StorageConfig config = args.length > 1 ? StorageConfig.load(Path.of(args[1]))
+                : StorageConfig.backend(StorageConfig.DEFAULT_BACKEND);
+        ServiceGraph services = StorageFactory.open(config);
+        ApiServer server = new ApiServer(services, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            services.close();
+        }));
+        System.out.println("API server listening on " + server.getAddress());
+        System.out.flush();
+        new CountDownLatch(1).await();
+    }
+
+    /**
+     * Runs one request.
+     *
+     * @return the response body; the request's failure is thrown.
+     */
+    private Body execute(byte opcode, ByteBuffer in) {
+        StudentService students = services.getStudentService();
+        CourseService courses = services.getCourseService();
+        EnrollmentService enrollments = services.getEnrollmentService();
+        return switch (opcode) {
+            case PING -> EMPTY;
+            case REGISTER_STUDENT -> {
+                students.registerStudent(getStudent(in));
+                yield EMPTY;
+            }
+            case GET_STUDENT -> {
+                Student student = students.getStudentById(getString(in));
+                yield out -> putNullable(out, student, ApiProtocol::putStudent);
+            }
+            case SEARCH_STUDENTS -> {
+                List<Student> found = students.searchStudentsByName(getString(in));
+                yield out -> putList(out, found, ApiProtocol::putStudent);
+            }
+            case UPDATE_CONTACT -> {
+                students.updateContact(getString(in), getString(in), getString(in));
+                yield EMPTY;
+            }
+            case UPDATE_ATTRIBUTES -> {
+                String id = getString(in);
+                Map<String, String> attributes = getMap(in);
+                students.updateAttributes(id, attributes);
+                yield EMPTY;
+            }
+            case DELETE_STUDENT -> {
+                students.deleteStudent(getString(in));
+                yield EMPTY;
+            }
+            case CREATE_COURSE -> {
+                courses.createCourse(getCourse(in));
+                yield EMPTY;
+            }
+            case GET_COURSE -> {
+                Course course = courses.getCourseByCode(getString(in));
+                yield out -> putNullable(out, course, ApiProtocol::putCourse);
+            }
+            case LIST_COURSES -> {
+                List<Course> found = courses.listCoursesByDepartment(getString(in));
+                yield out -> putList(out, found, ApiProtocol::putCourse);
+            }
+            case DELETE_COURSE -> {
+                courses.deleteCourse(getString(in));
+                yield EMPTY;
+            }
+            case ENROLL -> {
+                String requestId = getString(in);
+                String studentId = getString(in);
+                String courseCode = getString(in);
+                String semester = getString(in);
+                EnrollmentStatus status = requestId == null
+                        ? enrollments.enrollStudent(studentId, courseCode, semester)
+                        : enrollments.enrollStudent(requestId, studentId, courseCode, semester);
+                yield out -> putStatus(out, status);
+            }
+            case DROP -> {
+                String requestId = getString(in);
+                String studentId = getString(in);
+                String courseCode = getString(in);
+                String semester = getString(in);
+                if (requestId == null) {
+                    enrollments.dropStudent(studentId, courseCode, semester);
+                } else {
+                    enrollments.dropStudent(requestId, studentId, courseCode, semester);
+                }
+                yield EMPTY;
+            }
+            case ENROLLMENTS_FOR_STUDENT -> {
+                List<Enrollment> found = enrollments.getEnrollmentsForStudent(getString(in));
+                yield out -> putList(out, found, ApiProtocol::putEnrollment);
+            }
+            case STUDENTS_FOR_COURSE -> {
+                List<String> found = enrollments.getStudentsForCourse(getString(in));
+                yield out -> putStrings(out, found);
+            }
+            case RECORD_GRADE -> {
+                String studentId = getString(in);
+                String courseCode = getString(in);
+                String semester = getString(in);
+                GradeType gradeType = GradeType.fromCode(getString(in));
+                double score = in.getDouble();
+                Enrollment graded = enrollments.recordGrade(studentId, courseCode, semester, gradeType, score);
+                yield out -> putNullable(out, graded, ApiProtocol::putEnrollment);
+            }
+            default -> throw new IllegalArgumentException("Unknown opcode " + opcode);
+        };
+    }
+
+    /**
+     * A selector thread and the connections registered with it.
+     */
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+
+        private final Thread thread;
+
+        /** Connections accepted by the first loop, waiting to be registered here. */
+        private final Queue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+
+        EventLoop(String name) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        void assign(SocketChannel channel) {
+            incoming.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    registerIncoming();
+                    Iterator<SelectionKey> ready = selector.selectedKeys().iterator();
+                    while (ready.hasNext()) {
+                        SelectionKey key = ready.next();
+                        ready.remove();
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            ((Connection) key.attachment()).onReady(key);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // Closing.
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection connection) connection.close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Nothing left to release.
+                }
+            }
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)].assign(channel);
+            }
+        }
+
+        private void registerIncoming() {
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                try {
+                    Connection connection = new Connection(channel);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                }
+            }
+        }
+    }
+
+    /**
+     * One client connection: its unparsed input and unsent responses.
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+
+        private SelectionKey key;
+
+        /** Received bytes not yet parsed, in write mode. */
+        private ByteBuffer in = ByteBuffer.allocateDirect(INITIAL_BUFFER);
+
+        /** Responses not yet sent, in write mode. */
+        private ByteBuffer out = ByteBuffer.allocateDirect(INITIAL_BUFFER);
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void onReady(SelectionKey key) {
+            try {
+                if (key.isWritable()) {
+                    flush();
+                }
+                if (key.isValid() && key.isReadable()) {
+                    read();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void read() throws IOException {
+            int read = channel.read(in);
+            if (read < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            while (in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < HEADER || length > MAX_FRAME) {
+                    close(); // Not a client of this protocol.
+                    return;
+                }
+                if (in.remaining() < 4 + length) {
+                    if (in.capacity() < 4 + length) {
+                        in.compact();
+                        in = grow(in, 4 + length);
+                        in.flip();
+                    }
+                    break;
+                }
+                int end = in.position() + 4 + length;
+                int limit = in.limit();
+                in.position(in.position() + 4).limit(end);
+                respond();
+                in.limit(limit).position(end);
+            }
+            in.compact();
+            flush();
+        }
+
+        /**
+         * Runs the request framed in {@code in} and appends its response to {@code out}.
+         */
+        private void respond() {
+            int id = in.getInt();
+            byte opcode = in.get();
+            byte status = OK;
+            Body body;
+            try {
+                body = execute(opcode, in);
+            } catch (BufferUnderflowException e) {
+                status = ERROR;
+                body = error(new IllegalArgumentException("Malformed request"));
+            } catch (RuntimeException e) {
+                status = ERROR;
+                body = error(e);
+            }
+            requests.increment();
+            try {
+                out = putFrame(out, id, status, body);
+            } catch (IllegalArgumentException e) {
+                out = putFrame(out, id, ERROR, error(new IllegalStateException("Response too large")));
+            }
+        }
+
+        private void flush() throws IOException {
+            if (out.position() > 0) {
+                out.flip();
+                channel.write(out);
+                out.compact();
+                writes.increment();
+            }
+            int pending = out.position();
+            int interest = pending > HIGH_WATER_MARK ? 0 : SelectionKey.OP_READ;
+            if (pending > 0) interest |= SelectionKey.OP_WRITE;
+            key.interestOps(interest);
+        }
+
+        void close() {
+            key.cancel();
+            closeQuietly(channel);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already closed.
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import api.ApiClient;
+import api.ApiServer;
+import model.Student;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+
+/**
+ * Measures student lookups through the binary {@link ApiServer} one round trip at a time
+ * against pipelines of growing depth, over a loopback connection.
+ *
+ * <p>Without pipelining every lookup pays a full round trip (two socket writes, two
+ * wake-ups). A pipeline of N lookups is sent with one write and answered with about
+ * one, so throughput should grow with the depth until encoding dominates.</p>
+ *
+ * <p>Usage: {@code java benchmark.ApiPipelineReport [students] [maxDepth]}</p>
+ */
+public final class ApiPipelineReport {
+
+    private ApiPipelineReport() {}
+
+    /**
+     * Throughput at one pipeline depth.
+     *
+     * @param depth lookups per round trip (1 = no pipelining).
+     * @param lookups lookups made.
+     * @param millis wall-clock time of the run.
+     */
+    public record Result(int depth, int lookups, long millis) {
+
+        /** @return lookups per second. */
+        public double lookupsPerSecond() {
+            return millis == 0 ? 0 : lookups * 1000.0 / millis;
+        }
+    }
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+        try (ServiceGraph services = StorageFactory.open(StorageConfig.backend(StorageConfig.DEFAULT_BACKEND));
+             ApiServer server = new ApiServer(services, 0);
+             ApiClient client = new ApiClient(server.getAddress())) {
+            load(client, students);
+            measure(client, students, 1); // Warm-up.
+            System.out.printf("%8s %10s %10s %14s%n", "depth", "lookups", "time (ms)", "lookups/s");
+            for (int depth = 1; depth <= maxDepth; depth *= 4) {
+                Result r = measure(client, students, depth);
+                System.out.printf("%8d %10d %10d %14.0f%n", r.depth(), r.lookups(), r.millis(), r.lookupsPerSecond());
+            }
+        }
+    }
+
+    /**
+     * Looks every student up once, {@code depth} lookups per round trip.
+     */
+    public static Result measure(ApiClient client, int students, int depth) {
+        long start = System.nanoTime();
+        for (int first = 0; first < students; first += depth) {
+            ApiClient.Pipeline pipeline = client.pipeline();
+            for (int i = first; i < Math.min(students, first + depth); i++) {
+                pipeline.getStudent("S" + i);
+            }
+            pipeline.sync();
+        }
+        return new Result(depth, students, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void load(ApiClient client, int students) {
+        ApiClient.Pipeline pipeline = client.pipeline();
+        for (int i = 0; i < students; i++) {
+            Student student = new Student();
+            student.setId("S" + i);
+            student.setFullName("Student " + i);
+            student.setEmail("s" + i + "@example.edu");
+            pipeline.registerStudent(student);
+            if (pipeline.size() == 1_000) {
+                pipeline.sync();
+                pipeline = client.pipeline();
+            }
+        }
+        pipeline.sync();
+    }
+}
@@ -0,0 +1,158 @@
+package benchmark;
+
+import codec.BinaryWriter;
+import codec.ModelCodecs;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares {@link ModelCodecs#STUDENT} with Java serialization: encoded size, encode time
+ * and decode time for students carrying a few enrollments each.
+ *
+ * <p>The models are not {@link Serializable}, so the Java side serializes records mirroring
+ * the same fields; each object is written with its own stream, as a cache or replication
+ * path writing one record at a time would.</p>
+ *
+ * <p>Usage: {@code java benchmark.CodecComparisonReport [students] [rounds]}</p>
+ */
+public final class CodecComparisonReport {
+
+    private static final String[] COURSES = {"CS101", "MA201", "PH110", "EN105", "HI220"};
+
+    private CodecComparisonReport() {}
+
+    /**
+     * Cost of one encoding over the sample.
+     *
+     * @param format the format measured.
+     * @param bytes total encoded size.
+     * @param encodeNanos time to encode every student once.
+     * @param decodeNanos time to decode every student once.
+     */
+    public record Result(String format, long bytes, long encodeNanos, long decodeNanos) {}
+
+    record SerializableEnrollment(String studentId, String courseCode, String semester, EnrollmentStatus status,
+                                  EnumMap<GradeType, Double> grades, BitSet attendance, long version)
+            implements Serializable {}
+
+    record SerializableStudent(String id, String fullName, String email, String phone,
+                               List<SerializableEnrollment> enrolledCourses, HashMap<String, String> attributes,
+                               long version) implements Serializable {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<Student> students = sample(count);
+
+        Result codec = null;
+        Result java = null;
+        for (int round = 0; round < rounds; round++) { // Later rounds run warm.
+            codec = measureCodec(students);
+            java = measureJavaSerialization(students);
+        }
+        System.out.printf("students=%d%n", count);
+        System.out.printf("%-10s %12s %12s %14s %14s%n", "format", "bytes", "bytes/rec", "encode ns/rec", "decode ns/rec");
+        for (Result r : new Result[]{codec, java}) {
+            System.out.printf("%-10s %12d %12d %14d %14d%n", r.format(), r.bytes(), r.bytes() / count,
+                    r.encodeNanos() / count, r.decodeNanos() / count);
+        }
+    }
+
+    public static Result measureCodec(List<Student> students) {
+        BinaryWriter out = new BinaryWriter(1024);
+        List<byte[]> encoded = new ArrayList<>(students.size());
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (Student student : students) {
+            ModelCodecs.STUDENT.encode(out.reset(), student);
+            encoded.add(out.toByteArray());
+        }
+        long encodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (byte[] record : encoded) {
+            bytes += ModelCodecs.STUDENT.decode(record).getVersion() >= 0 ? record.length : 0;
+        }
+        return new Result("codec", bytes, encodeNanos, System.nanoTime() - start);
+    }
+
+    public static Result measureJavaSerialization(List<Student> students) {
+        try {
+            List<byte[]> encoded = new ArrayList<>(students.size());
+            long bytes = 0;
+            long start = System.nanoTime();
+            for (Student student : students) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+                try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+                    out.writeObject(mirror(student));
+                }
+                encoded.add(buffer.toByteArray());
+            }
+            long encodeNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (byte[] record : encoded) {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+                    bytes += ((SerializableStudent) in.readObject()).version() >= 0 ? record.length : 0;
+                }
+            }
+            return new Result("java", bytes, encodeNanos, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return students with 4 enrollments, 2 grades each, a term of attendance and 3 attributes.
+     */
+    public static List<Student> sample(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Set<Enrollment> enrollments = new LinkedHashSet<>();
+            for (int c = 0; c < 4; c++) {
+                Map<GradeType, Double> grades = new EnumMap<>(GradeType.class);
+                grades.put(GradeType.MIDTERM, 60.0 + (i + c) % 40);
+                grades.put(GradeType.FINAL, 55.5 + (i * c) % 45);
+                BitSet attendance = new BitSet();
+                for (int day = 0; day < 28; day++) {
+                    if ((i + day) % 7 != 0) attendance.set(day);
+                }
+                enrollments.add(new Enrollment("S" + i, COURSES[(i + c) % COURSES.length], "Fall 2025",
+                        EnrollmentStatus.ENROLLED, grades, attendance, 3));
+            }
+            Map<String, String> attributes = new HashMap<>(Map.of("year", String.valueOf(1 + i % 4),
+                    "major", "Computer Science", "advisor", "I" + i % 50));
+            students.add(new Student("S" + i, "Student Number " + i, "student" + i + "@example.edu",
+                    "555-" + (1000 + i % 9000), enrollments, attributes, 7));
+        }
+        return students;
+    }
+
+    private static SerializableStudent mirror(Student student) {
+        List<SerializableEnrollment> enrollments = new ArrayList<>();
+        for (Enrollment e : student.getEnrolledCourses()) {
+            enrollments.add(new SerializableEnrollment(e.getStudentId(), e.getCourseCode(), e.getSemester(),
+                    e.getStatus(), new EnumMap<>(e.getGrades()), e.getAttendance(), e.getVersion()));
+        }
+        return new SerializableStudent(student.getId(), student.getFullName(), student.getEmail(), student.getPhone(),
+                enrollments, new HashMap<>(student.getAttributes()), student.getVersion());
+    }
+}
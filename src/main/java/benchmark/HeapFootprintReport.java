@@ -0,0 +1,167 @@
+package benchmark;
+
+import model.Course;
+import model.Student;
+import repository.InMemoryCourseRepository;
+import repository.InMemoryEnrollmentRepository;
+import repository.InMemoryStudentRepository;
+import repository.StorageContext;
+import repository.StorageMode;
+
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the retained heap of the {@link StorageMode#STANDARD} and
+ * {@link StorageMode#DICTIONARY_ENCODED} layouts on a synthetic dataset, and of the
+ * dictionary-encoded layout with every past semester frozen
+ * ({@link InMemoryEnrollmentRepository#freezeSemester}).
+ *
+ * <p>Every string in the dataset is built at runtime, the way values arrive from
+ * a request parser or a database driver, so the standard layout holds one copy
+ * per record, as it would in production.</p>
+ *
+ * <p>Usage: {@code java benchmark.HeapFootprintReport [students] [enrollmentsPerStudent]}</p>
+ */
+public final class HeapFootprintReport {
+
+    private static final String[] ATTRIBUTE_KEYS = {"nationality", "guardianName", "program", "residence", "scholarship"};
+    private static final String[] DEPARTMENTS = {"CS", "MATH", "PHYS", "CHEM", "BIO", "ECON", "HIST", "ENG"};
+    private static final String[] TERMS = {"Fall", "Spring", "Summer"};
+    private static final int COURSES_PER_DEPARTMENT = 40;
+
+    private HeapFootprintReport() {}
+
+    /**
+     * Measured footprint of one storage mode.
+     *
+     * @param mode the storage mode measured.
+     * @param students number of students loaded.
+     * @param enrollments number of enrollments loaded.
+     * @param pastTermsFrozen whether every semester but the latest was frozen.
+     * @param retainedBytes heap retained by the repositories after a full GC.
+     */
+    public record Result(StorageMode mode, int students, int enrollments, boolean pastTermsFrozen, long retainedBytes) {
+
+        /** @return average retained bytes per enrollment (students included). */
+        public double bytesPerEnrollment() {
+            return enrollments == 0 ? 0 : (double) retainedBytes / enrollments;
+        }
+    }
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int perStudent = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+
+        Result standard = measure(StorageMode.STANDARD, students, perStudent);
+        Result encoded = measure(StorageMode.DICTIONARY_ENCODED, students, perStudent);
+        Result frozen = measure(StorageMode.DICTIONARY_ENCODED, students, perStudent, true);
+
+        System.out.printf("%-20s %8s %12s %14s %16s %12s%n", "mode", "frozen", "students", "enrollments", "retained (MB)", "B/enroll");
+        for (Result r : new Result[]{standard, encoded, frozen}) {
+            System.out.printf("%-20s %8s %12d %14d %16.1f %12.1f%n", r.mode(), r.pastTermsFrozen(),
+                    r.students(), r.enrollments(), r.retainedBytes() / (1024.0 * 1024.0), r.bytesPerEnrollment());
+        }
+        if (encoded.retainedBytes() > 0) {
+            System.out.printf("reduction: %.2fx%n", (double) standard.retainedBytes() / encoded.retainedBytes());
+        }
+        if (frozen.retainedBytes() > 0) {
+            System.out.printf("reduction with past terms frozen: %.2fx%n", (double) standard.retainedBytes() / frozen.retainedBytes());
+        }
+    }
+
+    /**
+     * Loads a synthetic dataset into fresh repositories and measures the heap they retain.
+     *
+     * @param mode the storage mode to use.
+     * @param students number of students to create.
+     * @param enrollmentsPerStudent enrollments to create per student.
+     * @return the measurement.
+     */
+    public static Result measure(StorageMode mode, int students, int enrollmentsPerStudent) {
+        return measure(mode, students, enrollmentsPerStudent, false);
+    }
+
+    /**
+     * Loads a synthetic dataset into fresh repositories, optionally freezes every semester
+     * but the latest, and measures the heap they retain.
+     *
+     * @param mode the storage mode to use.
+     * @param students number of students to create.
+     * @param enrollmentsPerStudent enrollments to create per student.
+     * @param freezePastTerms whether to freeze every semester but the latest.
+     * @return the measurement.
+     */
+    public static Result measure(StorageMode mode, int students, int enrollmentsPerStudent, boolean freezePastTerms) {
+        long before = usedHeapAfterGc();
+
+        StorageContext context = StorageContext.builder().mode(mode).build();
+        InMemoryStudentRepository studentRepository = new InMemoryStudentRepository(context);
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository(context);
+        InMemoryEnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(context);
+
+        int courseCount = DEPARTMENTS.length * COURSES_PER_DEPARTMENT;
+        for (int c = 0; c < courseCount; c++) {
+            Course course = new Course();
+            course.setCode(courseCode(c));
+            course.setTitle("Course " + c);
+            course.setCredits(3);
+            course.setDepartment(new String(DEPARTMENTS[c % DEPARTMENTS.length]));
+            courseRepository.createCourse(course);
+        }
+
+        for (int s = 0; s < students; s++) {
+            String id = "S" + s;
+            Map<String, String> attributes = new HashMap<>();
+            for (int k = 0; k < ATTRIBUTE_KEYS.length; k++) {
+                attributes.put(new String(ATTRIBUTE_KEYS[k]), "v" + ((s + k) % 50));
+            }
+            Student student = new Student();
+            student.setId(id);
+            student.setFullName("Student " + s);
+            student.setEmail(id + "@example.edu");
+            student.setAttributes(attributes);
+            studentRepository.createStudent(student);
+
+            for (int e = 0; e < enrollmentsPerStudent; e++) {
+                enrollmentRepository.enroll(id, courseCode((s * 31 + e * 7) % courseCount), semester(e));
+            }
+        }
+        if (freezePastTerms) {
+            for (int e = 0; e < enrollmentsPerStudent - 1; e++) {
+                enrollmentRepository.freezeSemester(semester(e));
+            }
+        }
+
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(studentRepository);
+        Reference.reachabilityFence(courseRepository);
+        Reference.reachabilityFence(enrollmentRepository);
+        return new Result(mode, students, students * enrollmentsPerStudent, freezePastTerms, Math.max(0, after - before));
+    }
+
+    private static String semester(int term) {
+        return TERMS[term % TERMS.length] + " " + (2020 + term / TERMS.length);
+    }
+
+    private static String courseCode(int index) {
+        return DEPARTMENTS[index % DEPARTMENTS.length] + (100 + index / DEPARTMENTS.length);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,203 @@
+package benchmark;
+
+import model.Course;
+import model.Student;
+import repository.CourseRepository;
+import repository.EnrollmentRepository;
+import repository.InMemoryCourseRepository;
+import repository.InMemoryEnrollmentRepository;
+import repository.InMemoryStudentRepository;
+import repository.JdbcCourseRepository;
+import repository.JdbcDatabase;
+import repository.JdbcEnrollmentRepository;
+import repository.JdbcStudentRepository;
+import repository.StudentRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares the in-memory repositories with the JDBC repositories (H2, file-backed) on the
+ * same synthetic dataset: bulk-loading students, point reads by ID, department listings
+ * and enrollments.
+ *
+ * <p>The JDBC side loads students and courses through the batched
+ * {@link JdbcStudentRepository#createStudents} and {@link JdbcCourseRepository#createCourses};
+ * every other call goes through the interfaces, one transaction each. The database lives
+ * in a temporary directory removed at the end.</p>
+ *
+ * <p>Usage: {@code java benchmark.JdbcComparisonReport [students] [enrollmentsPerStudent]}</p>
+ */
+public final class JdbcComparisonReport {
+
+    private static final String[] DEPARTMENTS = {"CS", "MATH", "PHYS", "CHEM", "BIO", "ECON", "HIST", "ENG"};
+    private static final int COURSES_PER_DEPARTMENT = 40;
+
+    private JdbcComparisonReport() {}
+
+    /**
+     * Timings of one backend, in milliseconds per phase.
+     *
+     * @param backend the backend measured.
+     * @param students number of students loaded and read back.
+     * @param enrollments number of enrollments made.
+     * @param loadMillis time to create the courses and students.
+     * @param readMillis time to read every student by ID.
+     * @param listMillis time to list every department's courses {@code students / 100} times.
+     * @param enrollMillis time to make every enrollment.
+     */
+    public record Result(String backend, int students, int enrollments,
+                         long loadMillis, long readMillis, long listMillis, long enrollMillis) {
+
+        /** @return average microseconds per point read. */
+        public double microsPerRead() {
+            return students == 0 ? 0 : readMillis * 1000.0 / students;
+        }
+
+        /** @return average microseconds per enrollment. */
+        public double microsPerEnrollment() {
+            return enrollments == 0 ? 0 : enrollMillis * 1000.0 / enrollments;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int perStudent = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        Result inMemory = measureInMemory(students, perStudent);
+        Path directory = Files.createTempDirectory("sms-jdbc");
+        Result jdbc;
+        try {
+            jdbc = measureJdbc(directory.resolve("sms"), students, perStudent);
+        } finally {
+            deleteRecursively(directory);
+        }
+
+        System.out.printf("%-10s %10s %12s %10s %10s %10s %10s %12s %12s%n", "backend", "students", "enrollments",
+                "load (ms)", "read (ms)", "list (ms)", "enroll (ms)", "us/read", "us/enroll");
+        for (Result r : new Result[]{inMemory, jdbc}) {
+            System.out.printf("%-10s %10d %12d %10d %10d %10d %10d %12.1f %12.1f%n", r.backend(), r.students(),
+                    r.enrollments(), r.loadMillis(), r.readMillis(), r.listMillis(), r.enrollMillis(),
+                    r.microsPerRead(), r.microsPerEnrollment());
+        }
+    }
+
+    /**
+     * Runs the workload against fresh in-memory repositories.
+     *
+     * @param students number of students to create.
+     * @param enrollmentsPerStudent enrollments to make per student.
+     * @return the measurement.
+     */
+    public static Result measureInMemory(int students, int enrollmentsPerStudent) {
+        InMemoryStudentRepository studentRepository = new InMemoryStudentRepository();
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository();
+        long start = System.nanoTime();
+        courses().forEach(courseRepository::createCourse);
+        students(students).forEach(studentRepository::createStudent);
+        long loadMillis = millisSince(start);
+        return run("in-memory", studentRepository, courseRepository, new InMemoryEnrollmentRepository(),
+                students, enrollmentsPerStudent, loadMillis);
+    }
+
+    /**
+     * Runs the workload against fresh JDBC repositories sharing one database file.
+     *
+     * @param file the database file to create.
+     * @param students number of students to create.
+     * @param enrollmentsPerStudent enrollments to make per student.
+     * @return the measurement.
+     */
+    public static Result measureJdbc(Path file, int students, int enrollmentsPerStudent) {
+        try (JdbcDatabase database = JdbcDatabase.file(file)) {
+            JdbcStudentRepository studentRepository = new JdbcStudentRepository(database);
+            JdbcCourseRepository courseRepository = new JdbcCourseRepository(database);
+            JdbcEnrollmentRepository enrollmentRepository = new JdbcEnrollmentRepository(database);
+            long start = System.nanoTime();
+            courseRepository.createCourses(courses());
+            studentRepository.createStudents(students(students));
+            long loadMillis = millisSince(start);
+            return run("jdbc", studentRepository, courseRepository, enrollmentRepository,
+                    students, enrollmentsPerStudent, loadMillis);
+        }
+    }
+
+    private static Result run(String backend, StudentRepository studentRepository, CourseRepository courseRepository,
+                              EnrollmentRepository enrollmentRepository, int students, int enrollmentsPerStudent,
+                              long loadMillis) {
+        long start = System.nanoTime();
+        for (int s = 0; s < students; s++) {
+            studentRepository.getById("S" + s);
+        }
+        long readMillis = millisSince(start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < Math.max(1, students / 100); i++) {
+            courseRepository.listByDepartment(DEPARTMENTS[i % DEPARTMENTS.length]);
+        }
+        long listMillis = millisSince(start);
+
+        int courseCount = DEPARTMENTS.length * COURSES_PER_DEPARTMENT;
+        start = System.nanoTime();
+        for (int s = 0; s < students; s++) {
+            for (int e = 0; e < enrollmentsPerStudent; e++) {
+                enrollmentRepository.enroll("S" + s, courseCode((s * 31 + e * 7) % courseCount), "Fall 2025");
+            }
+        }
+        long enrollMillis = millisSince(start);
+
+        return new Result(backend, students, students * enrollmentsPerStudent,
+                loadMillis, readMillis, listMillis, enrollMillis);
+    }
+
+    private static List<Course> courses() {
+        List<Course> courses = new ArrayList<>();
+        for (int c = 0; c < DEPARTMENTS.length * COURSES_PER_DEPARTMENT; c++) {
+            Course course = new Course();
+            course.setCode(courseCode(c));
+            course.setTitle("Course " + c);
+            course.setCredits(3);
+            course.setDepartment(DEPARTMENTS[c % DEPARTMENTS.length]);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    private static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>();
+        for (int s = 0; s < count; s++) {
+            Student student = new Student();
+            student.setId("S" + s);
+            student.setFullName("Student " + s);
+            student.setEmail("S" + s + "@example.edu");
+            students.add(student);
+        }
+        return students;
+    }
+
+    private static String courseCode(int index) {
+        return DEPARTMENTS[index % DEPARTMENTS.length] + (100 + index / DEPARTMENTS.length);
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
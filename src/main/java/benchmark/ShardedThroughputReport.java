@@ -0,0 +1,121 @@
+package benchmark;
+
+import model.Student;
+import repository.EnrollmentRepository;
+import repository.InMemoryEnrollmentRepository;
+import repository.InMemoryStudentRepository;
+import repository.ShardedEnrollmentRepository;
+import repository.ShardedStudentRepository;
+import repository.StorageContext;
+import repository.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures write throughput of the unsharded in-memory repositories against the sharded
+ * ones as the number of writer threads grows: every thread creates its own students and
+ * enrolls each of them into several courses.
+ *
+ * <p>The sharded repositories use one shard per core. Throughput of the sharded side
+ * should grow close to linearly up to the number of cores; with fewer cores than writer
+ * threads both sides are bound by the CPU and the sharded side additionally pays a
+ * thread hand-off per write.</p>
+ *
+ * <p>Usage: {@code java benchmark.ShardedThroughputReport [studentsPerThread] [maxThreads]}</p>
+ */
+public final class ShardedThroughputReport {
+
+    private static final int ENROLLMENTS_PER_STUDENT = 4;
+    private static final int COURSES = 320;
+
+    private ShardedThroughputReport() {}
+
+    /**
+     * Throughput of one backend at one thread count.
+     *
+     * @param backend the backend measured.
+     * @param threads number of writer threads.
+     * @param writes writes made (student creations plus enrollments).
+     * @param millis wall-clock time of the run.
+     */
+    public record Result(String backend, int threads, int writes, long millis) {
+
+        /** @return writes per second. */
+        public double writesPerSecond() {
+            return millis == 0 ? 0 : writes * 1000.0 / millis;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int perThread = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : cores;
+
+        System.out.printf("cores=%d, shards=%d%n", cores, cores);
+        System.out.printf("%-10s %8s %10s %10s %14s%n", "backend", "threads", "writes", "time (ms)", "writes/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            for (Result r : new Result[]{measureInMemory(threads, perThread), measureSharded(threads, perThread, cores)}) {
+                System.out.printf("%-10s %8d %10d %10d %14.0f%n", r.backend(), r.threads(), r.writes(),
+                        r.millis(), r.writesPerSecond());
+            }
+        }
+    }
+
+    /**
+     * Runs the workload against fresh unsharded repositories.
+     */
+    public static Result measureInMemory(int threads, int studentsPerThread) throws Exception {
+        StorageContext context = StorageContext.standard();
+        return run("in-memory", new InMemoryStudentRepository(context), new InMemoryEnrollmentRepository(context),
+                threads, studentsPerThread);
+    }
+
+    /**
+     * Runs the workload against fresh sharded repositories.
+     */
+    public static Result measureSharded(int threads, int studentsPerThread, int shards) throws Exception {
+        StorageContext context = StorageContext.standard();
+        try (ShardedStudentRepository students = new ShardedStudentRepository(shards, context);
+             ShardedEnrollmentRepository enrollments = new ShardedEnrollmentRepository(shards, context)) {
+            return run("sharded", students, enrollments, threads, studentsPerThread);
+        }
+    }
+
+    private static Result run(String backend, StudentRepository students, EnrollmentRepository enrollments,
+                              int threads, int studentsPerThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int s = 0; s < studentsPerThread; s++) {
+                    String id = "S" + thread + "-" + s;
+                    Student student = new Student();
+                    student.setId(id);
+                    student.setFullName("Student " + s);
+                    student.setEmail(id + "@example.edu");
+                    students.createStudent(student);
+                    for (int e = 0; e < ENROLLMENTS_PER_STUDENT; e++) {
+                        enrollments.enroll(id, "C" + ((s * 31 + e * 7 + thread) % COURSES), "Fall 2025");
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+        return new Result(backend, threads, threads * studentsPerThread * (1 + ENROLLMENTS_PER_STUDENT), millis);
+    }
+}
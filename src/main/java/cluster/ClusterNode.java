@@ -0,0 +1,867 @@
+package cluster;
+
+import events.ChangeEvent;
+import events.ChangeFeed;
+import events.ChangeListener;
+import lombok.Getter;
+import lombok.NonNull;
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+import model.dto.SeatHold;
+import repository.EnrollmentRepository;
+import repository.RecordCodec;
+import repository.StudentRepository;
+import service.EnrollmentService;
+import service.StudentService;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static cluster.ClusterProtocol.*;
+
+/**
+ * One member of a cluster: serves the {@link ClusterProtocol} on a loopback port in
+ * front of a local {@link ServiceGraph}.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Answer the student and enrollment calls a {@link ClusterRouter} forwards to it.
+ *       The node does not check that it owns a key; routing is the router's job.</li>
+ *   <li>Keep cluster-wide email reservations for the emails that hash to it.</li>
+ *   <li>Journal the state every successful write leaves behind, by routing key ({@code S:}
+ *       student ID, {@code C:} course code, {@code E:} email): the student, each student's
+ *       enrollment records and seat hold per section (with the hold's absolute deadline), the
+ *       course's capacities, the email's owner. A record replaces the previous one of the
+ *       same thing, so the journal of a key restores exactly the state the key has here. On
+ *       a membership change the node copies the journals of the keys it will no longer own
+ *       to their new owners ({@link ClusterProtocol#HANDOFF}), which apply them; applying
+ *       a journal twice changes nothing. It drops the keys' local state only when told the
+ *       new ring is in force ({@link ClusterProtocol#PRUNE}). Deleting a student or
+ *       releasing an email clears its journal.</li>
+ *   <li>Log enrollment changes no request made, such as seat holds expiring and the
+ *       promotions they cause: a {@link ChangeListener} notes which records changed and a
+ *       background task journals their new state.</li>
+ *   <li>Delete students through the {@code CascadeDeleteCoordinator}, together with their
+ *       enrollments and notifications; enrollments held for other nodes' students are
+ *       removed on {@link ClusterProtocol#REMOVE_STUDENT_ENROLLMENTS}.</li>
+ *   <li>Sequence the same records, removals included, in a {@link MutationLog} that
+ *       {@link Follower}s stream ({@link ClusterProtocol#FOLLOW}) to keep read-only
+ *       replicas of the node.</li>
+ * </ul>
+ *
+ * <p>Each connection is served by its own thread. Run a node in its own process with
+ * {@code java cluster.ClusterNode [port] [storage.properties]}; port 0 picks a free one.
+ * Closing the node stops serving; the service graph belongs to the caller. A read-only node
+ * (a follower's) answers queries and rejects writes; it changes only through {@link #apply}.</p>
+ */
+public class ClusterNode implements AutoCloseable {
+
+    private static final String STUDENT_KEY = "S:";
+    private static final String COURSE_KEY = "C:";
+    private static final String EMAIL_KEY = "E:";
+
+    /** Record ID in the journal of a key with a single record: a student or an email. */
+    private static final String STATE = "state";
+
+    /** How often enrollment changes no request made are journaled. */
+    private static final long RECORD_MILLIS = 100;
+
+    /** Record ID of one student's enrollment records and seat hold in one section. */
+    private record EnrollmentRecord(String studentId, String semester) {}
+
+    /** One student's enrollment records and seat hold in one section of a course. */
+    private record SectionState(EnrollmentRecord id, List<Enrollment> records, SeatHold hold) {
+
+        /** @return whether the state occupies a seat: held, or enrolled as of its last record. */
+        boolean takesSeat() {
+            if (hold != null) return true;
+            if (records.isEmpty()) return false;
+            EnrollmentStatus status = records.get(records.size() - 1).getStatus();
+            return status == EnrollmentStatus.ENROLLED || status == EnrollmentStatus.COMPLETED;
+        }
+    }
+
+    /** Record ID of a course's capacity: its default if {@code semester} is null, else one section's. */
+    private record CapacityRecord(String semester) {}
+
+    @Getter
+    private final ServiceGraph services;
+
+    /** This node's {@code host:port}, as it appears on the hash ring. */
+    @Getter
+    private final String address;
+
+    private final ServerSocket server;
+
+    /** State left by successful writes: by routing key, and in the order it changed. */
+    private final MutationLog log;
+
+    private final boolean readOnly;
+
+    /** Set while a follower replaces its state with a snapshot; queries would see part of it. */
+    private volatile boolean loading;
+
+    /** Reserved email -> owning student ID, for the emails hashing to this node. */
+    private final ConcurrentHashMap<String, String> emailOwners = new ConcurrentHashMap<>();
+
+    /**
+     * Course key -> enrollment records changed since they were last journaled. Only filled
+     * on a writable node, by {@link #listener}; nothing else may run in the publisher's thread.
+     */
+    private final ConcurrentHashMap<String, Set<EnrollmentRecord>> touched = new ConcurrentHashMap<>();
+
+    private final ChangeListener listener = this::touched;
+
+    /** Journals changes no request made; null on a read-only node. */
+    private final ScheduledExecutorService recorder;
+
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean closed;
+
+    /**
+     * Binds a loopback port and starts accepting connections.
+     *
+     * @param services the services the node serves.
+     * @param port the port, or 0 for any free port.
+     * @throws UncheckedIOException if the port cannot be bound.
+     */
+    public ClusterNode(@NonNull ServiceGraph services, int port) {
+        this(services, port, MutationLog.DEFAULT_TAIL_CAPACITY);
+    }
+
+    /**
+     * @param tailCapacity writes kept for followers to stream; a follower that falls
+     *                     further behind reloads a snapshot.
+     * @throws IllegalArgumentException if {@code tailCapacity} is not positive.
+     */
+    public ClusterNode(@NonNull ServiceGraph services, int port, int tailCapacity) {
+        this(services, port, tailCapacity, false);
+    }
+
+    ClusterNode(@NonNull ServiceGraph services, int port, int tailCapacity, boolean readOnly) {
+        this.services = services;
+        this.log = new MutationLog(tailCapacity);
+        this.readOnly = readOnly;
+        this.loading = readOnly;
+        try {
+            this.server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind port " + port, e);
+        }
+        this.address = server.getInetAddress().getHostAddress() + ":" + server.getLocalPort();
+        if (readOnly) {
+            this.recorder = null;
+        } else {
+            changeFeed().addListener(listener);
+            this.recorder = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "cluster-node-recorder-" + server.getLocalPort());
+                t.setDaemon(true);
+                return t;
+            });
+            recorder.scheduleWithFixedDelay(this::recordPending, RECORD_MILLIS, RECORD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "cluster-node-" + server.getLocalPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return number of routing keys with journaled writes on this node.
+     */
+    public int journaledKeys() {
+        return log.keys().size();
+    }
+
+    void setLoading(boolean loading) {
+        this.loading = loading;
+    }
+
+    Set<String> journalKeys() {
+        return log.keys();
+    }
+
+    /**
+     * @return sequence of the last write applied on this node (0 if none).
+     */
+    public long lastSequence() {
+        return log.lastSequence();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (recorder != null) {
+            changeFeed().removeListener(listener);
+            recorder.shutdownNow();
+        }
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // Already closed.
+        }
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Runs a node in this process until it is killed.
+     *
+     * <p>Usage: {@code java cluster.ClusterNode [port] [storage.properties]}. Prints
+     * {@code Node listening on <host:port>} once it accepts connections.</p>
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        StorageConfig config = args.length > 1 ? StorageConfig.load(Path.of(args[1]))
+                : StorageConfig.backend(StorageConfig.DEFAULT_BACKEND);
+        ServiceGraph services = StorageFactory.open(config);
+        ClusterNode node = new ClusterNode(services, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            node.close();
+            services.close();
+        }));
+        System.out.println("Node listening on " + node.getAddress());
+        System.out.flush();
+        new CountDownLatch(1).await();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return; // Closed.
+            }
+            connections.add(socket);
+            Thread worker = new Thread(() -> serve(socket), "cluster-node-connection");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (!closed) {
+                byte[] request;
+                try {
+                    request = readFrame(in);
+                } catch (EOFException e) {
+                    return; // The client hung up.
+                }
+                writeFrame(out, handle(request));
+            }
+        } catch (IOException e) {
+            // Connection lost; the client sees the failure on its side.
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Executes one request from a client.
+     *
+     * @return the response frame; failures are reported in it, never thrown.
+     */
+    byte[] handle(byte[] request) {
+        if (readOnly && request.length > 0 && !isQuery(request[0])) {
+            return error(new IllegalStateException("Read-only replica"));
+        }
+        if (loading && request.length > 0 && request[0] != PING) {
+            return error(new IllegalStateException("Replica is loading a snapshot"));
+        }
+        return apply(request);
+    }
+
+    /**
+     * Executes one request, writes included, even on a read-only node: how a follower
+     * applies its leader's log.
+     */
+    byte[] apply(byte[] request) {
+        try {
+            DataInputStream in = decode(request);
+            byte opcode = in.readByte();
+            return switch (opcode) {
+                case REGISTER_STUDENT -> {
+                    Student student = STUDENT.read(in);
+                    yield studentWrite(student.getId(), () -> students().registerStudent(student));
+                }
+                case GET_STUDENT -> {
+                    Student student = students().getStudentById(RecordCodec.readString(in));
+                    yield ok(out -> writeNullable(out, STUDENT, student));
+                }
+                case GET_STUDENTS -> {
+                    List<Student> found = new ArrayList<>(students().getStudentsByIds(readStrings(in)).values());
+                    yield ok(out -> writeList(out, STUDENT, found));
+                }
+                case SEARCH_STUDENTS -> {
+                    List<Student> found = students().searchStudentsByName(RecordCodec.readString(in));
+                    yield ok(out -> writeList(out, STUDENT, found));
+                }
+                case UPDATE_CONTACT -> {
+                    String id = RecordCodec.readString(in);
+                    String email = RecordCodec.readString(in);
+                    String phone = RecordCodec.readString(in);
+                    yield studentWrite(id, () -> students().updateContact(id, email, phone));
+                }
+                case UPDATE_ATTRIBUTES -> {
+                    String id = RecordCodec.readString(in);
+                    Map<String, String> attributes = readMap(in);
+                    yield studentWrite(id, () -> students().updateAttributes(id, attributes));
+                }
+                case DELETE_STUDENT -> {
+                    String id = RecordCodec.readString(in);
+                    removeEnrollments(id);
+                    String key = STUDENT_KEY + id;
+                    yield log.write(key, () -> {
+                        services.getCascadeDeleteCoordinator().deleteStudent(id);
+                        log.clear(key, request(FORGET, key));
+                        return ok();
+                    });
+                }
+                case REMOVE_STUDENT_ENROLLMENTS -> {
+                    int removed = removeEnrollments(RecordCodec.readString(in));
+                    yield ok(out -> out.writeInt(removed));
+                }
+                case RESERVE_EMAIL -> {
+                    String email = RecordCodec.readString(in);
+                    String id = RecordCodec.readString(in);
+                    String key = EMAIL_KEY + email;
+                    yield log.write(key, () -> {
+                        String owner = emailOwners.putIfAbsent(email, id);
+                        byte result = owner == null ? EMAIL_RESERVED : owner.equals(id) ? EMAIL_HELD : EMAIL_TAKEN;
+                        if (result != EMAIL_TAKEN) {
+                            log.put(key, STATE, request);
+                        }
+                        return ok(out -> out.writeByte(result));
+                    });
+                }
+                case RELEASE_EMAIL -> {
+                    String email = RecordCodec.readString(in);
+                    String id = RecordCodec.readString(in);
+                    String key = EMAIL_KEY + email;
+                    yield log.write(key, () -> {
+                        emailOwners.remove(email, id);
+                        if (!emailOwners.containsKey(email)) {
+                            log.clear(key, request);
+                        }
+                        return ok();
+                    });
+                }
+                case ENROLL -> {
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1],
+                            () -> status(enrollments().enrollStudent(key[0], key[1], key[2])));
+                }
+                case ENROLL_ONCE -> {
+                    String requestId = RecordCodec.readString(in);
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1],
+                            () -> status(enrollments().enrollStudent(requestId, key[0], key[1], key[2])));
+                }
+                case DROP -> {
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1], () -> {
+                        enrollments().dropStudent(key[0], key[1], key[2]);
+                        return ok();
+                    });
+                }
+                case DROP_ONCE -> {
+                    String requestId = RecordCodec.readString(in);
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1], () -> {
+                        enrollments().dropStudent(requestId, key[0], key[1], key[2]);
+                        return ok();
+                    });
+                }
+                case WITHDRAW -> {
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1], () -> {
+                        enrollments().withdrawStudent(key[0], key[1], key[2]);
+                        return ok();
+                    });
+                }
+                case COMPLETE -> {
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1], () -> {
+                        enrollments().completeEnrollment(key[0], key[1], key[2]);
+                        return ok();
+                    });
+                }
+                case RECORD_GRADE -> {
+                    String[] key = readEnrollmentKey(in);
+                    GradeType gradeType = GradeType.valueOf(RecordCodec.readString(in));
+                    double score = in.readDouble();
+                    yield courseWrite(key[1], () -> {
+                        Enrollment graded = enrollments().recordGrade(key[0], key[1], key[2], gradeType, score);
+                        return ok(out -> writeNullable(out, ENROLLMENT, graded));
+                    });
+                }
+                case HOLD_SEAT -> {
+                    String[] key = readEnrollmentKey(in);
+                    Duration ttl = Duration.ofMillis(in.readLong());
+                    yield courseWrite(key[1], () -> {
+                        SeatHold hold = enrollments().holdSeat(key[0], key[1], key[2], ttl);
+                        return ok(out -> writeNullable(out, SEAT_HOLD, hold));
+                    });
+                }
+                case CONFIRM_HOLD -> {
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1],
+                            () -> status(enrollments().confirmHold(key[0], key[1], key[2])));
+                }
+                case RELEASE_HOLD -> {
+                    String[] key = readEnrollmentKey(in);
+                    yield courseWrite(key[1], () -> {
+                        boolean released = enrollments().releaseHold(key[0], key[1], key[2]);
+                        return ok(out -> out.writeBoolean(released));
+                    });
+                }
+                case COURSE_CAPACITY -> {
+                    Course course = new Course();
+                    course.setCode(RecordCodec.readString(in));
+                    course.setCapacity(in.readInt());
+                    yield courseWrite(course.getCode(), () -> {
+                        enrollments().applyCourseCapacity(course);
+                        log.put(COURSE_KEY + course.getCode(), new CapacityRecord(null), request);
+                        return ok();
+                    });
+                }
+                case SEMESTER_CAPACITY -> {
+                    String courseCode = RecordCodec.readString(in);
+                    String semester = RecordCodec.readString(in);
+                    int capacity = in.readInt();
+                    yield courseWrite(courseCode, () -> {
+                        enrollments().setSemesterCapacity(courseCode, semester, capacity);
+                        log.put(COURSE_KEY + courseCode, new CapacityRecord(semester), request);
+                        return ok();
+                    });
+                }
+                case ENROLLMENTS_FOR_STUDENT -> {
+                    List<Enrollment> found = enrollments().getEnrollmentsForStudent(RecordCodec.readString(in));
+                    yield ok(out -> writeList(out, ENROLLMENT, found));
+                }
+                case STUDENTS_FOR_COURSE -> {
+                    List<String> found = enrollments().getStudentsForCourse(RecordCodec.readString(in));
+                    yield ok(out -> writeStrings(out, found));
+                }
+                case WAITLIST -> {
+                    List<String> found = enrollments().getWaitlist(RecordCodec.readString(in),
+                            RecordCodec.readString(in));
+                    yield ok(out -> writeStrings(out, found));
+                }
+                case PING -> ok();
+                case HANDOFF -> {
+                    HashRing ring = HashRing.of(readStrings(in));
+                    int copied = handOff(ring);
+                    yield ok(out -> out.writeInt(copied));
+                }
+                case PRUNE -> {
+                    HashRing ring = HashRing.of(readStrings(in));
+                    int dropped = prune(ring);
+                    yield ok(out -> out.writeInt(dropped));
+                }
+                case IMPORT -> {
+                    List<byte[]> entries = new ArrayList<>();
+                    for (int i = in.readInt(); i > 0; i--) {
+                        entries.add(readBytes(in));
+                    }
+                    // State records apply idempotently and journal themselves here.
+                    entries.forEach(this::apply);
+                    yield ok();
+                }
+                case FORGET -> {
+                    forget(RecordCodec.readString(in));
+                    yield ok();
+                }
+                case STUDENT_STATE -> {
+                    Student student = STUDENT.read(in);
+                    String key = STUDENT_KEY + student.getId();
+                    yield log.write(key, () -> {
+                        restoreStudent(student);
+                        log.put(key, STATE, request);
+                        return ok();
+                    });
+                }
+                case ENROLLMENT_STATE -> {
+                    String courseCode = RecordCodec.readString(in);
+                    int count = in.readInt();
+                    List<SectionState> states = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        EnrollmentRecord id = new EnrollmentRecord(RecordCodec.readString(in), RecordCodec.readString(in));
+                        states.add(new SectionState(id, readList(in, ENROLLMENT), readNullable(in, SEAT_HOLD)));
+                    }
+                    yield courseWrite(courseCode, () -> {
+                        for (SectionState state : states) {
+                            EnrollmentRecord id = state.id();
+                            enrollmentRepository().restore(id.studentId(), courseCode, id.semester(),
+                                    state.records(), state.hold());
+                            if (state.hold() != null && !readOnly) {
+                                services.getHoldExpirySweeper().track(state.hold());
+                            }
+                        }
+                        journal(courseCode, states, request);
+                        return ok();
+                    });
+                }
+                case FOLLOW -> {
+                    long after = in.readLong();
+                    int maxEntries = in.readInt();
+                    long waitMillis = in.readLong();
+                    yield follow(after, maxEntries, waitMillis);
+                }
+                default -> throw new IllegalArgumentException("Unknown opcode " + opcode);
+            };
+        } catch (IOException e) {
+            return error(new IllegalArgumentException("Malformed request: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return error(e);
+        }
+    }
+
+    /**
+     * Copies every key this node does not own on the ring to its owner there. The key stays
+     * here until {@link #prune}; its pending enrollment changes are journaled first.
+     *
+     * @return number of keys copied.
+     */
+    private int handOff(HashRing ring) {
+        Map<String, List<String>> keysByOwner = new HashMap<>();
+        for (String key : log.keys()) {
+            String owner = ring.owner(key.substring(2));
+            if (!owner.equals(address)) {
+                keysByOwner.computeIfAbsent(owner, o -> new ArrayList<>()).add(key);
+            }
+        }
+        int copied = 0;
+        for (Map.Entry<String, List<String>> target : keysByOwner.entrySet()) {
+            try (NodeClient client = new NodeClient(target.getKey())) {
+                for (String key : target.getValue()) {
+                    List<byte[]> entries = log.write(key, () -> {
+                        recordTouched(key);
+                        return log.journal(key);
+                    });
+                    if (entries == null) continue;
+                    client.call(request(IMPORT, out -> {
+                        out.writeInt(entries.size());
+                        for (byte[] entry : entries) {
+                            writeBytes(out, entry);
+                        }
+                    }), in -> null);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Drops every key this node does not own on the ring.
+     *
+     * @return number of keys dropped.
+     */
+    private int prune(HashRing ring) {
+        int dropped = 0;
+        for (String key : List.copyOf(log.keys())) {
+            if (!ring.owner(key.substring(2)).equals(address)) {
+                forget(key);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Removes a student's enrollments in the courses this node holds. The removal is
+     * journaled under each of those courses, so it reaches wherever they move.
+     *
+     * @return number of enrollment records removed.
+     */
+    private int removeEnrollments(String studentId) {
+        Set<String> courses = new LinkedHashSet<>();
+        for (Enrollment enrollment : enrollmentRepository().getEnrollmentsForStudent(studentId)) {
+            courses.add(enrollment.getCourseCode());
+        }
+        if (courses.isEmpty()) return 0;
+        int removed = enrollmentRepository().removeStudent(studentId);
+        for (String courseCode : courses) {
+            log.write(COURSE_KEY + courseCode, () -> recordTouched(COURSE_KEY + courseCode));
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a key's state and journal, logging the removal so followers remove it too.
+     */
+    private void forget(String key) {
+        String id = key.substring(2);
+        log.write(key, () -> {
+            switch (key.substring(0, 2)) {
+                case STUDENT_KEY -> services.getRepositories().getStudents().deleteStudent(id);
+                case COURSE_KEY -> enrollmentRepository().removeCourse(id);
+                case EMAIL_KEY -> emailOwners.remove(id);
+                default -> throw new IllegalArgumentException("Unknown journal key " + key);
+            }
+            touched.remove(key);
+            log.clear(key, request(FORGET, key));
+            return null;
+        });
+    }
+
+    /**
+     * Runs a student write under the student's key and journals the student it leaves.
+     */
+    private byte[] studentWrite(String id, Runnable write) {
+        String key = STUDENT_KEY + id;
+        return log.write(key, () -> {
+            write.run();
+            Student student = services.getRepositories().getStudents().getById(id);
+            log.put(key, STATE, request(STUDENT_STATE, out -> STUDENT.write(out, student)));
+            return ok();
+        });
+    }
+
+    /**
+     * Stores a student copied from another node, replacing the local one.
+     */
+    private void restoreStudent(Student student) {
+        StudentRepository repository = services.getRepositories().getStudents();
+        for (;;) {
+            Student current = repository.getById(student.getId());
+            if (current == null) {
+                repository.createStudent(student);
+                return;
+            }
+            if (repository.compareAndSet(student.getId(), current.getVersion(), student)) return;
+        }
+    }
+
+    /**
+     * Runs a course write under the course's key, then journals the enrollment records it
+     * changed, whether or not it succeeded.
+     */
+    private byte[] courseWrite(String courseCode, Supplier<byte[]> write) {
+        String key = COURSE_KEY + courseCode;
+        return log.write(key, () -> {
+            try {
+                return write.get();
+            } finally {
+                recordTouched(key);
+            }
+        });
+    }
+
+    /**
+     * Notes the enrollment record a published change belongs to. Runs in the publisher's
+     * thread, possibly under a repository lock, so it must not touch the log or the repositories.
+     */
+    private void touched(ChangeEvent event) {
+        if (event.payload() instanceof Enrollment enrollment) {
+            touch(enrollment.getCourseCode(), enrollment.getStudentId(), enrollment.getSemester());
+        } else if (event.payload() instanceof SeatHold hold) {
+            touch(hold.courseCode(), hold.studentId(), hold.semester());
+        }
+    }
+
+    private void touch(String courseCode, String studentId, String semester) {
+        touched.compute(COURSE_KEY + courseCode, (key, ids) -> {
+            Set<EnrollmentRecord> noted = ids == null ? new HashSet<>() : ids;
+            noted.add(new EnrollmentRecord(studentId, semester));
+            return noted;
+        });
+    }
+
+    /**
+     * Journals the records changed outside any request, e.g. by the hold-expiry sweeper.
+     */
+    private void recordPending() {
+        for (String key : touched.keySet()) {
+            try {
+                log.write(key, () -> recordTouched(key));
+            } catch (RuntimeException e) {
+                // The repositories are closing; nothing is left to replicate.
+            }
+        }
+    }
+
+    /**
+     * Journals the current state of every noted enrollment record of a course, as one log
+     * entry: a hold expiring and the promotion it causes reach followers together. States
+     * that give up a seat come first, so a follower applying them in order never counts a
+     * seat twice. Call under the course's key.
+     */
+    private Void recordTouched(String key) {
+        Set<EnrollmentRecord> ids = touched.remove(key);
+        if (ids == null) return null;
+        String courseCode = key.substring(COURSE_KEY.length());
+        EnrollmentRepository repository = enrollmentRepository();
+        List<SectionState> states = new ArrayList<>(ids.size());
+        for (EnrollmentRecord id : ids) {
+            List<Enrollment> records = new ArrayList<>();
+            for (Enrollment enrollment : repository.getEnrollmentsForStudent(id.studentId())) {
+                if (courseCode.equals(enrollment.getCourseCode()) && id.semester().equals(enrollment.getSemester())) {
+                    records.add(enrollment);
+                }
+            }
+            states.add(new SectionState(id, records, repository.getHold(id.studentId(), courseCode, id.semester())));
+        }
+        states.sort(Comparator.comparing(SectionState::takesSeat));
+        journal(courseCode, states, enrollmentState(courseCode, states));
+        return null;
+    }
+
+    /**
+     * Journals each student's state in a section under its own ID, and sequences the frame
+     * that applies them all. A student with no records and no hold has no state left, so
+     * their record is dropped.
+     */
+    private void journal(String courseCode, List<SectionState> states, byte[] batch) {
+        Map<Object, byte[]> records = new LinkedHashMap<>();
+        for (SectionState state : states) {
+            boolean empty = state.records().isEmpty() && state.hold() == null;
+            records.put(state.id(), empty ? null : enrollmentState(courseCode, List.of(state)));
+        }
+        log.putAll(COURSE_KEY + courseCode, records, batch);
+    }
+
+    private static byte[] enrollmentState(String courseCode, List<SectionState> states) {
+        return request(ENROLLMENT_STATE, out -> {
+            RecordCodec.writeString(out, courseCode);
+            out.writeInt(states.size());
+            for (SectionState state : states) {
+                RecordCodec.writeString(out, state.id().studentId());
+                RecordCodec.writeString(out, state.id().semester());
+                writeList(out, ENROLLMENT, state.records());
+                writeNullable(out, SEAT_HOLD, state.hold());
+            }
+        });
+    }
+
+    /**
+     * Answers a follower: the log entries after its position, or a snapshot if the tail
+     * no longer reaches back that far.
+     */
+    private byte[] follow(long after, int maxEntries, long waitMillis) {
+        if (maxEntries <= 0 || waitMillis < 0) {
+            throw new IllegalArgumentException("Invalid follow request");
+        }
+        List<MutationLog.Entry> entries;
+        try {
+            entries = log.read(after, maxEntries, waitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for writes");
+        }
+        if (entries != null) {
+            long leaderSequence = log.lastSequence();
+            return ok(out -> {
+                out.writeByte(FOLLOW_TAIL);
+                out.writeLong(leaderSequence);
+                out.writeInt(entries.size());
+                for (MutationLog.Entry entry : entries) {
+                    out.writeLong(entry.sequence());
+                    writeBytes(out, entry.request());
+                }
+            });
+        }
+        MutationLog.Snapshot snapshot = log.snapshot();
+        return ok(out -> {
+            out.writeByte(FOLLOW_SNAPSHOT);
+            out.writeLong(snapshot.sequence());
+            out.writeInt(snapshot.journals().size());
+            for (Map.Entry<String, List<byte[]>> journal : snapshot.journals().entrySet()) {
+                RecordCodec.writeString(out, journal.getKey());
+                out.writeInt(journal.getValue().size());
+                for (byte[] entry : journal.getValue()) {
+                    writeBytes(out, entry);
+                }
+            }
+        });
+    }
+
+    private static boolean isQuery(byte opcode) {
+        return switch (opcode) {
+            case GET_STUDENT, GET_STUDENTS, SEARCH_STUDENTS, ENROLLMENTS_FOR_STUDENT, STUDENTS_FOR_COURSE, WAITLIST,
+                 PING, FOLLOW -> true;
+            default -> false;
+        };
+    }
+
+    private StudentService students() {
+        return services.getStudentService();
+    }
+
+    private EnrollmentService enrollments() {
+        return services.getEnrollmentService();
+    }
+
+    private EnrollmentRepository enrollmentRepository() {
+        return services.getRepositories().getEnrollments();
+    }
+
+    private ChangeFeed changeFeed() {
+        return services.getRepositories().getStorageContext().getChangeFeed();
+    }
+
+    private static String[] readEnrollmentKey(DataInputStream in) throws IOException {
+        return new String[]{RecordCodec.readString(in), RecordCodec.readString(in), RecordCodec.readString(in)};
+    }
+
+    private static byte[] ok() {
+        return encode(out -> out.writeByte(OK));
+    }
+
+    private static byte[] ok(Body result) {
+        return encode(out -> {
+            out.writeByte(OK);
+            result.write(out);
+        });
+    }
+
+    private static byte[] status(EnrollmentStatus status) {
+        return ok(out -> RecordCodec.writeString(out, status == null ? null : status.name()));
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed.
+        }
+    }
+}
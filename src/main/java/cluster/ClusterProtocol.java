@@ -0,0 +1,327 @@
+package cluster;
+
+import codec.ModelCodecs;
+import model.Enrollment;
+import model.Student;
+import model.dto.SeatHold;
+import repository.RecordCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary protocol spoken between a {@link ClusterRouter} and its {@link ClusterNode}s.
+ *
+ * <p>Every message is a frame: a 4-byte length followed by that many bytes. A request
+ * starts with a one-byte opcode followed by its arguments; a response starts with
+ * {@link #OK} followed by the result, or {@link #ERROR} followed by an error kind and
+ * message. Strings use {@link RecordCodec#writeString}; entities use the {@link ModelCodecs}
+ * codecs, length-prefixed (see {@link RecordCodec#of}).</p>
+ */
+final class ClusterProtocol {
+
+    /** Largest frame accepted (guards against reading garbage as a length). */
+    static final int MAX_FRAME = 64 * 1024 * 1024;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    /** Error kinds: rethrown as the same exception type by the router. */
+    static final byte ILLEGAL_ARGUMENT = 1;
+    static final byte ILLEGAL_STATE = 2;
+    static final byte OTHER = 3;
+
+    /** Results of {@link #RESERVE_EMAIL}. */
+    static final byte EMAIL_TAKEN = 0;
+    static final byte EMAIL_RESERVED = 1;
+    static final byte EMAIL_HELD = 2;
+
+    // Students (routed by student ID) and email reservations (routed by email).
+    static final byte REGISTER_STUDENT = 1;
+    static final byte GET_STUDENT = 2;
+    static final byte SEARCH_STUDENTS = 3;
+    static final byte UPDATE_CONTACT = 4;
+    static final byte UPDATE_ATTRIBUTES = 5;
+    static final byte DELETE_STUDENT = 6;
+    static final byte RESERVE_EMAIL = 7;
+    static final byte RELEASE_EMAIL = 8;
+    static final byte GET_STUDENTS = 9;
+
+    // Enrollments (routed by course code, except the per-student query).
+    static final byte ENROLL = 20;
+    static final byte ENROLL_ONCE = 21;
+    static final byte DROP = 22;
+    static final byte DROP_ONCE = 23;
+    static final byte ENROLLMENTS_FOR_STUDENT = 24;
+    static final byte STUDENTS_FOR_COURSE = 25;
+    static final byte COURSE_CAPACITY = 26;
+    static final byte SEMESTER_CAPACITY = 27;
+    static final byte WAITLIST = 28;
+    static final byte HOLD_SEAT = 29;
+    static final byte CONFIRM_HOLD = 30;
+    static final byte RELEASE_HOLD = 31;
+    static final byte RECORD_GRADE = 32;
+    static final byte WITHDRAW = 33;
+    static final byte COMPLETE = 34;
+    /** Sent to every node: removes a deleted student's enrollments in the courses it holds. */
+    static final byte REMOVE_STUDENT_ENROLLMENTS = 35;
+
+    // Membership.
+    static final byte PING = 40;
+    /** Copies the keys the node does not own on the given ring to their owners; the node keeps them. */
+    static final byte HANDOFF = 41;
+    static final byte IMPORT = 42;
+    /** Drops every key the node does not own on the given ring. */
+    static final byte PRUNE = 47;
+
+    // Replication.
+    static final byte FORGET = 43;
+    static final byte FOLLOW = 44;
+    /** State record: a student as stored on its node. */
+    static final byte STUDENT_STATE = 45;
+    /**
+     * State record: students' enrollment records and seat holds in sections of one course,
+     * applied in order. Journaled one student and section per record; a log entry carries
+     * everything one change touched.
+     */
+    static final byte ENROLLMENT_STATE = 46;
+
+    /** Kinds of {@link #FOLLOW} result. */
+    static final byte FOLLOW_TAIL = 0;
+    static final byte FOLLOW_SNAPSHOT = 1;
+
+    private ClusterProtocol() {}
+
+    /**
+     * Students in their {@link ModelCodecs#STUDENT} form, without their {@code enrolledCourses}
+     * (enrollments live on the course's node).
+     */
+    static final RecordCodec<Student> STUDENT = new RecordCodec<>() {
+        private final RecordCodec<Student> students = RecordCodec.of(ModelCodecs.STUDENT);
+
+        @Override
+        public void write(DataOutput out, Student student) throws IOException {
+            if (student.getEnrolledCourses() != null && !student.getEnrolledCourses().isEmpty()) {
+                student = student.copy();
+                student.setEnrolledCourses(new LinkedHashSet<>());
+            }
+            students.write(out, student);
+        }
+
+        @Override
+        public Student read(DataInput in) throws IOException {
+            return students.read(in);
+        }
+    };
+
+    static final RecordCodec<Enrollment> ENROLLMENT = RecordCodec.of(ModelCodecs.ENROLLMENT);
+
+    /** Seat holds are a cluster-only DTO with no {@link ModelCodecs} form. */
+    static final RecordCodec<SeatHold> SEAT_HOLD = new RecordCodec<>() {
+        @Override
+        public void write(DataOutput out, SeatHold hold) throws IOException {
+            RecordCodec.writeString(out, hold.studentId());
+            RecordCodec.writeString(out, hold.courseCode());
+            RecordCodec.writeString(out, hold.semester());
+            out.writeLong(hold.expiresAt().getEpochSecond());
+            out.writeInt(hold.expiresAt().getNano());
+        }
+
+        @Override
+        public SeatHold read(DataInput in) throws IOException {
+            return new SeatHold(RecordCodec.readString(in), RecordCodec.readString(in), RecordCodec.readString(in),
+                    Instant.ofEpochSecond(in.readLong(), in.readInt()));
+        }
+    };
+
+    /**
+     * Writes the body of a message.
+     */
+    @FunctionalInterface
+    interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads a result from a response.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * @return a request: the opcode followed by the body.
+     */
+    static byte[] request(byte opcode, Body body) {
+        return encode(out -> {
+            out.writeByte(opcode);
+            body.write(out);
+        });
+    }
+
+    /**
+     * @return a request whose arguments are all strings.
+     */
+    static byte[] request(byte opcode, String... arguments) {
+        return request(opcode, out -> {
+            for (String argument : arguments) {
+                RecordCodec.writeString(out, argument);
+            }
+        });
+    }
+
+    static byte[] encode(Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static DataInputStream decode(byte[] message) {
+        return new DataInputStream(new ByteArrayInputStream(message));
+    }
+
+    static void writeFrame(DataOutputStream out, byte[] message) throws IOException {
+        out.writeInt(message.length);
+        out.write(message);
+        out.flush();
+    }
+
+    static byte[] readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        byte[] message = new byte[length];
+        in.readFully(message);
+        return message;
+    }
+
+    /**
+     * @return an error response describing the exception.
+     */
+    static byte[] error(RuntimeException e) {
+        byte kind = e instanceof IllegalArgumentException ? ILLEGAL_ARGUMENT
+                : e instanceof IllegalStateException ? ILLEGAL_STATE : OTHER;
+        String message = kind == OTHER ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getMessage();
+        return encode(out -> {
+            out.writeByte(ERROR);
+            out.writeByte(kind);
+            RecordCodec.writeString(out, message);
+        });
+    }
+
+    /**
+     * Reads a response, rethrowing a remote error as the exception the node raised.
+     *
+     * @param node the node that answered, for error messages.
+     */
+    static <T> T result(String node, byte[] response, Reader<T> reader) {
+        DataInputStream in = decode(response);
+        try {
+            if (in.readByte() == OK) {
+                return reader.read(in);
+            }
+            byte kind = in.readByte();
+            String message = RecordCodec.readString(in);
+            if (kind == ILLEGAL_ARGUMENT) throw new IllegalArgumentException(message);
+            if (kind == ILLEGAL_STATE) throw new IllegalStateException(message);
+            throw new IllegalStateException("Node " + node + " failed: " + message);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed response from node " + node, e);
+        }
+    }
+
+    static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            RecordCodec.writeString(out, value);
+        }
+    }
+
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(RecordCodec.readString(in));
+        }
+        return values;
+    }
+
+    static <T> void writeList(DataOutput out, RecordCodec<T> codec, List<T> values) throws IOException {
+        out.writeInt(values.size());
+        for (T value : values) {
+            codec.write(out, value);
+        }
+    }
+
+    static <T> List<T> readList(DataInput in, RecordCodec<T> codec) throws IOException {
+        int size = in.readInt();
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(codec.read(in));
+        }
+        return values;
+    }
+
+    static void writeBytes(DataOutput out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    static byte[] readBytes(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME) {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+
+    /**
+     * Writes a nullable value as a presence flag followed by the value.
+     */
+    static <T> void writeNullable(DataOutput out, RecordCodec<T> codec, T value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) codec.write(out, value);
+    }
+
+    static <T> T readNullable(DataInput in, RecordCodec<T> codec) throws IOException {
+        return in.readBoolean() ? codec.read(in) : null;
+    }
+
+    static void writeMap(DataOutput out, Map<String, String> map) throws IOException {
+        Map<String, String> entries = map == null ? Map.of() : map;
+        out.writeInt(entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            RecordCodec.writeString(out, entry.getKey());
+            RecordCodec.writeString(out, entry.getValue());
+        }
+    }
+
+    static Map<String, String> readMap(DataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(RecordCodec.readString(in), RecordCodec.readString(in));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,478 @@
+package cluster;
+
+import lombok.NonNull;
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+import model.dto.SeatHold;
+import repository.RecordCodec;
+import service.EnrollmentService;
+import service.StudentService;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static cluster.ClusterProtocol.*;
+
+/**
+ * Student and enrollment services of a cluster of {@link ClusterNode}s, forwarding each
+ * call to the node that owns it on a consistent-hash {@link HashRing}.
+ *
+ * <p>Routing:
+ * <ul>
+ *   <li>Student calls go to the owner of the student ID; {@link #getStudentsByIds} sends
+ *       each node one request for all the IDs it owns.</li>
+ *   <li>Enrollment calls go to the owner of the course code, so a section's seats,
+ *       waitlist and holds live on one node and capacity is enforced in one place.</li>
+ *   <li>Emails are reserved on the owner of the email before a student is registered or
+ *       changes email, so emails stay unique across nodes.</li>
+ *   <li>{@link #searchStudentsByName} and {@link #getEnrollmentsForStudent} ask every node
+ *       and merge the answers.</li>
+ * </ul>
+ *
+ * <p>{@link #join} and {@link #leave} make the nodes copy the keys whose owner changes to
+ * their new owners, switch the ring only once every copy succeeded, and then make the old
+ * owners drop those keys. If a copy fails, the ring stays as it was and the new owners drop
+ * the copies; the old owners never gave anything up, so the change can simply be retried.
+ * Calls wait while that runs, so every call sees either the old placement or the new one.
+ * A cluster has one router; nodes that crash lose their keys.</p>
+ */
+public class ClusterRouter implements StudentService, EnrollmentService, AutoCloseable {
+
+    private final ReadWriteLock membership = new ReentrantReadWriteLock();
+
+    private final ConcurrentHashMap<String, NodeClient> clients = new ConcurrentHashMap<>();
+
+    private volatile HashRing ring;
+
+    /**
+     * Creates a router over nodes that hold no data yet.
+     *
+     * @param nodes the nodes' {@code host:port} addresses.
+     * @throws IllegalArgumentException if no node is given or an address is malformed.
+     */
+    public ClusterRouter(@NonNull Collection<String> nodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A cluster needs at least one node");
+        }
+        nodes.forEach(NodeClient::parse);
+        this.ring = HashRing.of(nodes);
+    }
+
+    /**
+     * @return the current ring.
+     */
+    public HashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Adds a node and moves the keys it now owns to it from the other nodes.
+     *
+     * @param node the new node's {@code host:port}; it must be running and hold no data.
+     * @return number of keys moved.
+     * @throws RuntimeException the failure of a node, if a key could not be copied; the
+     *         node is then not added and nothing moved.
+     */
+    public int join(@NonNull String node) {
+        membership.writeLock().lock();
+        try {
+            if (ring.nodes().contains(node)) {
+                throw new IllegalArgumentException("Node " + node + " is already a member");
+            }
+            client(node).call(request(PING), in -> null);
+            return rebalance(ring.with(node), ring.nodes());
+        } finally {
+            membership.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a node's keys to the remaining nodes and removes it. The node keeps running
+     * and can be stopped afterwards.
+     *
+     * @param node the leaving node's {@code host:port}.
+     * @return number of keys moved.
+     * @throws IllegalStateException if it is the last node.
+     * @throws RuntimeException the failure of a node, if a key could not be copied; the
+     *         node then stays a member and nothing moved.
+     */
+    public int leave(@NonNull String node) {
+        membership.writeLock().lock();
+        try {
+            if (!ring.nodes().contains(node)) {
+                throw new IllegalArgumentException("Node " + node + " is not a member");
+            }
+            HashRing remaining = ring.without(node);
+            if (remaining.isEmpty()) {
+                throw new IllegalStateException("Cannot remove the last node");
+            }
+            int moved = rebalance(remaining, List.of(node));
+            NodeClient client = clients.remove(node);
+            if (client != null) client.close();
+            return moved;
+        } finally {
+            membership.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        clients.values().forEach(NodeClient::close);
+        clients.clear();
+    }
+
+    // ---- StudentService ----
+
+    /**
+     * Reserves the email on its owner, then registers the student on the student's owner;
+     * the reservation is released if registration fails.
+     */
+    @Override
+    public void registerStudent(Student student) {
+        if (student == null || student.getId() == null || student.getEmail() == null) {
+            throw new IllegalArgumentException("Student ID and email cannot be null");
+        }
+        routed(() -> {
+            boolean reserved = reserveEmail(student.getEmail(), student.getId());
+            try {
+                call(student.getId(), request(REGISTER_STUDENT, out -> STUDENT.write(out, student)), in -> null);
+            } catch (RuntimeException e) {
+                if (reserved) releaseEmail(student.getEmail(), student.getId());
+                throw e;
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Student getStudentById(String studentId) {
+        if (studentId == null) return null;
+        return routed(() -> call(studentId, request(GET_STUDENT, studentId), in -> readNullable(in, STUDENT)));
+    }
+
+    @Override
+    public Map<String, Student> getStudentsByIds(@NonNull Collection<String> studentIds) {
+        Set<String> ids = new LinkedHashSet<>(studentIds);
+        ids.remove(null);
+        return routed(() -> {
+            Map<String, List<String>> byNode = new HashMap<>();
+            for (String id : ids) {
+                byNode.computeIfAbsent(ring.owner(id), node -> new ArrayList<>()).add(id);
+            }
+            Map<String, Student> byId = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : byNode.entrySet()) {
+                List<Student> students = client(entry.getKey()).call(
+                        request(GET_STUDENTS, out -> writeStrings(out, entry.getValue())), in -> readList(in, STUDENT));
+                students.forEach(student -> byId.put(student.getId(), student));
+            }
+            Map<String, Student> found = new LinkedHashMap<>();
+            for (String id : ids) {
+                Student student = byId.get(id);
+                if (student != null) {
+                    found.put(id, student);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public List<Student> searchStudentsByName(@NonNull String token) {
+        return routed(() -> gather(request(SEARCH_STUDENTS, token), in -> readList(in, STUDENT)));
+    }
+
+    /**
+     * Reserves a new email before the student's owner applies the change, then releases
+     * whichever email the student no longer uses.
+     */
+    @Override
+    public void updateContact(@NonNull String studentId, String email, String phone) {
+        routed(() -> {
+            Student current = call(studentId, request(GET_STUDENT, studentId), in -> readNullable(in, STUDENT));
+            if (current == null) {
+                throw new IllegalArgumentException("Student not found");
+            }
+            boolean emailChanged = email != null && !email.isBlank() && !email.equals(current.getEmail());
+            boolean reserved = emailChanged && reserveEmail(email, studentId);
+            try {
+                call(studentId, request(UPDATE_CONTACT, studentId, email, phone), in -> null);
+            } catch (RuntimeException e) {
+                if (reserved) releaseEmail(email, studentId);
+                throw e;
+            }
+            if (emailChanged) {
+                releaseEmail(current.getEmail(), studentId);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void updateAttributes(@NonNull String studentId, @NonNull Map<String, String> attributes) {
+        routed(() -> call(studentId, request(UPDATE_ATTRIBUTES, out -> {
+            RecordCodec.writeString(out, studentId);
+            writeMap(out, attributes);
+        }), in -> null));
+    }
+
+    /**
+     * Removes the student's enrollments from every node (they live on their courses' owners),
+     * then deletes the student and their notifications on the student's owner and releases
+     * their email.
+     */
+    @Override
+    public void deleteStudent(String studentId) {
+        if (studentId == null) return;
+        routed(() -> {
+            Student current = call(studentId, request(GET_STUDENT, studentId), in -> readNullable(in, STUDENT));
+            for (String node : ring.nodes()) {
+                client(node).call(request(REMOVE_STUDENT_ENROLLMENTS, studentId), in -> null);
+            }
+            call(studentId, request(DELETE_STUDENT, studentId), in -> null);
+            if (current != null) {
+                releaseEmail(current.getEmail(), studentId);
+            }
+            return null;
+        });
+    }
+
+    // ---- EnrollmentService ----
+
+    @Override
+    public EnrollmentStatus enrollStudent(String studentId, String courseCode, String semester) {
+        requireEnrollmentKey(studentId, courseCode, semester);
+        return routed(() -> call(courseCode, request(ENROLL, studentId, courseCode, semester), ClusterRouter::status));
+    }
+
+    @Override
+    public EnrollmentStatus enrollStudent(String requestId, String studentId, String courseCode, String semester) {
+        requireRequestId(requestId);
+        requireEnrollmentKey(studentId, courseCode, semester);
+        return routed(() -> call(courseCode, request(ENROLL_ONCE, requestId, studentId, courseCode, semester),
+                ClusterRouter::status));
+    }
+
+    @Override
+    public void dropStudent(String studentId, String courseCode, String semester) {
+        requireEnrollmentKey(studentId, courseCode, semester);
+        routed(() -> call(courseCode, request(DROP, studentId, courseCode, semester), in -> null));
+    }
+
+    @Override
+    public void dropStudent(String requestId, String studentId, String courseCode, String semester) {
+        requireRequestId(requestId);
+        requireEnrollmentKey(studentId, courseCode, semester);
+        routed(() -> call(courseCode, request(DROP_ONCE, requestId, studentId, courseCode, semester), in -> null));
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(@NonNull String studentId) {
+        return routed(() -> gather(request(ENROLLMENTS_FOR_STUDENT, studentId), in -> readList(in, ENROLLMENT)));
+    }
+
+    @Override
+    public List<String> getStudentsForCourse(String courseCode) {
+        if (courseCode == null) return new ArrayList<>();
+        return routed(() -> call(courseCode, request(STUDENTS_FOR_COURSE, courseCode), ClusterProtocol::readStrings));
+    }
+
+    @Override
+    public void applyCourseCapacity(Course course) {
+        if (course == null || course.getCode() == null) {
+            throw new IllegalArgumentException("Course and its code cannot be null");
+        }
+        routed(() -> call(course.getCode(), request(COURSE_CAPACITY, out -> {
+            RecordCodec.writeString(out, course.getCode());
+            out.writeInt(course.getCapacity());
+        }), in -> null));
+    }
+
+    @Override
+    public void setSemesterCapacity(String courseCode, String semester, int capacity) {
+        if (courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Course Code and Semester cannot be null");
+        }
+        routed(() -> call(courseCode, request(SEMESTER_CAPACITY, out -> {
+            RecordCodec.writeString(out, courseCode);
+            RecordCodec.writeString(out, semester);
+            out.writeInt(capacity);
+        }), in -> null));
+    }
+
+    @Override
+    public List<String> getWaitlist(@NonNull String courseCode, @NonNull String semester) {
+        return routed(() -> call(courseCode, request(WAITLIST, courseCode, semester), ClusterProtocol::readStrings));
+    }
+
+    @Override
+    public SeatHold holdSeat(String studentId, String courseCode, String semester, Duration ttl) {
+        if (studentId == null || courseCode == null || semester == null || ttl == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, Semester and hold duration cannot be null");
+        }
+        return routed(() -> call(courseCode, request(HOLD_SEAT, out -> {
+            writeEnrollmentKey(out, studentId, courseCode, semester);
+            out.writeLong(ttl.toMillis());
+        }), in -> readNullable(in, SEAT_HOLD)));
+    }
+
+    @Override
+    public EnrollmentStatus confirmHold(String studentId, String courseCode, String semester) {
+        requireEnrollmentKey(studentId, courseCode, semester);
+        return routed(() -> call(courseCode, request(CONFIRM_HOLD, studentId, courseCode, semester),
+                ClusterRouter::status));
+    }
+
+    @Override
+    public boolean releaseHold(String studentId, String courseCode, String semester) {
+        requireEnrollmentKey(studentId, courseCode, semester);
+        return routed(() -> call(courseCode, request(RELEASE_HOLD, studentId, courseCode, semester),
+                DataInputStream::readBoolean));
+    }
+
+    @Override
+    public Enrollment recordGrade(String studentId, String courseCode, String semester, GradeType gradeType, double score) {
+        if (studentId == null || courseCode == null || semester == null || gradeType == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, Semester and Grade Type cannot be null");
+        }
+        return routed(() -> call(courseCode, request(RECORD_GRADE, out -> {
+            writeEnrollmentKey(out, studentId, courseCode, semester);
+            RecordCodec.writeString(out, gradeType.name());
+            out.writeDouble(score);
+        }), in -> readNullable(in, ENROLLMENT)));
+    }
+
+    @Override
+    public void withdrawStudent(String studentId, String courseCode, String semester) {
+        requireEnrollmentKey(studentId, courseCode, semester);
+        routed(() -> call(courseCode, request(WITHDRAW, studentId, courseCode, semester), in -> null));
+    }
+
+    @Override
+    public void completeEnrollment(String studentId, String courseCode, String semester) {
+        requireEnrollmentKey(studentId, courseCode, semester);
+        routed(() -> call(courseCode, request(COMPLETE, studentId, courseCode, semester), in -> null));
+    }
+
+    // ---- Routing ----
+
+    /**
+     * Runs a call while membership is stable.
+     */
+    private <T> T routed(Supplier<T> call) {
+        membership.readLock().lock();
+        try {
+            return call.get();
+        } finally {
+            membership.readLock().unlock();
+        }
+    }
+
+    private <T> T call(String key, byte[] request, Reader<T> reader) {
+        return client(ring.owner(key)).call(request, reader);
+    }
+
+    private <T> List<T> gather(byte[] request, Reader<List<T>> reader) {
+        List<T> merged = new ArrayList<>();
+        for (String node : ring.nodes()) {
+            merged.addAll(client(node).call(request, reader));
+        }
+        return merged;
+    }
+
+    /**
+     * Copies the keys of the sources that change owner on the target ring, switches to it
+     * once every copy succeeded, then has the sources drop those keys. Call with the
+     * membership lock held.
+     *
+     * @return number of keys moved.
+     */
+    private int rebalance(HashRing target, Collection<String> sources) {
+        int moved = 0;
+        try {
+            for (String source : sources) {
+                moved += membershipCall(source, HANDOFF, target);
+            }
+        } catch (RuntimeException e) {
+            // Nothing was given up yet: drop the copies the new owners received.
+            for (String member : target.nodes()) {
+                try {
+                    membershipCall(member, PRUNE, ring);
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        ring = target;
+        for (String source : sources) {
+            membershipCall(source, PRUNE, target);
+        }
+        return moved;
+    }
+
+    private int membershipCall(String node, byte opcode, HashRing placement) {
+        return client(node).call(request(opcode, out -> writeStrings(out, new ArrayList<>(placement.nodes()))),
+                DataInputStream::readInt);
+    }
+
+    /**
+     * @return true if the email was reserved now, false if the student already held it.
+     * @throws IllegalArgumentException if another student holds it.
+     */
+    private boolean reserveEmail(String email, String studentId) {
+        byte result = call(email, request(RESERVE_EMAIL, email, studentId), DataInputStream::readByte);
+        if (result == EMAIL_TAKEN) {
+            throw new IllegalArgumentException("Student with this id or email already exists");
+        }
+        return result == EMAIL_RESERVED;
+    }
+
+    private void releaseEmail(String email, String studentId) {
+        call(email, request(RELEASE_EMAIL, email, studentId), in -> null);
+    }
+
+    private NodeClient client(String node) {
+        return clients.computeIfAbsent(node, NodeClient::new);
+    }
+
+    private static EnrollmentStatus status(DataInputStream in) throws IOException {
+        String status = RecordCodec.readString(in);
+        return status == null ? null : EnrollmentStatus.valueOf(status);
+    }
+
+    private static void writeEnrollmentKey(DataOutput out, String studentId, String courseCode,
+                                           String semester) throws IOException {
+        RecordCodec.writeString(out, studentId);
+        RecordCodec.writeString(out, courseCode);
+        RecordCodec.writeString(out, semester);
+    }
+
+    private static void requireEnrollmentKey(String studentId, String courseCode, String semester) {
+        if (studentId == null || courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, and Semester cannot be null");
+        }
+    }
+
+    private static void requireRequestId(String requestId) {
+        if (requestId == null) {
+            throw new IllegalArgumentException("Request ID cannot be null");
+        }
+    }
+}
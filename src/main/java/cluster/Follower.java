@@ -0,0 +1,276 @@
+package cluster;
+
+import lombok.Getter;
+import lombok.NonNull;
+import repository.RecordCodec;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static cluster.ClusterProtocol.*;
+
+/**
+ * A read-only replica of one {@link ClusterNode} (its leader).
+ *
+ * <p>A background thread long-polls the leader's {@link MutationLog} and applies each state
+ * record, in the leader's order, to this follower's own {@link ServiceGraph}. The follower serves
+ * queries on its own port (point a {@link ClusterRouter} at it, or use {@link #getServices}
+ * in process) and rejects writes, so reporting reads never touch the leader's repositories.</p>
+ *
+ * <p>Catch-up: a follower starts empty, so it first loads a snapshot of the leader's
+ * journals and then streams the log from the snapshot's sequence. The same happens when it
+ * falls further behind than the leader's tail reaches. Queries are refused with an
+ * {@link IllegalStateException} while a snapshot loads. A restarted follower therefore
+ * needs no state of its own; give it in-memory storage.</p>
+ *
+ * <p>Records carry the state a write left on the leader, not the write itself, so replicas
+ * converge on the leader's state: a seat hold keeps the leader's deadline and is released
+ * when the leader logs its expiry, never by the replica's own clock.</p>
+ */
+public class Follower implements AutoCloseable {
+
+    /** Entries fetched per poll. */
+    private static final int BATCH = 1_024;
+
+    /** How long the leader holds a poll open waiting for a write. */
+    private static final long POLL_MILLIS = 500;
+
+    /** Pause before retrying an unreachable leader. */
+    private static final long RETRY_MILLIS = 200;
+
+    @Getter
+    private final String leaderAddress;
+
+    private final ClusterNode node;
+
+    private final NodeClient leader;
+
+    private final Thread puller;
+
+    /** Guards the positions below; {@link #awaitSequence} waits on it. */
+    private final Object progress = new Object();
+
+    /** Last leader sequence applied here; -1 until the first snapshot is loaded. */
+    private long appliedSequence = -1;
+
+    /** Leader's last sequence, as of the last poll. */
+    private long leaderSequence;
+
+    /** {@link System#nanoTime} when this follower was last fully caught up. */
+    private long caughtUpAt = System.nanoTime();
+
+    private int snapshotsLoaded;
+
+    private volatile boolean closed;
+
+    /**
+     * Binds a loopback port and starts following the leader.
+     *
+     * @param services the (empty) services the follower replicates into.
+     * @param port the port, or 0 for any free port.
+     * @param leaderAddress the leader's {@code host:port}.
+     * @throws IllegalArgumentException if the leader address is malformed.
+     * @throws UncheckedIOException if the port cannot be bound.
+     */
+    public Follower(@NonNull ServiceGraph services, int port, @NonNull String leaderAddress) {
+        this.leaderAddress = leaderAddress;
+        this.leader = new NodeClient(leaderAddress);
+        this.node = new ClusterNode(services, port, MutationLog.DEFAULT_TAIL_CAPACITY, true);
+        this.puller = new Thread(this::pullLoop, "follower-" + leaderAddress);
+        puller.setDaemon(true);
+        puller.start();
+    }
+
+    public ServiceGraph getServices() {
+        return node.getServices();
+    }
+
+    /**
+     * @return this follower's {@code host:port}, where it answers queries.
+     */
+    public String getAddress() {
+        return node.getAddress();
+    }
+
+    /**
+     * @return the last leader sequence applied here, or -1 before the first snapshot.
+     */
+    public long getAppliedSequence() {
+        synchronized (progress) {
+            return appliedSequence;
+        }
+    }
+
+    /**
+     * @return the leader's last sequence as of the last poll.
+     */
+    public long getLeaderSequence() {
+        synchronized (progress) {
+            return leaderSequence;
+        }
+    }
+
+    /**
+     * @return number of snapshots loaded, the initial one included.
+     */
+    public int getSnapshotsLoaded() {
+        synchronized (progress) {
+            return snapshotsLoaded;
+        }
+    }
+
+    /**
+     * @return writes the leader has applied that this follower has not, as of the last poll.
+     */
+    public long lag() {
+        synchronized (progress) {
+            return Math.max(0, leaderSequence - appliedSequence);
+        }
+    }
+
+    /**
+     * @return how long this follower has been behind the leader; zero if it is caught up.
+     */
+    public Duration timeBehind() {
+        synchronized (progress) {
+            return appliedSequence >= leaderSequence && appliedSequence >= 0 ? Duration.ZERO
+                    : Duration.ofNanos(System.nanoTime() - caughtUpAt);
+        }
+    }
+
+    /**
+     * Waits until the follower has applied a leader sequence, e.g. one returned by
+     * {@link ClusterNode#lastSequence()} after a write, to read that write here.
+     *
+     * @return true if the sequence was applied within the timeout.
+     */
+    public boolean awaitSequence(long sequence, @NonNull Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (appliedSequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                progress.wait(Math.max(1, remaining / 1_000_000));
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        puller.interrupt();
+        leader.close();
+        node.close();
+    }
+
+    /**
+     * Runs a follower in this process until it is killed.
+     *
+     * <p>Usage: {@code java cluster.Follower <leader host:port> [port] [storage.properties]}.
+     * Prints {@code Follower listening on <host:port>} once it accepts connections.</p>
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: Follower <leader host:port> [port] [storage.properties]");
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        StorageConfig config = args.length > 2 ? StorageConfig.load(Path.of(args[2]))
+                : StorageConfig.backend(StorageConfig.DEFAULT_BACKEND);
+        ServiceGraph services = StorageFactory.open(config);
+        Follower follower = new Follower(services, port, args[0]);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            follower.close();
+            services.close();
+        }));
+        System.out.println("Follower listening on " + follower.getAddress());
+        System.out.flush();
+        new CountDownLatch(1).await();
+    }
+
+    private void pullLoop() {
+        while (!closed) {
+            try {
+                long after = getAppliedSequence();
+                leader.call(request(FOLLOW, out -> {
+                    out.writeLong(after);
+                    out.writeInt(BATCH);
+                    out.writeLong(POLL_MILLIS);
+                }), this::applyBatch);
+            } catch (RuntimeException e) {
+                if (closed) return;
+                // Leader unreachable or restarting: keep serving what we have and retry.
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Void applyBatch(DataInputStream in) throws IOException {
+        if (in.readByte() == FOLLOW_SNAPSHOT) {
+            long sequence = in.readLong();
+            Map<String, List<byte[]>> journals = new LinkedHashMap<>();
+            for (int keys = in.readInt(); keys > 0; keys--) {
+                String key = RecordCodec.readString(in);
+                List<byte[]> entries = new ArrayList<>();
+                for (int i = in.readInt(); i > 0; i--) {
+                    entries.add(readBytes(in));
+                }
+                journals.put(key, entries);
+            }
+            loadSnapshot(sequence, journals);
+            return null;
+        }
+        long leaderLast = in.readLong();
+        for (int i = in.readInt(); i > 0; i--) {
+            long sequence = in.readLong();
+            node.apply(readBytes(in));
+            advance(sequence, leaderLast);
+        }
+        advance(getAppliedSequence(), leaderLast);
+        return null;
+    }
+
+    /**
+     * Replaces everything replicated so far with the snapshot. The node refuses queries
+     * meanwhile, so readers never see a mix of old and new state.
+     */
+    private void loadSnapshot(long sequence, Map<String, List<byte[]>> journals) {
+        node.setLoading(true);
+        for (String key : List.copyOf(node.journalKeys())) {
+            node.apply(request(FORGET, key));
+        }
+        // Each key's journal applies on its own, as on a handoff.
+        journals.values().forEach(entries -> entries.forEach(node::apply));
+        node.setLoading(false);
+        synchronized (progress) {
+            snapshotsLoaded++;
+        }
+        advance(sequence, sequence);
+    }
+
+    private void advance(long applied, long leaderLast) {
+        synchronized (progress) {
+            appliedSequence = applied;
+            leaderSequence = leaderLast;
+            if (appliedSequence >= leaderSequence) {
+                caughtUpAt = System.nanoTime();
+            }
+            progress.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package cluster;
+
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring assigning keys (student IDs, course codes, emails) to cluster nodes.
+ *
+ * <p>Each node is placed on a 64-bit ring at {@code virtualNodes} pseudo-random points;
+ * a key belongs to the node owning the first point at or after the key's hash, wrapping
+ * around. Adding or removing a node therefore moves only the keys of the ranges next to
+ * its points (about {@code 1/N} of all keys), and the virtual points spread each node's
+ * share evenly over the ring.</p>
+ *
+ * <p>Instances are immutable: {@link #with} and {@link #without} return a new ring. Two
+ * rings with the same nodes and virtual-node count agree on every key, in any process.</p>
+ */
+public final class HashRing {
+
+    /** Points per node by default. */
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+
+    private final Set<String> nodes;
+
+    /** Ring point -> node. */
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    /**
+     * @param nodes the node names (in this package, {@code host:port} addresses).
+     * @param virtualNodes points per node.
+     */
+    public HashRing(@NonNull Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual node count must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(new TreeSet<>(nodes));
+        // Sorted iteration makes the owner of a (rare) colliding point the same everywhere.
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * @return a ring of the nodes with {@value #DEFAULT_VIRTUAL_NODES} points each.
+     */
+    public static HashRing of(@NonNull Collection<String> nodes) {
+        return new HashRing(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @return the node names, sorted.
+     */
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return true if the ring has no nodes.
+     */
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * @param key a routing key.
+     * @return the node owning the key.
+     * @throws IllegalStateException if the ring has no nodes.
+     */
+    public String owner(@NonNull String key) {
+        if (points.isEmpty()) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * @return a ring with the node added.
+     */
+    public HashRing with(@NonNull String node) {
+        Set<String> changed = new TreeSet<>(nodes);
+        changed.add(node);
+        return new HashRing(changed, virtualNodes);
+    }
+
+    /**
+     * @return a ring with the node removed.
+     */
+    public HashRing without(@NonNull String node) {
+        Set<String> changed = new TreeSet<>(nodes);
+        changed.remove(node);
+        return new HashRing(changed, virtualNodes);
+    }
+
+    /**
+     * @return the fraction of the hash space each node owns.
+     */
+    public Map<String, Double> shares() {
+        Map<String, Double> shares = new HashMap<>();
+        if (points.isEmpty()) return shares;
+        long previous = points.lastKey();
+        for (Map.Entry<Long, String> point : points.entrySet()) {
+            // Unsigned distance from the previous point; the first range wraps around.
+            shares.merge(point.getValue(), unsigned(point.getKey() - previous) / 0x1p64, Double::sum);
+            previous = point.getKey();
+        }
+        if (points.size() == 1) {
+            shares.put(points.firstEntry().getValue(), 1.0);
+        }
+        return shares;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so that
+     * similar keys ("S1", "S2") land far apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? value : value + 0x1p64;
+    }
+}
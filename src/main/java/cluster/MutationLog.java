@@ -0,0 +1,259 @@
+package cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * The ordered log of state changes a {@link ClusterNode} has made.
+ *
+ * <p>Two views of the same changes:
+ * <ul>
+ *   <li>Journals: per routing key, the state records that restore the key's current state,
+ *       one per record ID (a student, one student's enrollments in one section, a capacity
+ *       setting). Writing a record replaces the previous one with the same ID, so a journal
+ *       never grows past the key's live state. Deleting a student or releasing an email
+ *       clears its journal. A node hands keys to another node by shipping their journals;
+ *       all journals together are a snapshot.</li>
+ *   <li>Tail: the most recent records and removals of all keys, in the order they were
+ *       made, each with a sequence number. Followers stream it ({@link #read}); one that has
+ *       fallen behind the oldest retained entry loads a {@link #snapshot} first.</li>
+ * </ul>
+ *
+ * <p>Records are frames that apply idempotently, so a record applied twice, or on top of a
+ * snapshot that already contains it, changes nothing. A record equal to the one already
+ * journaled is not sequenced again.</p>
+ *
+ * <p>A write runs under its key's lock ({@link #write}), so changes to one key are applied,
+ * journaled and sequenced in the same order; writes to different keys run in parallel.
+ * Snapshots pause writes just long enough to copy the journals.</p>
+ */
+final class MutationLog {
+
+    /** Tail entries retained by default. */
+    static final int DEFAULT_TAIL_CAPACITY = 65_536;
+
+    /** Key locks; keys share a lock when their hashes collide modulo this. */
+    private static final int STRIPES = 64;
+
+    /**
+     * One logged change.
+     *
+     * @param sequence position in the log, from 1.
+     * @param request the record or removal frame.
+     */
+    record Entry(long sequence, byte[] request) {}
+
+    /**
+     * All journals as of one sequence.
+     *
+     * @param sequence the last sequence included.
+     * @param journals state records by key, each list in the order its IDs were first written.
+     */
+    record Snapshot(long sequence, Map<String, List<byte[]>> journals) {}
+
+    private final int tailCapacity;
+
+    /** Key -> record ID -> record; the inner maps are guarded by the key's lock. */
+    private final ConcurrentHashMap<String, Map<Object, byte[]>> journals = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /** Writers share it; {@link #snapshot} takes it exclusively to cut a consistent state. */
+    private final ReentrantReadWriteLock cut = new ReentrantReadWriteLock();
+
+    /** Guards the tail and the sequence. */
+    private final ReentrantLock tailLock = new ReentrantLock();
+
+    private final Condition appended = tailLock.newCondition();
+
+    /** Ring of the last {@link #tailCapacity} entries; entry {@code s} is at {@code s % tailCapacity}. */
+    private final Entry[] tail;
+
+    private long lastSequence;
+
+    /**
+     * @param tailCapacity tail entries retained.
+     */
+    MutationLog(int tailCapacity) {
+        if (tailCapacity <= 0) {
+            throw new IllegalArgumentException("Tail capacity must be positive");
+        }
+        this.tailCapacity = tailCapacity;
+        this.tail = new Entry[tailCapacity];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs a write under the key's lock. The write logs what it changed with {@link #put},
+     * {@link #putAll} or {@link #clear}; a write that throws should log nothing.
+     *
+     * @return what the write returned.
+     */
+    <T> T write(String key, Supplier<T> write) {
+        ReentrantLock lock = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        cut.readLock().lock();
+        lock.lock();
+        try {
+            return write.get();
+        } finally {
+            lock.unlock();
+            cut.readLock().unlock();
+        }
+    }
+
+    /**
+     * Journals a key's state record, replacing the one with the same ID, and sequences it
+     * unless it equals the record already journaled.
+     */
+    void put(String key, Object id, byte[] record) {
+        write(key, () -> {
+            Map<Object, byte[]> journal = journals.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            byte[] previous = journal.put(id, record);
+            if (!Arrays.equals(previous, record)) {
+                sequence(record);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Journals several of a key's state records at once, a null record dropping its ID's, and
+     * sequences one frame for all of them unless none changed. Followers apply the frame as a
+     * whole, so they never see some of the records without the others.
+     *
+     * @param records record ID -> record, or null if the ID has none left.
+     * @param batch the frame that applies all the records.
+     */
+    void putAll(String key, Map<Object, byte[]> records, byte[] batch) {
+        write(key, () -> {
+            Map<Object, byte[]> journal = journals.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            boolean changed = false;
+            for (Map.Entry<Object, byte[]> record : records.entrySet()) {
+                byte[] previous = record.getValue() == null
+                        ? journal.remove(record.getKey())
+                        : journal.put(record.getKey(), record.getValue());
+                changed |= !Arrays.equals(previous, record.getValue());
+            }
+            if (journal.isEmpty()) {
+                journals.remove(key);
+            }
+            if (changed) {
+                sequence(batch);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Drops a key's journal and, if it had one, sequences the frame that removes the key.
+     */
+    void clear(String key, byte[] removal) {
+        write(key, () -> {
+            if (journals.remove(key) != null) {
+                sequence(removal);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return the keys with journaled records.
+     */
+    Set<String> keys() {
+        return journals.keySet();
+    }
+
+    /**
+     * @return a copy of the key's journal, or null if it has none.
+     */
+    List<byte[]> journal(String key) {
+        return write(key, () -> {
+            Map<Object, byte[]> journal = journals.get(key);
+            return journal == null ? null : new ArrayList<>(journal.values());
+        });
+    }
+
+    /**
+     * @return the sequence of the last logged change (0 if none).
+     */
+    long lastSequence() {
+        tailLock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            tailLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the tail entries after a position, waiting up to {@code waitMillis} for one
+     * to arrive if there is none yet.
+     *
+     * @param after the last sequence the reader has.
+     * @param maxEntries maximum entries returned.
+     * @param waitMillis how long to wait for a new entry.
+     * @return the entries (possibly none), or null if the tail no longer reaches back to
+     *         {@code after} and the reader needs a snapshot.
+     */
+    List<Entry> read(long after, int maxEntries, long waitMillis) throws InterruptedException {
+        tailLock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (lastSequence == after && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            if (after > lastSequence) {
+                return null; // The reader is ahead of this log: it followed a different one.
+            }
+            long oldest = Math.max(1, lastSequence - tailCapacity + 1);
+            if (after + 1 < oldest) {
+                return null;
+            }
+            long last = Math.min(lastSequence, after + maxEntries);
+            List<Entry> entries = new ArrayList<>((int) (last - after));
+            for (long sequence = after + 1; sequence <= last; sequence++) {
+                entries.add(tail[(int) (sequence % tailCapacity)]);
+            }
+            return entries;
+        } finally {
+            tailLock.unlock();
+        }
+    }
+
+    /**
+     * @return every journal as of the current sequence.
+     */
+    Snapshot snapshot() {
+        cut.writeLock().lock();
+        try {
+            Map<String, List<byte[]>> copy = new LinkedHashMap<>();
+            journals.forEach((key, journal) -> copy.put(key, new ArrayList<>(journal.values())));
+            return new Snapshot(lastSequence(), copy);
+        } finally {
+            cut.writeLock().unlock();
+        }
+    }
+
+    private void sequence(byte[] request) {
+        tailLock.lock();
+        try {
+            lastSequence++;
+            tail[(int) (lastSequence % tailCapacity)] = new Entry(lastSequence, request);
+            appended.signalAll();
+        } finally {
+            tailLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package cluster;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Client side of the {@link ClusterProtocol} for one node.
+ *
+ * <p>Keeps a pool of idle loopback connections: a call borrows one (opening a new one if
+ * none is idle), sends one request frame, reads one response frame and returns the
+ * connection. A connection that fails is closed instead of being returned.</p>
+ */
+final class NodeClient implements AutoCloseable {
+
+    /** Connect timeout in milliseconds. */
+    private static final int CONNECT_TIMEOUT = 2_000;
+
+    /**
+     * Read timeout in milliseconds: a node that stops answering fails the call instead of
+     * blocking it forever. Far above a follower's long poll, and long enough for a hand-off.
+     */
+    private static final int READ_TIMEOUT = 60_000;
+
+    @Getter
+    private final String address;
+
+    private final InetSocketAddress socketAddress;
+
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean closed;
+
+    /**
+     * @param address the node's {@code host:port}.
+     */
+    NodeClient(@NonNull String address) {
+        this.address = address;
+        this.socketAddress = parse(address);
+    }
+
+    /**
+     * Sends a request and waits for the response.
+     *
+     * @param request a request built by {@link ClusterProtocol#request}.
+     * @return the response frame.
+     * @throws UncheckedIOException if the node cannot be reached or does not answer in time.
+     */
+    byte[] call(byte[] request) {
+        if (closed) {
+            throw new IllegalStateException("Client of node " + address + " is closed");
+        }
+        Connection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection(socketAddress);
+            }
+            ClusterProtocol.writeFrame(connection.out, request);
+            byte[] response = ClusterProtocol.readFrame(connection.in);
+            if (closed) {
+                connection.close();
+            } else {
+                idle.add(connection);
+            }
+            return response;
+        } catch (IOException e) {
+            if (connection != null) connection.close();
+            throw new UncheckedIOException("Node " + address + " unreachable", e);
+        }
+    }
+
+    /**
+     * Sends a request and reads its result, rethrowing a remote error.
+     */
+    <T> T call(byte[] request, ClusterProtocol.Reader<T> reader) {
+        return ClusterProtocol.result(address, call(request), reader);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    static InetSocketAddress parse(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Node address must be host:port: " + address);
+        }
+        try {
+            return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Node address must be host:port: " + address);
+        }
+    }
+
+    private static final class Connection {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        Connection(InetSocketAddress address) throws IOException {
+            socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(READ_TIMEOUT);
+                socket.connect(address, CONNECT_TIMEOUT);
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing left to release.
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static codec.BinaryWriter.FIXED64;
+import static codec.BinaryWriter.LENGTH_DELIMITED;
+import static codec.BinaryWriter.VARINT;
+
+/**
+ * Reads the tagged fields a {@link BinaryWriter} wrote.
+ *
+ * <p>Typical use, inside {@link ModelCodec#readFields}:
+ * <pre>{@code
+ * while (in.nextField()) {
+ *     switch (in.tag()) {
+ *         case 1 -> id = in.readString();
+ *         case 2 -> version = in.readVarLong();
+ *         default -> in.skip(); // Written by a newer schema.
+ *     }
+ * }
+ * }</pre>
+ * Reading a field with the wrong method, or a truncated record, throws
+ * {@link IllegalArgumentException}.</p>
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private final int limit;
+
+    private int tag;
+
+    private int wireType = -1;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Reads {@code length} bytes of {@code buffer} starting at {@code offset}.
+     */
+    public BinaryReader(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException("Range outside buffer");
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Moves to the next field.
+     *
+     * @return false at the end of the record.
+     */
+    public boolean nextField() {
+        if (position >= limit) return false;
+        long header = varLong();
+        tag = (int) (header >>> 3);
+        wireType = (int) (header & 7);
+        if (tag <= 0 || wireType > LENGTH_DELIMITED) {
+            throw new IllegalArgumentException("Invalid field header " + header);
+        }
+        return true;
+    }
+
+    /**
+     * @return the tag of the current field.
+     */
+    public int tag() {
+        return tag;
+    }
+
+    /**
+     * Skips the current field's value.
+     */
+    public void skip() {
+        switch (wireType) {
+            case VARINT -> varLong();
+            case FIXED64 -> advance(8);
+            case LENGTH_DELIMITED -> advance(length());
+            default -> throw new IllegalStateException("No current field");
+        }
+    }
+
+    public long readVarLong() {
+        expect(VARINT);
+        return varLong();
+    }
+
+    public int readVarInt() {
+        long value = readVarLong();
+        if (value != (int) value) {
+            throw new IllegalArgumentException("Field " + tag + " overflows an int");
+        }
+        return (int) value;
+    }
+
+    public long readSignedLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public boolean readBoolean() {
+        return readVarLong() != 0;
+    }
+
+    public double readDouble() {
+        expect(FIXED64);
+        return Double.longBitsToDouble(fixed64());
+    }
+
+    public String readString() {
+        expect(LENGTH_DELIMITED);
+        int length = length();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public long[] readLongs() {
+        expect(LENGTH_DELIMITED);
+        int length = length();
+        if (length % 8 != 0) {
+            throw new IllegalArgumentException("Field " + tag + " is not a whole number of words");
+        }
+        long[] values = new long[length / 8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fixed64();
+        }
+        return values;
+    }
+
+    /**
+     * Reads one entry written by {@link BinaryWriter#writeStringMap} into {@code map}.
+     */
+    public void readStringEntry(Map<String, String> map) {
+        BinaryReader entry = nested();
+        String key = null;
+        String value = null;
+        while (entry.nextField()) {
+            switch (entry.tag()) {
+                case 1 -> key = entry.readString();
+                case 2 -> value = entry.readString();
+                default -> entry.skip();
+            }
+        }
+        map.put(key, value);
+    }
+
+    /**
+     * Reads a record written by {@link BinaryWriter#writeRecord}.
+     */
+    public <T> T readRecord(ModelCodec<T> codec) {
+        return codec.decode(nested());
+    }
+
+    /**
+     * Reads an untagged varint (record headers).
+     */
+    public long varLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Truncated varint");
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private BinaryReader nested() {
+        expect(LENGTH_DELIMITED);
+        int length = length();
+        BinaryReader nested = new BinaryReader(buffer, position, length);
+        position += length;
+        return nested;
+    }
+
+    private long fixed64() {
+        if (limit - position < 8) {
+            throw new IllegalArgumentException("Truncated field " + tag);
+        }
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (buffer[position++] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+
+    private int length() {
+        long length = varLong();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("Field " + tag + " length " + length + " exceeds record");
+        }
+        return (int) length;
+    }
+
+    private void advance(int bytes) {
+        if (bytes > limit - position) {
+            throw new IllegalArgumentException("Truncated field " + tag);
+        }
+        position += bytes;
+    }
+
+    private void expect(int expected) {
+        if (wireType != expected) {
+            throw new IllegalArgumentException("Field " + tag + " has wire type " + wireType + ", expected " + expected);
+        }
+    }
+}
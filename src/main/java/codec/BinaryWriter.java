@@ -0,0 +1,250 @@
+package codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Appends tagged fields to a growable byte array, in the format {@link BinaryReader} reads.
+ *
+ * <p>A field is a header, {@code tag << 3 | wireType} as a varint, followed by its value:
+ * <ul>
+ *   <li>{@link #VARINT}: an unsigned LEB128 varint (7 bits per byte, low bits first).</li>
+ *   <li>{@link #FIXED64}: eight bytes, little-endian (doubles, bitmap words).</li>
+ *   <li>{@link #LENGTH_DELIMITED}: a varint length followed by that many bytes (strings,
+ *       nested records, packed arrays).</li>
+ * </ul>
+ * The wire type tells a reader how to skip a field it does not know, which is what lets
+ * old readers accept records written with newer schemas. Null values are not written;
+ * a missing field reads as null.</p>
+ *
+ * <p>Not thread-safe; reuse one writer per thread with {@link #reset()}.</p>
+ */
+public final class BinaryWriter {
+
+    public static final int VARINT = 0;
+    public static final int FIXED64 = 1;
+    public static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+
+    private int size;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    /**
+     * @param initialCapacity initial buffer size in bytes.
+     */
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * @return bytes written so far.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Discards everything written, keeping the buffer.
+     */
+    public BinaryWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * @return a copy of the bytes written.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void writeVarLong(int tag, long value) {
+        header(tag, VARINT);
+        varLong(value);
+    }
+
+    /**
+     * Writes a value that may be negative, zig-zag encoded so small magnitudes stay short.
+     */
+    public void writeSignedLong(int tag, long value) {
+        header(tag, VARINT);
+        varLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBoolean(int tag, boolean value) {
+        header(tag, VARINT);
+        buffer(1);
+        buffer[size++] = (byte) (value ? 1 : 0);
+    }
+
+    public void writeDouble(int tag, double value) {
+        header(tag, FIXED64);
+        fixed64(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeString(int tag, String value) {
+        if (value == null) return;
+        header(tag, LENGTH_DELIMITED);
+        string(value);
+    }
+
+    /**
+     * Writes each string as a field of its own; nulls are skipped.
+     */
+    public void writeStrings(int tag, Collection<String> values) {
+        if (values == null) return;
+        for (String value : values) {
+            writeString(tag, value);
+        }
+    }
+
+    /**
+     * Writes each entry as a nested record of key (tag 1) and value (tag 2).
+     */
+    public void writeStringMap(int tag, Map<String, String> map) {
+        if (map == null) return;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            int start = begin(tag);
+            writeString(1, entry.getKey());
+            writeString(2, entry.getValue());
+            end(start);
+        }
+    }
+
+    /**
+     * Writes words as one packed field of little-endian longs (e.g. {@link java.util.BitSet#toLongArray}).
+     */
+    public void writeLongs(int tag, long[] values) {
+        if (values == null) return;
+        header(tag, LENGTH_DELIMITED);
+        varLong(values.length * 8L);
+        for (long value : values) {
+            fixed64(value);
+        }
+    }
+
+    /**
+     * Writes a record as a nested, length-delimited field.
+     */
+    public <T> void writeRecord(int tag, ModelCodec<T> codec, T value) {
+        if (value == null) return;
+        int start = begin(tag);
+        codec.encode(this, value);
+        end(start);
+    }
+
+    /**
+     * Writes each record as a nested field of its own; nulls are skipped.
+     */
+    public <T> void writeRecords(int tag, ModelCodec<T> codec, Collection<T> values) {
+        if (values == null) return;
+        for (T value : values) {
+            writeRecord(tag, codec, value);
+        }
+    }
+
+    /**
+     * Writes an untagged varint (record headers).
+     */
+    public void varLong(long value) {
+        buffer(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void header(int tag, int wireType) {
+        if (tag <= 0) {
+            throw new IllegalArgumentException("Field tags must be positive: " + tag);
+        }
+        varLong((long) tag << 3 | wireType);
+    }
+
+    private void fixed64(long value) {
+        buffer(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void string(String value) {
+        // Most values are ASCII: encode in place, falling back to the JDK encoder otherwise.
+        int length = value.length();
+        if (length < 128) {
+            buffer(1 + length);
+            int lengthAt = size++;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    size = lengthAt;
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    raw(bytes);
+                    return;
+                }
+                buffer[size++] = (byte) c;
+            }
+            buffer[lengthAt] = (byte) length;
+            return;
+        }
+        raw(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void raw(byte[] bytes) {
+        varLong(bytes.length);
+        buffer(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Starts a length-delimited field whose length is not known yet.
+     *
+     * @return where its content starts.
+     */
+    private int begin(int tag) {
+        header(tag, LENGTH_DELIMITED);
+        buffer(1);
+        size++; // One byte reserved for the length; end() widens it if needed.
+        return size;
+    }
+
+    private void end(int start) {
+        int length = size - start;
+        int width = varLongWidth(length);
+        if (width > 1) {
+            buffer(width - 1);
+            System.arraycopy(buffer, start, buffer, start + width - 1, length);
+            size += width - 1;
+        }
+        int at = start - 1;
+        long value = length;
+        while ((value & ~0x7FL) != 0) {
+            buffer[at++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[at] = (byte) value;
+    }
+
+    private static int varLongWidth(long value) {
+        int width = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            width++;
+        }
+        return width;
+    }
+
+    private void buffer(int needed) {
+        if (size + needed > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + needed));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package codec;
+
+/**
+ * Versioned binary encoding of one model type.
+ *
+ * <p>A record is its schema version as a varint followed by tagged fields. Schemas evolve
+ * by rules that keep old and new code able to read each other's records:
+ * <ul>
+ *   <li>New fields get new tags; readers {@link BinaryReader#skip() skip} tags they do
+ *       not know, so records from a newer schema still read.</li>
+ *   <li>A removed field's tag is never reused; old records read as if it were absent.</li>
+ *   <li>A change that cannot be expressed that way (a field changing meaning) bumps
+ *       {@link #schemaVersion()}, and {@link #readFields} branches on the version it is
+ *       given.</li>
+ * </ul>
+ *
+ * @param <T> the model type.
+ */
+public interface ModelCodec<T> {
+
+    /**
+     * @return the version written into new records, from 1.
+     */
+    int schemaVersion();
+
+    /**
+     * Writes the fields of a value (never null).
+     */
+    void writeFields(BinaryWriter out, T value);
+
+    /**
+     * Reads a value's fields.
+     *
+     * @param version the schema version the record was written with; may be newer than
+     *                {@link #schemaVersion()}.
+     */
+    T readFields(BinaryReader in, int version);
+
+    default void encode(BinaryWriter out, T value) {
+        out.varLong(schemaVersion());
+        writeFields(out, value);
+    }
+
+    default byte[] encode(T value) {
+        BinaryWriter out = new BinaryWriter();
+        encode(out, value);
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the record is malformed.
+     */
+    default T decode(BinaryReader in) {
+        long version = in.varLong();
+        if (version <= 0 || version > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid schema version " + version);
+        }
+        return readFields(in, (int) version);
+    }
+
+    default T decode(byte[] bytes) {
+        return decode(new BinaryReader(bytes));
+    }
+}
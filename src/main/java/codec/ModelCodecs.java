@@ -0,0 +1,367 @@
+package codec;
+
+import model.Course;
+import model.Department;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Instructor;
+import model.Notification;
+import model.Student;
+import model.TimeSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@link ModelCodec}s for the domain models.
+ *
+ * <p>Field tags are listed with each codec; they are part of the format and must never be
+ * renumbered or reused. Enums are written by their persistent codes
+ * ({@link EnrollmentStatus#getCode()}, {@link GradeType#getCode()}), never by ordinal, so
+ * reordering constants does not change the meaning of stored records. Attendance bits are
+ * written as their {@code long} words.</p>
+ */
+public final class ModelCodecs {
+
+    private ModelCodecs() {}
+
+    /**
+     * Tags: 1 day of week (1-7), 2 start second of day, 3 end second of day,
+     * 4 start nanos, 5 end nanos (only when not zero).
+     */
+    public static final ModelCodec<TimeSlot> TIME_SLOT = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, TimeSlot slot) {
+            if (slot.getDayOfWeek() != null) out.writeVarLong(1, slot.getDayOfWeek().getValue());
+            writeTime(out, 2, 4, slot.getStartTime());
+            writeTime(out, 3, 5, slot.getEndTime());
+        }
+
+        @Override
+        public TimeSlot readFields(BinaryReader in, int version) {
+            TimeSlot slot = new TimeSlot();
+            long startNanos = 0;
+            long endNanos = 0;
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> slot.setDayOfWeek(DayOfWeek.of(in.readVarInt()));
+                    case 2 -> slot.setStartTime(LocalTime.ofSecondOfDay(in.readVarLong()));
+                    case 3 -> slot.setEndTime(LocalTime.ofSecondOfDay(in.readVarLong()));
+                    case 4 -> startNanos = in.readVarLong();
+                    case 5 -> endNanos = in.readVarLong();
+                    default -> in.skip();
+                }
+            }
+            if (startNanos != 0 && slot.getStartTime() != null) {
+                slot.setStartTime(slot.getStartTime().withNano((int) startNanos));
+            }
+            if (endNanos != 0 && slot.getEndTime() != null) {
+                slot.setEndTime(slot.getEndTime().withNano((int) endNanos));
+            }
+            return slot;
+        }
+    };
+
+    /**
+     * One grade of an enrollment. Tags: 1 grade type code, 2 score.
+     */
+    private static final ModelCodec<Map.Entry<GradeType, Double>> GRADE = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Map.Entry<GradeType, Double> grade) {
+            out.writeString(1, grade.getKey().getCode());
+            out.writeDouble(2, grade.getValue());
+        }
+
+        @Override
+        public Map.Entry<GradeType, Double> readFields(BinaryReader in, int version) {
+            GradeType type = null;
+            double score = 0;
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> type = GradeType.fromCode(in.readString());
+                    case 2 -> score = in.readDouble();
+                    default -> in.skip();
+                }
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("Grade without a type");
+            }
+            return Map.entry(type, score);
+        }
+    };
+
+    /**
+     * Tags: 1 student ID, 2 course code, 3 semester, 4 status code, 5 grades,
+     * 6 attendance words, 7 version.
+     */
+    public static final ModelCodec<Enrollment> ENROLLMENT = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Enrollment enrollment) {
+            out.writeString(1, enrollment.getStudentId());
+            out.writeString(2, enrollment.getCourseCode());
+            out.writeString(3, enrollment.getSemester());
+            if (enrollment.getStatus() != null) out.writeString(4, enrollment.getStatus().getCode());
+            if (enrollment.getGrades() != null) out.writeRecords(5, GRADE, enrollment.getGrades().entrySet());
+            if (enrollment.getAttendance() != null && !enrollment.getAttendance().isEmpty()) {
+                out.writeLongs(6, enrollment.getAttendance().toLongArray());
+            }
+            out.writeVarLong(7, enrollment.getVersion());
+        }
+
+        @Override
+        public Enrollment readFields(BinaryReader in, int version) {
+            Enrollment enrollment = new Enrollment(null, null, null, null, new EnumMap<>(GradeType.class), new BitSet());
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> enrollment.setStudentId(in.readString());
+                    case 2 -> enrollment.setCourseCode(in.readString());
+                    case 3 -> enrollment.setSemester(in.readString());
+                    case 4 -> enrollment.setStatus(EnrollmentStatus.fromCode(in.readString()));
+                    case 5 -> {
+                        Map.Entry<GradeType, Double> grade = in.readRecord(GRADE);
+                        enrollment.getGrades().put(grade.getKey(), grade.getValue());
+                    }
+                    case 6 -> enrollment.setAttendance(BitSet.valueOf(in.readLongs()));
+                    case 7 -> enrollment.setVersion(in.readVarLong());
+                    default -> in.skip();
+                }
+            }
+            return enrollment;
+        }
+    };
+
+    /**
+     * Tags: 1 ID, 2 full name, 3 email, 4 phone, 5 enrolled courses, 6 attributes, 7 version.
+     */
+    public static final ModelCodec<Student> STUDENT = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Student student) {
+            out.writeString(1, student.getId());
+            out.writeString(2, student.getFullName());
+            out.writeString(3, student.getEmail());
+            out.writeString(4, student.getPhone());
+            out.writeRecords(5, ENROLLMENT, student.getEnrolledCourses());
+            out.writeStringMap(6, student.getAttributes());
+            out.writeVarLong(7, student.getVersion());
+        }
+
+        @Override
+        public Student readFields(BinaryReader in, int version) {
+            Student student = new Student();
+            Set<Enrollment> enrolled = new LinkedHashSet<>();
+            Map<String, String> attributes = new HashMap<>();
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> student.setId(in.readString());
+                    case 2 -> student.setFullName(in.readString());
+                    case 3 -> student.setEmail(in.readString());
+                    case 4 -> student.setPhone(in.readString());
+                    case 5 -> enrolled.add(in.readRecord(ENROLLMENT));
+                    case 6 -> in.readStringEntry(attributes);
+                    case 7 -> student.setVersion(in.readVarLong());
+                    default -> in.skip();
+                }
+            }
+            student.setEnrolledCourses(enrolled);
+            student.setAttributes(attributes);
+            return student;
+        }
+    };
+
+    /**
+     * Tags: 1 code, 2 title, 3 credits, 4 department, 5 prerequisites, 6 scheduled slots,
+     * 7 capacity, 8 version.
+     */
+    public static final ModelCodec<Course> COURSE = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Course course) {
+            out.writeString(1, course.getCode());
+            out.writeString(2, course.getTitle());
+            out.writeSignedLong(3, course.getCredits());
+            out.writeString(4, course.getDepartment());
+            out.writeStrings(5, course.getPrerequisites());
+            out.writeRecords(6, TIME_SLOT, course.getScheduledSlots());
+            out.writeSignedLong(7, course.getCapacity());
+            out.writeVarLong(8, course.getVersion());
+        }
+
+        @Override
+        public Course readFields(BinaryReader in, int version) {
+            Course course = new Course();
+            Set<String> prerequisites = new HashSet<>();
+            Set<TimeSlot> slots = new TreeSet<>();
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> course.setCode(in.readString());
+                    case 2 -> course.setTitle(in.readString());
+                    case 3 -> course.setCredits((int) in.readSignedLong());
+                    case 4 -> course.setDepartment(in.readString());
+                    case 5 -> prerequisites.add(in.readString());
+                    case 6 -> slots.add(in.readRecord(TIME_SLOT));
+                    case 7 -> course.setCapacity((int) in.readSignedLong());
+                    case 8 -> course.setVersion(in.readVarLong());
+                    default -> in.skip();
+                }
+            }
+            course.setPrerequisites(prerequisites);
+            course.setScheduledSlots(slots);
+            return course;
+        }
+    };
+
+    /**
+     * Tags: 1 ID, 2 name, 3 course codes.
+     */
+    public static final ModelCodec<Department> DEPARTMENT = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Department department) {
+            out.writeString(1, department.getId());
+            out.writeString(2, department.getName());
+            out.writeStrings(3, department.getCourses());
+        }
+
+        @Override
+        public Department readFields(BinaryReader in, int version) {
+            Department department = new Department();
+            Set<String> courses = new TreeSet<>();
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> department.setId(in.readString());
+                    case 2 -> department.setName(in.readString());
+                    case 3 -> courses.add(in.readString());
+                    default -> in.skip();
+                }
+            }
+            department.setCourses(courses);
+            return department;
+        }
+    };
+
+    /**
+     * Tags: 1 ID, 2 name, 3 courses taught, 4 department.
+     */
+    public static final ModelCodec<Instructor> INSTRUCTOR = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Instructor instructor) {
+            out.writeString(1, instructor.getId());
+            out.writeString(2, instructor.getName());
+            out.writeStrings(3, instructor.getCoursesTaught());
+            out.writeString(4, instructor.getDepartment());
+        }
+
+        @Override
+        public Instructor readFields(BinaryReader in, int version) {
+            Instructor instructor = new Instructor();
+            Set<String> courses = new HashSet<>();
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> instructor.setId(in.readString());
+                    case 2 -> instructor.setName(in.readString());
+                    case 3 -> courses.add(in.readString());
+                    case 4 -> instructor.setDepartment(in.readString());
+                    default -> in.skip();
+                }
+            }
+            instructor.setCoursesTaught(courses);
+            return instructor;
+        }
+    };
+
+    /**
+     * Tags: 1 ID, 2 recipient ID, 3 message, 4 scheduled time as UTC epoch seconds,
+     * 5 scheduled time nanos (only when not zero), 6 sent.
+     */
+    public static final ModelCodec<Notification> NOTIFICATION = new ModelCodec<>() {
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void writeFields(BinaryWriter out, Notification notification) {
+            out.writeString(1, notification.getId());
+            out.writeString(2, notification.getRecipientId());
+            out.writeString(3, notification.getMessage());
+            LocalDateTime scheduled = notification.getScheduledTime();
+            if (scheduled != null) {
+                out.writeSignedLong(4, scheduled.toEpochSecond(ZoneOffset.UTC));
+                if (scheduled.getNano() != 0) out.writeVarLong(5, scheduled.getNano());
+            }
+            out.writeBoolean(6, notification.isSent());
+        }
+
+        @Override
+        public Notification readFields(BinaryReader in, int version) {
+            Notification notification = new Notification();
+            int nanos = 0;
+            while (in.nextField()) {
+                switch (in.tag()) {
+                    case 1 -> notification.setId(in.readString());
+                    case 2 -> notification.setRecipientId(in.readString());
+                    case 3 -> notification.setMessage(in.readString());
+                    case 4 -> notification.setScheduledTime(
+                            LocalDateTime.ofEpochSecond(in.readSignedLong(), 0, ZoneOffset.UTC));
+                    case 5 -> nanos = in.readVarInt();
+                    case 6 -> notification.setSent(in.readBoolean());
+                    default -> in.skip();
+                }
+            }
+            if (nanos != 0 && notification.getScheduledTime() != null) {
+                notification.setScheduledTime(notification.getScheduledTime().withNano(nanos));
+            }
+            return notification;
+        }
+    };
+
+    private static void writeTime(BinaryWriter out, int secondsTag, int nanosTag, LocalTime time) {
+        if (time == null) return;
+        out.writeVarLong(secondsTag, time.toSecondOfDay());
+        if (time.getNano() != 0) out.writeVarLong(nanosTag, time.getNano());
+    }
+}
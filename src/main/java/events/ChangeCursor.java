@@ -0,0 +1,77 @@
+package events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One consumer's read position on a {@link ChangeFeed}.
+ *
+ * <p>Each consumer (cache invalidator, search indexer, notification trigger, ...) owns a
+ * cursor and advances it independently of the others. A cursor is meant for a single
+ * consumer thread; its methods are synchronized only so it can be handed between threads.</p>
+ */
+public class ChangeCursor {
+
+    private final ChangeFeed feed;
+
+    /** Sequence of the next event to deliver. */
+    private long position;
+
+    /** Events overwritten before this cursor read them. */
+    private long dropped;
+
+    ChangeCursor(ChangeFeed feed, long position) {
+        this.feed = feed;
+        this.position = position;
+    }
+
+    /**
+     * Takes up to {@code maxEvents} published events, in sequence order, without waiting.
+     *
+     * @param maxEvents maximum batch size.
+     * @return the events, empty if the cursor is caught up.
+     */
+    public synchronized List<ChangeEvent> poll(int maxEvents) {
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        List<ChangeEvent> batch = new ArrayList<>(Math.min(maxEvents, 64));
+        while (batch.size() < maxEvents) {
+            ChangeEvent event = feed.slot(position);
+            if (event == null || event.sequence() < position) {
+                break;  // not written yet
+            }
+            if (event.sequence() > position) {
+                // Lapped by producers: skip to the oldest event still retained.
+                long resume = Math.max(position + 1, feed.oldestRetained());
+                dropped += resume - position;
+                position = resume;
+                continue;
+            }
+            batch.add(event);
+            position++;
+        }
+        return batch;
+    }
+
+    /**
+     * @return sequence of the next event this cursor will deliver.
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return total events this cursor missed because it fell more than a ring behind.
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return number of published events not yet delivered (including ones that will be dropped).
+     */
+    public synchronized long lag() {
+        return Math.max(0, feed.nextSequence() - position);
+    }
+}
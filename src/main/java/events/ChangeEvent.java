@@ -0,0 +1,16 @@
+package events;
+
+import java.time.Instant;
+
+/**
+ * One mutation published on the {@link ChangeFeed}.
+ *
+ * @param sequence position in the feed; consecutive across all repositories sharing the feed.
+ * @param type what changed.
+ * @param key ID of the entity that changed (see {@link ChangeType}).
+ * @param payload the entity's state after the change, the course code for instructor
+ *                assignment events, or null for deletions (except {@link ChangeType#ENROLLMENT_DELETED}).
+ * @param timestamp when the event was published.
+ */
+public record ChangeEvent(long sequence, ChangeType type, String key, Object payload, Instant timestamp) {
+}
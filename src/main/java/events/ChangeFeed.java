@@ -0,0 +1,153 @@
+package events;
+
+import lombok.NonNull;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ordered, sequence-numbered stream of repository mutations.
+ *
+ * <p>Data structure: a fixed-size ring of {@link ChangeEvent}s (capacity a power of two).
+ * Producers claim the next sequence with one {@link AtomicLong#getAndIncrement()} and
+ * write the event into slot {@code sequence & mask}; nothing is locked, and the ring
+ * never grows, so memory is bounded by the capacity.</p>
+ *
+ * <p>Consumers read through their own {@link ChangeCursor}. Cursors are not registered
+ * with the feed: producers never wait for consumers, so a consumer that falls more than
+ * {@code capacity} events behind skips the overwritten ones and sees them counted in
+ * {@link ChangeCursor#getDropped()}. Events are delivered in sequence order; a cursor
+ * stops at a claimed but not yet written slot until its producer finishes.</p>
+ *
+ * <p>Repositories publish after a change is committed. Two writers racing on the same
+ * entity may publish in either order; versioned payloads (Student, Course, Enrollment)
+ * carry their version so consumers can tell which is newer.</p>
+ *
+ * <p>A consumer that must not miss an event registers a {@link ChangeListener} instead; it is
+ * called on the publishing thread after the event is in the ring.</p>
+ */
+public class ChangeFeed {
+
+    /** Capacity used by {@link repository.StorageContext} unless configured otherwise. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<ChangeEvent> slots;
+
+    private final int mask;
+
+    private final Clock clock;
+
+    /** Next sequence to claim. */
+    private final AtomicLong next = new AtomicLong();
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a feed stamped with the system UTC clock.
+     *
+     * @param capacity number of events retained; rounded up to a power of two.
+     */
+    public ChangeFeed(int capacity) {
+        this(capacity, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a feed.
+     *
+     * @param capacity number of events retained; rounded up to a power of two.
+     * @param clock time source for event timestamps.
+     */
+    public ChangeFeed(int capacity, @NonNull Clock clock) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.clock = clock;
+    }
+
+    /**
+     * Publishes an event.
+     *
+     * @param type what changed.
+     * @param key ID of the entity that changed.
+     * @param payload the new state, or null.
+     * @return the event's sequence number.
+     */
+    public long publish(@NonNull ChangeType type, String key, Object payload) {
+        long sequence = next.getAndIncrement();
+        ChangeEvent event = new ChangeEvent(sequence, type, key, payload, clock.instant());
+        int index = index(sequence);
+        for (;;) {
+            ChangeEvent current = slots.get(index);
+            // A producer a full lap ahead already reused the slot; this event counts as dropped.
+            if (current != null && current.sequence() > sequence) break;
+            if (slots.compareAndSet(index, current, event)) break;
+        }
+        for (ChangeListener listener : listeners) {
+            listener.changed(event);
+        }
+        return sequence;
+    }
+
+    /**
+     * Registers a listener for every event published from now on.
+     */
+    public void addListener(@NonNull ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener; it may still receive events being published concurrently.
+     */
+    public void removeListener(@NonNull ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return a cursor that receives events published from now on.
+     */
+    public ChangeCursor subscribe() {
+        return new ChangeCursor(this, next.get());
+    }
+
+    /**
+     * @return a cursor that starts at the oldest event still in the ring.
+     */
+    public ChangeCursor subscribeFromEarliest() {
+        return new ChangeCursor(this, oldestRetained());
+    }
+
+    /**
+     * @return the sequence the next event will get (equals the number of events published).
+     */
+    public long nextSequence() {
+        return next.get();
+    }
+
+    /**
+     * @return number of events the ring retains.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    ChangeEvent slot(long sequence) {
+        return slots.get(index(sequence));
+    }
+
+    long oldestRetained() {
+        return Math.max(0, next.get() - capacity());
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,17 @@
+package events;
+
+/**
+ * Receives every event of a {@link ChangeFeed} synchronously, on the publishing thread.
+ *
+ * <p>Unlike a {@link ChangeCursor}, a listener never misses an event, but the publisher
+ * waits for it: it must return quickly and must not call back into a repository, which may
+ * still hold its locks while it publishes.</p>
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * @param event the event just published.
+     */
+    void changed(ChangeEvent event);
+}
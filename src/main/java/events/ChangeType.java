@@ -0,0 +1,53 @@
+package events;
+
+/**
+ * Kinds of mutation published on the {@link ChangeFeed}.
+ *
+ * <p>The event key is the ID of the entity named by the prefix (student ID for
+ * {@code ENROLLMENT_*}, {@code GRADE_RECORDED} and {@code SEAT_*} events, which concern
+ * a student's place in a course section).</p>
+ */
+public enum ChangeType {
+    STUDENT_CREATED,
+    STUDENT_UPDATED,
+    STUDENT_DELETED,
+
+    COURSE_CREATED,
+    COURSE_UPDATED,
+    COURSE_DELETED,
+
+    /**
+     * An enrollment record was created with its final status: ENROLLED if it got a seat at
+     * once (or confirmed a hold), WAITLISTED otherwise.
+     */
+    ENROLLMENT_CREATED,
+    /** A waitlisted or held student got a seat. */
+    ENROLLMENT_CONFIRMED,
+    ENROLLMENT_DROPPED,
+    ENROLLMENT_WITHDRAWN,
+    ENROLLMENT_COMPLETED,
+    /**
+     * An enrollment record was removed by a cascade delete. Unlike other deletions, the
+     * payload is the record's last state: the key alone (a student ID) does not say which
+     * of the student's enrollments went.
+     */
+    ENROLLMENT_DELETED,
+    /** An enrollment was replaced through compare-and-set. */
+    ENROLLMENT_UPDATED,
+    GRADE_RECORDED,
+    SEAT_HELD,
+    /** A seat hold was released or expired without being confirmed. */
+    SEAT_RELEASED,
+
+    DEPARTMENT_CREATED,
+    DEPARTMENT_UPDATED,
+
+    INSTRUCTOR_CREATED,
+    INSTRUCTOR_COURSE_ASSIGNED,
+    INSTRUCTOR_COURSE_UNASSIGNED,
+    INSTRUCTOR_DELETED,
+
+    NOTIFICATION_CREATED,
+    NOTIFICATION_SENT,
+    NOTIFICATION_DELETED
+}
@@ -0,0 +1,210 @@
+package jobs;
+
+import lombok.NonNull;
+import model.Course;
+import model.EnrollmentStatus;
+import repository.CourseRepository;
+import repository.EnrollmentRepository;
+import repository.EnrollmentViews;
+import repository.EnrollmentViews.Dimension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that checks {@link EnrollmentViews} against the repositories.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Once per interval, recompute every count from scratch: enrollment records are
+ *       streamed in parallel into a fresh {@link EnrollmentViews}, whose courses are then
+ *       attributed to their current departments.</li>
+ *   <li>Before comparing, move every course the views attribute to a department other than
+ *       its current one, so department counts are checked against the right mapping.</li>
+ *   <li>Report each counter that differs from the recomputed value as a {@link Drift}.</li>
+ *   <li>Optionally correct drift, but only drift seen with the same values on two
+ *       consecutive passes: a recount is not a snapshot, so writes in flight during a pass
+ *       show up as transient differences that the next pass no longer sees.</li>
+ * </ul>
+ */
+public class EnrollmentViewVerifier implements AutoCloseable {
+
+    /**
+     * One counter that disagrees with the recount.
+     *
+     * @param expected the recomputed count.
+     * @param actual the count the views hold.
+     */
+    public record Drift(Dimension dimension, String key, EnrollmentStatus status, long expected, long actual) {
+    }
+
+    /**
+     * Outcome of one pass.
+     *
+     * @param records enrollment records recounted.
+     * @param drifts counters that differ in this pass.
+     * @param confirmed drifts also seen, with the same values, in the previous pass.
+     * @param corrected whether the confirmed drifts were corrected.
+     * @param reattributed courses whose department in the views disagreed with the course
+     *                     repository and was moved to the current one before comparing.
+     */
+    public record Report(long records, List<Drift> drifts, List<Drift> confirmed, boolean corrected, int reattributed) {
+
+        /** @return true if no counter drifted. */
+        public boolean isConsistent() {
+            return drifts.isEmpty();
+        }
+    }
+
+    private final EnrollmentViews views;
+
+    private final EnrollmentRepository enrollments;
+
+    private final CourseRepository courses;
+
+    private final Duration interval;
+
+    private final boolean correct;
+
+    private final AtomicLong corrections = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler;
+
+    private Set<Drift> previous = Set.of();
+
+    private Report lastReport;
+
+    private boolean started;
+
+    /**
+     * Creates a verifier. Call {@link #start()} to verify on a background thread,
+     * or {@link #verify()} to run a pass manually.
+     *
+     * @param views the views to check.
+     * @param enrollments the repository the views count.
+     * @param courses where course departments are looked up.
+     * @param interval time between passes.
+     * @param correct whether to correct drift confirmed by two consecutive passes.
+     */
+    public EnrollmentViewVerifier(@NonNull EnrollmentViews views, @NonNull EnrollmentRepository enrollments,
+                                  @NonNull CourseRepository courses, @NonNull Duration interval, boolean correct) {
+        this.views = views;
+        this.enrollments = enrollments;
+        this.courses = courses;
+        this.interval = interval;
+        this.correct = correct;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "enrollment-view-verifier");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts verifying once per interval.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                verify();
+            } catch (RuntimeException e) {
+                // The repositories failed mid-recount; the next pass starts over.
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recounts every enrollment record and compares the views against the result.
+     *
+     * @return what the pass found.
+     */
+    public synchronized Report verify() {
+        EnrollmentViews recount = new EnrollmentViews();
+        AtomicLong records = new AtomicLong();
+        enrollments.streamEnrollments().parallel().forEach(enrollment -> {
+            recount.apply(null, enrollment);
+            records.incrementAndGet();
+        });
+        Set<String> codes = new HashSet<>(recount.keys(Dimension.COURSE));
+        codes.addAll(views.keys(Dimension.COURSE));
+        Map<String, Course> current = courses.getByCodes(codes);
+        int reattributed = 0;
+        for (String code : codes) {
+            Course course = current.get(code);
+            String department = course == null ? null : course.getDepartment();
+            if (department != null) {
+                recount.courseChanged(code, department);
+            }
+            // A missed or reordered course event leaves the views attributing the course to
+            // a stale department, which every later enrollment would be counted under.
+            if (!Objects.equals(views.departmentOf(code), department)) {
+                views.courseChanged(code, department);
+                reattributed++;
+            }
+        }
+
+        List<Drift> drifts = new ArrayList<>();
+        for (Dimension dimension : Dimension.values()) {
+            Set<String> keys = new HashSet<>(recount.keys(dimension));
+            keys.addAll(views.keys(dimension));
+            for (String key : keys) {
+                for (EnrollmentStatus status : EnrollmentStatus.values()) {
+                    long expected = recount.count(dimension, key, status);
+                    long actual = views.count(dimension, key, status);
+                    if (expected != actual) {
+                        drifts.add(new Drift(dimension, key, status, expected, actual));
+                    }
+                }
+            }
+        }
+
+        List<Drift> confirmed = new ArrayList<>();
+        for (Drift drift : drifts) {
+            if (previous.contains(drift)) {
+                confirmed.add(drift);
+            }
+        }
+        Set<Drift> pending = new HashSet<>(drifts);
+        if (correct) {
+            for (Drift drift : confirmed) {
+                views.adjust(drift.dimension(), drift.key(), drift.status(), drift.expected() - drift.actual());
+            }
+            corrections.addAndGet(confirmed.size());
+            // Corrected counters start over: drift that comes back must be confirmed again.
+            confirmed.forEach(pending::remove);
+        }
+        previous = pending;
+        lastReport = new Report(records.get(), List.copyOf(drifts), List.copyOf(confirmed), correct, reattributed);
+        return lastReport;
+    }
+
+    /**
+     * @return the last pass's report, or null before the first pass.
+     */
+    public synchronized Report lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return total counters corrected by this verifier.
+     */
+    public long correctedCount() {
+        return corrections.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,154 @@
+package jobs;
+
+import lombok.NonNull;
+import model.dto.SeatHold;
+import repository.EnrollmentRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that gives expired seat holds back to their sections.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Track every issued {@link SeatHold} in a {@link TimingWheel} keyed by expiry time.</li>
+ *   <li>On each tick, take only the holds that fell due and release them through
+ *       {@link EnrollmentRepository#expireHolds} in batches of at most {@code batchSize},
+ *       so the waitlist of each section is promoted once per batch.</li>
+ * </ul>
+ *
+ * <p>Confirmed or released holds are not removed from the wheel; the repository skips
+ * them when they fall due, which keeps confirmation O(1). Expiring a hold twice is
+ * harmless for the same reason, so a failed batch is simply retried.</p>
+ */
+public class HoldExpirySweeper implements AutoCloseable {
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final Clock clock;
+
+    private final Duration tick;
+
+    private final int batchSize;
+
+    private final TimingWheel<SeatHold> wheel;
+
+    private final AtomicLong released = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler;
+
+    private boolean started;
+
+    /**
+     * Creates a sweeper. Call {@link #start()} to sweep on a background thread,
+     * or {@link #sweep()} to run a tick manually.
+     *
+     * @param enrollmentRepository the repository that issued the holds.
+     * @param clock time source; should be the repository's clock.
+     * @param tick sweep interval and expiry resolution.
+     * @param wheelSize number of wheel buckets.
+     * @param batchSize maximum holds released per repository call.
+     */
+    public HoldExpirySweeper(@NonNull EnrollmentRepository enrollmentRepository, @NonNull Clock clock,
+                             @NonNull Duration tick, int wheelSize, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.enrollmentRepository = enrollmentRepository;
+        this.clock = clock;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tick, wheelSize, clock.instant());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hold-expiry-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts sweeping once per tick.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        scheduler.scheduleAtFixedRate(this::sweepQuietly, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tracks a hold so that it is released once it expires.
+     *
+     * @param hold the hold returned by {@link EnrollmentRepository#placeHold}; ignored if null.
+     */
+    public void track(SeatHold hold) {
+        if (hold != null) {
+            wheel.schedule(hold, hold.expiresAt());
+        }
+    }
+
+    /**
+     * Releases every tracked hold that has expired. A batch the repository fails on is put
+     * back on the wheel, already due, and retried on the next sweep; later batches still run.
+     *
+     * @return number of seats released.
+     * @throws RuntimeException the first batch failure, after every batch was attempted.
+     */
+    public int sweep() {
+        List<SeatHold> due = wheel.advance(clock.instant());
+        int count = 0;
+        RuntimeException failure = null;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<SeatHold> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                count += enrollmentRepository.expireHolds(batch);
+            } catch (RuntimeException e) {
+                for (SeatHold hold : batch) {
+                    wheel.schedule(hold, hold.expiresAt());
+                }
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        released.addAndGet(count);
+        if (failure != null) {
+            throw failure;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of tracked holds not yet due.
+     */
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    /**
+     * @return total seats released by this sweeper.
+     */
+    public long releasedCount() {
+        return released.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the failed batches are back on the wheel for the next tick.
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package jobs;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel for deadlines that are scheduled often and fire in bulk.
+ *
+ * <p>Time is cut into ticks of a fixed duration. An item due at tick {@code t} is
+ * stored in bucket {@code t % wheelSize}; items further away than one rotation
+ * share the bucket and stay there until their own tick comes round. Advancing the
+ * wheel only visits the buckets for the ticks that elapsed, so the cost of a sweep
+ * depends on the number of items due, not on the number scheduled.</p>
+ *
+ * <p>Data Structures:
+ * <ul>
+ *   <li>{@code ArrayDeque[] buckets} → O(1) schedule, each guarded by its own lock so
+ *       producers scheduling into different buckets never contend.</li>
+ *   <li>{@link ConcurrentLinkedQueue} of overdue items → items scheduled for a tick the
+ *       wheel has already passed fire on the next advance.</li>
+ * </ul>
+ *
+ * <p>{@link #schedule} is thread-safe. {@link #advance} is meant to be called from a
+ * single sweeper thread; concurrent calls are serialized.</p>
+ *
+ * @param <T> the scheduled item type.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final ArrayDeque<Slot<T>>[] buckets;
+
+    private final Queue<T> overdue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Last tick the wheel has advanced to. */
+    private volatile long currentTick;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tick duration of one tick (the expiry resolution).
+     * @param wheelSize number of buckets; one rotation spans {@code tick * wheelSize}.
+     * @param start the wheel's starting time.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(@NonNull Duration tick, int wheelSize, @NonNull Instant start) {
+        if (tick.toMillis() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickMillis = tick.toMillis();
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    /**
+     * Schedules an item to fire on the first advance at or after its deadline.
+     *
+     * @param item the item.
+     * @param deadline when the item is due.
+     */
+    public void schedule(@NonNull T item, @NonNull Instant deadline) {
+        long tick = -Math.floorDiv(-deadline.toEpochMilli(), tickMillis);
+        ArrayDeque<Slot<T>> bucket = buckets[bucketIndex(tick)];
+        size.incrementAndGet();
+        synchronized (bucket) {
+            // Checked under the bucket lock, so advance() either sees the item or we see its tick.
+            if (tick <= currentTick) {
+                overdue.offer(item);
+            } else {
+                bucket.addLast(new Slot<>(item, tick));
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to {@code now} and removes every item that is due.
+     *
+     * @param now the current time.
+     * @return the due items, in bucket order.
+     */
+    public synchronized List<T> advance(@NonNull Instant now) {
+        List<T> due = new ArrayList<>();
+        T item;
+        while ((item = overdue.poll()) != null) {
+            due.add(item);
+        }
+
+        long target = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        long from = currentTick + 1;
+        if (target >= from) {
+            currentTick = target;
+            // After a long pause every bucket is visited once; items still in the future stay put.
+            long to = Math.min(target, from + buckets.length - 1);
+            for (long t = from; t <= to; t++) {
+                ArrayDeque<Slot<T>> bucket = buckets[bucketIndex(t)];
+                synchronized (bucket) {
+                    Iterator<Slot<T>> it = bucket.iterator();
+                    while (it.hasNext()) {
+                        Slot<T> slot = it.next();
+                        if (slot.tick() <= target) {
+                            it.remove();
+                            due.add(slot.item());
+                        }
+                    }
+                }
+            }
+        }
+        size.addAndGet(-due.size());
+        return due;
+    }
+
+    /**
+     * @return number of items scheduled and not yet returned by {@link #advance}.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private int bucketIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+
+    /** A scheduled item and the tick it is due at. */
+    private record Slot<T>(T item, long tick) {
+    }
+}
@@ -0,0 +1,114 @@
+package jobs;
+
+import lombok.NonNull;
+import repository.Compactable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that purges the index entries left behind by soft deletes.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Once per interval, purge at most {@code batchSize} tombstones from each
+ *       {@link Compactable} repository, so a bulk delete is cleaned up over several passes
+ *       instead of holding up writers while every index is rebuilt.</li>
+ *   <li>Empty index sets are dropped as their last entry is purged, so the indexes shrink
+ *       back once the tombstones are gone.</li>
+ * </ul>
+ *
+ * <p>Readers never depend on the compactor: they already skip IDs that no longer resolve.
+ * Compaction only reclaims memory and keeps index lookups short.</p>
+ */
+public class TombstoneCompactor implements AutoCloseable {
+
+    private final List<Compactable> targets;
+
+    private final Duration interval;
+
+    private final int batchSize;
+
+    private final AtomicLong purged = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler;
+
+    private boolean started;
+
+    /**
+     * Creates a compactor. Call {@link #start()} to compact on a background thread,
+     * or {@link #compact()} to run a pass manually.
+     *
+     * @param targets the repositories to compact.
+     * @param interval time between passes.
+     * @param batchSize maximum tombstones purged per repository per pass.
+     */
+    public TombstoneCompactor(@NonNull List<Compactable> targets, @NonNull Duration interval, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.targets = List.copyOf(targets);
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tombstone-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts compacting once per interval.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        scheduler.scheduleWithFixedDelay(this::compact, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one pass over every target. A target that fails is skipped until the next pass,
+     * so one broken repository does not stop the others from being compacted.
+     *
+     * @return number of tombstones purged.
+     */
+    public int compact() {
+        int count = 0;
+        for (Compactable target : targets) {
+            try {
+                count += target.purgeTombstones(batchSize);
+            } catch (RuntimeException e) {
+                // Its tombstones stay pending and are retried on the next pass.
+            }
+        }
+        purged.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * @return number of tombstones waiting to be purged across all targets.
+     */
+    public int pendingCount() {
+        int count = 0;
+        for (Compactable target : targets) {
+            count += target.pendingTombstones();
+        }
+        return count;
+    }
+
+    /**
+     * @return total tombstones purged by this compactor.
+     */
+    public long purgedCount() {
+        return purged.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,326 @@
+package metrics;
+
+import lombok.NonNull;
+import model.Enrollment;
+import model.EnrollmentStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static model.EnrollmentStatus.DROPPED;
+import static model.EnrollmentStatus.ENROLLED;
+import static model.EnrollmentStatus.WAITLISTED;
+import static model.EnrollmentStatus.WITHDRAWN;
+
+/**
+ * Live registration activity over recent time windows: enrollments per minute, drop rate
+ * and waitlist growth, per course and overall, and the hottest courses.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Classify each committed enrollment change: a student got a seat, dropped or
+ *       withdrew from an active enrollment, joined a waitlist or left one (promoted,
+ *       dropped or deleted).</li>
+ *   <li>Answer sliding windows (the last N minutes, ending now) and tumbling windows (the
+ *       last completed window of a fixed size, aligned to multiples of that size).</li>
+ *   <li>Rank the top K courses by enrollments over a window.</li>
+ * </ul>
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>One {@link WindowedCounters} ring per course plus one for all courses: a fixed number
+ *       of time buckets, each with one primitive counter per kind of activity. Recording is
+ *       an atomic add into the current bucket; a window sums at most one ring of buckets.</li>
+ *   <li>At most {@code maxCourses} course rings. When a new course would exceed that, the
+ *       course with the fewest enrollments and drops in the retained horizon is evicted, so
+ *       memory stays bounded however many courses appear; evicted activity still counts in
+ *       the overall totals.</li>
+ *   <li>Top K keeps a min-heap of K entries while scanning the course rings, so ranking
+ *       needs O(K) extra memory.</li>
+ * </ul>
+ *
+ * <p>Enable with {@code StorageContext.builder().registrationMetrics(new RegistrationMetrics(clock))};
+ * the enrollment repositories sharing the context then record every enroll, drop and
+ * status change. Windows are only as fine as one bucket and reach back at most one ring.</p>
+ */
+public class RegistrationMetrics {
+
+    /** Bucket width unless configured otherwise. */
+    public static final Duration DEFAULT_BUCKET = Duration.ofSeconds(10);
+
+    /** Time retained unless configured otherwise. */
+    public static final Duration DEFAULT_HORIZON = Duration.ofMinutes(15);
+
+    /** Courses tracked individually unless configured otherwise. */
+    public static final int DEFAULT_MAX_COURSES = 2048;
+
+    private static final int ENROLLMENTS = 0;
+    private static final int DROPS = 1;
+    /** Signed: +1 when a record enters WAITLISTED, -1 when it leaves. */
+    private static final int WAITLIST = 2;
+    private static final int LANES = 3;
+
+    /**
+     * Activity in one window.
+     *
+     * @param enrollments seats taken (new enrollments, confirmed holds and waitlist promotions).
+     * @param drops active enrollments or waitlist places dropped or withdrawn.
+     * @param waitlistGrowth net change in waitlist length: students added minus students who
+     *                       left, by promotion or otherwise.
+     * @param window the window's length.
+     */
+    public record Rates(long enrollments, long drops, long waitlistGrowth, Duration window) {
+
+        /** @return seats taken per minute. */
+        public double enrollmentsPerMinute() {
+            return perMinute(enrollments);
+        }
+
+        /** @return drops per minute. */
+        public double dropsPerMinute() {
+            return perMinute(drops);
+        }
+
+        /** @return drops per seat taken in the window; 0 if no seat was taken. */
+        public double dropRate() {
+            return enrollments == 0 ? 0 : (double) drops / enrollments;
+        }
+
+        private double perMinute(long count) {
+            return count * 60_000.0 / window.toMillis();
+        }
+    }
+
+    /**
+     * One course's activity, as ranked by {@link #hottest}.
+     */
+    public record CourseActivity(String courseCode, Rates rates) {
+    }
+
+    private final Clock clock;
+
+    private final long bucketMillis;
+
+    private final int buckets;
+
+    private final int maxCourses;
+
+    private final WindowedCounters all;
+
+    private final ConcurrentHashMap<String, WindowedCounters> courses = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates metrics with the default bucket width, horizon and course limit.
+     *
+     * @param clock time source for bucketing.
+     */
+    public RegistrationMetrics(@NonNull Clock clock) {
+        this(clock, DEFAULT_BUCKET, DEFAULT_HORIZON, DEFAULT_MAX_COURSES);
+    }
+
+    /**
+     * Creates metrics.
+     *
+     * @param clock time source for bucketing.
+     * @param bucket width of one bucket, the finest window granularity.
+     * @param horizon how far back windows can reach; a whole number of buckets.
+     * @param maxCourses courses tracked individually.
+     */
+    public RegistrationMetrics(@NonNull Clock clock, @NonNull Duration bucket, @NonNull Duration horizon, int maxCourses) {
+        if (bucket.toMillis() <= 0 || horizon.toMillis() % bucket.toMillis() != 0 || horizon.compareTo(bucket) < 0) {
+            throw new IllegalArgumentException("Horizon must be a positive whole number of buckets");
+        }
+        if (horizon.toMillis() / bucket.toMillis() > 1 << 16) {
+            throw new IllegalArgumentException("Horizon must be at most 65536 buckets");
+        }
+        if (maxCourses <= 0) {
+            throw new IllegalArgumentException("Course limit must be positive");
+        }
+        this.clock = clock;
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = (int) (horizon.toMillis() / bucketMillis);
+        this.maxCourses = maxCourses;
+        this.all = new WindowedCounters(bucketMillis, buckets, LANES);
+    }
+
+    /**
+     * Records one committed change to an enrollment record.
+     *
+     * @param before the record before the change, or null if it was created.
+     * @param after the record after the change, or null if it was deleted.
+     */
+    public void record(Enrollment before, Enrollment after) {
+        EnrollmentStatus from = before == null ? null : before.getStatus();
+        EnrollmentStatus to = after == null ? null : after.getStatus();
+        if (from == to) return;
+        String courseCode = after != null ? after.getCourseCode() : before.getCourseCode();
+        if (courseCode == null) return;
+
+        long now = clock.millis();
+        if (to == ENROLLED) {
+            add(now, courseCode, ENROLLMENTS, 1);
+        }
+        if ((to == DROPPED || to == WITHDRAWN) && (from == ENROLLED || from == WAITLISTED)) {
+            add(now, courseCode, DROPS, 1);
+        }
+        // Only the net is kept: a waitlist place counts +1 when it appears and -1 when it is
+        // promoted, dropped or deleted.
+        if (to == WAITLISTED) {
+            add(now, courseCode, WAITLIST, 1);
+        }
+        if (from == WAITLISTED) {
+            add(now, courseCode, WAITLIST, -1);
+        }
+    }
+
+    /**
+     * Activity over the sliding window ending now.
+     *
+     * @param courseCode the course, or null for all courses.
+     * @param window the window length; rounded up to whole buckets.
+     * @return the activity; zero for a course not tracked.
+     * @throws IllegalArgumentException if the window is not positive or exceeds the horizon.
+     */
+    public Rates sliding(String courseCode, @NonNull Duration window) {
+        int length = bucketsIn(window);
+        long to = all.bucketOf(clock.millis()) + 1;
+        return rates(counters(courseCode), to - length, to, length);
+    }
+
+    /**
+     * Activity in the last completed tumbling window of the given size. Windows are aligned
+     * to multiples of their size since the epoch, so every caller sees the same windows.
+     *
+     * @param courseCode the course, or null for all courses.
+     * @param window the window length; a whole number of buckets.
+     * @return the activity; zero for a course not tracked.
+     * @throws IllegalArgumentException if the window is not a whole number of buckets or the
+     *         completed window reaches back beyond the horizon.
+     */
+    public Rates tumbling(String courseCode, @NonNull Duration window) {
+        if (window.toMillis() % bucketMillis != 0) {
+            throw new IllegalArgumentException("Window must be a whole number of " + bucketMillis + " ms buckets");
+        }
+        int length = bucketsIn(window);
+        long now = all.bucketOf(clock.millis());
+        long to = Math.floorDiv(now, length) * length;
+        if (now + 1 - (to - length) > buckets) {
+            throw new IllegalArgumentException("Window " + window + " reaches beyond the retained horizon");
+        }
+        return rates(counters(courseCode), to - length, to, length);
+    }
+
+    /**
+     * Ranks courses by enrollments over the sliding window ending now, most first; ties go
+     * to the lower course code.
+     *
+     * @param k how many courses to return.
+     * @param window the window length.
+     * @return at most k courses with at least one enrollment in the window.
+     */
+    public List<CourseActivity> hottest(int k, @NonNull Duration window) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        int length = bucketsIn(window);
+        long to = all.bucketOf(clock.millis()) + 1;
+        Comparator<CourseActivity> order = Comparator
+                .comparingLong((CourseActivity activity) -> activity.rates().enrollments())
+                .thenComparing(CourseActivity::courseCode, Comparator.reverseOrder());
+        PriorityQueue<CourseActivity> top = new PriorityQueue<>(k + 1, order);
+        for (Map.Entry<String, WindowedCounters> course : courses.entrySet()) {
+            if (course.getValue().sum(to - length, to, ENROLLMENTS) == 0) continue;
+            top.add(new CourseActivity(course.getKey(), rates(course.getValue(), to - length, to, length)));
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+        List<CourseActivity> result = new ArrayList<>(top);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    /**
+     * @return number of courses currently tracked individually.
+     */
+    public int trackedCourses() {
+        return courses.size();
+    }
+
+    /**
+     * @return number of course rings evicted to stay within the course limit.
+     */
+    public long evictedCourses() {
+        return evictions.get();
+    }
+
+    private void add(long now, String courseCode, int lane, long delta) {
+        all.add(now, lane, delta);
+        course(courseCode).add(now, lane, delta);
+    }
+
+    private WindowedCounters course(String courseCode) {
+        WindowedCounters counters = courses.get(courseCode);
+        if (counters != null) return counters;
+        synchronized (courses) {
+            counters = courses.get(courseCode);
+            if (counters != null) return counters;
+            if (courses.size() >= maxCourses) {
+                evictQuietest();
+            }
+            counters = new WindowedCounters(bucketMillis, buckets, LANES);
+            courses.put(courseCode, counters);
+            return counters;
+        }
+    }
+
+    /**
+     * Drops the ring of the course with the fewest enrollments and drops over the whole horizon.
+     */
+    private void evictQuietest() {
+        long to = all.bucketOf(clock.millis()) + 1;
+        String quietest = null;
+        long least = Long.MAX_VALUE;
+        for (Map.Entry<String, WindowedCounters> course : courses.entrySet()) {
+            long activity = course.getValue().sum(to - buckets, to, ENROLLMENTS)
+                    + course.getValue().sum(to - buckets, to, DROPS);
+            if (activity < least) {
+                least = activity;
+                quietest = course.getKey();
+            }
+        }
+        if (quietest != null) {
+            courses.remove(quietest);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private WindowedCounters counters(String courseCode) {
+        return courseCode == null ? all : courses.get(courseCode);
+    }
+
+    private int bucketsIn(Duration window) {
+        if (window.toMillis() <= 0 || window.toMillis() > (long) buckets * bucketMillis) {
+            throw new IllegalArgumentException("Window must be positive and at most the retained horizon");
+        }
+        return (int) ((window.toMillis() + bucketMillis - 1) / bucketMillis);
+    }
+
+    private Rates rates(WindowedCounters counters, long from, long to, int length) {
+        Duration window = Duration.ofMillis(length * bucketMillis);
+        if (counters == null) {
+            return new Rates(0, 0, 0, window);
+        }
+        return new Rates(counters.sum(from, to, ENROLLMENTS), counters.sum(from, to, DROPS),
+                counters.sum(from, to, WAITLIST), window);
+    }
+}
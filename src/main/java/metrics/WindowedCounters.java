@@ -0,0 +1,86 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed ring of time buckets, each holding a few long counters ("lanes").
+ *
+ * <p>Bucket {@code e} covers {@code [e * bucketMillis, (e + 1) * bucketMillis)} and lives in
+ * slot {@code e mod buckets}. A slot is reused when time reaches a bucket one full ring later:
+ * the first writer to get there zeroes it and stamps it with the new bucket. Adding is one
+ * array read and one atomic add; rotating a slot takes this counter's lock once per bucket.
+ * Memory is fixed at {@code buckets * (lanes + 1)} longs.</p>
+ *
+ * <p>Reads sum the slots stamped with the buckets asked for, so a stale slot (no writes for
+ * a full ring) reads as zero without being cleared. A write arriving more than a ring late
+ * is dropped.</p>
+ */
+final class WindowedCounters {
+
+    private final long bucketMillis;
+
+    private final int buckets;
+
+    private final int lanes;
+
+    /** Bucket each slot holds, or -1 if never used. */
+    private final AtomicLongArray epochs;
+
+    /** Counters, {@code lanes} per slot. */
+    private final AtomicLongArray counts;
+
+    WindowedCounters(long bucketMillis, int buckets, int lanes) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.lanes = lanes;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets * lanes);
+        for (int slot = 0; slot < buckets; slot++) {
+            epochs.set(slot, -1);
+        }
+    }
+
+    /**
+     * @return the bucket a time falls in.
+     */
+    long bucketOf(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+
+    /**
+     * Adds to one lane of the bucket {@code millis} falls in.
+     */
+    void add(long millis, int lane, long delta) {
+        long epoch = bucketOf(millis);
+        int slot = (int) Math.floorMod(epoch, (long) buckets);
+        long held = epochs.get(slot);
+        if (held != epoch) {
+            if (held > epoch) return;  // more than a ring late
+            synchronized (this) {
+                held = epochs.get(slot);
+                if (held > epoch) return;
+                if (held < epoch) {
+                    for (int l = 0; l < lanes; l++) {
+                        counts.set(slot * lanes + l, 0);
+                    }
+                    epochs.set(slot, epoch);
+                }
+            }
+        }
+        counts.addAndGet(slot * lanes + lane, delta);
+    }
+
+    /**
+     * Sums one lane over the buckets {@code [from, to)}; buckets no longer retained read as 0.
+     */
+    long sum(long from, long to, int lane) {
+        long total = 0;
+        for (long epoch = Math.max(from, to - buckets); epoch < to; epoch++) {
+            int slot = (int) Math.floorMod(epoch, (long) buckets);
+            if (epochs.get(slot) == epoch) {
+                total += counts.get(slot * lanes + lane);
+            }
+        }
+        return total;
+    }
+}
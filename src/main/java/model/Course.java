@@ -56,4 +56,42 @@ public class Course {
      * But if say, insertion order is relevant, try and replace with {@link LinkedHashSet}. 😊</p>
      */
     private Set<TimeSlot> scheduledSlots = new TreeSet<>();
+
+    /**
+     * Seats offered per semester; {@code 0} means the course has no seat limit.
+     * Individual semesters can override this through the enrollment layer.
+     */
+    private int capacity;
+
+    /**
+     * Optimistic-concurrency version, assigned by the repository on every successful
+     * write; {@code 0} until the course is stored.
+     */
+    private long version;
+
+    /**
+     * Creates a course without a seat limit.
+     *
+     * @param code unique course code.
+     * @param title course title.
+     * @param credits credit hours.
+     * @param department offering department ID.
+     * @param prerequisites prerequisite course codes.
+     * @param scheduledSlots weekly time slots.
+     */
+    public Course(String code, String title, int credits, String department,
+                  Set<String> prerequisites, Set<TimeSlot> scheduledSlots) {
+        this(code, title, credits, department, prerequisites, scheduledSlots, 0, 0);
+    }
+
+    /**
+     * @return a copy with its own prerequisite and slot sets, safe to modify
+     *         while other threads read this instance.
+     */
+    public Course copy() {
+        return new Course(code, title, credits, department,
+                prerequisites == null ? new HashSet<>() : new HashSet<>(prerequisites),
+                scheduledSlots == null ? new TreeSet<>() : new TreeSet<>(scheduledSlots),
+                capacity, version);
+    }
 }
@@ -43,4 +43,37 @@ public class Enrollment {
      */
     private BitSet attendance = new BitSet(); // presence/absence tracking
 
+    /**
+     * Optimistic-concurrency version, assigned by the repository on every successful
+     * write; {@code 0} until the enrollment is stored.
+     */
+    private long version;
+
+    /**
+     * Creates an enrollment that has not been stored yet.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param status the enrollment status.
+     * @param grades grades by type.
+     * @param attendance attendance bits.
+     */
+    public Enrollment(String studentId, String courseCode, String semester, EnrollmentStatus status,
+                      Map<GradeType, Double> grades, BitSet attendance) {
+        this(studentId, courseCode, semester, status, grades, attendance, 0);
+    }
+
+    /**
+     * @return a copy with its own grade map and attendance bits, safe to modify
+     *         while other threads read this instance.
+     */
+    public Enrollment copy() {
+        Map<GradeType, Double> gradesCopy = new EnumMap<>(GradeType.class);
+        if (grades != null) {
+            gradesCopy.putAll(grades);
+        }
+        return new Enrollment(studentId, courseCode, semester, status, gradesCopy,
+                attendance == null ? new BitSet() : (BitSet) attendance.clone(), version);
+    }
 }
@@ -12,8 +12,8 @@ import java.util.Set;
 /**
  * Represents an instructor within the academic system.
  *
- * <p>An instructor has a unique identifier, a name, and a set of courses they teach.
- * Courses are stored as codes (e.g., "CS101").</p>
+ * <p>An instructor has a unique identifier, a name, a home department, and a set of
+ * courses they teach. Courses are stored as codes (e.g., "CS101").</p>
  *
  * <p>Data structure choice:
  * <ul>
@@ -38,4 +38,18 @@ public class Instructor {
      * <p>Implemented as a {@link HashSet} to avoid duplicates and allow fast membership checks.</p>
      */
     private Set<String> coursesTaught = new HashSet<>();
+
+    /** Home department ID of the instructor (e.g., "CS"); may be null if unassigned. */
+    private String department;
+
+    /**
+     * Creates an instructor without a home department.
+     *
+     * @param id unique identifier.
+     * @param name full name.
+     * @param coursesTaught course codes taught by the instructor.
+     */
+    public Instructor(String id, String name, Set<String> coursesTaught) {
+        this(id, name, coursesTaught, null);
+    }
 }
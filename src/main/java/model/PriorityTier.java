@@ -0,0 +1,31 @@
+package model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Registration priority tiers used by enrollment admission control.
+ *
+ * <p>Tiers are served in weighted round-robin order: in every scheduling round a
+ * tier may admit up to {@code weight} requests, so seniors go first but honors and
+ * general students still make progress while the senior queue is busy.</p>
+ */
+@Getter
+@AllArgsConstructor
+public enum PriorityTier {
+
+    /** Final-year students, served first. */
+    SENIOR(4, "Senior standing"),
+
+    /** Students in the honors program. */
+    HONORS(2, "Honors program"),
+
+    /** Everyone else. */
+    GENERAL(1, "General registration");
+
+    /** Requests admitted from this tier per scheduling round. */
+    private final int weight;
+
+    /** User-friendly description for display. */
+    private final String description;
+}
@@ -15,6 +15,9 @@ import java.util.HashMap;
  *
  * <p>Uses Lombok annotations {@link Getter} and {@link Setter} to
  * automatically generate boilerplate accessor methods.</p>
+ *
+ * <p>Stored students are replaced, not modified: writers update a {@link #copy()}
+ * and publish it with a compare-and-set on {@link #version}.</p>
  */
 
 @Getter
@@ -54,4 +57,21 @@ public class Student {
      * without modifying the core model. Keys and values are both Strings.</p>
      */
     private Map<String, String> attributes = new HashMap<>(); // for flexible key/value profile fields.
+
+    /**
+     * Optimistic-concurrency version, assigned by the repository on every successful
+     * write; {@code 0} until the student is stored.
+     */
+    private long version;
+
+    /**
+     * @return a copy with its own enrollment set and attribute map, safe to modify
+     *         while other threads read this instance.
+     */
+    public Student copy() {
+        return new Student(id, fullName, email, phone,
+                enrolledCourses == null ? new LinkedHashSet<>() : new LinkedHashSet<>(enrolledCourses),
+                attributes == null ? new HashMap<>() : new HashMap<>(attributes),
+                version);
+    }
 }
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalTime;
 
 @Getter
@@ -49,6 +50,28 @@ public class TimeSlot implements Comparable<TimeSlot> {
         return this.endTime.compareTo(o.endTime);
     }
 
+    /**
+     * Checks whether two slots share any time on the same day.
+     * Back-to-back slots (one ends exactly when the other starts) do not overlap.
+     *
+     * @param other another time slot
+     * @return true if the slots overlap
+     */
+    public boolean overlaps(TimeSlot other) {
+        return dayOfWeek == other.dayOfWeek
+                && startTime.isBefore(other.endTime)
+                && other.startTime.isBefore(endTime);
+    }
+
+    /**
+     * Length of the slot in minutes.
+     *
+     * @return duration in minutes (0 if the end is not after the start)
+     */
+    public long durationMinutes() {
+        return Math.max(0, Duration.between(startTime, endTime).toMinutes());
+    }
+
     /**
      * Human-readable representation of the time slot.
      *
@@ -0,0 +1,21 @@
+package model.dto;
+
+import model.EnrollmentStatus;
+import model.PriorityTier;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Response to an enrollment request submitted through admission control.
+ *
+ * @param accepted whether the request was queued; false means the tier queue was full
+ *                 and the client should retry later.
+ * @param tier the priority tier the request was queued in.
+ * @param queuePosition 1-based position within the tier queue at submission time, or -1 if rejected.
+ * @param result completes with the enrollment outcome once the request is processed.
+ */
+public record AdmissionTicket(boolean accepted,
+                              PriorityTier tier,
+                              long queuePosition,
+                              CompletableFuture<EnrollmentStatus> result) {
+}
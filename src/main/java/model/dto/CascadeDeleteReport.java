@@ -0,0 +1,15 @@
+package model.dto;
+
+/**
+ * Dependent rows removed along with a deleted entity.
+ *
+ * @param enrollments enrollment records removed (including dropped history).
+ * @param notifications notifications removed.
+ * @param departmentLinks department course listings updated.
+ * @param instructorLinks instructor course assignments removed.
+ */
+public record CascadeDeleteReport(int enrollments,
+                                  int notifications,
+                                  int departmentLinks,
+                                  int instructorLinks) {
+}
@@ -0,0 +1,19 @@
+package model.dto;
+
+import model.TimeSlot;
+
+/**
+ * Two courses taught by the same instructor whose time slots overlap.
+ *
+ * @param instructorId the instructor with the conflict.
+ * @param courseCode first course involved.
+ * @param slot the slot of the first course.
+ * @param conflictingCourseCode second course involved.
+ * @param conflictingSlot the overlapping slot of the second course.
+ */
+public record ScheduleConflict(String instructorId,
+                               String courseCode,
+                               TimeSlot slot,
+                               String conflictingCourseCode,
+                               TimeSlot conflictingSlot) {
+}
@@ -0,0 +1,25 @@
+package model.dto;
+
+import java.time.Instant;
+
+/**
+ * A time-bounded seat reservation in a course section.
+ *
+ * <p>A hold counts against the section's capacity until it is confirmed
+ * (the student becomes ENROLLED), released, or it expires.</p>
+ *
+ * @param studentId the student holding the seat.
+ * @param courseCode the course code.
+ * @param semester the semester identifier.
+ * @param expiresAt the instant after which the seat is given back.
+ */
+public record SeatHold(String studentId, String courseCode, String semester, Instant expiresAt) {
+
+    /**
+     * @param now the current time.
+     * @return true if the hold is no longer valid at {@code now}.
+     */
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,17 @@
+package model.dto;
+
+/**
+ * Aggregated teaching load of one instructor.
+ *
+ * @param instructorId the instructor.
+ * @param courseCount number of courses taught (unknown course codes included).
+ * @param totalCredits sum of credits of the known courses.
+ * @param weeklyContactMinutes total scheduled minutes per week.
+ * @param conflictCount number of overlapping slot pairs.
+ */
+public record TeachingLoad(String instructorId,
+                           int courseCount,
+                           int totalCredits,
+                           long weeklyContactMinutes,
+                           int conflictCount) {
+}
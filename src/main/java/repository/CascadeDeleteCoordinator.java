@@ -0,0 +1,97 @@
+package repository;
+
+import lombok.NonNull;
+import model.Course;
+import model.Instructor;
+import model.dto.CascadeDeleteReport;
+
+/**
+ * Deletes students, courses and instructors together with the rows that depend on them.
+ *
+ * <p>Every step goes through a reverse index the owning repository already maintains
+ * (enrollments by student, enrollment slots and sections by course, notifications by
+ * recipient, instructors by course), so a delete costs time proportional to the rows it
+ * removes, never to the size of the dataset.</p>
+ *
+ * <p>Dependents are removed before the entity itself, so a reader never finds an
+ * enrollment or listing that points to an entity that is already gone. Writes racing with
+ * the delete (e.g. a new enrollment into a course being deleted) are not blocked; stop
+ * them first if the delete must be exhaustive.</p>
+ */
+public class CascadeDeleteCoordinator {
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final InstructorRepository instructorRepository;
+
+    private final NotificationRepository notificationRepository;
+
+    public CascadeDeleteCoordinator(@NonNull StudentRepository studentRepository,
+                                    @NonNull CourseRepository courseRepository,
+                                    @NonNull EnrollmentRepository enrollmentRepository,
+                                    @NonNull DepartmentRepository departmentRepository,
+                                    @NonNull InstructorRepository instructorRepository,
+                                    @NonNull NotificationRepository notificationRepository) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.departmentRepository = departmentRepository;
+        this.instructorRepository = instructorRepository;
+        this.notificationRepository = notificationRepository;
+    }
+
+    /**
+     * Deletes a student, their enrollments (freeing their seats for waitlisted students)
+     * and their notifications.
+     *
+     * @param studentId the student ID.
+     * @return what was removed.
+     */
+    public CascadeDeleteReport deleteStudent(@NonNull String studentId) {
+        int enrollments = enrollmentRepository.removeStudent(studentId);
+        int notifications = notificationRepository.deleteForRecipient(studentId);
+        studentRepository.deleteStudent(studentId);
+        return new CascadeDeleteReport(enrollments, notifications, 0, 0);
+    }
+
+    /**
+     * Deletes a course, its enrollments, rosters and seat settings, its instructor
+     * assignments and its entry in the department's course listing.
+     *
+     * @param courseCode the course code.
+     * @return what was removed.
+     */
+    public CascadeDeleteReport deleteCourse(@NonNull String courseCode) {
+        Course course = courseRepository.getByCode(courseCode);
+
+        int enrollments = enrollmentRepository.removeCourse(courseCode);
+        int instructorLinks = 0;
+        for (Instructor instructor : instructorRepository.findByCourse(courseCode)) {
+            instructorRepository.unassignCourse(instructor.getId(), courseCode);
+            instructorLinks++;
+        }
+        int departmentLinks = course != null && course.getDepartment() != null
+                && departmentRepository.unlinkCourse(course.getDepartment(), courseCode) ? 1 : 0;
+
+        courseRepository.deleteCourse(courseCode);
+        return new CascadeDeleteReport(enrollments, 0, departmentLinks, instructorLinks);
+    }
+
+    /**
+     * Deletes an instructor and their notifications.
+     *
+     * @param instructorId the instructor ID.
+     * @return what was removed.
+     */
+    public CascadeDeleteReport deleteInstructor(@NonNull String instructorId) {
+        int notifications = notificationRepository.deleteForRecipient(instructorId);
+        instructorRepository.deleteInstructor(instructorId);
+        return new CascadeDeleteReport(0, notifications, 0, 0);
+    }
+}
@@ -0,0 +1,25 @@
+package repository;
+
+/**
+ * A repository whose deletes leave tombstones behind for later physical cleanup.
+ *
+ * <p>A delete only makes the entity unreachable (an O(1) step that readers see at once)
+ * and records a tombstone. The index entries that still point to the deleted entity are
+ * skipped by readers and purged afterwards in small batches, usually by
+ * {@link jobs.TombstoneCompactor}, so bulk deletes never stall readers behind index rebuilds.</p>
+ */
+public interface Compactable {
+
+    /**
+     * @return number of deleted entities whose index entries are not purged yet.
+     */
+    int pendingTombstones();
+
+    /**
+     * Purges the index entries of up to {@code maxEntries} tombstones.
+     *
+     * @param maxEntries maximum tombstones to purge.
+     * @return number of tombstones purged.
+     */
+    int purgeTombstones(int maxEntries);
+}
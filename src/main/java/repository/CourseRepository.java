@@ -2,16 +2,23 @@ package repository;
 
 import model.Course;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing Course entities.
  *
  * Responsibilities:
  * - Add and store Course objects.
- * - Retrieve courses by code.
- * - List courses by department.
+ * - Retrieve courses by code, one or many at a time.
+ * - List courses by department, whole, a page at a time or as a lazy stream.
  * - Delete courses.
+ * - Replace courses atomically with an optimistic version check.
+ * - Read courses as of a {@link Snapshot}.
  */
 public interface CourseRepository {
 
@@ -31,6 +38,34 @@ public interface CourseRepository {
      */
     Course getByCode(String code);
 
+    /**
+     * Retrieves many courses in one call. Backends that pay per query (JDBC) fetch them
+     * with one query; the default looks each code up in turn.
+     *
+     * @param codes the course codes; nulls and duplicates are ignored.
+     * @return the courses found, by code in the order of {@code codes}; unknown codes are absent.
+     */
+    default Map<String, Course> getByCodes(Collection<String> codes) {
+        Map<String, Course> found = new LinkedHashMap<>();
+        for (String code : new LinkedHashSet<>(codes)) {
+            Course course = code == null ? null : getByCode(code);
+            if (course != null) {
+                found.put(code, course);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Retrieves a course as of a snapshot.
+     *
+     * @param code the course code.
+     * @param snapshot an open snapshot from the repository's {@link SnapshotManager}.
+     * @return the course as it was when the snapshot was opened, or null if it did not exist then.
+     * @throws IllegalStateException if the snapshot is closed.
+     */
+    Course getByCode(String code, Snapshot snapshot);
+
 
     /**
      * Lists all courses offered by a specific department.
@@ -40,6 +75,50 @@ public interface CourseRepository {
      */
     List<Course> listByDepartment(String department);
 
+    /**
+     * Lists the courses a department offered as of a snapshot, sorted by code.
+     *
+     * @param department the department ID.
+     * @param snapshot an open snapshot from the repository's {@link SnapshotManager}.
+     * @return the department's courses when the snapshot was opened, empty if none.
+     * @throws IllegalStateException if the snapshot is closed.
+     */
+    List<Course> listByDepartment(String department, Snapshot snapshot);
+
+    /**
+     * Lists one page of a department's courses, sorted by code.
+     *
+     * @param department the department ID.
+     * @param cursor the previous page's {@link Page#nextCursor()}, or null for the first page.
+     * @param limit maximum number of courses on the page.
+     * @return the page; its next cursor is null after the last course.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    Page<Course> listByDepartment(String department, String cursor, int limit);
+
+    /**
+     * Streams a department's courses without building the whole list. The default fetches
+     * them page by page; the order is only guaranteed where an implementation says so.
+     *
+     * @param department the department ID.
+     * @return the courses, read as the stream is consumed.
+     */
+    default Stream<Course> streamByDepartment(String department) {
+        return Page.stream(cursor -> listByDepartment(department, cursor, Page.STREAM_PAGE_SIZE));
+    }
+
+    /**
+     * Replaces a stored course if nobody else has replaced it since it was read.
+     * On success the new instance becomes the stored one with the next version.
+     *
+     * @param code the course code.
+     * @param expectedVersion the version of the course the update was based on.
+     * @param updated the new state, a different instance from the stored one (see {@link Course#copy()}).
+     * @return true if replaced, false if the course changed or was deleted meanwhile.
+     * @throws IllegalArgumentException if updated is the stored instance.
+     */
+    boolean compareAndSet(String code, long expectedVersion, Course updated);
+
 
     /**
      * Deletes a course by its unique code.
@@ -4,6 +4,7 @@ package repository;
 import model.Department;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing Department entities.
@@ -11,7 +12,8 @@ import java.util.List;
  * Responsibilities:
  * - Create and store department objects.
  * - Retrieve departments by ID.
- * - List all departments.
+ * - List all departments, whole, a page at a time or as a lazy stream.
+ * - Unlink deleted courses from their department.
  */
 public interface DepartmentRepository {
 
@@ -37,4 +39,33 @@ public interface DepartmentRepository {
      * @return a list of all departments
      */
     List<Department> listAll();
+
+    /**
+     * Lists one page of all departments, sorted by ID.
+     *
+     * @param cursor the previous page's {@link Page#nextCursor()}, or null for the first page
+     * @param limit maximum number of departments on the page
+     * @return the page; its next cursor is null after the last department
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    Page<Department> listAll(String cursor, int limit);
+
+    /**
+     * Streams all departments without building the whole list. The default fetches them
+     * page by page.
+     *
+     * @return the departments, read as the stream is consumed
+     */
+    default Stream<Department> streamAll() {
+        return Page.stream(cursor -> listAll(cursor, Page.STREAM_PAGE_SIZE));
+    }
+
+    /**
+     * Removes a course code from a department's course listing.
+     *
+     * @param departmentId the department ID
+     * @param courseCode the course code
+     * @return true if the department listed the course
+     */
+    boolean unlinkCourse(String departmentId, String courseCode);
 }
@@ -0,0 +1,15 @@
+package repository;
+
+/**
+ * Natural key of an enrollment: one student in one course in one semester.
+ *
+ * @param studentId the student ID.
+ * @param courseCode the course code.
+ * @param semester the semester identifier.
+ */
+record EnrollmentKey(String studentId, String courseCode, String semester) {
+
+    SectionKey section() {
+        return new SectionKey(courseCode, semester);
+    }
+}
@@ -0,0 +1,340 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import model.Enrollment;
+import model.EnrollmentStatus;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only, event-sourced history of enrollments.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Record every enrollment change (enroll, waitlist, drop, withdraw, complete, grade,
+ *       delete) as a {@link LedgerEvent} carrying the enrollment state it produced, or for a
+ *       delete the state it removed.</li>
+ *   <li>Maintain the current state as a projection of the log.</li>
+ *   <li>Answer point-in-time questions ("who was enrolled in CS101 on the add/drop
+ *       deadline?") by replaying the log from the nearest earlier checkpoint.</li>
+ * </ul>
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>Segmented log: fixed-size arrays appended to a list. Appending never copies
+ *       earlier events, and an event is found by sequence in O(1).</li>
+ *   <li>Projection: section → (student ID → enrollment), updated on every append.</li>
+ *   <li>Checkpoints: a copy of the projection every {@code checkpointInterval} events, built
+ *       from the previous checkpoint and the log. At most {@code maxCheckpoints} are kept:
+ *       when there are more, every other one is discarded (the latest always stays), so memory
+ *       is bounded and the replay a historical query needs grows only as the log doubles.</li>
+ * </ul>
+ *
+ * <p>Appending takes no lock: a compare-and-set on the log cursor reserves the next sequence
+ * and a timestamp no earlier than the previous one, the event is stored in its slot, and the
+ * readable prefix of the log advances past every slot that has been filled. Readers only see
+ * that prefix. Shards sharing one ledger therefore never wait on each other.</p>
+ *
+ * <p>Repositories commit first and record afterwards, so two writers on the same enrollment
+ * may record out of order. The projection only applies an event whose enrollment version is
+ * newer than the one it holds, and a delete removes the version it names or an older one,
+ * which makes replay deterministic and order-insensitive.</p>
+ */
+public class EnrollmentLedger {
+
+    /** Events per log segment unless configured otherwise. */
+    public static final int DEFAULT_SEGMENT_SIZE = 4096;
+
+    /** Events between checkpoints unless configured otherwise. */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+
+    /** Checkpoints kept unless configured otherwise. */
+    public static final int DEFAULT_MAX_CHECKPOINTS = 64;
+
+    private final Clock clock;
+
+    private final int segmentSize;
+
+    private final int checkpointInterval;
+
+    private final int maxCheckpoints;
+
+    private final List<AtomicReferenceArray<LedgerEvent>> segments = new CopyOnWriteArrayList<>();
+
+    /** Next sequence to reserve and the timestamp it may not precede. */
+    private final AtomicReference<Cursor> cursor = new AtomicReference<>(new Cursor(0, Instant.MIN));
+
+    /** Length of the readable prefix: every event below it has been stored. */
+    private final AtomicLong published = new AtomicLong();
+
+    private final Map<SectionKey, Map<String, Enrollment>> projection = new ConcurrentHashMap<>();
+
+    private final Object checkpointLock = new Object();
+
+    /** Sorted by sequence; replaced, never modified, so readers need no lock. */
+    private volatile List<Checkpoint> checkpoints = List.of();
+
+    private volatile long checkpointedThrough;
+
+    /**
+     * Creates a ledger with the default segment size and checkpoint settings.
+     *
+     * @param clock time source for event timestamps.
+     */
+    public EnrollmentLedger(@NonNull Clock clock) {
+        this(clock, DEFAULT_SEGMENT_SIZE, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Creates a ledger keeping the default number of checkpoints.
+     *
+     * @param clock time source for event timestamps.
+     * @param segmentSize events per log segment.
+     * @param checkpointInterval events between projection checkpoints.
+     */
+    public EnrollmentLedger(@NonNull Clock clock, int segmentSize, int checkpointInterval) {
+        this(clock, segmentSize, checkpointInterval, DEFAULT_MAX_CHECKPOINTS);
+    }
+
+    /**
+     * Creates a ledger.
+     *
+     * @param clock time source for event timestamps.
+     * @param segmentSize events per log segment.
+     * @param checkpointInterval events between projection checkpoints.
+     * @param maxCheckpoints checkpoints kept; at least 2.
+     */
+    public EnrollmentLedger(@NonNull Clock clock, int segmentSize, int checkpointInterval, int maxCheckpoints) {
+        if (segmentSize <= 0 || checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Segment size and checkpoint interval must be positive");
+        }
+        if (maxCheckpoints < 2) {
+            throw new IllegalArgumentException("At least 2 checkpoints must be kept");
+        }
+        this.clock = clock;
+        this.segmentSize = segmentSize;
+        this.checkpointInterval = checkpointInterval;
+        this.maxCheckpoints = maxCheckpoints;
+    }
+
+    /**
+     * Appends an event and applies it to the current state.
+     *
+     * @param type what happened.
+     * @param enrollment the enrollment state it produced, or for
+     *                   {@link ChangeType#ENROLLMENT_DELETED} the state it removed;
+     *                   must not be modified afterwards.
+     * @return the recorded event.
+     */
+    public LedgerEvent append(@NonNull ChangeType type, @NonNull Enrollment enrollment) {
+        Instant now = clock.instant();
+        Cursor reserved;
+        Cursor next;
+        do {
+            reserved = cursor.get();
+            // Keep timestamps monotonic along the log so time queries can stop early.
+            next = new Cursor(reserved.sequence() + 1, now.isBefore(reserved.timestamp()) ? reserved.timestamp() : now);
+        } while (!cursor.compareAndSet(reserved, next));
+
+        long sequence = reserved.sequence();
+        LedgerEvent event = new LedgerEvent(sequence, next.timestamp(), type, enrollment);
+        segment((int) (sequence / segmentSize)).set((int) (sequence % segmentSize), event);
+        publish();
+
+        apply(projection, event, true);
+        checkpoint();
+        return event;
+    }
+
+    /**
+     * @return number of events recorded.
+     */
+    public long size() {
+        return published.get();
+    }
+
+    /**
+     * Reads part of the log, e.g. to rebuild another projection.
+     *
+     * @param fromSequence first sequence to return.
+     * @param maxEvents maximum number of events.
+     * @return the events in sequence order, empty past the end of the log.
+     */
+    public List<LedgerEvent> read(long fromSequence, int maxEvents) {
+        long size = published.get();
+        List<LedgerEvent> result = new ArrayList<>();
+        for (long seq = Math.max(0, fromSequence); seq < size && result.size() < maxEvents; seq++) {
+            result.add(eventAt(seq));
+        }
+        return result;
+    }
+
+    /**
+     * @return the current state of an enrollment, or null if none was recorded or it was deleted.
+     */
+    public Enrollment current(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        Map<String, Enrollment> section = projection.get(new SectionKey(courseCode, semester));
+        return section == null ? null : section.get(studentId);
+    }
+
+    /**
+     * @return the state of an enrollment at {@code at}, or null if it did not exist then.
+     */
+    public Enrollment enrollmentAt(@NonNull String studentId, @NonNull String courseCode,
+                                   @NonNull String semester, @NonNull Instant at) {
+        return sectionAt(new SectionKey(courseCode, semester), at).get(studentId);
+    }
+
+    /**
+     * @return IDs of the students whose status was ENROLLED in the section at {@code at}.
+     */
+    public List<String> rosterAt(@NonNull String courseCode, @NonNull String semester, @NonNull Instant at) {
+        List<String> roster = new ArrayList<>();
+        sectionAt(new SectionKey(courseCode, semester), at).forEach((studentId, enrollment) -> {
+            if (enrollment.getStatus() == EnrollmentStatus.ENROLLED) {
+                roster.add(studentId);
+            }
+        });
+        roster.sort(null);
+        return roster;
+    }
+
+    /**
+     * @return number of checkpoints kept.
+     */
+    public int checkpointCount() {
+        return checkpoints.size();
+    }
+
+    /**
+     * Rebuilds one section as of {@code at}: its part of the latest checkpoint not after
+     * {@code at}, plus the section's events recorded after it up to {@code at}.
+     */
+    private Map<String, Enrollment> sectionAt(SectionKey key, Instant at) {
+        List<Checkpoint> kept = checkpoints;
+        int lo = 0;
+        int hi = kept.size() - 1;
+        Checkpoint base = null;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (kept.get(mid).timestamp().isAfter(at)) {
+                hi = mid - 1;
+            } else {
+                base = kept.get(mid);
+                lo = mid + 1;
+            }
+        }
+
+        Map<SectionKey, Map<String, Enrollment>> state = new HashMap<>();
+        Map<String, Enrollment> checkpointed = base == null ? null : base.state().get(key);
+        state.put(key, checkpointed == null ? new HashMap<>() : new HashMap<>(checkpointed));
+        long size = published.get();
+        for (long seq = base == null ? 0 : base.sequence(); seq < size; seq++) {
+            LedgerEvent event = eventAt(seq);
+            if (event.timestamp().isAfter(at)) break;
+            Enrollment enrollment = event.enrollment();
+            if (key.courseCode().equals(enrollment.getCourseCode()) && key.semester().equals(enrollment.getSemester())) {
+                apply(state, event, false);
+            }
+        }
+        return state.get(key);
+    }
+
+    private AtomicReferenceArray<LedgerEvent> segment(int index) {
+        if (index < segments.size()) return segments.get(index);
+        synchronized (segments) {
+            while (segments.size() <= index) {
+                segments.add(new AtomicReferenceArray<>(segmentSize));
+            }
+        }
+        return segments.get(index);
+    }
+
+    private LedgerEvent eventAt(long sequence) {
+        return segments.get((int) (sequence / segmentSize)).get((int) (sequence % segmentSize));
+    }
+
+    /**
+     * Advances the readable prefix past every stored event. Each appender calls this after
+     * storing its own event, so whichever of two neighbours stores last moves the prefix past both.
+     */
+    private void publish() {
+        long end = cursor.get().sequence();
+        for (long next = published.get(); next < end; next = published.get()) {
+            AtomicReferenceArray<LedgerEvent> segment = next / segmentSize < segments.size()
+                    ? segments.get((int) (next / segmentSize)) : null;
+            if (segment == null || segment.get((int) (next % segmentSize)) == null) return;
+            published.compareAndSet(next, next + 1);
+        }
+    }
+
+    /**
+     * Takes the checkpoints the readable prefix has reached, each from the previous one and
+     * the events since, then thins the list out if it grew past {@code maxCheckpoints}.
+     */
+    private void checkpoint() {
+        if (published.get() < checkpointedThrough + checkpointInterval) return;
+        synchronized (checkpointLock) {
+            long size = published.get();
+            if (size < checkpointedThrough + checkpointInterval) return;
+            List<Checkpoint> kept = new ArrayList<>(checkpoints);
+            while (checkpointedThrough + checkpointInterval <= size) {
+                Checkpoint base = kept.isEmpty() ? null : kept.get(kept.size() - 1);
+                Map<SectionKey, Map<String, Enrollment>> state = base == null ? new HashMap<>() : copy(base.state());
+                long to = checkpointedThrough + checkpointInterval;
+                for (long seq = checkpointedThrough; seq < to; seq++) {
+                    apply(state, eventAt(seq), false);
+                }
+                kept.add(new Checkpoint(to, eventAt(to - 1).timestamp(), state));
+                checkpointedThrough = to;
+            }
+            if (kept.size() > maxCheckpoints) {
+                List<Checkpoint> thinned = new ArrayList<>();
+                for (int i = (kept.size() - 1) % 2; i < kept.size(); i += 2) {
+                    thinned.add(kept.get(i));
+                }
+                kept = thinned;
+            }
+            checkpoints = List.copyOf(kept);
+        }
+    }
+
+    private static void apply(Map<SectionKey, Map<String, Enrollment>> state, LedgerEvent event, boolean concurrent) {
+        Enrollment enrollment = event.enrollment();
+        Map<String, Enrollment> section = state.computeIfAbsent(
+                new SectionKey(enrollment.getCourseCode(), enrollment.getSemester()),
+                k -> concurrent ? new ConcurrentHashMap<>() : new HashMap<>());
+        boolean deleted = event.type() == ChangeType.ENROLLMENT_DELETED;
+        section.compute(enrollment.getStudentId(), (studentId, known) -> {
+            if (deleted) {
+                return known == null || known.getVersion() <= enrollment.getVersion() ? null : known;
+            }
+            return known == null || enrollment.getVersion() > known.getVersion() ? enrollment : known;
+        });
+    }
+
+    private static Map<SectionKey, Map<String, Enrollment>> copy(Map<SectionKey, Map<String, Enrollment>> state) {
+        Map<SectionKey, Map<String, Enrollment>> result = new HashMap<>(state.size() * 2);
+        state.forEach((section, students) -> result.put(section, new HashMap<>(students)));
+        return result;
+    }
+
+    /** Next sequence to hand out and the latest timestamp handed out. */
+    private record Cursor(long sequence, Instant timestamp) {
+    }
+
+    /** Projection as of a sequence number: events {@code [0, sequence)} applied. */
+    private record Checkpoint(long sequence, Instant timestamp, Map<SectionKey, Map<String, Enrollment>> state) {
+    }
+}
@@ -2,8 +2,14 @@ package repository;
 
 
 import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing enrollments of students in courses.
@@ -12,20 +18,29 @@ import java.util.List;
  * - Enroll students into courses.
  * - Drop students from courses.
  * - Retrieve enrollments by student or course.
+ * - Enforce per-course and per-semester seat capacity with a FIFO waitlist.
+ * - Reserve seats with time-bounded holds that count against capacity.
+ * - Replace enrollments atomically with an optimistic version check.
+ * - Read enrollments and rosters as of a {@link Snapshot}.
+ * - Remove all enrollments of a deleted student or course.
+ * - Restore a student's state in a section copied from elsewhere (a cluster replica).
  */
 public interface EnrollmentRepository {
 
     /**
      * Enrolls a student in a course for a given semester.
+     * If the section is full, the student is added to the end of its waitlist.
      *
      * @param studentId the unique ID of the student.
      * @param courseCode the unique code of the course.
      * @param semester the semester identifier (e.g., "Fall 2025").
+     * @return {@link EnrollmentStatus#ENROLLED} or {@link EnrollmentStatus#WAITLISTED}.
      */
-    void enroll(String studentId, String courseCode, String semester );
+    EnrollmentStatus enroll(String studentId, String courseCode, String semester );
 
     /**
      * Drops a student from a course for a given semester.
+     * A freed seat goes to the first student on the waitlist.
      *
      * @param studentId the unique ID of the student.
      * @param courseCode the unique code of the course.
@@ -33,6 +48,52 @@ public interface EnrollmentRepository {
      */
     void drop(String studentId, String courseCode, String semester );
 
+    /**
+     * Withdraws a student from a course: like {@link #drop}, but the enrollment is
+     * recorded as {@link EnrollmentStatus#WITHDRAWN}.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the unique code of the course.
+     * @param semester the semester identifier.
+     */
+    void withdraw(String studentId, String courseCode, String semester);
+
+    /**
+     * Marks an enrolled student's enrollment as {@link EnrollmentStatus#COMPLETED}.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the unique code of the course.
+     * @param semester the semester identifier.
+     * @throws IllegalArgumentException if the student is not enrolled in the section.
+     */
+    void complete(String studentId, String courseCode, String semester);
+
+    /**
+     * Removes every enrollment of a student (cascade delete). Seats the student held are
+     * freed for the waitlist first.
+     *
+     * @param studentId the unique ID of the student.
+     * @return number of enrollment records removed.
+     */
+    int removeStudent(String studentId);
+
+    /**
+     * Removes every enrollment, roster entry and seat setting of a course (cascade delete).
+     *
+     * @param courseCode the course code.
+     * @return number of enrollment records removed.
+     */
+    int removeCourse(String courseCode);
+
+    /**
+     * Archives a closed semester into a compact, read-only form. Its enrollments stay
+     * readable through every query; writes to the semester are rejected afterwards.
+     *
+     * @param semester the semester identifier (e.g., "Fall 2024").
+     * @return number of enrollments archived.
+     */
+    int freezeSemester(String semester);
+
     /**
      * Retrieves all enrollments for a given student.
      *
@@ -41,6 +102,25 @@ public interface EnrollmentRepository {
      */
     List<Enrollment> getEnrollmentsForStudent(String studentId);
 
+    /**
+     * Retrieves a student's enrollments as of a snapshot.
+     *
+     * @param studentId the unique ID of the student.
+     * @param snapshot an open snapshot from the repository's {@link SnapshotManager}.
+     * @return the enrollments as they were when the snapshot was opened, or an empty list.
+     * @throws IllegalStateException if the snapshot is closed.
+     */
+    List<Enrollment> getEnrollmentsForStudent(String studentId, Snapshot snapshot);
+
+    /**
+     * Streams every enrollment record: current and earlier ones of each section, live and
+     * frozen semesters. Not a snapshot: records changed while the stream is consumed may
+     * appear in either state.
+     *
+     * @return the records, in no particular order.
+     */
+    Stream<Enrollment> streamEnrollments();
+
     /**
      * Retrieves all student IDs enrolled in a specific course.
      *
@@ -49,5 +129,181 @@ public interface EnrollmentRepository {
      */
     List<String> getStudentsForCourse(String courseCode);
 
+    /**
+     * Retrieves the student IDs enrolled in a course as of a snapshot.
+     *
+     * @param courseCode the course code.
+     * @param snapshot an open snapshot from the repository's {@link SnapshotManager}.
+     * @return the students enrolled when the snapshot was opened, or an empty list.
+     * @throws IllegalStateException if the snapshot is closed.
+     */
+    List<String> getStudentsForCourse(String courseCode, Snapshot snapshot);
+
+    /**
+     * Retrieves one page of the student IDs enrolled in a course, sorted by ID.
+     *
+     * @param courseCode the course code.
+     * @param cursor the previous page's {@link Page#nextCursor()}, or null for the first page.
+     * @param limit maximum number of IDs on the page.
+     * @return the page; its next cursor is null after the last student.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    Page<String> getStudentsForCourse(String courseCode, String cursor, int limit);
+
+    /**
+     * Streams the student IDs enrolled in a course without building the whole list. The
+     * default fetches them page by page.
+     *
+     * @param courseCode the course code.
+     * @return the student IDs, read as the stream is consumed.
+     */
+    default Stream<String> streamStudentsForCourse(String courseCode) {
+        return Page.stream(cursor -> getStudentsForCourse(courseCode, cursor, Page.STREAM_PAGE_SIZE));
+    }
+
+    /**
+     * Records (or overwrites) one grade of a student's current enrollment in a section.
+     *
+     * @param studentId the student ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param gradeType which grade to set.
+     * @param score the score, 0-100.
+     * @return the enrollment with the grade applied.
+     * @throws IllegalArgumentException if the student has no enrollment in the section or the score is out of range.
+     */
+    Enrollment recordGrade(String studentId, String courseCode, String semester, GradeType gradeType, double score);
+
+    /**
+     * Retrieves the current enrollment of a student in a course section.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return the most recent enrollment, or null if the student never enrolled in the section.
+     */
+    Enrollment getEnrollment(String studentId, String courseCode, String semester);
+
+    /**
+     * Replaces the current enrollment of a section if nobody else has replaced it since it was read.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param expectedVersion the version of the enrollment the update was based on.
+     * @param updated the new state, a different instance from the stored one (see {@link Enrollment#copy()}).
+     * @return true if replaced, false if the enrollment changed meanwhile or does not exist.
+     * @throws IllegalArgumentException if updated is the stored instance.
+     */
+    boolean compareAndSet(String studentId, String courseCode, String semester, long expectedVersion, Enrollment updated);
+
+    /**
+     * Sets the default seat capacity for all semesters of a course.
+     *
+     * @param courseCode the course code.
+     * @param capacity seats per semester; 0 means unlimited.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    void setCapacity(String courseCode, int capacity);
+
+    /**
+     * Sets the seat capacity for one semester of a course, overriding the course default.
+     *
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param capacity seats for the semester; 0 means unlimited.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    void setCapacity(String courseCode, String semester, int capacity);
+
+    /**
+     * Returns the number of free seats in a course section.
+     *
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return free seats, or {@link Integer#MAX_VALUE} if the section is unlimited.
+     */
+    int getAvailableSeats(String courseCode, String semester);
+
+    /**
+     * Returns the students waiting for a seat in a course section.
+     *
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return student IDs in waitlist order, empty if none.
+     */
+    List<String> getWaitlist(String courseCode, String semester);
+
+    /**
+     * Reserves a seat for a student for a limited time. The hold counts against
+     * capacity but does not create an enrollment until it is confirmed.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param ttl how long the seat is held.
+     * @return the hold, or null if the section has no free seat or the student is
+     *         already enrolled, waitlisted or holding a seat in it.
+     * @throws IllegalArgumentException if ttl is not positive.
+     */
+    SeatHold placeHold(String studentId, String courseCode, String semester, Duration ttl);
+
+    /**
+     * Converts a student's hold into an enrollment.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return {@link EnrollmentStatus#ENROLLED}.
+     * @throws IllegalArgumentException if the student has no unexpired hold in the section.
+     */
+    EnrollmentStatus confirmHold(String studentId, String courseCode, String semester);
+
+    /**
+     * Gives a held seat back; the waitlist is promoted into it.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return true if the student was holding a seat.
+     */
+    boolean releaseHold(String studentId, String courseCode, String semester);
+
+    /**
+     * Releases a batch of expired holds. Holds that were confirmed, released or
+     * replaced since they were issued are skipped.
+     *
+     * @param holds holds whose expiry time has passed.
+     * @return number of seats released.
+     */
+    int expireHolds(Collection<SeatHold> holds);
+
+    /**
+     * Returns a student's current seat hold in a course section.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return the hold, expired or not, or null if the student holds no seat in the section.
+     */
+    SeatHold getHold(String studentId, String courseCode, String semester);
+
+    /**
+     * Replaces a student's state in a course section with a copy read elsewhere, e.g. on
+     * another cluster node: every enrollment record of the section and the seat hold.
+     * The student's seat follows the copy: taken if the last record is ENROLLED or COMPLETED
+     * or a hold is given, waitlisted (at the back) if it is WAITLISTED, free otherwise.
+     * Capacity is not checked and the waitlist is not promoted, since the copy already
+     * reflects both; the hold is not scheduled for expiry. Records whose version is
+     * unchanged are left alone, so restoring the same copy twice changes nothing.
+     *
+     * @param studentId the unique ID of the student.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param records the section's enrollment records, oldest first; empty to remove them all.
+     * @param hold the seat hold with its original expiry time, or null for none.
+     * @throws IllegalArgumentException if the semester is frozen.
+     */
+    void restore(String studentId, String courseCode, String semester, List<Enrollment> records, SeatHold hold);
 
 }
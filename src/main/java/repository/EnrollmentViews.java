@@ -0,0 +1,183 @@
+package repository;
+
+import lombok.NonNull;
+import model.Enrollment;
+import model.EnrollmentStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained enrollment counts per course, department and semester.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Count enrollment records by status for every course, department and semester,
+ *       so dashboards read a count in O(1) instead of walking rosters and enrollments.</li>
+ *   <li>Apply each committed enrollment change as a delta: the status it left is
+ *       decremented and the status it entered incremented.</li>
+ *   <li>Keep the course → department mapping that department counts are attributed by;
+ *       a course that changes department moves its counts with it.</li>
+ * </ul>
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>One {@link LongAdder} per (dimension, key, status). An adder stripes its cells
+ *       across contending threads, so concurrent enrolls in a popular course do not
+ *       serialize on one counter; reading sums a handful of cells.</li>
+ *   <li>Counters are created on first use and never removed; the keys are courses,
+ *       departments and semesters, which are few.</li>
+ * </ul>
+ *
+ * <p>Every record counts, current or not (a re-enrollment leaves its DROPPED predecessor
+ * in place), live or frozen; only a delete removes one. Enable with
+ * {@code StorageContext.builder().enrollmentViews(new EnrollmentViews())}; the enrollment
+ * and course repositories sharing the context then keep it up to date.</p>
+ *
+ * <p>Updates are not atomic with the change they describe, nor across counters: a read
+ * racing a write may see one dimension updated before another, and a department move
+ * racing an enrollment in that course can misattribute it. {@code jobs.EnrollmentViewVerifier}
+ * recomputes the counts from the repositories to detect and correct such drift.</p>
+ */
+public class EnrollmentViews {
+
+    /** What a count is grouped by. */
+    public enum Dimension {
+        COURSE,
+        DEPARTMENT,
+        SEMESTER
+    }
+
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+
+    private final Map<Dimension, ConcurrentHashMap<String, LongAdder[]>> counters = new EnumMap<>(Dimension.class);
+
+    /** Department each course's records are counted under. */
+    private final ConcurrentHashMap<String, String> courseDepartments = new ConcurrentHashMap<>();
+
+    public EnrollmentViews() {
+        for (Dimension dimension : Dimension.values()) {
+            counters.put(dimension, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Applies one committed change to an enrollment record.
+     *
+     * @param before the record before the change, or null if it was created.
+     * @param after the record after the change, or null if it was deleted.
+     */
+    public void apply(Enrollment before, Enrollment after) {
+        if (before != null && after != null && before.getStatus() == after.getStatus()
+                && Objects.equals(before.getCourseCode(), after.getCourseCode())
+                && Objects.equals(before.getSemester(), after.getSemester())) {
+            return;  // e.g. a grade: nothing counted changed
+        }
+        if (before != null) {
+            add(before, -1);
+        }
+        if (after != null) {
+            add(after, 1);
+        }
+    }
+
+    /**
+     * Records a course's department, moving the counts of its records from the department
+     * it was counted under.
+     *
+     * @param courseCode the course.
+     * @param department its department, or null if it was deleted or has none.
+     */
+    public void courseChanged(@NonNull String courseCode, String department) {
+        String previous = department == null
+                ? courseDepartments.remove(courseCode)
+                : courseDepartments.put(courseCode, department);
+        if (Objects.equals(previous, department)) return;
+
+        LongAdder[] course = counters.get(Dimension.COURSE).get(courseCode);
+        if (course == null) return;
+        for (EnrollmentStatus status : STATUSES) {
+            long count = course[status.ordinal()].sum();
+            if (count == 0) continue;
+            if (previous != null) {
+                adjust(Dimension.DEPARTMENT, previous, status, -count);
+            }
+            if (department != null) {
+                adjust(Dimension.DEPARTMENT, department, status, count);
+            }
+        }
+    }
+
+    /**
+     * @return the number of records with the status under the key; 0 if there are none.
+     */
+    public long count(@NonNull Dimension dimension, String key, @NonNull EnrollmentStatus status) {
+        LongAdder[] adders = key == null ? null : counters.get(dimension).get(key);
+        return adders == null ? 0 : adders[status.ordinal()].sum();
+    }
+
+    /**
+     * @return the nonzero counts under the key, by status.
+     */
+    public Map<EnrollmentStatus, Long> counts(@NonNull Dimension dimension, String key) {
+        Map<EnrollmentStatus, Long> result = new EnumMap<>(EnrollmentStatus.class);
+        LongAdder[] adders = key == null ? null : counters.get(dimension).get(key);
+        if (adders == null) return result;
+        for (EnrollmentStatus status : STATUSES) {
+            long count = adders[status.ordinal()].sum();
+            if (count != 0) {
+                result.put(status, count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return every key that has had a counter in the dimension (a live view).
+     */
+    public Set<String> keys(@NonNull Dimension dimension) {
+        return counters.get(dimension).keySet();
+    }
+
+    /**
+     * @return the department a course's records are counted under, or null.
+     */
+    public String departmentOf(String courseCode) {
+        return courseCode == null ? null : courseDepartments.get(courseCode);
+    }
+
+    /**
+     * Adds {@code delta} to one counter, e.g. to correct drift.
+     */
+    public void adjust(@NonNull Dimension dimension, @NonNull String key, @NonNull EnrollmentStatus status, long delta) {
+        counters.get(dimension)
+                .computeIfAbsent(key, k -> newAdders())[status.ordinal()]
+                .add(delta);
+    }
+
+    private void add(Enrollment enrollment, long delta) {
+        EnrollmentStatus status = enrollment.getStatus();
+        String courseCode = enrollment.getCourseCode();
+        if (status == null || courseCode == null) return;
+        adjust(Dimension.COURSE, courseCode, status, delta);
+        if (enrollment.getSemester() != null) {
+            adjust(Dimension.SEMESTER, enrollment.getSemester(), status, delta);
+        }
+        String department = courseDepartments.get(courseCode);
+        if (department != null) {
+            adjust(Dimension.DEPARTMENT, department, status, delta);
+        }
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[STATUSES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
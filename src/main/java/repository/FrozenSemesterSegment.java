@@ -0,0 +1,420 @@
+package repository;
+
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, column-oriented copy of every enrollment of one closed semester.
+ *
+ * <p>A live enrollment costs an {@link Enrollment}, an {@link EnumMap}, a {@link BitSet},
+ * a version chain and several index entries. A frozen row is a handful of array cells:</p>
+ * <ul>
+ *   <li>Students: the distinct student IDs, sorted, with the start row of each student
+ *       (rows are sorted by student, course and version). A student's rows are found by
+ *       binary search.</li>
+ *   <li>Courses: the distinct course codes, sorted, and one {@code int} code per row, plus
+ *       the rows of each course in a CSR layout (offsets into one {@code int[]}).</li>
+ *   <li>Status: one {@code byte} (the ordinal) per row; version: one {@code long} per row.</li>
+ *   <li>Grades: only the grades actually recorded, as parallel {@code byte[]} types and
+ *       {@code double[]} scores, addressed by per-row offsets.</li>
+ *   <li>Attendance: the words of each row's bit set with trailing empty words dropped,
+ *       concatenated into one {@code long[]} and addressed by per-row offsets.</li>
+ * </ul>
+ *
+ * <p>Reads materialize fresh {@link Enrollment} objects, so callers may modify them freely.
+ * A segment is never modified; removing rows builds a new segment. {@link #CODEC} writes the
+ * columns as they are, so a segment paged out to a {@link PagedFileStore} is read back
+ * without re-sorting.</p>
+ */
+final class FrozenSemesterSegment {
+
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+
+    private static final GradeType[] GRADE_TYPES = GradeType.values();
+
+    private static final Comparator<Enrollment> ROW_ORDER = Comparator
+            .comparing(Enrollment::getStudentId)
+            .thenComparing(Enrollment::getCourseCode)
+            .thenComparingLong(Enrollment::getVersion);
+
+    /** Binary form of a segment, column by column. */
+    static final RecordCodec<FrozenSemesterSegment> CODEC = new RecordCodec<>() {
+        @Override
+        public void write(DataOutput out, FrozenSemesterSegment segment) throws IOException {
+            RecordCodec.writeString(out, segment.semester);
+            writeStrings(out, segment.students);
+            writeInts(out, segment.studentStart);
+            writeStrings(out, segment.courses);
+            writeInts(out, segment.courseOfRow);
+            writeInts(out, segment.courseStart);
+            writeInts(out, segment.rowsByCourse);
+            out.writeInt(segment.status.length);
+            out.write(segment.status);
+            writeLongs(out, segment.versions);
+            writeInts(out, segment.gradeStart);
+            out.writeInt(segment.gradeTypes.length);
+            out.write(segment.gradeTypes);
+            out.writeInt(segment.gradeScores.length);
+            for (double score : segment.gradeScores) {
+                out.writeDouble(score);
+            }
+            writeInts(out, segment.attendanceStart);
+            writeLongs(out, segment.attendanceWords);
+        }
+
+        @Override
+        public FrozenSemesterSegment read(DataInput in) throws IOException {
+            String semester = RecordCodec.readString(in);
+            String[] students = readStrings(in);
+            int[] studentStart = readInts(in);
+            String[] courses = readStrings(in);
+            int[] courseOfRow = readInts(in);
+            int[] courseStart = readInts(in);
+            int[] rowsByCourse = readInts(in);
+            byte[] status = new byte[in.readInt()];
+            in.readFully(status);
+            long[] versions = readLongs(in);
+            int[] gradeStart = readInts(in);
+            byte[] gradeTypes = new byte[in.readInt()];
+            in.readFully(gradeTypes);
+            double[] gradeScores = new double[in.readInt()];
+            for (int i = 0; i < gradeScores.length; i++) {
+                gradeScores[i] = in.readDouble();
+            }
+            int[] attendanceStart = readInts(in);
+            long[] attendanceWords = readLongs(in);
+            return new FrozenSemesterSegment(semester, students, studentStart, courses, courseOfRow, courseStart,
+                    rowsByCourse, status, versions, gradeStart, gradeTypes, gradeScores, attendanceStart, attendanceWords);
+        }
+    };
+
+    private final String semester;
+
+    private final String[] students;
+
+    private final int[] studentStart;
+
+    private final String[] courses;
+
+    private final int[] courseOfRow;
+
+    private final int[] courseStart;
+
+    private final int[] rowsByCourse;
+
+    private final byte[] status;
+
+    private final long[] versions;
+
+    private final int[] gradeStart;
+
+    private final byte[] gradeTypes;
+
+    private final double[] gradeScores;
+
+    private final int[] attendanceStart;
+
+    private final long[] attendanceWords;
+
+    /**
+     * Encodes enrollments into a segment.
+     *
+     * @param semester the semester every enrollment belongs to.
+     * @param enrollments the enrollments; not modified.
+     * @return the segment.
+     */
+    static FrozenSemesterSegment of(String semester, List<Enrollment> enrollments) {
+        return new FrozenSemesterSegment(semester, enrollments);
+    }
+
+    private FrozenSemesterSegment(String semester, List<Enrollment> enrollments) {
+        List<Enrollment> rows = new ArrayList<>(enrollments);
+        rows.sort(ROW_ORDER);
+        int size = rows.size();
+        this.semester = semester;
+
+        TreeSet<String> distinctStudents = new TreeSet<>();
+        TreeSet<String> distinctCourses = new TreeSet<>();
+        int gradeCount = 0;
+        int wordCount = 0;
+        for (Enrollment enrollment : rows) {
+            distinctStudents.add(enrollment.getStudentId());
+            distinctCourses.add(enrollment.getCourseCode());
+            gradeCount += enrollment.getGrades() == null ? 0 : enrollment.getGrades().size();
+            wordCount += enrollment.getAttendance() == null ? 0 : enrollment.getAttendance().toLongArray().length;
+        }
+        this.students = distinctStudents.toArray(new String[0]);
+        this.courses = distinctCourses.toArray(new String[0]);
+
+        this.studentStart = new int[students.length + 1];
+        this.courseOfRow = new int[size];
+        this.status = new byte[size];
+        this.versions = new long[size];
+        this.gradeStart = new int[size + 1];
+        this.gradeTypes = new byte[gradeCount];
+        this.gradeScores = new double[gradeCount];
+        this.attendanceStart = new int[size + 1];
+        this.attendanceWords = new long[wordCount];
+
+        int[] courseCounts = new int[courses.length];
+        int student = -1;
+        int grade = 0;
+        int word = 0;
+        for (int row = 0; row < size; row++) {
+            Enrollment enrollment = rows.get(row);
+            if (student < 0 || !students[student].equals(enrollment.getStudentId())) {
+                student++;
+                studentStart[student] = row;
+            }
+            int course = Arrays.binarySearch(courses, enrollment.getCourseCode());
+            courseOfRow[row] = course;
+            courseCounts[course]++;
+            status[row] = (byte) enrollment.getStatus().ordinal();
+            versions[row] = enrollment.getVersion();
+
+            gradeStart[row] = grade;
+            if (enrollment.getGrades() != null) {
+                for (Map.Entry<GradeType, Double> entry : enrollment.getGrades().entrySet()) {
+                    gradeTypes[grade] = (byte) entry.getKey().ordinal();
+                    gradeScores[grade] = entry.getValue();
+                    grade++;
+                }
+            }
+            attendanceStart[row] = word;
+            if (enrollment.getAttendance() != null) {
+                for (long bits : enrollment.getAttendance().toLongArray()) {
+                    attendanceWords[word++] = bits;
+                }
+            }
+        }
+        studentStart[students.length] = size;
+        gradeStart[size] = grade;
+        attendanceStart[size] = word;
+
+        this.courseStart = new int[courses.length + 1];
+        for (int c = 0; c < courses.length; c++) {
+            courseStart[c + 1] = courseStart[c] + courseCounts[c];
+        }
+        this.rowsByCourse = new int[size];
+        int[] next = Arrays.copyOf(courseStart, courses.length);
+        for (int row = 0; row < size; row++) {
+            rowsByCourse[next[courseOfRow[row]]++] = row;
+        }
+    }
+
+    private FrozenSemesterSegment(String semester, String[] students, int[] studentStart, String[] courses,
+                                  int[] courseOfRow, int[] courseStart, int[] rowsByCourse, byte[] status,
+                                  long[] versions, int[] gradeStart, byte[] gradeTypes, double[] gradeScores,
+                                  int[] attendanceStart, long[] attendanceWords) {
+        this.semester = semester;
+        this.students = students;
+        this.studentStart = studentStart;
+        this.courses = courses;
+        this.courseOfRow = courseOfRow;
+        this.courseStart = courseStart;
+        this.rowsByCourse = rowsByCourse;
+        this.status = status;
+        this.versions = versions;
+        this.gradeStart = gradeStart;
+        this.gradeTypes = gradeTypes;
+        this.gradeScores = gradeScores;
+        this.attendanceStart = attendanceStart;
+        this.attendanceWords = attendanceWords;
+    }
+
+    String semester() {
+        return semester;
+    }
+
+    /**
+     * @return what a repository keeps on the heap once the segment is paged out.
+     */
+    Summary summary() {
+        int[] studentHashes = new int[students.length];
+        for (int i = 0; i < students.length; i++) {
+            studentHashes[i] = students[i].hashCode();
+        }
+        Arrays.sort(studentHashes);
+        return new Summary(studentHashes, courses);
+    }
+
+    /**
+     * @return number of rows.
+     */
+    int size() {
+        return status.length;
+    }
+
+    /**
+     * @return every row, decoded as it is consumed.
+     */
+    Stream<Enrollment> stream() {
+        return IntStream.range(0, size()).mapToObj(this::row);
+    }
+
+    /**
+     * @return every enrollment of a student in this semester, current and earlier ones.
+     */
+    List<Enrollment> forStudent(String studentId) {
+        int student = Arrays.binarySearch(students, studentId);
+        List<Enrollment> result = new ArrayList<>();
+        if (student < 0) return result;
+        for (int row = studentStart[student]; row < studentStart[student + 1]; row++) {
+            result.add(row(row));
+        }
+        return result;
+    }
+
+    /**
+     * @return every enrollment in a course in this semester.
+     */
+    List<Enrollment> forCourse(String courseCode) {
+        int course = Arrays.binarySearch(courses, courseCode);
+        List<Enrollment> result = new ArrayList<>();
+        if (course < 0) return result;
+        for (int i = courseStart[course]; i < courseStart[course + 1]; i++) {
+            result.add(row(rowsByCourse[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @return IDs of the students whose enrollment in the course ended up ENROLLED.
+     */
+    List<String> enrolledIn(String courseCode) {
+        int course = Arrays.binarySearch(courses, courseCode);
+        List<String> result = new ArrayList<>();
+        if (course < 0) return result;
+        for (int i = courseStart[course]; i < courseStart[course + 1]; i++) {
+            int row = rowsByCourse[i];
+            if (STATUSES[status[row]] == EnrollmentStatus.ENROLLED) {
+                result.add(students[studentOf(row)]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the latest enrollment of a student in a course, or null if there is none.
+     */
+    Enrollment find(String studentId, String courseCode) {
+        int student = Arrays.binarySearch(students, studentId);
+        int course = Arrays.binarySearch(courses, courseCode);
+        if (student < 0 || course < 0) return null;
+        // Rows of a student are sorted by course and version: the last match is the latest.
+        for (int row = studentStart[student + 1] - 1; row >= studentStart[student]; row--) {
+            if (courseOfRow[row] == course) {
+                return row(row);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a segment without the rows matching {@code removed}; this segment if none match.
+     */
+    FrozenSemesterSegment without(Predicate<Enrollment> removed) {
+        List<Enrollment> kept = new ArrayList<>(size());
+        for (int row = 0; row < size(); row++) {
+            Enrollment enrollment = row(row);
+            if (!removed.test(enrollment)) {
+                kept.add(enrollment);
+            }
+        }
+        return kept.size() == size() ? this : new FrozenSemesterSegment(semester, kept);
+    }
+
+    private Enrollment row(int row) {
+        Map<GradeType, Double> grades = new EnumMap<>(GradeType.class);
+        for (int g = gradeStart[row]; g < gradeStart[row + 1]; g++) {
+            grades.put(GRADE_TYPES[gradeTypes[g]], gradeScores[g]);
+        }
+        BitSet attendance = BitSet.valueOf(
+                Arrays.copyOfRange(attendanceWords, attendanceStart[row], attendanceStart[row + 1]));
+        return new Enrollment(students[studentOf(row)], courses[courseOfRow[row]], semester,
+                STATUSES[status[row]], grades, attendance, versions[row]);
+    }
+
+    private int studentOf(int row) {
+        // Start rows are strictly increasing: the row belongs to the last student starting at or before it.
+        int found = Arrays.binarySearch(studentStart, 0, students.length, row);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private static void writeStrings(DataOutput out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            RecordCodec.writeString(out, value);
+        }
+    }
+
+    private static String[] readStrings(DataInput in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = RecordCodec.readString(in);
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutput out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInput in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void writeLongs(DataOutput out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static long[] readLongs(DataInput in) throws IOException {
+        long[] values = new long[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * Heap-resident outline of a paged-out segment: sorted hash codes of its student IDs
+     * (4 bytes per student; a match may be a hash collision) and its course codes. Lets a
+     * repository skip loading segments that cannot hold what a query asks for.
+     */
+    record Summary(int[] studentHashes, String[] courses) {
+
+        boolean mayContainStudent(String studentId) {
+            return Arrays.binarySearch(studentHashes, studentId.hashCode()) >= 0;
+        }
+
+        boolean containsCourse(String courseCode) {
+            return Arrays.binarySearch(courses, courseCode) >= 0;
+        }
+    }
+}
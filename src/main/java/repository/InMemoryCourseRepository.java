@@ -1,8 +1,13 @@
 package repository;
 
+import events.ChangeType;
+import lombok.NonNull;
 import model.Course;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
 
 /**
  * In-memory implementation of the CourseRepository interface.
@@ -11,29 +16,70 @@ import java.util.*;
  * - Store Course objects by their unique course code.
  * - Maintain a mapping from department IDs to the set of course codes offered by that department.
  * - Provide fast lookups by course code.
- * - Enable listing of courses by department in alphabetical order.
+ * - Enable listing of courses by department in alphabetical order: whole, a page at a time
+ *   (one skip-list seek per page) or as a lazy stream.
+ * - Replace courses with an optimistic compare-and-set on their version.
+ * - Serve point-in-time reads through a {@link Snapshot}.
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
  *
  * Data Structures:
- * - coursesByCode: HashMap for O(1) course retrieval by code.
- * - deptToCourseCodes: HashMap (departmentId -> set of course codes),
- *   where each set is a TreeSet for automatic alphabetical ordering of course codes.
+ * - coursesByCode: ConcurrentHashMap of {@link VersionChain}s for O(1) lock-free retrieval
+ *   by code; older versions stay on the chain while an open snapshot can see them.
+ * - deptToCourseCodes: ConcurrentHashMap (departmentId -> set of course codes),
+ *   where each set is a ConcurrentSkipListSet for sorted, lock-free iteration of course codes.
+ * - tombstones: ConcurrentHashMap (code -> deleted course) whose department entry is not purged yet.
+ *   A delete is an O(1) tombstone on the version chain; department listings skip deleted codes,
+ *   and {@link #purgeTombstones(int)} removes them later.
+ *
+ * Concurrency:
+ * - No method takes a lock. Stored courses are never modified in place; writers push
+ *   a new instance onto the course's version chain with a CAS.
+ *
+ * Storage:
+ * - In {@link StorageMode#DICTIONARY_ENCODED} mode, course codes and department IDs
+ *   are replaced by their shared dictionary instances before being stored.
  */
 
-public class InMemoryCourseRepository implements CourseRepository{
+public class InMemoryCourseRepository implements CourseRepository, Compactable {
 
     /**
      * Stores courses by their unique code.
      * Key: course code (e.g., "CS101"), Value: Course object.
      */
-    private final Map<String, Course> coursesByCode = new HashMap<>(); // {code -> course}
+    private final ConcurrentHashMap<String, VersionChain<Course>> coursesByCode = new ConcurrentHashMap<>(); // {code -> versions}
 
     /**
      * Maps department IDs to sets of course codes offered by that department.
-     * Each set is a TreeSet to maintain alphabetical order of course codes.
+     * Each set is a ConcurrentSkipListSet to maintain alphabetical order of course codes.
      * Example: "CS" -> { "CS101", "CS102", "CS201" }
      */
-    private final Map<String, Set<String>> deptToCourseCodes = new HashMap<>();
+    private final ConcurrentHashMap<String, NavigableSet<String>> deptToCourseCodes = new ConcurrentHashMap<>();
+
+    /**
+     * Deleted courses whose codes are still in a department listing.
+     */
+    private final ConcurrentHashMap<String, Course> tombstones = new ConcurrentHashMap<>();
+
+    /**
+     * Storage settings (layout mode and shared dictionary).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository that stores courses as received.
+     */
+    public InMemoryCourseRepository() {
+        this(StorageContext.standard());
+    }
 
+    /**
+     * Creates a repository using the given storage settings.
+     *
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public InMemoryCourseRepository(@NonNull StorageContext storageContext) {
+        this.storageContext = storageContext;
+    }
 
 
     /**
@@ -44,25 +90,29 @@ public class InMemoryCourseRepository implements CourseRepository{
      * @throws IllegalArgumentException if a course with the same code already exists.
      */
     @Override
-    public synchronized void createCourse(Course course) {
+    public void createCourse(Course course) {
         if(course == null){
             throw new IllegalArgumentException("Course cannot be null");
         }
-
-        String code = course.getCode();
-        String departmentId = course.getDepartment();
-
-        if(coursesByCode.containsKey(code)){
-            throw new IllegalArgumentException("Course with code " + code + " already exists");
+        if(course.getCode() == null){
+            throw new IllegalArgumentException("Course code cannot be null");
         }
 
-        coursesByCode.put(code, course);
+        String code = storageContext.intern(course.getCode());
+        String departmentId = storageContext.intern(course.getDepartment());
 
-        deptToCourseCodes
-                .computeIfAbsent(departmentId, k -> new TreeSet<>())
-                .add(code);
+        course.setCode(code);
+        course.setDepartment(departmentId);
+        course.setVersion(1);
 
+        if(!insert(code, course)){
+            throw new IllegalArgumentException("Course with code " + code + " already exists");
+        }
 
+        purgeTombstone(code);
+        addToIndex(departmentId, code);
+        countUnder(code, departmentId);
+        storageContext.publish(ChangeType.COURSE_CREATED, code, course);
     }
 
 
@@ -74,7 +124,18 @@ public class InMemoryCourseRepository implements CourseRepository{
      */
     @Override
     public Course getByCode(String code) {
-        return coursesByCode.get(code);
+        VersionChain<Course> chain = code == null ? null : coursesByCode.get(code);
+        return chain == null ? null : chain.latest();
+    }
+
+    /**
+     * Retrieves a course as it was when the snapshot was opened.
+     */
+    @Override
+    public Course getByCode(String code, @NonNull Snapshot snapshot) {
+        long timestamp = snapshot.readTimestamp();
+        VersionChain<Course> chain = code == null ? null : coursesByCode.get(code);
+        return chain == null ? null : chain.readAt(timestamp);
     }
 
 
@@ -88,10 +149,10 @@ public class InMemoryCourseRepository implements CourseRepository{
     @Override
     public List<Course> listByDepartment(String department) {
         List<Course> result = new ArrayList<>();
-        Set<String> courseCodes  = deptToCourseCodes.getOrDefault(department, Collections.emptySet());
+        Set<String> courseCodes = codesAfter(department, null);
 
         for(String code : courseCodes ){
-            Course course = coursesByCode.get(code);
+            Course course = getByCode(code);
             if(course != null){
                 result.add(course);
             }
@@ -101,26 +162,201 @@ public class InMemoryCourseRepository implements CourseRepository{
     }
 
     /**
-     * Deletes a course by its unique code and removes all associated mappings.
+     * Seeks to the cursor in the department's skip list and reads on from there.
+     */
+    @Override
+    public Page<Course> listByDepartment(String department, String cursor, int limit) {
+        Page.requireLimit(limit);
+        return Page.of(codesAfter(department, cursor), this::getByCode, limit);
+    }
+
+    /**
+     * Streams the department's skip list in code order. Its spliterator splits, so parallel
+     * streams divide the department between threads.
+     */
+    @Override
+    public Stream<Course> streamByDepartment(String department) {
+        return codesAfter(department, null).stream().map(this::getByCode).filter(Objects::nonNull);
+    }
+
+    /**
+     * Lists a department's courses as of a snapshot. The department index only tracks the
+     * latest state, so this scans every course's version at the snapshot timestamp.
+     */
+    @Override
+    public List<Course> listByDepartment(String department, @NonNull Snapshot snapshot) {
+        long timestamp = snapshot.readTimestamp();
+        List<Course> result = new ArrayList<>();
+        if (department == null) return result;
+
+        for (VersionChain<Course> chain : coursesByCode.values()) {
+            Course course = chain.readAt(timestamp);
+            if (course != null && department.equals(course.getDepartment())) {
+                result.add(course);
+            }
+        }
+        result.sort(Comparator.comparing(Course::getCode));
+        return result;
+    }
+
+    /**
+     * Replaces a course if it is still at {@code expectedVersion}, moving it between
+     * department listings if its department changed. The course code cannot change.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String code, long expectedVersion, @NonNull Course updated) {
+        VersionChain<Course> chain = coursesByCode.get(code);
+        Course current = chain == null ? null : chain.latest();
+        if (current == null || current.getVersion() != expectedVersion) {
+            return false;
+        }
+        if (updated == current) {
+            throw new IllegalArgumentException("Updated course must be a new instance; use Course.copy()");
+        }
+
+        updated.setCode(current.getCode());
+        updated.setDepartment(storageContext.intern(updated.getDepartment()));
+        updated.setVersion(expectedVersion + 1);
+
+        if (!chain.compareAndSet(current, updated)) {
+            return false;
+        }
+        if (!Objects.equals(current.getDepartment(), updated.getDepartment())) {
+            addToIndex(updated.getDepartment(), code);
+            removeFromIndex(current.getDepartment(), code);
+            countUnder(code, updated.getDepartment());
+        }
+        storageContext.publish(ChangeType.COURSE_UPDATED, code, updated);
+        return true;
+    }
+
+    /**
+     * Deletes a course by its unique code. The course disappears from reads at once; its
+     * department entry is purged later (see {@link #purgeTombstones(int)}).
      *
      * @param code the course code.
      */
     @Override
-    public synchronized void deleteCourse(String code) {
+    public void deleteCourse(String code) {
+
+        VersionChain<Course> chain = code == null ? null : coursesByCode.get(code);
+        if (chain == null) return;
 
-        Course removedCourse = coursesByCode.remove(code);
-        if (removedCourse == null) return;
+        Course removedCourse;
+        do {
+            removedCourse = chain.latest();
+            if (removedCourse == null) return;
+        } while (!chain.delete(removedCourse, () -> coursesByCode.remove(code, chain)));
 
-        String departmentId = removedCourse.getDepartment();
+        Course deleted = removedCourse;
+        tombstones.compute(code, (k, older) -> {
+            if (older != null) purgeIndexes(k, older);
+            return deleted;
+        });
+        countUnder(code, null);
+        storageContext.publish(ChangeType.COURSE_DELETED, code, null);
+    }
+
+    @Override
+    public int pendingTombstones() {
+        return tombstones.size();
+    }
+
+    @Override
+    public int purgeTombstones(int maxEntries) {
+        int purged = 0;
+        for (String code : tombstones.keySet()) {
+            if (purged >= maxEntries) break;
+            if (purgeTombstone(code)) purged++;
+        }
+        return purged;
+    }
+
+    /**
+     * Removes a deleted course from its department listing. Runs inside the tombstone's
+     * map entry, so it never races with the re-creation of the same code.
+     */
+    private boolean purgeTombstone(String code) {
+        boolean[] purged = new boolean[1];
+        tombstones.computeIfPresent(code, (k, deleted) -> {
+            purgeIndexes(k, deleted);
+            purged[0] = true;
+            return null;
+        });
+        return purged[0];
+    }
 
+    /**
+     * Removes a deleted course from its department listing unless a live course with the
+     * same code (re-created while the tombstone was pending) is listed there.
+     */
+    private void purgeIndexes(String code, Course deleted) {
+        Course live = getByCode(code);
+        if (live == null || !Objects.equals(live.getDepartment(), deleted.getDepartment())) {
+            removeFromIndex(deleted.getDepartment(), code);
+        }
+    }
 
-        Set<String> courseCodes = deptToCourseCodes.get(departmentId);
-        if (courseCodes != null) {
-            courseCodes.remove(code);
-            if (courseCodes.isEmpty()) {
-                deptToCourseCodes.remove(departmentId);
+    /**
+     * Stores the first version of a course, reusing the chain of a deleted one that a
+     * snapshot can still see and replacing a retired chain.
+     *
+     * @return false if a live course already has this code.
+     */
+    private boolean insert(String code, Course course) {
+        VersionChain<Course> chain = new VersionChain<>(storageContext.getSnapshots(), course);
+        for (;;) {
+            VersionChain<Course> existing = coursesByCode.putIfAbsent(code, chain);
+            if (existing == null) {
+                chain.publish();
+                return true;
+            }
+            if (existing.isRetired()) {
+                coursesByCode.remove(code, existing);
+            } else if (existing.latest() != null) {
+                return false;
+            } else if (existing.compareAndSet(null, course)) {
+                return true;
             }
         }
+    }
 
+    /**
+     * @return a live view of the department's course codes after the cursor (all if null).
+     */
+    private NavigableSet<String> codesAfter(String department, String cursor) {
+        NavigableSet<String> codes = department == null ? null : deptToCourseCodes.get(department);
+        if (codes == null) return Collections.emptyNavigableSet();
+        return cursor == null ? codes : codes.tailSet(cursor, false);
+    }
+
+    /**
+     * Tells the enrollment views, if any, which department the course's enrollments count under.
+     */
+    private void countUnder(String code, String departmentId) {
+        EnrollmentViews views = storageContext.getEnrollmentViews();
+        if (views != null) {
+            views.courseChanged(code, departmentId);
+        }
+    }
+
+    private void addToIndex(String departmentId, String code) {
+        if (departmentId == null) return;
+        deptToCourseCodes.compute(departmentId, (k, codes) -> {
+            NavigableSet<String> result = codes == null ? new ConcurrentSkipListSet<>() : codes;
+            result.add(code);
+            return result;
+        });
+    }
+
+    /**
+     * Removes a course code from its department, dropping the entry atomically once it is empty.
+     */
+    private void removeFromIndex(String departmentId, String code) {
+        if (departmentId == null) return;
+        deptToCourseCodes.computeIfPresent(departmentId, (k, codes) -> {
+            codes.remove(code);
+            return codes.isEmpty() ? null : codes;
+        });
     }
 }
@@ -1,10 +1,13 @@
 package repository;
 
+import events.ChangeType;
 import lombok.NonNull;
 import model.Department;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 /**
@@ -13,11 +16,12 @@ import java.util.stream.Collectors;
  * Responsibilities:
  * - Store Department objects in memory.
  * - Provide quick lookups by department ID.
- * - Allow listing all departments in sorted order.
+ * - Allow listing all departments in sorted order: whole, a page at a time or as a lazy stream.
  *
  * Data Structures:
  * - departmentsById: ConcurrentHashMap for thread-safe storage and O(1) lookups.
- * - departmentNames: TreeSet to maintain alphabetical order of department names (optional for sorting).
+ * - departmentIds: ConcurrentSkipListSet keeping department IDs sorted; pages seek to their
+ *   cursor and iteration needs no lock.
  */
 public class InMemoryDepartmentRepository implements DepartmentRepository{
 
@@ -29,9 +33,30 @@ public class InMemoryDepartmentRepository implements DepartmentRepository{
 
     /**
      * Stores department IDs in alphabetical order for sorted listing.
-     * TreeSet automatically sorts by department ID.
+     * The skip list sorts by department ID and is weakly consistent, so readers never lock.
      */
-    private final Set<String> departmentIds  = Collections.synchronizedSet(new TreeSet<>());
+    private final NavigableSet<String> departmentIds = new ConcurrentSkipListSet<>();
+
+    /**
+     * Storage settings (shared change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with its own storage context.
+     */
+    public InMemoryDepartmentRepository() {
+        this(StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository using the given storage settings.
+     *
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public InMemoryDepartmentRepository(@NonNull StorageContext storageContext) {
+        this.storageContext = storageContext;
+    }
 
 
     /**
@@ -53,7 +78,7 @@ public class InMemoryDepartmentRepository implements DepartmentRepository{
 
         departmentsById.put(id, department);
         departmentIds.add(id);
-
+        storageContext.publish(ChangeType.DEPARTMENT_CREATED, id, department);
     }
 
 
@@ -70,21 +95,50 @@ public class InMemoryDepartmentRepository implements DepartmentRepository{
 
     /**
      * Lists all departments in the system.
-     * Sorted by department ID (because TreeSet is used).
+     * Sorted by department ID (because the ID set is a skip list).
      *
      * @return a list of all departments in sorted order.
      */
     @Override
     public List<Department> listAll() {
         List<Department> result = new ArrayList<>();
-        synchronized (departmentIds) {
-            for (String id : departmentIds) {
-                Department dept = departmentsById.get(id);
-                if (dept != null) {
-                    result.add(dept);
-                }
+        for (String id : departmentIds) {
+            Department dept = departmentsById.get(id);
+            if (dept != null) {
+                result.add(dept);
             }
         }
         return result;
     }
+
+    @Override
+    public Page<Department> listAll(String cursor, int limit) {
+        Page.requireLimit(limit);
+        return Page.of(cursor == null ? departmentIds : departmentIds.tailSet(cursor, false), departmentsById::get, limit);
+    }
+
+    /**
+     * Streams the ID skip list in order; its spliterator splits for parallel streams.
+     */
+    @Override
+    public Stream<Department> streamAll() {
+        return departmentIds.stream().map(departmentsById::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * Replaces the department's course set with a copy that lacks the course, so readers
+     * iterating the old set are never disturbed.
+     */
+    @Override
+    public synchronized boolean unlinkCourse(@NonNull String departmentId, @NonNull String courseCode) {
+        Department department = departmentsById.get(departmentId);
+        if (department == null || department.getCourses() == null || !department.getCourses().contains(courseCode)) {
+            return false;
+        }
+        Set<String> courses = new TreeSet<>(department.getCourses());
+        courses.remove(courseCode);
+        department.setCourses(courses);
+        storageContext.publish(ChangeType.DEPARTMENT_UPDATED, departmentId, department);
+        return true;
+    }
 }
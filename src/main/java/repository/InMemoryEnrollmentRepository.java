@@ -1,16 +1,28 @@
 package repository;
 
+import events.ChangeType;
 import lombok.NonNull;
+import metrics.RegistrationMetrics;
 import model.Enrollment;
 import model.EnrollmentStatus;
 import model.GradeType;
+import model.dto.SeatHold;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import static model.EnrollmentStatus.COMPLETED;
 import static model.EnrollmentStatus.DROPPED;
 import static model.EnrollmentStatus.ENROLLED;
+import static model.EnrollmentStatus.WAITLISTED;
+import static model.EnrollmentStatus.WITHDRAWN;
 
 /**
  * In-memory implementation of the EnrollmentRepository interface.
@@ -18,65 +30,263 @@ import static model.EnrollmentStatus.ENROLLED;
  * Responsibilities:
  * - Maintain student enrollments in memory using thread-safe collections.
  * - Provide quick lookups by student and by course.
+ * - Serve point-in-time reads of enrollments and rosters through a {@link Snapshot}.
+ * - Publish enrollment, grade and seat-hold changes on the context's {@link events.ChangeFeed},
+ *   and record enrollment and grade changes in its {@link EnrollmentLedger} when one is configured.
  *
  * Data Structures:
- * - enrollmentsByStudent: ConcurrentHashMap mapping studentId -> CopyOnWriteArrayList of enrollments.
+ * - enrollmentsByStudent: ConcurrentHashMap mapping studentId -> CopyOnWriteArrayList of enrollment slots.
  *   Reason:
  *     - Frequent reads and occasional writes.
  *     - CopyOnWriteArrayList is good for read-heavy scenarios.
  *
- * - studentsByCourse: ConcurrentHashMap mapping courseCode -> Concurrent Set of student IDs.
+ * - Enrollment slots: one {@link VersionChain} per enrollment.
  *   Reason:
- *     - Thread-safe.
- *     - O(1) membership checks.
+ *     - Stored enrollments are never modified in place; every change (status, grades via
+ *       compareAndSet) pushes a copy with the next version, so readers never lock and
+ *       never see a half-applied update, and concurrent writers detect each other.
+ *     - Versions an open snapshot can still see stay on the chain until it closes.
+ *
+ * - chainsByCourse: ConcurrentHashMap mapping courseCode -> concurrent set of enrollment slots.
+ *   Reason:
+ *     - studentsByCourse only knows the current roster; a snapshot roster is rebuilt
+ *       from the enrollment versions visible at the snapshot timestamp.
+ *     - Reverse index for cascade deletes: removing a course touches only its own slots.
+ *
+ * - sectionsByCourse: ConcurrentHashMap mapping courseCode -> concurrent set of section keys.
+ *   Reason:
+ *     - Course-wide capacity changes and course removal reach every section of the course
+ *       without scanning the ledgers of all courses.
+ *
+ * - studentsByCourse: ConcurrentHashMap mapping courseCode -> ConcurrentSkipListSet of student IDs.
+ *   Reason:
+ *     - Thread-safe; readers iterate without locking.
  *     - Easy to add/remove student IDs when enrolling/dropping.
+ *     - Sorted, so a roster page seeks straight to its cursor, and its spliterator splits
+ *       for parallel streams.
+ *
+ * - ledgers: ConcurrentHashMap mapping (courseCode, semester) -> SeatLedger.
+ *   Reason:
+ *     - Seat counts are lock-free CAS counters, so concurrent enroll/drop calls on a
+ *       popular course never queue on a shared lock.
+ *     - Students beyond capacity join a FIFO waitlist; a drop promotes the head atomically.
+ *
+ * - holds: ConcurrentHashMap mapping (studentId, courseCode, semester) -> current SeatHold.
+ *   Reason:
+ *     - A held seat is counted by the ledger but has no Enrollment until it is confirmed.
+ *     - Confirm, release and expiry each remove the exact hold atomically, so only one of them wins.
+ *     - Expiry is driven from outside (see jobs.HoldExpirySweeper), so no sweep ever scans
+ *       all enrollments.
+ *
+ * - frozenSegments: ConcurrentHashMap mapping semester -> {@link FrozenSemesterSegment}.
+ *   Reason:
+ *     - A closed semester never changes again, so {@link #freezeSemester} moves its
+ *       enrollments out of the live structures above into one immutable columnar segment,
+ *       several times smaller on the heap. Reads span live and frozen enrollments; writes
+ *       to a frozen semester are rejected.
+ *
+ * - spilledSemesters: ConcurrentHashMap mapping semester -> segment summary.
+ *   Reason:
+ *     - With {@link TieredStorage} configured, {@link #spillSemester} pages a frozen segment
+ *       out to disk. Only its summary (student ID hashes and course codes) stays on the heap,
+ *       so queries load just the segments that can match, through the store's LRU page cache.
+ *
+ * Storage:
+ * - In {@link StorageMode#DICTIONARY_ENCODED} mode, course codes and semesters are
+ *   replaced by their shared dictionary instances, so millions of enrollments
+ *   reference a handful of strings instead of holding their own copies.
  */
 public class InMemoryEnrollmentRepository implements EnrollmentRepository{
 
+    /** Paged-out semesters kept decoded in the read cache. */
+    private static final int CACHED_COLD_SEGMENTS = 4;
+
     /**
      * Maps student IDs to their enrollments.
      * Key: studentId, Value: list of Enrollment objects.
      * Using CopyOnWriteArrayList for safe iteration during concurrent reads.
      */
-    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Enrollment>> enrollmentsByStudent = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<VersionChain<Enrollment>>> enrollmentsByStudent = new ConcurrentHashMap<>();
 
     /**
      * Maps course codes to sets of enrolled student IDs.
-     * Key: courseCode, Value: thread-safe set of student IDs.
+     * Key: courseCode, Value: thread-safe set of student IDs, sorted.
+     */
+    private final ConcurrentHashMap<String, NavigableSet<String>> studentsByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Every enrollment slot of a course, for snapshot rosters and cascade deletes.
+     */
+    private final ConcurrentHashMap<String, Set<VersionChain<Enrollment>>> chainsByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Sections (ledgers or capacity overrides) that exist for each course.
+     */
+    private final ConcurrentHashMap<String, Set<SectionKey>> sectionsByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Current enrollment of each (student, course, semester), for O(1) status updates.
+     */
+    private final ConcurrentHashMap<EnrollmentKey, VersionChain<Enrollment>> enrollmentsByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Seat counters and waitlists, one per course section (course + semester).
+     */
+    private final ConcurrentHashMap<SectionKey, SeatLedger> ledgers = new ConcurrentHashMap<>();
+
+    /**
+     * Current seat hold of each (student, course, semester).
+     */
+    private final ConcurrentHashMap<EnrollmentKey, SeatHold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * Default seat capacity per course code; sections without an entry are unlimited.
+     */
+    private final ConcurrentHashMap<String, Integer> courseCapacities = new ConcurrentHashMap<>();
+
+    /**
+     * Per-semester capacity overrides.
+     */
+    private final ConcurrentHashMap<SectionKey, Integer> sectionCapacities = new ConcurrentHashMap<>();
+
+    /**
+     * Semesters that are frozen or being frozen; writes to them are rejected.
+     */
+    private final Set<String> closedSemesters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Enrollments of frozen semesters, one read-only segment per semester.
+     */
+    private final ConcurrentHashMap<String, FrozenSemesterSegment> frozenSegments = new ConcurrentHashMap<>();
+
+    /**
+     * Frozen semesters paged out to {@link #coldSegments}, with what is needed to skip them.
+     */
+    private final ConcurrentHashMap<String, FrozenSemesterSegment.Summary> spilledSemesters = new ConcurrentHashMap<>();
+
+    /**
+     * Paged-out frozen segments, one per page; null without tiered storage.
+     */
+    private final PagedFileStore<FrozenSemesterSegment> coldSegments;
+
+    /**
+     * Storage settings (layout mode and shared dictionary).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository that stores enrollments as received.
      */
-    private final ConcurrentHashMap<String, Set<String>> studentsByCourse = new ConcurrentHashMap<>();
+    public InMemoryEnrollmentRepository() {
+        this(StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository using the given storage settings.
+     *
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public InMemoryEnrollmentRepository(@NonNull StorageContext storageContext) {
+        this.storageContext = storageContext;
+        TieredStorage tieredStorage = storageContext.getTieredStorage();
+        this.coldSegments = tieredStorage == null ? null
+                : tieredStorage.open("semesters", FrozenSemesterSegment.CODEC, 1, CACHED_COLD_SEGMENTS);
+    }
 
+    /**
+     * Enrolls a student, taking a seat if one is free and joining the FIFO waitlist otherwise.
+     * Enrolling a student who is already enrolled or waitlisted in the section is a no-op;
+     * a student holding an unexpired seat hold is enrolled into the held seat.
+     *
+     * @return ENROLLED or WAITLISTED.
+     */
     @Override
-    public void enroll(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+    public EnrollmentStatus enroll(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        requireOpen(semester);
 
-        Enrollment enrollment = new Enrollment(
-                studentId,
-                courseCode,
-                semester,
-                ENROLLED,
-                new EnumMap<>(GradeType.class),
-                new BitSet()
-        );
+        courseCode = storageContext.intern(courseCode);
+        semester = storageContext.intern(semester);
 
-        enrollmentsByStudent
-                .computeIfAbsent(studentId, k-> new CopyOnWriteArrayList<>())
-                .add(enrollment);
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        SeatLedger ledger = ledgerFor(key.section());
 
-        studentsByCourse
-                .computeIfAbsent(courseCode, k-> ConcurrentHashMap.newKeySet())
-                .add(studentId);
+        SeatLedger.State existing;
+        while ((existing = ledger.register(studentId)) != null) {
+            if (existing != SeatLedger.State.HELD) {
+                return existing == SeatLedger.State.ENROLLED ? ENROLLED : WAITLISTED;
+            }
+            if (confirm(ledger, key)) {
+                return ENROLLED;
+            }
+            // The hold expired or was released meanwhile; register again.
+        }
+
+        if (ledger.trySeat(studentId)) {
+            // Created ENROLLED; markEnrolled adds it to the roster and undoes it if the
+            // student dropped between taking the seat and the record appearing.
+            addEnrollment(key, ENROLLED);
+            markEnrolled(ledger, key);
+            return ENROLLED;
+        }
+
+        VersionChain<Enrollment> enrollment = addEnrollment(key, WAITLISTED);
+        ledger.enqueue(studentId);
+        promote(ledger, key.section());
 
+        return ledger.stateOf(studentId) == SeatLedger.State.ENROLLED ? ENROLLED : enrollment.latest().getStatus();
     }
 
+    /**
+     * Drops a student from a section. If the student held a seat (enrolled or on hold),
+     * the head of the waitlist is promoted into it. Dropping a student who is not
+     * active in the section is a no-op, so retried drops leave history untouched.
+     */
     @Override
     public void drop(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
-        CopyOnWriteArrayList<Enrollment> enrollments = enrollmentsByStudent.get(studentId);
-        if(enrollments != null){
-            for(Enrollment e : enrollments){
-                if(e.getCourseCode().equals(courseCode) && e.getSemester().equals(semester)){
-                    e.setStatus(DROPPED);
-                }
-            }
+        leave(studentId, courseCode, semester, DROPPED);
+    }
+
+    /**
+     * Same as {@link #drop} but records the enrollment as WITHDRAWN.
+     */
+    @Override
+    public void withdraw(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        leave(studentId, courseCode, semester, WITHDRAWN);
+    }
+
+    /**
+     * Marks an enrolled student's enrollment COMPLETED. The seat stays taken: completion
+     * happens at the end of the term, when the roster no longer changes.
+     */
+    @Override
+    public void complete(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        requireOpen(semester);
+        VersionChain<Enrollment> enrollment = enrollmentsByKey.get(new EnrollmentKey(studentId, courseCode, semester));
+        if (enrollment == null || enrollment.latest().getStatus() != ENROLLED) {
+            throw new IllegalArgumentException(
+                    "Student " + studentId + " is not enrolled in " + courseCode + " " + semester);
+        }
+        updateStatus(enrollment, COMPLETED);
+    }
+
+    private void leave(String studentId, String courseCode, String semester, EnrollmentStatus status) {
+        requireOpen(semester);
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        SectionKey section = key.section();
+
+        SeatLedger ledger = ledgers.get(section);
+        SeatLedger.State prior = ledger == null ? null : ledger.remove(studentId);
+        SeatHold hold = holds.remove(key);
+        if (hold != null) {
+            storageContext.publish(ChangeType.SEAT_RELEASED, studentId, hold);
+        }
+        if (prior == null) {
+            return;
+        }
+
+        VersionChain<Enrollment> enrollment = enrollmentsByKey.get(key);
+        if (enrollment != null) {
+            updateStatus(enrollment, status);
         }
 
         Set<String> studentSet = studentsByCourse.get(courseCode);
@@ -84,18 +294,825 @@ public class InMemoryEnrollmentRepository implements EnrollmentRepository{
             studentSet.remove(studentId);
         }
 
+        if (prior == SeatLedger.State.ENROLLED || prior == SeatLedger.State.HELD) {
+            promote(ledger, section);
+        }
+
+    }
+
+    /**
+     * Sets the default seat capacity for every semester of a course.
+     * A capacity of {@code 0} removes the limit.
+     *
+     * @param courseCode the course code.
+     * @param capacity number of seats per semester (0 = unlimited).
+     */
+    @Override
+    public void setCapacity(@NonNull String courseCode, int capacity) {
+        validateCapacity(capacity);
+        courseCapacities.put(courseCode, capacity);
+        for (SectionKey section : sectionsByCourse.getOrDefault(courseCode, Collections.emptySet())) {
+            SeatLedger ledger = ledgers.get(section);
+            if (ledger != null) {
+                applyCapacity(section, ledger);
+            }
+        }
+    }
+
+    /**
+     * Sets the seat capacity of one semester of a course, overriding the course default.
+     *
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param capacity number of seats (0 = unlimited).
+     */
+    @Override
+    public void setCapacity(@NonNull String courseCode, @NonNull String semester, int capacity) {
+        validateCapacity(capacity);
+        requireOpen(semester);
+        SectionKey section = new SectionKey(courseCode, semester);
+        sectionCapacities.put(section, capacity);
+        indexSection(section);
+        SeatLedger ledger = ledgers.get(section);
+        if (ledger != null) {
+            applyCapacity(section, ledger);
+        }
+    }
+
+    @Override
+    public int getAvailableSeats(@NonNull String courseCode, @NonNull String semester) {
+        if (closedSemesters.contains(semester)) return 0;
+        return ledgerFor(new SectionKey(courseCode, semester)).available();
+    }
+
+    @Override
+    public List<String> getWaitlist(@NonNull String courseCode, @NonNull String semester) {
+        SeatLedger ledger = ledgers.get(new SectionKey(courseCode, semester));
+        return ledger == null ? new ArrayList<>() : ledger.waitlisted();
+    }
+
+    /**
+     * Holds a free seat for {@code ttl}. The hold is not tracked for expiry here:
+     * callers schedule it with a sweeper, and {@link #confirmHold} rejects it once expired.
+     */
+    @Override
+    public SeatHold placeHold(@NonNull String studentId, @NonNull String courseCode,
+                              @NonNull String semester, @NonNull Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("Hold duration must be positive");
+        }
+        requireOpen(semester);
+        courseCode = storageContext.intern(courseCode);
+        semester = storageContext.intern(semester);
+
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        SeatLedger ledger = ledgerFor(key.section());
 
+        if (!ledger.tryHold(studentId)) {
+            // tryHold may have briefly taken a seat; make sure the waitlist did not miss it.
+            promote(ledger, key.section());
+            return null;
+        }
+        SeatHold hold = new SeatHold(studentId, courseCode, semester, now().plus(ttl));
+        holds.put(key, hold);
+        storageContext.publish(ChangeType.SEAT_HELD, studentId, hold);
+        return hold;
+    }
+
+    @Override
+    public EnrollmentStatus confirmHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        SeatLedger ledger = ledgers.get(key.section());
+        if (ledger == null || !confirm(ledger, key)) {
+            throw new IllegalArgumentException(
+                    "No active hold for student " + studentId + " in " + courseCode + " " + semester);
+        }
+        return ENROLLED;
+    }
+
+    @Override
+    public boolean releaseHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        SeatLedger ledger = ledgers.get(key.section());
+        SeatHold hold = holds.remove(key);
+        if (ledger == null || hold == null || !ledger.releaseHold(studentId)) {
+            return false;
+        }
+        storageContext.publish(ChangeType.SEAT_RELEASED, studentId, hold);
+        promote(ledger, key.section());
+        return true;
+    }
+
+    /**
+     * Releases the given holds, then promotes each affected section's waitlist once.
+     */
+    @Override
+    public int expireHolds(@NonNull Collection<SeatHold> expired) {
+        Instant now = now();
+        Map<SectionKey, SeatLedger> touched = new HashMap<>();
+        int released = 0;
+        for (SeatHold hold : expired) {
+            if (!hold.isExpired(now)) continue;
+            EnrollmentKey key = new EnrollmentKey(hold.studentId(), hold.courseCode(), hold.semester());
+            SeatLedger ledger = ledgers.get(key.section());
+            // Remove the hold even if its section was deleted meanwhile, so nothing leaks.
+            if (holds.remove(key, hold) && ledger != null && ledger.releaseHold(hold.studentId())) {
+                storageContext.publish(ChangeType.SEAT_RELEASED, hold.studentId(), hold);
+                released++;
+                touched.put(key.section(), ledger);
+            }
+        }
+        touched.forEach((section, ledger) -> promote(ledger, section));
+        return released;
+    }
+
+    @Override
+    public SeatHold getHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return holds.get(new EnrollmentKey(studentId, courseCode, semester));
+    }
+
+    /**
+     * Brings the section's slots in line with the records position by position: a slot
+     * whose version differs gets a copy of its record, missing slots are added after the
+     * others and surplus ones removed. Then the seat ledger, roster and hold are set to match.
+     */
+    @Override
+    public void restore(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                        @NonNull List<Enrollment> records, SeatHold hold) {
+        requireOpen(semester);
+        courseCode = storageContext.intern(courseCode);
+        semester = storageContext.intern(semester);
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+
+        List<VersionChain<Enrollment>> slots = new ArrayList<>();
+        List<VersionChain<Enrollment>> studentSlots = enrollmentsByStudent.get(studentId);
+        if (studentSlots != null) {
+            for (VersionChain<Enrollment> slot : studentSlots) {
+                Enrollment enrollment = slot.latest();
+                if (courseCode.equals(enrollment.getCourseCode()) && semester.equals(enrollment.getSemester())) {
+                    slots.add(slot);
+                }
+            }
+        }
+        VersionChain<Enrollment> last = null;
+        for (int i = 0; i < Math.max(slots.size(), records.size()); i++) {
+            if (i >= records.size()) {
+                removeSlot(key, slots.get(i));
+                continue;
+            }
+            Enrollment record = records.get(i).copy();
+            record.setStudentId(studentId);
+            record.setCourseCode(courseCode);
+            record.setSemester(semester);
+            if (i >= slots.size()) {
+                last = insertSlot(key, record);
+                continue;
+            }
+            last = slots.get(i);
+            Enrollment current = last.latest();
+            if (current.getVersion() != record.getVersion() && last.compareAndSet(current, record)) {
+                committed(ChangeType.ENROLLMENT_UPDATED, current, record);
+            }
+        }
+        if (last != null) {
+            enrollmentsByKey.put(key, last);
+        }
+
+        SeatLedger ledger = ledgerFor(key.section());
+        SeatLedger.State prior = ledger.stateOf(studentId);
+        SeatLedger.State state = hold != null ? SeatLedger.State.HELD
+                : records.isEmpty() ? null : SeatLedger.State.of(records.get(records.size() - 1).getStatus());
+        ledger.restore(studentId, state);
+        if (state == SeatLedger.State.ENROLLED) {
+            studentsByCourse.computeIfAbsent(courseCode, k -> new ConcurrentSkipListSet<>()).add(studentId);
+        } else if (prior == SeatLedger.State.ENROLLED) {
+            Set<String> roster = studentsByCourse.get(courseCode);
+            if (roster != null) {
+                roster.remove(studentId);
+            }
+        }
+
+        SeatHold restored = hold == null ? null : new SeatHold(studentId, courseCode, semester, hold.expiresAt());
+        SeatHold previous = restored == null ? holds.remove(key) : holds.put(key, restored);
+        if (restored != null && !restored.equals(previous)) {
+            storageContext.publish(ChangeType.SEAT_HELD, studentId, restored);
+        } else if (restored == null && previous != null) {
+            storageContext.publish(ChangeType.SEAT_RELEASED, studentId, previous);
+        }
     }
 
     @Override
     public List<Enrollment> getEnrollmentsForStudent(@NonNull String studentId) {
-        return enrollmentsByStudent.getOrDefault(studentId, new CopyOnWriteArrayList<>());
+        List<VersionChain<Enrollment>> slots = enrollmentsByStudent.get(studentId);
+        List<Enrollment> result = new ArrayList<>(slots == null ? 0 : slots.size());
+        if (slots != null) {
+            for (VersionChain<Enrollment> slot : slots) {
+                Enrollment enrollment = slot.latest();
+                if (!isArchived(enrollment.getSemester())) {
+                    result.add(enrollment);
+                }
+            }
+        }
+        addFrozen(studentId, result);
+        return result;
+    }
+
+    /**
+     * Returns the enrollments as of the snapshot. Slots created after the snapshot have
+     * no version visible to it and are skipped. Frozen semesters no longer change, so
+     * every snapshot sees their final state.
+     */
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(@NonNull String studentId, @NonNull Snapshot snapshot) {
+        long timestamp = snapshot.readTimestamp();
+        List<VersionChain<Enrollment>> slots = enrollmentsByStudent.get(studentId);
+        List<Enrollment> result = new ArrayList<>(slots == null ? 0 : slots.size());
+        if (slots != null) {
+            for (VersionChain<Enrollment> slot : slots) {
+                Enrollment enrollment = slot.readAt(timestamp);
+                if (enrollment != null && !isArchived(enrollment.getSemester())) {
+                    result.add(enrollment);
+                }
+            }
+        }
+        addFrozen(studentId, result);
+        return result;
+    }
+
+    /**
+     * Streams the latest version of every live slot, then every frozen row (loading
+     * paged-out semesters one at a time).
+     */
+    @Override
+    public Stream<Enrollment> streamEnrollments() {
+        Stream<Enrollment> live = enrollmentsByStudent.values().stream()
+                .flatMap(List::stream)
+                .map(VersionChain::latest)
+                .filter(Objects::nonNull)
+                .filter(enrollment -> !isArchived(enrollment.getSemester()));
+        return Stream.concat(live, archivedSegments(summary -> true).stream().flatMap(FrozenSemesterSegment::stream));
+    }
+
+    @Override
+    public Enrollment getEnrollment(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        FrozenSemesterSegment segment = frozenSegments.get(semester);
+        if (segment == null && spilledSemesters.containsKey(semester)) {
+            segment = coldSegments.get(semester);
+        }
+        if (segment != null) {
+            return segment.find(studentId, courseCode);
+        }
+        VersionChain<Enrollment> slot = enrollmentsByKey.get(new EnrollmentKey(studentId, courseCode, semester));
+        return slot == null ? null : slot.latest();
+    }
+
+    /**
+     * Swaps in a new state for the current enrollment of a section if it is still at
+     * {@code expectedVersion}. Seat accounting is not affected: use enroll/drop for that.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                                 long expectedVersion, @NonNull Enrollment updated) {
+        VersionChain<Enrollment> slot = enrollmentsByKey.get(new EnrollmentKey(studentId, courseCode, semester));
+        if (slot == null) return false;
+        Enrollment current = slot.latest();
+        if (current.getVersion() != expectedVersion) return false;
+        if (updated == current) {
+            throw new IllegalArgumentException("Updated enrollment must be a new instance; use Enrollment.copy()");
+        }
+        updated.setStudentId(current.getStudentId());
+        updated.setCourseCode(current.getCourseCode());
+        updated.setSemester(current.getSemester());
+        updated.setVersion(expectedVersion + 1);
+        if (!slot.compareAndSet(current, updated)) {
+            return false;
+        }
+        committed(ChangeType.ENROLLMENT_UPDATED, current, updated);
+        return true;
+    }
+
+    /**
+     * Drops the student from every section they are active in (promoting waitlists), then
+     * removes all of their enrollment records. Work is proportional to the student's own
+     * enrollments, plus a rebuild of each frozen semester they were enrolled in. Seat holds
+     * without an enrollment are released when they expire.
+     */
+    @Override
+    public int removeStudent(@NonNull String studentId) {
+        List<Enrollment> frozen = removeFrozen(summary -> summary.mayContainStudent(studentId),
+                segment -> segment.forStudent(studentId),
+                enrollment -> studentId.equals(enrollment.getStudentId()));
+        for (Enrollment enrollment : frozen) {
+            Set<String> roster = studentsByCourse.get(enrollment.getCourseCode());
+            if (roster != null) {
+                roster.remove(studentId);
+            }
+        }
+
+        List<VersionChain<Enrollment>> slots = enrollmentsByStudent.get(studentId);
+        if (slots == null) return frozen.size();
+
+        for (VersionChain<Enrollment> slot : slots) {
+            Enrollment enrollment = slot.latest();
+            if (!closedSemesters.contains(enrollment.getSemester())) {
+                leave(studentId, enrollment.getCourseCode(), enrollment.getSemester(), DROPPED);
+            }
+        }
+        enrollmentsByStudent.remove(studentId, slots);
+        for (VersionChain<Enrollment> slot : slots) {
+            Enrollment enrollment = slot.latest();
+            enrollmentsByKey.remove(new EnrollmentKey(studentId, enrollment.getCourseCode(), enrollment.getSemester()), slot);
+            chainsByCourse.computeIfPresent(enrollment.getCourseCode(), (k, courseSlots) -> {
+                courseSlots.remove(slot);
+                return courseSlots.isEmpty() ? null : courseSlots;
+            });
+            committed(ChangeType.ENROLLMENT_DELETED, enrollment, null);
+        }
+        return frozen.size() + slots.size();
+    }
+
+    /**
+     * Removes every enrollment, roster entry, seat ledger, hold and capacity setting of a
+     * course. Work is proportional to the course's own enrollments and sections, plus a
+     * rebuild of each frozen semester the course was offered in.
+     */
+    @Override
+    public int removeCourse(@NonNull String courseCode) {
+        int frozen = removeFrozen(summary -> summary.containsCourse(courseCode),
+                segment -> segment.forCourse(courseCode),
+                enrollment -> courseCode.equals(enrollment.getCourseCode())).size();
+
+        Set<SectionKey> sections = sectionsByCourse.remove(courseCode);
+        if (sections != null) {
+            for (SectionKey section : sections) {
+                SeatLedger ledger = ledgers.remove(section);
+                if (ledger != null) {
+                    // Holds without an enrollment record are only found through the ledger.
+                    for (String studentId : ledger.holders()) {
+                        holds.remove(new EnrollmentKey(studentId, courseCode, section.semester()));
+                    }
+                }
+                sectionCapacities.remove(section);
+            }
+        }
+        courseCapacities.remove(courseCode);
+        studentsByCourse.remove(courseCode);
+
+        Set<VersionChain<Enrollment>> slots = chainsByCourse.remove(courseCode);
+        if (slots == null) return frozen;
+        for (VersionChain<Enrollment> slot : slots) {
+            Enrollment enrollment = slot.latest();
+            String studentId = enrollment.getStudentId();
+            holds.remove(new EnrollmentKey(studentId, courseCode, enrollment.getSemester()));
+            enrollmentsByKey.remove(new EnrollmentKey(studentId, courseCode, enrollment.getSemester()), slot);
+            enrollmentsByStudent.computeIfPresent(studentId, (k, studentSlots) -> {
+                studentSlots.remove(slot);
+                return studentSlots.isEmpty() ? null : studentSlots;
+            });
+            committed(ChangeType.ENROLLMENT_DELETED, enrollment, null);
+        }
+        return frozen + slots.size();
+    }
+
+    /**
+     * Moves every enrollment of a closed semester into a read-only columnar segment and
+     * drops its live slots, seat ledgers, holds and capacity overrides. Reads keep returning
+     * the same enrollments; enrolling, dropping, grading, holding seats and changing the
+     * capacity of the semester are rejected from the moment the freeze starts.
+     *
+     * <p>Finding the semester's slots scans every student's enrollments once, which is
+     * fine for an end-of-term job. Writes to the semester already in progress when the
+     * freeze starts may be lost, so stop them first.</p>
+     *
+     * @param semester the semester to freeze.
+     * @return number of enrollments frozen.
+     * @throws IllegalArgumentException if the semester is already frozen.
+     */
+    @Override
+    public int freezeSemester(@NonNull String semester) {
+        String frozen = storageContext.intern(semester);
+        if (!closedSemesters.add(frozen)) {
+            throw new IllegalArgumentException("Semester " + frozen + " is already frozen");
+        }
+
+        List<VersionChain<Enrollment>> slots = new ArrayList<>();
+        List<Enrollment> rows = new ArrayList<>();
+        for (List<VersionChain<Enrollment>> studentSlots : enrollmentsByStudent.values()) {
+            for (VersionChain<Enrollment> slot : studentSlots) {
+                Enrollment enrollment = slot.latest();
+                if (frozen.equals(enrollment.getSemester())) {
+                    slots.add(slot);
+                    rows.add(enrollment);
+                }
+            }
+        }
+        frozenSegments.put(frozen, FrozenSemesterSegment.of(frozen, rows));
+
+        // Readers now skip live slots of this semester, so they can be dropped in any order.
+        for (VersionChain<Enrollment> slot : slots) {
+            Enrollment enrollment = slot.latest();
+            enrollmentsByKey.remove(
+                    new EnrollmentKey(enrollment.getStudentId(), enrollment.getCourseCode(), frozen), slot);
+            enrollmentsByStudent.computeIfPresent(enrollment.getStudentId(), (k, studentSlots) -> {
+                studentSlots.remove(slot);
+                return studentSlots.isEmpty() ? null : studentSlots;
+            });
+            chainsByCourse.computeIfPresent(enrollment.getCourseCode(), (k, courseSlots) -> {
+                courseSlots.remove(slot);
+                return courseSlots.isEmpty() ? null : courseSlots;
+            });
+        }
+        for (SectionKey section : ledgers.keySet()) {
+            if (frozen.equals(section.semester())) {
+                ledgers.remove(section);
+                sectionsByCourse.computeIfPresent(section.courseCode(), (k, sections) -> {
+                    sections.remove(section);
+                    return sections.isEmpty() ? null : sections;
+                });
+            }
+        }
+        sectionCapacities.keySet().removeIf(section -> frozen.equals(section.semester()));
+        holds.keySet().removeIf(key -> frozen.equals(key.semester()));
+        return rows.size();
+    }
+
+    /**
+     * Pages a frozen semester out to the context's {@link TieredStorage}. Its enrollments
+     * stay readable: a query that may touch the semester loads it back through the store's
+     * LRU page cache.
+     *
+     * @param semester a frozen semester.
+     * @return number of enrollments paged out.
+     * @throws IllegalStateException if the context has no tiered storage.
+     * @throws IllegalArgumentException if the semester is not frozen or already paged out.
+     */
+    public int spillSemester(@NonNull String semester) {
+        if (coldSegments == null) {
+            throw new IllegalStateException("Spilling semesters requires tiered storage");
+        }
+        int[] spilled = {-1};
+        // Runs inside the segment's map entry, so a concurrent cascade delete cannot rebuild
+        // the heap copy after it was written out.
+        frozenSegments.computeIfPresent(semester, (k, segment) -> {
+            coldSegments.put(k, segment);
+            spilledSemesters.put(k, segment.summary());
+            spilled[0] = segment.size();
+            return null;
+        });
+        if (spilled[0] < 0) {
+            throw new IllegalArgumentException("Semester " + semester + " is not frozen or is already spilled");
+        }
+        return spilled[0];
+    }
+
+    /**
+     * Sets one grade by swapping in a copy of the current enrollment, retrying on conflict.
+     */
+    @Override
+    public Enrollment recordGrade(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                                  @NonNull GradeType gradeType, double score) {
+        if (score < 0 || score > 100 || Double.isNaN(score)) {
+            throw new IllegalArgumentException("Score must be between 0 and 100");
+        }
+        requireOpen(semester);
+        VersionChain<Enrollment> slot = enrollmentsByKey.get(new EnrollmentKey(studentId, courseCode, semester));
+        if (slot == null) {
+            throw new IllegalArgumentException(
+                    "No enrollment for student " + studentId + " in " + courseCode + " " + semester);
+        }
+        for (;;) {
+            Enrollment current = slot.latest();
+            Enrollment updated = current.copy();
+            updated.getGrades().put(gradeType, score);
+            updated.setVersion(current.getVersion() + 1);
+            if (slot.compareAndSet(current, updated)) {
+                committed(ChangeType.GRADE_RECORDED, current, updated);
+                return updated;
+            }
+        }
     }
 
     @Override
     public List<String> getStudentsForCourse(String courseCode) {
-        Set<String> students  = studentsByCourse.getOrDefault(courseCode, ConcurrentHashMap.newKeySet());
+        return new ArrayList<>(rosterAfter(courseCode, null));
+    }
+
+    /**
+     * Seeks to the cursor in the course's roster skip list and reads on from there.
+     */
+    @Override
+    public Page<String> getStudentsForCourse(String courseCode, String cursor, int limit) {
+        Page.requireLimit(limit);
+        return Page.of(rosterAfter(courseCode, cursor), Function.identity(), limit);
+    }
+
+    /**
+     * Streams the course's roster skip list in ID order; its spliterator splits for
+     * parallel streams.
+     */
+    @Override
+    public Stream<String> streamStudentsForCourse(String courseCode) {
+        return rosterAfter(courseCode, null).stream();
+    }
+
+    /**
+     * @return a live view of the course's roster after the cursor (all if null).
+     */
+    private NavigableSet<String> rosterAfter(String courseCode, String cursor) {
+        NavigableSet<String> roster = courseCode == null ? null : studentsByCourse.get(courseCode);
+        if (roster == null) return Collections.emptyNavigableSet();
+        return cursor == null ? roster : roster.tailSet(cursor, false);
+    }
+
+    /**
+     * Rebuilds the roster from the enrollment versions visible at the snapshot timestamp.
+     */
+    @Override
+    public List<String> getStudentsForCourse(String courseCode, @NonNull Snapshot snapshot) {
+        long timestamp = snapshot.readTimestamp();
+        if (courseCode == null) return new ArrayList<>();
+        Set<VersionChain<Enrollment>> slots = chainsByCourse.getOrDefault(courseCode, Collections.emptySet());
+        Set<String> students = new LinkedHashSet<>();
+        for (VersionChain<Enrollment> slot : slots) {
+            Enrollment enrollment = slot.readAt(timestamp);
+            if (enrollment != null && enrollment.getStatus() == ENROLLED
+                    && !isArchived(enrollment.getSemester())) {
+                students.add(enrollment.getStudentId());
+            }
+        }
+        for (FrozenSemesterSegment segment : archivedSegments(summary -> summary.containsCourse(courseCode))) {
+            students.addAll(segment.enrolledIn(courseCode));
+        }
         return new ArrayList<>(students);
+    }
 
+    /**
+     * Creates the enrollment slot of a (re-)enrollment. Its version continues from the
+     * previous enrollment of the same section, so versions never go back for a key.
+     */
+    private VersionChain<Enrollment> addEnrollment(EnrollmentKey key, EnrollmentStatus status) {
+        VersionChain<Enrollment> previous = enrollmentsByKey.get(key);
+        Enrollment enrollment = new Enrollment(
+                key.studentId(),
+                key.courseCode(),
+                key.semester(),
+                status,
+                new EnumMap<>(GradeType.class),
+                new BitSet(),
+                previous == null ? 1 : previous.latest().getVersion() + 1
+        );
+        return insertSlot(key, enrollment);
+    }
+
+    /**
+     * Stores a new slot as the current enrollment of its key and publishes its creation.
+     */
+    private VersionChain<Enrollment> insertSlot(EnrollmentKey key, Enrollment enrollment) {
+        VersionChain<Enrollment> slot = new VersionChain<>(storageContext.getSnapshots(), enrollment);
+        enrollmentsByKey.put(key, slot);
+
+        enrollmentsByStudent
+                .computeIfAbsent(key.studentId(), k-> new CopyOnWriteArrayList<>())
+                .add(slot);
+        chainsByCourse
+                .computeIfAbsent(key.courseCode(), k -> ConcurrentHashMap.newKeySet())
+                .add(slot);
+        slot.publish();
+        committed(ChangeType.ENROLLMENT_CREATED, null, enrollment);
+        return slot;
+    }
+
+    /**
+     * Removes one slot of a key from every index and publishes its deletion.
+     */
+    private void removeSlot(EnrollmentKey key, VersionChain<Enrollment> slot) {
+        enrollmentsByKey.remove(key, slot);
+        enrollmentsByStudent.computeIfPresent(key.studentId(), (k, studentSlots) -> {
+            studentSlots.remove(slot);
+            return studentSlots.isEmpty() ? null : studentSlots;
+        });
+        chainsByCourse.computeIfPresent(key.courseCode(), (k, courseSlots) -> {
+            courseSlots.remove(slot);
+            return courseSlots.isEmpty() ? null : courseSlots;
+        });
+        committed(ChangeType.ENROLLMENT_DELETED, slot.latest(), null);
+    }
+
+    /**
+     * Sets an enrollment's status by swapping in a copy, retrying if another writer got there first.
+     */
+    private void updateStatus(VersionChain<Enrollment> slot, EnrollmentStatus status) {
+        for (;;) {
+            Enrollment current = slot.latest();
+            if (current.getStatus() == status) return;
+            Enrollment updated = current.copy();
+            updated.setStatus(status);
+            updated.setVersion(current.getVersion() + 1);
+            if (slot.compareAndSet(current, updated)) {
+                committed(statusChange(status), current, updated);
+                return;
+            }
+        }
+    }
+
+    private static ChangeType statusChange(EnrollmentStatus status) {
+        return switch (status) {
+            case ENROLLED -> ChangeType.ENROLLMENT_CONFIRMED;
+            case WITHDRAWN -> ChangeType.ENROLLMENT_WITHDRAWN;
+            case COMPLETED -> ChangeType.ENROLLMENT_COMPLETED;
+            default -> ChangeType.ENROLLMENT_DROPPED;
+        };
+    }
+
+    /**
+     * Publishes a committed enrollment change, records it in the enrollment ledger and
+     * applies it to the enrollment views and registration metrics, if any.
+     *
+     * @param before the record before the change, or null if it was created.
+     * @param after the record after the change, or null if it was deleted.
+     */
+    private void committed(ChangeType type, Enrollment before, Enrollment after) {
+        Enrollment enrollment = after != null ? after : before;
+        storageContext.publish(type, enrollment.getStudentId(), enrollment);
+        EnrollmentLedger history = storageContext.getEnrollmentLedger();
+        if (history != null) {
+            history.append(type, enrollment);
+        }
+        EnrollmentViews views = storageContext.getEnrollmentViews();
+        if (views != null) {
+            views.apply(before, after);
+        }
+        RegistrationMetrics metrics = storageContext.getRegistrationMetrics();
+        if (metrics != null) {
+            metrics.record(before, after);
+        }
+    }
+
+    /**
+     * Turns the student's current hold into an enrollment. An expired hold is released instead.
+     *
+     * @return true if the student is now enrolled in the held seat.
+     */
+    private boolean confirm(SeatLedger ledger, EnrollmentKey key) {
+        SeatHold hold = holds.get(key);
+        if (hold == null || !holds.remove(key, hold)) {
+            return false;
+        }
+        if (hold.isExpired(now())) {
+            if (ledger.releaseHold(key.studentId())) {
+                storageContext.publish(ChangeType.SEAT_RELEASED, key.studentId(), hold);
+                promote(ledger, key.section());
+            }
+            return false;
+        }
+        if (!ledger.confirmHold(key.studentId())) {
+            return false;
+        }
+        addEnrollment(key, ENROLLED);
+        markEnrolled(ledger, key);
+        return true;
+    }
+
+    /**
+     * Appends a student's enrollments in frozen semesters.
+     */
+    private void addFrozen(String studentId, List<Enrollment> result) {
+        for (FrozenSemesterSegment segment : archivedSegments(summary -> summary.mayContainStudent(studentId))) {
+            result.addAll(segment.forStudent(studentId));
+        }
+    }
+
+    private boolean isArchived(String semester) {
+        return frozenSegments.containsKey(semester) || spilledSemesters.containsKey(semester);
+    }
+
+    /**
+     * Frozen segments a query may need: every segment on the heap, plus the paged-out ones
+     * whose summary passes {@code mayMatch}, loaded through the store's page cache. A
+     * semester being paged out at the same time is returned once.
+     */
+    private List<FrozenSemesterSegment> archivedSegments(Predicate<FrozenSemesterSegment.Summary> mayMatch) {
+        List<FrozenSemesterSegment> result = new ArrayList<>(frozenSegments.values());
+        if (spilledSemesters.isEmpty()) return result;
+
+        Set<String> onHeap = new HashSet<>();
+        for (FrozenSemesterSegment segment : result) {
+            onHeap.add(segment.semester());
+        }
+        spilledSemesters.forEach((semester, summary) -> {
+            if (!onHeap.contains(semester) && mayMatch.test(summary)) {
+                FrozenSemesterSegment segment = coldSegments.get(semester);
+                if (segment != null) {
+                    result.add(segment);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Removes rows from the frozen segments, rebuilding only the segments that contain any.
+     * A paged-out segment is loaded only if its summary allows a match, and written back;
+     * the store reclaims the replaced copy when it compacts.
+     *
+     * @param mayMatch rules out paged-out segments from their summary.
+     * @param affected finds a segment's rows to remove (an index lookup).
+     * @param removed the same rows as a predicate, used for the rebuild.
+     * @return the removed rows.
+     */
+    private List<Enrollment> removeFrozen(Predicate<FrozenSemesterSegment.Summary> mayMatch,
+                                          Function<FrozenSemesterSegment, List<Enrollment>> affected,
+                                          Predicate<Enrollment> removed) {
+        List<Enrollment> result = new ArrayList<>();
+        for (String semester : frozenSegments.keySet()) {
+            List<Enrollment> rows = new ArrayList<>();
+            frozenSegments.computeIfPresent(semester, (k, segment) -> {
+                rows.addAll(affected.apply(segment));
+                return rows.isEmpty() ? segment : segment.without(removed);
+            });
+            result.addAll(rows);
+        }
+        for (String semester : spilledSemesters.keySet()) {
+            spilledSemesters.computeIfPresent(semester, (k, summary) -> {
+                if (!mayMatch.test(summary)) return summary;
+                FrozenSemesterSegment segment = coldSegments.get(k);
+                List<Enrollment> rows = affected.apply(segment);
+                if (rows.isEmpty()) return summary;
+                FrozenSemesterSegment kept = segment.without(removed);
+                coldSegments.put(k, kept);
+                result.addAll(rows);
+                return kept.summary();
+            });
+        }
+        for (Enrollment enrollment : result) {
+            committed(ChangeType.ENROLLMENT_DELETED, enrollment, null);
+        }
+        return result;
+    }
+
+    private void requireOpen(String semester) {
+        if (closedSemesters.contains(semester)) {
+            throw new IllegalArgumentException("Semester " + semester + " is frozen");
+        }
+    }
+
+    private Instant now() {
+        return storageContext.getClock().instant();
+    }
+
+    private SeatLedger ledgerFor(SectionKey section) {
+        SeatLedger ledger = ledgers.get(section);
+        if (ledger != null) return ledger;
+        indexSection(section);
+        return ledgers.computeIfAbsent(section, k -> new SeatLedger(resolveCapacity(k)));
+    }
+
+    private void indexSection(SectionKey section) {
+        sectionsByCourse.computeIfAbsent(section.courseCode(), k -> ConcurrentHashMap.newKeySet()).add(section);
+    }
+
+    private int resolveCapacity(SectionKey section) {
+        Integer capacity = sectionCapacities.get(section);
+        if (capacity == null) {
+            capacity = courseCapacities.get(section.courseCode());
+        }
+        return capacity == null || capacity == 0 ? SeatLedger.UNLIMITED : capacity;
+    }
+
+    private void applyCapacity(SectionKey section, SeatLedger ledger) {
+        ledger.setCapacity(resolveCapacity(section));
+        promote(ledger, section);
+    }
+
+    private void promote(SeatLedger ledger, SectionKey section) {
+        for (String studentId : ledger.promote()) {
+            markEnrolled(ledger, new EnrollmentKey(studentId, section.courseCode(), section.semester()));
+        }
+    }
+
+    /**
+     * Publishes a seat grant to the enrollment and the roster. If the student dropped
+     * concurrently, the ledger no longer lists them and the publication is undone.
+     */
+    private void markEnrolled(SeatLedger ledger, EnrollmentKey key) {
+        VersionChain<Enrollment> enrollment = enrollmentsByKey.get(key);
+        if (enrollment != null) {
+            updateStatus(enrollment, ENROLLED);
+        }
+        Set<String> roster = studentsByCourse.computeIfAbsent(key.courseCode(), k-> new ConcurrentSkipListSet<>());
+        roster.add(key.studentId());
+
+        if (ledger.stateOf(key.studentId()) != SeatLedger.State.ENROLLED) {
+            roster.remove(key.studentId());
+            if (enrollment != null) {
+                updateStatus(enrollment, DROPPED);
+            }
+        }
+    }
+
+    private static void validateCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
     }
 }
@@ -1,10 +1,12 @@
 package repository;
 
+import events.ChangeType;
 import lombok.NonNull;
 import model.Instructor;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import static util.StringUtils.tokenize;
 
@@ -16,18 +18,26 @@ import static util.StringUtils.tokenize;
  *   <li>Store Instructor objects using thread-safe collections.</li>
  *   <li>Provide quick lookups by instructor ID.</li>
  *   <li>Support name-based search using an inverted index for tokens.</li>
- *   <li>Maintain a reverse mapping from course codes to instructor IDs for quick association checks.</li>
+ *   <li>Maintain reverse mappings from course codes and department IDs to instructor IDs,
+ *       so "who teaches CS101" is a single index lookup instead of a scan.</li>
  * </ul>
  *
  * <p>Data Structures:
  * <ul>
  *   <li>{@link ConcurrentHashMap} for thread-safe ID-based storage.</li>
- *   <li>{@link HashMap} with {@link HashSet} for name token index (inverted index).</li>
- *   <li>{@link HashMap} with {@link HashSet} for course-to-instructors mapping.</li>
+ *   <li>{@link ConcurrentHashMap} with concurrent key sets for the name token,
+ *       course and department indexes. Readers never lock; writers are serialized
+ *       on the repository monitor so that all indexes change together.</li>
+ *   <li>A tombstone map of deleted instructors. A delete only removes the instructor
+ *       from {@code instructorsById}; lookups through the indexes skip IDs that no longer
+ *       resolve, and {@link #purgeTombstones(int)} removes their index entries later.</li>
  * </ul>
  * </p>
+ *
+ * <p>In {@link StorageMode#DICTIONARY_ENCODED} mode, the course codes an instructor
+ * teaches are replaced by their shared dictionary instances.</p>
  */
-public class InMemoryInstructorRepository implements InstructorRepository{
+public class InMemoryInstructorRepository implements InstructorRepository, Compactable {
 
     /**
      * Stores instructors by their unique ID.
@@ -39,13 +49,45 @@ public class InMemoryInstructorRepository implements InstructorRepository{
      * Inverted index mapping lowercase name tokens to sets of instructor IDs.
      * Example: "john" -> { "id1", "id2" }
      */
-    private final Map<String, Set<String>> nameTokenIndex = new HashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> nameTokenIndex = new ConcurrentHashMap<>();
 
     /**
      * Reverse mapping from course codes to sets of instructor IDs teaching that course.
      * Example: "CS101" -> { "instructor1", "instructor2" }
      */
-    private final Map<String, Set<String>> courseToInstructorIds = new HashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> courseToInstructorIds = new ConcurrentHashMap<>();
+
+    /**
+     * Reverse mapping from department IDs to sets of instructor IDs in that department.
+     * Example: "CS" -> { "instructor1", "instructor3" }
+     */
+    private final ConcurrentHashMap<String, Set<String>> departmentToInstructorIds = new ConcurrentHashMap<>();
+
+    /**
+     * Deleted instructors whose index entries are not purged yet.
+     */
+    private final ConcurrentHashMap<String, Instructor> tombstones = new ConcurrentHashMap<>();
+
+    /**
+     * Storage settings (layout mode and shared dictionary).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository that stores instructors as received.
+     */
+    public InMemoryInstructorRepository() {
+        this(StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository using the given storage settings.
+     *
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public InMemoryInstructorRepository(@NonNull StorageContext storageContext) {
+        this.storageContext = storageContext;
+    }
 
     /**
      * Creates a new instructor and updates all indexes.
@@ -60,19 +102,28 @@ public class InMemoryInstructorRepository implements InstructorRepository{
             throw new IllegalArgumentException("Instructor with this ID already exists or is invalid");
         }
 
+        Set<String> coursesTaught = new HashSet<>();
+        if (instructor.getCoursesTaught() != null) {
+            for (String courseCode : instructor.getCoursesTaught()) {
+                coursesTaught.add(storageContext.intern(courseCode));
+            }
+        }
+        instructor.setCoursesTaught(coursesTaught);
+        instructor.setDepartment(storageContext.intern(instructor.getDepartment()));
+
+        purgeTombstone(id);
         instructorsById.put(id, instructor);
 
         for (String token : tokenize(instructor.getName())) {
-            nameTokenIndex
-                    .computeIfAbsent(token.toLowerCase(), k -> new HashSet<>())
-                    .add(id);
+            addToIndex(nameTokenIndex, token.toLowerCase(), id);
         }
-        for (String courseCode : instructor.getCoursesTaught()) {
-            courseToInstructorIds
-                    .computeIfAbsent(courseCode, k -> new HashSet<>())
-                    .add(id);
+        for (String courseCode : coursesTaught) {
+            addToIndex(courseToInstructorIds, courseCode, id);
         }
-
+        if (instructor.getDepartment() != null) {
+            addToIndex(departmentToInstructorIds, instructor.getDepartment(), id);
+        }
+        storageContext.publish(ChangeType.INSTRUCTOR_CREATED, id, instructor);
     }
 
     @Override
@@ -82,40 +133,153 @@ public class InMemoryInstructorRepository implements InstructorRepository{
 
     @Override
     public List<Instructor> searchByNameToken(String token) {
-        Set<String> instructorIds = nameTokenIndex.getOrDefault(token.toLowerCase(), Collections.emptySet());
-        List<Instructor> result = new ArrayList<>();
-        for (String id : instructorIds) {
-            Instructor instructor = instructorsById.get(id);
-            if (instructor != null) {
-                result.add(instructor);
-            }
+        return resolve(nameTokenIndex.get(token.toLowerCase()));
+    }
+
+    /**
+     * Finds instructors teaching a course using the course index.
+     *
+     * @param courseCode the course code.
+     * @return matching instructors, empty if none.
+     */
+    @Override
+    public List<Instructor> findByCourse(@NonNull String courseCode) {
+        return resolve(courseToInstructorIds.get(courseCode));
+    }
+
+    /**
+     * Finds instructors of a department using the department index.
+     *
+     * @param departmentId the department ID.
+     * @return matching instructors, empty if none.
+     */
+    @Override
+    public List<Instructor> findByDepartment(@NonNull String departmentId) {
+        return resolve(departmentToInstructorIds.get(departmentId));
+    }
+
+    @Override
+    public List<Instructor> listAll() {
+        return new ArrayList<>(instructorsById.values());
+    }
+
+    /**
+     * Assigns a course to an instructor. The instructor's course set is replaced
+     * rather than mutated, so readers iterating the old set are never disturbed.
+     *
+     * @param instructorId the instructor's unique identifier.
+     * @param courseCode the course code to assign.
+     * @throws IllegalArgumentException if the instructor does not exist.
+     */
+    @Override
+    public void assignCourse(@NonNull String instructorId, @NonNull String courseCode) {
+        assignCourse(instructorId, courseCode, taught -> { });
+    }
+
+    /**
+     * Assigns a course if the check passes; the check runs on the repository monitor.
+     */
+    @Override
+    public synchronized void assignCourse(@NonNull String instructorId, @NonNull String courseCode,
+                                          @NonNull Consumer<Set<String>> check) {
+        Instructor instructor = instructorsById.get(instructorId);
+        if (instructor == null) {
+            throw new IllegalArgumentException("Instructor not found: " + instructorId);
         }
-        return result;
+        String code = storageContext.intern(courseCode);
+        if (instructor.getCoursesTaught().contains(code)) return;
+        check.accept(Collections.unmodifiableSet(instructor.getCoursesTaught()));
+
+        Set<String> updated = new HashSet<>(instructor.getCoursesTaught());
+        updated.add(code);
+        instructor.setCoursesTaught(updated);
+        addToIndex(courseToInstructorIds, code, instructorId);
+        storageContext.publish(ChangeType.INSTRUCTOR_COURSE_ASSIGNED, instructorId, code);
     }
 
+    @Override
+    public synchronized void unassignCourse(@NonNull String instructorId, @NonNull String courseCode) {
+        Instructor instructor = instructorsById.get(instructorId);
+        if (instructor == null || !instructor.getCoursesTaught().contains(courseCode)) return;
+
+        Set<String> updated = new HashSet<>(instructor.getCoursesTaught());
+        updated.remove(courseCode);
+        instructor.setCoursesTaught(updated);
+        removeFromIndex(courseToInstructorIds, courseCode, instructorId);
+        storageContext.publish(ChangeType.INSTRUCTOR_COURSE_UNASSIGNED, instructorId, courseCode);
+    }
+
+    /**
+     * Deletes an instructor. Only the primary entry is removed here; the name, course and
+     * department index entries are purged later (see {@link #purgeTombstones(int)}).
+     */
     @Override
     public synchronized void deleteInstructor(String id) {
-        Instructor instructor = instructorsById.remove(id);
+        Instructor instructor = id == null ? null : instructorsById.remove(id);
         if (instructor == null) return;
 
+        tombstones.put(id, instructor);
+        storageContext.publish(ChangeType.INSTRUCTOR_DELETED, id, null);
+    }
+
+    @Override
+    public int pendingTombstones() {
+        return tombstones.size();
+    }
+
+    /**
+     * Purges tombstones one at a time, releasing the monitor between them so writers are
+     * never held up for a whole batch.
+     */
+    @Override
+    public int purgeTombstones(int maxEntries) {
+        int purged = 0;
+        for (String id : tombstones.keySet()) {
+            if (purged >= maxEntries) break;
+            if (purgeTombstone(id)) purged++;
+        }
+        return purged;
+    }
+
+    private synchronized boolean purgeTombstone(String id) {
+        Instructor instructor = tombstones.remove(id);
+        if (instructor == null) return false;
+
         for (String token : tokenize(instructor.getName())) {
-            Set<String> ids = nameTokenIndex.get(token.toLowerCase());
-            if (ids != null) {
-                ids.remove(id);
-                if (ids.isEmpty()) {
-                    nameTokenIndex.remove(token.toLowerCase());
-                }
-            }
+            removeFromIndex(nameTokenIndex, token.toLowerCase(), id);
         }
         for (String courseCode : instructor.getCoursesTaught()) {
-            Set<String> ids = courseToInstructorIds.get(courseCode);
-            if (ids != null) {
-                ids.remove(id);
-                if (ids.isEmpty()) {
-                    courseToInstructorIds.remove(courseCode);
-                }
+            removeFromIndex(courseToInstructorIds, courseCode, id);
+        }
+        if (instructor.getDepartment() != null) {
+            removeFromIndex(departmentToInstructorIds, instructor.getDepartment(), id);
+        }
+        return true;
+    }
+
+    private List<Instructor> resolve(Set<String> instructorIds) {
+        if (instructorIds == null) return new ArrayList<>();
+        List<Instructor> result = new ArrayList<>(instructorIds.size());
+        for (String id : instructorIds) {
+            Instructor instructor = instructorsById.get(id);
+            if (instructor != null) {
+                result.add(instructor);
             }
         }
+        return result;
+    }
+
+    private static void addToIndex(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
 
+    /**
+     * Removes an ID from an index entry, dropping the entry atomically once it is empty.
+     */
+    private static void removeFromIndex(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
     }
 }
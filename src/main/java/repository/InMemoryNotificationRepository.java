@@ -1,10 +1,14 @@
 package repository;
 
+import codec.ModelCodecs;
+import events.ChangeType;
 import lombok.NonNull;
 import model.Notification;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
 
 /**
  * In-memory implementation of the {@link NotificationRepository} interface.
@@ -13,12 +17,29 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Store notifications in memory.
  * - Provide quick lookups by recipient ID.
  * - Fetch pending notifications for background processing.
+ * - Page through or lazily stream both listings in ID order.
  *
  * Data Structures:
  * - notificationsById: ConcurrentHashMap for O(1) lookups by notification ID.
- * - notificationsByRecipient: HashMap with HashSet for recipient-based lookups.
+ * - notificationsByRecipient: ConcurrentHashMap with sorted concurrent sets (skip lists) for
+ *   recipient-based lookups; a page seeks straight to its cursor.
+ * - pendingIds: skip list of the IDs of unsent notifications, so the backlog is listed
+ *   without scanning sent ones. An ID may linger briefly after its notification is sent;
+ *   readers skip it.
+ * - tombstones: ConcurrentHashMap (id -> deleted notification) whose recipient entry is not purged yet.
+ * - coldStore: when the context has {@link TieredStorage}, sent notifications are paged out to a
+ *   {@link PagedFileStore} and read back on demand, so notificationsById only holds pending ones.
+ *   The recipient index keeps the IDs of both, and the store keeps an index entry per paged
+ *   notification: paging bounds the heap cost of a sent notification, not their number.
+ *
+ * Concurrency:
+ * - No method takes a lock. A delete removes the notification from notificationsById, which
+ *   recipient lookups already skip; {@link #purgeTombstones(int)} cleans the recipient index later.
  */
-public class InMemoryNotificationRepository implements NotificationRepository{
+public class InMemoryNotificationRepository implements NotificationRepository, Compactable {
+
+    /** Binary form of a paged-out notification. */
+    private static final RecordCodec<Notification> CODEC = RecordCodec.of(ModelCodecs.NOTIFICATION);
 
     /**
      * Stores notifications by their unique ID.
@@ -30,27 +51,66 @@ public class InMemoryNotificationRepository implements NotificationRepository{
      * Maps recipient IDs to sets of notification IDs.
      * Example: "recipientID123" -> { "notif1", "notif2" }
      */
-    private final Map<String, Set<String>> notificationsByRecipient = new HashMap<>();
+    private final ConcurrentHashMap<String, NavigableSet<String>> notificationsByRecipient = new ConcurrentHashMap<>();
+
+    /**
+     * IDs of the notifications not sent yet, sorted.
+     */
+    private final NavigableSet<String> pendingIds = new ConcurrentSkipListSet<>();
+
+    /**
+     * Deleted notifications whose IDs are still in a recipient's set.
+     */
+    private final ConcurrentHashMap<String, Notification> tombstones = new ConcurrentHashMap<>();
+
+    /**
+     * Storage settings (shared change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Sent notifications paged out to disk; null without tiered storage.
+     */
+    private final PagedFileStore<Notification> coldStore;
+
+    /**
+     * Creates a repository with its own storage context.
+     */
+    public InMemoryNotificationRepository() {
+        this(StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository using the given storage settings.
+     *
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public InMemoryNotificationRepository(@NonNull StorageContext storageContext) {
+        this.storageContext = storageContext;
+        TieredStorage tieredStorage = storageContext.getTieredStorage();
+        this.coldStore = tieredStorage == null ? null : tieredStorage.open("notifications", CODEC);
+    }
 
     @Override
-    public synchronized void addNotification(@NonNull Notification notification) {
+    public void addNotification(@NonNull Notification notification) {
         String notificationId = notification.getId();
-        if(notificationsById.containsKey(notificationId)){return;}
-        notificationsById.put(notificationId, notification);
-
-        String recipientId = notification.getRecipientId();
-        notificationsByRecipient
-                .computeIfAbsent(recipientId, k-> new HashSet<>())
-                .add(notificationId);
+        if(coldStore != null && coldStore.contains(notificationId)){return;}
+        if(notificationsById.putIfAbsent(notificationId, notification) != null){return;}
 
+        purgeTombstone(notificationId);
+        addToIndex(notification.getRecipientId(), notificationId);
+        if (!notification.isSent()) {
+            pendingIds.add(notificationId);
+            if (notification.isSent()) pendingIds.remove(notificationId); // Sent meanwhile.
+        }
+        storageContext.publish(ChangeType.NOTIFICATION_CREATED, notificationId, notification);
     }
 
     @Override
     public List<Notification> getNotificationsForRecipient(String recipientId) {
-        Set<String> notifIds = notificationsByRecipient.getOrDefault(recipientId, Collections.emptySet());
         List<Notification> result = new ArrayList<>();
-        for (String id : notifIds) {
-            Notification n = notificationsById.get(id);
+        for (String id : recipientIdsAfter(recipientId, null)) {
+            Notification n = find(id);
             if (n != null) {
                 result.add(n);
             }
@@ -58,35 +118,178 @@ public class InMemoryNotificationRepository implements NotificationRepository{
         return result;
     }
 
+    /**
+     * Lists the pending notifications through the pending index, in ID order.
+     */
     @Override
     public List<Notification> getPendingNotifications() {
         List<Notification> result = new ArrayList<>();
-        for (Notification n : notificationsById.values()) {
-            if (!n.isSent()) {
+        for (String id : pendingIds) {
+            Notification n = pending(id);
+            if (n != null) {
                 result.add(n);
             }
         }
         return result;
     }
 
+    @Override
+    public Page<Notification> getNotificationsForRecipient(String recipientId, String cursor, int limit) {
+        Page.requireLimit(limit);
+        return Page.of(recipientIdsAfter(recipientId, cursor), this::find, limit);
+    }
+
+    @Override
+    public Page<Notification> getPendingNotifications(String cursor, int limit) {
+        Page.requireLimit(limit);
+        return Page.of(cursor == null ? pendingIds : pendingIds.tailSet(cursor, false), this::pending, limit);
+    }
+
+    /**
+     * Streams the recipient's ID skip list in order; its spliterator splits for parallel streams.
+     */
+    @Override
+    public Stream<Notification> streamNotificationsForRecipient(String recipientId) {
+        return recipientIdsAfter(recipientId, null).stream().map(this::find).filter(Objects::nonNull);
+    }
+
+    /**
+     * Streams the pending index in ID order; its spliterator splits for parallel streams.
+     */
+    @Override
+    public Stream<Notification> streamPendingNotifications() {
+        return pendingIds.stream().map(this::pending).filter(Objects::nonNull);
+    }
+
+    /**
+     * Marks a notification as sent. With tiered storage it is then paged out: it is written
+     * to disk before leaving the heap, so readers always find it in one tier or the other.
+     */
     @Override
     public void markAsSent(@NonNull String notificationId) {
         Notification notification = notificationsById.get(notificationId);
+        if (notification == null && coldStore != null && coldStore.contains(notificationId)) {
+            return;  // already sent and paged out
+        }
         notification.setSent(true);
+        pendingIds.remove(notificationId);
+        storageContext.publish(ChangeType.NOTIFICATION_SENT, notificationId, notification);
+        if (coldStore != null) {
+            coldStore.put(notificationId, notification);
+            notificationsById.remove(notificationId, notification);
+        }
+    }
 
+    /**
+     * Deletes a notification. Its recipient index entry is purged later
+     * (see {@link #purgeTombstones(int)}).
+     */
+    @Override
+    public void deleteNotification(@NonNull String notificationId) {
+        Notification removed = notificationsById.remove(notificationId);
+        Notification notification = removed == null && coldStore != null ? coldStore.remove(notificationId) : removed;
+        Objects.requireNonNull(notification, "Notification not found: " + notificationId);
+        pendingIds.remove(notificationId);
+        tombstones.compute(notificationId, (k, older) -> {
+            if (older != null) purgeIndex(k, older);
+            return notification;
+        });
+        storageContext.publish(ChangeType.NOTIFICATION_DELETED, notificationId, null);
     }
 
+    /**
+     * Deletes all of a recipient's notifications. The recipient's whole index entry is
+     * dropped in one step, so no tombstones are needed.
+     */
     @Override
-    public synchronized void deleteNotification(@NonNull String notificationId) {
-        Notification notification = notificationsById.remove(notificationId);
-        // rep - {'notid', ''}
-        Set<String> notificationIds = notificationsByRecipient.getOrDefault(notification.getRecipientId(), Collections.emptySet());
-        if(notificationIds != null){
-            notificationIds.remove(notificationId);
-            if(notificationIds.isEmpty()){
-                notificationsByRecipient.remove(notification.getRecipientId());
+    public int deleteForRecipient(@NonNull String recipientId) {
+        Set<String> notificationIds = notificationsByRecipient.remove(recipientId);
+        if (notificationIds == null) return 0;
+        for (String notificationId : notificationIds) {
+            pendingIds.remove(notificationId);
+            if (notificationsById.remove(notificationId) == null && coldStore != null) {
+                coldStore.remove(notificationId);
             }
+            storageContext.publish(ChangeType.NOTIFICATION_DELETED, notificationId, null);
         }
+        return notificationIds.size();
+    }
+
+    @Override
+    public int pendingTombstones() {
+        return tombstones.size();
+    }
+
+    @Override
+    public int purgeTombstones(int maxEntries) {
+        int purged = 0;
+        for (String id : tombstones.keySet()) {
+            if (purged >= maxEntries) break;
+            if (purgeTombstone(id)) purged++;
+        }
+        return purged;
+    }
+
+    /**
+     * Removes a deleted notification from its recipient's set. Runs inside the tombstone's
+     * map entry, so it never races with re-adding the same notification ID.
+     */
+    private boolean purgeTombstone(String notificationId) {
+        boolean[] purged = new boolean[1];
+        tombstones.computeIfPresent(notificationId, (k, deleted) -> {
+            purgeIndex(k, deleted);
+            purged[0] = true;
+            return null;
+        });
+        return purged[0];
+    }
+
+    /**
+     * Keeps the entry if a live notification with the same ID and recipient was added
+     * while the tombstone was pending.
+     */
+    private void purgeIndex(String notificationId, Notification deleted) {
+        Notification live = find(notificationId);
+        if (live != null && Objects.equals(live.getRecipientId(), deleted.getRecipientId())) return;
+
+        if (deleted.getRecipientId() == null) return;
+        notificationsByRecipient.computeIfPresent(deleted.getRecipientId(), (k, ids) -> {
+            ids.remove(notificationId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * @return the notification from either tier, or null.
+     */
+    private Notification find(String notificationId) {
+        Notification notification = notificationsById.get(notificationId);
+        return notification == null && coldStore != null ? coldStore.get(notificationId) : notification;
+    }
+
+    /**
+     * @return the pending notification with this ID, or null if it is gone or sent.
+     */
+    private Notification pending(String notificationId) {
+        Notification notification = notificationsById.get(notificationId);
+        return notification == null || notification.isSent() ? null : notification;
+    }
+
+    /**
+     * @return a live view of the recipient's notification IDs after the cursor (all if null).
+     */
+    private NavigableSet<String> recipientIdsAfter(String recipientId, String cursor) {
+        NavigableSet<String> ids = recipientId == null ? null : notificationsByRecipient.get(recipientId);
+        if (ids == null) return Collections.emptyNavigableSet();
+        return cursor == null ? ids : ids.tailSet(cursor, false);
+    }
 
+    private void addToIndex(String recipientId, String notificationId) {
+        if (recipientId == null) return;
+        notificationsByRecipient.compute(recipientId, (k, ids) -> {
+            NavigableSet<String> result = ids == null ? new ConcurrentSkipListSet<>() : ids;
+            result.add(notificationId);
+            return result;
+        });
     }
 }
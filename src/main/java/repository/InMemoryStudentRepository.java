@@ -1,9 +1,12 @@
 package repository;
 
+import events.ChangeType;
+import lombok.NonNull;
 import model.Student;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static util.StringUtils.tokenize;
 
@@ -15,31 +18,73 @@ import static util.StringUtils.tokenize;
  * - Provide fast lookups by ID.
  * - Provide name-based search using an inverted index.
  * - Maintain unique email constraint.
+ * - Replace students with an optimistic compare-and-set on their version.
+ * - Serve point-in-time reads through a {@link Snapshot}.
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
  *
  * Data Structures:
- * - studentsById: ConcurrentHashMap for thread-safe student storage.
- * - nameTokenIndex: HashMap (token -> set of student IDs) for name-based search.
- * - emailToId: HashMap for quick email-to-ID lookup.
+ * - studentsById: ConcurrentHashMap of {@link VersionChain}s, newest version first, so that
+ *   open snapshots keep reading the versions they started with.
+ * - nameTokenIndex: ConcurrentHashMap (token -> concurrent set of student IDs) for name-based search.
+ * - emailToId: ConcurrentHashMap for quick email-to-ID lookup; putIfAbsent reserves an email atomically.
+ * - tombstones: ConcurrentHashMap (id -> deleted student) whose name tokens are not purged yet.
+ *   A delete is an O(1) tombstone on the version chain; searches skip deleted IDs, and the
+ *   token index is cleaned later by {@link #purgeTombstones(int)}.
+ *
+ * Concurrency:
+ * - No method takes a lock. Stored students are never modified in place: a writer
+ *   builds a new instance and pushes it onto the student's version chain with a CAS,
+ *   so writers to different students never contend, the loser of a race on the same
+ *   student gets false and retries, and readers always see a complete student.
+ *
+ * Storage:
+ * - In {@link StorageMode#DICTIONARY_ENCODED} mode, attribute maps are converted to
+ *   {@link util.CompactAttributeMap} so attribute keys are shared across all students.
  */
-public class InMemoryStudentRepository implements StudentRepository{
+public class InMemoryStudentRepository implements StudentRepository, Compactable {
 
     /**
      * Stores students by their unique ID.
      * Thread-safe because of concurrent access in multi-threaded environments.
      */
-    private final ConcurrentHashMap<String, Student> studentsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VersionChain<Student>> studentsById = new ConcurrentHashMap<>();
+
+    /**
+     * Maps email addresses to student IDs for uniqueness checks and lookups.
+     */
+    private final ConcurrentHashMap<String, String> emailToId = new ConcurrentHashMap<>();
 
     /**
      * Inverted index mapping lowercase name tokens to sets of student IDs.
      * Example: "john" -> { "id1", "id2" }
      */
-    private final Map<String, String> emailToId = new HashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> nameTokenIndex = new ConcurrentHashMap<>();
 
     /**
-     * Maps email addresses to student IDs for uniqueness checks and lookups.
+     * Deleted students whose name tokens are still in the index.
+     */
+    private final ConcurrentHashMap<String, Student> tombstones = new ConcurrentHashMap<>();
+
+    /**
+     * Storage settings (layout mode and shared dictionary).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository that stores students as received.
      */
-    private final Map<String, Set<String>> nameTokenIndex = new HashMap<>();
+    public InMemoryStudentRepository() {
+        this(StorageContext.standard());
+    }
 
+    /**
+     * Creates a repository using the given storage settings.
+     *
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public InMemoryStudentRepository(@NonNull StorageContext storageContext) {
+        this.storageContext = storageContext;
+    }
 
     /**
      * Creates a new student and updates all indexes.
@@ -48,7 +93,7 @@ public class InMemoryStudentRepository implements StudentRepository{
      * @throws IllegalArgumentException if a student with the same ID or email already exists.
      */
     @Override
-    public synchronized void createStudent(Student student) {
+    public void createStudent(Student student) {
         if(student == null){ throw new IllegalArgumentException("Student cannot be null");}
 
         String id = student.getId();
@@ -58,19 +103,22 @@ public class InMemoryStudentRepository implements StudentRepository{
             throw new IllegalArgumentException("Student, id, email cannot be null");
         }
 
-        if(studentsById.containsKey(id) || emailToId.containsKey(email)){
+        if(getById(id) != null || emailToId.putIfAbsent(email, id) != null){
             throw new IllegalArgumentException("Student with this id or email already exists");
         }
 
-        studentsById.put(id, student);
-        emailToId.put(email, id);
-        for(String token : tokenize(student.getFullName())){
-            nameTokenIndex
-                    .computeIfAbsent(token.toLowerCase(), k -> new HashSet<>())
-                    .add(id);
-        }
-
+        student.setAttributes(storageContext.compactAttributes(student.getAttributes()));
+        student.setVersion(1);
 
+        if(!insert(id, student)){
+            emailToId.remove(email, id);
+            throw new IllegalArgumentException("Student with this id or email already exists");
+        }
+        purgeTombstone(id);
+        for(String token : nameTokens(student.getFullName())){
+            addToIndex(nameTokenIndex, token, id);
+        }
+        storageContext.publish(ChangeType.STUDENT_CREATED, id, student);
     }
 
 
@@ -83,7 +131,18 @@ public class InMemoryStudentRepository implements StudentRepository{
      */
     @Override
     public Student getById(String id) {
-        return studentsById.get(id);
+        VersionChain<Student> chain = studentsById.get(id);
+        return chain == null ? null : chain.latest();
+    }
+
+    /**
+     * Retrieves a student as it was when the snapshot was opened.
+     */
+    @Override
+    public Student getById(String id, @NonNull Snapshot snapshot) {
+        long timestamp = snapshot.readTimestamp();
+        VersionChain<Student> chain = studentsById.get(id);
+        return chain == null ? null : chain.readAt(timestamp);
     }
 
 
@@ -99,7 +158,7 @@ public class InMemoryStudentRepository implements StudentRepository{
         Set<String> studentIds = nameTokenIndex.getOrDefault(token.toLowerCase(), Collections.emptySet());
         List<Student> result = new ArrayList<>();
         for(String id : studentIds){
-            Student student = studentsById.get(id);
+            Student student = getById(id);
             if(student != null){
                 result.add(student);
             }
@@ -109,26 +168,184 @@ public class InMemoryStudentRepository implements StudentRepository{
 
 
     /**
-     * Deletes a student by their ID and removes all associated indexes.
+     * Replaces a student if it is still at {@code expectedVersion}, then moves its
+     * email reservation and name tokens. The new email is reserved before the swap,
+     * so two students can never end up sharing one.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String id, long expectedVersion, @NonNull Student updated) {
+        VersionChain<Student> chain = studentsById.get(id);
+        Student current = chain == null ? null : chain.latest();
+        if (current == null || current.getVersion() != expectedVersion) {
+            return false;
+        }
+        if (updated == current) {
+            throw new IllegalArgumentException("Updated student must be a new instance; use Student.copy()");
+        }
+        String email = updated.getEmail();
+        if (email == null) {
+            throw new IllegalArgumentException("Student, id, email cannot be null");
+        }
+
+        boolean emailChanged = !email.equals(current.getEmail());
+        if (emailChanged) {
+            String owner = emailToId.putIfAbsent(email, id);
+            if (owner != null && !owner.equals(id)) {
+                throw new IllegalArgumentException("Student with this id or email already exists");
+            }
+        }
+
+        updated.setId(id);
+        updated.setVersion(expectedVersion + 1);
+        updated.setAttributes(storageContext.compactAttributes(updated.getAttributes()));
+
+        if (!chain.compareAndSet(current, updated)) {
+            if (emailChanged) {
+                releaseEmail(email, id);
+            }
+            return false;
+        }
+
+        if (emailChanged) {
+            releaseEmail(current.getEmail(), id);
+        }
+        Set<String> oldTokens = nameTokens(current.getFullName());
+        Set<String> newTokens = nameTokens(updated.getFullName());
+        for (String token : oldTokens) {
+            if (!newTokens.contains(token)) removeFromIndex(nameTokenIndex, token, id);
+        }
+        for (String token : newTokens) {
+            if (!oldTokens.contains(token)) addToIndex(nameTokenIndex, token, id);
+        }
+        storageContext.publish(ChangeType.STUDENT_UPDATED, id, updated);
+        return true;
+    }
+
+    /**
+     * Deletes a student by their ID. The student disappears from reads at once and the
+     * email is released; name tokens are purged later (see {@link #purgeTombstones(int)}).
      *
      * @param id the student's unique identifier.
      */
     @Override
-    public synchronized void deleteStudent(String id) {
+    public void deleteStudent(String id) {
+
+        VersionChain<Student> chain = studentsById.get(id);
+        if(chain == null) return;
+
+        Student student;
+        do {
+            student = chain.latest();
+            if(student == null) return;
+        } while(!chain.delete(student, () -> studentsById.remove(id, chain)));
+
+        emailToId.remove(student.getEmail(), id);
+
+        Student deleted = student;
+        tombstones.compute(id, (k, older) -> {
+            if (older != null) purgeIndexes(k, older);
+            return deleted;
+        });
+        storageContext.publish(ChangeType.STUDENT_DELETED, id, null);
+    }
+
+    @Override
+    public int pendingTombstones() {
+        return tombstones.size();
+    }
 
-        Student student = studentsById.remove(id);
-        if(student == null) return;
+    @Override
+    public int purgeTombstones(int maxEntries) {
+        int purged = 0;
+        for (String id : tombstones.keySet()) {
+            if (purged >= maxEntries) break;
+            if (purgeTombstone(id)) purged++;
+        }
+        return purged;
+    }
 
-        emailToId.remove(student.getEmail());
+    /**
+     * Purges a deleted student's tokens. Runs inside the tombstone's map entry, so a
+     * re-created student with the same ID never has its fresh tokens purged.
+     */
+    private boolean purgeTombstone(String id) {
+        boolean[] purged = new boolean[1];
+        tombstones.computeIfPresent(id, (k, deleted) -> {
+            purgeIndexes(k, deleted);
+            purged[0] = true;
+            return null;
+        });
+        return purged[0];
+    }
 
-        for(String token : tokenize(student.getFullName())){
-            Set<String> ids = nameTokenIndex.get(token.toLowerCase());
-            if(ids != null){
-                ids.remove(id);
-                if(ids.isEmpty()){
-                    nameTokenIndex.remove(token.toLowerCase());
-                }
+    /**
+     * Removes a deleted student's tokens, keeping those a live student with the same ID
+     * (re-created while the tombstone was pending) still needs.
+     */
+    private void purgeIndexes(String id, Student deleted) {
+        Student live = getById(id);
+        Set<String> kept = live == null ? Collections.emptySet() : nameTokens(live.getFullName());
+        for (String token : nameTokens(deleted.getFullName())) {
+            if (!kept.contains(token)) removeFromIndex(nameTokenIndex, token, id);
+        }
+    }
+
+    /**
+     * Drops an email reservation unless the stored student still uses it.
+     */
+    private void releaseEmail(String email, String id) {
+        Student stored = getById(id);
+        if (stored == null || !email.equals(stored.getEmail())) {
+            emailToId.remove(email, id);
+        }
+    }
+
+    /**
+     * Stores the first version of a student, reusing the chain of a deleted one that a
+     * snapshot can still see and replacing a retired chain.
+     *
+     * @return false if a live student already has this ID.
+     */
+    private boolean insert(String id, Student student) {
+        VersionChain<Student> chain = new VersionChain<>(storageContext.getSnapshots(), student);
+        for (;;) {
+            VersionChain<Student> existing = studentsById.putIfAbsent(id, chain);
+            if (existing == null) {
+                chain.publish();
+                return true;
+            }
+            if (existing.isRetired()) {
+                studentsById.remove(id, existing);
+            } else if (existing.latest() != null) {
+                return false;
+            } else if (existing.compareAndSet(null, student)) {
+                return true;
             }
         }
     }
+
+    private static Set<String> nameTokens(String fullName) {
+        return tokenize(fullName).stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+
+    /**
+     * Adds an ID to an index entry. Uses compute so it cannot race with the removal of an empty entry.
+     */
+    private static void addToIndex(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        index.compute(key, (k, ids) -> {
+            Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+    }
+
+    /**
+     * Removes an ID from an index entry, dropping the entry atomically once it is empty.
+     */
+    private static void removeFromIndex(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
 }
@@ -3,6 +3,8 @@ package repository;
 import model.Instructor;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for managing Instructor entities.
@@ -12,6 +14,8 @@ import java.util.List;
  *   <li>Create and store new instructors.</li>
  *   <li>Retrieve instructors by ID.</li>
  *   <li>Search instructors by name token (partial name match).</li>
+ *   <li>Find instructors by course taught or by home department.</li>
+ *   <li>Assign and unassign courses while keeping indexes in sync.</li>
  *   <li>Delete instructors by ID.</li>
  * </ul>
  *
@@ -45,6 +49,60 @@ public interface InstructorRepository {
      */
     List<Instructor> searchByNameToken(String token);
 
+    /**
+     * Finds all instructors teaching a course.
+     *
+     * @param courseCode the course code (e.g., "CS101").
+     * @return instructors teaching the course, empty if none.
+     */
+    List<Instructor> findByCourse(String courseCode);
+
+    /**
+     * Finds all instructors whose home department is the given one.
+     *
+     * @param departmentId the department ID (e.g., "CS").
+     * @return instructors of the department, empty if none.
+     */
+    List<Instructor> findByDepartment(String departmentId);
+
+    /**
+     * Lists all instructors.
+     *
+     * @return a list of all instructors, empty if none.
+     */
+    List<Instructor> listAll();
+
+    /**
+     * Adds a course to an instructor's teaching set and updates the course index.
+     *
+     * @param instructorId the instructor's unique identifier.
+     * @param courseCode the course code to assign.
+     * @throws IllegalArgumentException if the instructor does not exist.
+     */
+    void assignCourse(String instructorId, String courseCode);
+
+    /**
+     * Adds a course to an instructor's teaching set if a check of the courses already taught
+     * passes. The check and the assignment are atomic with respect to every other write to
+     * the instructor, so two concurrent checked assignments cannot both pass against a
+     * teaching set that neither of them sees the other in.
+     *
+     * @param instructorId the instructor's unique identifier.
+     * @param courseCode the course code to assign.
+     * @param check called with the course codes the instructor teaches now; throws to refuse
+     *              the assignment. Not called if the course is already assigned.
+     * @throws IllegalArgumentException if the instructor does not exist.
+     */
+    void assignCourse(String instructorId, String courseCode, Consumer<Set<String>> check);
+
+    /**
+     * Removes a course from an instructor's teaching set and updates the course index.
+     *
+     * @param instructorId the instructor's unique identifier.
+     * @param courseCode the course code to remove.
+     */
+    void unassignCourse(String instructorId, String courseCode);
+
     /**
      * Deletes an instructor by their unique ID and removes all associated indexes.
      *
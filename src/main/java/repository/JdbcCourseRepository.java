@@ -0,0 +1,386 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import model.Course;
+import model.TimeSlot;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * JDBC implementation of the CourseRepository interface.
+ *
+ * Responsibilities:
+ * - Store courses, their prerequisites and their scheduled time slots in a {@link JdbcDatabase}.
+ * - List a department's courses in alphabetical order through an index on the department column.
+ * - Replace courses with an optimistic compare-and-set on their version column.
+ * - Load many courses at once with JDBC batches ({@link #createCourses}).
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
+ *
+ * Tables:
+ * - courses (code primary key, indexed by department): one row per course.
+ * - course_prerequisites (course_code, prerequisite) and course_slots (course_code, day,
+ *   start, end): the course's sets, keyed by course so they load with one range scan.
+ *
+ * A department listing costs three indexed queries (courses, prerequisites, slots)
+ * whatever the number of courses. Snapshot reads are not supported.
+ */
+public class JdbcCourseRepository implements CourseRepository {
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS courses (code VARCHAR(64) PRIMARY KEY, title VARCHAR(255),"
+                    + " credits INT NOT NULL, department VARCHAR(64), capacity INT NOT NULL, version BIGINT NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS courses_by_department ON courses (department, code)",
+            "CREATE TABLE IF NOT EXISTS course_prerequisites (course_code VARCHAR(64) NOT NULL,"
+                    + " prerequisite VARCHAR(64) NOT NULL, PRIMARY KEY (course_code, prerequisite))",
+            "CREATE TABLE IF NOT EXISTS course_slots (course_code VARCHAR(64) NOT NULL, day_of_week INT NOT NULL,"
+                    + " start_second INT NOT NULL, end_second INT NOT NULL,"
+                    + " PRIMARY KEY (course_code, day_of_week, start_second, end_second))"
+    };
+
+    private static final String COLUMNS = "code, title, credits, department, capacity, version";
+    private static final String INSERT = "INSERT INTO courses (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PREREQUISITE =
+            "INSERT INTO course_prerequisites (course_code, prerequisite) VALUES (?, ?)";
+    private static final String INSERT_SLOT =
+            "INSERT INTO course_slots (course_code, day_of_week, start_second, end_second) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_BY_CODE = "SELECT " + COLUMNS + " FROM courses WHERE code = ?";
+    private static final String SELECT_PREREQUISITES =
+            "SELECT course_code, prerequisite FROM course_prerequisites WHERE course_code = ?";
+    private static final String SELECT_SLOTS =
+            "SELECT course_code, day_of_week, start_second, end_second FROM course_slots WHERE course_code = ?";
+    private static final String SELECT_BY_CODES = "SELECT " + COLUMNS + " FROM courses WHERE code = ANY(?)";
+    private static final String SELECT_PREREQUISITES_BY_CODES =
+            "SELECT course_code, prerequisite FROM course_prerequisites WHERE course_code = ANY(?)";
+    private static final String SELECT_SLOTS_BY_CODES =
+            "SELECT course_code, day_of_week, start_second, end_second FROM course_slots WHERE course_code = ANY(?)";
+    private static final String SELECT_BY_DEPARTMENT =
+            "SELECT " + COLUMNS + " FROM courses WHERE department = ? ORDER BY code";
+    private static final String SELECT_PREREQUISITES_BY_DEPARTMENT =
+            "SELECT p.course_code, p.prerequisite FROM courses c"
+                    + " JOIN course_prerequisites p ON p.course_code = c.code WHERE c.department = ?";
+    private static final String SELECT_SLOTS_BY_DEPARTMENT =
+            "SELECT s.course_code, s.day_of_week, s.start_second, s.end_second FROM courses c"
+                    + " JOIN course_slots s ON s.course_code = c.code WHERE c.department = ?";
+    private static final String SELECT_CODES_BY_DEPARTMENT_AFTER =
+            "SELECT code FROM courses WHERE department = ? AND code > ? ORDER BY code LIMIT ?";
+    private static final String UPDATE = "UPDATE courses SET title = ?, credits = ?, department = ?, capacity = ?,"
+            + " version = ? WHERE code = ? AND version = ?";
+    private static final String DELETE = "DELETE FROM courses WHERE code = ?";
+    private static final String DELETE_PREREQUISITES = "DELETE FROM course_prerequisites WHERE course_code = ?";
+    private static final String DELETE_SLOTS = "DELETE FROM course_slots WHERE course_code = ?";
+
+    private final JdbcDatabase database;
+
+    /**
+     * Storage settings (clock and change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with default storage settings.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     */
+    public JdbcCourseRepository(@NonNull JdbcDatabase database) {
+        this(database, StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository publishing to the context's change feed.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public JdbcCourseRepository(@NonNull JdbcDatabase database, @NonNull StorageContext storageContext) {
+        this.database = database;
+        this.storageContext = storageContext;
+        database.createSchema(SCHEMA);
+    }
+
+    /**
+     * Creates a new course.
+     *
+     * @throws IllegalArgumentException if the course or its code is null, or the code is taken.
+     */
+    @Override
+    public void createCourse(Course course) {
+        createCourses(Collections.singletonList(course));
+    }
+
+    /**
+     * Creates many courses in one transaction, sending the rows as JDBC batches. Either all
+     * of them are created or, if one is invalid or taken, none is.
+     *
+     * @param courses the courses to create.
+     * @throws IllegalArgumentException as for {@link #createCourse}.
+     */
+    public void createCourses(@NonNull Collection<Course> courses) {
+        List<Object[]> prerequisites = new ArrayList<>();
+        List<Object[]> slots = new ArrayList<>();
+        for (Course course : courses) {
+            if(course == null){
+                throw new IllegalArgumentException("Course cannot be null");
+            }
+            if(course.getCode() == null){
+                throw new IllegalArgumentException("Course code cannot be null");
+            }
+            addRows(course.getCode(), course, prerequisites, slots);
+        }
+        try {
+            database.inTransaction(() -> {
+                database.batch(INSERT, courses, (statement, course) -> {
+                    statement.setString(1, course.getCode());
+                    statement.setString(2, course.getTitle());
+                    statement.setInt(3, course.getCredits());
+                    statement.setString(4, course.getDepartment());
+                    statement.setInt(5, course.getCapacity());
+                    statement.setLong(6, 1);
+                });
+                insertRows(prerequisites, slots);
+                for (Course course : courses) {
+                    course.setVersion(1);
+                    database.afterCommit(() -> {
+                        countUnder(course.getCode(), course.getDepartment());
+                        storageContext.publish(ChangeType.COURSE_CREATED, course.getCode(), course);
+                    });
+                }
+                return null;
+            });
+        } catch (JdbcDatabase.ConstraintViolation e) {
+            throw new IllegalArgumentException(courses.size() == 1
+                    ? "Course with code " + courses.iterator().next().getCode() + " already exists"
+                    : "A course with one of these codes already exists");
+        }
+    }
+
+    @Override
+    public Course getByCode(String code) {
+        if (code == null) return null;
+        return database.inTransaction(() -> {
+            List<Course> found = query(SELECT_BY_CODE, SELECT_PREREQUISITES, SELECT_SLOTS, code);
+            return found.isEmpty() ? null : found.get(0);
+        });
+    }
+
+    /**
+     * Reads all the courses with three queries (rows, prerequisites, slots), passing the
+     * codes as one array parameter so the prepared statements are reused whatever the
+     * number of codes.
+     */
+    @Override
+    public Map<String, Course> getByCodes(@NonNull Collection<String> codes) {
+        Set<String> keys = new LinkedHashSet<>(codes);
+        keys.remove(null);
+        if (keys.isEmpty()) return new LinkedHashMap<>();
+        Object[] parameter = keys.toArray();
+        List<Course> rows = database.inTransaction(() -> query(SELECT_BY_CODES, SELECT_PREREQUISITES_BY_CODES,
+                SELECT_SLOTS_BY_CODES, parameter));
+        Map<String, Course> byCode = new HashMap<>();
+        rows.forEach(course -> byCode.put(course.getCode(), course));
+        Map<String, Course> found = new LinkedHashMap<>();
+        for (String code : keys) {
+            Course course = byCode.get(code);
+            if (course != null) {
+                found.put(code, course);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @throws UnsupportedOperationException always: the JDBC repositories keep no version history.
+     */
+    @Override
+    public Course getByCode(String code, Snapshot snapshot) {
+        throw new UnsupportedOperationException("Snapshot reads are not supported by the JDBC repositories");
+    }
+
+    /**
+     * Lists a department's courses sorted by code, through the department index.
+     */
+    @Override
+    public List<Course> listByDepartment(String department) {
+        if (department == null) return new ArrayList<>();
+        return database.inTransaction(() -> query(SELECT_BY_DEPARTMENT, SELECT_PREREQUISITES_BY_DEPARTMENT,
+                SELECT_SLOTS_BY_DEPARTMENT, department));
+    }
+
+    /**
+     * @throws UnsupportedOperationException always: the JDBC repositories keep no version history.
+     */
+    @Override
+    public List<Course> listByDepartment(String department, Snapshot snapshot) {
+        throw new UnsupportedOperationException("Snapshot reads are not supported by the JDBC repositories");
+    }
+
+    /**
+     * Seeks the page's codes through the department index ({@code code > cursor}, one row
+     * past the page to know whether another follows), then loads those courses.
+     */
+    @Override
+    public Page<Course> listByDepartment(String department, String cursor, int limit) {
+        Page.requireLimit(limit);
+        if (department == null) return new Page<>(new ArrayList<>(), null);
+        return database.inTransaction(() -> {
+            PreparedStatement select = database.statement(SELECT_CODES_BY_DEPARTMENT_AFTER);
+            select.setString(1, department);
+            select.setString(2, cursor == null ? "" : cursor);
+            select.setInt(3, limit + 1);
+            List<String> codes = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    codes.add(rs.getString(1));
+                }
+            }
+            Page<String> keys = Page.trimmed(codes, code -> code, limit);
+            if (keys.items().isEmpty()) return new Page<>(new ArrayList<>(), null);
+            List<Course> courses = query(SELECT_BY_CODES, SELECT_PREREQUISITES_BY_CODES, SELECT_SLOTS_BY_CODES,
+                    keys.items().toArray());
+            courses.sort(Comparator.comparing(Course::getCode));
+            return new Page<>(courses, keys.nextCursor());
+        });
+    }
+
+    /**
+     * Replaces a course if its version column is still {@code expectedVersion}. The course
+     * code cannot change.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String code, long expectedVersion, @NonNull Course updated) {
+        List<Object[]> prerequisites = new ArrayList<>();
+        List<Object[]> slots = new ArrayList<>();
+        addRows(code, updated, prerequisites, slots);
+        return database.inTransaction(() -> {
+            PreparedStatement update = database.statement(UPDATE);
+            update.setString(1, updated.getTitle());
+            update.setInt(2, updated.getCredits());
+            update.setString(3, updated.getDepartment());
+            update.setInt(4, updated.getCapacity());
+            update.setLong(5, expectedVersion + 1);
+            update.setString(6, code);
+            update.setLong(7, expectedVersion);
+            if (update.executeUpdate() == 0) {
+                return false;
+            }
+            deleteRows(code);
+            insertRows(prerequisites, slots);
+            updated.setCode(code);
+            updated.setVersion(expectedVersion + 1);
+            database.afterCommit(() -> {
+                countUnder(code, updated.getDepartment());
+                storageContext.publish(ChangeType.COURSE_UPDATED, code, updated);
+            });
+            return true;
+        });
+    }
+
+    @Override
+    public void deleteCourse(String code) {
+        if (code == null) return;
+        database.inTransaction(() -> {
+            deleteRows(code);
+            PreparedStatement delete = database.statement(DELETE);
+            delete.setString(1, code);
+            if (delete.executeUpdate() > 0) {
+                database.afterCommit(() -> {
+                    countUnder(code, null);
+                    storageContext.publish(ChangeType.COURSE_DELETED, code, null);
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Tells the enrollment views, if any, which department the course's enrollments count under.
+     */
+    private void countUnder(String code, String department) {
+        EnrollmentViews views = storageContext.getEnrollmentViews();
+        if (views != null) {
+            views.courseChanged(code, department);
+        }
+    }
+
+    /**
+     * Runs a course query and the matching prerequisite and slot queries with the same
+     * parameter (a string, or an array for {@code ANY(?)}).
+     */
+    private List<Course> query(String courseSql, String prerequisiteSql, String slotSql, Object parameter)
+            throws SQLException {
+        Map<String, Course> courses = new LinkedHashMap<>();
+        PreparedStatement select = database.statement(courseSql);
+        select.setObject(1, parameter);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                Course course = new Course(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getString(4),
+                        new HashSet<>(), new TreeSet<>(), rs.getInt(5), rs.getLong(6));
+                courses.put(course.getCode(), course);
+            }
+        }
+        if (courses.isEmpty()) return new ArrayList<>();
+
+        PreparedStatement prerequisites = database.statement(prerequisiteSql);
+        prerequisites.setObject(1, parameter);
+        try (ResultSet rs = prerequisites.executeQuery()) {
+            while (rs.next()) {
+                Course course = courses.get(rs.getString(1));
+                if (course != null) {
+                    course.getPrerequisites().add(rs.getString(2));
+                }
+            }
+        }
+        PreparedStatement slots = database.statement(slotSql);
+        slots.setObject(1, parameter);
+        try (ResultSet rs = slots.executeQuery()) {
+            while (rs.next()) {
+                Course course = courses.get(rs.getString(1));
+                if (course != null) {
+                    course.getScheduledSlots().add(new TimeSlot(DayOfWeek.of(rs.getInt(2)),
+                            LocalTime.ofSecondOfDay(rs.getInt(3)), LocalTime.ofSecondOfDay(rs.getInt(4))));
+                }
+            }
+        }
+        return new ArrayList<>(courses.values());
+    }
+
+    private void insertRows(List<Object[]> prerequisites, List<Object[]> slots) throws SQLException {
+        database.batch(INSERT_PREREQUISITE, prerequisites, (statement, row) -> {
+            statement.setString(1, (String) row[0]);
+            statement.setString(2, (String) row[1]);
+        });
+        database.batch(INSERT_SLOT, slots, (statement, row) -> {
+            statement.setString(1, (String) row[0]);
+            statement.setInt(2, (Integer) row[1]);
+            statement.setInt(3, (Integer) row[2]);
+            statement.setInt(4, (Integer) row[3]);
+        });
+    }
+
+    private void deleteRows(String code) throws SQLException {
+        for (String sql : new String[]{DELETE_PREREQUISITES, DELETE_SLOTS}) {
+            PreparedStatement delete = database.statement(sql);
+            delete.setString(1, code);
+            delete.executeUpdate();
+        }
+    }
+
+    private static void addRows(String code, Course course, List<Object[]> prerequisites, List<Object[]> slots) {
+        if (course.getPrerequisites() != null) {
+            for (String prerequisite : course.getPrerequisites()) {
+                prerequisites.add(new Object[]{code, prerequisite});
+            }
+        }
+        if (course.getScheduledSlots() != null) {
+            for (TimeSlot slot : course.getScheduledSlots()) {
+                slots.add(new Object[]{code, slot.getDayOfWeek().getValue(),
+                        slot.getStartTime().toSecondOfDay(), slot.getEndTime().toSecondOfDay()});
+            }
+        }
+    }
+}
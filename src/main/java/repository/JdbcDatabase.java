@@ -0,0 +1,296 @@
+package repository;
+
+import lombok.NonNull;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded, file-based database shared by the JDBC repositories.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Own one JDBC connection. The repositories sharing a database serialize their
+ *       transactions on it, the same way the synchronized in-memory repositories serialize
+ *       their writers.</li>
+ *   <li>Cache one {@link PreparedStatement} per SQL string, so every repository call after
+ *       the first skips parsing and planning and only binds parameters.</li>
+ *   <li>Re-prepare the cached statements each time the count of committed transactions and
+ *       batched rows doubles. The driver keeps the plan it chose when a statement was
+ *       prepared, and a plan chosen while the tables were still empty scans them instead of
+ *       using their indexes.</li>
+ *   <li>Run work in a transaction: commit on success, roll back on any exception. Nested
+ *       calls join the outer transaction.</li>
+ *   <li>Defer change-feed publications until the transaction commits (see
+ *       {@link #afterCommit}), so subscribers never see a change that was rolled back.</li>
+ *   <li>Send bulk inserts as JDBC batches of {@link #BATCH_SIZE} rows.</li>
+ * </ul>
+ *
+ * <p>The driver is found through {@link DriverManager}; H2 ({@code com.h2database:h2}) is
+ * declared in the build. Close the database when the repositories are no longer used.</p>
+ */
+public class JdbcDatabase implements AutoCloseable {
+
+    /** Rows sent per JDBC batch. */
+    public static final int BATCH_SIZE = 500;
+
+    /** Writes (committed transactions plus batched rows) before the first re-prepare. */
+    static final long REPLAN_THRESHOLD = 64;
+
+    private final Connection connection;
+
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    private int depth;
+
+    /** Committed transactions plus batched rows so far. */
+    private long writes;
+
+    /** Value of {@link #writes} at which the statement cache is next re-prepared. */
+    private long replanAt = REPLAN_THRESHOLD;
+
+    /**
+     * Opens a database.
+     *
+     * @param url a JDBC URL, e.g. {@code jdbc:h2:/var/sms/data}.
+     */
+    public JdbcDatabase(@NonNull String url) {
+        try {
+            this.connection = DriverManager.getConnection(url);
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Opens (or creates) an H2 database stored in a local file.
+     *
+     * @param file the database file, without the {@code .mv.db} extension H2 adds.
+     * @return the database.
+     */
+    public static JdbcDatabase file(@NonNull Path file) {
+        return new JdbcDatabase("jdbc:h2:" + file.toAbsolutePath());
+    }
+
+    /**
+     * @return number of distinct statements prepared so far (the size of the statement cache).
+     */
+    public synchronized int preparedStatementCount() {
+        return statements.size();
+    }
+
+    /**
+     * Creates tables and indexes if they do not exist yet.
+     *
+     * @param ddl {@code CREATE ... IF NOT EXISTS} statements.
+     */
+    synchronized void createSchema(String... ddl) {
+        inTransaction(() -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : ddl) {
+                    statement.execute(sql);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Runs work in a transaction, or as part of the current one if called from inside one.
+     *
+     * @param work the work to run.
+     * @return what the work returned.
+     * @throws IllegalStateException if the database reports an error.
+     */
+    synchronized <T> T inTransaction(SqlWork<T> work) {
+        if (depth > 0) {
+            return run(work);
+        }
+        depth++;
+        T result;
+        List<Runnable> published;
+        try {
+            result = run(work);
+            connection.commit();
+            published = new ArrayList<>(afterCommit);
+        } catch (SQLException e) {
+            rollback();
+            throw failure(e);
+        } catch (RuntimeException | Error e) {
+            rollback();
+            throw e;
+        } finally {
+            afterCommit.clear();
+            depth--;
+        }
+        if (++writes >= replanAt) {
+            replanAt = writes * 2;
+            closeStatements();
+        }
+        published.forEach(Runnable::run);
+        return result;
+    }
+
+    /**
+     * Schedules an action (usually a change-feed publication) to run once the current
+     * transaction commits. It is dropped if the transaction rolls back.
+     */
+    synchronized void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    /**
+     * @return the cached statement for the SQL, preparing it on first use.
+     */
+    synchronized PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Runs one statement once per row, in batches of {@link #BATCH_SIZE}.
+     *
+     * @param sql the statement.
+     * @param rows the rows to bind.
+     * @param binder binds one row's parameters.
+     * @return rows affected, per row.
+     */
+    synchronized <R> int[] batch(String sql, Collection<R> rows, Binder<R> binder) throws SQLException {
+        PreparedStatement statement = statement(sql);
+        writes += rows.size();
+        int[] counts = new int[rows.size()];
+        int sent = 0;
+        int pending = 0;
+        try {
+            for (R row : rows) {
+                binder.bind(statement, row);
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    sent = flush(statement, counts, sent);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                flush(statement, counts, sent);
+            }
+        } catch (SQLException e) {
+            // The statement is cached: leave no rows queued for its next use.
+            statement.clearBatch();
+            throw e;
+        }
+        return counts;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            closeStatements();
+            connection.close();
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Closes and forgets the cached statements; they are prepared again, with fresh
+     * plans, on next use.
+     */
+    private void closeStatements() {
+        try {
+            for (PreparedStatement statement : statements.values()) {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            throw failure(e);
+        } finally {
+            statements.clear();
+        }
+    }
+
+    /**
+     * @return true if the error is a primary-key or unique-constraint violation.
+     */
+    static boolean isConstraintViolation(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("23");
+    }
+
+    /**
+     * Binds a row of strings to the statement's parameters, in order.
+     */
+    static void bindStrings(PreparedStatement statement, String[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            statement.setString(i + 1, row[i]);
+        }
+    }
+
+    static IllegalStateException failure(SQLException e) {
+        return new IllegalStateException("Database error: " + e.getMessage(), e);
+    }
+
+    private static int flush(PreparedStatement statement, int[] counts, int offset) throws SQLException {
+        int[] batch = statement.executeBatch();
+        System.arraycopy(batch, 0, counts, offset, batch.length);
+        return offset + batch.length;
+    }
+
+    private <T> T run(SqlWork<T> work) {
+        try {
+            return work.run();
+        } catch (SQLException e) {
+            boolean violation = isConstraintViolation(e)
+                    || e.getNextException() != null && isConstraintViolation(e.getNextException());
+            throw violation ? new ConstraintViolation(e) : failure(e);
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // The original failure is the one worth reporting.
+        }
+    }
+
+    /**
+     * Work run in a transaction.
+     */
+    @FunctionalInterface
+    interface SqlWork<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Binds one row of a batch.
+     */
+    @FunctionalInterface
+    interface Binder<R> {
+        void bind(PreparedStatement statement, R row) throws SQLException;
+    }
+
+    /**
+     * A write rejected by a primary-key or unique constraint. Repositories translate it
+     * into the same {@link IllegalArgumentException} their in-memory counterparts throw.
+     */
+    static class ConstraintViolation extends RuntimeException {
+        ConstraintViolation(SQLException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import model.Department;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * JDBC implementation of the DepartmentRepository interface.
+ *
+ * Responsibilities:
+ * - Store departments and their course listings in a {@link JdbcDatabase}.
+ * - List all departments sorted by ID (the primary key order).
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
+ *
+ * Tables:
+ * - departments (id primary key): one row per department.
+ * - department_courses (department_id, course_code): the department's course listing;
+ *   unlinking a course deletes one row by primary key.
+ */
+public class JdbcDepartmentRepository implements DepartmentRepository {
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS departments (id VARCHAR(64) PRIMARY KEY, name VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS department_courses (department_id VARCHAR(64) NOT NULL,"
+                    + " course_code VARCHAR(64) NOT NULL, PRIMARY KEY (department_id, course_code))"
+    };
+
+    private static final String INSERT = "INSERT INTO departments (id, name) VALUES (?, ?)";
+    private static final String INSERT_COURSE =
+            "INSERT INTO department_courses (department_id, course_code) VALUES (?, ?)";
+    private static final String SELECT_BY_ID = "SELECT id, name FROM departments WHERE id = ?";
+    private static final String SELECT_COURSES =
+            "SELECT department_id, course_code FROM department_courses WHERE department_id = ?";
+    private static final String SELECT_ALL = "SELECT id, name FROM departments ORDER BY id";
+    private static final String SELECT_ALL_COURSES = "SELECT department_id, course_code FROM department_courses";
+    private static final String SELECT_IDS_AFTER = "SELECT id FROM departments WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BY_IDS = "SELECT id, name FROM departments WHERE id = ANY(?) ORDER BY id";
+    private static final String SELECT_COURSES_BY_IDS =
+            "SELECT department_id, course_code FROM department_courses WHERE department_id = ANY(?)";
+    private static final String DELETE_COURSE =
+            "DELETE FROM department_courses WHERE department_id = ? AND course_code = ?";
+
+    private final JdbcDatabase database;
+
+    /**
+     * Storage settings (clock and change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with default storage settings.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     */
+    public JdbcDepartmentRepository(@NonNull JdbcDatabase database) {
+        this(database, StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository publishing to the context's change feed.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public JdbcDepartmentRepository(@NonNull JdbcDatabase database, @NonNull StorageContext storageContext) {
+        this.database = database;
+        this.storageContext = storageContext;
+        database.createSchema(SCHEMA);
+    }
+
+    /**
+     * Creates a department together with its course listing.
+     *
+     * @throws IllegalArgumentException if the department or its ID is null, or the ID is taken.
+     */
+    @Override
+    public void createDepartment(Department department) {
+        if (department == null || department.getId() == null) {
+            throw new IllegalArgumentException("Department or ID cannot be null");
+        }
+        String id = department.getId();
+        List<String[]> courses = new ArrayList<>();
+        if (department.getCourses() != null) {
+            for (String courseCode : department.getCourses()) {
+                courses.add(new String[]{id, courseCode});
+            }
+        }
+        try {
+            database.inTransaction(() -> {
+                PreparedStatement insert = database.statement(INSERT);
+                insert.setString(1, id);
+                insert.setString(2, department.getName());
+                insert.executeUpdate();
+                database.batch(INSERT_COURSE, courses, JdbcDatabase::bindStrings);
+                database.afterCommit(() -> storageContext.publish(ChangeType.DEPARTMENT_CREATED, id, department));
+                return null;
+            });
+        } catch (JdbcDatabase.ConstraintViolation e) {
+            throw new IllegalArgumentException("Department with ID " + id + " already exists");
+        }
+    }
+
+    @Override
+    public Department getById(@NonNull String id) {
+        return database.inTransaction(() -> {
+            List<Department> found = query(SELECT_BY_ID, SELECT_COURSES, id);
+            return found.isEmpty() ? null : found.get(0);
+        });
+    }
+
+    /**
+     * Lists all departments sorted by ID.
+     */
+    @Override
+    public List<Department> listAll() {
+        return database.inTransaction(() -> query(SELECT_ALL, SELECT_ALL_COURSES, null));
+    }
+
+    /**
+     * Seeks the page's IDs through the primary key ({@code id > cursor}, one row past the
+     * page to know whether another follows), then loads those departments.
+     */
+    @Override
+    public Page<Department> listAll(String cursor, int limit) {
+        Page.requireLimit(limit);
+        return database.inTransaction(() -> {
+            PreparedStatement select = database.statement(SELECT_IDS_AFTER);
+            select.setString(1, cursor == null ? "" : cursor);
+            select.setInt(2, limit + 1);
+            List<String> ids = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+            Page<String> keys = Page.trimmed(ids, id -> id, limit);
+            if (keys.items().isEmpty()) return new Page<>(new ArrayList<>(), null);
+            return new Page<>(query(SELECT_BY_IDS, SELECT_COURSES_BY_IDS, keys.items().toArray()), keys.nextCursor());
+        });
+    }
+
+    /**
+     * Removes a course from a department's listing.
+     *
+     * @return true if the course was listed.
+     */
+    @Override
+    public boolean unlinkCourse(@NonNull String departmentId, @NonNull String courseCode) {
+        return database.inTransaction(() -> {
+            PreparedStatement delete = database.statement(DELETE_COURSE);
+            delete.setString(1, departmentId);
+            delete.setString(2, courseCode);
+            if (delete.executeUpdate() == 0) {
+                return false;
+            }
+            Department department = query(SELECT_BY_ID, SELECT_COURSES, departmentId).get(0);
+            database.afterCommit(() -> storageContext.publish(ChangeType.DEPARTMENT_UPDATED, departmentId, department));
+            return true;
+        });
+    }
+
+    /**
+     * Runs a department query and the matching course-listing query, binding the
+     * parameter (a string, or an array for {@code ANY(?)}) to both unless it is null.
+     */
+    private List<Department> query(String departmentSql, String courseSql, Object parameter) throws SQLException {
+        Map<String, Department> departments = new LinkedHashMap<>();
+        PreparedStatement select = database.statement(departmentSql);
+        if (parameter != null) select.setObject(1, parameter);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                departments.put(rs.getString(1), new Department(rs.getString(1), rs.getString(2), new TreeSet<>()));
+            }
+        }
+        if (departments.isEmpty()) return new ArrayList<>();
+
+        PreparedStatement courses = database.statement(courseSql);
+        if (parameter != null) courses.setObject(1, parameter);
+        try (ResultSet rs = courses.executeQuery()) {
+            while (rs.next()) {
+                Department department = departments.get(rs.getString(1));
+                if (department != null) {
+                    department.getCourses().add(rs.getString(2));
+                }
+            }
+        }
+        return new ArrayList<>(departments.values());
+    }
+}
@@ -0,0 +1,1061 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import metrics.RegistrationMetrics;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static model.EnrollmentStatus.COMPLETED;
+import static model.EnrollmentStatus.DROPPED;
+import static model.EnrollmentStatus.ENROLLED;
+import static model.EnrollmentStatus.WAITLISTED;
+import static model.EnrollmentStatus.WITHDRAWN;
+
+/**
+ * JDBC implementation of the EnrollmentRepository interface.
+ *
+ * Responsibilities:
+ * - Store enrollments, grades, seat capacities and seat holds in a {@link JdbcDatabase}.
+ * - Apply the seat rules of {@link InMemoryEnrollmentRepository}: FIFO waitlists, promotion
+ *   when a seat frees up, holds that count against capacity, and read-only frozen semesters.
+ * - Publish enrollment, grade and seat-hold changes on the context's {@link events.ChangeFeed},
+ *   and record enrollment and grade changes in its {@link EnrollmentLedger} when one is configured.
+ *
+ * Tables:
+ * - enrollments (student_id, course_code, semester, slot): one row per enrollment slot. A
+ *   re-enrollment after a drop adds a slot; {@code latest} marks the current one. The
+ *   primary key serves per-student reads; an index on (course_code, semester, latest, status)
+ *   serves seat counts, waitlists and rosters; {@code waitlist_seq} orders the waitlist.
+ * - enrollment_grades (enrollment key, slot, grade_type): one row per recorded grade.
+ * - course_capacities / section_capacities: capacity defaults and per-semester overrides.
+ * - seat_holds (student_id, course_code, semester): current holds, indexed by section.
+ * - frozen_semesters: semesters closed to writes.
+ *
+ * Course, semester, status and latest columns declare a low SELECTIVITY. Statements are
+ * planned once and cached, often while the tables are still empty; without it the planner
+ * would pick the semester index over the primary key for single-row updates, and those
+ * plans would scan the whole semester once it fills up.
+ *
+ * The seat state of a section is derived from these rows inside the transaction that
+ * changes it, so there is no separate ledger to keep in sync. Freezing a semester only
+ * closes it: its rows are already on disk. Snapshot reads are not supported.
+ */
+public class JdbcEnrollmentRepository implements EnrollmentRepository {
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS enrollments (student_id VARCHAR(64) NOT NULL,"
+                    + " course_code VARCHAR(64) SELECTIVITY 5 NOT NULL, semester VARCHAR(64) SELECTIVITY 1 NOT NULL,"
+                    + " slot INT NOT NULL, status VARCHAR(16) SELECTIVITY 1 NOT NULL, version BIGINT NOT NULL,"
+                    + " latest BOOLEAN SELECTIVITY 1 NOT NULL, waitlist_seq BIGINT NOT NULL,"
+                    + " attendance VARBINARY, PRIMARY KEY (student_id, course_code, semester, slot))",
+            "CREATE INDEX IF NOT EXISTS enrollments_by_section"
+                    + " ON enrollments (course_code, semester, latest, status, waitlist_seq)",
+            "CREATE INDEX IF NOT EXISTS enrollments_by_semester ON enrollments (semester)",
+            "CREATE TABLE IF NOT EXISTS enrollment_grades (student_id VARCHAR(64) NOT NULL,"
+                    + " course_code VARCHAR(64) SELECTIVITY 5 NOT NULL, semester VARCHAR(64) SELECTIVITY 1 NOT NULL,"
+                    + " slot INT NOT NULL,"
+                    + " grade_type VARCHAR(16) NOT NULL, score DOUBLE NOT NULL,"
+                    + " PRIMARY KEY (student_id, course_code, semester, slot, grade_type))",
+            "CREATE INDEX IF NOT EXISTS enrollment_grades_by_course ON enrollment_grades (course_code)",
+            "CREATE TABLE IF NOT EXISTS course_capacities (course_code VARCHAR(64) PRIMARY KEY, capacity INT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS section_capacities (course_code VARCHAR(64) NOT NULL,"
+                    + " semester VARCHAR(64) NOT NULL, capacity INT NOT NULL, PRIMARY KEY (course_code, semester))",
+            "CREATE TABLE IF NOT EXISTS seat_holds (student_id VARCHAR(64) NOT NULL,"
+                    + " course_code VARCHAR(64) SELECTIVITY 5 NOT NULL, semester VARCHAR(64) SELECTIVITY 1 NOT NULL,"
+                    + " expires_second BIGINT NOT NULL, expires_nano INT NOT NULL,"
+                    + " PRIMARY KEY (student_id, course_code, semester))",
+            "CREATE INDEX IF NOT EXISTS seat_holds_by_section ON seat_holds (course_code, semester)",
+            "CREATE TABLE IF NOT EXISTS frozen_semesters (semester VARCHAR(64) PRIMARY KEY)"
+    };
+
+    private static final String KEY = "student_id = ? AND course_code = ? AND semester = ?";
+    private static final String SECTION = "course_code = ? AND semester = ?";
+    private static final String ROW_COLUMNS = "student_id, course_code, semester, slot, status, version, attendance, latest";
+    private static final String GRADE_COLUMNS = "student_id, course_code, semester, slot, grade_type, score";
+
+    private static final String INSERT = "INSERT INTO enrollments (student_id, course_code, semester, slot, status,"
+            + " version, latest, waitlist_seq, attendance) VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, ?)";
+    private static final String RETIRE = "UPDATE enrollments SET latest = FALSE WHERE " + KEY + " AND slot = ?";
+    private static final String UPDATE_STATUS = "UPDATE enrollments SET status = ?, version = ? WHERE " + KEY + " AND slot = ?";
+    private static final String UPDATE_VERSION = "UPDATE enrollments SET version = ? WHERE " + KEY + " AND slot = ?";
+    private static final String UPDATE_IF_VERSION = "UPDATE enrollments SET status = ?, version = ?, attendance = ?"
+            + " WHERE " + KEY + " AND slot = ? AND version = ?";
+    private static final String UPDATE_ROW = "UPDATE enrollments SET status = ?, version = ?, attendance = ?"
+            + " WHERE " + KEY + " AND slot = ?";
+    private static final String UPDATE_LATEST = "UPDATE enrollments SET latest = (slot = ?) WHERE " + KEY;
+    private static final String DELETE_ROW = "DELETE FROM enrollments WHERE " + KEY + " AND slot = ?";
+    private static final String SELECT_CURRENT = "SELECT " + ROW_COLUMNS + " FROM enrollments WHERE " + KEY + " AND latest = TRUE";
+    private static final String SELECT_BY_STUDENT =
+            "SELECT " + ROW_COLUMNS + " FROM enrollments WHERE student_id = ? ORDER BY semester, course_code, slot";
+    private static final String SELECT_BY_KEY =
+            "SELECT " + ROW_COLUMNS + " FROM enrollments WHERE " + KEY + " ORDER BY slot";
+    private static final String SELECT_BY_COURSE = "SELECT " + ROW_COLUMNS + " FROM enrollments WHERE course_code = ?";
+    private static final String SELECT_ALL = "SELECT " + ROW_COLUMNS + " FROM enrollments";
+    private static final String SELECT_WAITLISTED = "SELECT " + ROW_COLUMNS + " FROM enrollments WHERE " + SECTION
+            + " AND latest = TRUE AND status = 'WAITLISTED' ORDER BY waitlist_seq";
+    private static final String SELECT_WAITLIST = "SELECT student_id FROM enrollments WHERE " + SECTION
+            + " AND latest = TRUE AND status = 'WAITLISTED' ORDER BY waitlist_seq";
+    private static final String SELECT_WAITLISTED_SEMESTERS = "SELECT DISTINCT semester FROM enrollments"
+            + " WHERE course_code = ? AND latest = TRUE AND status = 'WAITLISTED'";
+    private static final String SELECT_ROSTER = "SELECT DISTINCT student_id FROM enrollments"
+            + " WHERE course_code = ? AND latest = TRUE AND status IN ('ENROLLED', 'COMPLETED')";
+    private static final String SELECT_ROSTER_AFTER = "SELECT DISTINCT student_id FROM enrollments"
+            + " WHERE course_code = ? AND latest = TRUE AND status IN ('ENROLLED', 'COMPLETED') AND student_id > ?"
+            + " ORDER BY student_id LIMIT ?";
+    private static final String COUNT_SEATED = "SELECT COUNT(*) FROM enrollments WHERE " + SECTION
+            + " AND latest = TRUE AND status IN ('ENROLLED', 'COMPLETED')";
+    private static final String NEXT_WAITLIST_SEQ =
+            "SELECT COALESCE(MAX(waitlist_seq), 0) + 1 FROM enrollments WHERE " + SECTION;
+    private static final String COUNT_SEMESTER = "SELECT COUNT(*) FROM enrollments WHERE semester = ?";
+    private static final String DELETE_BY_STUDENT = "DELETE FROM enrollments WHERE student_id = ?";
+    private static final String DELETE_BY_COURSE = "DELETE FROM enrollments WHERE course_code = ?";
+
+    private static final String SELECT_GRADES_OF_KEY = "SELECT " + GRADE_COLUMNS + " FROM enrollment_grades WHERE " + KEY;
+    private static final String SELECT_GRADES_BY_STUDENT = "SELECT " + GRADE_COLUMNS + " FROM enrollment_grades WHERE student_id = ?";
+    private static final String SELECT_GRADES_BY_COURSE = "SELECT " + GRADE_COLUMNS + " FROM enrollment_grades WHERE course_code = ?";
+    private static final String SELECT_ALL_GRADES = "SELECT " + GRADE_COLUMNS + " FROM enrollment_grades";
+    private static final String INSERT_GRADE = "INSERT INTO enrollment_grades (" + GRADE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_GRADE = "UPDATE enrollment_grades SET score = ? WHERE " + KEY + " AND slot = ? AND grade_type = ?";
+    private static final String DELETE_GRADES_OF_ROW = "DELETE FROM enrollment_grades WHERE " + KEY + " AND slot = ?";
+    private static final String DELETE_GRADES_BY_STUDENT = "DELETE FROM enrollment_grades WHERE student_id = ?";
+    private static final String DELETE_GRADES_BY_COURSE = "DELETE FROM enrollment_grades WHERE course_code = ?";
+
+    private static final String SELECT_COURSE_CAPACITY = "SELECT capacity FROM course_capacities WHERE course_code = ?";
+    private static final String SELECT_SECTION_CAPACITY = "SELECT capacity FROM section_capacities WHERE " + SECTION;
+    private static final String UPDATE_COURSE_CAPACITY = "UPDATE course_capacities SET capacity = ? WHERE course_code = ?";
+    private static final String INSERT_COURSE_CAPACITY = "INSERT INTO course_capacities (capacity, course_code) VALUES (?, ?)";
+    private static final String UPDATE_SECTION_CAPACITY = "UPDATE section_capacities SET capacity = ? WHERE " + SECTION;
+    private static final String INSERT_SECTION_CAPACITY =
+            "INSERT INTO section_capacities (capacity, course_code, semester) VALUES (?, ?, ?)";
+    private static final String DELETE_COURSE_CAPACITY = "DELETE FROM course_capacities WHERE course_code = ?";
+    private static final String DELETE_SECTION_CAPACITIES = "DELETE FROM section_capacities WHERE course_code = ?";
+    private static final String DELETE_SEMESTER_CAPACITIES = "DELETE FROM section_capacities WHERE semester = ?";
+
+    private static final String INSERT_HOLD = "INSERT INTO seat_holds (student_id, course_code, semester,"
+            + " expires_second, expires_nano) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_HOLD = "SELECT expires_second, expires_nano FROM seat_holds WHERE " + KEY;
+    private static final String SELECT_HOLDS_BY_STUDENT = "SELECT course_code, semester FROM seat_holds WHERE student_id = ?";
+    private static final String COUNT_HOLDS = "SELECT COUNT(*) FROM seat_holds WHERE " + SECTION;
+    private static final String DELETE_HOLD = "DELETE FROM seat_holds WHERE " + KEY;
+    private static final String DELETE_EXACT_HOLD = "DELETE FROM seat_holds WHERE " + KEY
+            + " AND expires_second = ? AND expires_nano = ?";
+    private static final String DELETE_HOLDS_BY_COURSE = "DELETE FROM seat_holds WHERE course_code = ?";
+    private static final String DELETE_HOLDS_BY_SEMESTER = "DELETE FROM seat_holds WHERE semester = ?";
+
+    private static final String SELECT_FROZEN = "SELECT 1 FROM frozen_semesters WHERE semester = ?";
+    private static final String INSERT_FROZEN = "INSERT INTO frozen_semesters (semester) VALUES (?)";
+
+    private final JdbcDatabase database;
+
+    /**
+     * Storage settings (clock, change feed and enrollment ledger).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with default storage settings.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     */
+    public JdbcEnrollmentRepository(@NonNull JdbcDatabase database) {
+        this(database, StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository using the context's clock, change feed and enrollment ledger.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public JdbcEnrollmentRepository(@NonNull JdbcDatabase database, @NonNull StorageContext storageContext) {
+        this.database = database;
+        this.storageContext = storageContext;
+        database.createSchema(SCHEMA);
+    }
+
+    /**
+     * Enrolls a student, taking a seat if one is free and joining the FIFO waitlist otherwise.
+     * Enrolling a student who is already enrolled or waitlisted in the section is a no-op;
+     * a student holding an unexpired seat hold is enrolled into the held seat.
+     *
+     * @return ENROLLED or WAITLISTED.
+     */
+    @Override
+    public EnrollmentStatus enroll(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        return database.inTransaction(() -> {
+            requireOpen(semester);
+            Row current = current(key);
+            SeatLedger.State state = stateOf(key, current);
+            if (state == SeatLedger.State.ENROLLED) return ENROLLED;
+            if (state == SeatLedger.State.WAITLISTED) return WAITLISTED;
+            if (state == SeatLedger.State.HELD && confirm(key)) return ENROLLED;
+
+            EnrollmentStatus status = freeSeats(key.section()) > 0 ? ENROLLED : WAITLISTED;
+            addEnrollment(key, current(key), status);
+            return status;
+        });
+    }
+
+    /**
+     * Drops a student from a section. If the student held a seat (enrolled or on hold),
+     * the head of the waitlist is promoted into it. Dropping a student who is not
+     * active in the section is a no-op.
+     */
+    @Override
+    public void drop(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        database.inTransaction(() -> {
+            requireOpen(semester);
+            leave(new EnrollmentKey(studentId, courseCode, semester), DROPPED);
+            return null;
+        });
+    }
+
+    /**
+     * Same as {@link #drop} but records the enrollment as WITHDRAWN.
+     */
+    @Override
+    public void withdraw(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        database.inTransaction(() -> {
+            requireOpen(semester);
+            leave(new EnrollmentKey(studentId, courseCode, semester), WITHDRAWN);
+            return null;
+        });
+    }
+
+    /**
+     * Marks an enrolled student's enrollment COMPLETED. The seat stays taken.
+     */
+    @Override
+    public void complete(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        database.inTransaction(() -> {
+            requireOpen(semester);
+            Row current = current(new EnrollmentKey(studentId, courseCode, semester));
+            if (current == null || current.enrollment().getStatus() != ENROLLED) {
+                throw new IllegalArgumentException(
+                        "Student " + studentId + " is not enrolled in " + courseCode + " " + semester);
+            }
+            updateStatus(current, COMPLETED);
+            return null;
+        });
+    }
+
+    /**
+     * Sets the default seat capacity for every semester of a course, promoting waitlisted
+     * students into any seats it frees. A capacity of {@code 0} removes the limit.
+     */
+    @Override
+    public void setCapacity(@NonNull String courseCode, int capacity) {
+        validateCapacity(capacity);
+        database.inTransaction(() -> {
+            upsert(UPDATE_COURSE_CAPACITY, INSERT_COURSE_CAPACITY, capacity, courseCode);
+            for (String semester : strings(SELECT_WAITLISTED_SEMESTERS, courseCode)) {
+                if (!isFrozen(semester)) {
+                    promote(new SectionKey(courseCode, semester));
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Sets the seat capacity of one semester of a course, overriding the course default.
+     */
+    @Override
+    public void setCapacity(@NonNull String courseCode, @NonNull String semester, int capacity) {
+        validateCapacity(capacity);
+        database.inTransaction(() -> {
+            requireOpen(semester);
+            upsert(UPDATE_SECTION_CAPACITY, INSERT_SECTION_CAPACITY, capacity, courseCode, semester);
+            promote(new SectionKey(courseCode, semester));
+            return null;
+        });
+    }
+
+    @Override
+    public int getAvailableSeats(@NonNull String courseCode, @NonNull String semester) {
+        return database.inTransaction(() -> isFrozen(semester) ? 0 : freeSeats(new SectionKey(courseCode, semester)));
+    }
+
+    @Override
+    public List<String> getWaitlist(@NonNull String courseCode, @NonNull String semester) {
+        return database.inTransaction(() -> isFrozen(semester) ? new ArrayList<>()
+                : strings(SELECT_WAITLIST, courseCode, semester));
+    }
+
+    /**
+     * Holds a free seat for {@code ttl}. As with the in-memory repository, expiry is driven
+     * by a sweeper and {@link #confirmHold} rejects a hold once expired.
+     */
+    @Override
+    public SeatHold placeHold(@NonNull String studentId, @NonNull String courseCode,
+                              @NonNull String semester, @NonNull Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("Hold duration must be positive");
+        }
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        return database.inTransaction(() -> {
+            requireOpen(semester);
+            if (freeSeats(key.section()) <= 0 || stateOf(key, current(key)) != null) {
+                return null;
+            }
+            SeatHold hold = new SeatHold(studentId, courseCode, semester, now().plus(ttl));
+            insertHold(key, hold);
+            database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_HELD, studentId, hold));
+            return hold;
+        });
+    }
+
+    @Override
+    public EnrollmentStatus confirmHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return database.inTransaction(() -> {
+            if (!confirm(new EnrollmentKey(studentId, courseCode, semester))) {
+                throw new IllegalArgumentException(
+                        "No active hold for student " + studentId + " in " + courseCode + " " + semester);
+            }
+            return ENROLLED;
+        });
+    }
+
+    @Override
+    public boolean releaseHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        return database.inTransaction(() -> {
+            SeatHold hold = hold(key);
+            if (hold == null) return false;
+            execute(DELETE_HOLD, studentId, courseCode, semester);
+            database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_RELEASED, studentId, hold));
+            promote(key.section());
+            return true;
+        });
+    }
+
+    /**
+     * Deletes the given holds in one JDBC batch, skipping any that were confirmed, released
+     * or replaced meanwhile, then promotes each affected section's waitlist once.
+     */
+    @Override
+    public int expireHolds(@NonNull Collection<SeatHold> expired) {
+        Instant now = now();
+        List<SeatHold> due = new ArrayList<>();
+        for (SeatHold hold : expired) {
+            if (hold.isExpired(now)) due.add(hold);
+        }
+        if (due.isEmpty()) return 0;
+        return database.inTransaction(() -> {
+            int[] deleted = database.batch(DELETE_EXACT_HOLD, due, (statement, hold) -> {
+                statement.setString(1, hold.studentId());
+                statement.setString(2, hold.courseCode());
+                statement.setString(3, hold.semester());
+                statement.setLong(4, hold.expiresAt().getEpochSecond());
+                statement.setInt(5, hold.expiresAt().getNano());
+            });
+            Set<SectionKey> touched = new LinkedHashSet<>();
+            int released = 0;
+            for (int i = 0; i < deleted.length; i++) {
+                if (deleted[i] <= 0) continue;
+                SeatHold hold = due.get(i);
+                database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_RELEASED, hold.studentId(), hold));
+                touched.add(new SectionKey(hold.courseCode(), hold.semester()));
+                released++;
+            }
+            for (SectionKey section : touched) {
+                promote(section);
+            }
+            return released;
+        });
+    }
+
+    @Override
+    public SeatHold getHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return database.inTransaction(() -> hold(new EnrollmentKey(studentId, courseCode, semester)));
+    }
+
+    /**
+     * Brings the key's rows in line with the records slot by slot: a row whose version
+     * differs is rewritten in place, missing slots are inserted (at the end of the waitlist
+     * order) and surplus ones deleted; the last slot becomes the current one.
+     * Then the hold row is set to match. Seat state needs no update: it is derived from the rows.
+     */
+    @Override
+    public void restore(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                        @NonNull List<Enrollment> records, SeatHold hold) {
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        database.inTransaction(() -> {
+            requireOpen(semester);
+            List<Row> rows = rows(SELECT_BY_KEY, SELECT_GRADES_OF_KEY, studentId, courseCode, semester);
+            boolean changed = rows.size() != records.size();
+            for (int i = 0; i < Math.max(rows.size(), records.size()); i++) {
+                int slot = i + 1;
+                if (i >= records.size()) {
+                    deleteRow(key, slot);
+                    committed(ChangeType.ENROLLMENT_DELETED, rows.get(i).enrollment(), null);
+                    continue;
+                }
+                Enrollment record = records.get(i).copy();
+                record.setStudentId(studentId);
+                record.setCourseCode(courseCode);
+                record.setSemester(semester);
+                if (i < rows.size() && rows.get(i).enrollment().getVersion() == record.getVersion()) continue;
+                changed = true;
+                byte[] attendance = record.getAttendance() == null ? new byte[0] : record.getAttendance().toByteArray();
+                if (i < rows.size()) {
+                    // Rewritten in place, so a student still waitlisted keeps their position.
+                    PreparedStatement update = database.statement(UPDATE_ROW);
+                    update.setString(1, record.getStatus().name());
+                    update.setLong(2, record.getVersion());
+                    update.setBytes(3, attendance);
+                    bindKey(update, key, 4);
+                    update.setInt(7, slot);
+                    update.executeUpdate();
+                    PreparedStatement grades = database.statement(DELETE_GRADES_OF_ROW);
+                    bindKey(grades, key);
+                    grades.setInt(4, slot);
+                    grades.executeUpdate();
+                } else {
+                    PreparedStatement insert = database.statement(INSERT);
+                    bindKey(insert, key);
+                    insert.setInt(4, slot);
+                    insert.setString(5, record.getStatus().name());
+                    insert.setLong(6, record.getVersion());
+                    insert.setLong(7, count(NEXT_WAITLIST_SEQ, courseCode, semester));
+                    insert.setBytes(8, attendance);
+                    insert.executeUpdate();
+                }
+                database.batch(INSERT_GRADE, record.getGrades().entrySet(), (statement, grade) -> {
+                    bindKey(statement, key);
+                    statement.setInt(4, slot);
+                    statement.setString(5, grade.getKey().name());
+                    statement.setDouble(6, grade.getValue());
+                });
+                committed(i < rows.size() ? ChangeType.ENROLLMENT_UPDATED : ChangeType.ENROLLMENT_CREATED,
+                        i < rows.size() ? rows.get(i).enrollment() : null, record);
+            }
+            if (changed && !records.isEmpty()) {
+                PreparedStatement latest = database.statement(UPDATE_LATEST);
+                latest.setInt(1, records.size());
+                bindKey(latest, key, 2);
+                latest.executeUpdate();
+            }
+
+            SeatHold previous = hold(key);
+            SeatHold restored = hold == null ? null : new SeatHold(studentId, courseCode, semester, hold.expiresAt());
+            if (!Objects.equals(previous, restored)) {
+                if (previous != null) {
+                    execute(DELETE_HOLD, studentId, courseCode, semester);
+                }
+                if (restored != null) {
+                    insertHold(key, restored);
+                    database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_HELD, studentId, restored));
+                } else {
+                    database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_RELEASED, studentId, previous));
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns every enrollment slot of the student, ordered by semester and course.
+     */
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(@NonNull String studentId) {
+        return database.inTransaction(() -> enrollments(rows(SELECT_BY_STUDENT, SELECT_GRADES_BY_STUDENT, studentId)));
+    }
+
+    /**
+     * @throws UnsupportedOperationException always: the JDBC repositories keep no version history.
+     */
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(String studentId, Snapshot snapshot) {
+        throw new UnsupportedOperationException("Snapshot reads are not supported by the JDBC repositories");
+    }
+
+    /**
+     * Reads every row (with its grades) in one transaction, then streams them.
+     */
+    @Override
+    public Stream<Enrollment> streamEnrollments() {
+        return database.inTransaction(() -> enrollments(rows(SELECT_ALL, SELECT_ALL_GRADES))).stream();
+    }
+
+    @Override
+    public Enrollment getEnrollment(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return database.inTransaction(() -> {
+            Row current = current(new EnrollmentKey(studentId, courseCode, semester));
+            return current == null ? null : current.enrollment();
+        });
+    }
+
+    /**
+     * Replaces the current enrollment of a section if its version column is still
+     * {@code expectedVersion}. Seat accounting is not affected: use enroll/drop for that.
+     * Enrollments of frozen semesters cannot be replaced.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                                 long expectedVersion, @NonNull Enrollment updated) {
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        return database.inTransaction(() -> {
+            if (isFrozen(semester)) return false;
+            Row current = current(key);
+            if (current == null || current.enrollment().getVersion() != expectedVersion) return false;
+
+            PreparedStatement update = database.statement(UPDATE_IF_VERSION);
+            update.setString(1, updated.getStatus().name());
+            update.setLong(2, expectedVersion + 1);
+            update.setBytes(3, updated.getAttendance() == null ? new byte[0] : updated.getAttendance().toByteArray());
+            bindKey(update, key, 4);
+            update.setInt(7, current.slot());
+            update.setLong(8, expectedVersion);
+            if (update.executeUpdate() == 0) return false;
+
+            PreparedStatement delete = database.statement(DELETE_GRADES_OF_ROW);
+            bindKey(delete, key);
+            delete.setInt(4, current.slot());
+            delete.executeUpdate();
+            Map<GradeType, Double> grades = updated.getGrades() == null ? Map.of() : updated.getGrades();
+            database.batch(INSERT_GRADE, grades.entrySet(), (statement, grade) -> {
+                bindKey(statement, key);
+                statement.setInt(4, current.slot());
+                statement.setString(5, grade.getKey().name());
+                statement.setDouble(6, grade.getValue());
+            });
+
+            updated.setStudentId(studentId);
+            updated.setCourseCode(courseCode);
+            updated.setSemester(semester);
+            updated.setVersion(expectedVersion + 1);
+            committed(ChangeType.ENROLLMENT_UPDATED, current.enrollment(), updated);
+            return true;
+        });
+    }
+
+    /**
+     * Drops the student from every open section they are active in (promoting waitlists),
+     * releases their seat holds, then deletes all of their enrollment rows.
+     */
+    @Override
+    public int removeStudent(@NonNull String studentId) {
+        return database.inTransaction(() -> {
+            for (Row row : rows(SELECT_BY_STUDENT, null, studentId)) {
+                Enrollment enrollment = row.enrollment();
+                if (row.latest() && !isFrozen(enrollment.getSemester())) {
+                    leave(new EnrollmentKey(studentId, enrollment.getCourseCode(), enrollment.getSemester()), DROPPED);
+                }
+            }
+            for (String[] section : rowsOf(SELECT_HOLDS_BY_STUDENT, studentId)) {
+                SeatHold hold = hold(new EnrollmentKey(studentId, section[0], section[1]));
+                execute(DELETE_HOLD, studentId, section[0], section[1]);
+                database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_RELEASED, studentId, hold));
+                promote(new SectionKey(section[0], section[1]));
+            }
+
+            List<Row> rows = rows(SELECT_BY_STUDENT, SELECT_GRADES_BY_STUDENT, studentId);
+            execute(DELETE_GRADES_BY_STUDENT, studentId);
+            execute(DELETE_BY_STUDENT, studentId);
+            for (Row row : rows) {
+                committed(ChangeType.ENROLLMENT_DELETED, row.enrollment(), null);
+            }
+            return rows.size();
+        });
+    }
+
+    /**
+     * Deletes every enrollment, grade, seat hold and capacity setting of a course.
+     */
+    @Override
+    public int removeCourse(@NonNull String courseCode) {
+        return database.inTransaction(() -> {
+            List<Row> rows = rows(SELECT_BY_COURSE, SELECT_GRADES_BY_COURSE, courseCode);
+            execute(DELETE_GRADES_BY_COURSE, courseCode);
+            execute(DELETE_BY_COURSE, courseCode);
+            execute(DELETE_HOLDS_BY_COURSE, courseCode);
+            execute(DELETE_SECTION_CAPACITIES, courseCode);
+            execute(DELETE_COURSE_CAPACITY, courseCode);
+            for (Row row : rows) {
+                committed(ChangeType.ENROLLMENT_DELETED, row.enrollment(), null);
+            }
+            return rows.size();
+        });
+    }
+
+    /**
+     * Closes a semester: enrolling, dropping, grading, holding seats and changing its
+     * capacity are rejected from now on, and its holds and capacity overrides are deleted.
+     * Its enrollments stay readable as they are.
+     *
+     * @param semester the semester to freeze.
+     * @return number of enrollments in the semester.
+     * @throws IllegalArgumentException if the semester is already frozen.
+     */
+    @Override
+    public int freezeSemester(@NonNull String semester) {
+        return database.inTransaction(() -> {
+            if (isFrozen(semester)) {
+                throw new IllegalArgumentException("Semester " + semester + " is already frozen");
+            }
+            execute(INSERT_FROZEN, semester);
+            execute(DELETE_HOLDS_BY_SEMESTER, semester);
+            execute(DELETE_SEMESTER_CAPACITIES, semester);
+            return count(COUNT_SEMESTER, semester);
+        });
+    }
+
+    /**
+     * Sets one grade on the current enrollment of a section and bumps its version.
+     */
+    @Override
+    public Enrollment recordGrade(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                                  @NonNull GradeType gradeType, double score) {
+        if (score < 0 || score > 100 || Double.isNaN(score)) {
+            throw new IllegalArgumentException("Score must be between 0 and 100");
+        }
+        EnrollmentKey key = new EnrollmentKey(studentId, courseCode, semester);
+        return database.inTransaction(() -> {
+            requireOpen(semester);
+            Row current = current(key);
+            if (current == null) {
+                throw new IllegalArgumentException(
+                        "No enrollment for student " + studentId + " in " + courseCode + " " + semester);
+            }
+            PreparedStatement update = database.statement(UPDATE_GRADE);
+            update.setDouble(1, score);
+            bindKey(update, key, 2);
+            update.setInt(5, current.slot());
+            update.setString(6, gradeType.name());
+            if (update.executeUpdate() == 0) {
+                PreparedStatement insert = database.statement(INSERT_GRADE);
+                bindKey(insert, key);
+                insert.setInt(4, current.slot());
+                insert.setString(5, gradeType.name());
+                insert.setDouble(6, score);
+                insert.executeUpdate();
+            }
+            Enrollment updated = current.enrollment().copy();
+            updated.getGrades().put(gradeType, score);
+            updated.setVersion(updated.getVersion() + 1);
+            PreparedStatement version = database.statement(UPDATE_VERSION);
+            version.setLong(1, updated.getVersion());
+            bindKey(version, key, 2);
+            version.setInt(5, current.slot());
+            version.executeUpdate();
+            committed(ChangeType.GRADE_RECORDED, current.enrollment(), updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Returns the students enrolled (or completed) in any semester of a course.
+     */
+    @Override
+    public List<String> getStudentsForCourse(String courseCode) {
+        if (courseCode == null) return new ArrayList<>();
+        return database.inTransaction(() -> strings(SELECT_ROSTER, courseCode));
+    }
+
+    /**
+     * @throws UnsupportedOperationException always: the JDBC repositories keep no version history.
+     */
+    @Override
+    public List<String> getStudentsForCourse(String courseCode, Snapshot snapshot) {
+        throw new UnsupportedOperationException("Snapshot reads are not supported by the JDBC repositories");
+    }
+
+    /**
+     * Reads the roster from {@code student_id > cursor}, one row past the page to know
+     * whether another follows.
+     */
+    @Override
+    public Page<String> getStudentsForCourse(String courseCode, String cursor, int limit) {
+        Page.requireLimit(limit);
+        if (courseCode == null) return new Page<>(new ArrayList<>(), null);
+        return database.inTransaction(() -> {
+            PreparedStatement select = database.statement(SELECT_ROSTER_AFTER);
+            select.setString(1, courseCode);
+            select.setString(2, cursor == null ? "" : cursor);
+            select.setInt(3, limit + 1);
+            List<String> ids = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+            return Page.trimmed(ids, id -> id, limit);
+        });
+    }
+
+    /**
+     * Removes a student's active state in a section, releasing their seat or hold and
+     * promoting the waitlist if they had one. Runs inside the caller's transaction.
+     */
+    private void leave(EnrollmentKey key, EnrollmentStatus status) throws SQLException {
+        SeatHold hold = hold(key);
+        boolean held = hold != null;
+        if (held) {
+            execute(DELETE_HOLD, key.studentId(), key.courseCode(), key.semester());
+            database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_RELEASED, key.studentId(), hold));
+        }
+        Row current = current(key);
+        EnrollmentStatus prior = current == null ? null : current.enrollment().getStatus();
+        boolean seated = held || prior == ENROLLED || prior == COMPLETED;
+        if (seated || prior == WAITLISTED) {
+            if (prior == ENROLLED || prior == COMPLETED || prior == WAITLISTED) {
+                updateStatus(current, status);
+            }
+            if (seated) {
+                promote(key.section());
+            }
+        }
+    }
+
+    /**
+     * Turns the student's current hold into an enrollment. An expired hold is released instead.
+     *
+     * @return true if the student is now enrolled in the held seat.
+     */
+    private boolean confirm(EnrollmentKey key) throws SQLException {
+        SeatHold hold = hold(key);
+        if (hold == null) return false;
+        execute(DELETE_HOLD, key.studentId(), key.courseCode(), key.semester());
+        if (hold.isExpired(now())) {
+            database.afterCommit(() -> storageContext.publish(ChangeType.SEAT_RELEASED, key.studentId(), hold));
+            promote(key.section());
+            return false;
+        }
+        addEnrollment(key, current(key), ENROLLED);
+        return true;
+    }
+
+    /**
+     * Promotes waitlisted students in FIFO order while seats are free.
+     */
+    private void promote(SectionKey section) throws SQLException {
+        int free = freeSeats(section);
+        if (free <= 0) return;
+        List<Row> waitlisted = rows(SELECT_WAITLISTED, null, section.courseCode(), section.semester());
+        for (int i = 0; i < waitlisted.size() && i < free; i++) {
+            Row row = waitlisted.get(i);
+            Enrollment enrollment = row.enrollment();
+            loadGrades(row, new EnrollmentKey(enrollment.getStudentId(), section.courseCode(), section.semester()));
+            updateStatus(row, ENROLLED);
+        }
+    }
+
+    /**
+     * Inserts the slot of a (re-)enrollment at the end of the section's waitlist order. Its
+     * version continues from the previous slot of the same key, which stops being current.
+     */
+    private Row addEnrollment(EnrollmentKey key, Row previous, EnrollmentStatus status) throws SQLException {
+        int slot = 1;
+        long version = 1;
+        if (previous != null) {
+            slot = previous.slot() + 1;
+            version = previous.enrollment().getVersion() + 1;
+            PreparedStatement retire = database.statement(RETIRE);
+            bindKey(retire, key);
+            retire.setInt(4, previous.slot());
+            retire.executeUpdate();
+        }
+        PreparedStatement insert = database.statement(INSERT);
+        bindKey(insert, key);
+        insert.setInt(4, slot);
+        insert.setString(5, status.name());
+        insert.setLong(6, version);
+        insert.setLong(7, count(NEXT_WAITLIST_SEQ, key.courseCode(), key.semester()));
+        insert.setBytes(8, new byte[0]);
+        insert.executeUpdate();
+
+        Enrollment enrollment = new Enrollment(key.studentId(), key.courseCode(), key.semester(), status,
+                new EnumMap<>(GradeType.class), new BitSet(), version);
+        committed(ChangeType.ENROLLMENT_CREATED, null, enrollment);
+        return new Row(slot, true, enrollment);
+    }
+
+    /**
+     * Sets the status of an enrollment slot and bumps its version.
+     */
+    private void updateStatus(Row row, EnrollmentStatus status) throws SQLException {
+        Enrollment current = row.enrollment();
+        if (current.getStatus() == status) return;
+        Enrollment updated = current.copy();
+        updated.setStatus(status);
+        updated.setVersion(current.getVersion() + 1);
+
+        PreparedStatement update = database.statement(UPDATE_STATUS);
+        update.setString(1, status.name());
+        update.setLong(2, updated.getVersion());
+        update.setString(3, updated.getStudentId());
+        update.setString(4, updated.getCourseCode());
+        update.setString(5, updated.getSemester());
+        update.setInt(6, row.slot());
+        update.executeUpdate();
+        committed(statusChange(status), current, updated);
+    }
+
+    private static ChangeType statusChange(EnrollmentStatus status) {
+        return switch (status) {
+            case ENROLLED -> ChangeType.ENROLLMENT_CONFIRMED;
+            case WITHDRAWN -> ChangeType.ENROLLMENT_WITHDRAWN;
+            case COMPLETED -> ChangeType.ENROLLMENT_COMPLETED;
+            default -> ChangeType.ENROLLMENT_DROPPED;
+        };
+    }
+
+    /**
+     * Publishes an enrollment change, records it in the enrollment ledger and applies it to
+     * the enrollment views and registration metrics, if any, once the transaction commits.
+     *
+     * @param before the record before the change, or null if it was created.
+     * @param after the record after the change, or null if it was deleted.
+     */
+    private void committed(ChangeType type, Enrollment before, Enrollment after) {
+        Enrollment enrollment = after != null ? after : before;
+        database.afterCommit(() -> {
+            storageContext.publish(type, enrollment.getStudentId(), enrollment);
+            EnrollmentLedger history = storageContext.getEnrollmentLedger();
+            if (history != null) {
+                history.append(type, enrollment);
+            }
+            EnrollmentViews views = storageContext.getEnrollmentViews();
+            if (views != null) {
+                views.apply(before, after);
+            }
+            RegistrationMetrics metrics = storageContext.getRegistrationMetrics();
+            if (metrics != null) {
+                metrics.record(before, after);
+            }
+        });
+    }
+
+    /**
+     * @return the active state of a student in a section (as {@link SeatLedger} tracks it
+     *         in memory), or null if none.
+     */
+    private SeatLedger.State stateOf(EnrollmentKey key, Row current) throws SQLException {
+        if (hold(key) != null) return SeatLedger.State.HELD;
+        return current == null ? null : SeatLedger.State.of(current.enrollment().getStatus());
+    }
+
+    /**
+     * @return free seats in a section ({@link SeatLedger#UNLIMITED} without a limit).
+     */
+    private int freeSeats(SectionKey section) throws SQLException {
+        int capacity = capacity(section);
+        if (capacity == SeatLedger.UNLIMITED) return SeatLedger.UNLIMITED;
+        int taken = count(COUNT_SEATED, section.courseCode(), section.semester())
+                + count(COUNT_HOLDS, section.courseCode(), section.semester());
+        return Math.max(0, capacity - taken);
+    }
+
+    private int capacity(SectionKey section) throws SQLException {
+        List<String> capacity = strings(SELECT_SECTION_CAPACITY, section.courseCode(), section.semester());
+        if (capacity.isEmpty()) {
+            capacity = strings(SELECT_COURSE_CAPACITY, section.courseCode());
+        }
+        int seats = capacity.isEmpty() ? 0 : Integer.parseInt(capacity.get(0));
+        return seats == 0 ? SeatLedger.UNLIMITED : seats;
+    }
+
+    private SeatHold hold(EnrollmentKey key) throws SQLException {
+        PreparedStatement select = database.statement(SELECT_HOLD);
+        bindKey(select, key);
+        try (ResultSet rs = select.executeQuery()) {
+            if (!rs.next()) return null;
+            return new SeatHold(key.studentId(), key.courseCode(), key.semester(),
+                    Instant.ofEpochSecond(rs.getLong(1), rs.getInt(2)));
+        }
+    }
+
+    private void insertHold(EnrollmentKey key, SeatHold hold) throws SQLException {
+        PreparedStatement insert = database.statement(INSERT_HOLD);
+        bindKey(insert, key);
+        insert.setLong(4, hold.expiresAt().getEpochSecond());
+        insert.setInt(5, hold.expiresAt().getNano());
+        insert.executeUpdate();
+    }
+
+    /**
+     * Deletes one slot of a key and its grades.
+     */
+    private void deleteRow(EnrollmentKey key, int slot) throws SQLException {
+        for (String sql : new String[]{DELETE_GRADES_OF_ROW, DELETE_ROW}) {
+            PreparedStatement delete = database.statement(sql);
+            bindKey(delete, key);
+            delete.setInt(4, slot);
+            delete.executeUpdate();
+        }
+    }
+
+    private Row current(EnrollmentKey key) throws SQLException {
+        List<Row> rows = rows(SELECT_CURRENT, null, key.studentId(), key.courseCode(), key.semester());
+        if (rows.isEmpty()) return null;
+        Row row = rows.get(0);
+        loadGrades(row, key);
+        return row;
+    }
+
+    /**
+     * Reads enrollment rows, then their grades with a second query taking the same parameters.
+     *
+     * @param gradeSql the grade query, or null to leave grades empty.
+     */
+    private List<Row> rows(String rowSql, String gradeSql, String... parameters) throws SQLException {
+        List<Row> rows = new ArrayList<>();
+        PreparedStatement select = database.statement(rowSql);
+        bind(select, parameters);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                byte[] attendance = rs.getBytes(7);
+                rows.add(new Row(rs.getInt(4), rs.getBoolean(8),
+                        new Enrollment(rs.getString(1), rs.getString(2), rs.getString(3),
+                                EnrollmentStatus.valueOf(rs.getString(5)), new EnumMap<>(GradeType.class),
+                                attendance == null ? new BitSet() : BitSet.valueOf(attendance), rs.getLong(6))));
+            }
+        }
+        if (gradeSql != null && !rows.isEmpty()) {
+            attachGrades(rows, gradeSql, parameters);
+        }
+        return rows;
+    }
+
+    private void loadGrades(Row row, EnrollmentKey key) throws SQLException {
+        attachGrades(List.of(row), SELECT_GRADES_OF_KEY, key.studentId(), key.courseCode(), key.semester());
+    }
+
+    private void attachGrades(List<Row> rows, String gradeSql, String... parameters) throws SQLException {
+        Map<List<Object>, Enrollment> bySlot = new HashMap<>();
+        for (Row row : rows) {
+            Enrollment enrollment = row.enrollment();
+            bySlot.put(List.of(enrollment.getStudentId(), enrollment.getCourseCode(), enrollment.getSemester(), row.slot()),
+                    enrollment);
+        }
+        PreparedStatement select = database.statement(gradeSql);
+        bind(select, parameters);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                Enrollment enrollment = bySlot.get(List.of(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+                if (enrollment != null) {
+                    enrollment.getGrades().put(GradeType.valueOf(rs.getString(5)), rs.getDouble(6));
+                }
+            }
+        }
+    }
+
+    private static List<Enrollment> enrollments(List<Row> rows) {
+        List<Enrollment> result = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            result.add(row.enrollment());
+        }
+        return result;
+    }
+
+    private boolean isFrozen(String semester) throws SQLException {
+        return !strings(SELECT_FROZEN, semester).isEmpty();
+    }
+
+    private void requireOpen(String semester) throws SQLException {
+        if (isFrozen(semester)) {
+            throw new IllegalArgumentException("Semester " + semester + " is frozen");
+        }
+    }
+
+    /**
+     * Updates a capacity row, inserting it if there is none. Both statements take the
+     * capacity first, then the key columns.
+     */
+    private void upsert(String updateSql, String insertSql, int capacity, String... key) throws SQLException {
+        for (String sql : new String[]{updateSql, insertSql}) {
+            PreparedStatement statement = database.statement(sql);
+            statement.setInt(1, capacity);
+            for (int i = 0; i < key.length; i++) {
+                statement.setString(i + 2, key[i]);
+            }
+            if (statement.executeUpdate() > 0) return;
+        }
+    }
+
+    private void execute(String sql, String... parameters) throws SQLException {
+        PreparedStatement statement = database.statement(sql);
+        bind(statement, parameters);
+        statement.executeUpdate();
+    }
+
+    private int count(String sql, String... parameters) throws SQLException {
+        PreparedStatement select = database.statement(sql);
+        bind(select, parameters);
+        try (ResultSet rs = select.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * @return the first column of every result row, as strings.
+     */
+    private List<String> strings(String sql, String... parameters) throws SQLException {
+        List<String> result = new ArrayList<>();
+        for (String[] row : rowsOf(sql, parameters)) {
+            result.add(row[0]);
+        }
+        return result;
+    }
+
+    private List<String[]> rowsOf(String sql, String... parameters) throws SQLException {
+        List<String[]> result = new ArrayList<>();
+        PreparedStatement select = database.statement(sql);
+        bind(select, parameters);
+        try (ResultSet rs = select.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                String[] row = new String[columns];
+                for (int i = 0; i < columns; i++) {
+                    row[i] = rs.getString(i + 1);
+                }
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static void bind(PreparedStatement statement, String... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setString(i + 1, parameters[i]);
+        }
+    }
+
+    private static void bindKey(PreparedStatement statement, EnrollmentKey key) throws SQLException {
+        bindKey(statement, key, 1);
+    }
+
+    private static void bindKey(PreparedStatement statement, EnrollmentKey key, int first) throws SQLException {
+        statement.setString(first, key.studentId());
+        statement.setString(first + 1, key.courseCode());
+        statement.setString(first + 2, key.semester());
+    }
+
+    private Instant now() {
+        return storageContext.getClock().instant();
+    }
+
+    private static void validateCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+    }
+
+    /** One enrollment slot as read from the table. */
+    private record Row(int slot, boolean latest, Enrollment enrollment) {
+    }
+}
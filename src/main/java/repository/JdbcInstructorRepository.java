@@ -0,0 +1,280 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import model.Instructor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static util.StringUtils.tokenize;
+
+/**
+ * JDBC implementation of the InstructorRepository interface.
+ *
+ * Responsibilities:
+ * - Store instructors, the courses they teach and their name tokens in a {@link JdbcDatabase}.
+ * - Answer the same indexed lookups as {@link InMemoryInstructorRepository}: by name token,
+ *   by course and by department.
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
+ *
+ * Tables:
+ * - instructors (id primary key, indexed by department): one row per instructor.
+ * - instructor_courses (instructor_id, course_code), also indexed by course: courses taught.
+ * - instructor_name_tokens (token, instructor_id): the lowercase name-token index.
+ *
+ * Every lookup is two indexed queries (instructors, then the courses they teach).
+ */
+public class JdbcInstructorRepository implements InstructorRepository {
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS instructors (id VARCHAR(64) PRIMARY KEY, name VARCHAR(255),"
+                    + " department VARCHAR(64))",
+            "CREATE INDEX IF NOT EXISTS instructors_by_department ON instructors (department)",
+            "CREATE TABLE IF NOT EXISTS instructor_courses (instructor_id VARCHAR(64) NOT NULL,"
+                    + " course_code VARCHAR(64) NOT NULL, PRIMARY KEY (instructor_id, course_code))",
+            "CREATE INDEX IF NOT EXISTS instructor_courses_by_course ON instructor_courses (course_code)",
+            "CREATE TABLE IF NOT EXISTS instructor_name_tokens (token VARCHAR(255) NOT NULL,"
+                    + " instructor_id VARCHAR(64) NOT NULL, PRIMARY KEY (token, instructor_id))",
+            "CREATE INDEX IF NOT EXISTS instructor_name_tokens_by_instructor ON instructor_name_tokens (instructor_id)"
+    };
+
+    private static final String INSERT = "INSERT INTO instructors (id, name, department) VALUES (?, ?, ?)";
+    private static final String INSERT_COURSE =
+            "INSERT INTO instructor_courses (instructor_id, course_code) VALUES (?, ?)";
+    private static final String INSERT_TOKEN = "INSERT INTO instructor_name_tokens (token, instructor_id) VALUES (?, ?)";
+    private static final String SELECT_BY_ID = "SELECT id, name, department FROM instructors WHERE id = ?";
+    private static final String SELECT_COURSES =
+            "SELECT instructor_id, course_code FROM instructor_courses WHERE instructor_id = ?";
+    private static final String SELECT_BY_TOKEN = "SELECT i.id, i.name, i.department FROM instructor_name_tokens t"
+            + " JOIN instructors i ON i.id = t.instructor_id WHERE t.token = ?";
+    private static final String SELECT_COURSES_BY_TOKEN = "SELECT c.instructor_id, c.course_code FROM instructor_name_tokens t"
+            + " JOIN instructor_courses c ON c.instructor_id = t.instructor_id WHERE t.token = ?";
+    private static final String SELECT_BY_COURSE = "SELECT i.id, i.name, i.department FROM instructor_courses c"
+            + " JOIN instructors i ON i.id = c.instructor_id WHERE c.course_code = ?";
+    private static final String SELECT_COURSES_BY_COURSE = "SELECT t.instructor_id, t.course_code FROM instructor_courses c"
+            + " JOIN instructor_courses t ON t.instructor_id = c.instructor_id WHERE c.course_code = ?";
+    private static final String SELECT_BY_DEPARTMENT = "SELECT id, name, department FROM instructors WHERE department = ?";
+    private static final String SELECT_COURSES_BY_DEPARTMENT = "SELECT c.instructor_id, c.course_code FROM instructors i"
+            + " JOIN instructor_courses c ON c.instructor_id = i.id WHERE i.department = ?";
+    private static final String SELECT_ALL = "SELECT id, name, department FROM instructors ORDER BY id";
+    private static final String SELECT_ALL_COURSES = "SELECT instructor_id, course_code FROM instructor_courses";
+    private static final String SELECT_EXISTS = "SELECT 1 FROM instructors WHERE id = ?";
+    private static final String SELECT_ASSIGNMENT =
+            "SELECT 1 FROM instructor_courses WHERE instructor_id = ? AND course_code = ?";
+    private static final String DELETE = "DELETE FROM instructors WHERE id = ?";
+    private static final String DELETE_COURSE =
+            "DELETE FROM instructor_courses WHERE instructor_id = ? AND course_code = ?";
+    private static final String DELETE_COURSES = "DELETE FROM instructor_courses WHERE instructor_id = ?";
+    private static final String DELETE_TOKENS = "DELETE FROM instructor_name_tokens WHERE instructor_id = ?";
+
+    private final JdbcDatabase database;
+
+    /**
+     * Storage settings (clock and change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with default storage settings.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     */
+    public JdbcInstructorRepository(@NonNull JdbcDatabase database) {
+        this(database, StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository publishing to the context's change feed.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public JdbcInstructorRepository(@NonNull JdbcDatabase database, @NonNull StorageContext storageContext) {
+        this.database = database;
+        this.storageContext = storageContext;
+        database.createSchema(SCHEMA);
+    }
+
+    /**
+     * Creates an instructor together with the courses they teach.
+     *
+     * @throws IllegalArgumentException if the ID is null or taken.
+     */
+    @Override
+    public void createInstructor(@NonNull Instructor instructor) {
+        String id = instructor.getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Instructor with this ID already exists or is invalid");
+        }
+        Set<String> coursesTaught = instructor.getCoursesTaught() == null
+                ? new HashSet<>() : new HashSet<>(instructor.getCoursesTaught());
+        List<String[]> courses = new ArrayList<>();
+        for (String courseCode : coursesTaught) {
+            courses.add(new String[]{id, courseCode});
+        }
+        Set<String> tokens = new HashSet<>();
+        for (String token : tokenize(instructor.getName())) {
+            tokens.add(token.toLowerCase());
+        }
+        List<String[]> tokenRows = new ArrayList<>();
+        for (String token : tokens) {
+            tokenRows.add(new String[]{token, id});
+        }
+        try {
+            database.inTransaction(() -> {
+                PreparedStatement insert = database.statement(INSERT);
+                insert.setString(1, id);
+                insert.setString(2, instructor.getName());
+                insert.setString(3, instructor.getDepartment());
+                insert.executeUpdate();
+                database.batch(INSERT_COURSE, courses, JdbcDatabase::bindStrings);
+                database.batch(INSERT_TOKEN, tokenRows, JdbcDatabase::bindStrings);
+                instructor.setCoursesTaught(coursesTaught);
+                database.afterCommit(() -> storageContext.publish(ChangeType.INSTRUCTOR_CREATED, id, instructor));
+                return null;
+            });
+        } catch (JdbcDatabase.ConstraintViolation e) {
+            throw new IllegalArgumentException("Instructor with this ID already exists or is invalid");
+        }
+    }
+
+    @Override
+    public Instructor getById(String id) {
+        if (id == null) return null;
+        return database.inTransaction(() -> {
+            List<Instructor> found = query(SELECT_BY_ID, SELECT_COURSES, id);
+            return found.isEmpty() ? null : found.get(0);
+        });
+    }
+
+    @Override
+    public List<Instructor> searchByNameToken(String token) {
+        String key = token.toLowerCase();
+        return database.inTransaction(() -> query(SELECT_BY_TOKEN, SELECT_COURSES_BY_TOKEN, key));
+    }
+
+    @Override
+    public List<Instructor> findByCourse(@NonNull String courseCode) {
+        return database.inTransaction(() -> query(SELECT_BY_COURSE, SELECT_COURSES_BY_COURSE, courseCode));
+    }
+
+    @Override
+    public List<Instructor> findByDepartment(@NonNull String departmentId) {
+        return database.inTransaction(() -> query(SELECT_BY_DEPARTMENT, SELECT_COURSES_BY_DEPARTMENT, departmentId));
+    }
+
+    /**
+     * Lists all instructors sorted by ID.
+     */
+    @Override
+    public List<Instructor> listAll() {
+        return database.inTransaction(() -> query(SELECT_ALL, SELECT_ALL_COURSES, null));
+    }
+
+    @Override
+    public void assignCourse(@NonNull String instructorId, @NonNull String courseCode) {
+        assignCourse(instructorId, courseCode, taught -> { });
+    }
+
+    /**
+     * Assigns a course if the check passes; the check runs inside the assigning transaction.
+     */
+    @Override
+    public void assignCourse(@NonNull String instructorId, @NonNull String courseCode,
+                             @NonNull Consumer<Set<String>> check) {
+        database.inTransaction(() -> {
+            PreparedStatement exists = database.statement(SELECT_EXISTS);
+            exists.setString(1, instructorId);
+            try (ResultSet rs = exists.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalArgumentException("Instructor not found: " + instructorId);
+                }
+            }
+            PreparedStatement select = database.statement(SELECT_ASSIGNMENT);
+            select.setString(1, instructorId);
+            select.setString(2, courseCode);
+            try (ResultSet rs = select.executeQuery()) {
+                if (rs.next()) return null;
+            }
+            PreparedStatement courses = database.statement(SELECT_COURSES);
+            courses.setString(1, instructorId);
+            Set<String> taught = new HashSet<>();
+            try (ResultSet rs = courses.executeQuery()) {
+                while (rs.next()) {
+                    taught.add(rs.getString(2));
+                }
+            }
+            check.accept(Collections.unmodifiableSet(taught));
+            PreparedStatement insert = database.statement(INSERT_COURSE);
+            insert.setString(1, instructorId);
+            insert.setString(2, courseCode);
+            insert.executeUpdate();
+            database.afterCommit(() -> storageContext.publish(ChangeType.INSTRUCTOR_COURSE_ASSIGNED, instructorId, courseCode));
+            return null;
+        });
+    }
+
+    @Override
+    public void unassignCourse(@NonNull String instructorId, @NonNull String courseCode) {
+        database.inTransaction(() -> {
+            PreparedStatement delete = database.statement(DELETE_COURSE);
+            delete.setString(1, instructorId);
+            delete.setString(2, courseCode);
+            if (delete.executeUpdate() > 0) {
+                database.afterCommit(() -> storageContext.publish(ChangeType.INSTRUCTOR_COURSE_UNASSIGNED, instructorId, courseCode));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteInstructor(String id) {
+        if (id == null) return;
+        database.inTransaction(() -> {
+            for (String sql : new String[]{DELETE_TOKENS, DELETE_COURSES}) {
+                PreparedStatement delete = database.statement(sql);
+                delete.setString(1, id);
+                delete.executeUpdate();
+            }
+            PreparedStatement delete = database.statement(DELETE);
+            delete.setString(1, id);
+            if (delete.executeUpdate() > 0) {
+                database.afterCommit(() -> storageContext.publish(ChangeType.INSTRUCTOR_DELETED, id, null));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Runs an instructor query and the matching courses-taught query, binding the
+     * parameter to both unless it is null.
+     */
+    private List<Instructor> query(String instructorSql, String courseSql, String parameter) throws SQLException {
+        Map<String, Instructor> instructors = new LinkedHashMap<>();
+        PreparedStatement select = database.statement(instructorSql);
+        if (parameter != null) select.setString(1, parameter);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                instructors.put(rs.getString(1),
+                        new Instructor(rs.getString(1), rs.getString(2), new HashSet<>(), rs.getString(3)));
+            }
+        }
+        if (instructors.isEmpty()) return new ArrayList<>();
+
+        PreparedStatement courses = database.statement(courseSql);
+        if (parameter != null) courses.setString(1, parameter);
+        try (ResultSet rs = courses.executeQuery()) {
+            while (rs.next()) {
+                Instructor instructor = instructors.get(rs.getString(1));
+                if (instructor != null) {
+                    instructor.getCoursesTaught().add(rs.getString(2));
+                }
+            }
+        }
+        return new ArrayList<>(instructors.values());
+    }
+}
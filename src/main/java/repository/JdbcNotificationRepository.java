@@ -0,0 +1,255 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import model.Notification;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * JDBC implementation of the NotificationRepository interface.
+ *
+ * Responsibilities:
+ * - Store notifications in a {@link JdbcDatabase}, one row each.
+ * - Look them up by recipient and list pending ones through indexes on those columns.
+ * - Queue many notifications at once with JDBC batches ({@link #addNotifications}).
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
+ *
+ * Sent notifications stay in the table: the database pages cold rows out on its own, so
+ * there is no separate cold tier as with {@link TieredStorage}. Results are ordered by ID.
+ */
+public class JdbcNotificationRepository implements NotificationRepository {
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS notifications (id VARCHAR(64) PRIMARY KEY, recipient_id VARCHAR(64),"
+                    + " message VARCHAR, scheduled_time TIMESTAMP, sent BOOLEAN NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS notifications_by_recipient ON notifications (recipient_id)",
+            "CREATE INDEX IF NOT EXISTS notifications_by_sent ON notifications (sent)"
+    };
+
+    private static final String COLUMNS = "id, recipient_id, message, scheduled_time, sent";
+    private static final String INSERT = "INSERT INTO notifications (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS + " FROM notifications WHERE id = ?";
+    private static final String SELECT_BY_RECIPIENT =
+            "SELECT " + COLUMNS + " FROM notifications WHERE recipient_id = ? ORDER BY id";
+    private static final String SELECT_PENDING = "SELECT " + COLUMNS + " FROM notifications WHERE sent = FALSE ORDER BY id";
+    private static final String SELECT_BY_RECIPIENT_AFTER =
+            "SELECT " + COLUMNS + " FROM notifications WHERE recipient_id = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_PENDING_AFTER =
+            "SELECT " + COLUMNS + " FROM notifications WHERE sent = FALSE AND id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_IDS_BY_RECIPIENT = "SELECT id FROM notifications WHERE recipient_id = ?";
+    private static final String MARK_SENT = "UPDATE notifications SET sent = TRUE WHERE id = ?";
+    private static final String DELETE = "DELETE FROM notifications WHERE id = ?";
+    private static final String DELETE_BY_RECIPIENT = "DELETE FROM notifications WHERE recipient_id = ?";
+
+    private final JdbcDatabase database;
+
+    /**
+     * Storage settings (clock and change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with default storage settings.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     */
+    public JdbcNotificationRepository(@NonNull JdbcDatabase database) {
+        this(database, StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository publishing to the context's change feed.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public JdbcNotificationRepository(@NonNull JdbcDatabase database, @NonNull StorageContext storageContext) {
+        this.database = database;
+        this.storageContext = storageContext;
+        database.createSchema(SCHEMA);
+    }
+
+    /**
+     * Stores a notification. A notification whose ID is already stored is ignored.
+     */
+    @Override
+    public void addNotification(@NonNull Notification notification) {
+        database.inTransaction(() -> {
+            if (find(notification.getId()) == null) {
+                insert(notification);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Stores many notifications in one transaction, sending the rows as JDBC batches.
+     * Notifications whose ID is already stored are ignored, as with {@link #addNotification}.
+     *
+     * @param notifications the notifications to store.
+     */
+    public void addNotifications(@NonNull Collection<Notification> notifications) {
+        try {
+            database.inTransaction(() -> {
+                database.batch(INSERT, notifications, JdbcNotificationRepository::bind);
+                for (Notification notification : notifications) {
+                    database.afterCommit(() -> storageContext.publish(
+                            ChangeType.NOTIFICATION_CREATED, notification.getId(), notification));
+                }
+                return null;
+            });
+        } catch (JdbcDatabase.ConstraintViolation e) {
+            // Some IDs are taken: the batch rolled back, so insert row by row skipping those.
+            for (Notification notification : notifications) {
+                addNotification(notification);
+            }
+        }
+    }
+
+    @Override
+    public List<Notification> getNotificationsForRecipient(String recipientId) {
+        if (recipientId == null) return new ArrayList<>();
+        return database.inTransaction(() -> query(SELECT_BY_RECIPIENT, recipientId));
+    }
+
+    @Override
+    public List<Notification> getPendingNotifications() {
+        return database.inTransaction(() -> query(SELECT_PENDING, null));
+    }
+
+    @Override
+    public Page<Notification> getNotificationsForRecipient(String recipientId, String cursor, int limit) {
+        Page.requireLimit(limit);
+        if (recipientId == null) return new Page<>(new ArrayList<>(), null);
+        return database.inTransaction(() -> page(SELECT_BY_RECIPIENT_AFTER, limit, recipientId, cursor));
+    }
+
+    @Override
+    public Page<Notification> getPendingNotifications(String cursor, int limit) {
+        Page.requireLimit(limit);
+        return database.inTransaction(() -> page(SELECT_PENDING_AFTER, limit, cursor));
+    }
+
+    /**
+     * Marks a notification as sent.
+     *
+     * @throws NullPointerException if no notification has this ID.
+     */
+    @Override
+    public void markAsSent(@NonNull String notificationId) {
+        database.inTransaction(() -> {
+            Notification notification = Objects.requireNonNull(find(notificationId),
+                    "Notification not found: " + notificationId);
+            PreparedStatement update = database.statement(MARK_SENT);
+            update.setString(1, notificationId);
+            update.executeUpdate();
+            notification.setSent(true);
+            database.afterCommit(() -> storageContext.publish(ChangeType.NOTIFICATION_SENT, notificationId, notification));
+            return null;
+        });
+    }
+
+    /**
+     * Deletes a notification.
+     *
+     * @throws NullPointerException if no notification has this ID.
+     */
+    @Override
+    public void deleteNotification(@NonNull String notificationId) {
+        database.inTransaction(() -> {
+            PreparedStatement delete = database.statement(DELETE);
+            delete.setString(1, notificationId);
+            if (delete.executeUpdate() == 0) {
+                throw new NullPointerException("Notification not found: " + notificationId);
+            }
+            database.afterCommit(() -> storageContext.publish(ChangeType.NOTIFICATION_DELETED, notificationId, null));
+            return null;
+        });
+    }
+
+    @Override
+    public int deleteForRecipient(@NonNull String recipientId) {
+        return database.inTransaction(() -> {
+            List<String> ids = new ArrayList<>();
+            PreparedStatement select = database.statement(SELECT_IDS_BY_RECIPIENT);
+            select.setString(1, recipientId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+            if (ids.isEmpty()) return 0;
+            PreparedStatement delete = database.statement(DELETE_BY_RECIPIENT);
+            delete.setString(1, recipientId);
+            delete.executeUpdate();
+            for (String id : ids) {
+                database.afterCommit(() -> storageContext.publish(ChangeType.NOTIFICATION_DELETED, id, null));
+            }
+            return ids.size();
+        });
+    }
+
+    private void insert(Notification notification) throws SQLException {
+        PreparedStatement insert = database.statement(INSERT);
+        bind(insert, notification);
+        insert.executeUpdate();
+        database.afterCommit(() -> storageContext.publish(
+                ChangeType.NOTIFICATION_CREATED, notification.getId(), notification));
+    }
+
+    private Notification find(String notificationId) throws SQLException {
+        List<Notification> found = query(SELECT_BY_ID, notificationId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Runs a notification query, binding the parameter unless it is null.
+     */
+    private List<Notification> query(String sql, String parameter) throws SQLException {
+        PreparedStatement select = database.statement(sql);
+        if (parameter != null) select.setString(1, parameter);
+        return read(select);
+    }
+
+    /**
+     * Runs a page query whose last two parameters are the cursor ({@code id > ?}) and the
+     * row limit, reading one row past the page to know whether another follows.
+     *
+     * @param parameters the leading parameters, then the cursor (null for the first page).
+     */
+    private Page<Notification> page(String sql, int limit, String... parameters) throws SQLException {
+        PreparedStatement select = database.statement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            String parameter = parameters[i];
+            select.setString(i + 1, parameter == null ? "" : parameter);
+        }
+        select.setInt(parameters.length + 1, limit + 1);
+        return Page.trimmed(read(select), Notification::getId, limit);
+    }
+
+    private static List<Notification> read(PreparedStatement select) throws SQLException {
+        List<Notification> result = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                Timestamp scheduled = rs.getTimestamp(4);
+                result.add(new Notification(rs.getString(1), rs.getString(2), rs.getString(3),
+                        scheduled == null ? null : scheduled.toLocalDateTime(), rs.getBoolean(5)));
+            }
+        }
+        return result;
+    }
+
+    private static void bind(PreparedStatement statement, Notification notification) throws SQLException {
+        statement.setString(1, notification.getId());
+        statement.setString(2, notification.getRecipientId());
+        statement.setString(3, notification.getMessage());
+        statement.setTimestamp(4, notification.getScheduledTime() == null
+                ? null : Timestamp.valueOf(notification.getScheduledTime()));
+        statement.setBoolean(5, notification.isSent());
+    }
+}
@@ -0,0 +1,317 @@
+package repository;
+
+import events.ChangeType;
+import lombok.NonNull;
+import model.Student;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static util.StringUtils.tokenize;
+
+/**
+ * JDBC implementation of the StudentRepository interface.
+ *
+ * Responsibilities:
+ * - Store students, their profile attributes and their name tokens in a {@link JdbcDatabase}.
+ * - Enforce unique IDs and emails with the table's primary key and unique constraint.
+ * - Replace students with an optimistic compare-and-set on their version column.
+ * - Load many students at once with JDBC batches ({@link #createStudents}) and read many
+ *   with one query per table ({@link #getByIds}).
+ * - Publish every committed change on the context's {@link events.ChangeFeed}.
+ *
+ * Tables:
+ * - students (id primary key, email unique): one row per student.
+ * - student_attributes (student_id, name): the flexible key/value profile fields.
+ * - student_name_tokens (token, student_id): the lowercase name-token index of
+ *   {@link InMemoryStudentRepository}; its primary key makes a token lookup an index range scan.
+ *
+ * Deletes remove the rows at once, so there are no tombstones to compact. The
+ * {@code enrolledCourses} set is not stored: enrollments live in the enrollment repository.
+ * Snapshot reads are not supported.
+ */
+public class JdbcStudentRepository implements StudentRepository {
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS students (id VARCHAR(64) PRIMARY KEY, full_name VARCHAR(255),"
+                    + " email VARCHAR(255) NOT NULL UNIQUE, phone VARCHAR(64), version BIGINT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS student_attributes (student_id VARCHAR(64) NOT NULL,"
+                    + " name VARCHAR(255) NOT NULL, attribute_value VARCHAR, PRIMARY KEY (student_id, name))",
+            "CREATE TABLE IF NOT EXISTS student_name_tokens (token VARCHAR(255) NOT NULL,"
+                    + " student_id VARCHAR(64) NOT NULL, PRIMARY KEY (token, student_id))",
+            "CREATE INDEX IF NOT EXISTS student_name_tokens_by_student ON student_name_tokens (student_id)"
+    };
+
+    private static final String INSERT =
+            "INSERT INTO students (id, full_name, email, phone, version) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ATTRIBUTE =
+            "INSERT INTO student_attributes (student_id, name, attribute_value) VALUES (?, ?, ?)";
+    private static final String INSERT_TOKEN =
+            "INSERT INTO student_name_tokens (token, student_id) VALUES (?, ?)";
+    private static final String SELECT_BY_ID =
+            "SELECT id, full_name, email, phone, version FROM students WHERE id = ?";
+    private static final String SELECT_ATTRIBUTES =
+            "SELECT student_id, name, attribute_value FROM student_attributes WHERE student_id = ?";
+    private static final String SELECT_BY_IDS =
+            "SELECT id, full_name, email, phone, version FROM students WHERE id = ANY(?)";
+    private static final String SELECT_ATTRIBUTES_BY_IDS =
+            "SELECT student_id, name, attribute_value FROM student_attributes WHERE student_id = ANY(?)";
+    private static final String SELECT_BY_TOKEN =
+            "SELECT s.id, s.full_name, s.email, s.phone, s.version FROM student_name_tokens t"
+                    + " JOIN students s ON s.id = t.student_id WHERE t.token = ?";
+    private static final String SELECT_ATTRIBUTES_BY_TOKEN =
+            "SELECT a.student_id, a.name, a.attribute_value FROM student_name_tokens t"
+                    + " JOIN student_attributes a ON a.student_id = t.student_id WHERE t.token = ?";
+    private static final String SELECT_EMAIL_OWNER = "SELECT id FROM students WHERE email = ?";
+    private static final String UPDATE =
+            "UPDATE students SET full_name = ?, email = ?, phone = ?, version = ? WHERE id = ? AND version = ?";
+    private static final String DELETE = "DELETE FROM students WHERE id = ?";
+    private static final String DELETE_ATTRIBUTES = "DELETE FROM student_attributes WHERE student_id = ?";
+    private static final String DELETE_TOKENS = "DELETE FROM student_name_tokens WHERE student_id = ?";
+
+    private final JdbcDatabase database;
+
+    /**
+     * Storage settings (clock and change feed).
+     */
+    private final StorageContext storageContext;
+
+    /**
+     * Creates a repository with default storage settings.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     */
+    public JdbcStudentRepository(@NonNull JdbcDatabase database) {
+        this(database, StorageContext.standard());
+    }
+
+    /**
+     * Creates a repository publishing to the context's change feed.
+     *
+     * @param database the database, usually shared with the other JDBC repositories.
+     * @param storageContext the storage context, usually shared with the other repositories.
+     */
+    public JdbcStudentRepository(@NonNull JdbcDatabase database, @NonNull StorageContext storageContext) {
+        this.database = database;
+        this.storageContext = storageContext;
+        database.createSchema(SCHEMA);
+    }
+
+    /**
+     * Adds a new student.
+     *
+     * @throws IllegalArgumentException if the student, ID or email is null, or the ID or
+     *                                  email is already taken.
+     */
+    @Override
+    public void createStudent(Student student) {
+        createStudents(Collections.singletonList(student));
+    }
+
+    /**
+     * Adds many students in one transaction, sending the rows as JDBC batches. Either all
+     * of them are added or, if one is invalid or taken, none is.
+     *
+     * @param students the students to add.
+     * @throws IllegalArgumentException as for {@link #createStudent}.
+     */
+    public void createStudents(@NonNull Collection<Student> students) {
+        List<String[]> attributes = new ArrayList<>();
+        List<String[]> tokens = new ArrayList<>();
+        for (Student student : students) {
+            if(student == null){ throw new IllegalArgumentException("Student cannot be null");}
+            if (student.getId() == null || student.getEmail() == null) {
+                throw new IllegalArgumentException("Student, id, email cannot be null");
+            }
+            addRows(student, attributes, tokens);
+        }
+        try {
+            database.inTransaction(() -> {
+                database.batch(INSERT, students, (statement, student) -> {
+                    statement.setString(1, student.getId());
+                    statement.setString(2, student.getFullName());
+                    statement.setString(3, student.getEmail());
+                    statement.setString(4, student.getPhone());
+                    statement.setLong(5, 1);
+                });
+                insertRows(attributes, tokens);
+                for (Student student : students) {
+                    student.setVersion(1);
+                    database.afterCommit(() -> storageContext.publish(ChangeType.STUDENT_CREATED, student.getId(), student));
+                }
+                return null;
+            });
+        } catch (JdbcDatabase.ConstraintViolation e) {
+            throw new IllegalArgumentException("Student with this id or email already exists");
+        }
+    }
+
+    @Override
+    public Student getById(String id) {
+        if (id == null) return null;
+        return database.inTransaction(() -> {
+            List<Student> found = query(SELECT_BY_ID, SELECT_ATTRIBUTES, id);
+            return found.isEmpty() ? null : found.get(0);
+        });
+    }
+
+    /**
+     * Reads all the students with two queries (rows and attributes), passing the IDs as one
+     * array parameter so the prepared statements are reused whatever the number of IDs.
+     */
+    @Override
+    public Map<String, Student> getByIds(@NonNull Collection<String> ids) {
+        Set<String> keys = new LinkedHashSet<>(ids);
+        keys.remove(null);
+        if (keys.isEmpty()) return new LinkedHashMap<>();
+        Object[] parameter = keys.toArray();
+        List<Student> rows = database.inTransaction(() -> query(SELECT_BY_IDS, SELECT_ATTRIBUTES_BY_IDS, parameter));
+        Map<String, Student> byId = new HashMap<>();
+        rows.forEach(student -> byId.put(student.getId(), student));
+        Map<String, Student> found = new LinkedHashMap<>();
+        for (String id : keys) {
+            Student student = byId.get(id);
+            if (student != null) {
+                found.put(id, student);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @throws UnsupportedOperationException always: the JDBC repositories keep no version history.
+     */
+    @Override
+    public Student getById(String id, Snapshot snapshot) {
+        throw new UnsupportedOperationException("Snapshot reads are not supported by the JDBC repositories");
+    }
+
+    /**
+     * Finds students by a case-insensitive name token, through the token table's primary key.
+     */
+    @Override
+    public List<Student> searchByNameToken(String token) {
+        String key = token.toLowerCase();
+        return database.inTransaction(() -> query(SELECT_BY_TOKEN, SELECT_ATTRIBUTES_BY_TOKEN, key));
+    }
+
+    /**
+     * Replaces a student if its version column is still {@code expectedVersion}.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String id, long expectedVersion, @NonNull Student updated) {
+        String email = updated.getEmail();
+        if (email == null) {
+            throw new IllegalArgumentException("Student, id, email cannot be null");
+        }
+        List<String[]> attributes = new ArrayList<>();
+        List<String[]> tokens = new ArrayList<>();
+        updated.setId(id);
+        addRows(updated, attributes, tokens);
+        try {
+            return database.inTransaction(() -> {
+                String owner = null;
+                PreparedStatement select = database.statement(SELECT_EMAIL_OWNER);
+                select.setString(1, email);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next()) owner = rs.getString(1);
+                }
+                if (owner != null && !owner.equals(id)) {
+                    throw new IllegalArgumentException("Student with this id or email already exists");
+                }
+
+                PreparedStatement update = database.statement(UPDATE);
+                update.setString(1, updated.getFullName());
+                update.setString(2, email);
+                update.setString(3, updated.getPhone());
+                update.setLong(4, expectedVersion + 1);
+                update.setString(5, id);
+                update.setLong(6, expectedVersion);
+                if (update.executeUpdate() == 0) {
+                    return false;
+                }
+                deleteRows(id);
+                insertRows(attributes, tokens);
+                updated.setVersion(expectedVersion + 1);
+                database.afterCommit(() -> storageContext.publish(ChangeType.STUDENT_UPDATED, id, updated));
+                return true;
+            });
+        } catch (JdbcDatabase.ConstraintViolation e) {
+            throw new IllegalArgumentException("Student with this id or email already exists");
+        }
+    }
+
+    @Override
+    public void deleteStudent(String id) {
+        if (id == null) return;
+        database.inTransaction(() -> {
+            deleteRows(id);
+            PreparedStatement delete = database.statement(DELETE);
+            delete.setString(1, id);
+            if (delete.executeUpdate() > 0) {
+                database.afterCommit(() -> storageContext.publish(ChangeType.STUDENT_DELETED, id, null));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Runs a student query and a matching attribute query with the same parameter (a
+     * string, or an array for {@code ANY(?)}).
+     */
+    private List<Student> query(String studentSql, String attributeSql, Object parameter) throws SQLException {
+        Map<String, Student> students = new LinkedHashMap<>();
+        PreparedStatement select = database.statement(studentSql);
+        select.setObject(1, parameter);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                Student student = new Student(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        new LinkedHashSet<>(), new HashMap<>(), rs.getLong(5));
+                students.put(student.getId(), student);
+            }
+        }
+        if (students.isEmpty()) return new ArrayList<>();
+
+        PreparedStatement attributes = database.statement(attributeSql);
+        attributes.setObject(1, parameter);
+        try (ResultSet rs = attributes.executeQuery()) {
+            while (rs.next()) {
+                Student student = students.get(rs.getString(1));
+                if (student != null) {
+                    student.getAttributes().put(rs.getString(2), rs.getString(3));
+                }
+            }
+        }
+        return new ArrayList<>(students.values());
+    }
+
+    private void insertRows(List<String[]> attributes, List<String[]> tokens) throws SQLException {
+        database.batch(INSERT_ATTRIBUTE, attributes, JdbcDatabase::bindStrings);
+        database.batch(INSERT_TOKEN, tokens, JdbcDatabase::bindStrings);
+    }
+
+    private void deleteRows(String id) throws SQLException {
+        for (String sql : new String[]{DELETE_ATTRIBUTES, DELETE_TOKENS}) {
+            PreparedStatement delete = database.statement(sql);
+            delete.setString(1, id);
+            delete.executeUpdate();
+        }
+    }
+
+    private static void addRows(Student student, List<String[]> attributes, List<String[]> tokens) {
+        String id = student.getId();
+        for (String token : nameTokens(student.getFullName())) {
+            tokens.add(new String[]{token, id});
+        }
+        if (student.getAttributes() != null) {
+            student.getAttributes().forEach((name, value) -> attributes.add(new String[]{id, name, value}));
+        }
+    }
+
+    private static Set<String> nameTokens(String fullName) {
+        return tokenize(fullName).stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,17 @@
+package repository;
+
+import events.ChangeType;
+import model.Enrollment;
+
+import java.time.Instant;
+
+/**
+ * One entry of the {@link EnrollmentLedger}.
+ *
+ * @param sequence position in the log, starting at 0.
+ * @param timestamp when the event was recorded; never decreases along the log.
+ * @param type what happened (an {@code ENROLLMENT_*} or {@link ChangeType#GRADE_RECORDED} change).
+ * @param enrollment the enrollment state the event produced.
+ */
+public record LedgerEvent(long sequence, Instant timestamp, ChangeType type, Enrollment enrollment) {
+}
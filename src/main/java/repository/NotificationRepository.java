@@ -3,15 +3,16 @@ package repository;
 import model.Notification;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing notifications.
  *
  * Responsibilities:
  * - Store notifications.
- * - Fetch pending (unsent) notifications for processing.
+ * - Fetch pending (unsent) notifications for processing, whole, by page or as a lazy stream.
  * - Update notification status (sent or not).
- * - Search notifications by recipient.
+ * - Search notifications by recipient, whole, by page or as a lazy stream.
  */
 public interface NotificationRepository {
 
@@ -37,6 +38,48 @@ public interface NotificationRepository {
      */
     List<Notification> getPendingNotifications();
 
+    /**
+     * Retrieves one page of a recipient's notifications, sorted by ID.
+     *
+     * @param recipientId the ID of the recipient.
+     * @param cursor the previous page's {@link Page#nextCursor()}, or null for the first page.
+     * @param limit maximum number of notifications on the page.
+     * @return the page; its next cursor is null after the last notification.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    Page<Notification> getNotificationsForRecipient(String recipientId, String cursor, int limit);
+
+    /**
+     * Retrieves one page of the pending notifications, sorted by ID.
+     *
+     * @param cursor the previous page's {@link Page#nextCursor()}, or null for the first page.
+     * @param limit maximum number of notifications on the page.
+     * @return the page; its next cursor is null after the last pending notification.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    Page<Notification> getPendingNotifications(String cursor, int limit);
+
+    /**
+     * Streams a recipient's notifications without building the whole list. The default
+     * fetches them page by page.
+     *
+     * @param recipientId the ID of the recipient.
+     * @return the notifications, read as the stream is consumed.
+     */
+    default Stream<Notification> streamNotificationsForRecipient(String recipientId) {
+        return Page.stream(cursor -> getNotificationsForRecipient(recipientId, cursor, Page.STREAM_PAGE_SIZE));
+    }
+
+    /**
+     * Streams the pending notifications without building the whole list. The default
+     * fetches them page by page.
+     *
+     * @return the pending notifications, read as the stream is consumed.
+     */
+    default Stream<Notification> streamPendingNotifications() {
+        return Page.stream(cursor -> getPendingNotifications(cursor, Page.STREAM_PAGE_SIZE));
+    }
+
     /**
      * Marks a notification as sent.
      *
@@ -50,4 +93,12 @@ public interface NotificationRepository {
      * @param notificationId the ID of the notification to delete.
      */
     void deleteNotification(String notificationId);
+
+    /**
+     * Deletes every notification addressed to a recipient, using the recipient index.
+     *
+     * @param recipientId the recipient (student or instructor) ID.
+     * @return number of notifications deleted.
+     */
+    int deleteForRecipient(String recipientId);
 }
@@ -0,0 +1,114 @@
+package repository;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One page of a listing paginated by cursor.
+ *
+ * <p>A cursor is the sort key of the last item on a page; the next page starts after it
+ * (keyset pagination). Unlike an offset, a cursor stays valid while items are added or
+ * removed elsewhere in the listing, and the next page is found with one index seek instead
+ * of skipping everything before it. Treat cursors as opaque.</p>
+ *
+ * @param items the items of the page, in listing order.
+ * @param nextCursor the cursor to pass for the next page, or null if this is the last one.
+ * @param <T> the item type.
+ */
+public record Page<T>(@NonNull List<T> items, String nextCursor) {
+
+    /** Page size {@link #stream} fetches with. */
+    public static final int STREAM_PAGE_SIZE = 256;
+
+    /**
+     * @return true if there is a next page.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Streams a whole listing, fetching one page at a time as the stream is consumed.
+     * Parallel streams split off batches of fetched items.
+     *
+     * @param fetch returns the page after a cursor (null for the first page), with at
+     *              most {@link #STREAM_PAGE_SIZE} items.
+     */
+    public static <T> Stream<T> stream(@NonNull Function<String, Page<T>> fetch) {
+        Spliterator<T> pages = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            private Iterator<T> current = null;
+
+            private String cursor = null;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (current == null || !current.hasNext()) {
+                    if (current != null && cursor == null) return false; // Past the last page.
+                    Page<T> page = fetch.apply(cursor);
+                    current = page.items().iterator();
+                    cursor = page.nextCursor();
+                }
+                action.accept(current.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false);
+    }
+
+    /**
+     * Builds a page from keys in listing order, starting after the cursor.
+     *
+     * @param keys the keys after the cursor, in order.
+     * @param resolve returns a key's item, or null to skip it (e.g. deleted meanwhile).
+     * @param limit page size.
+     */
+    static <T> Page<T> of(Iterable<String> keys, Function<String, T> resolve, int limit) {
+        List<T> items = new ArrayList<>(Math.min(limit, 64));
+        String last = null;
+        for (String key : keys) {
+            T item = resolve.apply(key);
+            if (item == null) continue;
+            if (items.size() == limit) {
+                return new Page<>(items, last);
+            }
+            items.add(item);
+            last = key;
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Builds a page from items fetched one past the page size, so a next page is known to
+     * exist exactly when the extra item is there.
+     *
+     * @param fetched up to {@code limit + 1} items in listing order.
+     * @param keyOf the sort key of an item.
+     * @param limit page size.
+     */
+    static <T> Page<T> trimmed(List<T> fetched, Function<T, String> keyOf, int limit) {
+        if (fetched.size() <= limit) {
+            return new Page<>(fetched, null);
+        }
+        List<T> items = new ArrayList<>(fetched.subList(0, limit));
+        return new Page<>(items, keyOf.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the page size is not positive.
+     */
+    static void requireLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package repository;
+
+import lombok.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cold tier of a repository: records paged out to a local file and read back on demand.
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>An append-only file of pages. Each page holds up to {@code recordsPerPage}
+ *       encoded records; records are buffered in an open page on the heap until it is full,
+ *       then the page is written in one positional write.</li>
+ *   <li>A key → (page, slot) index and a page → (offset, length) table on the
+ *       heap. These are a few dozen bytes per record plus the key, whatever the size of the
+ *       record itself: the store moves record bodies off the heap, but its heap use still
+ *       grows with the number of records.</li>
+ *   <li>An LRU cache of recently read pages ({@link LinkedHashMap} in access order), so
+ *       reads clustered on the same pages do not touch the disk.</li>
+ * </ul>
+ *
+ * <p>Replacing or removing a record leaves its old bytes in the file as garbage. Once the
+ * garbage exceeds both the live bytes and {@link #MIN_GARBAGE_BYTES}, the store compacts:
+ * live records are copied, in page order, into a fresh file that replaces the old one, so
+ * the file stays within about twice the live data and compaction costs are amortized over
+ * the writes that made the garbage.</p>
+ *
+ * <p>Every read decodes a fresh instance, so callers may modify what they get. The file is
+ * scratch space for this process and is truncated when the store is opened. All methods
+ * are synchronized.</p>
+ *
+ * @param <T> the record type.
+ */
+public class PagedFileStore<T> implements AutoCloseable {
+
+    /** Garbage tolerated before compacting, however little data is live. */
+    static final long MIN_GARBAGE_BYTES = 64 * 1024;
+
+    private final Path file;
+
+    private FileChannel channel;
+
+    private final RecordCodec<T> codec;
+
+    private final int recordsPerPage;
+
+    private final int cachedPages;
+
+    private final Map<String, RecordRef> index = new HashMap<>();
+
+    /** Offset and length of every written page, by page number. */
+    private final List<long[]> pages = new ArrayList<>();
+
+    /** Encoded records of the page being filled; its page number is {@code pages.size()}. */
+    private final List<byte[]> openPage = new ArrayList<>();
+
+    /** Key of each record in the open page, by slot. */
+    private final List<String> openKeys = new ArrayList<>();
+
+    private final LinkedHashMap<Integer, List<byte[]>> cache;
+
+    private long fileSize;
+
+    /** Bytes of written records (with their length prefix) still referenced by the index. */
+    private long liveBytes;
+
+    private long compactions;
+
+    private long cacheHits;
+
+    private long pageReads;
+
+    /**
+     * Opens (and truncates) a store file.
+     *
+     * @param file the file to page records to.
+     * @param codec encodes the records.
+     * @param recordsPerPage records written per page.
+     * @param cachedPages pages kept in the read cache.
+     */
+    public PagedFileStore(@NonNull Path file, @NonNull RecordCodec<T> codec, int recordsPerPage, int cachedPages) {
+        if (recordsPerPage <= 0 || cachedPages <= 0) {
+            throw new IllegalArgumentException("Records per page and cached pages must be positive");
+        }
+        this.file = file;
+        this.codec = codec;
+        this.recordsPerPage = recordsPerPage;
+        this.cachedPages = cachedPages;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<byte[]>> eldest) {
+                return size() > PagedFileStore.this.cachedPages;
+            }
+        };
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores a record, replacing any record with the same key.
+     *
+     * @param key the record key.
+     * @param value the record.
+     */
+    public synchronized void put(@NonNull String key, @NonNull T value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.write(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] record = bytes.toByteArray();
+        released(index.put(key, new RecordRef(pages.size(), openPage.size(), record.length)));
+        openPage.add(record);
+        openKeys.add(key);
+        if (openPage.size() == recordsPerPage) {
+            writeOpenPage();
+        }
+        compactIfWasteful();
+    }
+
+    /**
+     * @return the record, or null if there is none.
+     */
+    public synchronized T get(String key) {
+        RecordRef ref = key == null ? null : index.get(key);
+        return ref == null ? null : decode(ref);
+    }
+
+    /**
+     * @return true if a record is stored under the key.
+     */
+    public synchronized boolean contains(String key) {
+        return key != null && index.containsKey(key);
+    }
+
+    /**
+     * Removes a record.
+     *
+     * @return the removed record, or null if there was none.
+     */
+    public synchronized T remove(String key) {
+        RecordRef ref = key == null ? null : index.get(key);
+        if (ref == null) return null;
+        T value = decode(ref);
+        released(index.remove(key));
+        compactIfWasteful();
+        return value;
+    }
+
+    /**
+     * Copies the live records into a fresh file and drops the old one, reclaiming the space
+     * of replaced and removed records. Runs on its own once garbage outweighs live data.
+     *
+     * @return bytes reclaimed.
+     */
+    public synchronized long compact() {
+        Map<Integer, List<String>> byPage = new TreeMap<>();
+        for (Map.Entry<String, RecordRef> entry : index.entrySet()) {
+            if (entry.getValue().page() < pages.size()) {
+                byPage.computeIfAbsent(entry.getValue().page(), k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        List<long[]> written = new ArrayList<>();
+        Map<String, RecordRef> moved = new HashMap<>();
+        long size = 0;
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<byte[]> batch = new ArrayList<>();
+            List<String> batchKeys = new ArrayList<>();
+            for (Map.Entry<Integer, List<String>> page : byPage.entrySet()) {
+                List<byte[]> records = readPage(page.getKey());
+                for (String key : page.getValue()) {
+                    batch.add(records.get(index.get(key).slot()));
+                    batchKeys.add(key);
+                    if (batch.size() == recordsPerPage) {
+                        size += flush(target, size, batch, batchKeys, written, moved);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                size += flush(target, size, batch, batchKeys, written, moved);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long reclaimed = fileSize - size;
+        try {
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int slot = 0; slot < openKeys.size(); slot++) {
+            RecordRef ref = index.get(openKeys.get(slot));
+            if (ref != null && ref.page() == pages.size() && ref.slot() == slot) {
+                moved.put(openKeys.get(slot), new RecordRef(written.size(), slot, ref.length()));
+            }
+        }
+        index.putAll(moved);
+        pages.clear();
+        pages.addAll(written);
+        cache.clear();
+        fileSize = size;
+        liveBytes = 0;
+        for (RecordRef ref : index.values()) {
+            if (ref.page() < pages.size()) {
+                liveBytes += ref.footprint();
+            }
+        }
+        compactions++;
+        return reclaimed;
+    }
+
+    /**
+     * @return number of records stored.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * @return bytes in the file, live or not.
+     */
+    public synchronized long fileSize() {
+        return fileSize;
+    }
+
+    /**
+     * @return times the file was compacted.
+     */
+    public synchronized long compactions() {
+        return compactions;
+    }
+
+    /**
+     * @return pages read from the file (cache misses).
+     */
+    public synchronized long pageReads() {
+        return pageReads;
+    }
+
+    /**
+     * @return page reads served by the cache.
+     */
+    public synchronized long cacheHits() {
+        return cacheHits;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private T decode(RecordRef ref) {
+        byte[] record = ref.page() == pages.size() ? openPage.get(ref.slot()) : page(ref.page()).get(ref.slot());
+        try {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(record)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<byte[]> page(int pageNumber) {
+        List<byte[]> page = cache.get(pageNumber);
+        if (page != null) {
+            cacheHits++;
+            return page;
+        }
+        page = readPage(pageNumber);
+        pageReads++;
+        cache.put(pageNumber, page);
+        return page;
+    }
+
+    private List<byte[]> readPage(int pageNumber) {
+        long[] location = pages.get(pageNumber);
+        ByteBuffer buffer = ByteBuffer.allocate((int) location[1]);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location[0] + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file reading page " + pageNumber);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        int count = buffer.getInt();
+        List<byte[]> page = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] record = new byte[buffer.getInt()];
+            buffer.get(record);
+            page.add(record);
+        }
+        return page;
+    }
+
+    /**
+     * Writes the open page. It is not cached: records are paged out because they are cold.
+     */
+    private void writeOpenPage() {
+        long length = writePage(channel, fileSize, openPage);
+        long live = 0;
+        for (int slot = 0; slot < openKeys.size(); slot++) {
+            RecordRef ref = index.get(openKeys.get(slot));
+            if (ref != null && ref.page() == pages.size() && ref.slot() == slot) {
+                live += ref.footprint();
+            }
+        }
+        pages.add(new long[]{fileSize, length});
+        fileSize += length;
+        liveBytes += live;
+        openPage.clear();
+        openKeys.clear();
+    }
+
+    /**
+     * Writes one page of a compaction and points its records' keys at it.
+     *
+     * @return the page's length.
+     */
+    private long flush(FileChannel target, long offset, List<byte[]> batch, List<String> keys,
+                       List<long[]> written, Map<String, RecordRef> moved) {
+        long length = writePage(target, offset, batch);
+        for (int slot = 0; slot < batch.size(); slot++) {
+            moved.put(keys.get(slot), new RecordRef(written.size(), slot, batch.get(slot).length));
+        }
+        written.add(new long[]{offset, length});
+        batch.clear();
+        keys.clear();
+        return length;
+    }
+
+    /**
+     * Writes a page as {@code [count][length, bytes]...} at an offset.
+     *
+     * @return the page's length.
+     */
+    private static long writePage(FileChannel target, long offset, List<byte[]> records) {
+        int length = Integer.BYTES;
+        for (byte[] record : records) {
+            length += Integer.BYTES + record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(records.size());
+        for (byte[] record : records) {
+            buffer.putInt(record.length).put(record);
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                target.write(buffer, offset + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return length;
+    }
+
+    /**
+     * Accounts for a record no longer referenced by the index.
+     */
+    private void released(RecordRef ref) {
+        if (ref != null && ref.page() < pages.size()) {
+            liveBytes -= ref.footprint();
+        }
+    }
+
+    private void compactIfWasteful() {
+        long garbage = fileSize - liveBytes;
+        if (garbage > MIN_GARBAGE_BYTES && garbage > liveBytes) {
+            compact();
+        }
+    }
+
+    /** Location of a record: page number, position within the page and encoded length. */
+    private record RecordRef(int page, int slot, int length) {
+
+        /** Bytes the record takes in its page, length prefix included. */
+        long footprint() {
+            return Integer.BYTES + (long) length;
+        }
+    }
+}
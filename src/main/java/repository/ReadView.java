@@ -0,0 +1,89 @@
+package repository;
+
+import lombok.NonNull;
+import model.Course;
+import model.Enrollment;
+import model.Student;
+
+import java.util.List;
+
+/**
+ * Consistent, read-only view of the student, course and enrollment repositories at one
+ * point in time.
+ *
+ * <p>Every read goes through the same {@link Snapshot}, so a report that reads a roster,
+ * then each student, then their enrollments sees one state of the system even while
+ * enrollments and updates keep committing. Readers never block writers. Close the view
+ * (try-with-resources) so the versions it pinned can be reclaimed.</p>
+ *
+ * <pre>{@code
+ * try (ReadView view = ReadView.open(ctx.getSnapshots(), students, courses, enrollments)) {
+ *     for (String id : view.getStudentsForCourse("CS101")) {
+ *         report.add(view.getStudent(id), view.getEnrollmentsForStudent(id));
+ *     }
+ * }
+ * }</pre>
+ */
+public class ReadView implements AutoCloseable {
+
+    private final Snapshot snapshot;
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private ReadView(Snapshot snapshot, StudentRepository studentRepository,
+                     CourseRepository courseRepository, EnrollmentRepository enrollmentRepository) {
+        this.snapshot = snapshot;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    /**
+     * Opens a view at the latest commit.
+     *
+     * @param snapshots the snapshot manager of the {@link StorageContext} the repositories share.
+     * @return an open view; close it when done.
+     */
+    public static ReadView open(@NonNull SnapshotManager snapshots,
+                                @NonNull StudentRepository studentRepository,
+                                @NonNull CourseRepository courseRepository,
+                                @NonNull EnrollmentRepository enrollmentRepository) {
+        return new ReadView(snapshots.open(), studentRepository, courseRepository, enrollmentRepository);
+    }
+
+    /**
+     * @return the commit timestamp the view reads at.
+     */
+    public long getTimestamp() {
+        return snapshot.getTimestamp();
+    }
+
+    public Student getStudent(String id) {
+        return studentRepository.getById(id, snapshot);
+    }
+
+    public Course getCourse(String code) {
+        return courseRepository.getByCode(code, snapshot);
+    }
+
+    public List<Course> listCoursesByDepartment(String department) {
+        return courseRepository.listByDepartment(department, snapshot);
+    }
+
+    public List<Enrollment> getEnrollmentsForStudent(String studentId) {
+        return enrollmentRepository.getEnrollmentsForStudent(studentId, snapshot);
+    }
+
+    public List<String> getStudentsForCourse(String courseCode) {
+        return enrollmentRepository.getStudentsForCourse(courseCode, snapshot);
+    }
+
+    @Override
+    public void close() {
+        snapshot.close();
+    }
+}
@@ -0,0 +1,86 @@
+package repository;
+
+import codec.ModelCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of one record type for a {@link PagedFileStore}.
+ *
+ * @param <T> the record type.
+ */
+public interface RecordCodec<T> {
+
+    /**
+     * Writes a record.
+     *
+     * @param out the destination.
+     * @param value the record (never null).
+     */
+    void write(DataOutput out, T value) throws IOException;
+
+    /**
+     * Reads a record written by {@link #write}.
+     *
+     * @param in the source.
+     * @return a new instance.
+     */
+    T read(DataInput in) throws IOException;
+
+    /**
+     * Adapts a {@link ModelCodec}: each record is written as its length followed by the
+     * model codec's tagged encoding, so the stored format evolves with the model codec.
+     *
+     * @param codec the model codec.
+     * @return a record codec writing the same bytes as {@code codec}.
+     */
+    static <T> RecordCodec<T> of(ModelCodec<T> codec) {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, T value) throws IOException {
+                byte[] bytes = codec.encode(value);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            public T read(DataInput in) throws IOException {
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Invalid record length " + length);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return codec.decode(bytes);
+            }
+        };
+    }
+
+    /**
+     * Writes a nullable string of any length as UTF-8 (unlike {@link DataOutput#writeUTF},
+     * which is limited to 64 KB).
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     */
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,283 @@
+package repository;
+
+import model.EnrollmentStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free seat accounting for one course section.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Count taken seats with a CAS loop on an {@link AtomicInteger}, never above capacity.</li>
+ *   <li>Keep a FIFO waitlist ({@link ConcurrentLinkedQueue}) of students waiting for a seat.</li>
+ *   <li>Track each active student's {@link State} in a {@link ConcurrentHashMap};
+ *       every transition is a single atomic map operation, so exactly one thread wins it.</li>
+ *   <li>Count time-bounded holds against capacity exactly like enrolled seats.</li>
+ * </ul>
+ *
+ * <p>Waitlist entries are removed lazily: dropping a waitlisted student only removes
+ * its state, and promotion skips queue entries that no longer match it. Every registration
+ * gets a new ticket and a queue entry is only valid for the ticket it was queued with, so a
+ * student who drops and registers again goes to the back of the queue instead of reviving
+ * their old place.</p>
+ *
+ * <p>A newcomer only takes a seat directly while nobody is waiting; otherwise it queues behind
+ * the waiting students. Seats are never lost: whoever frees a seat re-checks the waitlist
+ * afterwards, and whoever joins the waitlist tries to grab a seat afterwards, so at least one
+ * of them sees the other's update.</p>
+ */
+class SeatLedger {
+
+    /** Active state of a student in a section. */
+    enum State {
+        /** Holds a seat as an enrolled student. */
+        ENROLLED,
+        /** Waiting in the FIFO queue for a seat. */
+        WAITLISTED,
+        /** Holds a reserved seat pending confirmation. */
+        HELD;
+
+        /**
+         * @return the state of a student without a hold whose current enrollment record has
+         *         the status, or null if it leaves them inactive in the section.
+         */
+        static State of(EnrollmentStatus status) {
+            return switch (status) {
+                case ENROLLED, COMPLETED -> ENROLLED;
+                case WAITLISTED -> WAITLISTED;
+                default -> null;
+            };
+        }
+    }
+
+    /** Capacity used for sections without a configured limit. */
+    static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private volatile int capacity;
+
+    private final AtomicInteger taken = new AtomicInteger();
+
+    /**
+     * A student's active state and the registration it belongs to. Map transitions compare
+     * whole entries, so a stale entry never matches a later registration.
+     */
+    private record Registration(State state, long ticket) {
+        Registration to(State next) {
+            return new Registration(next, ticket);
+        }
+    }
+
+    /** A waitlist entry, valid while the student is still waitlisted under the same ticket. */
+    private record Waiting(String studentId, long ticket) {
+    }
+
+    private final AtomicLong tickets = new AtomicLong();
+
+    private final Queue<Waiting> waitlist = new ConcurrentLinkedQueue<>();
+
+    private final ConcurrentHashMap<String, Registration> states = new ConcurrentHashMap<>();
+
+    SeatLedger(int capacity) {
+        this.capacity = capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    int taken() {
+        return taken.get();
+    }
+
+    int available() {
+        return capacity == UNLIMITED ? UNLIMITED : Math.max(0, capacity - taken.get());
+    }
+
+    /**
+     * @return the active state of a student in this section, or null if none.
+     */
+    State stateOf(String studentId) {
+        Registration registration = states.get(studentId);
+        return registration == null ? null : registration.state();
+    }
+
+    /**
+     * Registers a student as active (initially WAITLISTED) under a new ticket.
+     *
+     * @return null if the student was registered, or their existing active state.
+     */
+    State register(String studentId) {
+        Registration existing = states.putIfAbsent(studentId, new Registration(State.WAITLISTED, tickets.incrementAndGet()));
+        return existing == null ? null : existing.state();
+    }
+
+    /**
+     * Tries to take a seat for a freshly registered student. Fails while other students
+     * are waiting, so a newcomer never takes a seat ahead of them.
+     *
+     * @return true if the student now holds a seat.
+     */
+    boolean trySeat(String studentId) {
+        if (!waitlist.isEmpty()) return false;
+        Registration current = states.get(studentId);
+        if (current == null || current.state() != State.WAITLISTED) return false;
+        if (!tryAcquire()) return false;
+        if (states.replace(studentId, current, current.to(State.ENROLLED))) return true;
+        taken.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Appends a registered student to the back of the waitlist.
+     */
+    void enqueue(String studentId) {
+        Registration current = states.get(studentId);
+        if (current != null && current.state() == State.WAITLISTED) {
+            waitlist.offer(new Waiting(studentId, current.ticket()));
+        }
+    }
+
+    /**
+     * Reserves a seat for a student who is not yet active in the section.
+     *
+     * @return true if a seat was free and is now held for the student.
+     */
+    boolean tryHold(String studentId) {
+        if (!tryAcquire()) return false;
+        if (states.putIfAbsent(studentId, new Registration(State.HELD, tickets.incrementAndGet())) == null) return true;
+        taken.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Turns a held seat into an enrolled one.
+     *
+     * @return true if the student was holding a seat.
+     */
+    boolean confirmHold(String studentId) {
+        Registration current = states.get(studentId);
+        return current != null && current.state() == State.HELD
+                && states.replace(studentId, current, current.to(State.ENROLLED));
+    }
+
+    /**
+     * Gives a held seat back. The caller should promote the waitlist afterwards.
+     *
+     * @return true if the student was holding a seat.
+     */
+    boolean releaseHold(String studentId) {
+        Registration current = states.get(studentId);
+        if (current == null || current.state() != State.HELD || !states.remove(studentId, current)) return false;
+        taken.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes a student's active state, releasing their seat if they held one.
+     *
+     * @return the state the student had, or null if they were not active.
+     */
+    State remove(String studentId) {
+        Registration prior = states.remove(studentId);
+        if (prior == null) return null;
+        if (prior.state() == State.ENROLLED || prior.state() == State.HELD) {
+            taken.decrementAndGet();
+        }
+        return prior.state();
+    }
+
+    /**
+     * Sets a student's state to one copied from elsewhere, without checking capacity or
+     * promoting anyone. A student newly WAITLISTED joins the back of the queue; one already
+     * in that state keeps their place.
+     *
+     * @param state the state to set, or null to make the student inactive.
+     */
+    void restore(String studentId, State state) {
+        Registration prior = states.get(studentId);
+        if (prior != null && prior.state() == state) return;
+        if (prior != null) {
+            remove(studentId);
+        }
+        if (state == null) return;
+        Registration registration = new Registration(state, tickets.incrementAndGet());
+        states.put(studentId, registration);
+        if (state == State.WAITLISTED) {
+            waitlist.offer(new Waiting(studentId, registration.ticket()));
+        } else {
+            taken.incrementAndGet();
+        }
+    }
+
+    /**
+     * Promotes waitlisted students in FIFO order while seats are available.
+     *
+     * @return the promoted student IDs, in promotion order.
+     */
+    List<String> promote() {
+        List<String> promoted = new ArrayList<>();
+        while (!waitlist.isEmpty()) {
+            if (!tryAcquire()) break;
+            Waiting head;
+            boolean granted = false;
+            while ((head = waitlist.poll()) != null) {
+                Registration waiting = new Registration(State.WAITLISTED, head.ticket());
+                if (states.replace(head.studentId(), waiting, waiting.to(State.ENROLLED))) {
+                    promoted.add(head.studentId());
+                    granted = true;
+                    break;
+                }
+            }
+            if (!granted) {
+                // Only stale entries were left; give the seat back and re-check the queue.
+                taken.decrementAndGet();
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * @return student IDs currently waiting, in FIFO order.
+     */
+    List<String> waitlisted() {
+        List<String> result = new ArrayList<>();
+        for (Waiting entry : waitlist) {
+            if (new Registration(State.WAITLISTED, entry.ticket()).equals(states.get(entry.studentId()))) {
+                result.add(entry.studentId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return IDs of the students holding a reserved seat.
+     */
+    List<String> holders() {
+        List<String> result = new ArrayList<>();
+        states.forEach((studentId, registration) -> {
+            if (registration.state() == State.HELD) {
+                result.add(studentId);
+            }
+        });
+        return result;
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            int current = taken.get();
+            if (current >= capacity) return false;
+            if (taken.compareAndSet(current, current + 1)) return true;
+        }
+    }
+}
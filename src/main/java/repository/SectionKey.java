@@ -0,0 +1,10 @@
+package repository;
+
+/**
+ * Identifies one offering of a course in a semester (a "section").
+ *
+ * @param courseCode the course code.
+ * @param semester the semester identifier.
+ */
+record SectionKey(String courseCode, String semester) {
+}
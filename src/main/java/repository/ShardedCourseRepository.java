@@ -0,0 +1,156 @@
+package repository;
+
+import lombok.NonNull;
+import model.Course;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * CourseRepository that hash-partitions courses by code across a fixed number of shards.
+ *
+ * Responsibilities:
+ * - Route each course to one {@link InMemoryCourseRepository} shard by code.
+ * - Run writes on the owning shard's single writer thread; point reads run on the caller's thread.
+ * - Answer {@link #listByDepartment} by scatter-gather: every shard lists the department's
+ *   courses it owns, and the parts are merged back into code order. A page takes a page
+ *   from every shard and keeps the first courses by code.
+ *
+ * Concurrency:
+ * - Writes to courses on different shards run in parallel; writes to one shard are
+ *   applied one at a time by its writer thread.
+ * - All shards share one {@link StorageContext}, so snapshots and the change feed span them.
+ */
+public class ShardedCourseRepository implements CourseRepository, Compactable, AutoCloseable {
+
+    private final Shards<InMemoryCourseRepository> shards;
+
+    /**
+     * Creates a repository with the given number of shards.
+     *
+     * @param shardCount number of shards, usually the number of cores.
+     * @param storageContext the storage context, shared by every shard.
+     */
+    public ShardedCourseRepository(int shardCount, @NonNull StorageContext storageContext) {
+        this.shards = new Shards<>(shardCount, i -> new InMemoryCourseRepository(storageContext), "courses");
+    }
+
+    /**
+     * @return number of shards.
+     */
+    public int shardCount() {
+        return shards.count();
+    }
+
+    @Override
+    public void createCourse(Course course) {
+        if (course == null) {
+            throw new IllegalArgumentException("Course cannot be null");
+        }
+        if (course.getCode() == null) {
+            throw new IllegalArgumentException("Course code cannot be null");
+        }
+        shards.write(course.getCode(), shard -> {
+            shard.createCourse(course);
+            return null;
+        });
+    }
+
+    @Override
+    public Course getByCode(String code) {
+        return code == null ? null : shards.of(code).getByCode(code);
+    }
+
+    @Override
+    public Course getByCode(String code, @NonNull Snapshot snapshot) {
+        return code == null ? null : shards.of(code).getByCode(code, snapshot);
+    }
+
+    /**
+     * Lists a department's courses from every shard, sorted by course code.
+     */
+    @Override
+    public List<Course> listByDepartment(String department) {
+        if (department == null) return new ArrayList<>();
+        return sorted(shards.gather(shard -> shard.listByDepartment(department)));
+    }
+
+    @Override
+    public List<Course> listByDepartment(String department, @NonNull Snapshot snapshot) {
+        if (department == null) return new ArrayList<>();
+        return sorted(shards.gather(shard -> shard.listByDepartment(department, snapshot)));
+    }
+
+    /**
+     * Takes a page after the cursor from every shard and keeps the first {@code limit}
+     * courses by code; the rest are read again by the next page.
+     */
+    @Override
+    public Page<Course> listByDepartment(String department, String cursor, int limit) {
+        Page.requireLimit(limit);
+        if (department == null) return new Page<>(new ArrayList<>(), null);
+        List<Course> merged = new ArrayList<>();
+        boolean more = false;
+        for (Page<Course> page : shards.scatter(shard -> shard.listByDepartment(department, cursor, limit))) {
+            merged.addAll(page.items());
+            more |= page.hasNext();
+        }
+        sorted(merged);
+        if (merged.size() > limit) {
+            merged = new ArrayList<>(merged.subList(0, limit));
+            more = true;
+        }
+        return new Page<>(merged, more ? merged.get(limit - 1).getCode() : null);
+    }
+
+    /**
+     * Streams the shards' parts one after the other: courses are in code order within a
+     * shard, not across shards.
+     */
+    @Override
+    public Stream<Course> streamByDepartment(String department) {
+        return shards.stream(shard -> shard.streamByDepartment(department));
+    }
+
+    @Override
+    public boolean compareAndSet(@NonNull String code, long expectedVersion, @NonNull Course updated) {
+        return shards.write(code, shard -> shard.compareAndSet(code, expectedVersion, updated));
+    }
+
+    @Override
+    public void deleteCourse(String code) {
+        if (code == null) return;
+        shards.write(code, shard -> {
+            shard.deleteCourse(code);
+            return null;
+        });
+    }
+
+    @Override
+    public int pendingTombstones() {
+        return shards.sum(InMemoryCourseRepository::pendingTombstones);
+    }
+
+    /**
+     * Purges up to {@code maxEntries} tombstones on every shard, in parallel.
+     */
+    @Override
+    public int purgeTombstones(int maxEntries) {
+        return shards.sum(shard -> shard.purgeTombstones(maxEntries));
+    }
+
+    /**
+     * Stops the shards' writer threads.
+     */
+    @Override
+    public void close() {
+        shards.close();
+    }
+
+    private static List<Course> sorted(List<Course> courses) {
+        courses.sort(Comparator.comparing(Course::getCode));
+        return courses;
+    }
+}
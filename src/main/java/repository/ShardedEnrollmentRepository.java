@@ -0,0 +1,248 @@
+package repository;
+
+import lombok.NonNull;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * EnrollmentRepository that hash-partitions enrollments by course code across a fixed
+ * number of shards.
+ *
+ * Responsibilities:
+ * - Route every section (course + semester) to one {@link InMemoryEnrollmentRepository}
+ *   shard by course code, so a section's seat ledger, waitlist, holds and roster live on
+ *   one shard and seat rules never span shards.
+ * - Run writes on the owning shard's single writer thread; reads of one course run on the
+ *   caller's thread.
+ * - Answer per-student queries and student/semester-wide operations
+ *   ({@link #getEnrollmentsForStudent}, {@link #removeStudent}, {@link #freezeSemester})
+ *   by scatter-gather over all shards.
+ *
+ * Concurrency:
+ * - Enrollments in courses on different shards run in parallel and never touch the same
+ *   ledger or index; writes to one shard are applied one at a time by its writer thread.
+ * - All shards share one {@link StorageContext}, so snapshots, the change feed and the
+ *   enrollment ledger span them.
+ */
+public class ShardedEnrollmentRepository implements EnrollmentRepository, AutoCloseable {
+
+    private final Shards<InMemoryEnrollmentRepository> shards;
+
+    /**
+     * Creates a repository with the given number of shards.
+     *
+     * @param shardCount number of shards, usually the number of cores.
+     * @param storageContext the storage context, shared by every shard.
+     */
+    public ShardedEnrollmentRepository(int shardCount, @NonNull StorageContext storageContext) {
+        this.shards = new Shards<>(shardCount, i -> new InMemoryEnrollmentRepository(storageContext), "enrollments");
+    }
+
+    /**
+     * @return number of shards.
+     */
+    public int shardCount() {
+        return shards.count();
+    }
+
+    @Override
+    public EnrollmentStatus enroll(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return shards.write(courseCode, shard -> shard.enroll(studentId, courseCode, semester));
+    }
+
+    @Override
+    public void drop(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        shards.write(courseCode, shard -> {
+            shard.drop(studentId, courseCode, semester);
+            return null;
+        });
+    }
+
+    @Override
+    public void withdraw(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        shards.write(courseCode, shard -> {
+            shard.withdraw(studentId, courseCode, semester);
+            return null;
+        });
+    }
+
+    @Override
+    public void complete(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        shards.write(courseCode, shard -> {
+            shard.complete(studentId, courseCode, semester);
+            return null;
+        });
+    }
+
+    /**
+     * Removes the student from every shard, in parallel.
+     */
+    @Override
+    public int removeStudent(@NonNull String studentId) {
+        return shards.sum(shard -> shard.removeStudent(studentId));
+    }
+
+    @Override
+    public int removeCourse(@NonNull String courseCode) {
+        return shards.write(courseCode, shard -> shard.removeCourse(courseCode));
+    }
+
+    /**
+     * Freezes the semester on every shard, in parallel.
+     *
+     * @throws IllegalArgumentException if the semester is already frozen.
+     */
+    @Override
+    public int freezeSemester(@NonNull String semester) {
+        return shards.sum(shard -> shard.freezeSemester(semester));
+    }
+
+    /**
+     * Gathers the student's enrollments from every shard, grouped by shard.
+     */
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(@NonNull String studentId) {
+        return shards.gather(shard -> shard.getEnrollmentsForStudent(studentId));
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(@NonNull String studentId, @NonNull Snapshot snapshot) {
+        return shards.gather(shard -> shard.getEnrollmentsForStudent(studentId, snapshot));
+    }
+
+    @Override
+    public Stream<Enrollment> streamEnrollments() {
+        return shards.stream(EnrollmentRepository::streamEnrollments);
+    }
+
+    @Override
+    public List<String> getStudentsForCourse(String courseCode) {
+        return courseCode == null ? new ArrayList<>() : shards.of(courseCode).getStudentsForCourse(courseCode);
+    }
+
+    @Override
+    public List<String> getStudentsForCourse(String courseCode, @NonNull Snapshot snapshot) {
+        return courseCode == null ? new ArrayList<>()
+                : shards.of(courseCode).getStudentsForCourse(courseCode, snapshot);
+    }
+
+    @Override
+    public Page<String> getStudentsForCourse(String courseCode, String cursor, int limit) {
+        Page.requireLimit(limit);
+        return courseCode == null ? new Page<>(new ArrayList<>(), null)
+                : shards.of(courseCode).getStudentsForCourse(courseCode, cursor, limit);
+    }
+
+    @Override
+    public Stream<String> streamStudentsForCourse(String courseCode) {
+        return courseCode == null ? Stream.empty() : shards.of(courseCode).streamStudentsForCourse(courseCode);
+    }
+
+    @Override
+    public Enrollment recordGrade(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                                  @NonNull GradeType gradeType, double score) {
+        return shards.write(courseCode, shard -> shard.recordGrade(studentId, courseCode, semester, gradeType, score));
+    }
+
+    @Override
+    public Enrollment getEnrollment(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return shards.of(courseCode).getEnrollment(studentId, courseCode, semester);
+    }
+
+    @Override
+    public boolean compareAndSet(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                                 long expectedVersion, @NonNull Enrollment updated) {
+        return shards.write(courseCode,
+                shard -> shard.compareAndSet(studentId, courseCode, semester, expectedVersion, updated));
+    }
+
+    @Override
+    public void setCapacity(@NonNull String courseCode, int capacity) {
+        shards.write(courseCode, shard -> {
+            shard.setCapacity(courseCode, capacity);
+            return null;
+        });
+    }
+
+    @Override
+    public void setCapacity(@NonNull String courseCode, @NonNull String semester, int capacity) {
+        shards.write(courseCode, shard -> {
+            shard.setCapacity(courseCode, semester, capacity);
+            return null;
+        });
+    }
+
+    @Override
+    public int getAvailableSeats(@NonNull String courseCode, @NonNull String semester) {
+        return shards.of(courseCode).getAvailableSeats(courseCode, semester);
+    }
+
+    @Override
+    public List<String> getWaitlist(@NonNull String courseCode, @NonNull String semester) {
+        return shards.of(courseCode).getWaitlist(courseCode, semester);
+    }
+
+    @Override
+    public SeatHold placeHold(@NonNull String studentId, @NonNull String courseCode,
+                              @NonNull String semester, @NonNull Duration ttl) {
+        return shards.write(courseCode, shard -> shard.placeHold(studentId, courseCode, semester, ttl));
+    }
+
+    @Override
+    public EnrollmentStatus confirmHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return shards.write(courseCode, shard -> shard.confirmHold(studentId, courseCode, semester));
+    }
+
+    @Override
+    public boolean releaseHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return shards.write(courseCode, shard -> shard.releaseHold(studentId, courseCode, semester));
+    }
+
+    /**
+     * Splits the holds by owning shard and expires each part on its shard, in parallel.
+     */
+    @Override
+    public int expireHolds(@NonNull Collection<SeatHold> holds) {
+        Map<InMemoryEnrollmentRepository, List<SeatHold>> byShard = new IdentityHashMap<>();
+        for (SeatHold hold : holds) {
+            byShard.computeIfAbsent(shards.of(hold.courseCode()), shard -> new ArrayList<>()).add(hold);
+        }
+        if (byShard.isEmpty()) return 0;
+        return shards.sum(shard -> {
+            List<SeatHold> owned = byShard.get(shard);
+            return owned == null ? 0 : shard.expireHolds(owned);
+        });
+    }
+
+    @Override
+    public SeatHold getHold(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester) {
+        return shards.of(courseCode).getHold(studentId, courseCode, semester);
+    }
+
+    @Override
+    public void restore(@NonNull String studentId, @NonNull String courseCode, @NonNull String semester,
+                        @NonNull List<Enrollment> records, SeatHold hold) {
+        shards.write(courseCode, shard -> {
+            shard.restore(studentId, courseCode, semester, records, hold);
+            return null;
+        });
+    }
+
+    /**
+     * Stops the shards' writer threads.
+     */
+    @Override
+    public void close() {
+        shards.close();
+    }
+}
@@ -0,0 +1,165 @@
+package repository;
+
+import lombok.NonNull;
+import model.Student;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StudentRepository that hash-partitions students by ID across a fixed number of shards.
+ *
+ * Responsibilities:
+ * - Route each student to one {@link InMemoryStudentRepository} shard by ID.
+ * - Run writes on the owning shard's single writer thread; point reads run on the caller's thread.
+ * - Answer {@link #searchByNameToken} by scatter-gather: every shard searches its own name index.
+ * - Keep emails unique across shards, which a shard alone cannot do.
+ *
+ * Data Structures:
+ * - shards: one repository (with its own ID, email and name-token indexes) per shard.
+ * - emailOwners: ConcurrentHashMap (email -> student ID) spanning all shards; putIfAbsent
+ *   reserves an email before the owning shard stores the student.
+ *
+ * Concurrency:
+ * - Writes to students on different shards run in parallel and never touch the same
+ *   index; writes to one shard are applied one at a time by its writer thread.
+ * - All shards share one {@link StorageContext}, so snapshots and the change feed span them.
+ */
+public class ShardedStudentRepository implements StudentRepository, Compactable, AutoCloseable {
+
+    private final Shards<InMemoryStudentRepository> shards;
+
+    /**
+     * Maps email addresses to the ID of the student using them, across all shards.
+     */
+    private final ConcurrentHashMap<String, String> emailOwners = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a repository with the given number of shards.
+     *
+     * @param shardCount number of shards, usually the number of cores.
+     * @param storageContext the storage context, shared by every shard.
+     */
+    public ShardedStudentRepository(int shardCount, @NonNull StorageContext storageContext) {
+        this.shards = new Shards<>(shardCount, i -> new InMemoryStudentRepository(storageContext), "students");
+    }
+
+    /**
+     * @return number of shards.
+     */
+    public int shardCount() {
+        return shards.count();
+    }
+
+    /**
+     * Reserves the email, then stores the student on its shard. The reservation is
+     * dropped again if the shard rejects the student.
+     */
+    @Override
+    public void createStudent(Student student) {
+        if (student == null) { throw new IllegalArgumentException("Student cannot be null"); }
+        String id = student.getId();
+        String email = student.getEmail();
+        if (id == null || email == null) {
+            throw new IllegalArgumentException("Student, id, email cannot be null");
+        }
+        if (emailOwners.putIfAbsent(email, id) != null) {
+            throw new IllegalArgumentException("Student with this id or email already exists");
+        }
+        try {
+            shards.write(id, shard -> {
+                shard.createStudent(student);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            emailOwners.remove(email, id);
+            throw e;
+        }
+    }
+
+    @Override
+    public Student getById(String id) {
+        return id == null ? null : shards.of(id).getById(id);
+    }
+
+    @Override
+    public Student getById(String id, @NonNull Snapshot snapshot) {
+        return id == null ? null : shards.of(id).getById(id, snapshot);
+    }
+
+    @Override
+    public List<Student> searchByNameToken(@NonNull String token) {
+        return shards.gather(shard -> shard.searchByNameToken(token));
+    }
+
+    /**
+     * Reserves a changed email across shards before the owning shard swaps the student,
+     * then releases whichever email the student no longer uses.
+     */
+    @Override
+    public boolean compareAndSet(@NonNull String id, long expectedVersion, @NonNull Student updated) {
+        String email = updated.getEmail();
+        if (email == null) {
+            throw new IllegalArgumentException("Student, id, email cannot be null");
+        }
+        return shards.write(id, shard -> {
+            // Only this thread writes to the shard, so the student cannot change under us.
+            Student current = shard.getById(id);
+            if (current == null || current.getVersion() != expectedVersion) {
+                return false;
+            }
+            boolean emailChanged = !email.equals(current.getEmail());
+            if (emailChanged) {
+                String owner = emailOwners.putIfAbsent(email, id);
+                if (owner != null && !owner.equals(id)) {
+                    throw new IllegalArgumentException("Student with this id or email already exists");
+                }
+            }
+            boolean swapped;
+            try {
+                swapped = shard.compareAndSet(id, expectedVersion, updated);
+            } catch (RuntimeException e) {
+                if (emailChanged) emailOwners.remove(email, id);
+                throw e;
+            }
+            if (emailChanged) {
+                emailOwners.remove(swapped ? current.getEmail() : email, id);
+            }
+            return swapped;
+        });
+    }
+
+    @Override
+    public void deleteStudent(String id) {
+        if (id == null) return;
+        shards.write(id, shard -> {
+            Student current = shard.getById(id);
+            if (current != null) {
+                shard.deleteStudent(id);
+                emailOwners.remove(current.getEmail(), id);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int pendingTombstones() {
+        return shards.sum(InMemoryStudentRepository::pendingTombstones);
+    }
+
+    /**
+     * Purges up to {@code maxEntries} tombstones on every shard, in parallel.
+     */
+    @Override
+    public int purgeTombstones(int maxEntries) {
+        return shards.sum(shard -> shard.purgeTombstones(maxEntries));
+    }
+
+    /**
+     * Stops the shards' writer threads.
+     */
+    @Override
+    public void close() {
+        shards.close();
+    }
+}
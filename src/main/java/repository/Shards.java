@@ -0,0 +1,176 @@
+package repository;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * A fixed set of repository partitions, each with its own writer thread.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Map a partition key (an entity ID) to one shard by hash.</li>
+ *   <li>Run every write to a shard on that shard's single writer thread, so writes to one
+ *       shard never contend with each other and writes to different shards run in
+ *       parallel.</li>
+ *   <li>Run point reads on the caller's thread: the partitions are thread-safe for readers.</li>
+ *   <li>Scatter a query to every shard's thread and gather the results. A shard answers
+ *       after the writes already queued on it, so a query sees every write that returned
+ *       before it was issued.</li>
+ *   <li>Stream every shard's part of a listing lazily on the caller's thread.</li>
+ * </ul>
+ *
+ * @param <R> the partition type.
+ */
+final class Shards<R> implements AutoCloseable {
+
+    private final List<R> partitions;
+
+    private final List<ExecutorService> writers;
+
+    /**
+     * @param count number of shards.
+     * @param factory creates the partition of a shard, given its index.
+     * @param name thread-name prefix.
+     */
+    Shards(int count, @NonNull IntFunction<R> factory, @NonNull String name) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        List<R> partitions = new ArrayList<>(count);
+        List<ExecutorService> writers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(factory.apply(i));
+            String threadName = name + "-shard-" + i;
+            writers.add(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            }));
+        }
+        this.partitions = List.copyOf(partitions);
+        this.writers = List.copyOf(writers);
+    }
+
+    /**
+     * @return number of shards.
+     */
+    int count() {
+        return partitions.size();
+    }
+
+    /**
+     * @return the shard index owning a key.
+     */
+    int indexOf(@NonNull String key) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), partitions.size());
+    }
+
+    /**
+     * @return the partition owning a key, for reads on the caller's thread.
+     */
+    R of(@NonNull String key) {
+        return partitions.get(indexOf(key));
+    }
+
+    /**
+     * Runs a write on the writer thread of the shard owning the key and waits for it.
+     *
+     * @return what the write returned.
+     */
+    <T> T write(@NonNull String key, @NonNull Function<R, T> write) {
+        int index = indexOf(key);
+        return join(CompletableFuture.supplyAsync(() -> write.apply(partitions.get(index)), writers.get(index)));
+    }
+
+    /**
+     * Runs work on every shard's writer thread in parallel and waits for all of them.
+     *
+     * @return the results, in shard order.
+     */
+    <T> List<T> scatter(@NonNull Function<R, T> work) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            R partition = partitions.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> work.apply(partition), writers.get(i)));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(join(future));
+            } catch (RuntimeException e) {
+                // Wait for every shard before failing, so no work is still running afterwards.
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+        return results;
+    }
+
+    /**
+     * Runs a query on every shard and concatenates the lists it returns.
+     */
+    <T> List<T> gather(@NonNull Function<R, List<T>> query) {
+        List<T> merged = new ArrayList<>();
+        for (List<T> part : scatter(query)) {
+            merged.addAll(part);
+        }
+        return merged;
+    }
+
+    /**
+     * Concatenates a stream from every shard, in shard order. The concatenation is a
+     * balanced tree, so a parallel stream splits it between shards before splitting inside
+     * them.
+     */
+    <T> Stream<T> stream(@NonNull Function<R, Stream<T>> part) {
+        return concat(0, partitions.size(), part);
+    }
+
+    /**
+     * Runs a counting write on every shard and sums the counts.
+     */
+    int sum(@NonNull Function<R, Integer> count) {
+        int total = 0;
+        for (int part : scatter(count)) {
+            total += part;
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        writers.forEach(ExecutorService::shutdown);
+    }
+
+    private <T> Stream<T> concat(int from, int to, Function<R, Stream<T>> part) {
+        if (to - from == 1) return part.apply(partitions.get(from));
+        int middle = (from + to) >>> 1;
+        return Stream.concat(concat(from, middle, part), concat(middle, to, part));
+    }
+
+    /**
+     * Waits for a shard task, rethrowing its exception as the caller would have seen it
+     * had the repository been called directly.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package repository;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * A point-in-time read position across the repositories sharing one {@link SnapshotManager}.
+ *
+ * <p>Pass it to the snapshot overloads of the repository read methods. Reads through the
+ * same snapshot always return the state as of {@link #getTimestamp()}, while writers keep
+ * going. Close the snapshot when done; versions only it can see are then reclaimed.</p>
+ */
+@Getter
+public final class Snapshot implements AutoCloseable {
+
+    /** Commit timestamp the snapshot reads at. */
+    private final long timestamp;
+
+    /** Tie-breaker between snapshots opened at the same timestamp. */
+    private final long id;
+
+    @Getter(AccessLevel.NONE)
+    private final SnapshotManager manager;
+
+    private volatile boolean closed;
+
+    Snapshot(SnapshotManager manager, long timestamp, long id) {
+        this.manager = manager;
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * @return the timestamp, after checking the snapshot is still open.
+     * @throws IllegalStateException if the snapshot was closed.
+     */
+    long readTimestamp() {
+        if (closed) {
+            throw new IllegalStateException("Snapshot is closed");
+        }
+        return timestamp;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        manager.close(this);
+    }
+}
@@ -0,0 +1,136 @@
+package repository;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Commit clock and snapshot registry shared by the repositories of one {@link StorageContext}.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Hand out commit timestamps. Every write to a versioned repository stamps its new
+ *       version with the next tick of a single {@link AtomicLong}.</li>
+ *   <li>Open {@link Snapshot}s: a snapshot at {@code t} sees exactly the versions stamped
+ *       at or before {@code t}, whatever writers do afterwards.</li>
+ *   <li>Compute the reclamation horizon (the oldest timestamp any open or opening snapshot
+ *       may read at) and prune versions behind it, eagerly on each write and again for
+ *       retained chains whenever a snapshot closes.</li>
+ * </ul>
+ *
+ * <p>A snapshot registers itself and then checks the {@code floor}, the highest horizon any
+ * pruner has used; a pruner raises the floor and then scans the registry. Whichever runs
+ * second sees the other, so a snapshot is never opened behind versions already pruned.</p>
+ */
+public class SnapshotManager {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    /** Highest horizon used for pruning so far; snapshots below it must retry. */
+    private final AtomicLong floor = new AtomicLong();
+
+    private final AtomicLong snapshotIds = new AtomicLong();
+
+    private final ConcurrentSkipListSet<Snapshot> active = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Snapshot::getTimestamp).thenComparingLong(Snapshot::getId));
+
+    /** Chains that still hold versions for an open snapshot. */
+    private final Queue<VersionChain<?>> retained = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Opens a point-in-time view. Close it (try-with-resources) so that old versions
+     * can be reclaimed.
+     *
+     * @return a snapshot at the latest commit timestamp.
+     */
+    public Snapshot open() {
+        for (;;) {
+            long timestamp = clock.get();
+            Snapshot snapshot = new Snapshot(this, timestamp, snapshotIds.incrementAndGet());
+            active.add(snapshot);
+            if (floor.get() <= timestamp) {
+                return snapshot;
+            }
+            // A pruner may already have dropped versions this timestamp needs.
+            active.remove(snapshot);
+        }
+    }
+
+    /**
+     * @return number of open snapshots.
+     */
+    public int activeCount() {
+        return active.size();
+    }
+
+    /**
+     * @return the latest commit timestamp.
+     */
+    public long currentTimestamp() {
+        return clock.get();
+    }
+
+    long nextTimestamp() {
+        return clock.incrementAndGet();
+    }
+
+    /**
+     * @return the oldest timestamp an open snapshot may read at; versions superseded
+     *         at or before it are unreachable.
+     */
+    long horizon() {
+        long now = clock.get();
+        long f;
+        while ((f = floor.get()) < now && !floor.compareAndSet(f, now)) {
+            // retry
+        }
+        Snapshot oldest = firstOrNull();
+        return oldest == null ? now : Math.min(now, oldest.getTimestamp());
+    }
+
+    /**
+     * Prunes a chain after a write and keeps it for later if an open snapshot still needs
+     * its older versions.
+     */
+    void afterWrite(VersionChain<?> chain) {
+        if (!chain.reclaim(horizon()) && chain.markRetained()) {
+            retained.offer(chain);
+        }
+    }
+
+    void close(Snapshot snapshot) {
+        if (active.remove(snapshot)) {
+            reclaim();
+        }
+    }
+
+    /**
+     * Prunes every retained chain against the current horizon.
+     *
+     * @return number of chains still retained.
+     */
+    public int reclaim() {
+        long horizon = horizon();
+        int pending = retained.size();
+        for (int i = 0; i < pending; i++) {
+            VersionChain<?> chain = retained.poll();
+            if (chain == null) break;
+            chain.clearRetained();
+            if (!chain.reclaim(horizon) && chain.markRetained()) {
+                retained.offer(chain);
+            }
+        }
+        return retained.size();
+    }
+
+    private Snapshot firstOrNull() {
+        try {
+            return active.first();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+}
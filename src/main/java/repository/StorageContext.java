@@ -0,0 +1,118 @@
+package repository;
+
+import events.ChangeFeed;
+import events.ChangeType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import metrics.RegistrationMetrics;
+import util.CompactAttributeMap;
+import util.StringDictionary;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Storage settings shared by a group of in-memory repositories.
+ *
+ * <p>Passing the same context to every repository lets them share one
+ * {@link StringDictionary}, so a value such as "Fall 2025" or "CS101" is held
+ * once on the heap no matter how many students, courses or enrollments refer to it.</p>
+ */
+@Getter
+@Builder
+public class StorageContext {
+
+    /** How values are laid out in memory. */
+    @NonNull
+    @Builder.Default
+    private final StorageMode mode = StorageMode.STANDARD;
+
+    /** Shared dictionary used when {@link #mode} is {@link StorageMode#DICTIONARY_ENCODED}. */
+    @NonNull
+    @Builder.Default
+    private final StringDictionary dictionary = new StringDictionary();
+
+    /** Time source for expiring state such as seat holds. */
+    @NonNull
+    @Builder.Default
+    private final Clock clock = Clock.systemUTC();
+
+    /** Commit clock and open snapshots shared by the versioned repositories. */
+    @NonNull
+    @Builder.Default
+    private final SnapshotManager snapshots = new SnapshotManager();
+
+    /** Change feed every repository using this context publishes its mutations to. */
+    @NonNull
+    @Builder.Default
+    private final ChangeFeed changeFeed = new ChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+
+    /** Event-sourced enrollment history; null (not recorded) unless configured. */
+    private final EnrollmentLedger enrollmentLedger;
+
+    /** Enrollment counts per course, department and semester; null (not maintained) unless configured. */
+    private final EnrollmentViews enrollmentViews;
+
+    /** Windowed registration activity; null (not recorded) unless configured. */
+    private final RegistrationMetrics registrationMetrics;
+
+    /** Local directory cold data is paged to; null (everything stays on heap) unless configured. */
+    private final TieredStorage tieredStorage;
+
+    /**
+     * @return a context that stores values as received.
+     */
+    public static StorageContext standard() {
+        return StorageContext.builder().build();
+    }
+
+    /**
+     * @return a dictionary-encoded context with a fresh shared dictionary.
+     */
+    public static StorageContext dictionaryEncoded() {
+        return StorageContext.builder().mode(StorageMode.DICTIONARY_ENCODED).build();
+    }
+
+    /**
+     * @return true if repeated values should be interned.
+     */
+    public boolean isDictionaryEncoded() {
+        return mode == StorageMode.DICTIONARY_ENCODED;
+    }
+
+    /**
+     * Returns the shared instance of a repeated value in dictionary mode,
+     * or the value itself otherwise.
+     *
+     * @param value the value to intern (may be null).
+     * @return the value to store.
+     */
+    public String intern(String value) {
+        return isDictionaryEncoded() ? dictionary.canonical(value) : value;
+    }
+
+    /**
+     * Publishes a committed mutation on the {@link #changeFeed}.
+     *
+     * @param type what changed.
+     * @param key ID of the entity that changed.
+     * @param payload the new state, or null for deletions.
+     */
+    public void publish(ChangeType type, String key, Object payload) {
+        changeFeed.publish(type, key, payload);
+    }
+
+    /**
+     * Converts an attribute map to its storage representation.
+     *
+     * @param attributes the attributes supplied by the caller (may be null).
+     * @return a {@link CompactAttributeMap} in dictionary mode, otherwise the map unchanged.
+     */
+    public Map<String, String> compactAttributes(Map<String, String> attributes) {
+        if (!isDictionaryEncoded() || attributes instanceof CompactAttributeMap) {
+            return attributes;
+        }
+        return new CompactAttributeMap(dictionary, attributes);
+    }
+}
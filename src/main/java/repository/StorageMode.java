@@ -0,0 +1,20 @@
+package repository;
+
+/**
+ * Storage layouts supported by the in-memory repositories.
+ *
+ * <p>The mode only changes how values are laid out on the heap; every
+ * repository method behaves the same in both modes.</p>
+ */
+public enum StorageMode {
+
+    /** Values are stored exactly as received (one String/HashMap per record). */
+    STANDARD,
+
+    /**
+     * Repeated strings (attribute keys, semesters, course codes, department IDs)
+     * are interned into a shared {@link util.StringDictionary}, and student
+     * attributes are stored in compact parallel arrays.
+     */
+    DICTIONARY_ENCODED
+}
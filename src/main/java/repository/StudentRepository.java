@@ -2,6 +2,9 @@ package repository;
 
 import model.Student;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -10,9 +13,11 @@ import java.util.Map;
  *
  * Responsibilities:
  * - Add and store Student objects.
- * - Retrieve students by ID.
+ * - Retrieve students by ID, one or many at a time.
  * - Search students by name token.
  * - Delete students and clean up indexes.
+ * - Replace students atomically with an optimistic version check.
+ * - Read students as of a {@link Snapshot}.
  */
 public interface StudentRepository {
 
@@ -32,6 +37,34 @@ public interface StudentRepository {
      */
     Student getById(String id);
 
+    /**
+     * Retrieves many students in one call. Backends that pay per query (JDBC) fetch them
+     * with one query; the default looks each ID up in turn.
+     *
+     * @param ids the student IDs; nulls and duplicates are ignored.
+     * @return the students found, by ID in the order of {@code ids}; unknown IDs are absent.
+     */
+    default Map<String, Student> getByIds(Collection<String> ids) {
+        Map<String, Student> found = new LinkedHashMap<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            Student student = id == null ? null : getById(id);
+            if (student != null) {
+                found.put(id, student);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Retrieves a student as of a snapshot.
+     *
+     * @param id the student ID.
+     * @param snapshot an open snapshot from the repository's {@link SnapshotManager}.
+     * @return the student as it was when the snapshot was opened, or null if it did not exist then.
+     * @throws IllegalStateException if the snapshot is closed.
+     */
+    Student getById(String id, Snapshot snapshot);
+
     /**
      * Searches for students whose names contain the given token.
      *
@@ -40,6 +73,18 @@ public interface StudentRepository {
      */
     List<Student> searchByNameToken(String token);
 
+    /**
+     * Replaces a stored student if nobody else has replaced it since it was read.
+     * On success the new instance becomes the stored one with the next version.
+     *
+     * @param id the student ID.
+     * @param expectedVersion the version of the student the update was based on.
+     * @param updated the new state, a different instance from the stored one (see {@link Student#copy()}).
+     * @return true if replaced, false if the student changed or was deleted meanwhile.
+     * @throws IllegalArgumentException if updated is the stored instance or its email belongs to another student.
+     */
+    boolean compareAndSet(String id, long expectedVersion, Student updated);
+
     /**
      * Deletes a student by their ID and removes all associated indexes.
      *
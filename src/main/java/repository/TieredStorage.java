@@ -0,0 +1,95 @@
+package repository;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local directory that repositories page their cold data to.
+ *
+ * <p>Set it on a {@link StorageContext} ({@code StorageContext.builder().tieredStorage(...)})
+ * and the repositories sharing the context keep only hot data on the heap:
+ * <ul>
+ *   <li>{@link InMemoryNotificationRepository} pages a notification out once it is sent.</li>
+ *   <li>{@link InMemoryEnrollmentRepository#spillSemester} pages out a frozen semester.</li>
+ * </ul>
+ * Each repository gets its own {@link PagedFileStore} file in the directory. Close the
+ * storage when the repositories are no longer used.</p>
+ */
+public class TieredStorage implements AutoCloseable {
+
+    /** Records per page unless configured otherwise. */
+    public static final int DEFAULT_RECORDS_PER_PAGE = 64;
+
+    /** Pages each store keeps in its read cache unless configured otherwise. */
+    public static final int DEFAULT_CACHED_PAGES = 256;
+
+    private final Path directory;
+
+    private final int recordsPerPage;
+
+    private final int cachedPages;
+
+    private final Map<String, PagedFileStore<?>> stores = new ConcurrentHashMap<>();
+
+    /**
+     * Creates tiered storage with the default page size and cache size.
+     *
+     * @param directory directory for the store files; created if missing.
+     */
+    public TieredStorage(@NonNull Path directory) {
+        this(directory, DEFAULT_RECORDS_PER_PAGE, DEFAULT_CACHED_PAGES);
+    }
+
+    /**
+     * Creates tiered storage.
+     *
+     * @param directory directory for the store files; created if missing.
+     * @param recordsPerPage records per page of each store.
+     * @param cachedPages pages each store keeps in its read cache.
+     */
+    public TieredStorage(@NonNull Path directory, int recordsPerPage, int cachedPages) {
+        if (recordsPerPage <= 0 || cachedPages <= 0) {
+            throw new IllegalArgumentException("Records per page and cached pages must be positive");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.directory = directory;
+        this.recordsPerPage = recordsPerPage;
+        this.cachedPages = cachedPages;
+    }
+
+    /**
+     * Opens the store with the given name, or returns it if already open.
+     *
+     * @param name store name, used as the file name.
+     * @param codec encodes the records.
+     * @return the store.
+     */
+    public <T> PagedFileStore<T> open(@NonNull String name, @NonNull RecordCodec<T> codec) {
+        return open(name, codec, recordsPerPage, cachedPages);
+    }
+
+    /**
+     * Opens a store with its own page and cache size, e.g. one very large record per page.
+     */
+    @SuppressWarnings("unchecked")
+    <T> PagedFileStore<T> open(String name, RecordCodec<T> codec, int recordsPerPage, int cachedPages) {
+        return (PagedFileStore<T>) stores.computeIfAbsent(name,
+                k -> new PagedFileStore<>(directory.resolve(k + ".pages"), codec, recordsPerPage, cachedPages));
+    }
+
+    @Override
+    public void close() {
+        stores.values().forEach(PagedFileStore::close);
+        stores.clear();
+    }
+}
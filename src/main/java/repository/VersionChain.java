@@ -0,0 +1,169 @@
+package repository;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free, newest-first list of the committed versions of one stored entity.
+ *
+ * <p>Writers push a version on top of the head with a CAS and then stamp it with a commit
+ * timestamp (pending-then-stamp). A version is only ever pushed on top of a stamped one,
+ * so timestamps decrease along the chain. A reader that meets a pending version stamps it
+ * itself before comparing; the stamp it gets is newer than any snapshot already open, so
+ * a snapshot never sees a version appear half-way through a read.</p>
+ *
+ * <p>A {@code null} value is a tombstone (the entity was deleted). Once no snapshot can see
+ * past a tombstone the chain is retired and its owner unlinks it from the repository map.</p>
+ *
+ * @param <T> the entity type; stored instances must not be modified after they are pushed.
+ */
+final class VersionChain<T> {
+
+    private static final long PENDING = Long.MAX_VALUE;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<Version> TIMESTAMP =
+            AtomicLongFieldUpdater.newUpdater(Version.class, "timestamp");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<VersionChain> RETAINED =
+            AtomicIntegerFieldUpdater.newUpdater(VersionChain.class, "retained");
+
+    private final SnapshotManager snapshots;
+
+    private final AtomicReference<Version<T>> head;
+
+    /** Called once when a deleted entity's chain is retired. */
+    private volatile Runnable onRetire;
+
+    /** 1 while queued for reclamation by the snapshot manager. */
+    private volatile int retained;
+
+    /**
+     * Creates a chain holding a pending first version. Call {@link #publish()} once the
+     * chain is reachable from the repository.
+     */
+    VersionChain(SnapshotManager snapshots, T initial) {
+        this.snapshots = snapshots;
+        this.head = new AtomicReference<>(new Version<>(initial, null, false));
+    }
+
+    /** Stamps the first version, making it visible to snapshots opened from now on. */
+    void publish() {
+        stamp(head.get());
+    }
+
+    /**
+     * @return the newest value, or null if the entity is deleted.
+     */
+    T latest() {
+        return head.get().value;
+    }
+
+    /**
+     * @return true if the chain was retired and must be replaced by a new one.
+     */
+    boolean isRetired() {
+        return head.get().retired;
+    }
+
+    /**
+     * @param timestamp a snapshot timestamp.
+     * @return the value visible at {@code timestamp}, or null if the entity did not exist.
+     */
+    T readAt(long timestamp) {
+        for (Version<T> v = head.get(); v != null; v = v.older) {
+            if (v.retired) return null;
+            if (stamp(v) <= timestamp) return v.value;
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the newest value if it is still {@code expected} (by identity).
+     *
+     * @param expected the value the update was based on (null to revive a deleted entity).
+     * @param updated the new value (null to delete).
+     * @return true if the new version was committed.
+     */
+    boolean compareAndSet(T expected, T updated) {
+        Version<T> current = head.get();
+        if (current.retired || current.value != expected) return false;
+        stamp(current);
+        Version<T> next = new Version<>(updated, current, false);
+        if (!head.compareAndSet(current, next)) return false;
+        stamp(next);
+        snapshots.afterWrite(this);
+        return true;
+    }
+
+    /**
+     * Deletes the entity, remembering how to unlink the chain once it is reclaimable.
+     *
+     * @return true if a tombstone was committed on top of {@code expected}.
+     */
+    boolean delete(T expected, Runnable unlink) {
+        onRetire = unlink;
+        return expected != null && compareAndSet(expected, null);
+    }
+
+    /**
+     * Drops versions no snapshot at or after {@code horizon} can see, and retires the chain
+     * if only a reclaimable tombstone is left.
+     *
+     * @return true if nothing more can be reclaimed later.
+     */
+    boolean reclaim(long horizon) {
+        Version<T> top = head.get();
+        if (top.retired) return true;
+        Version<T> keep = top;
+        while (keep != null && stamp(keep) > horizon) {
+            keep = keep.older;
+        }
+        if (keep != null) {
+            keep.older = null;
+        }
+        if (top.value == null && keep == top) {
+            Runnable unlink = onRetire;
+            if (unlink != null && head.compareAndSet(top, new Version<>(null, null, true))) {
+                unlink.run();
+                return true;
+            }
+            return false;
+        }
+        return top.value != null && top.older == null;
+    }
+
+    boolean markRetained() {
+        return RETAINED.compareAndSet(this, 0, 1);
+    }
+
+    void clearRetained() {
+        retained = 0;
+    }
+
+    /**
+     * @return the commit timestamp of a version, stamping it first if it is pending.
+     */
+    private long stamp(Version<T> version) {
+        long ts = version.timestamp;
+        if (ts != PENDING) return ts;
+        TIMESTAMP.compareAndSet(version, PENDING, snapshots.nextTimestamp());
+        return version.timestamp;
+    }
+
+    /** One committed (or pending) value. */
+    static final class Version<T> {
+        final T value;
+        final boolean retired;
+        volatile long timestamp = PENDING;
+        volatile Version<T> older;
+
+        Version(T value, Version<T> older, boolean retired) {
+            this.value = value;
+            this.older = older;
+            this.retired = retired;
+        }
+    }
+}
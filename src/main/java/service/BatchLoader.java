@@ -0,0 +1,144 @@
+package service;
+
+import lombok.NonNull;
+import model.Course;
+import model.Student;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Request-scoped loader that coalesces the lookups made while handling one request into
+ * bulk fetches.
+ *
+ * <p>Code that needs a record calls {@link #load} and gets a future instead of querying
+ * straight away; keys are queued until {@link #dispatch()}, which fetches all of them with
+ * one call. Each key is fetched at most once per loader, so a student appearing on several
+ * rows of a page costs nothing after the first. Typical use:
+ * <pre>{@code
+ * BatchLoader<String, Student> students = BatchLoader.students(studentService);
+ * List<CompletableFuture<Student>> rows = new ArrayList<>();
+ * for (Enrollment e : page) {
+ *     rows.add(students.load(e.getStudentId()));
+ * }
+ * students.dispatch(); // One getStudentsByIds call for the whole page.
+ * }</pre>
+ *
+ * <p>Create one loader per request and drop it afterwards: cached records are not
+ * refreshed, and the loader is not thread-safe.</p>
+ *
+ * @param <K> the key type.
+ * @param <V> the record type.
+ */
+public final class BatchLoader<K, V> {
+
+    private final Function<Collection<K>, Map<K, V>> fetch;
+
+    /** Every key loaded so far: pending ones until the next dispatch, completed ones after. */
+    private final Map<K, CompletableFuture<V>> loaded = new HashMap<>();
+
+    private List<K> queued = new ArrayList<>();
+
+    private int fetches;
+
+    /**
+     * @param fetch fetches many records at once; keys it leaves out load as null.
+     */
+    public BatchLoader(@NonNull Function<Collection<K>, Map<K, V>> fetch) {
+        this.fetch = fetch;
+    }
+
+    /**
+     * @return a loader fetching through {@link StudentService#getStudentsByIds}.
+     */
+    public static BatchLoader<String, Student> students(@NonNull StudentService studentService) {
+        return new BatchLoader<>(studentService::getStudentsByIds);
+    }
+
+    /**
+     * @return a loader fetching through {@link CourseService#getCoursesByCodes}.
+     */
+    public static BatchLoader<String, Course> courses(@NonNull CourseService courseService) {
+        return new BatchLoader<>(courseService::getCoursesByCodes);
+    }
+
+    /**
+     * Queues a key for the next {@link #dispatch()}, unless it was loaded before.
+     *
+     * @return the record, completed by a dispatch with null if it does not exist.
+     */
+    public CompletableFuture<V> load(@NonNull K key) {
+        CompletableFuture<V> future = loaded.get(key);
+        if (future == null) {
+            future = new CompletableFuture<>();
+            loaded.put(key, future);
+            queued.add(key);
+        }
+        return future;
+    }
+
+    /**
+     * Loads a key, dispatching straight away if it is not loaded yet (along with anything
+     * else queued).
+     *
+     * @return the record, or null if it does not exist.
+     */
+    public V get(@NonNull K key) {
+        CompletableFuture<V> future = load(key);
+        if (!future.isDone()) {
+            dispatch();
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Fetches every queued key with one call and completes their futures. If the fetch
+     * fails, their futures fail with its exception and the keys are forgotten, so they can
+     * be loaded again.
+     *
+     * @return number of keys fetched (0 if none was queued).
+     */
+    public int dispatch() {
+        if (queued.isEmpty()) return 0;
+        List<K> keys = queued;
+        queued = new ArrayList<>();
+        fetches++;
+        Map<K, V> found;
+        try {
+            found = fetch.apply(keys);
+        } catch (RuntimeException e) {
+            for (K key : keys) {
+                loaded.remove(key).completeExceptionally(e);
+            }
+            throw e;
+        }
+        for (K key : keys) {
+            loaded.get(key).complete(found.get(key));
+        }
+        return keys.size();
+    }
+
+    /**
+     * @return keys waiting for the next dispatch.
+     */
+    public int queuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * @return bulk fetches made so far.
+     */
+    public int fetchCount() {
+        return fetches;
+    }
+}
@@ -2,7 +2,9 @@ package service;
 
 import model.Course;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing courses.
@@ -27,6 +29,14 @@ public interface CourseService {
      */
     Course getCourseByCode(String code);
 
+    /**
+     * Retrieves many courses in one call, e.g. the courses of a student's enrollments.
+     *
+     * @param codes the course codes; nulls and duplicates are ignored.
+     * @return the courses found, by code in the order given; unknown codes are absent.
+     */
+    Map<String, Course> getCoursesByCodes(Collection<String> codes);
+
     /**
      * Lists all courses in a department.
      *
@@ -36,7 +46,8 @@ public interface CourseService {
     List<Course> listCoursesByDepartment(String department);
 
     /**
-     * Deletes a course by its code.
+     * Deletes a course by its code, with its enrollments, instructor assignments and
+     * department listing when the implementation cascades deletes.
      *
      * @param code the course code.
      */
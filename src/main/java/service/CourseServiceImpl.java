@@ -2,9 +2,12 @@ package service;
 
 import lombok.AllArgsConstructor;
 import model.Course;
+import repository.CascadeDeleteCoordinator;
 import repository.CourseRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of CourseService.
@@ -12,12 +15,26 @@ import java.util.List;
  * Responsibilities:
  * - Delegates persistence to the CourseRepository.
  * - Adds business validations.
+ * - Deletes through a CascadeDeleteCoordinator when one is given, so a deleted course's
+ *   enrollments, instructor assignments and department listing go with it.
  */
 @AllArgsConstructor
 public class CourseServiceImpl implements CourseService{
 
     private final CourseRepository courseRepository;
 
+    /** Removes a deleted course's dependents; null deletes the course record only. */
+    private final CascadeDeleteCoordinator cascadeDeletes;
+
+    /**
+     * Creates a service that deletes course records only, without their dependents.
+     *
+     * @param courseRepository the course repository.
+     */
+    public CourseServiceImpl(CourseRepository courseRepository) {
+        this(courseRepository, null);
+    }
+
     @Override
     public void createCourse(Course course) {
         if (course == null || course.getCode() == null || course.getDepartment() == null) {
@@ -32,6 +49,14 @@ public class CourseServiceImpl implements CourseService{
         return courseRepository.getByCode(code);
     }
 
+    @Override
+    public Map<String, Course> getCoursesByCodes(Collection<String> codes) {
+        if (codes == null) {
+            throw new IllegalArgumentException("Course codes cannot be null");
+        }
+        return courseRepository.getByCodes(codes);
+    }
+
     @Override
     public List<Course> listCoursesByDepartment(String department) {
         return courseRepository.listByDepartment(department);
@@ -39,6 +64,10 @@ public class CourseServiceImpl implements CourseService{
 
     @Override
     public void deleteCourse(String code) {
+        if (cascadeDeletes != null && code != null) {
+            cascadeDeletes.deleteCourse(code);
+            return;
+        }
         courseRepository.deleteCourse(code);
     }
 }
@@ -0,0 +1,267 @@
+package service;
+
+import lombok.NonNull;
+import model.EnrollmentStatus;
+import model.PriorityTier;
+import model.dto.AdmissionTicket;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission-control front for {@link EnrollmentService#enrollStudent}.
+ *
+ * <p>Responsibilities:
+ * <ul>
+ *   <li>Queue enrollment requests into bounded per-tier queues ({@link PriorityTier}).</li>
+ *   <li>Reject requests when a tier queue is full (backpressure) instead of letting
+ *       latency grow without bound; accepted requests get their queue position.</li>
+ *   <li>Drain the queues in weighted round-robin micro-batches on a single dispatcher
+ *       thread, so seats are granted in a fair, deterministic order rather than by
+ *       whoever's request lands first.</li>
+ *   <li>Run each micro-batch on a bounded worker pool. Requests for the same course
+ *       section stay in batch order on one worker; different sections run in parallel.
+ *       A batch finishes before the next one starts.</li>
+ * </ul>
+ *
+ * <p>Data Structures:
+ * <ul>
+ *   <li>{@link ArrayBlockingQueue} per tier → bounded memory, O(1) offer/poll.</li>
+ *   <li>{@link Semaphore} counting queued requests → the dispatcher sleeps when idle.</li>
+ *   <li>{@link EnumMap} of {@link AtomicLong} counters → per-tier queue positions.</li>
+ * </ul>
+ */
+public class EnrollmentAdmissionController implements AutoCloseable {
+
+    private final EnrollmentService enrollmentService;
+
+    private final int batchSize;
+
+    private final EnumMap<PriorityTier, ArrayBlockingQueue<PendingRequest>> queues = new EnumMap<>(PriorityTier.class);
+
+    /** Requests ever accepted per tier. */
+    private final EnumMap<PriorityTier, AtomicLong> enqueued = new EnumMap<>(PriorityTier.class);
+
+    /** Requests ever taken off each tier queue. */
+    private final EnumMap<PriorityTier, AtomicLong> dequeued = new EnumMap<>(PriorityTier.class);
+
+    private final Semaphore queuedRequests = new Semaphore(0);
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final ExecutorService workers;
+
+    private final Thread dispatcher;
+
+    private volatile boolean running;
+
+    /** Set by {@link #close()}; read under the tier queue's lock, which the drain also takes. */
+    private volatile boolean closed;
+
+    /**
+     * Creates a controller. Call {@link #start()} to begin processing.
+     *
+     * @param enrollmentService the service that performs enrollments.
+     * @param queueCapacityPerTier maximum queued requests per tier.
+     * @param batchSize maximum requests per micro-batch.
+     * @param workerThreads size of the worker pool.
+     */
+    public EnrollmentAdmissionController(@NonNull EnrollmentService enrollmentService,
+                                         int queueCapacityPerTier, int batchSize, int workerThreads) {
+        if (queueCapacityPerTier <= 0 || batchSize <= 0 || workerThreads <= 0) {
+            throw new IllegalArgumentException("Queue capacity, batch size and worker threads must be positive");
+        }
+        this.enrollmentService = enrollmentService;
+        this.batchSize = batchSize;
+        for (PriorityTier tier : PriorityTier.values()) {
+            queues.put(tier, new ArrayBlockingQueue<>(queueCapacityPerTier));
+            enqueued.put(tier, new AtomicLong());
+            dequeued.put(tier, new AtomicLong());
+        }
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "admission-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "admission-dispatcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    /**
+     * Starts the dispatcher thread.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        dispatcher.start();
+    }
+
+    /**
+     * Submits an enrollment request.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param tier the student's priority tier.
+     * @return a ticket; if not accepted, the tier queue was full or the controller closed,
+     *         and the result has failed with {@link RejectedExecutionException}.
+     */
+    public AdmissionTicket submit(@NonNull String studentId, @NonNull String courseCode,
+                                  @NonNull String semester, @NonNull PriorityTier tier) {
+        CompletableFuture<EnrollmentStatus> result = new CompletableFuture<>();
+        PendingRequest request = new PendingRequest(studentId, courseCode, semester, result);
+
+        long position;
+        synchronized (queues.get(tier)) {
+            if (closed) {
+                result.completeExceptionally(new RejectedExecutionException("Admission controller is closed"));
+                return new AdmissionTicket(false, tier, -1, result);
+            }
+            if (!queues.get(tier).offer(request)) {
+                rejected.incrementAndGet();
+                result.completeExceptionally(new RejectedExecutionException(
+                        "Admission queue for tier " + tier + " is full"));
+                return new AdmissionTicket(false, tier, -1, result);
+            }
+            position = enqueued.get(tier).incrementAndGet() - dequeued.get(tier).get();
+        }
+        queuedRequests.release();
+        return new AdmissionTicket(true, tier, position, result);
+    }
+
+    /**
+     * @param tier a priority tier.
+     * @return number of requests currently waiting in that tier.
+     */
+    public int queueDepth(PriorityTier tier) {
+        return queues.get(tier).size();
+    }
+
+    /**
+     * @return number of requests rejected because a queue was full.
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return number of requests processed (successfully or not).
+     */
+    public long processedCount() {
+        return processed.get();
+    }
+
+    /**
+     * Stops the dispatcher and the worker pool. Requests still queued are cancelled; later
+     * ones are rejected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        for (ArrayBlockingQueue<PendingRequest> queue : queues.values()) {
+            synchronized (queue) {
+                PendingRequest request;
+                while ((request = queue.poll()) != null) {
+                    request.result().cancel(false);
+                }
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                if (!queuedRequests.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<PendingRequest> batch = nextBatch();
+            if (batch.size() > 1) {
+                // One permit was taken above; the rest belong to the drained requests.
+                queuedRequests.acquireUninterruptibly(batch.size() - 1);
+            }
+            runBatch(batch);
+        }
+    }
+
+    /**
+     * Builds the next micro-batch with weighted round-robin over the tiers.
+     */
+    List<PendingRequest> nextBatch() {
+        List<PendingRequest> batch = new ArrayList<>(batchSize);
+        boolean progress = true;
+        while (batch.size() < batchSize && progress) {
+            progress = false;
+            for (PriorityTier tier : PriorityTier.values()) {
+                ArrayBlockingQueue<PendingRequest> queue = queues.get(tier);
+                for (int i = 0; i < tier.getWeight() && batch.size() < batchSize; i++) {
+                    PendingRequest request = queue.poll();
+                    if (request == null) break;
+                    dequeued.get(tier).incrementAndGet();
+                    batch.add(request);
+                    progress = true;
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Runs a batch: one task per course section, preserving batch order within a section,
+     * and waits for all of them before returning.
+     */
+    private void runBatch(List<PendingRequest> batch) {
+        Map<String, List<PendingRequest>> bySection = new LinkedHashMap<>();
+        for (PendingRequest request : batch) {
+            bySection.computeIfAbsent(request.courseCode() + '\u0000' + request.semester(), k -> new ArrayList<>())
+                    .add(request);
+        }
+
+        List<Future<?>> tasks = new ArrayList<>(bySection.size());
+        for (List<PendingRequest> section : bySection.values()) {
+            tasks.add(workers.submit(() -> section.forEach(this::process)));
+        }
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // process() completes each request's future itself; nothing else to report.
+            }
+        }
+    }
+
+    private void process(PendingRequest request) {
+        EnrollmentStatus status;
+        try {
+            status = enrollmentService.enrollStudent(request.studentId(), request.courseCode(), request.semester());
+        } catch (RuntimeException e) {
+            // Count before completing, so a caller woken by the ticket sees it processed.
+            processed.incrementAndGet();
+            request.result().completeExceptionally(e);
+            return;
+        }
+        processed.incrementAndGet();
+        request.result().complete(status);
+    }
+
+    /** A queued enrollment request. */
+    record PendingRequest(String studentId, String courseCode, String semester,
+                          CompletableFuture<EnrollmentStatus> result) {
+    }
+}
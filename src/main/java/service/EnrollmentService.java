@@ -1,7 +1,12 @@
 package service;
 
+import model.Course;
 import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -19,8 +24,21 @@ public interface EnrollmentService {
      * @param studentId the student's ID.
      * @param courseCode the course code.
      * @param semester the semester identifier (e.g., "Fall 2025").
+     * @return ENROLLED if a seat was taken, WAITLISTED if the section is full.
      */
-    void enrollStudent(String studentId, String courseCode, String semester);
+    EnrollmentStatus enrollStudent(String studentId, String courseCode, String semester);
+
+    /**
+     * Enrolls a student at most once per client request ID. A retry with the same
+     * request ID returns the original result without enrolling again.
+     *
+     * @param requestId the client-generated request ID.
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return the status returned by the first call with this request ID.
+     */
+    EnrollmentStatus enrollStudent(String requestId, String studentId, String courseCode, String semester);
 
     /**
      * Drops a student from a course.
@@ -31,6 +49,16 @@ public interface EnrollmentService {
      */
     void dropStudent(String studentId, String courseCode, String semester);
 
+    /**
+     * Drops a student at most once per client request ID.
+     *
+     * @param requestId the client-generated request ID.
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     */
+    void dropStudent(String requestId, String studentId, String courseCode, String semester);
+
     /**
      * Retrieves all enrollments for a student.
      *
@@ -46,4 +74,91 @@ public interface EnrollmentService {
      * @return list of student IDs.
      */
     List<String> getStudentsForCourse(String courseCode);
+
+    /**
+     * Applies a course's seat capacity to every semester it is offered in.
+     *
+     * @param course the course whose {@code capacity} should be enforced.
+     */
+    void applyCourseCapacity(Course course);
+
+    /**
+     * Sets the seat capacity of one semester of a course.
+     *
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param capacity number of seats; 0 means unlimited.
+     */
+    void setSemesterCapacity(String courseCode, String semester, int capacity);
+
+    /**
+     * Retrieves the waitlist of a course section.
+     *
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return student IDs in waitlist order.
+     */
+    List<String> getWaitlist(String courseCode, String semester);
+
+    /**
+     * Holds a seat for a student for a limited time, e.g. while a prerequisite
+     * override is processed. The hold expires automatically unless confirmed.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param ttl how long to hold the seat.
+     * @return the hold, or null if no seat is free.
+     */
+    SeatHold holdSeat(String studentId, String courseCode, String semester, Duration ttl);
+
+    /**
+     * Enrolls a student into the seat they are holding.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return ENROLLED.
+     */
+    EnrollmentStatus confirmHold(String studentId, String courseCode, String semester);
+
+    /**
+     * Gives a held seat back before it expires.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @return true if the student was holding a seat.
+     */
+    boolean releaseHold(String studentId, String courseCode, String semester);
+
+    /**
+     * Records one grade of a student's enrollment in a course section.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     * @param gradeType which grade to set.
+     * @param score the score, 0-100.
+     * @return the enrollment with the grade applied.
+     */
+    Enrollment recordGrade(String studentId, String courseCode, String semester, GradeType gradeType, double score);
+
+    /**
+     * Withdraws a student from a course, freeing the seat for the waitlist.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     */
+    void withdrawStudent(String studentId, String courseCode, String semester);
+
+    /**
+     * Marks a student's enrollment in a course as completed.
+     *
+     * @param studentId the student's ID.
+     * @param courseCode the course code.
+     * @param semester the semester identifier.
+     */
+    void completeEnrollment(String studentId, String courseCode, String semester);
 }
@@ -1,9 +1,16 @@
 package service;
 
-import lombok.AllArgsConstructor;
+import jobs.HoldExpirySweeper;
+import model.Course;
 import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
 import repository.EnrollmentRepository;
+import util.IdempotencyCache;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -12,19 +19,88 @@ import java.util.List;
  * Responsibilities:
  * - Delegates operations to the EnrollmentRepository.
  * - Adds validation and business logic (e.g., preventing double enrollment).
+ * - Hands seat holds to a HoldExpirySweeper so they are released when they expire.
+ * - Deduplicates retried enroll/drop commands by client request ID.
  */
-@AllArgsConstructor
 public class EnrollmentServiceImpl implements EnrollmentService{
 
     private final EnrollmentRepository enrollmentRepository;
 
+    /** Request IDs remembered by default. */
+    private static final int DEFAULT_IDEMPOTENCY_ENTRIES = 100_000;
+
+    /** How long a request ID is remembered by default. */
+    private static final Duration DEFAULT_IDEMPOTENCY_RETENTION = Duration.ofHours(1);
+
+    private final HoldExpirySweeper holdExpirySweeper;
+
+    /** Results of enroll and drop commands by request ID (shared, so IDs cannot be reused across them). */
+    private final IdempotencyCache<EnrollmentStatus> processedRequests;
+
+    /**
+     * Creates a service without seat-hold support.
+     *
+     * @param enrollmentRepository the enrollment repository.
+     */
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository) {
+        this(enrollmentRepository, null);
+    }
+
+    /**
+     * Creates a service whose seat holds expire through the given sweeper.
+     *
+     * @param enrollmentRepository the enrollment repository.
+     * @param holdExpirySweeper the sweeper tracking hold expiry.
+     */
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, HoldExpirySweeper holdExpirySweeper) {
+        this(enrollmentRepository, holdExpirySweeper,
+                new IdempotencyCache<>(DEFAULT_IDEMPOTENCY_ENTRIES, DEFAULT_IDEMPOTENCY_RETENTION, Clock.systemUTC()));
+    }
+
+    /**
+     * Creates a service with an explicit request-deduplication table.
+     *
+     * @param enrollmentRepository the enrollment repository.
+     * @param holdExpirySweeper the sweeper tracking hold expiry (may be null).
+     * @param processedRequests results of enroll/drop commands by request ID.
+     */
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, HoldExpirySweeper holdExpirySweeper,
+                                 IdempotencyCache<EnrollmentStatus> processedRequests) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.holdExpirySweeper = holdExpirySweeper;
+        this.processedRequests = processedRequests;
+    }
+
     @Override
-    public void enrollStudent(String studentId, String courseCode, String semester) {
+    public EnrollmentStatus enrollStudent(String studentId, String courseCode, String semester) {
         if (studentId == null || courseCode == null || semester == null) {
             throw new IllegalArgumentException("Student ID, Course Code, and Semester cannot be null");
         }
-        enrollmentRepository.enroll(studentId, courseCode, semester);
+        return enrollmentRepository.enroll(studentId, courseCode, semester);
+
+    }
 
+    @Override
+    public EnrollmentStatus enrollStudent(String requestId, String studentId, String courseCode, String semester) {
+        if (requestId == null) {
+            throw new IllegalArgumentException("Request ID cannot be null");
+        }
+        return processedRequests.execute(requestId, List.of("enroll", String.valueOf(studentId),
+                        String.valueOf(courseCode), String.valueOf(semester)),
+                () -> enrollStudent(studentId, courseCode, semester));
+    }
+
+    @Override
+    public void dropStudent(String requestId, String studentId, String courseCode, String semester) {
+        if (requestId == null) {
+            throw new IllegalArgumentException("Request ID cannot be null");
+        }
+        processedRequests.execute(requestId, List.of("drop", String.valueOf(studentId),
+                        String.valueOf(courseCode), String.valueOf(semester)),
+                () -> {
+                    dropStudent(studentId, courseCode, semester);
+                    return EnrollmentStatus.DROPPED;
+                });
     }
 
     @Override
@@ -45,4 +121,78 @@ public class EnrollmentServiceImpl implements EnrollmentService{
     public List<String> getStudentsForCourse(String courseCode) {
         return enrollmentRepository.getStudentsForCourse(courseCode);
     }
+
+    @Override
+    public void applyCourseCapacity(Course course) {
+        if (course == null || course.getCode() == null) {
+            throw new IllegalArgumentException("Course and its code cannot be null");
+        }
+        enrollmentRepository.setCapacity(course.getCode(), course.getCapacity());
+    }
+
+    @Override
+    public void setSemesterCapacity(String courseCode, String semester, int capacity) {
+        if (courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Course Code and Semester cannot be null");
+        }
+        enrollmentRepository.setCapacity(courseCode, semester, capacity);
+    }
+
+    @Override
+    public List<String> getWaitlist(String courseCode, String semester) {
+        return enrollmentRepository.getWaitlist(courseCode, semester);
+    }
+
+    @Override
+    public SeatHold holdSeat(String studentId, String courseCode, String semester, Duration ttl) {
+        if (studentId == null || courseCode == null || semester == null || ttl == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, Semester and hold duration cannot be null");
+        }
+        if (holdExpirySweeper == null) {
+            throw new IllegalStateException("Seat holds require a HoldExpirySweeper");
+        }
+        SeatHold hold = enrollmentRepository.placeHold(studentId, courseCode, semester, ttl);
+        holdExpirySweeper.track(hold);
+        return hold;
+    }
+
+    @Override
+    public EnrollmentStatus confirmHold(String studentId, String courseCode, String semester) {
+        if (studentId == null || courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, and Semester cannot be null");
+        }
+        return enrollmentRepository.confirmHold(studentId, courseCode, semester);
+    }
+
+    @Override
+    public boolean releaseHold(String studentId, String courseCode, String semester) {
+        if (studentId == null || courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, and Semester cannot be null");
+        }
+        return enrollmentRepository.releaseHold(studentId, courseCode, semester);
+    }
+
+    @Override
+    public Enrollment recordGrade(String studentId, String courseCode, String semester, GradeType gradeType, double score) {
+        if (studentId == null || courseCode == null || semester == null || gradeType == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, Semester and Grade Type cannot be null");
+        }
+        return enrollmentRepository.recordGrade(studentId, courseCode, semester, gradeType, score);
+    }
+
+    @Override
+    public void withdrawStudent(String studentId, String courseCode, String semester) {
+        if (studentId == null || courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, and Semester cannot be null");
+        }
+        enrollmentRepository.withdraw(studentId, courseCode, semester);
+    }
+
+    @Override
+    public void completeEnrollment(String studentId, String courseCode, String semester) {
+        if (studentId == null || courseCode == null || semester == null) {
+            throw new IllegalArgumentException("Student ID, Course Code, and Semester cannot be null");
+        }
+        enrollmentRepository.complete(studentId, courseCode, semester);
+    }
 }
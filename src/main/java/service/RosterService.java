@@ -0,0 +1,36 @@
+package service;
+
+import model.Course;
+import model.Student;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for hydrated views that join enrollments with the students and courses they
+ * refer to.
+ *
+ * Responsibilities:
+ * - Returns full student objects for a course roster in one call.
+ * - Returns the courses behind a student's enrollments in one call.
+ * - Fetches the referenced records with one bulk lookup instead of one lookup per ID.
+ */
+public interface RosterService {
+
+    /**
+     * Retrieves the students enrolled in a course.
+     *
+     * @param courseCode the course code.
+     * @return the students in roster order; IDs whose student no longer exists are skipped.
+     */
+    List<Student> getRoster(String courseCode);
+
+    /**
+     * Retrieves the courses a student is enrolled in. Only {@code ENROLLED} records count:
+     * dropped, withdrawn, waitlisted and completed courses are left out.
+     *
+     * @param studentId the student's ID.
+     * @return the courses by code, in enrollment order; codes whose course no longer exists are skipped.
+     */
+    Map<String, Course> getCoursesForStudent(String studentId);
+}
@@ -0,0 +1,62 @@
+package service;
+
+import lombok.AllArgsConstructor;
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of RosterService.
+ *
+ * Responsibilities:
+ * - Reads the IDs from the EnrollmentService and hydrates them with one
+ *   {@link StudentService#getStudentsByIds} or {@link CourseService#getCoursesByCodes} call,
+ *   so a roster of N students costs two lookups rather than N + 1.
+ * - Works over any implementation of the services, including a cluster router, which
+ *   turns the bulk lookup into one request per node.
+ */
+@AllArgsConstructor
+public class RosterServiceImpl implements RosterService {
+
+    private final EnrollmentService enrollmentService;
+
+    private final StudentService studentService;
+
+    private final CourseService courseService;
+
+    @Override
+    public List<Student> getRoster(String courseCode) {
+        if (courseCode == null) {
+            throw new IllegalArgumentException("Course code cannot be null");
+        }
+        List<String> ids = enrollmentService.getStudentsForCourse(courseCode);
+        Map<String, Student> students = studentService.getStudentsByIds(ids);
+        List<Student> roster = new ArrayList<>(students.size());
+        for (String id : ids) {
+            Student student = students.get(id);
+            if (student != null) {
+                roster.add(student);
+            }
+        }
+        return roster;
+    }
+
+    @Override
+    public Map<String, Course> getCoursesForStudent(String studentId) {
+        if (studentId == null) {
+            throw new IllegalArgumentException("Student ID cannot be null");
+        }
+        List<String> codes = new ArrayList<>();
+        for (Enrollment enrollment : enrollmentService.getEnrollmentsForStudent(studentId)) {
+            if (enrollment.getStatus() == EnrollmentStatus.ENROLLED) {
+                codes.add(enrollment.getCourseCode());
+            }
+        }
+        return courseService.getCoursesByCodes(codes);
+    }
+}
@@ -2,6 +2,7 @@ package service;
 
 import model.Student;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +32,14 @@ public interface StudentService {
      */
     Student getStudentById(String studentId);
 
+    /**
+     * Retrieves many students in one call, e.g. the students of a roster page.
+     *
+     * @param studentIds the students' IDs; nulls and duplicates are ignored.
+     * @return the students found, by ID in the order given; unknown IDs are absent.
+     */
+    Map<String, Student> getStudentsByIds(Collection<String> studentIds);
+
     /**
      * Searches for students by name token (case-insensitive).
      *
@@ -57,7 +66,8 @@ public interface StudentService {
     void updateAttributes(String studentId, Map<String, String> attributes);
 
     /**
-     * Deletes a student from the system.
+     * Deletes a student from the system, with their enrollments and notifications
+     * when the implementation cascades deletes.
      *
      * @param studentId the student's ID.
      */
@@ -2,10 +2,13 @@ package service;
 
 import lombok.AllArgsConstructor;
 import model.Student;
+import repository.CascadeDeleteCoordinator;
 import repository.StudentRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Implementation of StudentService.
@@ -13,12 +16,27 @@ import java.util.Map;
  * Responsibilities:
  * - Delegates storage to StudentRepository.
  * - Adds validations and business logic.
+ * - Applies updates optimistically: change a copy, compare-and-set it, retry on conflict.
+ * - Deletes through a CascadeDeleteCoordinator when one is given, so a deleted student's
+ *   enrollments and notifications go with them.
  */
 @AllArgsConstructor
 public class StudentServiceImpl implements StudentService{
 
     private final StudentRepository studentRepository;
 
+    /** Removes a deleted student's dependents; null deletes the student record only. */
+    private final CascadeDeleteCoordinator cascadeDeletes;
+
+    /**
+     * Creates a service that deletes student records only, without their dependents.
+     *
+     * @param studentRepository the student repository.
+     */
+    public StudentServiceImpl(StudentRepository studentRepository) {
+        this(studentRepository, null);
+    }
+
     @Override
     public void registerStudent(Student student) {
         if (student == null || student.getId() == null || student.getEmail() == null) {
@@ -33,6 +51,14 @@ public class StudentServiceImpl implements StudentService{
         return studentRepository.getById(studentId);
     }
 
+    @Override
+    public Map<String, Student> getStudentsByIds(Collection<String> studentIds) {
+        if (studentIds == null) {
+            throw new IllegalArgumentException("Student IDs cannot be null");
+        }
+        return studentRepository.getByIds(studentIds);
+    }
+
     @Override
     public List<Student> searchStudentsByName(String token) {
         return studentRepository.searchByNameToken(token);
@@ -41,33 +67,48 @@ public class StudentServiceImpl implements StudentService{
     @Override
     public void updateContact(String studentId, String email, String phone) {
 
-        Student student = studentRepository.getById(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student not found");
-        }
-        if (email != null && !email.isBlank()) {
-            student.setEmail(email);
-        }
-        if (phone != null && !phone.isBlank()) {
-            student.setPhone(phone);
-        }
-
+        update(studentId, student -> {
+            if (email != null && !email.isBlank()) {
+                student.setEmail(email);
+            }
+            if (phone != null && !phone.isBlank()) {
+                student.setPhone(phone);
+            }
+        });
 
     }
 
     @Override
     public void updateAttributes(String studentId, Map<String, String> attributes) {
-        Student student = studentRepository.getById(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student not found");
-        }
-        student.getAttributes().putAll(attributes);
+        update(studentId, student -> student.getAttributes().putAll(attributes));
 
     }
 
     @Override
     public void deleteStudent(String studentId) {
+        if (cascadeDeletes != null && studentId != null) {
+            cascadeDeletes.deleteStudent(studentId);
+            return;
+        }
         studentRepository.deleteStudent(studentId);
 
     }
+
+    /**
+     * Applies a change to a copy of the student and publishes it with compare-and-set,
+     * re-reading and re-applying the change whenever another writer won the race.
+     */
+    private Student update(String studentId, Consumer<Student> change) {
+        for (;;) {
+            Student current = studentRepository.getById(studentId);
+            if (current == null) {
+                throw new IllegalArgumentException("Student not found");
+            }
+            Student updated = current.copy();
+            change.accept(updated);
+            if (studentRepository.compareAndSet(studentId, current.getVersion(), updated)) {
+                return updated;
+            }
+        }
+    }
 }
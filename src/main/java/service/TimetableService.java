@@ -0,0 +1,53 @@
+package service;
+
+import model.dto.ScheduleConflict;
+import model.dto.TeachingLoad;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for instructor timetables.
+ *
+ * Responsibilities:
+ * - Detects overlapping time slots among the courses an instructor teaches.
+ * - Guards course assignments against schedule conflicts.
+ * - Computes teaching load for all instructors in one batch pass.
+ */
+public interface TimetableService {
+
+    /**
+     * Finds all overlapping slot pairs in an instructor's current timetable.
+     *
+     * @param instructorId the instructor's ID.
+     * @return the conflicts, empty if the timetable is clean.
+     * @throws IllegalArgumentException if the instructor does not exist.
+     */
+    List<ScheduleConflict> findConflicts(String instructorId);
+
+    /**
+     * Lists the conflicts that assigning a course would introduce.
+     *
+     * @param instructorId the instructor's ID.
+     * @param courseCode the course to check.
+     * @return the conflicts the assignment would create, empty if it is safe.
+     * @throws IllegalArgumentException if the instructor or course does not exist.
+     */
+    List<ScheduleConflict> checkAssignment(String instructorId, String courseCode);
+
+    /**
+     * Assigns a course to an instructor if it does not clash with their timetable.
+     *
+     * @param instructorId the instructor's ID.
+     * @param courseCode the course to assign.
+     * @throws IllegalArgumentException if either does not exist or the slots overlap.
+     */
+    void assignCourse(String instructorId, String courseCode);
+
+    /**
+     * Computes the teaching load of every instructor in a single pass.
+     *
+     * @return loads keyed by instructor ID.
+     */
+    Map<String, TeachingLoad> computeTeachingLoads();
+}
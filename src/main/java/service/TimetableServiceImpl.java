@@ -0,0 +1,162 @@
+package service;
+
+import lombok.AllArgsConstructor;
+import model.Course;
+import model.Instructor;
+import model.TimeSlot;
+import model.dto.ScheduleConflict;
+import model.dto.TeachingLoad;
+import repository.CourseRepository;
+import repository.InstructorRepository;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Implementation of TimetableService.
+ *
+ * Responsibilities:
+ * - Reads instructors from the InstructorRepository and schedules from the CourseRepository.
+ * - Detects overlaps with a sort-and-sweep over each timetable: slots are ordered
+ *   by {@link TimeSlot} natural order (day, start, end) and each slot is only compared
+ *   with earlier slots that are still running, so a clean timetable costs O(n log n).
+ * - Batch load computation fetches each course once, however many instructors teach it.
+ */
+@AllArgsConstructor
+public class TimetableServiceImpl implements TimetableService {
+
+    private final InstructorRepository instructorRepository;
+
+    private final CourseRepository courseRepository;
+
+    @Override
+    public List<ScheduleConflict> findConflicts(String instructorId) {
+        Instructor instructor = requireInstructor(instructorId);
+        return sweep(instructorId, instructor.getCoursesTaught(), courseRepository::getByCode);
+    }
+
+    @Override
+    public List<ScheduleConflict> checkAssignment(String instructorId, String courseCode) {
+        Instructor instructor = requireInstructor(instructorId);
+        return conflicts(instructorId, requireCourse(courseCode), instructor.getCoursesTaught());
+    }
+
+    /**
+     * Checks for conflicts inside the repository's assignment, so a concurrent assignment
+     * to the same instructor cannot slip in between the check and the write.
+     */
+    @Override
+    public void assignCourse(String instructorId, String courseCode) {
+        requireInstructor(instructorId);
+        Course candidate = requireCourse(courseCode);
+        instructorRepository.assignCourse(instructorId, courseCode, taught -> {
+            List<ScheduleConflict> conflicts = conflicts(instructorId, candidate, taught);
+            if (!conflicts.isEmpty()) {
+                ScheduleConflict first = conflicts.get(0);
+                throw new IllegalArgumentException("Course " + courseCode + " at " + first.slot()
+                        + " conflicts with " + first.conflictingCourseCode() + " at " + first.conflictingSlot());
+            }
+        });
+    }
+
+    @Override
+    public Map<String, TeachingLoad> computeTeachingLoads() {
+        Map<String, Optional<Course>> courseCache = new HashMap<>();
+        Function<String, Course> lookup = code ->
+                courseCache.computeIfAbsent(code, c -> Optional.ofNullable(courseRepository.getByCode(c))).orElse(null);
+
+        Map<String, TeachingLoad> loads = new HashMap<>();
+        for (Instructor instructor : instructorRepository.listAll()) {
+            int credits = 0;
+            long minutes = 0;
+            for (String code : instructor.getCoursesTaught()) {
+                Course course = lookup.apply(code);
+                if (course == null) continue;
+                credits += course.getCredits();
+                for (TimeSlot slot : slots(course)) {
+                    minutes += slot.durationMinutes();
+                }
+            }
+            int conflicts = sweep(instructor.getId(), instructor.getCoursesTaught(), lookup).size();
+            loads.put(instructor.getId(), new TeachingLoad(
+                    instructor.getId(), instructor.getCoursesTaught().size(), credits, minutes, conflicts));
+        }
+        return loads;
+    }
+
+    private Course requireCourse(String courseCode) {
+        Course course = courseCode == null ? null : courseRepository.getByCode(courseCode);
+        if (course == null) {
+            throw new IllegalArgumentException("Course not found: " + courseCode);
+        }
+        return course;
+    }
+
+    /**
+     * Every overlap between the candidate's slots and those of the courses already taught.
+     */
+    private List<ScheduleConflict> conflicts(String instructorId, Course candidate, Collection<String> taught) {
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        for (String code : taught) {
+            if (code.equals(candidate.getCode())) continue;
+            Course course = courseRepository.getByCode(code);
+            if (course == null) continue;
+            for (TimeSlot slot : slots(candidate)) {
+                for (TimeSlot other : slots(course)) {
+                    if (slot.overlaps(other)) {
+                        conflicts.add(new ScheduleConflict(instructorId, candidate.getCode(), slot, code, other));
+                    }
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * @return the course's slots; none for a course built without a schedule.
+     */
+    private static Set<TimeSlot> slots(Course course) {
+        return course.getScheduledSlots() == null ? Set.of() : course.getScheduledSlots();
+    }
+
+    private Instructor requireInstructor(String instructorId) {
+        Instructor instructor = instructorRepository.getById(instructorId);
+        if (instructor == null) {
+            throw new IllegalArgumentException("Instructor not found: " + instructorId);
+        }
+        return instructor;
+    }
+
+    /**
+     * Sorts all slots of the given courses and reports every overlapping pair
+     * belonging to different courses.
+     */
+    private static List<ScheduleConflict> sweep(String instructorId, Collection<String> courseCodes,
+                                                Function<String, Course> lookup) {
+        List<Map.Entry<TimeSlot, String>> slots = new ArrayList<>();
+        for (String code : courseCodes) {
+            Course course = lookup.apply(code);
+            if (course == null) continue;
+            for (TimeSlot slot : slots(course)) {
+                slots.add(Map.entry(slot, code));
+            }
+        }
+        slots.sort(Map.Entry.comparingByKey());
+
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        List<Map.Entry<TimeSlot, String>> running = new ArrayList<>();
+        for (Map.Entry<TimeSlot, String> current : slots) {
+            TimeSlot slot = current.getKey();
+            running.removeIf(r -> r.getKey().getDayOfWeek() != slot.getDayOfWeek()
+                    || !r.getKey().getEndTime().isAfter(slot.getStartTime()));
+            for (Map.Entry<TimeSlot, String> earlier : running) {
+                if (!earlier.getValue().equals(current.getValue())) {
+                    conflicts.add(new ScheduleConflict(instructorId,
+                            earlier.getValue(), earlier.getKey(), current.getValue(), slot));
+                }
+            }
+            running.add(current);
+        }
+        return conflicts;
+    }
+}
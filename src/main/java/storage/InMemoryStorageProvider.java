@@ -0,0 +1,62 @@
+package storage;
+
+import repository.InMemoryCourseRepository;
+import repository.InMemoryDepartmentRepository;
+import repository.InMemoryEnrollmentRepository;
+import repository.InMemoryInstructorRepository;
+import repository.InMemoryNotificationRepository;
+import repository.InMemoryStudentRepository;
+import repository.StorageContext;
+import repository.StorageMode;
+import repository.TieredStorage;
+
+import java.nio.file.Path;
+
+/**
+ * The in-memory backend ({@value #NAME}).
+ *
+ * <p>Honours {@value StorageConfig#MODE} and, when {@value StorageConfig#DIRECTORY} is set,
+ * pages cold data to that directory through {@link TieredStorage}. Nothing survives a
+ * restart.</p>
+ */
+public class InMemoryStorageProvider implements StorageProvider {
+
+    public static final String NAME = "in-memory";
+
+    private static final StorageCapabilities CAPABILITIES = new StorageCapabilities(false, true, false, true);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public StorageCapabilities capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public Repositories open(StorageConfig config) {
+        StorageMode mode;
+        try {
+            mode = StorageMode.valueOf(config.get(StorageConfig.MODE, StorageMode.STANDARD.name()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown storage mode: " + config.get(StorageConfig.MODE));
+        }
+        String directory = config.get(StorageConfig.DIRECTORY);
+        TieredStorage tieredStorage = directory == null ? null : new TieredStorage(Path.of(directory));
+        StorageContext context = StorageContext.builder().mode(mode).tieredStorage(tieredStorage).build();
+        return Repositories.builder()
+                .backend(NAME)
+                .capabilities(CAPABILITIES)
+                .storageContext(context)
+                .students(new InMemoryStudentRepository(context))
+                .courses(new InMemoryCourseRepository(context))
+                .enrollments(new InMemoryEnrollmentRepository(context))
+                .departments(new InMemoryDepartmentRepository(context))
+                .instructors(new InMemoryInstructorRepository(context))
+                .notifications(new InMemoryNotificationRepository(context))
+                .resource(tieredStorage)
+                .build();
+    }
+}
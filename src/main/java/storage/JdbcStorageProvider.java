@@ -0,0 +1,65 @@
+package storage;
+
+import repository.JdbcCourseRepository;
+import repository.JdbcDatabase;
+import repository.JdbcDepartmentRepository;
+import repository.JdbcEnrollmentRepository;
+import repository.JdbcInstructorRepository;
+import repository.JdbcNotificationRepository;
+import repository.JdbcStudentRepository;
+import repository.StorageContext;
+
+import java.nio.file.Path;
+
+/**
+ * The durable JDBC backend ({@value #NAME}).
+ *
+ * <p>Connects to {@value StorageConfig#JDBC_URL} if set, otherwise opens an embedded H2
+ * database named {@value #DATABASE_NAME} in {@value StorageConfig#DIRECTORY}. Reopening
+ * the same configuration finds the data again.</p>
+ */
+public class JdbcStorageProvider implements StorageProvider {
+
+    public static final String NAME = "jdbc";
+
+    /** Database file name inside the configured directory (H2 adds {@code .mv.db}). */
+    public static final String DATABASE_NAME = "sms";
+
+    private static final StorageCapabilities CAPABILITIES = new StorageCapabilities(true, false, true, false);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public StorageCapabilities capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public Repositories open(StorageConfig config) {
+        String url = config.get(StorageConfig.JDBC_URL);
+        JdbcDatabase database = url != null
+                ? new JdbcDatabase(url)
+                : JdbcDatabase.file(Path.of(config.require(StorageConfig.DIRECTORY)).resolve(DATABASE_NAME));
+        StorageContext context = StorageContext.standard();
+        try {
+            return Repositories.builder()
+                    .backend(NAME)
+                    .capabilities(CAPABILITIES)
+                    .storageContext(context)
+                    .students(new JdbcStudentRepository(database, context))
+                    .courses(new JdbcCourseRepository(database, context))
+                    .enrollments(new JdbcEnrollmentRepository(database, context))
+                    .departments(new JdbcDepartmentRepository(database, context))
+                    .instructors(new JdbcInstructorRepository(database, context))
+                    .notifications(new JdbcNotificationRepository(database, context))
+                    .resource(database)
+                    .build();
+        } catch (RuntimeException e) {
+            database.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package storage;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import repository.CourseRepository;
+import repository.DepartmentRepository;
+import repository.EnrollmentRepository;
+import repository.InstructorRepository;
+import repository.NotificationRepository;
+import repository.StorageContext;
+import repository.StudentRepository;
+
+/**
+ * The repositories of one backend, opened together by a {@link StorageProvider} and
+ * sharing one {@link StorageContext} (clock and change feed).
+ */
+@Getter
+@Builder
+public class Repositories implements AutoCloseable {
+
+    @NonNull
+    private final String backend;
+
+    @NonNull
+    private final StorageCapabilities capabilities;
+
+    @NonNull
+    private final StorageContext storageContext;
+
+    @NonNull
+    private final StudentRepository students;
+
+    @NonNull
+    private final CourseRepository courses;
+
+    @NonNull
+    private final EnrollmentRepository enrollments;
+
+    @NonNull
+    private final DepartmentRepository departments;
+
+    @NonNull
+    private final InstructorRepository instructors;
+
+    @NonNull
+    private final NotificationRepository notifications;
+
+    /** Closed with the repositories (database connection, paged files); may be null. */
+    private final AutoCloseable resource;
+
+    /**
+     * Releases the backend's resources. The repositories must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (resource == null) return;
+        try {
+            resource.close();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not close storage backend " + backend, e);
+        }
+    }
+}
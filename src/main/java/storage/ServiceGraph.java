@@ -0,0 +1,93 @@
+package storage;
+
+import jobs.HoldExpirySweeper;
+import lombok.Getter;
+import lombok.NonNull;
+import repository.CascadeDeleteCoordinator;
+import service.CourseService;
+import service.CourseServiceImpl;
+import service.DepartmentService;
+import service.DepartmentServiceImpl;
+import service.EnrollmentService;
+import service.EnrollmentServiceImpl;
+import service.RosterService;
+import service.RosterServiceImpl;
+import service.StudentService;
+import service.StudentServiceImpl;
+import service.TimetableService;
+import service.TimetableServiceImpl;
+
+import java.time.Duration;
+
+/**
+ * The services of the application, wired to the repositories of one backend.
+ *
+ * <p>Built by {@link StorageFactory#open}. Seat holds expire through a running
+ * {@link HoldExpirySweeper}. Deleting a student or course through the services cascades
+ * through the {@link CascadeDeleteCoordinator}. Closing the graph stops the sweeper and closes the
+ * repositories.</p>
+ */
+@Getter
+public class ServiceGraph implements AutoCloseable {
+
+    /** Sweep interval of the hold-expiry sweeper. */
+    static final Duration HOLD_SWEEP_TICK = Duration.ofSeconds(1);
+
+    /** Wheel buckets of the hold-expiry sweeper (covers holds up to about 17 minutes per turn). */
+    static final int HOLD_WHEEL_SIZE = 1024;
+
+    /** Holds released per repository call. */
+    static final int HOLD_SWEEP_BATCH = 256;
+
+    private final Repositories repositories;
+
+    private final StudentService studentService;
+
+    private final CourseService courseService;
+
+    private final EnrollmentService enrollmentService;
+
+    private final DepartmentService departmentService;
+
+    private final TimetableService timetableService;
+
+    private final RosterService rosterService;
+
+    private final CascadeDeleteCoordinator cascadeDeleteCoordinator;
+
+    private final HoldExpirySweeper holdExpirySweeper;
+
+    /**
+     * Wires the services to the repositories and starts the hold-expiry sweeper.
+     *
+     * @param repositories the repositories; closed with the graph.
+     */
+    public ServiceGraph(@NonNull Repositories repositories) {
+        this.repositories = repositories;
+        this.holdExpirySweeper = new HoldExpirySweeper(repositories.getEnrollments(),
+                repositories.getStorageContext().getClock(), HOLD_SWEEP_TICK, HOLD_WHEEL_SIZE, HOLD_SWEEP_BATCH);
+        this.cascadeDeleteCoordinator = new CascadeDeleteCoordinator(repositories.getStudents(),
+                repositories.getCourses(), repositories.getEnrollments(), repositories.getDepartments(),
+                repositories.getInstructors(), repositories.getNotifications());
+        this.studentService = new StudentServiceImpl(repositories.getStudents(), cascadeDeleteCoordinator);
+        this.courseService = new CourseServiceImpl(repositories.getCourses(), cascadeDeleteCoordinator);
+        this.enrollmentService = new EnrollmentServiceImpl(repositories.getEnrollments(), holdExpirySweeper);
+        this.departmentService = new DepartmentServiceImpl(repositories.getDepartments());
+        this.timetableService = new TimetableServiceImpl(repositories.getInstructors(), repositories.getCourses());
+        this.rosterService = new RosterServiceImpl(enrollmentService, studentService, courseService);
+        holdExpirySweeper.start();
+    }
+
+    /**
+     * @return what the backend supports.
+     */
+    public StorageCapabilities getCapabilities() {
+        return repositories.getCapabilities();
+    }
+
+    @Override
+    public void close() {
+        holdExpirySweeper.close();
+        repositories.close();
+    }
+}
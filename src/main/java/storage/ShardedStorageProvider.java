@@ -0,0 +1,81 @@
+package storage;
+
+import repository.InMemoryDepartmentRepository;
+import repository.InMemoryInstructorRepository;
+import repository.InMemoryNotificationRepository;
+import repository.ShardedCourseRepository;
+import repository.ShardedEnrollmentRepository;
+import repository.ShardedStudentRepository;
+import repository.StorageContext;
+import repository.StorageMode;
+
+/**
+ * The sharded in-memory backend ({@value #NAME}).
+ *
+ * <p>Hash-partitions students (by ID), courses (by code) and enrollments (by course code)
+ * across {@value StorageConfig#SHARDS} shards, each with its own indexes and writer thread,
+ * so write throughput grows with the number of cores. Departments, instructors and
+ * notifications are small and rarely written, and stay unsharded. Honours
+ * {@value StorageConfig#MODE}; nothing survives a restart.</p>
+ */
+public class ShardedStorageProvider implements StorageProvider {
+
+    public static final String NAME = "sharded";
+
+    private static final StorageCapabilities CAPABILITIES = new StorageCapabilities(false, true, false, false);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public StorageCapabilities capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public Repositories open(StorageConfig config) {
+        StorageMode mode;
+        try {
+            mode = StorageMode.valueOf(config.get(StorageConfig.MODE, StorageMode.STANDARD.name()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown storage mode: " + config.get(StorageConfig.MODE));
+        }
+        int shards = shardCount(config);
+        StorageContext context = StorageContext.builder().mode(mode).build();
+        ShardedStudentRepository students = new ShardedStudentRepository(shards, context);
+        ShardedCourseRepository courses = new ShardedCourseRepository(shards, context);
+        ShardedEnrollmentRepository enrollments = new ShardedEnrollmentRepository(shards, context);
+        return Repositories.builder()
+                .backend(NAME)
+                .capabilities(CAPABILITIES)
+                .storageContext(context)
+                .students(students)
+                .courses(courses)
+                .enrollments(enrollments)
+                .departments(new InMemoryDepartmentRepository(context))
+                .instructors(new InMemoryInstructorRepository(context))
+                .notifications(new InMemoryNotificationRepository(context))
+                .resource(() -> {
+                    students.close();
+                    courses.close();
+                    enrollments.close();
+                })
+                .build();
+    }
+
+    private static int shardCount(StorageConfig config) {
+        String value = config.get(StorageConfig.SHARDS);
+        if (value == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            int shards = Integer.parseInt(value.trim());
+            if (shards > 0) return shards;
+        } catch (NumberFormatException ignored) {
+            // Reported below.
+        }
+        throw new IllegalStateException("Invalid shard count: " + value);
+    }
+}
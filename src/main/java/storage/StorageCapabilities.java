@@ -0,0 +1,15 @@
+package storage;
+
+/**
+ * What a storage backend supports, so callers can choose the faster path when it is there
+ * and a fallback when it is not.
+ *
+ * @param durable data survives a restart (the same configuration reopens it).
+ * @param snapshots the snapshot overloads and {@link repository.ReadView} work; without
+ *                  them the overloads throw {@link UnsupportedOperationException}.
+ * @param batchWrites the student, course and notification repositories have bulk-create
+ *                    methods that send many rows in one round trip.
+ * @param tieredStorage cold data can be paged out of the heap to local files.
+ */
+public record StorageCapabilities(boolean durable, boolean snapshots, boolean batchWrites, boolean tieredStorage) {
+}
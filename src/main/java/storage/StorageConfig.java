@@ -0,0 +1,113 @@
+package storage;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Storage settings, read from a properties file or built in code.
+ *
+ * <p>Keys:
+ * <ul>
+ *   <li>{@value #BACKEND}: provider name, {@value #DEFAULT_BACKEND} by default.</li>
+ *   <li>{@value #MODE}: {@link repository.StorageMode} of the in-memory backend.</li>
+ *   <li>{@value #DIRECTORY}: data directory (the database of the JDBC backend, paged cold
+ *       data of the in-memory backend).</li>
+ *   <li>{@value #JDBC_URL}: JDBC URL, used instead of {@value #DIRECTORY} when set.</li>
+ *   <li>{@value #SHARDS}: shard count of the sharded backend, the number of cores by default.</li>
+ * </ul>
+ * Instances are immutable; {@link #with} returns a changed copy.</p>
+ */
+public final class StorageConfig {
+
+    public static final String BACKEND = "storage.backend";
+    public static final String MODE = "storage.mode";
+    public static final String DIRECTORY = "storage.directory";
+    public static final String JDBC_URL = "storage.jdbc.url";
+    public static final String SHARDS = "storage.shards";
+
+    public static final String DEFAULT_BACKEND = "in-memory";
+
+    private final Properties properties;
+
+    /**
+     * @param properties the settings; copied.
+     */
+    public StorageConfig(@NonNull Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+    }
+
+    /**
+     * @param backend the provider name.
+     * @return a configuration selecting only the backend.
+     */
+    public static StorageConfig backend(@NonNull String backend) {
+        return new StorageConfig(new Properties()).with(BACKEND, backend);
+    }
+
+    /**
+     * Reads settings from a properties file.
+     *
+     * @param file the file.
+     * @return the configuration.
+     */
+    public static StorageConfig load(@NonNull Path file) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new StorageConfig(properties);
+    }
+
+    /**
+     * @return a copy with the setting changed.
+     */
+    public StorageConfig with(@NonNull String key, @NonNull String value) {
+        StorageConfig copy = new StorageConfig(properties);
+        copy.properties.setProperty(key, value);
+        return copy;
+    }
+
+    /**
+     * @return the configured backend name.
+     */
+    public String getBackend() {
+        return get(BACKEND, DEFAULT_BACKEND);
+    }
+
+    /**
+     * @return the setting, or null if it is not set.
+     */
+    public String get(@NonNull String key) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * @return the setting, or the default if it is not set.
+     */
+    public String get(@NonNull String key, String defaultValue) {
+        String value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @return the setting.
+     * @throws IllegalStateException if it is not set.
+     */
+    public String require(@NonNull String key) {
+        String value = get(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing storage setting: " + key);
+        }
+        return value;
+    }
+}
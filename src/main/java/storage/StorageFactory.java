@@ -0,0 +1,76 @@
+package storage;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Builds repositories and services for the backend named in a {@link StorageConfig}.
+ *
+ * <pre>{@code
+ * try (ServiceGraph app = StorageFactory.open(StorageConfig.load(Path.of("sms.properties")))) {
+ *     app.getStudentService().registerStudent(student);
+ * }
+ * }</pre>
+ *
+ * <p>Backends are the {@link StorageProvider}s on the class path, found through
+ * {@link ServiceLoader}; the built-in ones are {@value InMemoryStorageProvider#NAME}
+ * and {@value JdbcStorageProvider#NAME}.</p>
+ */
+public final class StorageFactory {
+
+    private StorageFactory() {}
+
+    /**
+     * @return every provider on the class path, in discovery order.
+     */
+    public static List<StorageProvider> providers() {
+        List<StorageProvider> providers = new ArrayList<>();
+        ServiceLoader.load(StorageProvider.class).forEach(providers::add);
+        return providers;
+    }
+
+    /**
+     * @param name the backend name.
+     * @return the provider with that name.
+     * @throws IllegalArgumentException if no provider has that name.
+     */
+    public static StorageProvider provider(@NonNull String name) {
+        List<String> names = new ArrayList<>();
+        for (StorageProvider provider : providers()) {
+            if (provider.name().equals(name)) {
+                return provider;
+            }
+            names.add(provider.name());
+        }
+        throw new IllegalArgumentException("Unknown storage backend: " + name + " (available: " + names + ")");
+    }
+
+    /**
+     * Opens the repositories of the configured backend.
+     *
+     * @param config the storage configuration.
+     * @return the repositories; close them when no longer used.
+     */
+    public static Repositories openRepositories(@NonNull StorageConfig config) {
+        return provider(config.getBackend()).open(config);
+    }
+
+    /**
+     * Opens the configured backend and wires the services to it.
+     *
+     * @param config the storage configuration.
+     * @return the service graph; close it when no longer used.
+     */
+    public static ServiceGraph open(@NonNull StorageConfig config) {
+        Repositories repositories = openRepositories(config);
+        try {
+            return new ServiceGraph(repositories);
+        } catch (RuntimeException e) {
+            repositories.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package storage;
+
+/**
+ * Service-provider interface for a storage backend.
+ *
+ * <p>Implementations are discovered through {@link java.util.ServiceLoader}: list the
+ * class in {@code META-INF/services/storage.StorageProvider} and give it a public no-arg
+ * constructor. {@link StorageFactory} picks the provider whose {@link #name()} matches
+ * the configured backend.</p>
+ */
+public interface StorageProvider {
+
+    /**
+     * @return the backend name used in configuration (e.g. "in-memory").
+     */
+    String name();
+
+    /**
+     * @return what repositories opened by this provider support.
+     */
+    StorageCapabilities capabilities();
+
+    /**
+     * Opens the six repositories of this backend, sharing one storage context.
+     *
+     * @param config the storage configuration.
+     * @return the repositories; close them when no longer used.
+     * @throws IllegalStateException if a setting the backend needs is missing.
+     */
+    Repositories open(StorageConfig config);
+}
@@ -0,0 +1,189 @@
+package util;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact {@link Map} of string attributes backed by two parallel arrays.
+ *
+ * <p>Keys are stored as integer codes from a shared {@link StringDictionary},
+ * values as plain references. A student typically has only a handful of
+ * attributes, so linear scans over an {@code int[]} are faster and far smaller
+ * than a {@link java.util.HashMap} with its table and one entry object per pair.</p>
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>{@code int[] keyCodes} → dictionary codes of the keys.</li>
+ *   <li>{@code String[] values} → value at the same index.</li>
+ * </ul>
+ * Arrays are sized exactly to the number of entries, since attributes are
+ * written rarely and read often. Like {@link java.util.HashMap}, this class is not thread-safe.</p>
+ */
+public class CompactAttributeMap extends AbstractMap<String, String> {
+
+    private static final int[] NO_KEYS = new int[0];
+    private static final String[] NO_VALUES = new String[0];
+
+    private final StringDictionary dictionary;
+
+    private int[] keyCodes = NO_KEYS;
+
+    private String[] values = NO_VALUES;
+
+    /**
+     * Creates an empty map encoding its keys with the given dictionary.
+     *
+     * @param dictionary the shared key dictionary.
+     */
+    public CompactAttributeMap(@NonNull StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Creates a map holding a copy of the given attributes.
+     *
+     * @param dictionary the shared key dictionary.
+     * @param source attributes to copy (may be null).
+     */
+    public CompactAttributeMap(@NonNull StringDictionary dictionary, Map<String, String> source) {
+        this(dictionary);
+        if (source != null && !source.isEmpty()) {
+            keyCodes = new int[source.size()];
+            values = new String[source.size()];
+            int i = 0;
+            for (Map.Entry<String, String> entry : source.entrySet()) {
+                keyCodes[i] = dictionary.encode(entry.getKey());
+                values[i] = entry.getValue();
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return keyCodes.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public String put(@NonNull String key, String value) {
+        int code = dictionary.encode(key);
+        for (int i = 0; i < keyCodes.length; i++) {
+            if (keyCodes[i] == code) {
+                String previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        int n = keyCodes.length;
+        keyCodes = Arrays.copyOf(keyCodes, n + 1);
+        values = Arrays.copyOf(values, n + 1);
+        keyCodes[n] = code;
+        values[n] = value;
+        return null;
+    }
+
+    @Override
+    public String remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) return null;
+        String previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        keyCodes = NO_KEYS;
+        values = NO_VALUES;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return keyCodes.length;
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) return -1;
+        int code = dictionary.codeOf((String) key);
+        if (code == StringDictionary.NO_CODE) return -1;
+        for (int i = 0; i < keyCodes.length; i++) {
+            if (keyCodes[i] == code) return i;
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int n = keyCodes.length;
+        int[] newKeys = new int[n - 1];
+        String[] newValues = new String[n - 1];
+        System.arraycopy(keyCodes, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keyCodes, index + 1, newKeys, index, n - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, n - index - 1);
+        keyCodes = newKeys;
+        values = newValues;
+    }
+
+    /** Iterates entries by index, decoding keys lazily. */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < keyCodes.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            last = next++;
+            final int index = last;
+            return new SimpleEntry<>(dictionary.decode(keyCodes[index]), values[index]) {
+                @Override
+                public String setValue(String value) {
+                    super.setValue(value);
+                    String previous = values[index];
+                    values[index] = value;
+                    return previous;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package util;
+
+import lombok.NonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-expiring table of command results keyed by client request ID.
+ *
+ * <p>The first call with a request ID runs the command and records its result;
+ * retries with the same ID within the retention window get the recorded result
+ * without running the command again. A retry that arrives while the first call is
+ * still running waits for it instead of running concurrently. Failed commands are
+ * not recorded, so the client may retry them.</p>
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>{@link ConcurrentHashMap} request ID → entry for lock-free lookups.</li>
+ *   <li>{@link ConcurrentLinkedQueue} of entries in insertion order. Every entry has the
+ *       same retention, so the head is always the oldest: expiry and size eviction only
+ *       ever pop from the head, O(1) amortized per insert.</li>
+ * </ul>
+ * </p>
+ *
+ * @param <V> the command result type.
+ */
+public class IdempotencyCache<V> {
+
+    private final int maxEntries;
+
+    private final Duration retention;
+
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries maximum request IDs remembered; the oldest are evicted first.
+     * @param retention how long a result is remembered.
+     * @param clock time source.
+     */
+    public IdempotencyCache(int maxEntries, @NonNull Duration retention, @NonNull Clock clock) {
+        if (maxEntries <= 0 || retention.isZero() || retention.isNegative()) {
+            throw new IllegalArgumentException("Max entries and retention must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs a command once per request ID.
+     *
+     * @param requestId the client-supplied request ID.
+     * @param fingerprint the command's parameters; a retry must present an equal value.
+     * @param command the command to run on the first call.
+     * @return the command's result, recorded or fresh.
+     * @throws IllegalArgumentException if the request ID was used with different parameters.
+     */
+    public V execute(@NonNull String requestId, Object fingerprint, @NonNull Supplier<V> command) {
+        Instant now = clock.instant();
+        Entry<V> fresh = new Entry<>(requestId, fingerprint, now.plus(retention), new CompletableFuture<>());
+        for (;;) {
+            Entry<V> existing = entries.putIfAbsent(requestId, fresh);
+            if (existing == null) break;
+            if (existing.isExpired(now)) {
+                if (entries.replace(requestId, existing, fresh)) break;
+                continue;
+            }
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                throw new IllegalArgumentException("Request ID " + requestId + " was already used for a different request");
+            }
+            return await(existing.result());
+        }
+
+        insertionOrder.offer(fresh);
+        evict(now);
+        try {
+            V value = command.get();
+            fresh.result().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(requestId, fresh);
+            fresh.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of request IDs currently remembered (including expired ones not yet evicted).
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(Instant now) {
+        Entry<V> head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.isExpired(now) || entries.size() > maxEntries)) {
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.requestId(), head);
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /** A remembered request and its (possibly pending) result. */
+    private record Entry<V>(String requestId, Object fingerprint, Instant expiresAt, CompletableFuture<V> result) {
+
+        boolean isExpired(Instant now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package util;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe dictionary that maps repeated strings to dense integer codes.
+ *
+ * <p>Used by the dictionary-encoded storage mode to share a single instance of
+ * values that repeat across millions of records (attribute keys, semesters,
+ * course codes, department IDs). Codes are assigned in first-seen order and
+ * never change, so they can be stored in primitive arrays and decoded later.</p>
+ *
+ * <p>Data structures:
+ * <ul>
+ *   <li>{@link ConcurrentHashMap} string → code for lock-free lookups of known values.</li>
+ *   <li>A growable {@code String[]} code → string for O(1) decoding.</li>
+ * </ul>
+ * </p>
+ */
+public final class StringDictionary {
+
+    /** Returned by {@link #codeOf(String)} when a value has never been encoded. */
+    public static final int NO_CODE = -1;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+    /** Decoding table; replaced (never mutated in place past {@code size}) when it grows. */
+    private volatile String[] values = new String[64];
+
+    private int size;
+
+    /**
+     * Returns the code for the given value, assigning a new one if needed.
+     *
+     * @param value the string to encode (must not be null).
+     * @return a stable, non-negative code.
+     */
+    public int encode(@NonNull String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        return codes.computeIfAbsent(value, this::append);
+    }
+
+    /**
+     * Looks up the code of a value without assigning one.
+     *
+     * @param value the string to look up.
+     * @return its code, or {@link #NO_CODE} if the value is unknown.
+     */
+    public int codeOf(String value) {
+        if (value == null) return NO_CODE;
+        Integer code = codes.get(value);
+        return code == null ? NO_CODE : code;
+    }
+
+    /**
+     * Resolves a code back to its canonical string.
+     *
+     * @param code a code previously returned by {@link #encode(String)}.
+     * @return the canonical string instance.
+     * @throws IllegalArgumentException if the code was never assigned.
+     */
+    public String decode(int code) {
+        String[] table = values;
+        if (code < 0 || code >= table.length || table[code] == null) {
+            throw new IllegalArgumentException("Unknown dictionary code: " + code);
+        }
+        return table[code];
+    }
+
+    /**
+     * Returns the shared instance equal to the given value, registering it if new.
+     * Null is passed through unchanged.
+     *
+     * @param value the string to canonicalize.
+     * @return the canonical instance, or null.
+     */
+    public String canonical(String value) {
+        return value == null ? null : decode(encode(value));
+    }
+
+    /**
+     * @return the number of distinct values encoded so far.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized Integer append(String value) {
+        String[] table = values;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+        }
+        table[size] = value;
+        values = table;
+        return size++;
+    }
+}
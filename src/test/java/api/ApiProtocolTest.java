@@ -0,0 +1,102 @@
+package api;
+
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+import model.TimeSlot;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiProtocolTest {
+
+    @Test
+    void testStudent_RoundTripsWithEnrollments() {
+        // Given
+        Enrollment enrollment = enrollment();
+        Student student = new Student("S1", "Ada Lovelace", "ada@example.edu", null,
+                new LinkedHashSet<>(Set.of(enrollment)), new HashMap<>(Map.of("year", "2")), 7);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+
+        // When
+        ApiProtocol.putStudent(buffer, student);
+        Student read = ApiProtocol.getStudent(buffer.flip());
+
+        // Then
+        assertThat(read.getFullName()).isEqualTo("Ada Lovelace");
+        assertThat(read.getPhone()).isNull();
+        assertThat(read.getAttributes()).containsEntry("year", "2");
+        assertThat(read.getVersion()).isEqualTo(7);
+        assertThat(read.getEnrolledCourses()).singleElement()
+                .satisfies(e -> assertThat(e.getAttendance()).isEqualTo(enrollment.getAttendance()));
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void testCourseAndEnrollment_RoundTrip() {
+        // Given
+        Course course = new Course("CS101", "Intro", 3, "CS", Set.of("MA100"),
+                new TreeSet<>(Set.of(new TimeSlot(DayOfWeek.FRIDAY, LocalTime.of(13, 0), LocalTime.of(14, 0)))),
+                40, 2);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+
+        // When
+        ApiProtocol.putCourse(buffer, course);
+        ApiProtocol.putEnrollment(buffer, enrollment());
+        buffer.flip();
+        Course readCourse = ApiProtocol.getCourse(buffer);
+        Enrollment readEnrollment = ApiProtocol.getEnrollment(buffer);
+
+        // Then
+        assertThat(readCourse.getCapacity()).isEqualTo(40);
+        assertThat(readCourse.getScheduledSlots().iterator().next().getDayOfWeek()).isEqualTo(DayOfWeek.FRIDAY);
+        assertThat(readEnrollment.getStatus()).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(readEnrollment.getGrades()).containsEntry(GradeType.QUIZ, 8.5);
+    }
+
+    @Test
+    void testPutFrame_GrowsBufferAndPrefixesLength() {
+        // Given
+        ByteBuffer small = ByteBuffer.allocateDirect(16);
+
+        // When
+        ByteBuffer out = ApiProtocol.putFrame(small, 42, ApiProtocol.OK, o -> ApiProtocol.putString(o, "x".repeat(100)));
+
+        // Then
+        assertThat(out.capacity()).isGreaterThanOrEqualTo(113);
+        assertThat(out.getInt(0)).isEqualTo(out.position() - 4);
+        assertThat(out.getInt(4)).isEqualTo(42);
+    }
+
+    @Test
+    void testGetString_LengthBeyondFrameRejected() {
+        // Given
+        ByteBuffer buffer = ByteBuffer.allocate(8).putInt(1_000).putInt(0).flip();
+
+        // Then
+        assertThatThrownBy(() -> ApiProtocol.getString(buffer)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Enrollment enrollment() {
+        Map<GradeType, Double> grades = new EnumMap<>(GradeType.class);
+        grades.put(GradeType.QUIZ, 8.5);
+        BitSet attendance = new BitSet();
+        attendance.set(3);
+        attendance.set(70);
+        return new Enrollment("S1", "CS101", "Fall 2025", EnrollmentStatus.WAITLISTED, grades, attendance);
+    }
+}
@@ -0,0 +1,230 @@
+package api;
+
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+import model.TimeSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiServerTest {
+
+    private static final String FALL = "Fall 2025";
+
+    private ServiceGraph services;
+
+    private ApiServer server;
+
+    private ApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        services = StorageFactory.open(StorageConfig.backend(StorageConfig.DEFAULT_BACKEND));
+        server = new ApiServer(services, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        client = new ApiClient(server.getAddress());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+        services.close();
+    }
+
+    @Test
+    void testPipeline_RepliesInRequestOrderWithBatchedWrites() {
+        // Given
+        ApiClient.Pipeline pipeline = client.pipeline();
+        List<ApiClient.Reply<Student>> lookups = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pipeline.registerStudent(student("S" + i));
+            lookups.add(pipeline.getStudent("S" + i));
+        }
+
+        // When
+        pipeline.sync();
+
+        // Then
+        for (int i = 0; i < 200; i++) {
+            assertThat(lookups.get(i).get().getFullName()).isEqualTo("Student S" + i);
+        }
+        assertThat(server.requestsServed()).isEqualTo(400);
+        assertThat(server.responseWrites()).isLessThan(400);
+        assertThat(services.getStudentService().getStudentById("S199")).isNotNull();
+    }
+
+    @Test
+    void testPipeline_FailuresStayWithTheirReply() {
+        // Given
+        ApiClient.Pipeline pipeline = client.pipeline();
+        ApiClient.Reply<Void> first = pipeline.registerStudent(student("S1"));
+        ApiClient.Reply<Void> duplicate = pipeline.registerStudent(student("S1"));
+        ApiClient.Reply<Void> missing = pipeline.updateContact("S9", "x@example.edu", null);
+        ApiClient.Reply<Student> after = pipeline.getStudent("S1");
+
+        // When
+        assertThatThrownBy(first::get).isInstanceOf(IllegalStateException.class).hasMessage("Pipeline not synced");
+        pipeline.sync();
+
+        // Then
+        assertThat(first.get()).isNull();
+        assertThatThrownBy(duplicate::get).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(missing::get).isInstanceOf(IllegalArgumentException.class).hasMessage("Student not found");
+        assertThat(after.get().getEmail()).isEqualTo("S1@example.edu");
+        assertThatThrownBy(pipeline::sync).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testCoursesAndEnrollments_RoundTrip() {
+        // Given
+        Course course = new Course("CS101", "Intro", 3, "CS", new HashSet<>(Set.of("MA100")),
+                new TreeSet<>(Set.of(new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 30)))));
+        client.registerStudent(student("S1"));
+
+        // When
+        ApiClient.Pipeline pipeline = client.pipeline();
+        pipeline.createCourse(course);
+        ApiClient.Reply<EnrollmentStatus> enrolled = pipeline.enroll("req-1", "S1", "CS101", FALL);
+        ApiClient.Reply<EnrollmentStatus> retried = pipeline.enroll("req-1", "S1", "CS101", FALL);
+        ApiClient.Reply<Enrollment> graded = pipeline.recordGrade("S1", "CS101", FALL, GradeType.FINAL, 91.5);
+        ApiClient.Reply<List<Enrollment>> forStudent = pipeline.getEnrollmentsForStudent("S1");
+        ApiClient.Reply<List<String>> roster = pipeline.getStudentsForCourse("CS101");
+        ApiClient.Reply<List<Course>> listed = pipeline.listCourses("CS");
+        pipeline.sync();
+
+        // Then
+        Course fetched = client.getCourse("CS101");
+        assertThat(fetched.getTitle()).isEqualTo("Intro");
+        assertThat(fetched.getPrerequisites()).containsExactly("MA100");
+        assertThat(fetched.getScheduledSlots()).singleElement()
+                .satisfies(slot -> assertThat(slot.getEndTime()).isEqualTo(LocalTime.of(10, 30)));
+        assertThat(enrolled.get()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(retried.get()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(graded.get().getGrades()).containsEntry(GradeType.FINAL, 91.5);
+        assertThat(forStudent.get()).singleElement()
+                .satisfies(e -> assertThat(e.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED));
+        assertThat(roster.get()).containsExactly("S1");
+        assertThat(listed.get()).extracting(Course::getCode).containsExactly("CS101");
+        assertThat(client.getCourse("missing")).isNull();
+    }
+
+    @Test
+    void testLargeFrames_BuffersGrow() {
+        // Given
+        Student large = student("S1");
+        large.setAttributes(Map.of("notes", "x".repeat(300_000)));
+
+        // When
+        client.registerStudent(large);
+        ApiClient.Pipeline pipeline = client.pipeline();
+        for (int i = 2; i < 2_000; i++) {
+            pipeline.registerStudent(student("S" + i));
+        }
+        ApiClient.Reply<List<Student>> all = pipeline.searchStudents("student");
+        pipeline.sync();
+
+        // Then
+        assertThat(client.getStudent("S1").getAttributes().get("notes")).hasSize(300_000);
+        assertThat(all.get()).hasSize(1_999);
+    }
+
+    @Test
+    void testConcurrentClients_SpreadOverEventLoops() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Student>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            results.add(pool.submit(() -> {
+                try (ApiClient own = new ApiClient(server.getAddress())) {
+                    for (int i = 0; i < 50; i++) {
+                        own.registerStudent(student("T" + thread + "-" + i));
+                    }
+                    return own.getStudent("T" + thread + "-49");
+                }
+            }));
+        }
+
+        // Then
+        for (Future<Student> result : results) {
+            assertThat(result.get()).isNotNull();
+        }
+        pool.shutdown();
+        assertThat(services.getStudentService().searchStudentsByName("student")).hasSize(200);
+    }
+
+    @Test
+    void testMalformedFrame_ClosesOnlyThatConnection() throws Exception {
+        // Given
+        String[] hostPort = server.getAddress().split(":");
+        try (Socket raw = new Socket(hostPort[0], Integer.parseInt(hostPort[1]))) {
+
+            // When
+            DataOutputStream out = new DataOutputStream(raw.getOutputStream());
+            out.writeInt(2);
+            out.writeShort(0);
+            out.flush();
+
+            // Then
+            assertThat(raw.getInputStream().read()).isEqualTo(-1);
+        }
+        client.ping();
+        assertThatThrownBy(() -> new ApiServer(services, new InetSocketAddress(0), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testDeletes_CascadeToEnrollments() {
+        // Given
+        client.registerStudent(student("S1"));
+        client.registerStudent(student("S2"));
+        client.enroll("S1", "CS101", FALL);
+        client.enroll("S2", "MA201", FALL);
+
+        // When
+        ApiClient.Pipeline pipeline = client.pipeline();
+        pipeline.deleteStudent("S1");
+        pipeline.deleteCourse("MA201");
+        pipeline.sync();
+
+        // Then
+        assertThat(services.getEnrollmentService().getStudentsForCourse("CS101")).isEmpty();
+        assertThat(services.getEnrollmentService().getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(services.getEnrollmentService().getEnrollmentsForStudent("S2")).isEmpty();
+    }
+
+    private static Student student(String id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName("Student " + id);
+        student.setEmail(id + "@example.edu");
+        return student;
+    }
+}
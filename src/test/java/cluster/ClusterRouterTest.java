@@ -0,0 +1,342 @@
+package cluster;
+
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Student;
+import model.dto.SeatHold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterRouterTest {
+
+    private static final String FALL = "Fall 2025";
+
+    private final List<ClusterNode> nodes = new ArrayList<>();
+
+    private ClusterRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new ClusterRouter(List.of(startNode().getAddress(), startNode().getAddress()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.close();
+        for (ClusterNode node : nodes) {
+            node.close();
+            node.getServices().close();
+        }
+    }
+
+    @Test
+    void testRegisterStudent_RoutedToOwnerAndSearchable() {
+        // When
+        for (int i = 0; i < 20; i++) {
+            router.registerStudent(student("S" + i));
+        }
+
+        // Then
+        assertThat(router.getStudentById("S7").getFullName()).isEqualTo("Student S7");
+        assertThat(router.getStudentById("missing")).isNull();
+        assertThat(router.searchStudentsByName("student")).hasSize(20);
+        assertThat(nodes).allSatisfy(node -> assertThat(node.journaledKeys()).isPositive());
+    }
+
+    @Test
+    void testGetStudentsByIds_GathersFromEveryOwner() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            router.registerStudent(student("S" + i));
+        }
+
+        // When
+        Map<String, Student> found = router.getStudentsByIds(List.of("S9", "S0", "missing", "S13", "S4"));
+
+        // Then
+        assertThat(found.keySet()).containsExactly("S9", "S0", "S13", "S4");
+        assertThat(found.get("S13").getFullName()).isEqualTo("Student S13");
+    }
+
+    @Test
+    void testRegisterStudent_EmailUniqueAcrossNodes() {
+        // Given
+        router.registerStudent(student("S1"));
+        Student sameEmail = student("S2");
+        sameEmail.setEmail("S1@example.edu");
+
+        // Then
+        assertThatThrownBy(() -> router.registerStudent(sameEmail))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student with this id or email already exists");
+        assertThatThrownBy(() -> router.registerStudent(student("S1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        // The duplicate registration must not have released S1's email.
+        Student again = student("S3");
+        again.setEmail("S1@example.edu");
+        assertThatThrownBy(() -> router.registerStudent(again)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testUpdateContactAndDelete_MoveEmailReservations() {
+        // Given
+        router.registerStudent(student("S1"));
+        router.registerStudent(student("S2"));
+
+        // When
+        router.updateContact("S1", "ada@example.edu", "555-0100");
+        router.updateAttributes("S1", Map.of("year", "2"));
+        router.deleteStudent("S2");
+
+        // Then
+        assertThat(router.getStudentById("S1").getEmail()).isEqualTo("ada@example.edu");
+        assertThat(router.getStudentById("S1").getAttributes()).containsEntry("year", "2");
+        assertThatThrownBy(() -> router.updateContact("S9", "x@example.edu", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student not found");
+        router.registerStudent(withEmail(student("S3"), "S1@example.edu"));
+        router.registerStudent(withEmail(student("S4"), "S2@example.edu"));
+    }
+
+    @Test
+    void testEnroll_CapacityEnforcedOnCourseOwner() {
+        // Given
+        router.setSemesterCapacity("CS101", FALL, 1);
+
+        // When
+        EnrollmentStatus first = router.enrollStudent("S1", "CS101", FALL);
+        EnrollmentStatus second = router.enrollStudent("req-2", "S2", "CS101", FALL);
+        EnrollmentStatus retried = router.enrollStudent("req-2", "S2", "CS101", FALL);
+        router.enrollStudent("S1", "MA201", FALL);
+
+        // Then
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(second).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(retried).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(router.getWaitlist("CS101", FALL)).containsExactly("S2");
+        assertThat(router.getEnrollmentsForStudent("S1")).hasSize(2);
+        assertThat(router.recordGrade("S1", "CS101", FALL, GradeType.FINAL, 88).getGrades())
+                .containsEntry(GradeType.FINAL, 88.0);
+        router.dropStudent("S1", "CS101", FALL);
+        assertThat(router.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThatThrownBy(() -> router.recordGrade("S9", "CS101", FALL, GradeType.FINAL, 50))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("No enrollment for student S9");
+    }
+
+    @Test
+    void testJoinAndLeave_KeysFollowTheirOwner() {
+        // Given
+        router.setSemesterCapacity("CS101", FALL, 1);
+        for (int i = 0; i < 30; i++) {
+            router.registerStudent(student("S" + i));
+            router.enrollStudent("S" + i, "C" + (i % 6), FALL);
+        }
+        router.enrollStudent("S0", "CS101", FALL);
+        router.enrollStudent("S1", "CS101", FALL);
+        router.recordGrade("S0", "CS101", FALL, GradeType.MIDTERM, 71);
+
+        // When
+        ClusterNode third = startNode();
+        int movedIn = router.join(third.getAddress());
+
+        // Then
+        assertThat(movedIn).isPositive();
+        assertThat(third.journaledKeys()).isPositive();
+        assertClusterState();
+
+        // When
+        String leaving = nodes.get(0).getAddress();
+        int movedOut = router.leave(leaving);
+
+        // Then
+        assertThat(movedOut).isPositive();
+        assertThat(nodes.get(0).journaledKeys()).isZero();
+        assertThat(router.getRing().nodes()).doesNotContain(leaving);
+        assertClusterState();
+        assertThatThrownBy(() -> router.registerStudent(withEmail(student("S99"), "S5@example.edu")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testLeave_LastNodeAndUnknownNodesRejected() {
+        // Given
+        router.leave(nodes.get(1).getAddress());
+
+        // Then
+        assertThatThrownBy(() -> router.leave(nodes.get(0).getAddress()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot remove the last node");
+        assertThatThrownBy(() -> router.leave("127.0.0.1:1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.join(nodes.get(0).getAddress()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRouter_NodesInSeparateProcesses() throws Exception {
+        // Given
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<String> addresses = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Process process = new ProcessBuilder(
+                        Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"), ClusterNode.class.getName(), "0")
+                        .redirectErrorStream(true)
+                        .start();
+                processes.add(process);
+                addresses.add(awaitAddress(process));
+            }
+            try (ClusterRouter remote = new ClusterRouter(addresses.subList(0, 2))) {
+
+                // When
+                for (int i = 0; i < 12; i++) {
+                    remote.registerStudent(student("S" + i));
+                    remote.enrollStudent("S" + i, "C" + (i % 4), FALL);
+                }
+                remote.join(addresses.get(2));
+                remote.leave(addresses.get(0));
+
+                // Then
+                assertThat(remote.searchStudentsByName("student")).hasSize(12);
+                for (int c = 0; c < 4; c++) {
+                    assertThat(remote.getStudentsForCourse("C" + c)).hasSize(3);
+                }
+                assertThat(remote.getStudentById("S11").getEmail()).isEqualTo("S11@example.edu");
+            }
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+    }
+
+    private void assertClusterState() {
+        assertThat(router.searchStudentsByName("student")).hasSize(30);
+        for (int i = 0; i < 30; i++) {
+            assertThat(router.getStudentById("S" + i)).isNotNull();
+        }
+        for (int c = 0; c < 6; c++) {
+            assertThat(router.getStudentsForCourse("C" + c)).hasSize(5);
+        }
+        assertThat(router.getStudentsForCourse("CS101")).containsExactly("S0");
+        assertThat(router.getWaitlist("CS101", FALL)).containsExactly("S1");
+        assertThat(router.getEnrollmentsForStudent("S0")).hasSize(2)
+                .anySatisfy(e -> assertThat(e.getGrades()).containsEntry(GradeType.MIDTERM, 71.0));
+    }
+
+    private ClusterNode startNode() {
+        ServiceGraph services = StorageFactory.open(StorageConfig.backend(StorageConfig.DEFAULT_BACKEND));
+        ClusterNode node = new ClusterNode(services, 0);
+        nodes.add(node);
+        return node;
+    }
+
+    @Test
+    void testDeleteStudent_RemovesEnrollmentsOnEveryNode() {
+        // Given
+        router.registerStudent(student("S1"));
+        for (int i = 0; i < 10; i++) {
+            router.enrollStudent("S1", "C" + i, FALL);
+        }
+        router.enrollStudent("S2", "C0", FALL);
+
+        // When
+        router.deleteStudent("S1");
+
+        // Then
+        assertThat(router.getStudentById("S1")).isNull();
+        assertThat(router.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(router.getStudentsForCourse("C0")).containsExactly("S2");
+    }
+
+    @Test
+    void testJoin_FailedHandOffLeavesRingAndKeysInPlace() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            router.registerStudent(student("S" + i));
+            router.enrollStudent("S" + i, "C" + (i % 4), FALL);
+        }
+        ServiceGraph services = StorageFactory.open(StorageConfig.backend(StorageConfig.DEFAULT_BACKEND));
+        ClusterNode readOnly = new ClusterNode(services, 0, MutationLog.DEFAULT_TAIL_CAPACITY, true);
+        nodes.add(readOnly);
+        HashRing before = router.getRing();
+
+        // When
+        assertThatThrownBy(() -> router.join(readOnly.getAddress()))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(router.getRing()).isSameAs(before);
+        assertThat(router.searchStudentsByName("student")).hasSize(20);
+        assertThat(router.getStudentsForCourse("C0")).containsExactlyInAnyOrder("S0", "S4", "S8", "S12", "S16");
+        assertThat(router.join(startNode().getAddress())).isPositive();
+        assertThat(router.searchStudentsByName("student")).hasSize(20);
+        assertThat(router.getStudentsForCourse("C0")).containsExactlyInAnyOrder("S0", "S4", "S8", "S12", "S16");
+    }
+
+    @Test
+    void testJoin_MovedHoldsKeepTheirDeadline() {
+        // Given
+        List<SeatHold> holds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            router.setSemesterCapacity("C" + i, FALL, 1);
+            holds.add(router.holdSeat("S" + i, "C" + i, FALL, Duration.ofMinutes(10)));
+        }
+
+        // When
+        int moved = router.join(startNode().getAddress());
+
+        // Then
+        assertThat(moved).isPositive();
+        for (SeatHold hold : holds) {
+            String owner = router.getRing().owner(hold.courseCode());
+            for (ClusterNode node : nodes) {
+                SeatHold held = node.getServices().getRepositories().getEnrollments()
+                        .getHold(hold.studentId(), hold.courseCode(), FALL);
+                assertThat(held).isEqualTo(node.getAddress().equals(owner) ? hold : null);
+            }
+            assertThat(router.enrollStudent("W1", hold.courseCode(), FALL)).isEqualTo(EnrollmentStatus.WAITLISTED);
+        }
+    }
+
+    private static String awaitAddress(Process process) throws Exception {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("Node listening on ")) {
+                return line.substring("Node listening on ".length());
+            }
+        }
+        throw new IllegalStateException("Node process exited with " + process.waitFor());
+    }
+
+    private static Student student(String id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName("Student " + id);
+        student.setEmail(id + "@example.edu");
+        return student;
+    }
+
+    private static Student withEmail(Student student, String email) {
+        student.setEmail(email);
+        return student;
+    }
+}
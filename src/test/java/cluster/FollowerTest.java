@@ -0,0 +1,317 @@
+package cluster;
+
+import model.GradeType;
+import model.Student;
+import model.dto.SeatHold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import repository.EnrollmentRepository;
+import repository.InMemoryCourseRepository;
+import repository.InMemoryDepartmentRepository;
+import repository.InMemoryEnrollmentRepository;
+import repository.InMemoryInstructorRepository;
+import repository.InMemoryNotificationRepository;
+import repository.InMemoryStudentRepository;
+import repository.StorageContext;
+import storage.InMemoryStorageProvider;
+import storage.Repositories;
+import storage.ServiceGraph;
+import storage.StorageConfig;
+import storage.StorageFactory;
+import util.MutableClock;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FollowerTest {
+
+    private static final String FALL = "Fall 2025";
+
+    @Test
+    void testFollower_HoldKeepsLeaderDeadlineAndExpiresWithLeader() throws Exception {
+        // Given
+        MutableClock clock = new MutableClock(Instant.now());
+        ClusterNode leader = startNode(open(clock), MutationLog.DEFAULT_TAIL_CAPACITY);
+        ClusterRouter writes = router(leader.getAddress());
+        Follower follower = startFollower(leader.getAddress());
+        writes.setSemesterCapacity("C1", FALL, 1);
+        SeatHold hold = writes.holdSeat("S1", "C1", FALL, Duration.ofMinutes(10));
+        writes.enrollStudent("S2", "C1", FALL);
+        assertThat(follower.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+        EnrollmentRepository replica = follower.getServices().getRepositories().getEnrollments();
+        SeatHold replicated = replica.getHold("S1", "C1", FALL);
+
+        // When: the leader's sweeper releases the hold and promotes S2; the next write to the
+        // course journals whatever the recorder has not yet.
+        clock.advance(Duration.ofMinutes(11));
+        leader.getServices().getHoldExpirySweeper().sweep();
+        writes.setSemesterCapacity("C1", FALL, 1);
+        assertThat(follower.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+
+        // Then
+        assertThat(replicated).isEqualTo(hold);
+        assertThat(replica.getHold("S1", "C1", FALL)).isNull();
+        assertThat(replica.getStudentsForCourse("C1")).containsExactly("S2");
+        assertThat(replica.getAvailableSeats("C1", FALL)).isZero();
+    }
+
+    @Test
+    void testSnapshot_RestoresCompactedStateOfEachSection() throws Exception {
+        // Given
+        ClusterNode leader = startNode(8);
+        ClusterRouter writes = router(leader.getAddress());
+        writes.setSemesterCapacity("C1", FALL, 1);
+        writes.enrollStudent("S1", "C1", FALL);
+        writes.enrollStudent("S2", "C1", FALL);
+        for (int i = 0; i < 20; i++) {
+            writes.recordGrade("S1", "C1", FALL, GradeType.QUIZ, i);
+        }
+        SeatHold hold = writes.holdSeat("S3", "C2", FALL, Duration.ofMinutes(10));
+
+        // When
+        Follower follower = startFollower(leader.getAddress());
+        assertThat(follower.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+
+        // Then
+        EnrollmentRepository replica = follower.getServices().getRepositories().getEnrollments();
+        assertThat(replica.getEnrollment("S1", "C1", FALL).getGrades()).containsEntry(GradeType.QUIZ, 19.0);
+        assertThat(replica.getWaitlist("C1", FALL)).containsExactly("S2");
+        assertThat(replica.getHold("S3", "C2", FALL)).isEqualTo(hold);
+        assertThat(leader.journaledKeys()).isEqualTo(2);
+        assertThat(follower.getSnapshotsLoaded()).isEqualTo(1);
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (int i = closeables.size() - 1; i >= 0; i--) {
+            closeables.get(i).close();
+        }
+    }
+
+    @Test
+    void testFollower_AppliesLeaderWritesInOrder() throws Exception {
+        // Given
+        ClusterNode leader = startNode(MutationLog.DEFAULT_TAIL_CAPACITY);
+        ClusterRouter writes = router(leader.getAddress());
+        Follower follower = startFollower(leader.getAddress());
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            writes.registerStudent(student("S" + i));
+            writes.enrollStudent("S" + i, "C" + (i % 2), FALL);
+        }
+        writes.updateContact("S1", "ada@example.edu", null);
+        writes.deleteStudent("S2");
+
+        // Then
+        assertThat(follower.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+        assertThat(follower.getServices().getStudentService().searchStudentsByName("student")).hasSize(9);
+        assertThat(follower.getServices().getStudentService().getStudentById("S1").getEmail())
+                .isEqualTo("ada@example.edu");
+        assertThat(follower.getServices().getEnrollmentService().getStudentsForCourse("C0"))
+                .containsExactly("S0", "S4", "S6", "S8");
+        assertThat(follower.lag()).isZero();
+        assertThat(follower.timeBehind()).isEqualTo(Duration.ZERO);
+        assertThat(follower.getSnapshotsLoaded()).isEqualTo(1);
+    }
+
+    @Test
+    void testFollower_ServesReadsAndRejectsWrites() throws Exception {
+        // Given
+        ClusterNode leader = startNode(MutationLog.DEFAULT_TAIL_CAPACITY);
+        router(leader.getAddress()).registerStudent(student("S1"));
+        Follower follower = startFollower(leader.getAddress());
+        assertThat(follower.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+
+        // When
+        ClusterRouter reads = router(follower.getAddress());
+
+        // Then
+        assertThat(reads.getStudentById("S1").getFullName()).isEqualTo("Student S1");
+        assertThatThrownBy(() -> reads.registerStudent(student("S2")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Read-only replica");
+        assertThatThrownBy(() -> reads.enrollStudent("S1", "CS101", FALL))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(reads.getStudentById("S2")).isNull();
+    }
+
+    @Test
+    void testFollower_RefusesQueriesUntilSnapshotLoaded() {
+        // Given
+        Follower follower = startFollower("127.0.0.1:1");
+
+        // Then
+        assertThatThrownBy(() -> router(follower.getAddress()).getStudentById("S1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Replica is loading a snapshot");
+        assertThat(follower.getAppliedSequence()).isEqualTo(-1);
+        assertThat(follower.timeBehind()).isPositive();
+    }
+
+    @Test
+    void testRestart_CatchesUpFromSnapshotPlusTail() throws Exception {
+        // Given
+        ClusterNode leader = startNode(8);
+        ClusterRouter writes = router(leader.getAddress());
+        writes.registerStudent(student("S0"));
+        Follower first = startFollower(leader.getAddress());
+        assertThat(first.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+        first.close();
+
+        // When: the leader's tail moves past everything the first follower saw.
+        for (int i = 1; i < 20; i++) {
+            writes.registerStudent(student("S" + i));
+        }
+        writes.deleteStudent("S0");
+        Follower restarted = startFollower(leader.getAddress());
+        assertThat(restarted.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+        writes.registerStudent(student("S20"));
+
+        // Then
+        assertThat(restarted.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+        assertThat(restarted.getServices().getStudentService().searchStudentsByName("student")).hasSize(20);
+        assertThat(restarted.getServices().getStudentService().getStudentById("S0")).isNull();
+        assertThat(restarted.getSnapshotsLoaded()).isEqualTo(1);
+        assertThat(restarted.lag()).isZero();
+    }
+
+    @Test
+    void testHandOff_MovedKeysLeaveTheFollowerToo() throws Exception {
+        // Given
+        ClusterNode leader = startNode(MutationLog.DEFAULT_TAIL_CAPACITY);
+        ClusterRouter writes = router(leader.getAddress());
+        Follower follower = startFollower(leader.getAddress());
+        for (int i = 0; i < 30; i++) {
+            writes.registerStudent(student("S" + i));
+        }
+
+        // When
+        int moved = writes.join(startNode(MutationLog.DEFAULT_TAIL_CAPACITY).getAddress());
+
+        // Then
+        assertThat(moved).isPositive();
+        assertThat(follower.awaitSequence(leader.lastSequence(), TIMEOUT)).isTrue();
+        assertThat(follower.getServices().getStudentService().searchStudentsByName("student"))
+                .hasSameSizeAs(leader.getServices().getStudentService().searchStudentsByName("student"))
+                .hasSizeLessThan(30);
+    }
+
+    @Test
+    void testFollower_InSeparateProcess() throws Exception {
+        // Given
+        ClusterNode leader = startNode(MutationLog.DEFAULT_TAIL_CAPACITY);
+        ClusterRouter writes = router(leader.getAddress());
+        writes.registerStudent(student("S1"));
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), Follower.class.getName(), leader.getAddress(), "0")
+                .redirectErrorStream(true)
+                .start();
+        closeables.add(process::destroy);
+        ClusterRouter reads = router(awaitAddress(process));
+
+        // When
+        writes.registerStudent(student("S2"));
+
+        // Then
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!hasStudent(reads, "S2") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(reads.getStudentById("S2")).isNotNull();
+        assertThat(reads.searchStudentsByName("student")).hasSize(2);
+    }
+
+    /**
+     * @return whether the follower has the student yet; false while it loads its snapshot.
+     */
+    private static boolean hasStudent(ClusterRouter reads, String id) {
+        try {
+            return reads.getStudentById(id) != null;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private ClusterNode startNode(int tailCapacity) {
+        return startNode(open(), tailCapacity);
+    }
+
+    private ClusterNode startNode(ServiceGraph services, int tailCapacity) {
+        ClusterNode node = new ClusterNode(services, 0, tailCapacity);
+        closeables.add(services);
+        closeables.add(node);
+        return node;
+    }
+
+    private Follower startFollower(String leaderAddress) {
+        ServiceGraph services = open();
+        Follower follower = new Follower(services, 0, leaderAddress);
+        closeables.add(services);
+        closeables.add(follower);
+        return follower;
+    }
+
+    private ClusterRouter router(String address) {
+        ClusterRouter router = new ClusterRouter(List.of(address));
+        closeables.add(router);
+        return router;
+    }
+
+    private static ServiceGraph open() {
+        return StorageFactory.open(StorageConfig.backend(StorageConfig.DEFAULT_BACKEND));
+    }
+
+    /**
+     * @return an in-memory service graph whose holds expire by the given clock.
+     */
+    private static ServiceGraph open(Clock clock) {
+        StorageContext context = StorageContext.builder().clock(clock).build();
+        return new ServiceGraph(Repositories.builder()
+                .backend(InMemoryStorageProvider.NAME)
+                .capabilities(new InMemoryStorageProvider().capabilities())
+                .storageContext(context)
+                .students(new InMemoryStudentRepository(context))
+                .courses(new InMemoryCourseRepository(context))
+                .enrollments(new InMemoryEnrollmentRepository(context))
+                .departments(new InMemoryDepartmentRepository(context))
+                .instructors(new InMemoryInstructorRepository(context))
+                .notifications(new InMemoryNotificationRepository(context))
+                .build());
+    }
+
+    private static String awaitAddress(Process process) throws Exception {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("Follower listening on ")) {
+                return line.substring("Follower listening on ".length());
+            }
+        }
+        throw new IllegalStateException("Follower process exited with " + process.waitFor());
+    }
+
+    private static Student student(String id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName("Student " + id);
+        student.setEmail(id + "@example.edu");
+        return student;
+    }
+}
@@ -0,0 +1,72 @@
+package cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HashRingTest {
+
+    private static final List<String> NODES = List.of("127.0.0.1:7001", "127.0.0.1:7002", "127.0.0.1:7003");
+
+    @Test
+    void testOwner_SameNodesAgreeInAnyOrder() {
+        // Given
+        HashRing ring = HashRing.of(NODES);
+        HashRing reordered = HashRing.of(List.of(NODES.get(2), NODES.get(0), NODES.get(1)));
+
+        // Then
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(reordered.owner("S" + i)).isEqualTo(ring.owner("S" + i));
+        }
+    }
+
+    @Test
+    void testShares_VirtualNodesSpreadKeysEvenly() {
+        // Given
+        HashRing ring = HashRing.of(NODES);
+
+        // When
+        Map<String, Double> shares = ring.shares();
+
+        // Then
+        assertThat(shares.values().stream().mapToDouble(Double::doubleValue).sum()).isCloseTo(1.0, within(1e-9));
+        assertThat(shares.values()).allSatisfy(share -> assertThat(share).isBetween(0.25, 0.42));
+    }
+
+    @Test
+    void testWith_OnlyKeysOfTheNewNodeMove() {
+        // Given
+        HashRing ring = HashRing.of(NODES);
+        HashRing joined = ring.with("127.0.0.1:7004");
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String before = ring.owner("S" + i);
+            String after = joined.owner("S" + i);
+            if (!before.equals(after)) {
+                moved++;
+                assertThat(after).isEqualTo("127.0.0.1:7004");
+            }
+        }
+
+        // Then
+        assertThat(moved).isBetween(1_800, 3_200);
+        assertThat(joined.without("127.0.0.1:7004").owner("S42")).isEqualTo(ring.owner("S42"));
+    }
+
+    @Test
+    void testOwner_EmptyRingRejected() {
+        // Then
+        assertThatThrownBy(() -> HashRing.of(List.of()).owner("S1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Hash ring has no nodes");
+        assertThatThrownBy(() -> new HashRing(NODES, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,165 @@
+package cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MutationLogTest {
+
+    @Test
+    void testPut_JournalsAndSequencesInOrder() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(16);
+
+        // When
+        log.put("S:1", "state", bytes("a"));
+        log.put("C:1", "S1", bytes("b"));
+        log.put("C:1", "S2", bytes("c"));
+
+        // Then
+        assertThat(log.lastSequence()).isEqualTo(3);
+        assertThat(log.journal("C:1")).containsExactly(bytes("b"), bytes("c"));
+        assertThat(log.read(1, 10, 0)).extracting(MutationLog.Entry::sequence).containsExactly(2L, 3L);
+        assertThat(log.read(0, 2, 0)).extracting(MutationLog.Entry::request).containsExactly(bytes("a"), bytes("b"));
+    }
+
+    @Test
+    void testPut_ReplacesRecordWithSameIdAndSkipsUnchanged() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(16);
+        log.put("C:1", "S1", bytes("enrolled"));
+        log.put("C:1", "S2", bytes("held"));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            log.put("C:1", "S1", bytes("graded " + i));
+        }
+        log.put("C:1", "S2", bytes("held"));
+
+        // Then
+        assertThat(log.journal("C:1")).containsExactly(bytes("graded 4"), bytes("held"));
+        assertThat(log.lastSequence()).isEqualTo(7);
+    }
+
+    @Test
+    void testWrite_FailedWriteLeavesNoTrace() {
+        // Given
+        MutationLog log = new MutationLog(16);
+
+        // When
+        assertThatThrownBy(() -> log.write("S:1", () -> {
+            throw new IllegalArgumentException("rejected");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        assertThat(log.lastSequence()).isZero();
+        assertThat(log.journal("S:1")).isNull();
+    }
+
+    @Test
+    void testPutAll_SequencesChangedRecordsAsOneEntry() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(16);
+        log.put("C:1", "S1", bytes("held"));
+        log.put("C:1", "S2", bytes("waitlisted"));
+        Map<Object, byte[]> records = new LinkedHashMap<>();
+        records.put("S1", null);
+        records.put("S2", bytes("enrolled"));
+
+        // When
+        log.putAll("C:1", records, bytes("S1 released, S2 promoted"));
+        log.putAll("C:1", records, bytes("S1 released, S2 promoted"));
+
+        // Then
+        assertThat(log.journal("C:1")).containsExactly(bytes("enrolled"));
+        assertThat(log.read(2, 10, 0)).extracting(MutationLog.Entry::request)
+                .containsExactly(bytes("S1 released, S2 promoted"));
+    }
+
+    @Test
+    void testPutAll_DropsEmptyJournalAndSkipsUnknownRemovals() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(16);
+        log.put("C:1", "S1", bytes("enrolled"));
+        Map<Object, byte[]> unknown = new LinkedHashMap<>();
+        unknown.put("S2", null);
+        Map<Object, byte[]> known = new LinkedHashMap<>();
+        known.put("S1", null);
+
+        // When
+        log.putAll("C:1", unknown, bytes("S2 removed"));
+        log.putAll("C:1", known, bytes("S1 removed"));
+
+        // Then
+        assertThat(log.keys()).isEmpty();
+        assertThat(log.read(1, 10, 0)).extracting(MutationLog.Entry::request).containsExactly(bytes("S1 removed"));
+    }
+
+    @Test
+    void testClear_DropsJournalAndSequencesRemovalOnce() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(16);
+        log.put("S:1", "state", bytes("register"));
+
+        // When
+        log.clear("S:1", bytes("delete"));
+        log.clear("S:1", bytes("delete"));
+
+        // Then
+        assertThat(log.keys()).isEmpty();
+        assertThat(log.read(1, 10, 0)).extracting(MutationLog.Entry::request).containsExactly(bytes("delete"));
+    }
+
+    @Test
+    void testRead_BehindTheTailNeedsSnapshot() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(4);
+        for (int i = 0; i < 10; i++) {
+            log.put("S:" + (i % 3), "state", bytes("w" + i));
+        }
+
+        // When
+        MutationLog.Snapshot snapshot = log.snapshot();
+
+        // Then
+        assertThat(log.read(5, 10, 0)).isNull();
+        assertThat(log.read(6, 10, 0)).hasSize(4);
+        assertThat(log.read(11, 10, 0)).isNull();
+        assertThat(snapshot.sequence()).isEqualTo(10);
+        assertThat(snapshot.journals()).containsOnlyKeys("S:0", "S:1", "S:2");
+        assertThat(snapshot.journals().get("S:0")).containsExactly(bytes("w9"));
+    }
+
+    @Test
+    void testRead_WaitsForNextWrite() throws Exception {
+        // Given
+        MutationLog log = new MutationLog(4);
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+                return;
+            }
+            log.put("S:1", "state", bytes("a"));
+        });
+
+        // When
+        writer.start();
+        List<MutationLog.Entry> entries = log.read(0, 10, 5_000);
+        writer.join();
+
+        // Then
+        assertThat(entries).hasSize(1);
+        assertThat(log.read(1, 10, 10)).isEmpty();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
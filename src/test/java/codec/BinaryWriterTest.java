@@ -0,0 +1,87 @@
+package codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryWriterTest {
+
+    @Test
+    void testVarints_BoundaryValuesRoundTrip() {
+        // Given
+        long[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        BinaryWriter out = new BinaryWriter(16);
+
+        // When
+        for (int i = 0; i < values.length; i++) {
+            out.writeVarLong(2 * i + 1, values[i]);
+            out.writeSignedLong(2 * i + 2, values[i]);
+        }
+        BinaryReader in = new BinaryReader(out.toByteArray());
+
+        // Then
+        for (long value : values) {
+            assertThat(in.nextField()).isTrue();
+            assertThat(in.readVarLong()).isEqualTo(value);
+            assertThat(in.nextField()).isTrue();
+            assertThat(in.readSignedLong()).isEqualTo(value);
+        }
+        assertThat(in.nextField()).isFalse();
+    }
+
+    @Test
+    void testSignedLong_SmallNegativesStayShort() {
+        // Given
+        BinaryWriter out = new BinaryWriter();
+
+        // When
+        out.writeSignedLong(1, -3);
+
+        // Then
+        assertThat(out.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testNestedRecord_LengthWidensPastOneByte() {
+        // Given
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("notes", "x".repeat(300));
+        map.put("ascii-then-ü", "ü".repeat(70));
+        BinaryWriter out = new BinaryWriter(8);
+
+        // When
+        out.writeStringMap(3, map);
+        out.writeLongs(4, new long[]{-1L, 42L});
+        BinaryReader in = new BinaryReader(out.toByteArray());
+        Map<String, String> read = new LinkedHashMap<>();
+
+        // Then
+        assertThat(in.nextField()).isTrue();
+        in.readStringEntry(read);
+        assertThat(in.nextField()).isTrue();
+        in.readStringEntry(read);
+        assertThat(read).isEqualTo(map);
+        assertThat(in.nextField()).isTrue();
+        assertThat(in.readLongs()).containsExactly(-1L, 42L);
+    }
+
+    @Test
+    void testReader_WrongWireTypeAndBadTagsRejected() {
+        // Given
+        BinaryWriter out = new BinaryWriter();
+        out.writeString(1, "S1");
+        BinaryReader in = new BinaryReader(out.toByteArray());
+        in.nextField();
+
+        // Then
+        assertThatThrownBy(in::readVarLong).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Field 1 has wire type 2, expected 0");
+        assertThatThrownBy(() -> out.writeVarLong(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BinaryReader(new byte[]{(byte) 0x80}).varLong())
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Truncated varint");
+    }
+}
@@ -0,0 +1,145 @@
+package codec;
+
+import model.Course;
+import model.Department;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.Instructor;
+import model.Notification;
+import model.Student;
+import model.TimeSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelCodecsTest {
+
+    @Test
+    void testStudent_RoundTripsWithNestedEnrollments() {
+        // Given
+        Student student = new Student("S1", "Zoë Ångström", "zoe@example.edu", null,
+                new LinkedHashSet<>(Set.of(enrollment())), new HashMap<>(Map.of("year", "2", "minor", "Art")), 12);
+
+        // When
+        Student read = ModelCodecs.STUDENT.decode(ModelCodecs.STUDENT.encode(student));
+
+        // Then
+        assertThat(read.getFullName()).isEqualTo("Zoë Ångström");
+        assertThat(read.getPhone()).isNull();
+        assertThat(read.getAttributes()).isEqualTo(student.getAttributes());
+        assertThat(read.getVersion()).isEqualTo(12);
+        assertThat(read.getEnrolledCourses()).singleElement().satisfies(e -> {
+            assertThat(e.getStatus()).isEqualTo(EnrollmentStatus.WAITLISTED);
+            assertThat(e.getGrades()).containsEntry(GradeType.MIDTERM, 77.25).hasSize(2);
+            assertThat(e.getAttendance()).isEqualTo(enrollment().getAttendance());
+        });
+    }
+
+    @Test
+    void testCourseAndTimeSlot_RoundTripIncludingNanos() {
+        // Given
+        TimeSlot slot = new TimeSlot(DayOfWeek.TUESDAY, LocalTime.of(9, 30), LocalTime.of(10, 45, 0, 500));
+        Course course = new Course("CS101", "Intro", 3, "CS", Set.of("MA100", "CS100"),
+                new TreeSet<>(Set.of(slot)), 40, 3);
+
+        // When
+        Course read = ModelCodecs.COURSE.decode(ModelCodecs.COURSE.encode(course));
+
+        // Then
+        assertThat(read.getPrerequisites()).containsExactlyInAnyOrder("MA100", "CS100");
+        assertThat(read.getCapacity()).isEqualTo(40);
+        assertThat(read.getScheduledSlots()).singleElement().satisfies(s -> {
+            assertThat(s.getDayOfWeek()).isEqualTo(DayOfWeek.TUESDAY);
+            assertThat(s.getEndTime()).isEqualTo(LocalTime.of(10, 45, 0, 500));
+        });
+    }
+
+    @Test
+    void testDepartmentInstructorNotification_RoundTrip() {
+        // Given
+        Department department = new Department("CS", "Computer Science", new TreeSet<>(Set.of("CS101", "CS201")));
+        Instructor instructor = new Instructor("I1", "Grace", Set.of("CS101"), "CS");
+        Notification notification = new Notification("N1", "S1", "Hold expires",
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 7), true);
+
+        // When
+        Department readDepartment = ModelCodecs.DEPARTMENT.decode(ModelCodecs.DEPARTMENT.encode(department));
+        Instructor readInstructor = ModelCodecs.INSTRUCTOR.decode(ModelCodecs.INSTRUCTOR.encode(instructor));
+        Notification readNotification = ModelCodecs.NOTIFICATION.decode(ModelCodecs.NOTIFICATION.encode(notification));
+
+        // Then
+        assertThat(readDepartment.getCourses()).containsExactly("CS101", "CS201");
+        assertThat(readInstructor.getDepartment()).isEqualTo("CS");
+        assertThat(readInstructor.getCoursesTaught()).containsExactly("CS101");
+        assertThat(readNotification.getScheduledTime()).isEqualTo(notification.getScheduledTime());
+        assertThat(readNotification.isSent()).isTrue();
+    }
+
+    @Test
+    void testDecode_NewerSchemaFieldsAreSkipped() {
+        // Given: a v2 writer that added a double, a nested record and a varint.
+        BinaryWriter out = new BinaryWriter();
+        out.varLong(2);
+        out.writeString(1, "CS");
+        out.writeDouble(40, 1.5);
+        out.writeRecord(41, ModelCodecs.TIME_SLOT, new TimeSlot(DayOfWeek.MONDAY, LocalTime.NOON, LocalTime.MIDNIGHT));
+        out.writeString(2, "Computer Science");
+        out.writeVarLong(42, 1L << 40);
+
+        // When
+        Department read = ModelCodecs.DEPARTMENT.decode(out.toByteArray());
+
+        // Then
+        assertThat(read.getId()).isEqualTo("CS");
+        assertThat(read.getName()).isEqualTo("Computer Science");
+    }
+
+    @Test
+    void testEncode_CompactVarintsAndCodes() {
+        // Given
+        Enrollment enrollment = new Enrollment("S1", "CS101", "F25", EnrollmentStatus.ENROLLED,
+                new EnumMap<>(GradeType.class), new BitSet());
+
+        // When
+        byte[] bytes = ModelCodecs.ENROLLMENT.encode(enrollment);
+
+        // Then: version, three short strings, the status code and a zero version.
+        assertThat(bytes).hasSize(1 + 4 + 7 + 5 + 3 + 2);
+    }
+
+    @Test
+    void testDecode_MalformedRecordsRejected() {
+        // Given
+        byte[] bytes = ModelCodecs.STUDENT.encode(new Student("S1", "Ada", "ada@example.edu", null,
+                new LinkedHashSet<>(), new HashMap<>(), 0));
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length - 3);
+
+        // Then
+        assertThatThrownBy(() -> ModelCodecs.STUDENT.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ModelCodecs.STUDENT.decode(new byte[]{0})).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid schema version 0");
+    }
+
+    private static Enrollment enrollment() {
+        Map<GradeType, Double> grades = new EnumMap<>(GradeType.class);
+        grades.put(GradeType.MIDTERM, 77.25);
+        grades.put(GradeType.FINAL, 90.0);
+        BitSet attendance = new BitSet();
+        attendance.set(0);
+        attendance.set(129);
+        return new Enrollment("S1", "CS101", "Fall 2025", EnrollmentStatus.WAITLISTED, grades, attendance, 4);
+    }
+}
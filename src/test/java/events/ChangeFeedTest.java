@@ -0,0 +1,160 @@
+package events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangeFeed(8);
+    }
+
+    @Test
+    void testConstructor_RoundsCapacityUpToPowerOfTwo() {
+        assertThat(new ChangeFeed(5).capacity()).isEqualTo(8);
+        assertThat(new ChangeFeed(1).capacity()).isEqualTo(1);
+        assertThatThrownBy(() -> new ChangeFeed(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Capacity must be between 1 and 2^30");
+    }
+
+    @Test
+    void testPoll_DeliversEventsInSequenceOrder() {
+        // Given
+        ChangeCursor cursor = feed.subscribe();
+
+        // When
+        feed.publish(ChangeType.STUDENT_CREATED, "S1", "a");
+        feed.publish(ChangeType.STUDENT_UPDATED, "S1", "b");
+        feed.publish(ChangeType.STUDENT_DELETED, "S1", null);
+        List<ChangeEvent> events = cursor.poll(10);
+
+        // Then
+        assertThat(events).extracting(ChangeEvent::sequence).containsExactly(0L, 1L, 2L);
+        assertThat(events).extracting(ChangeEvent::type)
+                .containsExactly(ChangeType.STUDENT_CREATED, ChangeType.STUDENT_UPDATED, ChangeType.STUDENT_DELETED);
+        assertThat(cursor.poll(10)).isEmpty();
+        assertThat(cursor.lag()).isZero();
+    }
+
+    @Test
+    void testPoll_RespectsBatchSize() {
+        // Given
+        ChangeCursor cursor = feed.subscribe();
+        for (int i = 0; i < 5; i++) {
+            feed.publish(ChangeType.COURSE_CREATED, "C" + i, null);
+        }
+
+        // When
+        List<ChangeEvent> first = cursor.poll(3);
+
+        // Then
+        assertThat(first).hasSize(3);
+        assertThat(cursor.lag()).isEqualTo(2);
+        assertThat(cursor.poll(3)).extracting(ChangeEvent::key).containsExactly("C3", "C4");
+        assertThatThrownBy(() -> cursor.poll(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Batch size must be positive");
+    }
+
+    @Test
+    void testSubscribe_CursorsAreIndependent() {
+        // Given
+        ChangeCursor early = feed.subscribe();
+        feed.publish(ChangeType.STUDENT_CREATED, "S1", null);
+        ChangeCursor late = feed.subscribe();
+        feed.publish(ChangeType.STUDENT_CREATED, "S2", null);
+
+        // When
+        List<ChangeEvent> earlyEvents = early.poll(10);
+        List<ChangeEvent> lateEvents = late.poll(10);
+
+        // Then
+        assertThat(earlyEvents).extracting(ChangeEvent::key).containsExactly("S1", "S2");
+        assertThat(lateEvents).extracting(ChangeEvent::key).containsExactly("S2");
+        assertThat(feed.subscribeFromEarliest().poll(10)).hasSize(2);
+    }
+
+    @Test
+    void testPoll_SlowConsumerSkipsOverwrittenEvents() {
+        // Given
+        ChangeCursor cursor = feed.subscribe();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            feed.publish(ChangeType.STUDENT_CREATED, "S" + i, null);
+        }
+        List<ChangeEvent> events = cursor.poll(100);
+
+        // Then
+        assertThat(cursor.getDropped()).isEqualTo(12);
+        assertThat(events).extracting(ChangeEvent::sequence).containsExactly(12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L);
+        assertThat(cursor.getPosition()).isEqualTo(20);
+    }
+
+    @Test
+    void testPublish_ConcurrentProducersDeliverEveryEventOnce() throws Exception {
+        // Given
+        ChangeFeed large = new ChangeFeed(1 << 16);
+        ChangeCursor cursor = large.subscribe();
+        int producers = 4;
+        int perProducer = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            String key = "P" + p;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    large.publish(ChangeType.ENROLLMENT_CREATED, key, i);
+                }
+            }));
+        }
+        List<ChangeEvent> received = new ArrayList<>();
+        while (received.size() < producers * perProducer) {
+            received.addAll(cursor.poll(256));
+        }
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then
+        for (int i = 0; i < received.size(); i++) {
+            assertThat(received.get(i).sequence()).isEqualTo(i);
+        }
+        assertThat(cursor.getDropped()).isZero();
+    }
+
+    @Test
+    void testAddListener_SeesEveryEventEvenWhenCursorsFallBehind() {
+        // Given
+        List<String> seen = new ArrayList<>();
+        ChangeListener listener = event -> seen.add(event.key());
+        feed.addListener(listener);
+
+        // When
+        for (int i = 0; i < 12; i++) {
+            feed.publish(ChangeType.STUDENT_CREATED, "S" + i, null);
+        }
+        feed.removeListener(listener);
+        feed.publish(ChangeType.STUDENT_CREATED, "S12", null);
+
+        // Then
+        assertThat(seen).hasSize(12).startsWith("S0").endsWith("S11");
+    }
+}
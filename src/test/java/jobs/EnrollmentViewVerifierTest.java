@@ -0,0 +1,124 @@
+package jobs;
+
+import model.Course;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.EnrollmentViews;
+import repository.EnrollmentViews.Dimension;
+import repository.InMemoryCourseRepository;
+import repository.ShardedEnrollmentRepository;
+import repository.StorageContext;
+
+import java.time.Duration;
+import java.util.HashSet;
+
+import static model.EnrollmentStatus.ENROLLED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnrollmentViewVerifierTest {
+
+    private EnrollmentViews views;
+
+    private InMemoryCourseRepository courses;
+
+    private ShardedEnrollmentRepository enrollments;
+
+    @BeforeEach
+    void setUp() {
+        views = new EnrollmentViews();
+        StorageContext context = StorageContext.builder().enrollmentViews(views).build();
+        courses = new InMemoryCourseRepository(context);
+        enrollments = new ShardedEnrollmentRepository(3, context);
+        for (int c = 0; c < 6; c++) {
+            courses.createCourse(new Course("C" + c, "Course " + c, 3, c % 2 == 0 ? "CS" : "MATH",
+                    new HashSet<>(), new HashSet<>()));
+        }
+        for (int i = 0; i < 300; i++) {
+            enrollments.enroll("S" + i, "C" + (i % 6), i % 3 == 0 ? "Fall 2025" : "Spring 2026");
+            if (i % 7 == 0) {
+                enrollments.drop("S" + i, "C" + (i % 6), i % 3 == 0 ? "Fall 2025" : "Spring 2026");
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollments.close();
+    }
+
+    @Test
+    void testVerify_MaintainedViewsMatchRecount() {
+        // Given
+        EnrollmentViewVerifier verifier = new EnrollmentViewVerifier(views, enrollments, courses, Duration.ofMinutes(1), false);
+
+        // When
+        EnrollmentViewVerifier.Report report = verifier.verify();
+
+        // Then
+        assertThat(report.records()).isEqualTo(300);
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(verifier.lastReport()).isSameAs(report);
+    }
+
+    @Test
+    void testVerify_ReportsDriftAndCorrectsItOnceConfirmed() {
+        // Given
+        views.adjust(Dimension.DEPARTMENT, "CS", ENROLLED, 5);
+        long expected = views.count(Dimension.DEPARTMENT, "CS", ENROLLED) - 5;
+        EnrollmentViewVerifier verifier = new EnrollmentViewVerifier(views, enrollments, courses, Duration.ofMinutes(1), true);
+
+        // When
+        EnrollmentViewVerifier.Report first = verifier.verify();
+        EnrollmentViewVerifier.Report second = verifier.verify();
+        EnrollmentViewVerifier.Report third = verifier.verify();
+
+        // Then
+        assertThat(first.drifts()).containsExactly(
+                new EnrollmentViewVerifier.Drift(Dimension.DEPARTMENT, "CS", ENROLLED, expected, expected + 5));
+        assertThat(first.confirmed()).isEmpty();
+        assertThat(second.confirmed()).isEqualTo(first.drifts());
+        assertThat(third.isConsistent()).isTrue();
+        assertThat(views.count(Dimension.DEPARTMENT, "CS", ENROLLED)).isEqualTo(expected);
+        assertThat(verifier.correctedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testVerify_TransientDriftIsNotCorrected() {
+        // Given
+        EnrollmentViewVerifier verifier = new EnrollmentViewVerifier(views, enrollments, courses, Duration.ofMinutes(1), true);
+        views.adjust(Dimension.SEMESTER, "Fall 2025", ENROLLED, 1);
+
+        // When
+        EnrollmentViewVerifier.Report first = verifier.verify();
+        views.adjust(Dimension.SEMESTER, "Fall 2025", ENROLLED, -1);  // The in-flight write lands.
+        EnrollmentViewVerifier.Report second = verifier.verify();
+
+        // Then
+        assertThat(first.drifts()).hasSize(1);
+        assertThat(second.isConsistent()).isTrue();
+        assertThat(verifier.correctedCount()).isZero();
+    }
+
+    @Test
+    void testVerify_StaleDepartmentIsReattributedBeforeComparing() {
+        // Given
+        long cs = views.count(Dimension.DEPARTMENT, "CS", ENROLLED);
+        long math = views.count(Dimension.DEPARTMENT, "MATH", ENROLLED);
+        long c0 = views.count(Dimension.COURSE, "C0", ENROLLED);
+        views.courseChanged("C0", "MATH");  // as if the views had missed C0's department
+        EnrollmentViewVerifier verifier = new EnrollmentViewVerifier(views, enrollments, courses, Duration.ofMinutes(1), false);
+
+        // When
+        EnrollmentViewVerifier.Report report = verifier.verify();
+        enrollments.enroll("S-new", "C0", "Fall 2025");
+
+        // Then
+        assertThat(report.reattributed()).isEqualTo(1);
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(views.departmentOf("C0")).isEqualTo("CS");
+        assertThat(views.count(Dimension.DEPARTMENT, "CS", ENROLLED)).isEqualTo(cs + 1);
+        assertThat(views.count(Dimension.DEPARTMENT, "MATH", ENROLLED)).isEqualTo(math);
+        assertThat(c0).isPositive();
+    }
+}
@@ -0,0 +1,120 @@
+package jobs;
+
+import model.EnrollmentStatus;
+import model.dto.SeatHold;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.EnrollmentRepository;
+import repository.InMemoryEnrollmentRepository;
+import repository.StorageContext;
+import util.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class HoldExpirySweeperTest {
+
+    private MutableClock clock;
+
+    private InMemoryEnrollmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        repository = new InMemoryEnrollmentRepository(StorageContext.builder().clock(clock).build());
+    }
+
+    @Test
+    void testSweep_ReleasesExpiredHoldAndPromotesWaitlist() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        HoldExpirySweeper sweeper = new HoldExpirySweeper(repository, clock, Duration.ofSeconds(1), 16, 10);
+        sweeper.track(repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(5)));
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        clock.advance(Duration.ofMinutes(4));
+        int early = sweeper.sweep();
+        clock.advance(Duration.ofMinutes(1));
+        int released = sweeper.sweep();
+
+        // Then
+        assertThat(early).isZero();
+        assertThat(released).isEqualTo(1);
+        assertThat(repository.getEnrollmentsForStudent("S2").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(sweeper.pendingCount()).isZero();
+        assertThat(sweeper.releasedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testSweep_ConfirmedHoldIsNotReleased() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        HoldExpirySweeper sweeper = new HoldExpirySweeper(repository, clock, Duration.ofSeconds(1), 16, 10);
+        sweeper.track(repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofSeconds(30)));
+        repository.confirmHold("S1", "CS101", "Fall 2025");
+
+        // When
+        clock.advance(Duration.ofMinutes(1));
+        int released = sweeper.sweep();
+
+        // Then
+        assertThat(released).isZero();
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S1");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testSweep_ReleasesInBatches() {
+        // Given
+        EnrollmentRepository mockRepository = mock(EnrollmentRepository.class);
+        when(mockRepository.expireHolds(anyCollection())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        HoldExpirySweeper sweeper = new HoldExpirySweeper(mockRepository, clock, Duration.ofSeconds(1), 16, 2);
+        for (int i = 0; i < 5; i++) {
+            sweeper.track(new SeatHold("S" + i, "CS101", "Fall 2025", clock.instant().plusSeconds(10)));
+        }
+
+        // When
+        clock.advance(Duration.ofSeconds(10));
+        int released = sweeper.sweep();
+
+        // Then
+        assertThat(released).isEqualTo(5);
+        verify(mockRepository, times(3)).expireHolds(anyCollection());
+    }
+
+    @Test
+    void testSweep_FailedBatchIsRetriedOnNextSweep() {
+        // Given
+        EnrollmentRepository mockRepository = mock(EnrollmentRepository.class);
+        when(mockRepository.expireHolds(anyCollection()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        HoldExpirySweeper sweeper = new HoldExpirySweeper(mockRepository, clock, Duration.ofSeconds(1), 16, 2);
+        for (int i = 0; i < 5; i++) {
+            sweeper.track(new SeatHold("S" + i, "CS101", "Fall 2025", clock.instant().plusSeconds(10)));
+        }
+        clock.advance(Duration.ofSeconds(10));
+
+        // When
+        assertThatThrownBy(sweeper::sweep).isInstanceOf(IllegalStateException.class);
+        int pending = sweeper.pendingCount();
+        long releasedAfterFailure = sweeper.releasedCount();
+        clock.advance(Duration.ofSeconds(1));
+        int retried = sweeper.sweep();
+
+        // Then
+        assertThat(pending).isEqualTo(2);
+        assertThat(releasedAfterFailure).isEqualTo(3);
+        assertThat(retried).isEqualTo(2);
+        assertThat(sweeper.pendingCount()).isZero();
+        assertThat(sweeper.releasedCount()).isEqualTo(5);
+        verify(mockRepository, times(4)).expireHolds(anyCollection());
+    }
+}
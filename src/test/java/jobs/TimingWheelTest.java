@@ -0,0 +1,84 @@
+package jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    private static final Instant START = Instant.parse("2025-09-01T08:00:00Z");
+
+    @Test
+    void testAdvance_ReturnsOnlyDueItems() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, START);
+        wheel.schedule("a", START.plusSeconds(2));
+        wheel.schedule("b", START.plusSeconds(5));
+
+        // When
+        var first = wheel.advance(START.plusSeconds(1));
+        var second = wheel.advance(START.plusSeconds(3));
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(second).containsExactly("a");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testAdvance_ItemBeyondOneRotationWaitsForItsTick() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 4, START);
+        wheel.schedule("far", START.plusSeconds(6));
+
+        // When
+        var early = wheel.advance(START.plusSeconds(4));
+        var due = wheel.advance(START.plusSeconds(6));
+
+        // Then
+        assertThat(early).isEmpty();
+        assertThat(due).containsExactly("far");
+    }
+
+    @Test
+    void testAdvance_LongPauseReturnsEverythingDue() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 4, START);
+        for (int i = 1; i <= 10; i++) {
+            wheel.schedule("item" + i, START.plusSeconds(i));
+        }
+
+        // When
+        var due = wheel.advance(START.plusSeconds(7));
+
+        // Then
+        assertThat(due).hasSize(7);
+        assertThat(wheel.size()).isEqualTo(3);
+        assertThat(wheel.advance(START.plusSeconds(10))).containsExactlyInAnyOrder("item8", "item9", "item10");
+    }
+
+    @Test
+    void testSchedule_PastDeadlineFiresOnNextAdvance() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 4, START);
+        wheel.advance(START.plusSeconds(5));
+
+        // When
+        wheel.schedule("late", START.plusSeconds(2));
+
+        // Then
+        assertThat(wheel.advance(START.plusSeconds(5))).containsExactly("late");
+    }
+
+    @Test
+    void testConstructor_InvalidSettingsRejected() {
+        // Then
+        assertThatThrownBy(() -> new TimingWheel<String>(Duration.ZERO, 4, START))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Tick duration and wheel size must be positive");
+    }
+}
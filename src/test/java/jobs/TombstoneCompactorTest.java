@@ -0,0 +1,70 @@
+package jobs;
+
+import model.Student;
+import org.junit.jupiter.api.Test;
+import repository.Compactable;
+import repository.InMemoryNotificationRepository;
+import repository.InMemoryStudentRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class TombstoneCompactorTest {
+
+    @Test
+    void testCompact_PurgesInBatches() {
+        // Given
+        InMemoryStudentRepository students = new InMemoryStudentRepository();
+        for (int i = 0; i < 5; i++) {
+            Student student = new Student();
+            student.setId("S" + i);
+            student.setFullName("Student Number" + i);
+            student.setEmail("s" + i + "@example.com");
+            students.createStudent(student);
+            students.deleteStudent("S" + i);
+        }
+        TombstoneCompactor compactor = new TombstoneCompactor(
+                List.of(students, new InMemoryNotificationRepository()), Duration.ofSeconds(1), 2);
+
+        // When
+        int first = compactor.compact();
+        int pendingAfterFirst = compactor.pendingCount();
+        compactor.compact();
+        compactor.compact();
+
+        // Then
+        assertThat(first).isEqualTo(2);
+        assertThat(pendingAfterFirst).isEqualTo(3);
+        assertThat(compactor.pendingCount()).isZero();
+        assertThat(compactor.purgedCount()).isEqualTo(5);
+        assertThat(students.searchByNameToken("student")).isEmpty();
+    }
+
+    @Test
+    void testCompact_ContinuesAfterFailingTarget() {
+        // Given
+        Compactable failing = mock(Compactable.class);
+        Compactable healthy = mock(Compactable.class);
+        when(failing.purgeTombstones(10)).thenThrow(new IllegalStateException("boom"));
+        when(healthy.purgeTombstones(10)).thenReturn(3);
+        TombstoneCompactor compactor = new TombstoneCompactor(List.of(healthy, failing), Duration.ofSeconds(1), 10);
+
+        // When
+        int purged = compactor.compact();
+
+        // Then
+        assertThat(purged).isEqualTo(3);
+        verify(failing).purgeTombstones(10);
+    }
+
+    @Test
+    void testConstructor_RejectsNonPositiveBatch() {
+        assertThatThrownBy(() -> new TombstoneCompactor(List.of(), Duration.ofSeconds(1), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Batch size must be positive");
+    }
+}
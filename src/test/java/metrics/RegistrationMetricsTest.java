@@ -0,0 +1,122 @@
+package metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryEnrollmentRepository;
+import repository.StorageContext;
+import util.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class RegistrationMetricsTest {
+
+    private MutableClock clock;
+
+    private RegistrationMetrics metrics;
+
+    private InMemoryEnrollmentRepository enrollments;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        metrics = new RegistrationMetrics(clock, Duration.ofSeconds(10), Duration.ofMinutes(10), 3);
+        enrollments = new InMemoryEnrollmentRepository(
+                StorageContext.builder().clock(clock).registrationMetrics(metrics).build());
+    }
+
+    @Test
+    void testSliding_EnrollmentsDropsAndWaitlistGrowth() {
+        // Given
+        enrollments.setCapacity("CS101", 2);
+        for (int i = 0; i < 5; i++) {
+            enrollments.enroll("S" + i, "CS101", "Fall 2025");  // 2 seated, 3 waitlisted
+        }
+        clock.advance(Duration.ofSeconds(30));
+
+        // When
+        enrollments.drop("S0", "CS101", "Fall 2025");  // S2 promoted
+        enrollments.drop("S4", "CS101", "Fall 2025");  // leaves the waitlist
+        RegistrationMetrics.Rates rates = metrics.sliding("CS101", Duration.ofMinutes(1));
+
+        // Then
+        assertThat(rates.enrollments()).isEqualTo(3);
+        assertThat(rates.drops()).isEqualTo(2);
+        assertThat(rates.waitlistGrowth()).isEqualTo(1);
+        assertThat(rates.enrollmentsPerMinute()).isEqualTo(3.0);
+        assertThat(rates.dropRate()).isCloseTo(0.667, offset(0.001));
+        assertThat(metrics.sliding(null, Duration.ofMinutes(1))).isEqualTo(rates);
+        assertThat(metrics.sliding("NONE", Duration.ofMinutes(1)).enrollments()).isZero();
+    }
+
+    @Test
+    void testSliding_OldActivityLeavesTheWindow() {
+        // Given
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        clock.advance(Duration.ofMinutes(3));
+        enrollments.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        long lastMinute = metrics.sliding("CS101", Duration.ofMinutes(1)).enrollments();
+        long lastFive = metrics.sliding("CS101", Duration.ofMinutes(5)).enrollments();
+        clock.advance(Duration.ofMinutes(11));
+
+        // Then
+        assertThat(lastMinute).isEqualTo(1);
+        assertThat(lastFive).isEqualTo(2);
+        assertThat(metrics.sliding("CS101", Duration.ofMinutes(10)).enrollments()).isZero();
+        assertThatThrownBy(() -> metrics.sliding("CS101", Duration.ofMinutes(11)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testTumbling_ReportsLastCompletedWindow() {
+        // Given: 08:00:00, the start of a minute.
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        clock.advance(Duration.ofSeconds(45));
+        enrollments.enroll("S2", "CS101", "Fall 2025");
+        clock.advance(Duration.ofSeconds(20));  // 08:01:05
+        enrollments.enroll("S3", "CS101", "Fall 2025");
+
+        // When
+        RegistrationMetrics.Rates lastMinute = metrics.tumbling("CS101", Duration.ofMinutes(1));
+
+        // Then
+        assertThat(lastMinute.enrollments()).isEqualTo(2);
+        assertThat(lastMinute.window()).isEqualTo(Duration.ofMinutes(1));
+        assertThatThrownBy(() -> metrics.tumbling("CS101", Duration.ofSeconds(15)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> metrics.tumbling("CS101", Duration.ofMinutes(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testHottest_RanksWithinBoundedCourseTable() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            enrollments.enroll("A" + i, "CS101", "Fall 2025");
+        }
+        for (int i = 0; i < 3; i++) {
+            enrollments.enroll("B" + i, "MA101", "Fall 2025");
+        }
+        enrollments.enroll("C0", "BIO101", "Fall 2025");
+
+        // When
+        List<RegistrationMetrics.CourseActivity> top = metrics.hottest(2, Duration.ofMinutes(5));
+        enrollments.enroll("D0", "PHY101", "Fall 2025");  // a fourth course: the quietest is evicted
+
+        // Then
+        assertThat(top).extracting(RegistrationMetrics.CourseActivity::courseCode).containsExactly("CS101", "MA101");
+        assertThat(metrics.trackedCourses()).isEqualTo(3);
+        assertThat(metrics.evictedCourses()).isEqualTo(1);
+        assertThat(metrics.hottest(5, Duration.ofMinutes(5))).extracting(RegistrationMetrics.CourseActivity::courseCode)
+                .containsExactly("CS101", "MA101", "PHY101");
+        assertThat(metrics.sliding(null, Duration.ofMinutes(5)).enrollments()).isEqualTo(9);
+        assertThatThrownBy(() -> metrics.hottest(0, Duration.ofMinutes(5))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
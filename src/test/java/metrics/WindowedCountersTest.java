@@ -0,0 +1,77 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowedCountersTest {
+
+    @Test
+    void testSum_CountsOnlyRetainedBuckets() {
+        // Given
+        WindowedCounters counters = new WindowedCounters(1_000, 4, 2);
+        counters.add(500, 0, 1);     // bucket 0
+        counters.add(1_500, 0, 2);   // bucket 1
+        counters.add(1_900, 1, 7);   // bucket 1, other lane
+        counters.add(3_000, 0, 4);   // bucket 3
+
+        // When
+        long all = counters.sum(0, 4, 0);
+        long recent = counters.sum(2, 4, 0);
+        counters.add(4_200, 0, 8);   // bucket 4 reuses bucket 0's slot
+        long afterWrap = counters.sum(0, 5, 0);
+
+        // Then
+        assertThat(all).isEqualTo(7);
+        assertThat(recent).isEqualTo(4);
+        assertThat(counters.sum(0, 4, 1)).isEqualTo(7);
+        assertThat(afterWrap).isEqualTo(14);
+        assertThat(counters.sum(4, 5, 1)).isZero();
+    }
+
+    @Test
+    void testAdd_DropsWritesMoreThanARingLate() {
+        // Given
+        WindowedCounters counters = new WindowedCounters(1_000, 4, 1);
+        counters.add(8_000, 0, 1);   // bucket 8, slot 0
+
+        // When
+        counters.add(100, 0, 5);     // bucket 0, same slot, long gone
+
+        // Then
+        assertThat(counters.sum(5, 9, 0)).isEqualTo(1);
+        assertThat(counters.sum(100, 200, 0)).isZero();
+    }
+
+    @Test
+    void testAdd_ConcurrentWritersAcrossRotation() throws Exception {
+        // Given
+        WindowedCounters counters = new WindowedCounters(10, 8, 1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counters.add(i % 80, 0, 1);  // every bucket 0..7 in turn
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(counters.sum(0, 8, 0)).isEqualTo(40_000);
+    }
+}
@@ -120,4 +120,29 @@ class CourseTest {
         // Verify natural ordering (Monday should come before Wednesday)
         assertThat(course.getScheduledSlots().iterator().next()).isEqualTo(mondaySlot);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCapacity() {
+        // Given
+        Course unlimited = new Course("CS101", "Intro", 3, "CS", new HashSet<>(), new TreeSet<>());
+        Course limited = Course.builder().code("CS102").capacity(40).build();
+
+        // Then
+        assertThat(unlimited.getCapacity()).isZero();
+        assertThat(limited.getCapacity()).isEqualTo(40);
+    }
+
+    @Test
+    void testCopy_IsIndependentOfOriginal() {
+        // Given
+        Course course = new Course("CS201", "Data Structures", 3, "CS", new HashSet<>(Set.of("CS101")), new TreeSet<>());
+
+        // When
+        Course copy = course.copy();
+        copy.getPrerequisites().add("MATH101");
+
+        // Then
+        assertThat(copy.getCode()).isEqualTo("CS201");
+        assertThat(course.getPrerequisites()).containsExactly("CS101");
+    }
+}
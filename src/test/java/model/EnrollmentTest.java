@@ -120,4 +120,22 @@ class EnrollmentTest {
         // Check cardinality (number of bits set to true)
         assertThat(enrollment.getAttendance().cardinality()).isEqualTo(3);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCopy_IsIndependentOfOriginal() {
+        // Given
+        Enrollment enrollment = new Enrollment("S1", "CS101", "Fall2025", EnrollmentStatus.ENROLLED,
+                new EnumMap<>(GradeType.class), new BitSet());
+        enrollment.getGrades().put(GradeType.QUIZ, 80.0);
+
+        // When
+        Enrollment copy = enrollment.copy();
+        copy.getGrades().put(GradeType.QUIZ, 95.0);
+        copy.getAttendance().set(0);
+
+        // Then
+        assertThat(enrollment.getGrades()).containsEntry(GradeType.QUIZ, 80.0);
+        assertThat(enrollment.getAttendance().isEmpty()).isTrue();
+        assertThat(copy.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+}
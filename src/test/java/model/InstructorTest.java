@@ -73,4 +73,15 @@ class InstructorTest {
         assertThat(instructor.getCoursesTaught()).hasSize(2);
         assertThat(instructor.getCoursesTaught()).contains("CS101", "CS201");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDepartment() {
+        // When
+        Instructor withDepartment = new Instructor("INS001", "John Doe", new HashSet<>(), "CS");
+        Instructor withoutDepartment = new Instructor("INS002", "Jane Smith", new HashSet<>());
+
+        // Then
+        assertThat(withDepartment.getDepartment()).isEqualTo("CS");
+        assertThat(withoutDepartment.getDepartment()).isNull();
+    }
+}
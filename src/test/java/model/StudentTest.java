@@ -96,4 +96,23 @@ class StudentTest {
         assertThat(student.getAttributes()).containsEntry("nationality", "American");
         assertThat(student.getAttributes()).containsEntry("guardianName", "John Smith");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCopy_IsIndependentOfOriginal() {
+        // Given
+        Student student = new Student();
+        student.setId("S1");
+        student.getAttributes().put("major", "CS");
+        student.setVersion(4);
+
+        // When
+        Student copy = student.copy();
+        copy.getAttributes().put("year", "Senior");
+
+        // Then
+        assertThat(copy).isNotSameAs(student);
+        assertThat(copy.getId()).isEqualTo("S1");
+        assertThat(copy.getVersion()).isEqualTo(4);
+        assertThat(student.getAttributes()).containsOnlyKeys("major");
+    }
+}
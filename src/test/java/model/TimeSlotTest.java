@@ -109,4 +109,28 @@ class TimeSlotTest {
         // Then
         assertThat(result).isEqualTo("MONDAY 09:00–10:30");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOverlaps() {
+        // Given
+        TimeSlot morning = new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 30));
+        TimeSlot overlapping = new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        TimeSlot backToBack = new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(10, 30), LocalTime.of(12, 0));
+        TimeSlot otherDay = new TimeSlot(DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(10, 30));
+
+        // Then
+        assertThat(morning.overlaps(overlapping)).isTrue();
+        assertThat(overlapping.overlaps(morning)).isTrue();
+        assertThat(morning.overlaps(backToBack)).isFalse();
+        assertThat(morning.overlaps(otherDay)).isFalse();
+    }
+
+    @Test
+    void testDurationMinutes() {
+        // Given
+        TimeSlot slot = new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 30));
+
+        // Then
+        assertThat(slot.durationMinutes()).isEqualTo(90);
+    }
+}
@@ -0,0 +1,132 @@
+package repository;
+
+import model.Course;
+import model.Department;
+import model.EnrollmentStatus;
+import model.Instructor;
+import model.Notification;
+import model.Student;
+import model.dto.CascadeDeleteReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CascadeDeleteCoordinatorTest {
+
+    private StudentRepository students;
+    private CourseRepository courses;
+    private EnrollmentRepository enrollments;
+    private DepartmentRepository departments;
+    private InstructorRepository instructors;
+    private NotificationRepository notifications;
+    private CascadeDeleteCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        StorageContext context = StorageContext.standard();
+        students = new InMemoryStudentRepository(context);
+        courses = new InMemoryCourseRepository(context);
+        enrollments = new InMemoryEnrollmentRepository(context);
+        departments = new InMemoryDepartmentRepository(context);
+        instructors = new InMemoryInstructorRepository(context);
+        notifications = new InMemoryNotificationRepository(context);
+        coordinator = new CascadeDeleteCoordinator(students, courses, enrollments, departments, instructors, notifications);
+
+        departments.createDepartment(new Department("CS", "Computer Science", new TreeSet<>(Set.of("CS101", "CS102"))));
+        courses.createCourse(new Course("CS101", "Intro", 3, "CS", new HashSet<>(), new HashSet<>()));
+        courses.createCourse(new Course("CS102", "Data Structures", 3, "CS", new HashSet<>(), new HashSet<>()));
+        instructors.createInstructor(new Instructor("I1", "Ada Lovelace", new HashSet<>(Set.of("CS101", "CS102"))));
+        for (String id : new String[]{"S1", "S2", "S3"}) {
+            Student student = new Student();
+            student.setId(id);
+            student.setFullName("Student " + id);
+            student.setEmail(id + "@example.com");
+            students.createStudent(student);
+        }
+    }
+
+    @Test
+    void testDeleteStudent_RemovesEnrollmentsAndNotificationsAndPromotesWaitlist() {
+        // Given
+        enrollments.setCapacity("CS101", 1);
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        enrollments.enroll("S2", "CS101", "Fall 2025");
+        enrollments.enroll("S1", "CS102", "Fall 2025");
+        notifications.addNotification(new Notification("N1", "S1", "Welcome", LocalDateTime.now(), false));
+        notifications.addNotification(new Notification("N2", "S2", "Welcome", LocalDateTime.now(), false));
+
+        // When
+        CascadeDeleteReport report = coordinator.deleteStudent("S1");
+
+        // Then
+        assertThat(report).isEqualTo(new CascadeDeleteReport(2, 1, 0, 0));
+        assertThat(students.getById("S1")).isNull();
+        assertThat(enrollments.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(enrollments.getEnrollment("S1", "CS101", "Fall 2025")).isNull();
+        assertThat(enrollments.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThat(enrollments.getStudentsForCourse("CS102")).isEmpty();
+        assertThat(enrollments.getEnrollment("S2", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(notifications.getNotificationsForRecipient("S1")).isEmpty();
+        assertThat(notifications.getNotificationsForRecipient("S2")).hasSize(1);
+    }
+
+    @Test
+    void testDeleteCourse_RemovesEnrollmentsRostersAndLinks() {
+        // Given
+        enrollments.setCapacity("CS101", "Fall 2025", 1);
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        enrollments.enroll("S2", "CS101", "Fall 2025");
+        enrollments.enroll("S2", "CS102", "Fall 2025");
+
+        // When
+        CascadeDeleteReport report = coordinator.deleteCourse("CS101");
+
+        // Then
+        assertThat(report).isEqualTo(new CascadeDeleteReport(2, 0, 1, 1));
+        assertThat(courses.getByCode("CS101")).isNull();
+        assertThat(enrollments.getStudentsForCourse("CS101")).isEmpty();
+        assertThat(enrollments.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(enrollments.getEnrollmentsForStudent("S2")).extracting(e -> e.getCourseCode()).containsExactly("CS102");
+        assertThat(enrollments.getWaitlist("CS101", "Fall 2025")).isEmpty();
+        assertThat(departments.getById("CS").getCourses()).containsExactly("CS102");
+        assertThat(instructors.getById("I1").getCoursesTaught()).containsExactly("CS102");
+        assertThat(instructors.findByCourse("CS101")).isEmpty();
+    }
+
+    @Test
+    void testDeleteCourse_RecreatedCourseStartsClean() {
+        // Given
+        enrollments.setCapacity("CS101", "Fall 2025", 1);
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        coordinator.deleteCourse("CS101");
+
+        // When
+        courses.createCourse(new Course("CS101", "Intro (new)", 3, "CS", new HashSet<>(), new HashSet<>()));
+        EnrollmentStatus first = enrollments.enroll("S2", "CS101", "Fall 2025");
+        EnrollmentStatus second = enrollments.enroll("S3", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(second).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testDeleteInstructor_RemovesNotifications() {
+        // Given
+        notifications.addNotification(new Notification("N1", "I1", "Grades due", LocalDateTime.now(), false));
+
+        // When
+        CascadeDeleteReport report = coordinator.deleteInstructor("I1");
+
+        // Then
+        assertThat(report.notifications()).isEqualTo(1);
+        assertThat(instructors.getById("I1")).isNull();
+        assertThat(notifications.getPendingNotifications()).isEmpty();
+    }
+}
@@ -0,0 +1,206 @@
+package repository;
+
+import events.ChangeType;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EnrollmentLedgerTest {
+
+    @Test
+    void testAppend_DeleteRemovesEnrollmentFromCurrentAndLaterRosters() {
+        // Given
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S1", EnrollmentStatus.ENROLLED, 1));
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S2", EnrollmentStatus.ENROLLED, 1));
+        Instant before = clock.instant();
+        clock.advance(Duration.ofDays(1));
+
+        // When
+        ledger.append(ChangeType.ENROLLMENT_DELETED, enrollment("S1", EnrollmentStatus.ENROLLED, 1));
+        for (int i = 3; i < 8; i++) {
+            ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S" + i, EnrollmentStatus.ENROLLED, 1));
+        }
+
+        // Then
+        assertThat(ledger.current("S1", "CS101", "Fall 2025")).isNull();
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", clock.instant())).doesNotContain("S1").contains("S2");
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", before)).containsExactly("S1", "S2");
+    }
+
+    @Test
+    void testAppend_CheckpointsStayBounded() {
+        // Given
+        EnrollmentLedger bounded = new EnrollmentLedger(clock, 4, 2, 4);
+
+        // When
+        for (int i = 0; i < 40; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            bounded.append(ChangeType.ENROLLMENT_CREATED, enrollment("S" + i, EnrollmentStatus.ENROLLED, 1));
+        }
+
+        // Then
+        assertThat(bounded.checkpointCount()).isLessThanOrEqualTo(4);
+        assertThat(bounded.rosterAt("CS101", "Fall 2025", START.plus(Duration.ofMinutes(3)))).containsExactly("S0", "S1", "S2");
+        assertThat(bounded.rosterAt("CS101", "Fall 2025", clock.instant())).hasSize(40);
+    }
+
+    @Test
+    void testAppend_ConcurrentAppendsKeepEveryEventInOrder() throws Exception {
+        // Given
+        int threads = 4;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S" + thread + "-" + i, EnrollmentStatus.ENROLLED, 1));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        List<LedgerEvent> events = ledger.read(0, threads * perThread + 1);
+        assertThat(ledger.size()).isEqualTo(threads * perThread);
+        assertThat(events).hasSize(threads * perThread);
+        for (int i = 0; i < events.size(); i++) {
+            assertThat(events.get(i).sequence()).isEqualTo(i);
+        }
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", clock.instant())).hasSize(threads * perThread);
+    }
+
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+
+    private MutableClock clock;
+    private EnrollmentLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        ledger = new EnrollmentLedger(clock, 4, 3);
+    }
+
+    @Test
+    void testConstructor_InvalidSizesRejected() {
+        assertThatThrownBy(() -> new EnrollmentLedger(clock, 0, 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Segment size and checkpoint interval must be positive");
+    }
+
+    @Test
+    void testAppend_ProjectsCurrentStateAndKeepsLog() {
+        // When
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S1", EnrollmentStatus.ENROLLED, 1));
+        ledger.append(ChangeType.ENROLLMENT_DROPPED, enrollment("S1", EnrollmentStatus.DROPPED, 2));
+
+        // Then
+        assertThat(ledger.size()).isEqualTo(2);
+        assertThat(ledger.current("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.DROPPED);
+        assertThat(ledger.read(0, 10)).extracting(LedgerEvent::type)
+                .containsExactly(ChangeType.ENROLLMENT_CREATED, ChangeType.ENROLLMENT_DROPPED);
+        assertThat(ledger.read(1, 10)).extracting(LedgerEvent::sequence).containsExactly(1L);
+    }
+
+    @Test
+    void testAppend_StaleVersionDoesNotOverwriteProjection() {
+        // When
+        ledger.append(ChangeType.ENROLLMENT_CONFIRMED, enrollment("S1", EnrollmentStatus.ENROLLED, 2));
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S1", EnrollmentStatus.WAITLISTED, 1));
+
+        // Then
+        assertThat(ledger.current("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testRosterAt_ReconstructsPastStateAcrossCheckpoints() {
+        // Given
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S1", EnrollmentStatus.ENROLLED, 1));
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S2", EnrollmentStatus.ENROLLED, 1));
+        clock.advance(Duration.ofDays(7));
+        Instant deadline = clock.instant();
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S3", EnrollmentStatus.ENROLLED, 1));
+        clock.advance(Duration.ofDays(1));
+        ledger.append(ChangeType.ENROLLMENT_WITHDRAWN, enrollment("S1", EnrollmentStatus.WITHDRAWN, 2));
+        for (int i = 4; i < 12; i++) {
+            ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S" + i, EnrollmentStatus.ENROLLED, 1));
+        }
+
+        // Then
+        assertThat(ledger.checkpointCount()).isEqualTo(4);
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", START)).containsExactly("S1", "S2");
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", deadline)).containsExactly("S1", "S2", "S3");
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", clock.instant())).hasSize(10).doesNotContain("S1");
+        assertThat(ledger.enrollmentAt("S1", "CS101", "Fall 2025", deadline).getStatus())
+                .isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(ledger.enrollmentAt("S1", "CS101", "Fall 2025", START.minusSeconds(1))).isNull();
+    }
+
+    @Test
+    void testEnrollmentAt_IncludesGradesRecordedBeforeTimestamp() {
+        // Given
+        ledger.append(ChangeType.ENROLLMENT_CREATED, enrollment("S1", EnrollmentStatus.ENROLLED, 1));
+        Enrollment graded = enrollment("S1", EnrollmentStatus.ENROLLED, 2);
+        graded.getGrades().put(GradeType.MIDTERM, 80.0);
+        clock.advance(Duration.ofHours(1));
+        ledger.append(ChangeType.GRADE_RECORDED, graded);
+
+        // Then
+        assertThat(ledger.enrollmentAt("S1", "CS101", "Fall 2025", START).getGrades()).isEmpty();
+        assertThat(ledger.enrollmentAt("S1", "CS101", "Fall 2025", clock.instant()).getGrades())
+                .containsEntry(GradeType.MIDTERM, 80.0);
+    }
+
+    @Test
+    void testRepository_RecordsEveryEnrollmentChange() {
+        // Given
+        StorageContext context = StorageContext.builder().enrollmentLedger(ledger).build();
+        EnrollmentRepository repo = new InMemoryEnrollmentRepository(context);
+
+        // When
+        repo.enroll("S1", "CS101", "Fall 2025");
+        Instant enrolled = clock.instant();
+        clock.advance(Duration.ofDays(1));
+        repo.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 90);
+        repo.drop("S1", "CS101", "Fall 2025");
+        repo.enroll("S1", "CS101", "Fall 2025");
+        repo.complete("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(ledger.read(0, 20)).extracting(LedgerEvent::type).containsExactly(
+                ChangeType.ENROLLMENT_CREATED,
+                ChangeType.GRADE_RECORDED,
+                ChangeType.ENROLLMENT_DROPPED,
+                ChangeType.ENROLLMENT_CREATED,
+                ChangeType.ENROLLMENT_COMPLETED);
+        assertThat(ledger.current("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.COMPLETED);
+        assertThat(ledger.current("S1", "CS101", "Fall 2025").getGrades()).isEmpty();
+        assertThat(ledger.rosterAt("CS101", "Fall 2025", enrolled)).containsExactly("S1");
+    }
+
+    private static Enrollment enrollment(String studentId, EnrollmentStatus status, long version) {
+        return new Enrollment(studentId, "CS101", "Fall 2025", status, new EnumMap<>(GradeType.class), new BitSet(), version);
+    }
+}
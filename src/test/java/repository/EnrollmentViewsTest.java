@@ -0,0 +1,164 @@
+package repository;
+
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.EnrollmentViews.Dimension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static model.EnrollmentStatus.COMPLETED;
+import static model.EnrollmentStatus.DROPPED;
+import static model.EnrollmentStatus.ENROLLED;
+import static model.EnrollmentStatus.WAITLISTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnrollmentViewsTest {
+
+    private EnrollmentViews views;
+
+    private InMemoryCourseRepository courses;
+
+    private InMemoryEnrollmentRepository enrollments;
+
+    @BeforeEach
+    void setUp() {
+        views = new EnrollmentViews();
+        StorageContext context = StorageContext.builder().enrollmentViews(views).build();
+        courses = new InMemoryCourseRepository(context);
+        enrollments = new InMemoryEnrollmentRepository(context);
+        courses.createCourse(course("CS101", "CS"));
+        courses.createCourse(course("CS201", "CS"));
+        courses.createCourse(course("MA101", "MATH"));
+    }
+
+    @Test
+    void testEnrollAndDrop_CountsFollowStatusChanges() {
+        // Given
+        enrollments.setCapacity("CS101", 1);
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        enrollments.enroll("S2", "CS101", "Fall 2025");
+        enrollments.enroll("S3", "CS201", "Fall 2025");
+        enrollments.enroll("S1", "MA101", "Spring 2026");
+
+        // When
+        enrollments.drop("S1", "CS101", "Fall 2025");  // S2 is promoted from the waitlist.
+        enrollments.complete("S3", "CS201", "Fall 2025");
+        enrollments.recordGrade("S2", "CS101", "Fall 2025", GradeType.MIDTERM, 90);
+
+        // Then
+        assertThat(views.counts(Dimension.COURSE, "CS101")).isEqualTo(Map.of(ENROLLED, 1L, DROPPED, 1L));
+        assertThat(views.count(Dimension.COURSE, "CS101", WAITLISTED)).isZero();
+        assertThat(views.counts(Dimension.DEPARTMENT, "CS")).isEqualTo(Map.of(ENROLLED, 1L, DROPPED, 1L, COMPLETED, 1L));
+        assertThat(views.counts(Dimension.SEMESTER, "Fall 2025")).isEqualTo(Map.of(ENROLLED, 1L, DROPPED, 1L, COMPLETED, 1L));
+        assertThat(views.count(Dimension.SEMESTER, "Spring 2026", ENROLLED)).isEqualTo(1);
+        assertThat(views.count(Dimension.DEPARTMENT, "MATH", ENROLLED)).isEqualTo(1);
+        assertThat(views.count(Dimension.COURSE, "NONE", ENROLLED)).isZero();
+    }
+
+    @Test
+    void testCourseChanged_MovesCountsBetweenDepartments() {
+        // Given
+        enrollments.enroll("S1", "CS201", "Fall 2025");
+        enrollments.enroll("S2", "CS201", "Fall 2025");
+        Course moved = courses.getByCode("CS201").copy();
+        moved.setDepartment("MATH");
+
+        // When
+        courses.compareAndSet("CS201", 1, moved);
+
+        // Then
+        assertThat(views.departmentOf("CS201")).isEqualTo("MATH");
+        assertThat(views.count(Dimension.DEPARTMENT, "CS", ENROLLED)).isZero();
+        assertThat(views.count(Dimension.DEPARTMENT, "MATH", ENROLLED)).isEqualTo(2);
+
+        // When
+        courses.deleteCourse("CS201");
+
+        // Then
+        assertThat(views.count(Dimension.DEPARTMENT, "MATH", ENROLLED)).isZero();
+        assertThat(views.count(Dimension.COURSE, "CS201", ENROLLED)).isEqualTo(2);
+    }
+
+    @Test
+    void testRemovalsAndFreeze_CountRecordsNotRosters() {
+        // Given
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+        enrollments.enroll("S2", "CS101", "Fall 2025");
+        enrollments.drop("S1", "CS101", "Fall 2025");
+        enrollments.enroll("S1", "CS101", "Fall 2025");  // Re-enrolling keeps the DROPPED record.
+        enrollments.enroll("S1", "MA101", "Fall 2025");
+
+        // When
+        enrollments.freezeSemester("Fall 2025");
+        long frozenEnrolled = views.count(Dimension.SEMESTER, "Fall 2025", ENROLLED);
+        enrollments.removeStudent("S1");
+
+        // Then
+        assertThat(frozenEnrolled).isEqualTo(3);
+        assertThat(views.counts(Dimension.COURSE, "CS101")).isEqualTo(Map.of(ENROLLED, 1L));
+        assertThat(views.counts(Dimension.COURSE, "MA101")).isEmpty();
+        assertThat(views.counts(Dimension.SEMESTER, "Fall 2025")).isEqualTo(Map.of(ENROLLED, 1L));
+    }
+
+    @Test
+    void testApply_ConcurrentUpdatesAreNotLost() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    enrollments.enroll("S" + thread + "-" + i, "CS101", "Fall 2025");
+                    if (i % 5 == 0) {
+                        enrollments.drop("S" + thread + "-" + i, "CS101", "Fall 2025");
+                    }
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(views.count(Dimension.COURSE, "CS101", ENROLLED)).isEqualTo(3200);
+        assertThat(views.count(Dimension.DEPARTMENT, "CS", DROPPED)).isEqualTo(800);
+        assertThat(views.count(Dimension.COURSE, "CS101", ENROLLED))
+                .isEqualTo(enrollments.getStudentsForCourse("CS101").size());
+    }
+
+    @Test
+    void testAdjust_CorrectsOneCounter() {
+        // Given
+        Enrollment enrollment = new Enrollment("S1", "CS101", "Fall 2025", EnrollmentStatus.ENROLLED,
+                null, null, 1);
+        views.apply(null, enrollment);
+
+        // When
+        views.adjust(Dimension.COURSE, "CS101", ENROLLED, 4);
+
+        // Then
+        assertThat(views.count(Dimension.COURSE, "CS101", ENROLLED)).isEqualTo(5);
+        assertThat(views.count(Dimension.DEPARTMENT, "CS", ENROLLED)).isEqualTo(1);
+        assertThat(views.keys(Dimension.SEMESTER)).containsExactly("Fall 2025");
+    }
+
+    private static Course course(String code, String department) {
+        return new Course(code, code + " Title", 3, department, new HashSet<>(), new HashSet<>());
+    }
+}
@@ -0,0 +1,100 @@
+package repository;
+
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FrozenSemesterSegmentTest {
+
+    @Test
+    void testOf_RoundTripsEveryColumn() {
+        // Given
+        Map<GradeType, Double> grades = new EnumMap<>(GradeType.class);
+        grades.put(GradeType.QUIZ, 77.25);
+        grades.put(GradeType.FINAL, 88.0);
+        BitSet attendance = new BitSet();
+        attendance.set(0);
+        attendance.set(3);
+        attendance.set(130);
+        Enrollment original = new Enrollment("S1", "CS101", "Fall 2024", EnrollmentStatus.COMPLETED, grades, attendance, 7);
+
+        // When
+        FrozenSemesterSegment segment = FrozenSemesterSegment.of("Fall 2024", List.of(original));
+        Enrollment restored = segment.find("S1", "CS101");
+
+        // Then
+        assertThat(restored.getStudentId()).isEqualTo("S1");
+        assertThat(restored.getCourseCode()).isEqualTo("CS101");
+        assertThat(restored.getSemester()).isEqualTo("Fall 2024");
+        assertThat(restored.getStatus()).isEqualTo(EnrollmentStatus.COMPLETED);
+        assertThat(restored.getGrades()).isEqualTo(grades);
+        assertThat(restored.getAttendance()).isEqualTo(attendance);
+        assertThat(restored.getVersion()).isEqualTo(7);
+        assertThat(restored).isNotSameAs(original);
+    }
+
+    @Test
+    void testFind_ReturnsLatestOfRepeatedEnrollments() {
+        // Given
+        FrozenSemesterSegment segment = FrozenSemesterSegment.of("Fall 2024", List.of(
+                enrollment("S1", "CS101", EnrollmentStatus.ENROLLED, 3),
+                enrollment("S1", "CS101", EnrollmentStatus.DROPPED, 2),
+                enrollment("S2", "CS101", EnrollmentStatus.WAITLISTED, 1)));
+
+        // Then
+        assertThat(segment.size()).isEqualTo(3);
+        assertThat(segment.find("S1", "CS101").getVersion()).isEqualTo(3);
+        assertThat(segment.find("S3", "CS101")).isNull();
+        assertThat(segment.find("S1", "MATH201")).isNull();
+        assertThat(segment.forStudent("S1")).extracting(Enrollment::getVersion).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void testForCourse_UsesCourseIndex() {
+        // Given
+        FrozenSemesterSegment segment = FrozenSemesterSegment.of("Fall 2024", List.of(
+                enrollment("S3", "MATH201", EnrollmentStatus.ENROLLED, 1),
+                enrollment("S1", "CS101", EnrollmentStatus.ENROLLED, 1),
+                enrollment("S2", "CS101", EnrollmentStatus.DROPPED, 2),
+                enrollment("S1", "MATH201", EnrollmentStatus.COMPLETED, 2)));
+
+        // Then
+        assertThat(segment.forCourse("CS101"))
+                .extracting(Enrollment::getStudentId, Enrollment::getStatus)
+                .containsExactly(tuple("S1", EnrollmentStatus.ENROLLED), tuple("S2", EnrollmentStatus.DROPPED));
+        assertThat(segment.enrolledIn("MATH201")).containsExactly("S3");
+        assertThat(segment.enrolledIn("PHYS100")).isEmpty();
+    }
+
+    @Test
+    void testWithout_RebuildsOnlyWhenRowsMatch() {
+        // Given
+        FrozenSemesterSegment segment = FrozenSemesterSegment.of("Fall 2024", List.of(
+                enrollment("S1", "CS101", EnrollmentStatus.ENROLLED, 1),
+                enrollment("S2", "CS101", EnrollmentStatus.ENROLLED, 1)));
+
+        // When
+        FrozenSemesterSegment unchanged = segment.without(e -> e.getStudentId().equals("S9"));
+        FrozenSemesterSegment smaller = segment.without(e -> e.getStudentId().equals("S1"));
+
+        // Then
+        assertThat(unchanged).isSameAs(segment);
+        assertThat(smaller.size()).isEqualTo(1);
+        assertThat(smaller.forStudent("S1")).isEmpty();
+        assertThat(smaller.enrolledIn("CS101")).containsExactly("S2");
+    }
+
+    private static Enrollment enrollment(String studentId, String courseCode, EnrollmentStatus status, long version) {
+        return new Enrollment(studentId, courseCode, "Fall 2024", status,
+                new EnumMap<>(GradeType.class), new BitSet(), version);
+    }
+}
@@ -4,6 +4,7 @@ import model.Course;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -251,4 +252,173 @@ class InMemoryCourseRepositoryTest {
         // Verify that department-to-course mapping is removed
         assertThat(repository.listByDepartment("CS")).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateCourse_DictionaryEncodedSharesDepartment() {
+        // Given
+        StorageContext context = StorageContext.dictionaryEncoded();
+        CourseRepository encodedRepository = new InMemoryCourseRepository(context);
+        Course first = new Course();
+        first.setCode("CS101");
+        first.setDepartment(new String("CS"));
+        Course second = new Course();
+        second.setCode("CS102");
+        second.setDepartment(new String("CS"));
+
+        // When
+        encodedRepository.createCourse(first);
+        encodedRepository.createCourse(second);
+
+        // Then
+        assertThat(encodedRepository.getByCode("CS101").getDepartment())
+                .isSameAs(encodedRepository.getByCode("CS102").getDepartment());
+        assertThat(encodedRepository.listByDepartment("CS")).hasSize(2);
+    }
+
+    @Test
+    void testCompareAndSet_MovesCourseBetweenDepartments() {
+        // Given
+        Course course = new Course();
+        course.setCode("CS101");
+        course.setDepartment("CS");
+        repository.createCourse(course);
+        Course updated = repository.getByCode("CS101").copy();
+        updated.setDepartment("MATH");
+
+        // When
+        boolean replaced = repository.compareAndSet("CS101", course.getVersion(), updated);
+
+        // Then
+        assertThat(replaced).isTrue();
+        assertThat(repository.listByDepartment("CS")).isEmpty();
+        assertThat(repository.listByDepartment("MATH")).containsExactly(updated);
+        assertThat(repository.compareAndSet("CS101", course.getVersion(), updated.copy())).isFalse();
+    }
+
+    @Test
+    void testCompareAndSet_StoredInstanceRejected() {
+        // Given
+        Course course = new Course();
+        course.setCode("CS101");
+        course.setDepartment("CS");
+        repository.createCourse(course);
+
+        // Then
+        assertThatThrownBy(() -> repository.compareAndSet("CS101", course.getVersion(), course))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("new instance");
+    }
+
+    @Test
+    void testListByDepartment_SnapshotIgnoresLaterMovesAndDeletes() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        CourseRepository repo = new InMemoryCourseRepository(context);
+        repo.createCourse(new Course("CS102", "Data Structures", 3, "CS", new HashSet<>(), new HashSet<>()));
+        repo.createCourse(new Course("CS101", "Intro", 3, "CS", new HashSet<>(), new HashSet<>()));
+
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            // When
+            Course moved = repo.getByCode("CS102").copy();
+            moved.setDepartment("MATH");
+            repo.compareAndSet("CS102", 1, moved);
+            repo.deleteCourse("CS101");
+            repo.createCourse(new Course("CS103", "Algorithms", 3, "CS", new HashSet<>(), new HashSet<>()));
+
+            // Then
+            assertThat(repo.listByDepartment("CS", snapshot))
+                    .extracting(Course::getCode)
+                    .containsExactly("CS101", "CS102");
+            assertThat(repo.getByCode("CS101", snapshot).getTitle()).isEqualTo("Intro");
+            assertThat(repo.listByDepartment("CS")).extracting(Course::getCode).containsExactly("CS103");
+        }
+    }
+
+    @Test
+    void testDeleteCourse_LeavesTombstoneUntilPurged() {
+        // Given
+        InMemoryCourseRepository repo = new InMemoryCourseRepository();
+        Course course = new Course();
+        course.setCode("CS101");
+        course.setDepartment("CS");
+        repo.createCourse(course);
+
+        // When
+        repo.deleteCourse("CS101");
+
+        // Then
+        assertThat(repo.getByCode("CS101")).isNull();
+        assertThat(repo.listByDepartment("CS")).isEmpty();
+        assertThat(repo.pendingTombstones()).isEqualTo(1);
+        assertThat(repo.purgeTombstones(10)).isEqualTo(1);
+        assertThat(repo.pendingTombstones()).isZero();
+    }
+
+    @Test
+    void testDeleteCourse_RecreateInSameDepartmentBeforePurge() {
+        // Given
+        InMemoryCourseRepository repo = new InMemoryCourseRepository();
+        Course course = new Course();
+        course.setCode("CS101");
+        course.setDepartment("CS");
+        repo.createCourse(course);
+        repo.deleteCourse("CS101");
+
+        // When
+        Course again = new Course();
+        again.setCode("CS101");
+        again.setTitle("Again");
+        again.setDepartment("CS");
+        repo.createCourse(again);
+        repo.purgeTombstones(10);
+
+        // Then
+        assertThat(repo.listByDepartment("CS")).extracting(Course::getTitle).containsExactly("Again");
+    }
+
+    @Test
+    void testListByDepartment_PagesResumeAfterCursor() {
+        // Given
+        for (int i = 9; i >= 0; i--) {
+            repository.createCourse(course("CS10" + i, "CS"));
+        }
+        repository.createCourse(course("MA101", "MATH"));
+
+        // When
+        Page<Course> first = repository.listByDepartment("CS", null, 4);
+        repository.createCourse(course("CS000", "CS")); // Sorts before the cursor: not on later pages.
+        repository.deleteCourse("CS105");
+        Page<Course> second = repository.listByDepartment("CS", first.nextCursor(), 4);
+        Page<Course> third = repository.listByDepartment("CS", second.nextCursor(), 4);
+
+        // Then
+        assertThat(first.items()).extracting(Course::getCode).containsExactly("CS100", "CS101", "CS102", "CS103");
+        assertThat(second.items()).extracting(Course::getCode).containsExactly("CS104", "CS106", "CS107", "CS108");
+        assertThat(third.items()).extracting(Course::getCode).containsExactly("CS109");
+        assertThat(third.hasNext()).isFalse();
+        assertThat(repository.listByDepartment("BIO", null, 4).items()).isEmpty();
+        assertThatThrownBy(() -> repository.listByDepartment("CS", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testStreamByDepartment_LazyAndParallel() {
+        // Given
+        for (int i = 0; i < 500; i++) {
+            repository.createCourse(course(String.format("CS%04d", i), "CS"));
+        }
+
+        // When
+        List<String> sequential = repository.streamByDepartment("CS").map(Course::getCode).limit(3).toList();
+        long parallel = repository.streamByDepartment("CS").parallel().filter(c -> c.getCode().endsWith("7")).count();
+
+        // Then
+        assertThat(sequential).containsExactly("CS0000", "CS0001", "CS0002");
+        assertThat(parallel).isEqualTo(50);
+        assertThat(repository.streamByDepartment(null)).isEmpty();
+    }
+
+    private static Course course(String code, String department) {
+        return new Course(code, code + " Title", 3, department, new HashSet<>(), new HashSet<>());
+    }
+}
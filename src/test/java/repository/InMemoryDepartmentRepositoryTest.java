@@ -160,4 +160,42 @@ class InMemoryDepartmentRepositoryTest {
         assertThat(departments.get(0).getCourses()).hasSize(2);
         assertThat(departments.get(0).getCourses()).contains("CS101", "CS201");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUnlinkCourse_ReplacesCourseSet() {
+        // Given
+        Department department = new Department("CS", "Computer Science", new TreeSet<>(Set.of("CS101", "CS102")));
+        repository.createDepartment(department);
+        Set<String> before = department.getCourses();
+
+        // When
+        boolean unlinked = repository.unlinkCourse("CS", "CS101");
+
+        // Then
+        assertThat(unlinked).isTrue();
+        assertThat(repository.getById("CS").getCourses()).containsExactly("CS102");
+        assertThat(before).containsExactly("CS101", "CS102");
+        assertThat(repository.unlinkCourse("CS", "CS101")).isFalse();
+        assertThat(repository.unlinkCourse("MATH", "CS101")).isFalse();
+    }
+
+    @Test
+    void testListAll_PagesAndStreamInIdOrder() {
+        // Given
+        for (String id : List.of("PHYS", "CS", "MATH", "BIO", "ENG")) {
+            repository.createDepartment(new Department(id, id + " Department", new TreeSet<>()));
+        }
+
+        // When
+        Page<Department> first = repository.listAll(null, 2);
+        Page<Department> second = repository.listAll(first.nextCursor(), 2);
+        Page<Department> last = repository.listAll(second.nextCursor(), 2);
+
+        // Then
+        assertThat(first.items()).extracting(Department::getId).containsExactly("BIO", "CS");
+        assertThat(second.items()).extracting(Department::getId).containsExactly("ENG", "MATH");
+        assertThat(last.items()).extracting(Department::getId).containsExactly("PHYS");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(repository.streamAll().map(Department::getId)).containsExactly("BIO", "CS", "ENG", "MATH", "PHYS");
+    }
+}
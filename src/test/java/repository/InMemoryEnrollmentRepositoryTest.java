@@ -1,17 +1,33 @@
 package repository;
 
+import events.ChangeCursor;
+import events.ChangeEvent;
+import events.ChangeType;
 import model.Enrollment;
 import model.EnrollmentStatus;
 import model.GradeType;
+import model.dto.SeatHold;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.MutableClock;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 class InMemoryEnrollmentRepositoryTest {
 
@@ -195,4 +211,782 @@ class InMemoryEnrollmentRepositoryTest {
         assertThat(phys101Students).hasSize(1);
         assertThat(phys101Students).contains("S67890");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEnroll_DictionaryEncodedSharesStrings() {
+        // Given
+        StorageContext context = StorageContext.dictionaryEncoded();
+        EnrollmentRepository encodedRepository = new InMemoryEnrollmentRepository(context);
+
+        // When
+        encodedRepository.enroll("S12345", new String("CS101"), new String("Fall 2025"));
+        encodedRepository.enroll("S67890", new String("CS101"), new String("Fall 2025"));
+
+        // Then
+        Enrollment first = encodedRepository.getEnrollmentsForStudent("S12345").get(0);
+        Enrollment second = encodedRepository.getEnrollmentsForStudent("S67890").get(0);
+        assertThat(first.getCourseCode()).isSameAs(second.getCourseCode());
+        assertThat(first.getSemester()).isSameAs(second.getSemester());
+        assertThat(encodedRepository.getStudentsForCourse("CS101"))
+                .containsExactlyInAnyOrder("S12345", "S67890");
+    }
+
+    @Test
+    void testEnroll_BeyondCapacityIsWaitlisted() {
+        // Given
+        repository.setCapacity("CS101", 2);
+
+        // When
+        EnrollmentStatus first = repository.enroll("S1", "CS101", "Fall 2025");
+        EnrollmentStatus second = repository.enroll("S2", "CS101", "Fall 2025");
+        EnrollmentStatus third = repository.enroll("S3", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(second).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(third).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(repository.getEnrollmentsForStudent("S3").get(0).getStatus()).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactlyInAnyOrder("S1", "S2");
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("S3");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testDrop_PromotesWaitlistInFifoOrder() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+        repository.enroll("S3", "CS101", "Fall 2025");
+
+        // When
+        repository.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollmentsForStudent("S2").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("S3");
+    }
+
+    @Test
+    void testDrop_WaitlistedStudentLeavesQueue() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+        repository.enroll("S3", "CS101", "Fall 2025");
+
+        // When
+        repository.drop("S2", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollmentsForStudent("S2").get(0).getStatus()).isEqualTo(EnrollmentStatus.DROPPED);
+        assertThat(repository.getEnrollmentsForStudent("S3").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).isEmpty();
+    }
+
+    @Test
+    void testSetCapacity_SemesterOverridesCourseDefault() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.setCapacity("CS101", "Spring 2026", 2);
+
+        // When
+        repository.enroll("S1", "CS101", "Fall 2025");
+        EnrollmentStatus fall = repository.enroll("S2", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Spring 2026");
+        EnrollmentStatus spring = repository.enroll("S2", "CS101", "Spring 2026");
+
+        // Then
+        assertThat(fall).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(spring).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testSetCapacity_IncreasePromotesWaitlist() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        repository.setCapacity("CS101", "Fall 2025", 2);
+
+        // Then
+        assertThat(repository.getEnrollmentsForStudent("S2").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).isEmpty();
+    }
+
+    @Test
+    void testSetCapacity_NegativeRejected() {
+        // Then
+        assertThatThrownBy(() -> repository.setCapacity("CS101", -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Capacity cannot be negative");
+    }
+
+    @Test
+    void testGetAvailableSeats_UnlimitedByDefault() {
+        // Then
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testEnroll_ConcurrentEnrollAndDropNeverOversells() throws Exception {
+        // Given
+        int capacity = 50;
+        int students = 2000;
+        repository.setCapacity("CS101", capacity);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - every student enrolls, every third student drops right after
+        for (int i = 0; i < students; i++) {
+            String studentId = "S" + i;
+            boolean drops = i % 3 == 0;
+            futures.add(pool.submit(() -> {
+                start.await();
+                repository.enroll(studentId, "CS101", "Fall 2025");
+                if (drops) {
+                    repository.drop(studentId, "CS101", "Fall 2025");
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then
+        long enrolled = 0;
+        long waitlisted = 0;
+        for (int i = 0; i < students; i++) {
+            EnrollmentStatus status = repository.getEnrollmentsForStudent("S" + i).get(0).getStatus();
+            if (i % 3 == 0) {
+                assertThat(status).isEqualTo(EnrollmentStatus.DROPPED);
+            } else if (status == EnrollmentStatus.ENROLLED) {
+                enrolled++;
+            } else {
+                assertThat(status).isEqualTo(EnrollmentStatus.WAITLISTED);
+                waitlisted++;
+            }
+        }
+        assertThat(enrolled).isEqualTo(capacity);
+        assertThat(repository.getStudentsForCourse("CS101")).hasSize(capacity);
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).hasSize((int) waitlisted);
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testPlaceHold_CountsAgainstCapacity() {
+        // Given
+        repository.setCapacity("CS101", 1);
+
+        // When
+        SeatHold hold = repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+        SeatHold second = repository.placeHold("S2", "CS101", "Fall 2025", Duration.ofMinutes(10));
+        EnrollmentStatus status = repository.enroll("S3", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(hold).isNotNull();
+        assertThat(second).isNull();
+        assertThat(status).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+        assertThat(repository.getEnrollmentsForStudent("S1")).isEmpty();
+    }
+
+    @Test
+    void testConfirmHold_EnrollsIntoHeldSeat() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+
+        // When
+        EnrollmentStatus status = repository.confirmHold("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(status).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getEnrollmentsForStudent("S1").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S1");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testConfirmHold_ExpiredHoldRejectedAndSeatReleased() {
+        // Given
+        MutableClock clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        EnrollmentRepository timed = new InMemoryEnrollmentRepository(StorageContext.builder().clock(clock).build());
+        timed.setCapacity("CS101", 1);
+        timed.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+        timed.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        clock.advance(Duration.ofMinutes(10));
+
+        // Then
+        assertThatThrownBy(() -> timed.confirmHold("S1", "CS101", "Fall 2025"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No active hold for student S1 in CS101 Fall 2025");
+        assertThat(timed.getEnrollmentsForStudent("S2").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testReleaseHold_PromotesWaitlist() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        boolean released = repository.releaseHold("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(released).isTrue();
+        assertThat(repository.releaseHold("S1", "CS101", "Fall 2025")).isFalse();
+        assertThat(repository.getEnrollmentsForStudent("S2").get(0).getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testEnroll_WhileHoldingSeatConfirmsHold() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+
+        // When
+        EnrollmentStatus status = repository.enroll("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(status).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getEnrollmentsForStudent("S1")).hasSize(1);
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testExpireHolds_SkipsHoldsNotYetExpired() {
+        // Given
+        MutableClock clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        EnrollmentRepository timed = new InMemoryEnrollmentRepository(StorageContext.builder().clock(clock).build());
+        timed.setCapacity("CS101", 2);
+        SeatHold shortHold = timed.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(1));
+        SeatHold longHold = timed.placeHold("S2", "CS101", "Fall 2025", Duration.ofMinutes(10));
+
+        // When
+        clock.advance(Duration.ofMinutes(2));
+        int released = timed.expireHolds(List.of(shortHold, longHold));
+
+        // Then
+        assertThat(released).isEqualTo(1);
+        assertThat(timed.getAvailableSeats("CS101", "Fall 2025")).isEqualTo(1);
+        assertThat(timed.confirmHold("S2", "CS101", "Fall 2025")).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testPlaceHold_NonPositiveDurationRejected() {
+        // Then
+        assertThatThrownBy(() -> repository.placeHold("S1", "CS101", "Fall 2025", Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Hold duration must be positive");
+    }
+
+    @Test
+    void testEnroll_SameSectionTwiceIsNoOp() {
+        // When
+        EnrollmentStatus first = repository.enroll("S1", "CS101", "Fall 2025");
+        EnrollmentStatus second = repository.enroll("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(second).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getEnrollmentsForStudent("S1")).hasSize(1);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S1");
+    }
+
+    @Test
+    void testDrop_RepeatedDropLeavesLaterHistoryUntouched() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+        repository.getEnrollmentsForStudent("S1").get(0).setStatus(EnrollmentStatus.WITHDRAWN);
+
+        // When
+        repository.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollmentsForStudent("S1").get(0).getStatus()).isEqualTo(EnrollmentStatus.WITHDRAWN);
+    }
+
+    @Test
+    void testCompareAndSet_RecordsGradeOnNewVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        Enrollment current = repository.getEnrollment("S1", "CS101", "Fall 2025");
+        Enrollment updated = current.copy();
+        updated.getGrades().put(GradeType.MIDTERM, 88.0);
+
+        // When
+        boolean replaced = repository.compareAndSet("S1", "CS101", "Fall 2025", current.getVersion(), updated);
+
+        // Then
+        assertThat(replaced).isTrue();
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getGrades()).containsEntry(GradeType.MIDTERM, 88.0);
+        assertThat(current.getGrades()).isEmpty();
+        assertThat(repository.getEnrollmentsForStudent("S1")).containsExactly(updated);
+        assertThat(repository.compareAndSet("S1", "CS101", "Fall 2025", current.getVersion(), current.copy())).isFalse();
+    }
+
+    @Test
+    void testDrop_PublishesNewEnrollmentVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        Enrollment before = repository.getEnrollment("S1", "CS101", "Fall 2025");
+
+        // When
+        repository.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        Enrollment after = repository.getEnrollment("S1", "CS101", "Fall 2025");
+        assertThat(after.getStatus()).isEqualTo(EnrollmentStatus.DROPPED);
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+        assertThat(before.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testSnapshot_RosterAndEnrollmentsStayConsistent() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository repo = new InMemoryEnrollmentRepository(context);
+        repo.enroll("S1", "CS101", "Fall 2025");
+        repo.enroll("S2", "CS101", "Fall 2025");
+
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            // When
+            repo.drop("S1", "CS101", "Fall 2025");
+            repo.enroll("S3", "CS101", "Fall 2025");
+            repo.enroll("S2", "MATH101", "Fall 2025");
+
+            // Then
+            assertThat(repo.getStudentsForCourse("CS101", snapshot)).containsExactlyInAnyOrder("S1", "S2");
+            assertThat(repo.getStudentsForCourse("CS101")).containsExactlyInAnyOrder("S2", "S3");
+            assertThat(repo.getEnrollmentsForStudent("S1", snapshot))
+                    .extracting(Enrollment::getStatus)
+                    .containsExactly(EnrollmentStatus.ENROLLED);
+            assertThat(repo.getEnrollmentsForStudent("S2", snapshot))
+                    .extracting(Enrollment::getCourseCode)
+                    .containsExactly("CS101");
+        }
+    }
+
+    @Test
+    void testRecordGrade_SetsGradeAndBumpsVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        long version = repository.getEnrollment("S1", "CS101", "Fall 2025").getVersion();
+
+        // When
+        Enrollment graded = repository.recordGrade("S1", "CS101", "Fall 2025", GradeType.MIDTERM, 91.5);
+
+        // Then
+        assertThat(graded.getGrades()).containsEntry(GradeType.MIDTERM, 91.5);
+        assertThat(graded.getVersion()).isEqualTo(version + 1);
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025")).isSameAs(graded);
+    }
+
+    @Test
+    void testRecordGrade_InvalidInputRejected() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThatThrownBy(() -> repository.recordGrade("S1", "CS101", "Fall 2025", GradeType.FINAL, 101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Score must be between 0 and 100");
+        assertThatThrownBy(() -> repository.recordGrade("S2", "CS101", "Fall 2025", GradeType.FINAL, 50))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No enrollment for student S2 in CS101 Fall 2025");
+    }
+
+    @Test
+    void testChangeFeed_PublishesEnrollmentLifecycle() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository repo = new InMemoryEnrollmentRepository(context);
+        repo.setCapacity("CS101", 1);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        repo.enroll("S1", "CS101", "Fall 2025");
+        repo.enroll("S2", "CS101", "Fall 2025");
+        repo.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 70);
+        repo.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(cursor.poll(20))
+                .extracting(ChangeEvent::type, ChangeEvent::key)
+                .containsExactly(
+                        tuple(ChangeType.ENROLLMENT_CREATED, "S1"),
+                        tuple(ChangeType.ENROLLMENT_CREATED, "S2"),
+                        tuple(ChangeType.GRADE_RECORDED, "S1"),
+                        tuple(ChangeType.ENROLLMENT_DROPPED, "S1"),
+                        tuple(ChangeType.ENROLLMENT_CONFIRMED, "S2"));
+    }
+
+    @Test
+    void testWithdraw_FreesSeatAndRecordsWithdrawn() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        repository.withdraw("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.WITHDRAWN);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S2");
+    }
+
+    @Test
+    void testComplete_OnlyEnrolledStudents() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+
+        // When
+        repository.complete("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.COMPLETED);
+        assertThatThrownBy(() -> repository.complete("S1", "CS101", "Fall 2025"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Student S1 is not enrolled in CS101 Fall 2025");
+    }
+
+    @Test
+    void testEnroll_ReEnrollmentContinuesVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+        long dropped = repository.getEnrollment("S1", "CS101", "Fall 2025").getVersion();
+
+        // When
+        repository.enroll("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getVersion()).isGreaterThan(dropped);
+    }
+
+    @Test
+    void testRemoveStudent_RemovesHistoryAndFreesSeats() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        int removed = repository.removeStudent("S1");
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(repository.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThat(repository.removeStudent("S1")).isZero();
+    }
+
+    @Test
+    void testRemoveCourse_LeavesOtherCoursesUntouched() {
+        // Given
+        repository.setCapacity("CS101", 5);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Spring 2026");
+        repository.enroll("S1", "MATH101", "Fall 2025");
+
+        // When
+        int removed = repository.removeCourse("CS101");
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(repository.getEnrollmentsForStudent("S1")).extracting(Enrollment::getCourseCode).containsExactly("MATH101");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testFreezeSemester_ReadsSpanLiveAndFrozen() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2024");
+        repository.recordGrade("S1", "CS101", "Fall 2024", GradeType.FINAL, 91.5);
+        repository.complete("S1", "CS101", "Fall 2024");
+        repository.enroll("S2", "CS101", "Fall 2024");
+        repository.enroll("S1", "MATH201", "Spring 2025");
+
+        // When
+        int frozen = repository.freezeSemester("Fall 2024");
+
+        // Then
+        assertThat(frozen).isEqualTo(2);
+        assertThat(repository.getEnrollmentsForStudent("S1"))
+                .extracting(Enrollment::getCourseCode, Enrollment::getSemester, Enrollment::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple("CS101", "Fall 2024", EnrollmentStatus.COMPLETED),
+                        tuple("MATH201", "Spring 2025", EnrollmentStatus.ENROLLED));
+        Enrollment archived = repository.getEnrollment("S1", "CS101", "Fall 2024");
+        assertThat(archived.getGrades()).containsEntry(GradeType.FINAL, 91.5);
+        assertThat(archived.getVersion()).isEqualTo(3);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactlyInAnyOrder("S1", "S2");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2024")).isZero();
+    }
+
+    @Test
+    void testFreezeSemester_RejectsWrites() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2024");
+        repository.freezeSemester("Fall 2024");
+
+        // Then
+        assertThatThrownBy(() -> repository.enroll("S2", "CS101", "Fall 2024"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Semester Fall 2024 is frozen");
+        assertThatThrownBy(() -> repository.drop("S1", "CS101", "Fall 2024"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.recordGrade("S1", "CS101", "Fall 2024", GradeType.QUIZ, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.placeHold("S2", "CS101", "Fall 2024", Duration.ofMinutes(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.freezeSemester("Fall 2024"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Semester Fall 2024 is already frozen");
+        assertThat(repository.compareAndSet("S1", "CS101", "Fall 2024", 2, new Enrollment())).isFalse();
+    }
+
+    @Test
+    void testFreezeSemester_SnapshotRosterIncludesFrozen() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        InMemoryEnrollmentRepository repo = new InMemoryEnrollmentRepository(context);
+        repo.enroll("S1", "CS101", "Fall 2024");
+        repo.enroll("S2", "CS101", "Spring 2025");
+
+        // When
+        repo.freezeSemester("Fall 2024");
+
+        // Then
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            assertThat(repo.getStudentsForCourse("CS101", snapshot)).containsExactlyInAnyOrder("S1", "S2");
+            assertThat(repo.getEnrollmentsForStudent("S1", snapshot)).hasSize(1);
+        }
+    }
+
+    @Test
+    void testRemoveStudent_RemovesFrozenEnrollments() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2024");
+        repository.enroll("S2", "CS101", "Fall 2024");
+        repository.enroll("S1", "MATH201", "Spring 2025");
+        repository.freezeSemester("Fall 2024");
+
+        // When
+        int removed = repository.removeStudent("S1");
+        int removedCourse = repository.removeCourse("CS101");
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(repository.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(removedCourse).isEqualTo(1);
+        assertThat(repository.getEnrollmentsForStudent("S2")).isEmpty();
+    }
+
+    @Test
+    void testSpillSemester_ReadsLoadSegmentFromDisk(@TempDir Path directory) {
+        // Given
+        try (TieredStorage tiered = new TieredStorage(directory)) {
+            InMemoryEnrollmentRepository repo = new InMemoryEnrollmentRepository(
+                    StorageContext.builder().tieredStorage(tiered).build());
+            repo.enroll("S1", "CS101", "Fall 2024");
+            repo.recordGrade("S1", "CS101", "Fall 2024", GradeType.MIDTERM, 64);
+            repo.enroll("S2", "CS101", "Fall 2024");
+            repo.enroll("S1", "MATH201", "Spring 2025");
+            repo.freezeSemester("Fall 2024");
+
+            // When
+            int spilled = repo.spillSemester("Fall 2024");
+
+            // Then
+            assertThat(spilled).isEqualTo(2);
+            assertThat(repo.getEnrollmentsForStudent("S1"))
+                    .extracting(Enrollment::getCourseCode).containsExactlyInAnyOrder("CS101", "MATH201");
+            assertThat(repo.getEnrollment("S1", "CS101", "Fall 2024").getGrades())
+                    .containsEntry(GradeType.MIDTERM, 64.0);
+            assertThat(repo.removeStudent("S2")).isEqualTo(1);
+            assertThat(repo.getEnrollment("S2", "CS101", "Fall 2024")).isNull();
+            assertThatThrownBy(() -> repo.spillSemester("Fall 2024"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void testSpillSemester_RequiresTieredStorage() {
+        // Given
+        InMemoryEnrollmentRepository repo = new InMemoryEnrollmentRepository();
+        repo.freezeSemester("Fall 2024");
+
+        // Then
+        assertThatThrownBy(() -> repo.spillSemester("Fall 2024"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Spilling semesters requires tiered storage");
+    }
+
+    @Test
+    void testGetStudentsForCourse_PagesSkipDroppedStudents() {
+        // Given
+        for (int i = 9; i >= 0; i--) {
+            repository.enroll("S" + i, "CS101", "Fall 2025");
+        }
+
+        // When
+        Page<String> first = repository.getStudentsForCourse("CS101", null, 4);
+        repository.drop("S5", "CS101", "Fall 2025");
+        Page<String> second = repository.getStudentsForCourse("CS101", first.nextCursor(), 4);
+        Page<String> last = repository.getStudentsForCourse("CS101", second.nextCursor(), 4);
+
+        // Then
+        assertThat(first.items()).containsExactly("S0", "S1", "S2", "S3");
+        assertThat(second.items()).containsExactly("S4", "S6", "S7", "S8");
+        assertThat(last.items()).containsExactly("S9");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(repository.streamStudentsForCourse("CS101").parallel().count()).isEqualTo(9);
+        assertThat(repository.getStudentsForCourse("NONE", null, 4).items()).isEmpty();
+    }
+
+    @Test
+    void testStreamEnrollments_CoversLiveAndFrozenRecords() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Spring 2026");
+        repository.freezeSemester("Fall 2025");
+
+        // When
+        List<Enrollment> all = repository.streamEnrollments().parallel().toList();
+
+        // Then
+        assertThat(all).extracting(Enrollment::getSemester, Enrollment::getStatus).containsExactlyInAnyOrder(
+                tuple("Fall 2025", EnrollmentStatus.DROPPED),
+                tuple("Fall 2025", EnrollmentStatus.ENROLLED),
+                tuple("Spring 2026", EnrollmentStatus.ENROLLED));
+    }
+
+    @Test
+    void testDrop_ReEnrolledStudentDoesNotReclaimOldWaitlistPlace() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("A", "CS101", "Fall 2025");
+        repository.enroll("B", "CS101", "Fall 2025");
+        repository.drop("A", "CS101", "Fall 2025");
+        repository.enroll("A", "CS101", "Fall 2025");
+
+        // When
+        repository.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("B");
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("A");
+    }
+
+    @Test
+    void testChangeFeed_CreatedWithFinalStatusAndDeletedWithLastState() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository repo = new InMemoryEnrollmentRepository(context);
+        repo.setCapacity("CS101", 1);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        repo.enroll("S1", "CS101", "Fall 2025");
+        repo.enroll("S2", "CS101", "Fall 2025");
+        repo.removeCourse("CS101");
+
+        // Then
+        List<ChangeEvent> events = cursor.poll(20);
+        assertThat(events)
+                .extracting(ChangeEvent::type, event -> ((Enrollment) event.payload()).getStatus())
+                .containsExactlyInAnyOrder(
+                        tuple(ChangeType.ENROLLMENT_CREATED, EnrollmentStatus.ENROLLED),
+                        tuple(ChangeType.ENROLLMENT_CREATED, EnrollmentStatus.WAITLISTED),
+                        tuple(ChangeType.ENROLLMENT_DELETED, EnrollmentStatus.ENROLLED),
+                        tuple(ChangeType.ENROLLMENT_DELETED, EnrollmentStatus.WAITLISTED));
+        assertThat(((Enrollment) events.get(0).payload()).getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void testRestore_CopiesRecordsAndHoldOnlyOnce() {
+        // Given
+        EnrollmentRepository source = new InMemoryEnrollmentRepository();
+        source.enroll("S1", "CS101", "Fall 2025");
+        source.drop("S1", "CS101", "Fall 2025");
+        source.enroll("S1", "CS101", "Fall 2025");
+        source.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 80);
+        List<Enrollment> records = source.getEnrollmentsForStudent("S1");
+        SeatHold hold = new SeatHold("S2", "CS101", "Fall 2025", Instant.parse("2025-09-01T08:10:00Z"));
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository target = new InMemoryEnrollmentRepository(context);
+        target.setCapacity("CS101", 2);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        target.restore("S1", "CS101", "Fall 2025", records, null);
+        target.restore("S2", "CS101", "Fall 2025", List.of(), hold);
+        List<ChangeEvent> first = cursor.poll(20);
+        target.restore("S1", "CS101", "Fall 2025", records, null);
+        target.restore("S2", "CS101", "Fall 2025", List.of(), hold);
+
+        // Then
+        assertThat(first).extracting(ChangeEvent::type).containsExactly(
+                ChangeType.ENROLLMENT_CREATED, ChangeType.ENROLLMENT_CREATED, ChangeType.SEAT_HELD);
+        assertThat(cursor.poll(20)).isEmpty();
+        assertThat(target.getEnrollmentsForStudent("S1"))
+                .extracting(Enrollment::getStatus, Enrollment::getVersion)
+                .containsExactly(tuple(EnrollmentStatus.DROPPED, records.get(0).getVersion()),
+                        tuple(EnrollmentStatus.ENROLLED, records.get(1).getVersion()));
+        assertThat(target.getEnrollment("S1", "CS101", "Fall 2025").getGrades()).containsEntry(GradeType.QUIZ, 80.0);
+        assertThat(target.getStudentsForCourse("CS101")).containsExactly("S1");
+        assertThat(target.getHold("S2", "CS101", "Fall 2025")).isEqualTo(hold);
+        assertThat(target.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testRestore_EmptyRecordsFreeTheSeat() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        repository.restore("S1", "CS101", "Fall 2025", List.of(), null);
+
+        // Then
+        assertThat(repository.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(repository.getStudentsForCourse("CS101")).isEmpty();
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("S2");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isEqualTo(1);
+    }
+
+    @Test
+    void testRemoveCourse_DropsHoldsWithoutEnrollments() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+
+        // When
+        repository.removeCourse("CS101");
+
+        // Then
+        assertThat(repository.getHold("S1", "CS101", "Fall 2025")).isNull();
+        assertThat(repository.placeHold("S2", "CS101", "Fall 2025", Duration.ofMinutes(10))).isNotNull();
+    }
+}
@@ -4,6 +4,7 @@ import model.Instructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -242,4 +243,118 @@ class InMemoryInstructorRepositoryTest {
         assertThat(results2).hasSize(1);
         assertThat(results2.get(0)).isEqualTo(instructor2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindByCourse() {
+        // Given
+        repository.createInstructor(new Instructor("INS001", "John Doe", new HashSet<>(Set.of("CS101", "CS201"))));
+        repository.createInstructor(new Instructor("INS002", "Jane Smith", new HashSet<>(Set.of("CS101"))));
+
+        // When
+        List<Instructor> cs101 = repository.findByCourse("CS101");
+        List<Instructor> cs201 = repository.findByCourse("CS201");
+
+        // Then
+        assertThat(cs101).extracting(Instructor::getId).containsExactlyInAnyOrder("INS001", "INS002");
+        assertThat(cs201).extracting(Instructor::getId).containsExactly("INS001");
+        assertThat(repository.findByCourse("MATH101")).isEmpty();
+    }
+
+    @Test
+    void testFindByDepartment() {
+        // Given
+        repository.createInstructor(new Instructor("INS001", "John Doe", new HashSet<>(), "CS"));
+        repository.createInstructor(new Instructor("INS002", "Jane Smith", new HashSet<>(), "MATH"));
+        repository.createInstructor(new Instructor("INS003", "Ada Lovelace", new HashSet<>(), "CS"));
+
+        // When
+        List<Instructor> cs = repository.findByDepartment("CS");
+
+        // Then
+        assertThat(cs).extracting(Instructor::getId).containsExactlyInAnyOrder("INS001", "INS003");
+        assertThat(repository.findByDepartment("PHYS")).isEmpty();
+
+        repository.deleteInstructor("INS001");
+        assertThat(repository.findByDepartment("CS")).extracting(Instructor::getId).containsExactly("INS003");
+    }
+
+    @Test
+    void testAssignAndUnassignCourse() {
+        // Given
+        repository.createInstructor(new Instructor("INS001", "John Doe", new HashSet<>()));
+
+        // When
+        repository.assignCourse("INS001", "CS101");
+
+        // Then
+        assertThat(repository.getById("INS001").getCoursesTaught()).containsExactly("CS101");
+        assertThat(repository.findByCourse("CS101")).extracting(Instructor::getId).containsExactly("INS001");
+
+        // When
+        repository.unassignCourse("INS001", "CS101");
+
+        // Then
+        assertThat(repository.getById("INS001").getCoursesTaught()).isEmpty();
+        assertThat(repository.findByCourse("CS101")).isEmpty();
+    }
+
+    @Test
+    void testAssignCourse_UnknownInstructor() {
+        // Then
+        assertThatThrownBy(() -> repository.assignCourse("missing", "CS101"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Instructor not found");
+    }
+
+    @Test
+    void testListAll() {
+        // Given
+        repository.createInstructor(new Instructor("INS001", "John Doe", new HashSet<>()));
+        repository.createInstructor(new Instructor("INS002", "Jane Smith", new HashSet<>()));
+
+        // Then
+        assertThat(repository.listAll()).extracting(Instructor::getId).containsExactlyInAnyOrder("INS001", "INS002");
+    }
+
+    @Test
+    void testDeleteInstructor_LeavesTombstoneUntilPurged() {
+        // Given
+        InMemoryInstructorRepository repo = new InMemoryInstructorRepository();
+        Instructor instructor = new Instructor();
+        instructor.setId("INS001");
+        instructor.setName("John Doe");
+        instructor.setDepartment("CS");
+        instructor.setCoursesTaught(new HashSet<>(Set.of("CS101")));
+        repo.createInstructor(instructor);
+
+        // When
+        repo.deleteInstructor("INS001");
+
+        // Then
+        assertThat(repo.getById("INS001")).isNull();
+        assertThat(repo.findByCourse("CS101")).isEmpty();
+        assertThat(repo.findByDepartment("CS")).isEmpty();
+        assertThat(repo.searchByNameToken("john")).isEmpty();
+        assertThat(repo.pendingTombstones()).isEqualTo(1);
+        assertThat(repo.purgeTombstones(10)).isEqualTo(1);
+        assertThat(repo.pendingTombstones()).isZero();
+    }
+
+    @Test
+    void testAssignCourse_RefusedCheckLeavesCoursesUnchanged() {
+        // Given
+        repository.createInstructor(new Instructor("INS001", "John Doe", new HashSet<>(Set.of("CS101"))));
+        List<Set<String>> seen = new ArrayList<>();
+
+        // When
+        assertThatThrownBy(() -> repository.assignCourse("INS001", "CS201", taught -> {
+            seen.add(Set.copyOf(taught));
+            throw new IllegalArgumentException("conflict");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        assertThat(seen).containsExactly(Set.of("CS101"));
+        assertThat(repository.getById("INS001").getCoursesTaught()).containsExactly("CS101");
+        assertThat(repository.findByCourse("CS201")).isEmpty();
+    }
+}
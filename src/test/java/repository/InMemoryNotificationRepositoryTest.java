@@ -3,7 +3,9 @@ package repository;
 import model.Notification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -270,4 +272,114 @@ class InMemoryNotificationRepositoryTest {
         assertThat(notifications).hasSize(1);
         assertThat(notifications).contains(newNotification);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeleteForRecipient_RemovesOnlyThatRecipient() {
+        // Given
+        repository.addNotification(new Notification("N1", "R1", "a", LocalDateTime.now(), false));
+        repository.addNotification(new Notification("N2", "R1", "b", LocalDateTime.now(), false));
+        repository.addNotification(new Notification("N3", "R2", "c", LocalDateTime.now(), false));
+
+        // When
+        int deleted = repository.deleteForRecipient("R1");
+
+        // Then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(repository.getNotificationsForRecipient("R1")).isEmpty();
+        assertThat(repository.getPendingNotifications()).extracting(Notification::getId).containsExactly("N3");
+        assertThat(repository.deleteForRecipient("R1")).isZero();
+    }
+
+    @Test
+    void testDeleteNotification_LeavesTombstoneUntilPurged() {
+        // Given
+        InMemoryNotificationRepository repo = new InMemoryNotificationRepository();
+        Notification notification = new Notification();
+        notification.setId("NOTIF001");
+        notification.setRecipientId("S12345");
+        repo.addNotification(notification);
+
+        // When
+        repo.deleteNotification("NOTIF001");
+
+        // Then
+        assertThat(repo.getNotificationsForRecipient("S12345")).isEmpty();
+        assertThat(repo.pendingTombstones()).isEqualTo(1);
+        assertThat(repo.purgeTombstones(10)).isEqualTo(1);
+
+        repo.addNotification(notification);
+        assertThat(repo.getNotificationsForRecipient("S12345")).containsExactly(notification);
+        assertThat(repo.pendingTombstones()).isZero();
+    }
+
+    @Test
+    void testMarkAsSent_PagesNotificationOutWithTieredStorage(@TempDir Path directory) {
+        // Given
+        try (TieredStorage tiered = new TieredStorage(directory, 2, 4)) {
+            InMemoryNotificationRepository repo = new InMemoryNotificationRepository(
+                    StorageContext.builder().tieredStorage(tiered).build());
+            Notification notification = new Notification("N1", "S1", "Grades are out",
+                    LocalDateTime.of(2025, 5, 15, 10, 0), false);
+            repo.addNotification(notification);
+
+            // When
+            repo.markAsSent("N1");
+
+            // Then
+            assertThat(repo.getPendingNotifications()).isEmpty();
+            List<Notification> sent = repo.getNotificationsForRecipient("S1");
+            assertThat(sent).hasSize(1);
+            assertThat(sent.get(0).getMessage()).isEqualTo("Grades are out");
+            assertThat(sent.get(0).getScheduledTime()).isEqualTo(LocalDateTime.of(2025, 5, 15, 10, 0));
+            assertThat(sent.get(0).isSent()).isTrue();
+
+            repo.addNotification(notification);  // already stored (paged out): ignored
+            assertThat(repo.getNotificationsForRecipient("S1")).hasSize(1);
+            repo.deleteNotification("N1");
+            assertThat(repo.getNotificationsForRecipient("S1")).isEmpty();
+        }
+    }
+
+    @Test
+    void testGetPendingNotifications_PagesSkipSentAndDeleted() {
+        // Given
+        for (int i = 0; i < 8; i++) {
+            repository.addNotification(new Notification("N" + i, i % 2 == 0 ? "S1" : "S2", "Message " + i, null, false));
+        }
+        repository.addNotification(new Notification("N9", "S1", "Already sent", null, true));
+        repository.markAsSent("N2");
+        repository.deleteNotification("N5");
+
+        // When
+        Page<Notification> first = repository.getPendingNotifications(null, 3);
+        Page<Notification> last = repository.getPendingNotifications(first.nextCursor(), 3);
+
+        // Then
+        assertThat(first.items()).extracting(Notification::getId).containsExactly("N0", "N1", "N3");
+        assertThat(last.items()).extracting(Notification::getId).containsExactly("N4", "N6", "N7");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(repository.getPendingNotifications()).extracting(Notification::getId)
+                .containsExactly("N0", "N1", "N3", "N4", "N6", "N7");
+        assertThat(repository.streamPendingNotifications().parallel().count()).isEqualTo(6);
+    }
+
+    @Test
+    void testGetNotificationsForRecipient_PagesInIdOrder() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            repository.addNotification(new Notification("N" + i, "S1", "Message " + i, null, i == 3));
+        }
+
+        // When
+        Page<Notification> first = repository.getNotificationsForRecipient("S1", null, 2);
+        Page<Notification> second = repository.getNotificationsForRecipient("S1", first.nextCursor(), 2);
+
+        // Then
+        assertThat(first.items()).extracting(Notification::getId).containsExactly("N0", "N1");
+        assertThat(second.items()).extracting(Notification::getId).containsExactly("N2", "N3");
+        assertThat(second.hasNext()).isTrue();
+        assertThat(repository.streamNotificationsForRecipient("S1").map(Notification::getId))
+                .containsExactly("N0", "N1", "N2", "N3", "N4");
+        assertThat(repository.streamNotificationsForRecipient("nobody")).isEmpty();
+    }
+}
@@ -1,10 +1,21 @@
 package repository;
 
+import events.ChangeCursor;
+import events.ChangeEvent;
+import events.ChangeType;
 import model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import util.CompactAttributeMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -240,4 +251,268 @@ class InMemoryStudentRepositoryTest {
         // Then - Verify repository state remains unchanged
         assertThat(repository.getById("nonexistent")).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateStudent_DictionaryEncodedAttributes() {
+        // Given
+        StorageContext context = StorageContext.dictionaryEncoded();
+        StudentRepository encodedRepository = new InMemoryStudentRepository(context);
+        Student first = new Student();
+        first.setId("1");
+        first.setFullName("John Doe");
+        first.setEmail("john.doe@example.com");
+        first.getAttributes().put(new String("nationality"), "Ghanaian");
+        Student second = new Student();
+        second.setId("2");
+        second.setFullName("Jane Roe");
+        second.setEmail("jane.roe@example.com");
+        second.getAttributes().put(new String("nationality"), "Kenyan");
+
+        // When
+        encodedRepository.createStudent(first);
+        encodedRepository.createStudent(second);
+
+        // Then
+        Student retrieved = encodedRepository.getById("2");
+        assertThat(retrieved.getAttributes()).isInstanceOf(CompactAttributeMap.class);
+        assertThat(retrieved.getAttributes()).containsEntry("nationality", "Kenyan");
+        assertThat(context.getDictionary().size()).isEqualTo(1);
+
+        retrieved.getAttributes().put("guardianName", "Mary Roe");
+        assertThat(encodedRepository.getById("2").getAttributes()).hasSize(2);
+    }
+
+    private static Student student(String id, String name, String email) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName(name);
+        student.setEmail(email);
+        return student;
+    }
+
+    @Test
+    void testCompareAndSet_ReplacesStudentAndBumpsVersion() {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john@example.com"));
+        Student current = repository.getById("1");
+        Student updated = current.copy();
+        updated.setFullName("Johnny Walker");
+        updated.setEmail("johnny@example.com");
+
+        // When
+        boolean replaced = repository.compareAndSet("1", current.getVersion(), updated);
+
+        // Then
+        assertThat(replaced).isTrue();
+        assertThat(repository.getById("1")).isSameAs(updated);
+        assertThat(updated.getVersion()).isEqualTo(current.getVersion() + 1);
+        assertThat(repository.searchByNameToken("john")).isEmpty();
+        assertThat(repository.searchByNameToken("walker")).containsExactly(updated);
+        // The old email is free again.
+        repository.createStudent(student("2", "Jane Doe", "john@example.com"));
+    }
+
+    @Test
+    void testCompareAndSet_StaleVersionRejected() {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john@example.com"));
+        Student current = repository.getById("1");
+        Student first = current.copy();
+        first.setPhone("111");
+        repository.compareAndSet("1", current.getVersion(), first);
+
+        // When
+        Student second = current.copy();
+        second.setPhone("222");
+        boolean replaced = repository.compareAndSet("1", current.getVersion(), second);
+
+        // Then
+        assertThat(replaced).isFalse();
+        assertThat(repository.getById("1").getPhone()).isEqualTo("111");
+    }
+
+    @Test
+    void testCompareAndSet_EmailOfAnotherStudentRejected() {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john@example.com"));
+        repository.createStudent(student("2", "Jane Doe", "jane@example.com"));
+        Student updated = repository.getById("1").copy();
+        updated.setEmail("jane@example.com");
+
+        // Then
+        assertThatThrownBy(() -> repository.compareAndSet("1", updated.getVersion(), updated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        assertThat(repository.getById("1").getEmail()).isEqualTo("john@example.com");
+    }
+
+    @Test
+    void testCompareAndSet_ConcurrentRetryingWritersLoseNoUpdates() throws Exception {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john@example.com"));
+        int threads = 8;
+        int updatesPerThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    for (;;) {
+                        Student current = repository.getById("1");
+                        Student updated = current.copy();
+                        int count = Integer.parseInt(updated.getAttributes().getOrDefault("count", "0"));
+                        updated.getAttributes().put("count", String.valueOf(count + 1));
+                        if (repository.compareAndSet("1", current.getVersion(), updated)) break;
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then
+        assertThat(repository.getById("1").getAttributes().get("count")).isEqualTo(String.valueOf(threads * updatesPerThread));
+        assertThat(repository.getById("1").getVersion()).isEqualTo(1L + threads * updatesPerThread);
+    }
+
+    @Test
+    void testGetById_SnapshotSeesStateAtOpen() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        StudentRepository repo = new InMemoryStudentRepository(context);
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            // When
+            Student updated = repo.getById("1").copy();
+            updated.setFullName("Johnny Doe");
+            repo.compareAndSet("1", 1, updated);
+            repo.createStudent(student("2", "Jane Roe", "jane@example.com"));
+
+            // Then
+            assertThat(repo.getById("1", snapshot).getFullName()).isEqualTo("John Doe");
+            assertThat(repo.getById("2", snapshot)).isNull();
+            assertThat(repo.getById("1").getFullName()).isEqualTo("Johnny Doe");
+        }
+    }
+
+    @Test
+    void testGetById_SnapshotStillSeesDeletedStudent() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        StudentRepository repo = new InMemoryStudentRepository(context);
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+        Snapshot snapshot = context.getSnapshots().open();
+
+        // When
+        repo.deleteStudent("1");
+        repo.createStudent(student("1", "John Again", "again@example.com"));
+
+        // Then
+        assertThat(repo.getById("1", snapshot).getFullName()).isEqualTo("John Doe");
+        assertThat(repo.getById("1").getFullName()).isEqualTo("John Again");
+        snapshot.close();
+        assertThatThrownBy(() -> repo.getById("1", snapshot))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Snapshot is closed");
+    }
+
+    @Test
+    void testDeleteStudent_RecreateAfterReclaim() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        StudentRepository repo = new InMemoryStudentRepository(context);
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+
+        // When
+        repo.deleteStudent("1");
+        repo.createStudent(student("1", "John Again", "john@example.com"));
+
+        // Then
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            assertThat(repo.getById("1", snapshot).getFullName()).isEqualTo("John Again");
+        }
+        assertThat(repo.searchByNameToken("again")).hasSize(1);
+    }
+
+    @Test
+    void testChangeFeed_PublishesCreateUpdateDelete() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        StudentRepository repo = new InMemoryStudentRepository(context);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+        Student updated = repo.getById("1").copy();
+        updated.setFullName("Johnny Doe");
+        repo.compareAndSet("1", 1, updated);
+        repo.compareAndSet("1", 1, repo.getById("1").copy());
+        repo.deleteStudent("1");
+
+        // Then
+        List<ChangeEvent> events = cursor.poll(10);
+        assertThat(events).extracting(ChangeEvent::type)
+                .containsExactly(ChangeType.STUDENT_CREATED, ChangeType.STUDENT_UPDATED, ChangeType.STUDENT_DELETED);
+        assertThat(events).extracting(ChangeEvent::key).containsOnly("1");
+        assertThat(((Student) events.get(1).payload()).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void testGetByIds_SkipsMissingAndDuplicateIds() {
+        // Given
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+        repo.createStudent(student("2", "Jane Doe", "jane@example.com"));
+
+        // When
+        Map<String, Student> found = repo.getByIds(Arrays.asList("2", null, "9", "1", "2"));
+
+        // Then
+        assertThat(found.keySet()).containsExactly("2", "1");
+        assertThat(found.get("1").getFullName()).isEqualTo("John Doe");
+    }
+
+    @Test
+    void testDeleteStudent_LeavesTombstoneUntilPurged() {
+        // Given
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+        repo.createStudent(student("2", "Jane Doe", "jane@example.com"));
+
+        // When
+        repo.deleteStudent("1");
+
+        // Then
+        assertThat(repo.getById("1")).isNull();
+        assertThat(repo.searchByNameToken("doe")).extracting(Student::getId).containsExactly("2");
+        assertThat(repo.pendingTombstones()).isEqualTo(1);
+        repo.createStudent(student("3", "Jim Beam", "john@example.com"));  // email released at once
+
+        assertThat(repo.purgeTombstones(10)).isEqualTo(1);
+        assertThat(repo.pendingTombstones()).isZero();
+        assertThat(repo.searchByNameToken("john")).isEmpty();
+        assertThat(repo.purgeTombstones(10)).isZero();
+    }
+
+    @Test
+    void testDeleteStudent_RecreateBeforePurgeKeepsNewTokens() {
+        // Given
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+        repo.deleteStudent("1");
+
+        // When
+        repo.createStudent(student("1", "John Smith", "john@example.com"));
+        repo.purgeTombstones(10);
+
+        // Then
+        assertThat(repo.pendingTombstones()).isZero();
+        assertThat(repo.searchByNameToken("john")).extracting(Student::getFullName).containsExactly("John Smith");
+        assertThat(repo.searchByNameToken("doe")).isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package repository;
+
+import model.Course;
+import model.TimeSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcCourseRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    private JdbcCourseRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        repository = new JdbcCourseRepository(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCreateCourse_RoundTripsPrerequisitesAndSlots() {
+        // Given
+        TimeSlot monday = new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 30));
+        TimeSlot wednesday = new TimeSlot(DayOfWeek.WEDNESDAY, LocalTime.of(14, 0), LocalTime.of(15, 0));
+        Course course = new Course("CS201", "Data Structures", 3, "CS", Set.of("CS101", "MATH101"),
+                new TreeSet<>(List.of(monday, wednesday)));
+        course.setCapacity(40);
+
+        // When
+        repository.createCourse(course);
+
+        // Then
+        Course retrieved = repository.getByCode("CS201");
+        assertThat(retrieved.getTitle()).isEqualTo("Data Structures");
+        assertThat(retrieved.getCredits()).isEqualTo(3);
+        assertThat(retrieved.getCapacity()).isEqualTo(40);
+        assertThat(retrieved.getPrerequisites()).containsExactlyInAnyOrder("CS101", "MATH101");
+        assertThat(retrieved.getScheduledSlots()).extracting(TimeSlot::toString)
+                .containsExactly(monday.toString(), wednesday.toString());
+        assertThat(repository.getByCode("CS999")).isNull();
+    }
+
+    @Test
+    void testCreateCourse_InvalidOrDuplicateRejected() {
+        // Given
+        repository.createCourse(course("CS101", "CS"));
+
+        // Then
+        assertThatThrownBy(() -> repository.createCourse(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Course cannot be null");
+        assertThatThrownBy(() -> repository.createCourse(course("CS101", "CS")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course with code CS101 already exists");
+        assertThatThrownBy(() -> repository.createCourses(List.of(course("CS102", "CS"), course("CS101", "CS"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A course with one of these codes already exists");
+        assertThat(repository.getByCode("CS102")).isNull();
+    }
+
+    @Test
+    void testListByDepartment_SortedByCode() {
+        // Given
+        repository.createCourses(List.of(course("CS301", "CS"), course("CS101", "CS"),
+                course("MATH101", "MATH"), course("CS201", "CS")));
+
+        // When
+        List<Course> courses = repository.listByDepartment("CS");
+
+        // Then
+        assertThat(courses).extracting(Course::getCode).containsExactly("CS101", "CS201", "CS301");
+        assertThat(repository.listByDepartment("PHYS")).isEmpty();
+    }
+
+    @Test
+    void testGetByCodes_LoadsChildRowsInRequestOrder() {
+        // Given
+        Course cs101 = course("CS101", "CS");
+        cs101.setPrerequisites(new HashSet<>(Set.of("MA100")));
+        cs101.getScheduledSlots().add(new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        repository.createCourse(cs101);
+        repository.createCourse(course("MA201", "MA"));
+
+        // When
+        Map<String, Course> found = repository.getByCodes(List.of("MA201", "XX999", "CS101"));
+
+        // Then
+        assertThat(found.keySet()).containsExactly("MA201", "CS101");
+        assertThat(found.get("CS101").getPrerequisites()).containsExactly("MA100");
+        assertThat(found.get("CS101").getScheduledSlots()).hasSize(1);
+        assertThat(found.get("MA201").getPrerequisites()).isEmpty();
+    }
+
+    @Test
+    void testCompareAndSet_MovesCourseBetweenDepartments() {
+        // Given
+        repository.createCourse(course("CS101", "CS"));
+        Course moved = repository.getByCode("CS101").copy();
+        moved.setDepartment("ENG");
+
+        // When
+        boolean swapped = repository.compareAndSet("CS101", 1, moved);
+        boolean stale = repository.compareAndSet("CS101", 1, moved.copy());
+
+        // Then
+        assertThat(swapped).isTrue();
+        assertThat(stale).isFalse();
+        assertThat(repository.listByDepartment("CS")).isEmpty();
+        assertThat(repository.listByDepartment("ENG")).extracting(Course::getCode).containsExactly("CS101");
+    }
+
+    @Test
+    void testDeleteCourse_RemovesChildRows() {
+        // Given
+        repository.createCourse(new Course("CS201", "Data Structures", 3, "CS", Set.of("CS101"),
+                new TreeSet<>(List.of(new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))))));
+
+        // When
+        repository.deleteCourse("CS201");
+        repository.createCourse(course("CS201", "CS"));
+
+        // Then
+        Course recreated = repository.getByCode("CS201");
+        assertThat(recreated.getPrerequisites()).isEmpty();
+        assertThat(recreated.getScheduledSlots()).isEmpty();
+    }
+
+    @Test
+    void testListByDepartment_PagesInCodeOrder() {
+        // Given
+        for (int i = 5; i > 0; i--) {
+            repository.createCourse(course("CS10" + i, "CS"));
+        }
+        repository.createCourse(course("MA101", "MATH"));
+
+        // When
+        Page<Course> first = repository.listByDepartment("CS", null, 3);
+        Page<Course> last = repository.listByDepartment("CS", first.nextCursor(), 3);
+
+        // Then
+        assertThat(first.items()).extracting(Course::getCode).containsExactly("CS101", "CS102", "CS103");
+        assertThat(last.items()).extracting(Course::getCode).containsExactly("CS104", "CS105");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(repository.streamByDepartment("CS").map(Course::getCode))
+                .containsExactly("CS101", "CS102", "CS103", "CS104", "CS105");
+    }
+
+    private static Course course(String code, String department) {
+        return new Course(code, "Course " + code, 3, department, Set.of(), new TreeSet<>());
+    }
+}
@@ -0,0 +1,154 @@
+package repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcDatabaseTest {
+
+    private static final String INSERT = "INSERT INTO items (id, label) VALUES (?, ?)";
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("db"));
+        database.createSchema("CREATE TABLE IF NOT EXISTS items (id INT PRIMARY KEY, label VARCHAR(64))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testStatement_CachedPerSql() throws Exception {
+        // When
+        PreparedStatement first = database.inTransaction(() -> database.statement(INSERT));
+        PreparedStatement second = database.inTransaction(() -> database.statement(INSERT));
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(database.preparedStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testStatement_RePreparedAsWritesDouble() {
+        // Given
+        PreparedStatement first = database.inTransaction(() -> database.statement(INSERT));
+
+        // When
+        for (int i = 0; i < JdbcDatabase.REPLAN_THRESHOLD; i++) {
+            database.inTransaction(() -> null);
+        }
+        PreparedStatement replanned = database.inTransaction(() -> database.statement(INSERT));
+        PreparedStatement cached = database.inTransaction(() -> database.statement(INSERT));
+
+        // Then
+        assertThat(replanned).isNotSameAs(first);
+        assertThat(cached).isSameAs(replanned);
+    }
+
+    @Test
+    void testBatch_InsertsAcrossSeveralBatches() {
+        // Given
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < JdbcDatabase.BATCH_SIZE * 2 + 7; i++) {
+            ids.add(i);
+        }
+
+        // When
+        int[] counts = database.inTransaction(() -> database.batch(INSERT, ids, (statement, id) -> {
+            statement.setInt(1, id);
+            statement.setString(2, "item" + id);
+        }));
+
+        // Then
+        assertThat(counts).hasSize(ids.size()).containsOnly(1);
+        assertThat(count()).isEqualTo(ids.size());
+    }
+
+    @Test
+    void testInTransaction_RollbackDropsWritesAndAfterCommitActions() {
+        // Given
+        AtomicInteger published = new AtomicInteger();
+
+        // When
+        assertThatThrownBy(() -> database.inTransaction(() -> {
+            PreparedStatement insert = database.statement(INSERT);
+            insert.setInt(1, 1);
+            insert.setString(2, "one");
+            insert.executeUpdate();
+            database.afterCommit(published::incrementAndGet);
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        assertThat(count()).isZero();
+        assertThat(published).hasValue(0);
+    }
+
+    @Test
+    void testInTransaction_NestedCallsCommitOnceAndPublishAfterCommit() {
+        // Given
+        AtomicInteger seenRows = new AtomicInteger(-1);
+
+        // When
+        database.inTransaction(() -> {
+            database.inTransaction(() -> {
+                PreparedStatement insert = database.statement(INSERT);
+                insert.setInt(1, 1);
+                insert.setString(2, "one");
+                insert.executeUpdate();
+                database.afterCommit(() -> seenRows.set(count()));
+                return null;
+            });
+            assertThat(seenRows).hasValue(-1);
+            return null;
+        });
+
+        // Then
+        assertThat(seenRows).hasValue(1);
+    }
+
+    @Test
+    void testRun_ConstraintViolationReported() {
+        // Given
+        database.inTransaction(() -> database.batch(INSERT, List.of(1), (statement, id) -> {
+            statement.setInt(1, id);
+            statement.setString(2, "one");
+        }));
+
+        // Then
+        assertThatThrownBy(() -> database.inTransaction(() -> database.batch(INSERT, List.of(2, 1),
+                (statement, id) -> {
+                    statement.setInt(1, id);
+                    statement.setString(2, "dup");
+                })))
+                .isInstanceOf(JdbcDatabase.ConstraintViolation.class);
+        assertThat(count()).isEqualTo(1);
+    }
+
+    private int count() {
+        return database.inTransaction(() -> {
+            try (ResultSet rs = database.statement("SELECT COUNT(*) FROM items").executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package repository;
+
+import events.ChangeCursor;
+import events.ChangeEvent;
+import events.ChangeType;
+import model.Department;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JdbcDepartmentRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    private JdbcDepartmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        repository = new JdbcDepartmentRepository(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCreateDepartment_RoundTripsCourses() {
+        // Given
+        Department department = new Department("CS", "Computer Science", Set.of("CS101", "CS201"));
+
+        // When
+        repository.createDepartment(department);
+
+        // Then
+        Department retrieved = repository.getById("CS");
+        assertThat(retrieved.getName()).isEqualTo("Computer Science");
+        assertThat(retrieved.getCourses()).containsExactly("CS101", "CS201");
+        assertThat(repository.getById("MATH")).isNull();
+    }
+
+    @Test
+    void testCreateDepartment_InvalidOrDuplicateRejected() {
+        // Given
+        repository.createDepartment(new Department("CS", "Computer Science", Set.of()));
+
+        // Then
+        assertThatThrownBy(() -> repository.createDepartment(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Department or ID cannot be null");
+        assertThatThrownBy(() -> repository.createDepartment(new Department("CS", "Other", Set.of())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Department with ID CS already exists");
+    }
+
+    @Test
+    void testListAll_SortedById() {
+        // Given
+        repository.createDepartment(new Department("MATH", "Mathematics", Set.of("MATH101")));
+        repository.createDepartment(new Department("CS", "Computer Science", Set.of("CS101")));
+
+        // When / Then
+        assertThat(repository.listAll()).extracting(Department::getId).containsExactly("CS", "MATH");
+    }
+
+    @Test
+    void testUnlinkCourse_PublishesUpdatedListing() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        JdbcDepartmentRepository repo = new JdbcDepartmentRepository(database, context);
+        repo.createDepartment(new Department("CS", "Computer Science", Set.of("CS101", "CS201")));
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        boolean unlinked = repo.unlinkCourse("CS", "CS101");
+        boolean again = repo.unlinkCourse("CS", "CS101");
+
+        // Then
+        assertThat(unlinked).isTrue();
+        assertThat(again).isFalse();
+        assertThat(repo.getById("CS").getCourses()).containsExactly("CS201");
+        assertThat(cursor.poll(10))
+                .extracting(ChangeEvent::type, ChangeEvent::key)
+                .containsExactly(tuple(ChangeType.DEPARTMENT_UPDATED, "CS"));
+    }
+
+    @Test
+    void testListAll_PagesCarryTheirCourses() {
+        // Given
+        repository.createDepartment(new Department("MATH", "Mathematics", Set.of("MA101")));
+        repository.createDepartment(new Department("CS", "Computer Science", Set.of("CS101", "CS201")));
+        repository.createDepartment(new Department("BIO", "Biology", Set.of()));
+
+        // When
+        Page<Department> first = repository.listAll(null, 2);
+        Page<Department> last = repository.listAll(first.nextCursor(), 2);
+
+        // Then
+        assertThat(first.items()).extracting(Department::getId).containsExactly("BIO", "CS");
+        assertThat(first.items().get(1).getCourses()).containsExactly("CS101", "CS201");
+        assertThat(last.items()).extracting(Department::getId).containsExactly("MATH");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(repository.streamAll().count()).isEqualTo(3);
+    }
+}
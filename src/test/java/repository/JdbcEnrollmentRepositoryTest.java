@@ -0,0 +1,427 @@
+package repository;
+
+import events.ChangeCursor;
+import events.ChangeEvent;
+import events.ChangeType;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.MutableClock;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JdbcEnrollmentRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    private EnrollmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        repository = new JdbcEnrollmentRepository(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testEnroll_BeyondCapacityIsWaitlisted() {
+        // Given
+        repository.setCapacity("CS101", 2);
+
+        // When
+        EnrollmentStatus first = repository.enroll("S1", "CS101", "Fall 2025");
+        EnrollmentStatus second = repository.enroll("S2", "CS101", "Fall 2025");
+        EnrollmentStatus third = repository.enroll("S3", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(second).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(third).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactlyInAnyOrder("S1", "S2");
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("S3");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testEnroll_SameSectionTwiceIsNoOp() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+
+        // When
+        EnrollmentStatus again = repository.enroll("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(again).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getEnrollmentsForStudent("S1")).hasSize(1);
+    }
+
+    @Test
+    void testDrop_PromotesWaitlistInFifoOrder() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+        repository.enroll("S3", "CS101", "Fall 2025");
+
+        // When
+        repository.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.DROPPED);
+        assertThat(repository.getEnrollment("S2", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("S3");
+    }
+
+    @Test
+    void testSetCapacity_IncreasePromotesWaitlist() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        repository.setCapacity("CS101", "Fall 2025", 2);
+
+        // Then
+        assertThat(repository.getEnrollment("S2", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).isEmpty();
+        assertThatThrownBy(() -> repository.setCapacity("CS101", -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Capacity cannot be negative");
+    }
+
+    @Test
+    void testEnroll_ReEnrollmentAddsSlotAndContinuesVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+        long dropped = repository.getEnrollment("S1", "CS101", "Fall 2025").getVersion();
+
+        // When
+        repository.enroll("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getVersion()).isGreaterThan(dropped);
+        assertThat(repository.getEnrollmentsForStudent("S1")).extracting(Enrollment::getStatus)
+                .containsExactly(EnrollmentStatus.DROPPED, EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void testPlaceHold_CountsAgainstCapacityAndConfirms() {
+        // Given
+        repository.setCapacity("CS101", 1);
+
+        // When
+        SeatHold hold = repository.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(10));
+        SeatHold second = repository.placeHold("S2", "CS101", "Fall 2025", Duration.ofMinutes(10));
+        EnrollmentStatus waitlisted = repository.enroll("S3", "CS101", "Fall 2025");
+        EnrollmentStatus confirmed = repository.confirmHold("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(hold).isNotNull();
+        assertThat(second).isNull();
+        assertThat(waitlisted).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(confirmed).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S1");
+        assertThat(repository.getWaitlist("CS101", "Fall 2025")).containsExactly("S3");
+    }
+
+    @Test
+    void testExpireHolds_ReleasesOnlyExpiredHoldsAndPromotes() {
+        // Given
+        MutableClock clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        EnrollmentRepository timed = new JdbcEnrollmentRepository(database, StorageContext.builder().clock(clock).build());
+        timed.setCapacity("CS101", 2);
+        SeatHold shortHold = timed.placeHold("S1", "CS101", "Fall 2025", Duration.ofMinutes(5));
+        SeatHold longHold = timed.placeHold("S2", "CS101", "Fall 2025", Duration.ofMinutes(30));
+        timed.enroll("S3", "CS101", "Fall 2025");
+
+        // When
+        clock.advance(Duration.ofMinutes(10));
+        int released = timed.expireHolds(List.of(shortHold, longHold));
+
+        // Then
+        assertThat(released).isEqualTo(1);
+        assertThat(timed.getEnrollment("S3", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(timed.confirmHold("S2", "CS101", "Fall 2025")).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThatThrownBy(() -> timed.confirmHold("S1", "CS101", "Fall 2025"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No active hold for student S1 in CS101 Fall 2025");
+    }
+
+    @Test
+    void testRecordGrade_SetsGradeAndBumpsVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        long before = repository.getEnrollment("S1", "CS101", "Fall 2025").getVersion();
+
+        // When
+        repository.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 70);
+        Enrollment updated = repository.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 85);
+
+        // Then
+        Enrollment stored = repository.getEnrollment("S1", "CS101", "Fall 2025");
+        assertThat(stored.getGrades()).containsEntry(GradeType.QUIZ, 85.0);
+        assertThat(stored.getVersion()).isEqualTo(before + 2).isEqualTo(updated.getVersion());
+        assertThatThrownBy(() -> repository.recordGrade("S2", "CS101", "Fall 2025", GradeType.FINAL, 50))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No enrollment for student S2 in CS101 Fall 2025");
+    }
+
+    @Test
+    void testCompareAndSet_RejectsStaleVersion() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        Enrollment current = repository.getEnrollment("S1", "CS101", "Fall 2025");
+        Enrollment updated = current.copy();
+        updated.getGrades().put(GradeType.FINAL, 90.0);
+        updated.getAttendance().set(3);
+
+        // When
+        boolean swapped = repository.compareAndSet("S1", "CS101", "Fall 2025", current.getVersion(), updated);
+        boolean stale = repository.compareAndSet("S1", "CS101", "Fall 2025", current.getVersion(), current.copy());
+
+        // Then
+        assertThat(swapped).isTrue();
+        assertThat(stale).isFalse();
+        Enrollment stored = repository.getEnrollment("S1", "CS101", "Fall 2025");
+        assertThat(stored.getGrades()).containsEntry(GradeType.FINAL, 90.0);
+        assertThat(stored.getAttendance().get(3)).isTrue();
+        assertThat(stored.getVersion()).isEqualTo(current.getVersion() + 1);
+    }
+
+    @Test
+    void testRemoveStudent_RemovesHistoryAndFreesSeats() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.drop("S1", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+
+        // When
+        int removed = repository.removeStudent("S1");
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(repository.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThat(repository.removeStudent("S1")).isZero();
+    }
+
+    @Test
+    void testRemoveCourse_LeavesOtherCoursesUntouched() {
+        // Given
+        repository.setCapacity("CS101", 5);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Spring 2026");
+        repository.enroll("S1", "MATH101", "Fall 2025");
+
+        // When
+        int removed = repository.removeCourse("CS101");
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(repository.getEnrollmentsForStudent("S1")).extracting(Enrollment::getCourseCode).containsExactly("MATH101");
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testFreezeSemester_RejectsWritesAndKeepsReads() {
+        // Given
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.complete("S1", "CS101", "Fall 2025");
+        repository.enroll("S1", "CS101", "Spring 2026");
+
+        // When
+        int frozen = repository.freezeSemester("Fall 2025");
+
+        // Then
+        assertThat(frozen).isEqualTo(1);
+        assertThat(repository.getEnrollment("S1", "CS101", "Fall 2025").getStatus()).isEqualTo(EnrollmentStatus.COMPLETED);
+        assertThat(repository.getEnrollmentsForStudent("S1")).hasSize(2);
+        assertThat(repository.getAvailableSeats("CS101", "Fall 2025")).isZero();
+        assertThatThrownBy(() -> repository.enroll("S2", "CS101", "Fall 2025"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Semester Fall 2025 is frozen");
+        assertThatThrownBy(() -> repository.freezeSemester("Fall 2025"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Semester Fall 2025 is already frozen");
+    }
+
+    @Test
+    void testChangeFeed_PublishesEnrollmentLifecycle() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository repo = new JdbcEnrollmentRepository(database, context);
+        repo.setCapacity("CS101", 1);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        repo.enroll("S1", "CS101", "Fall 2025");
+        repo.enroll("S2", "CS101", "Fall 2025");
+        repo.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 70);
+        repo.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(cursor.poll(20))
+                .extracting(ChangeEvent::type, ChangeEvent::key)
+                .containsExactly(
+                        tuple(ChangeType.ENROLLMENT_CREATED, "S1"),
+                        tuple(ChangeType.ENROLLMENT_CREATED, "S2"),
+                        tuple(ChangeType.GRADE_RECORDED, "S1"),
+                        tuple(ChangeType.ENROLLMENT_DROPPED, "S1"),
+                        tuple(ChangeType.ENROLLMENT_CONFIRMED, "S2"));
+    }
+
+    @Test
+    void testEnrollments_SurviveReopeningTheDatabase() {
+        // Given
+        repository.setCapacity("CS101", 1);
+        repository.enroll("S1", "CS101", "Fall 2025");
+        repository.enroll("S2", "CS101", "Fall 2025");
+        database.close();
+
+        // When
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        EnrollmentRepository reopened = new JdbcEnrollmentRepository(database);
+        reopened.drop("S1", "CS101", "Fall 2025");
+
+        // Then
+        assertThat(reopened.getStudentsForCourse("CS101")).containsExactly("S2");
+        assertThat(reopened.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+
+    @Test
+    void testSnapshotReads_Unsupported() {
+        // Then
+        assertThatThrownBy(() -> repository.getStudentsForCourse("CS101", null))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testGetStudentsForCourse_PagesInIdOrder() {
+        // Given
+        for (int i = 4; i >= 0; i--) {
+            repository.enroll("S" + i, "CS101", "Fall 2025");
+        }
+        repository.enroll("S1", "CS101", "Spring 2026");
+
+        // When
+        Page<String> first = repository.getStudentsForCourse("CS101", null, 3);
+        Page<String> last = repository.getStudentsForCourse("CS101", first.nextCursor(), 3);
+
+        // Then
+        assertThat(first.items()).containsExactly("S0", "S1", "S2");
+        assertThat(last.items()).containsExactly("S3", "S4");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(repository.streamStudentsForCourse("CS101")).containsExactly("S0", "S1", "S2", "S3", "S4");
+    }
+
+    @Test
+    void testStreamEnrollments_FeedsViewsAfterCommit() {
+        // Given
+        EnrollmentViews views = new EnrollmentViews();
+        JdbcEnrollmentRepository counted = new JdbcEnrollmentRepository(database,
+                StorageContext.builder().enrollmentViews(views).build());
+        counted.enroll("S1", "CS101", "Fall 2025");
+        counted.enroll("S2", "CS101", "Fall 2025");
+        counted.drop("S1", "CS101", "Fall 2025");
+        counted.enroll("S1", "CS101", "Fall 2025");
+        counted.recordGrade("S2", "CS101", "Fall 2025", GradeType.QUIZ, 80);
+
+        // When
+        List<Enrollment> all = counted.streamEnrollments().toList();
+
+        // Then
+        assertThat(all).hasSize(3);
+        assertThat(all).filteredOn(e -> e.getStudentId().equals("S2")).singleElement()
+                .satisfies(e -> assertThat(e.getGrades()).containsEntry(GradeType.QUIZ, 80.0));
+        assertThat(views.counts(EnrollmentViews.Dimension.COURSE, "CS101"))
+                .isEqualTo(Map.of(EnrollmentStatus.ENROLLED, 2L, EnrollmentStatus.DROPPED, 1L));
+        counted.removeCourse("CS101");
+        assertThat(views.counts(EnrollmentViews.Dimension.SEMESTER, "Fall 2025")).isEmpty();
+    }
+
+    @Test
+    void testChangeFeed_CreatedWithFinalStatusAndDeletedWithLastState() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository repo = new JdbcEnrollmentRepository(database, context);
+        repo.setCapacity("CS101", 1);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        repo.enroll("S1", "CS101", "Fall 2025");
+        repo.enroll("S2", "CS101", "Fall 2025");
+        repo.removeCourse("CS101");
+
+        // Then
+        List<ChangeEvent> events = cursor.poll(20);
+        assertThat(events)
+                .extracting(ChangeEvent::type, event -> ((Enrollment) event.payload()).getStatus())
+                .containsExactlyInAnyOrder(
+                        tuple(ChangeType.ENROLLMENT_CREATED, EnrollmentStatus.ENROLLED),
+                        tuple(ChangeType.ENROLLMENT_CREATED, EnrollmentStatus.WAITLISTED),
+                        tuple(ChangeType.ENROLLMENT_DELETED, EnrollmentStatus.ENROLLED),
+                        tuple(ChangeType.ENROLLMENT_DELETED, EnrollmentStatus.WAITLISTED));
+        assertThat(((Enrollment) events.get(0).payload()).getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void testRestore_CopiesRecordsAndHoldOnlyOnce() {
+        // Given
+        EnrollmentRepository source = new InMemoryEnrollmentRepository();
+        source.enroll("S1", "CS101", "Fall 2025");
+        source.drop("S1", "CS101", "Fall 2025");
+        source.enroll("S1", "CS101", "Fall 2025");
+        source.recordGrade("S1", "CS101", "Fall 2025", GradeType.QUIZ, 80);
+        List<Enrollment> records = source.getEnrollmentsForStudent("S1");
+        SeatHold hold = new SeatHold("S2", "CS101", "Fall 2025", Instant.parse("2025-09-01T08:10:00Z"));
+        StorageContext context = StorageContext.standard();
+        EnrollmentRepository target = new JdbcEnrollmentRepository(database, context);
+        target.setCapacity("CS101", 2);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+
+        // When
+        target.restore("S1", "CS101", "Fall 2025", records, null);
+        target.restore("S2", "CS101", "Fall 2025", List.of(), hold);
+        List<ChangeEvent> first = cursor.poll(20);
+        target.restore("S1", "CS101", "Fall 2025", records, null);
+        target.restore("S2", "CS101", "Fall 2025", List.of(), hold);
+
+        // Then
+        assertThat(first).extracting(ChangeEvent::type).containsExactly(
+                ChangeType.ENROLLMENT_CREATED, ChangeType.ENROLLMENT_CREATED, ChangeType.SEAT_HELD);
+        assertThat(cursor.poll(20)).isEmpty();
+        assertThat(target.getEnrollmentsForStudent("S1"))
+                .extracting(Enrollment::getStatus, Enrollment::getVersion)
+                .containsExactly(tuple(EnrollmentStatus.DROPPED, records.get(0).getVersion()),
+                        tuple(EnrollmentStatus.ENROLLED, records.get(1).getVersion()));
+        assertThat(target.getEnrollment("S1", "CS101", "Fall 2025").getGrades()).containsEntry(GradeType.QUIZ, 80.0);
+        assertThat(target.getStudentsForCourse("CS101")).containsExactly("S1");
+        assertThat(target.getHold("S2", "CS101", "Fall 2025")).isEqualTo(hold);
+        assertThat(target.getAvailableSeats("CS101", "Fall 2025")).isZero();
+    }
+}
@@ -0,0 +1,118 @@
+package repository;
+
+import model.Instructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcInstructorRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    private JdbcInstructorRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        repository = new JdbcInstructorRepository(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCreateInstructor_IndexedLookups() {
+        // Given
+        repository.createInstructor(new Instructor("I1", "Ada Lovelace", new HashSet<>(Set.of("CS101", "CS201")), "CS"));
+        repository.createInstructor(new Instructor("I2", "Alan Turing", new HashSet<>(Set.of("CS201")), "CS"));
+        repository.createInstructor(new Instructor("I3", "Emmy Noether", new HashSet<>(Set.of("MATH101")), "MATH"));
+
+        // Then
+        assertThat(repository.getById("I1").getCoursesTaught()).containsExactlyInAnyOrder("CS101", "CS201");
+        assertThat(repository.searchByNameToken("TURING")).extracting(Instructor::getId).containsExactly("I2");
+        assertThat(repository.findByCourse("CS201")).extracting(Instructor::getId).containsExactlyInAnyOrder("I1", "I2");
+        assertThat(repository.findByCourse("CS201"))
+                .filteredOn(instructor -> instructor.getId().equals("I1"))
+                .flatExtracting(Instructor::getCoursesTaught)
+                .containsExactlyInAnyOrder("CS101", "CS201");
+        assertThat(repository.findByDepartment("MATH")).extracting(Instructor::getId).containsExactly("I3");
+        assertThat(repository.listAll()).extracting(Instructor::getId).containsExactly("I1", "I2", "I3");
+    }
+
+    @Test
+    void testCreateInstructor_DuplicateRejected() {
+        // Given
+        repository.createInstructor(new Instructor("I1", "Ada Lovelace", new HashSet<>(), "CS"));
+
+        // Then
+        assertThatThrownBy(() -> repository.createInstructor(new Instructor("I1", "Other", new HashSet<>(), "CS")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Instructor with this ID already exists or is invalid");
+    }
+
+    @Test
+    void testAssignCourse_UpdatesCourseIndex() {
+        // Given
+        repository.createInstructor(new Instructor("I1", "Ada Lovelace", new HashSet<>(Set.of("CS101")), "CS"));
+
+        // When
+        repository.assignCourse("I1", "CS301");
+        repository.assignCourse("I1", "CS301");
+        repository.unassignCourse("I1", "CS101");
+
+        // Then
+        assertThat(repository.getById("I1").getCoursesTaught()).containsExactly("CS301");
+        assertThat(repository.findByCourse("CS101")).isEmpty();
+        assertThatThrownBy(() -> repository.assignCourse("I9", "CS101"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Instructor not found: I9");
+    }
+
+    @Test
+    void testDeleteInstructor_RemovesFromAllIndexes() {
+        // Given
+        repository.createInstructor(new Instructor("I1", "Ada Lovelace", new HashSet<>(Set.of("CS101")), "CS"));
+
+        // When
+        repository.deleteInstructor("I1");
+
+        // Then
+        assertThat(repository.getById("I1")).isNull();
+        assertThat(repository.searchByNameToken("ada")).isEmpty();
+        assertThat(repository.findByCourse("CS101")).isEmpty();
+        assertThat(repository.findByDepartment("CS")).isEmpty();
+    }
+
+    @Test
+    void testAssignCourse_RefusedCheckRollsBack() {
+        // Given
+        repository.createInstructor(new Instructor("I1", "Ada Lovelace", new HashSet<>(Set.of("CS101")), "CS"));
+        List<Set<String>> seen = new ArrayList<>();
+
+        // When
+        assertThatThrownBy(() -> repository.assignCourse("I1", "CS201", taught -> {
+            seen.add(Set.copyOf(taught));
+            throw new IllegalArgumentException("conflict");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        assertThat(seen).containsExactly(Set.of("CS101"));
+        assertThat(repository.getById("I1").getCoursesTaught()).containsExactly("CS101");
+        assertThat(repository.findByCourse("CS201")).isEmpty();
+    }
+}
@@ -0,0 +1,124 @@
+package repository;
+
+import model.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcNotificationRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    private JdbcNotificationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        repository = new JdbcNotificationRepository(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testAddNotification_RoundTripsAndIgnoresDuplicates() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2025, 9, 1, 8, 30);
+        repository.addNotification(new Notification("N1", "S1", "Welcome", at, false));
+
+        // When
+        repository.addNotification(new Notification("N1", "S1", "Duplicate", at, false));
+
+        // Then
+        List<Notification> notifications = repository.getNotificationsForRecipient("S1");
+        assertThat(notifications).hasSize(1);
+        assertThat(notifications.get(0).getMessage()).isEqualTo("Welcome");
+        assertThat(notifications.get(0).getScheduledTime()).isEqualTo(at);
+    }
+
+    @Test
+    void testAddNotifications_SkipsTakenIds() {
+        // Given
+        repository.addNotification(new Notification("N2", "S1", "Existing", null, false));
+
+        // When
+        repository.addNotifications(List.of(new Notification("N1", "S1", "One", null, false),
+                new Notification("N2", "S1", "Clash", null, false),
+                new Notification("N3", "S2", "Three", null, false)));
+
+        // Then
+        assertThat(repository.getNotificationsForRecipient("S1")).extracting(Notification::getMessage)
+                .containsExactly("One", "Existing");
+        assertThat(repository.getPendingNotifications()).extracting(Notification::getId)
+                .containsExactly("N1", "N2", "N3");
+    }
+
+    @Test
+    void testMarkAsSent_RemovesFromPending() {
+        // Given
+        repository.addNotification(new Notification("N1", "S1", "One", null, false));
+        repository.addNotification(new Notification("N2", "S1", "Two", null, false));
+
+        // When
+        repository.markAsSent("N1");
+
+        // Then
+        assertThat(repository.getPendingNotifications()).extracting(Notification::getId).containsExactly("N2");
+        assertThat(repository.getNotificationsForRecipient("S1")).hasSize(2);
+        assertThatThrownBy(() -> repository.markAsSent("N9"))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Notification not found: N9");
+    }
+
+    @Test
+    void testDeleteForRecipient_CountsRemoved() {
+        // Given
+        repository.addNotification(new Notification("N1", "S1", "One", null, false));
+        repository.addNotification(new Notification("N2", "S1", "Two", null, true));
+        repository.addNotification(new Notification("N3", "S2", "Three", null, false));
+
+        // When
+        int removed = repository.deleteForRecipient("S1");
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(repository.deleteForRecipient("S1")).isZero();
+        assertThat(repository.getPendingNotifications()).extracting(Notification::getId).containsExactly("N3");
+        assertThatThrownBy(() -> repository.deleteNotification("N1"))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void testPages_RecipientAndPendingInIdOrder() {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            repository.addNotification(new Notification("N" + i, i < 4 ? "S1" : "S2", "Message " + i, null, i == 1));
+        }
+
+        // When
+        Page<Notification> recipient = repository.getNotificationsForRecipient("S1", null, 3);
+        Page<Notification> pending = repository.getPendingNotifications("N2", 2);
+
+        // Then
+        assertThat(recipient.items()).extracting(Notification::getId).containsExactly("N0", "N1", "N2");
+        assertThat(recipient.hasNext()).isTrue();
+        assertThat(repository.getNotificationsForRecipient("S1", recipient.nextCursor(), 3).items())
+                .extracting(Notification::getId).containsExactly("N3");
+        assertThat(pending.items()).extracting(Notification::getId).containsExactly("N3", "N4");
+        assertThat(repository.streamPendingNotifications().map(Notification::getId))
+                .containsExactly("N0", "N2", "N3", "N4", "N5");
+    }
+}
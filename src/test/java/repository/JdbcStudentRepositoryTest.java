@@ -0,0 +1,182 @@
+package repository;
+
+import events.ChangeCursor;
+import events.ChangeEvent;
+import events.ChangeType;
+import model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JdbcStudentRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcDatabase database;
+
+    private JdbcStudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = JdbcDatabase.file(directory.resolve("sms"));
+        repository = new JdbcStudentRepository(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCreateStudent_RoundTripsAllFields() {
+        // Given
+        Student student = student("1", "John Doe", "john.doe@example.com");
+        student.setPhone("555-0100");
+        student.getAttributes().put("nationality", "GH");
+
+        // When
+        repository.createStudent(student);
+
+        // Then
+        Student retrieved = repository.getById("1");
+        assertThat(retrieved.getFullName()).isEqualTo("John Doe");
+        assertThat(retrieved.getEmail()).isEqualTo("john.doe@example.com");
+        assertThat(retrieved.getPhone()).isEqualTo("555-0100");
+        assertThat(retrieved.getAttributes()).isEqualTo(Map.of("nationality", "GH"));
+        assertThat(retrieved.getVersion()).isEqualTo(1);
+        assertThat(repository.getById("2")).isNull();
+        assertThat(repository.getById(null)).isNull();
+    }
+
+    @Test
+    void testCreateStudent_InvalidOrDuplicateRejected() {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john.doe@example.com"));
+
+        // Then
+        assertThatThrownBy(() -> repository.createStudent(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Student cannot be null");
+        assertThatThrownBy(() -> repository.createStudent(student(null, "Jane Doe", "jane@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Student, id, email cannot be null");
+        assertThatThrownBy(() -> repository.createStudent(student("1", "Jane Doe", "jane@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        assertThatThrownBy(() -> repository.createStudent(student("2", "Jane Doe", "john.doe@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+    }
+
+    @Test
+    void testCreateStudents_BatchIsAllOrNothing() {
+        // Given
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            students.add(student("S" + i, "Student Number" + i, "s" + i + "@example.com"));
+        }
+        repository.createStudents(students);
+        List<Student> clash = List.of(student("X1", "New Student", "x1@example.com"),
+                student("X2", "Other Student", "s5@example.com"));
+
+        // When / Then
+        assertThatThrownBy(() -> repository.createStudents(clash))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.getById("S1199").getEmail()).isEqualTo("s1199@example.com");
+        assertThat(repository.getById("X1")).isNull();
+        assertThat(repository.searchByNameToken("number7")).extracting(Student::getId).containsExactly("S7");
+    }
+
+    @Test
+    void testSearchByNameToken_CaseInsensitive() {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john@example.com"));
+        repository.createStudent(student("2", "Jane Doe", "jane@example.com"));
+
+        // When
+        List<Student> does = repository.searchByNameToken("DOE");
+
+        // Then
+        assertThat(does).extracting(Student::getId).containsExactlyInAnyOrder("1", "2");
+        assertThat(repository.searchByNameToken("john")).extracting(Student::getId).containsExactly("1");
+    }
+
+    @Test
+    void testGetByIds_OneStatementForAnyNumberOfIds() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            Student student = student("S" + i, "Student " + i, "s" + i + "@example.com");
+            student.getAttributes().put("year", String.valueOf(i));
+            repository.createStudent(student);
+        }
+
+        // When
+        Map<String, Student> found = repository.getByIds(List.of("S3", "missing", "S0", "S3"));
+        int statements = database.preparedStatementCount();
+        Map<String, Student> more = repository.getByIds(List.of("S1", "S2", "S4"));
+
+        // Then
+        assertThat(found.keySet()).containsExactly("S3", "S0");
+        assertThat(found.get("S3").getAttributes()).containsEntry("year", "3");
+        assertThat(more).containsOnlyKeys("S1", "S2", "S4");
+        assertThat(database.preparedStatementCount()).isEqualTo(statements);
+        assertThat(repository.getByIds(List.of())).isEmpty();
+    }
+
+    @Test
+    void testCompareAndSet_ReplacesOnlyMatchingVersion() {
+        // Given
+        repository.createStudent(student("1", "John Doe", "john@example.com"));
+        Student updated = repository.getById("1").copy();
+        updated.setFullName("Johnny Walker");
+
+        // When
+        boolean swapped = repository.compareAndSet("1", 1, updated);
+        boolean stale = repository.compareAndSet("1", 1, updated.copy());
+
+        // Then
+        assertThat(swapped).isTrue();
+        assertThat(stale).isFalse();
+        assertThat(repository.getById("1").getVersion()).isEqualTo(2);
+        assertThat(repository.searchByNameToken("doe")).isEmpty();
+        assertThat(repository.searchByNameToken("walker")).extracting(Student::getId).containsExactly("1");
+    }
+
+    @Test
+    void testChangeFeed_PublishesCommittedChanges() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        JdbcStudentRepository repo = new JdbcStudentRepository(database, context);
+        ChangeCursor cursor = context.getChangeFeed().subscribe();
+        repo.createStudent(student("1", "John Doe", "john@example.com"));
+
+        // When
+        repo.deleteStudent("1");
+        repo.deleteStudent("1");
+
+        // Then
+        assertThat(cursor.poll(10))
+                .extracting(ChangeEvent::type, ChangeEvent::key)
+                .containsExactly(tuple(ChangeType.STUDENT_CREATED, "1"), tuple(ChangeType.STUDENT_DELETED, "1"));
+        assertThat(repo.getById("1")).isNull();
+    }
+
+    private static Student student(String id, String name, String email) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName(name);
+        student.setEmail(email);
+        return student;
+    }
+}
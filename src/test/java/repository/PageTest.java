@@ -0,0 +1,72 @@
+package repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageTest {
+
+    private static final List<String> KEYS = IntStream.range(0, 10).mapToObj(i -> "K" + i).toList();
+
+    @Test
+    void testOf_SkipsUnresolvedKeysAndPointsAtLastItem() {
+        // When
+        Page<String> page = Page.of(KEYS, key -> key.equals("K1") ? null : key.toLowerCase(), 3);
+        Page<String> last = Page.of(KEYS.subList(8, 10), String::toLowerCase, 3);
+
+        // Then
+        assertThat(page.items()).containsExactly("k0", "k2", "k3");
+        assertThat(page.nextCursor()).isEqualTo("K3");
+        assertThat(last.items()).containsExactly("k8", "k9");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(Page.of(KEYS.subList(0, 3), key -> key, 3).hasNext()).isFalse();
+    }
+
+    @Test
+    void testTrimmed_ExtraRowMeansAnotherPage() {
+        // When
+        Page<String> full = Page.trimmed(new ArrayList<>(KEYS.subList(0, 4)), key -> key, 3);
+        Page<String> exact = Page.trimmed(new ArrayList<>(KEYS.subList(0, 3)), key -> key, 3);
+
+        // Then
+        assertThat(full.items()).containsExactly("K0", "K1", "K2");
+        assertThat(full.nextCursor()).isEqualTo("K2");
+        assertThat(exact.hasNext()).isFalse();
+        assertThatThrownBy(() -> Page.requireLimit(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testStream_FetchesPagesOnlyAsConsumed() {
+        // Given
+        List<String> cursors = new ArrayList<>();
+
+        // When
+        List<String> firstFour = Page.<String>stream(cursor -> {
+            cursors.add(cursor);
+            int from = cursor == null ? 0 : KEYS.indexOf(cursor) + 1;
+            return Page.of(KEYS.subList(from, KEYS.size()), key -> key, 3);
+        }).limit(4).collect(Collectors.toList());
+
+        // Then
+        assertThat(firstFour).containsExactly("K0", "K1", "K2", "K3");
+        assertThat(cursors).containsExactly(null, "K2");
+    }
+
+    @Test
+    void testStream_ParallelReadsEveryPageOnce() {
+        // When
+        long sum = Page.<String>stream(cursor -> {
+            int from = cursor == null ? 0 : KEYS.indexOf(cursor) + 1;
+            return Page.of(KEYS.subList(from, KEYS.size()), key -> key, 4);
+        }).parallel().mapToLong(key -> Long.parseLong(key.substring(1))).sum();
+
+        // Then
+        assertThat(sum).isEqualTo(45);
+    }
+}
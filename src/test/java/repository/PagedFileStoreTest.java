@@ -0,0 +1,172 @@
+package repository;
+
+import codec.ModelCodecs;
+import model.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PagedFileStoreTest {
+
+    @Test
+    void testModelCodec_RoundTripsThroughPages() {
+        // Given
+        Notification sent = new Notification("N1", "S1", "Grades posted",
+                LocalDateTime.of(2025, 9, 1, 8, 30, 0, 250), true);
+        try (PagedFileStore<Notification> store = new PagedFileStore<>(directory.resolve("n.pages"),
+                RecordCodec.of(ModelCodecs.NOTIFICATION), 1, 1)) {
+            // When
+            store.put("N1", sent);
+            store.put("N2", new Notification("N2", "S2", "Welcome", null, false));
+
+            // Then
+            Notification read = store.get("N1");
+            assertThat(read.getMessage()).isEqualTo("Grades posted");
+            assertThat(read.getScheduledTime()).isEqualTo(sent.getScheduledTime());
+            assertThat(read.isSent()).isTrue();
+            assertThat(store.get("N2").getScheduledTime()).isNull();
+        }
+    }
+
+    @Test
+    void testCompact_ReclaimsReplacedAndRemovedRecords() {
+        // Given
+        try (PagedFileStore<String> store = new PagedFileStore<>(directory.resolve("s.pages"), STRINGS, 2, 4)) {
+            store.put("a", "alpha");
+            store.put("b", "beta");
+            store.put("c", "gamma");
+            store.put("d", "delta");
+            store.put("a", "again");
+            store.remove("c");
+            store.put("e", "epsilon");  // stays in the open page
+            long before = store.fileSize();
+
+            // When
+            long reclaimed = store.compact();
+
+            // Then
+            assertThat(reclaimed).isPositive();
+            assertThat(store.fileSize()).isEqualTo(before - reclaimed);
+            assertThat(store.get("a")).isEqualTo("again");
+            assertThat(store.get("b")).isEqualTo("beta");
+            assertThat(store.get("c")).isNull();
+            assertThat(store.get("d")).isEqualTo("delta");
+            assertThat(store.get("e")).isEqualTo("epsilon");
+            assertThat(store.size()).isEqualTo(4);
+
+            // When
+            store.put("f", "phi");  // fills the open page after compaction
+
+            // Then
+            assertThat(store.get("e")).isEqualTo("epsilon");
+            assertThat(store.get("f")).isEqualTo("phi");
+        }
+    }
+
+    @Test
+    void testPut_CompactsOnceGarbageOutweighsLiveData() {
+        // Given
+        String large = "x".repeat(4096);
+        try (PagedFileStore<String> store = new PagedFileStore<>(directory.resolve("s.pages"), STRINGS, 1, 2)) {
+            // When
+            for (int i = 0; i < 200; i++) {
+                store.put("k" + (i % 4), large + i);
+            }
+
+            // Then
+            assertThat(store.compactions()).isPositive();
+            assertThat(store.fileSize()).isLessThan(2 * PagedFileStore.MIN_GARBAGE_BYTES + 4 * 5000);
+            for (int k = 0; k < 4; k++) {
+                assertThat(store.get("k" + k)).isEqualTo(large + (196 + k));
+            }
+        }
+    }
+
+    private static final RecordCodec<String> STRINGS = new RecordCodec<>() {
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            RecordCodec.writeString(out, value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return RecordCodec.readString(in);
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGet_ReadsOpenAndWrittenPages() {
+        // Given
+        try (PagedFileStore<String> store = new PagedFileStore<>(directory.resolve("s.pages"), STRINGS, 2, 4)) {
+            // When
+            store.put("a", "alpha");
+            store.put("b", "beta");   // fills and writes page 0
+            store.put("c", "gamma");  // stays in the open page
+
+            // Then
+            assertThat(store.get("a")).isEqualTo("alpha");
+            assertThat(store.get("b")).isEqualTo("beta");
+            assertThat(store.get("c")).isEqualTo("gamma");
+            assertThat(store.get("missing")).isNull();
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.pageReads()).isEqualTo(1);
+            assertThat(store.cacheHits()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsedPage() {
+        // Given
+        try (PagedFileStore<String> store = new PagedFileStore<>(directory.resolve("s.pages"), STRINGS, 1, 2)) {
+            store.put("a", "alpha");
+            store.put("b", "beta");
+            store.put("c", "gamma");
+
+            // When
+            store.get("a");
+            store.get("b");
+            store.get("a");  // cached
+            store.get("c");  // evicts b
+            store.get("b");  // read again
+
+            // Then
+            assertThat(store.pageReads()).isEqualTo(4);
+            assertThat(store.cacheHits()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testPut_ReplacesAndRemoveReturnsRecord() {
+        // Given
+        try (PagedFileStore<String> store = new PagedFileStore<>(directory.resolve("s.pages"), STRINGS, 1, 2)) {
+            store.put("a", "alpha");
+
+            // When
+            store.put("a", "again");
+            String removed = store.remove("a");
+
+            // Then
+            assertThat(removed).isEqualTo("again");
+            assertThat(store.contains("a")).isFalse();
+            assertThat(store.remove("a")).isNull();
+        }
+    }
+
+    @Test
+    void testConstructor_RejectsNonPositiveSizes() {
+        assertThatThrownBy(() -> new PagedFileStore<>(directory.resolve("s.pages"), STRINGS, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Records per page and cached pages must be positive");
+    }
+}
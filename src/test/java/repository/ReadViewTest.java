@@ -0,0 +1,71 @@
+package repository;
+
+import model.Course;
+import model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadViewTest {
+
+    private StorageContext context;
+    private StudentRepository students;
+    private CourseRepository courses;
+    private EnrollmentRepository enrollments;
+
+    @BeforeEach
+    void setUp() {
+        context = StorageContext.standard();
+        students = new InMemoryStudentRepository(context);
+        courses = new InMemoryCourseRepository(context);
+        enrollments = new InMemoryEnrollmentRepository(context);
+
+        Student student = new Student();
+        student.setId("S1");
+        student.setFullName("John Doe");
+        student.setEmail("john@example.com");
+        students.createStudent(student);
+        courses.createCourse(new Course("CS101", "Intro", 3, "CS", new HashSet<>(), new HashSet<>()));
+        enrollments.enroll("S1", "CS101", "Fall 2025");
+    }
+
+    @Test
+    void testReadView_SeesOneStateAcrossRepositories() {
+        // Given
+        try (ReadView view = ReadView.open(context.getSnapshots(), students, courses, enrollments)) {
+
+            // When
+            enrollments.drop("S1", "CS101", "Fall 2025");
+            students.deleteStudent("S1");
+            Course renamed = courses.getByCode("CS101").copy();
+            renamed.setTitle("Intro to CS");
+            courses.compareAndSet("CS101", 1, renamed);
+
+            // Then
+            assertThat(view.getStudentsForCourse("CS101")).containsExactly("S1");
+            assertThat(view.getStudent("S1").getFullName()).isEqualTo("John Doe");
+            assertThat(view.getCourse("CS101").getTitle()).isEqualTo("Intro");
+            assertThat(view.listCoursesByDepartment("CS")).hasSize(1);
+            assertThat(view.getEnrollmentsForStudent("S1")).hasSize(1);
+            assertThat(enrollments.getStudentsForCourse("CS101")).isEmpty();
+            assertThat(students.getById("S1")).isNull();
+        }
+    }
+
+    @Test
+    void testClose_ReleasesSnapshotAndReclaimsVersions() {
+        // Given
+        ReadView view = ReadView.open(context.getSnapshots(), students, courses, enrollments);
+        students.deleteStudent("S1");
+
+        // When
+        view.close();
+
+        // Then
+        assertThat(context.getSnapshots().activeCount()).isZero();
+        assertThat(context.getSnapshots().reclaim()).isZero();
+    }
+}
@@ -0,0 +1,164 @@
+package repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatLedgerTest {
+
+    @Test
+    void testTrySeat_RespectsCapacity() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+        ledger.register("S1");
+        ledger.register("S2");
+
+        // Then
+        assertThat(ledger.trySeat("S1")).isTrue();
+        assertThat(ledger.trySeat("S2")).isFalse();
+        assertThat(ledger.taken()).isEqualTo(1);
+        assertThat(ledger.stateOf("S1")).isEqualTo(SeatLedger.State.ENROLLED);
+        assertThat(ledger.stateOf("S2")).isEqualTo(SeatLedger.State.WAITLISTED);
+    }
+
+    @Test
+    void testRegister_ReturnsExistingState() {
+        // Given
+        SeatLedger ledger = new SeatLedger(SeatLedger.UNLIMITED);
+        ledger.register("S1");
+        ledger.trySeat("S1");
+
+        // Then
+        assertThat(ledger.register("S1")).isEqualTo(SeatLedger.State.ENROLLED);
+    }
+
+    @Test
+    void testPromote_SkipsRemovedEntries() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+        for (String id : new String[]{"S1", "S2", "S3"}) {
+            ledger.register(id);
+            if (!ledger.trySeat(id)) {
+                ledger.enqueue(id);
+            }
+        }
+        ledger.remove("S2");
+
+        // When
+        ledger.remove("S1");
+
+        // Then
+        assertThat(ledger.promote()).containsExactly("S3");
+        assertThat(ledger.taken()).isEqualTo(1);
+        assertThat(ledger.waitlisted()).isEmpty();
+    }
+
+    @Test
+    void testPromote_ReturnsSeatWhenOnlyStaleEntriesRemain() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+        ledger.register("S1");
+        ledger.trySeat("S1");
+        ledger.register("S2");
+        ledger.enqueue("S2");
+        ledger.remove("S2");
+        ledger.remove("S1");
+
+        // When
+        ledger.promote();
+
+        // Then
+        assertThat(ledger.taken()).isZero();
+        assertThat(ledger.available()).isEqualTo(1);
+    }
+
+    @Test
+    void testTryHold_CountsAsTakenSeat() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+
+        // When
+        boolean held = ledger.tryHold("S1");
+
+        // Then
+        assertThat(held).isTrue();
+        assertThat(ledger.tryHold("S2")).isFalse();
+        assertThat(ledger.stateOf("S1")).isEqualTo(SeatLedger.State.HELD);
+        assertThat(ledger.available()).isZero();
+    }
+
+    @Test
+    void testConfirmAndReleaseHold() {
+        // Given
+        SeatLedger ledger = new SeatLedger(2);
+        ledger.tryHold("S1");
+        ledger.tryHold("S2");
+
+        // When
+        boolean confirmed = ledger.confirmHold("S1");
+        boolean released = ledger.releaseHold("S2");
+
+        // Then
+        assertThat(confirmed).isTrue();
+        assertThat(released).isTrue();
+        assertThat(ledger.releaseHold("S1")).isFalse();
+        assertThat(ledger.stateOf("S1")).isEqualTo(SeatLedger.State.ENROLLED);
+        assertThat(ledger.taken()).isEqualTo(1);
+    }
+
+    @Test
+    void testPromote_ReRegisteredStudentQueuesAtBack() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+        for (String id : new String[]{"S1", "A", "B"}) {
+            ledger.register(id);
+            if (!ledger.trySeat(id)) {
+                ledger.enqueue(id);
+            }
+        }
+        ledger.remove("A");
+        ledger.register("A");
+        ledger.enqueue("A");
+
+        // When
+        ledger.remove("S1");
+
+        // Then
+        assertThat(ledger.promote()).containsExactly("B");
+        assertThat(ledger.stateOf("A")).isEqualTo(SeatLedger.State.WAITLISTED);
+        assertThat(ledger.waitlisted()).containsExactly("A");
+    }
+
+    @Test
+    void testTrySeat_NewcomerDoesNotJumpWaitlist() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+        ledger.register("S1");
+        ledger.enqueue("S1");
+        ledger.register("S2");
+
+        // Then
+        assertThat(ledger.trySeat("S2")).isFalse();
+        assertThat(ledger.promote()).containsExactly("S1");
+        assertThat(ledger.taken()).isEqualTo(1);
+    }
+
+    @Test
+    void testRestore_SetsStateWithoutCapacityOrPromotion() {
+        // Given
+        SeatLedger ledger = new SeatLedger(1);
+        ledger.restore("S1", SeatLedger.State.ENROLLED);
+        ledger.restore("S2", SeatLedger.State.WAITLISTED);
+
+        // When
+        ledger.restore("S3", SeatLedger.State.HELD);
+        ledger.restore("S1", null);
+
+        // Then
+        assertThat(ledger.taken()).isEqualTo(1);
+        assertThat(ledger.stateOf("S1")).isNull();
+        assertThat(ledger.stateOf("S3")).isEqualTo(SeatLedger.State.HELD);
+        assertThat(ledger.waitlisted()).containsExactly("S2");
+        assertThat(ledger.available()).isZero();
+    }
+}
@@ -0,0 +1,135 @@
+package repository;
+
+import model.Course;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedCourseRepositoryTest {
+
+    private StorageContext context;
+
+    private ShardedCourseRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        context = StorageContext.standard();
+        repository = new ShardedCourseRepository(3, context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void testCreateCourse_DuplicateAndNullCodeRejected() {
+        // Given
+        repository.createCourse(course("CS101", "CS"));
+
+        // Then
+        assertThat(repository.getByCode("CS101").getDepartment()).isEqualTo("CS");
+        assertThat(repository.getByCode(null)).isNull();
+        assertThatThrownBy(() -> repository.createCourse(course("CS101", "CS")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course with code CS101 already exists");
+        assertThatThrownBy(() -> repository.createCourse(course(null, "CS")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course code cannot be null");
+    }
+
+    @Test
+    void testListByDepartment_MergesShardsInCodeOrder() {
+        // Given
+        for (int i = 30; i > 0; i--) {
+            repository.createCourse(course(String.format("CS%03d", i), "CS"));
+            repository.createCourse(course(String.format("MA%03d", i), "MATH"));
+        }
+
+        // When
+        List<Course> courses = repository.listByDepartment("CS");
+
+        // Then
+        assertThat(courses).hasSize(30).extracting(Course::getCode).isSorted().startsWith("CS001");
+        assertThat(repository.listByDepartment(null)).isEmpty();
+        assertThat(repository.listByDepartment("BIO")).isEmpty();
+    }
+
+    @Test
+    void testListByDepartment_SnapshotIgnoresLaterChanges() {
+        // Given
+        repository.createCourse(course("CS101", "CS"));
+        repository.createCourse(course("CS102", "CS"));
+
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            Course moved = repository.getByCode("CS102").copy();
+            moved.setDepartment("MATH");
+            assertThat(repository.compareAndSet("CS102", 1, moved)).isTrue();
+            repository.deleteCourse("CS101");
+
+            // Then
+            assertThat(repository.listByDepartment("CS")).isEmpty();
+            assertThat(repository.listByDepartment("CS", snapshot)).extracting(Course::getCode)
+                    .containsExactly("CS101", "CS102");
+            assertThat(repository.getByCode("CS101", snapshot)).isNotNull();
+        }
+    }
+
+    @Test
+    void testPurgeTombstones_SumsOverShards() {
+        // Given
+        for (int i = 0; i < 9; i++) {
+            repository.createCourse(course("CS10" + i, "CS"));
+        }
+        for (int i = 0; i < 9; i++) {
+            repository.deleteCourse("CS10" + i);
+        }
+
+        // When
+        int pending = repository.pendingTombstones();
+        int purged = repository.purgeTombstones(100);
+
+        // Then
+        assertThat(pending).isEqualTo(9);
+        assertThat(purged).isEqualTo(9);
+        assertThat(repository.pendingTombstones()).isZero();
+    }
+
+    @Test
+    void testListByDepartment_PagesMergeShardsInCodeOrder() {
+        // Given
+        for (int i = 30; i > 0; i--) {
+            repository.createCourse(course(String.format("CS%03d", i), "CS"));
+        }
+
+        // When
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Course> page = repository.listByDepartment("CS", cursor, 7);
+            page.items().forEach(course -> codes.add(course.getCode()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(pages).isEqualTo(5);
+        assertThat(codes).hasSize(30).isSorted().doesNotHaveDuplicates();
+        assertThat(repository.streamByDepartment("CS").parallel().count()).isEqualTo(30);
+    }
+
+    private static Course course(String code, String department) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setTitle("Course " + code);
+        course.setDepartment(department);
+        return course;
+    }
+}
@@ -0,0 +1,198 @@
+package repository;
+
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedEnrollmentRepositoryTest {
+
+    private static final String FALL = "Fall 2025";
+
+    private MutableClock clock;
+
+    private ShardedEnrollmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        repository = new ShardedEnrollmentRepository(4, StorageContext.builder().clock(clock).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void testEnroll_SeatRulesStayOnTheCourseShard() {
+        // Given
+        repository.setCapacity("CS101", 2);
+
+        // When
+        EnrollmentStatus first = repository.enroll("S1", "CS101", FALL);
+        EnrollmentStatus second = repository.enroll("S2", "CS101", FALL);
+        EnrollmentStatus third = repository.enroll("S3", "CS101", FALL);
+        repository.drop("S1", "CS101", FALL);
+
+        // Then
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(second).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(third).isEqualTo(EnrollmentStatus.WAITLISTED);
+        assertThat(repository.getStudentsForCourse("CS101")).containsExactlyInAnyOrder("S2", "S3");
+        assertThat(repository.getWaitlist("CS101", FALL)).isEmpty();
+        assertThat(repository.getAvailableSeats("CS101", FALL)).isZero();
+    }
+
+    @Test
+    void testGetEnrollmentsForStudent_GathersAcrossShards() {
+        // Given
+        for (int i = 0; i < 12; i++) {
+            repository.enroll("S1", "C" + i, FALL);
+        }
+        repository.enroll("S2", "C0", FALL);
+
+        // When
+        List<Enrollment> enrollments = repository.getEnrollmentsForStudent("S1");
+        int removed = repository.removeStudent("S1");
+
+        // Then
+        assertThat(enrollments).hasSize(12).extracting(Enrollment::getCourseCode).doesNotHaveDuplicates();
+        assertThat(removed).isEqualTo(12);
+        assertThat(repository.getEnrollmentsForStudent("S1")).isEmpty();
+        assertThat(repository.getStudentsForCourse("C0")).containsExactly("S2");
+    }
+
+    @Test
+    void testRecordGradeAndCompareAndSet_RoutedToCourseShard() {
+        // Given
+        repository.enroll("S1", "CS101", FALL);
+
+        // When
+        Enrollment graded = repository.recordGrade("S1", "CS101", FALL, GradeType.FINAL, 91);
+        Enrollment updated = graded.copy();
+        boolean swapped = repository.compareAndSet("S1", "CS101", FALL, graded.getVersion(), updated);
+
+        // Then
+        assertThat(swapped).isTrue();
+        assertThat(repository.getEnrollment("S1", "CS101", FALL).getGrades()).containsEntry(GradeType.FINAL, 91.0);
+        assertThatThrownBy(() -> repository.recordGrade("S9", "CS101", FALL, GradeType.FINAL, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFreezeSemester_FreezesEveryShard() {
+        // Given
+        for (int i = 0; i < 8; i++) {
+            repository.enroll("S" + i, "C" + i, FALL);
+        }
+
+        // When
+        int frozen = repository.freezeSemester(FALL);
+
+        // Then
+        assertThat(frozen).isEqualTo(8);
+        assertThat(repository.getEnrollment("S3", "C3", FALL)).isNotNull();
+        assertThatThrownBy(() -> repository.enroll("S1", "C5", FALL))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.freezeSemester(FALL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testExpireHolds_SplitsHoldsByShard() {
+        // Given
+        List<SeatHold> holds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            repository.setCapacity("C" + i, 1);
+            holds.add(repository.placeHold("S" + i, "C" + i, FALL, Duration.ofMinutes(5)));
+        }
+        repository.enroll("W1", "C0", FALL);
+        clock.advance(Duration.ofMinutes(6));
+
+        // When
+        int released = repository.expireHolds(holds);
+
+        // Then
+        assertThat(released).isEqualTo(8);
+        assertThat(repository.getStudentsForCourse("C0")).containsExactly("W1");
+        assertThat(repository.getAvailableSeats("C7", FALL)).isEqualTo(1);
+        assertThat(repository.expireHolds(List.of())).isZero();
+    }
+
+    @Test
+    void testEnroll_ConcurrentWritersNeverOverbook() throws Exception {
+        // Given
+        for (int c = 0; c < 8; c++) {
+            repository.setCapacity("C" + c, 10);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<EnrollmentStatus>> results = new ArrayList<>();
+
+        // When
+        for (int s = 0; s < 40; s++) {
+            for (int c = 0; c < 8; c++) {
+                String student = "S" + s;
+                String course = "C" + c;
+                results.add(pool.submit(() -> repository.enroll(student, course, FALL)));
+            }
+        }
+        for (Future<EnrollmentStatus> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        for (int c = 0; c < 8; c++) {
+            assertThat(repository.getStudentsForCourse("C" + c)).hasSize(10);
+            assertThat(repository.getWaitlist("C" + c, FALL)).hasSize(30);
+        }
+    }
+
+    @Test
+    void testStreamEnrollments_ConcatenatesShards() {
+        // Given
+        for (int i = 0; i < 40; i++) {
+            repository.enroll("S" + i, "C" + (i % 10), "Fall 2025");
+        }
+
+        // When
+        long count = repository.streamEnrollments().parallel().map(Enrollment::getCourseCode).distinct().count();
+
+        // Then
+        assertThat(count).isEqualTo(10);
+        assertThat(repository.streamEnrollments().count()).isEqualTo(40);
+    }
+
+    @Test
+    void testRestore_RunsOnTheCourseShard() {
+        // Given
+        repository.setCapacity("C3", 1);
+        SeatHold hold = new SeatHold("S1", "C3", FALL, clock.instant().plus(Duration.ofMinutes(5)));
+
+        // When
+        repository.restore("S1", "C3", FALL, List.of(), hold);
+
+        // Then
+        assertThat(repository.getHold("S1", "C3", FALL)).isEqualTo(hold);
+        assertThat(repository.getAvailableSeats("C3", FALL)).isZero();
+        assertThat(repository.confirmHold("S1", "C3", FALL)).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+}
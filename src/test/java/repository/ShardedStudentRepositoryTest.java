@@ -0,0 +1,178 @@
+package repository;
+
+import model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedStudentRepositoryTest {
+
+    private StorageContext context;
+
+    private ShardedStudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        context = StorageContext.standard();
+        repository = new ShardedStudentRepository(4, context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void testCreateStudent_StoredOnOneShardAndReadable() {
+        // When
+        for (int i = 0; i < 20; i++) {
+            repository.createStudent(student("S" + i, "Student Number" + i));
+        }
+
+        // Then
+        assertThat(repository.shardCount()).isEqualTo(4);
+        assertThat(repository.getById("S7").getFullName()).isEqualTo("Student Number7");
+        assertThat(repository.getById("S99")).isNull();
+        assertThat(repository.getById(null)).isNull();
+    }
+
+    @Test
+    void testCreateStudent_EmailUniqueAcrossShards() {
+        // Given
+        repository.createStudent(student("S1", "Ada Lovelace"));
+        Student sameEmail = student("S2", "Grace Hopper");
+        sameEmail.setEmail("S1@example.edu");
+
+        // Then
+        assertThatThrownBy(() -> repository.createStudent(sameEmail))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student with this id or email already exists");
+        assertThatThrownBy(() -> repository.createStudent(student("S1", "Again")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.getById("S2")).isNull();
+        // The rejected duplicate ID must not have kept its own email reserved.
+        repository.createStudent(student("S3", "Alan Turing"));
+    }
+
+    @Test
+    void testSearchByNameToken_GathersFromEveryShard() {
+        // Given
+        for (int i = 0; i < 40; i++) {
+            repository.createStudent(student("S" + i, (i % 2 == 0 ? "Kofi " : "Ama ") + "Mensah"));
+        }
+
+        // When
+        List<Student> kofis = repository.searchByNameToken("KOFI");
+        List<Student> mensahs = repository.searchByNameToken("mensah");
+
+        // Then
+        assertThat(kofis).hasSize(20).allMatch(s -> s.getFullName().startsWith("Kofi"));
+        assertThat(mensahs).hasSize(40);
+    }
+
+    @Test
+    void testCompareAndSet_MovesEmailReservation() {
+        // Given
+        repository.createStudent(student("S1", "Ada Lovelace"));
+        repository.createStudent(student("S2", "Grace Hopper"));
+        Student updated = repository.getById("S1").copy();
+        updated.setEmail("ada@example.edu");
+
+        // When
+        boolean swapped = repository.compareAndSet("S1", 1, updated);
+        boolean stale = repository.compareAndSet("S1", 1, repository.getById("S1").copy());
+        Student taken = repository.getById("S2").copy();
+        taken.setEmail("ada@example.edu");
+
+        // Then
+        assertThat(swapped).isTrue();
+        assertThat(stale).isFalse();
+        assertThat(repository.getById("S1").getVersion()).isEqualTo(2);
+        assertThatThrownBy(() -> repository.compareAndSet("S2", 1, taken))
+                .isInstanceOf(IllegalArgumentException.class);
+        repository.createStudent(student("S3", "Alan Turing", "S1@example.edu"));
+    }
+
+    @Test
+    void testDeleteStudent_ReleasesEmailAndLeavesTombstone() {
+        // Given
+        repository.createStudent(student("S1", "Ada Lovelace"));
+
+        // When
+        repository.deleteStudent("S1");
+        repository.deleteStudent("missing");
+
+        // Then
+        assertThat(repository.getById("S1")).isNull();
+        assertThat(repository.searchByNameToken("ada")).isEmpty();
+        assertThat(repository.pendingTombstones()).isEqualTo(1);
+        assertThat(repository.purgeTombstones(10)).isEqualTo(1);
+        repository.createStudent(student("S2", "Grace Hopper", "S1@example.edu"));
+    }
+
+    @Test
+    void testGetById_SnapshotSpansShards() {
+        // Given
+        repository.createStudent(student("S1", "Ada Lovelace"));
+        try (Snapshot snapshot = context.getSnapshots().open()) {
+            repository.deleteStudent("S1");
+            repository.createStudent(student("S2", "Grace Hopper"));
+
+            // Then
+            assertThat(repository.getById("S1", snapshot)).isNotNull();
+            assertThat(repository.getById("S2", snapshot)).isNull();
+        }
+    }
+
+    @Test
+    void testCreateStudent_ConcurrentWritersSameEmailOnlyOneWins() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 64; i++) {
+            String id = "S" + i;
+            results.add(pool.submit(() -> {
+                try {
+                    repository.createStudent(student(id, "Racer", "shared@example.edu"));
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) winners++;
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(winners).isEqualTo(1);
+        assertThat(repository.searchByNameToken("racer")).hasSize(1);
+    }
+
+    private static Student student(String id, String name) {
+        return student(id, name, id + "@example.edu");
+    }
+
+    private static Student student(String id, String name, String email) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName(name);
+        student.setEmail(email);
+        return student;
+    }
+}
@@ -0,0 +1,115 @@
+package repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotManagerTest {
+
+    private SnapshotManager snapshots;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new SnapshotManager();
+    }
+
+    @Test
+    void testOpen_TracksActiveSnapshotsUntilClosed() {
+        // When
+        Snapshot first = snapshots.open();
+        Snapshot second = snapshots.open();
+
+        // Then
+        assertThat(snapshots.activeCount()).isEqualTo(2);
+        first.close();
+        first.close();
+        assertThat(snapshots.activeCount()).isEqualTo(1);
+        second.close();
+        assertThat(snapshots.activeCount()).isZero();
+    }
+
+    @Test
+    void testOpen_ReadsAtLatestCommitTimestamp() {
+        // Given
+        VersionChain<String> chain = new VersionChain<>(snapshots, "a");
+        chain.publish();
+
+        // When
+        try (Snapshot snapshot = snapshots.open()) {
+            // Then
+            assertThat(snapshot.getTimestamp()).isEqualTo(snapshots.currentTimestamp());
+            assertThat(chain.readAt(snapshot.getTimestamp())).isEqualTo("a");
+        }
+    }
+
+    @Test
+    void testReclaim_RetainsChainsUntilOldestSnapshotCloses() {
+        // Given
+        VersionChain<String> chain = new VersionChain<>(snapshots, "a");
+        chain.publish();
+        Snapshot old = snapshots.open();
+        chain.compareAndSet("a", "b");
+        Snapshot newer = snapshots.open();
+        chain.compareAndSet("b", "c");
+
+        // When
+        int retainedWhileOpen = snapshots.reclaim();
+        old.close();
+        String newerView = chain.readAt(newer.getTimestamp());
+        String oldView = chain.readAt(old.getTimestamp());
+        newer.close();
+
+        // Then
+        assertThat(retainedWhileOpen).isEqualTo(1);
+        assertThat(newerView).isEqualTo("b");
+        assertThat(oldView).isNull();
+        assertThat(snapshots.reclaim()).isZero();
+    }
+
+    @Test
+    void testSnapshot_RepeatableReadsUnderConcurrentWriters() throws Exception {
+        // Given
+        VersionChain<Integer> left = new VersionChain<>(snapshots, 50);
+        VersionChain<Integer> right = new VersionChain<>(snapshots, 50);
+        left.publish();
+        right.publish();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<?> writer = pool.submit(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                Integer l = left.latest();
+                Integer r = right.latest();
+                left.compareAndSet(l, l + 1);
+                right.compareAndSet(r, r - 1);
+            }
+            running.set(false);
+        });
+        Future<Boolean> reader = pool.submit(() -> {
+            while (running.get()) {
+                try (Snapshot snapshot = snapshots.open()) {
+                    int first = left.readAt(snapshot.getTimestamp()) + right.readAt(snapshot.getTimestamp());
+                    Thread.onSpinWait();
+                    int again = left.readAt(snapshot.getTimestamp()) + right.readAt(snapshot.getTimestamp());
+                    if (first != again) return false;
+                }
+            }
+            return true;
+        });
+
+        // Then
+        writer.get(30, TimeUnit.SECONDS);
+        assertThat(reader.get(30, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+        assertThat(snapshots.activeCount()).isZero();
+        assertThat(snapshots.reclaim()).isZero();
+    }
+}
@@ -0,0 +1,58 @@
+package repository;
+
+import org.junit.jupiter.api.Test;
+import util.CompactAttributeMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageContextTest {
+
+    @Test
+    void testStandard_LeavesValuesUntouched() {
+        // Given
+        StorageContext context = StorageContext.standard();
+        String semester = new String("Fall 2025");
+        Map<String, String> attributes = new HashMap<>();
+
+        // Then
+        assertThat(context.getMode()).isEqualTo(StorageMode.STANDARD);
+        assertThat(context.intern(semester)).isSameAs(semester);
+        assertThat(context.compactAttributes(attributes)).isSameAs(attributes);
+    }
+
+    @Test
+    void testDictionaryEncoded_InternsValues() {
+        // Given
+        StorageContext context = StorageContext.dictionaryEncoded();
+        String first = new String("Fall 2025");
+        String second = new String("Fall 2025");
+
+        // When
+        String a = context.intern(first);
+        String b = context.intern(second);
+
+        // Then
+        assertThat(a).isSameAs(b);
+        assertThat(context.intern(null)).isNull();
+        assertThat(context.getDictionary().size()).isEqualTo(1);
+    }
+
+    @Test
+    void testDictionaryEncoded_CompactsAttributes() {
+        // Given
+        StorageContext context = StorageContext.dictionaryEncoded();
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("nationality", "Ghanaian");
+
+        // When
+        Map<String, String> compact = context.compactAttributes(attributes);
+
+        // Then
+        assertThat(compact).isInstanceOf(CompactAttributeMap.class);
+        assertThat(compact).isEqualTo(attributes);
+        assertThat(context.compactAttributes(compact)).isSameAs(compact);
+    }
+}
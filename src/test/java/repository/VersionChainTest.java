@@ -0,0 +1,110 @@
+package repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionChainTest {
+
+    private SnapshotManager snapshots;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new SnapshotManager();
+    }
+
+    @Test
+    void testReadAt_ReturnsNewestVersionAtOrBeforeTimestamp() {
+        // Given
+        VersionChain<String> chain = published("a");
+        Snapshot first = snapshots.open();
+        chain.compareAndSet("a", "b");
+        Snapshot second = snapshots.open();
+        chain.compareAndSet("b", "c");
+
+        // Then
+        assertThat(chain.readAt(first.getTimestamp())).isEqualTo("a");
+        assertThat(chain.readAt(second.getTimestamp())).isEqualTo("b");
+        assertThat(chain.latest()).isEqualTo("c");
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void testReadAt_UnpublishedVersionInvisibleToOpenSnapshot() {
+        // Given
+        Snapshot snapshot = snapshots.open();
+        VersionChain<String> chain = new VersionChain<>(snapshots, "a");
+
+        // When
+        String seen = chain.readAt(snapshot.getTimestamp());
+        chain.publish();
+
+        // Then
+        assertThat(seen).isNull();
+        assertThat(chain.readAt(snapshot.getTimestamp())).isNull();
+        snapshot.close();
+    }
+
+    @Test
+    void testCompareAndSet_RejectsStaleExpectedValue() {
+        // Given
+        VersionChain<String> chain = published("a");
+
+        // When
+        boolean first = chain.compareAndSet("a", "b");
+        boolean stale = chain.compareAndSet("a", "c");
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(stale).isFalse();
+        assertThat(chain.latest()).isEqualTo("b");
+    }
+
+    @Test
+    void testDelete_RetiresOnlyAfterLastSnapshotCloses() {
+        // Given
+        VersionChain<String> chain = published("a");
+        AtomicInteger unlinked = new AtomicInteger();
+        Snapshot snapshot = snapshots.open();
+
+        // When
+        boolean deleted = chain.delete("a", unlinked::incrementAndGet);
+
+        // Then
+        assertThat(deleted).isTrue();
+        assertThat(chain.latest()).isNull();
+        assertThat(chain.isRetired()).isFalse();
+        assertThat(chain.readAt(snapshot.getTimestamp())).isEqualTo("a");
+
+        snapshot.close();
+        assertThat(chain.isRetired()).isTrue();
+        assertThat(unlinked.get()).isEqualTo(1);
+        assertThat(chain.compareAndSet(null, "b")).isFalse();
+    }
+
+    @Test
+    void testReclaim_DropsVersionsNoSnapshotCanSee() {
+        // Given
+        VersionChain<String> chain = published("a");
+        chain.compareAndSet("a", "b");
+        chain.compareAndSet("b", "c");
+
+        // When
+        boolean done = chain.reclaim(snapshots.currentTimestamp());
+
+        // Then
+        assertThat(done).isTrue();
+        assertThat(chain.readAt(0)).isNull();
+        assertThat(chain.latest()).isEqualTo("c");
+    }
+
+    private VersionChain<String> published(String value) {
+        VersionChain<String> chain = new VersionChain<>(snapshots, value);
+        chain.publish();
+        return chain;
+    }
+}
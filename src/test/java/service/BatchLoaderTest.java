@@ -0,0 +1,88 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTest {
+
+    private final List<List<String>> fetched = new ArrayList<>();
+
+    private Map<String, String> fetch(Collection<String> keys) {
+        fetched.add(new ArrayList<>(keys));
+        Map<String, String> found = new HashMap<>();
+        for (String key : keys) {
+            if (!key.startsWith("missing")) found.put(key, key.toUpperCase());
+        }
+        return found;
+    }
+
+    @Test
+    void testDispatch_CoalescesQueuedLoadsIntoOneFetch() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(this::fetch);
+        CompletableFuture<String> a = loader.load("a");
+        CompletableFuture<String> b = loader.load("b");
+        CompletableFuture<String> again = loader.load("a");
+        CompletableFuture<String> missing = loader.load("missing");
+
+        // When
+        int keys = loader.dispatch();
+
+        // Then
+        assertThat(keys).isEqualTo(3);
+        assertThat(fetched).containsExactly(List.of("a", "b", "missing"));
+        assertThat(again).isSameAs(a);
+        assertThat(a.join()).isEqualTo("A");
+        assertThat(b.join()).isEqualTo("B");
+        assertThat(missing.join()).isNull();
+        assertThat(loader.dispatch()).isZero();
+        assertThat(loader.fetchCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_CachedKeysCostNoFetch() {
+        // Given
+        BatchLoader<String, String> loader = new BatchLoader<>(this::fetch);
+        loader.load("a");
+        loader.load("b");
+
+        // When
+        String c = loader.get("c");
+        String a = loader.get("a");
+
+        // Then
+        assertThat(c).isEqualTo("C");
+        assertThat(a).isEqualTo("A");
+        assertThat(fetched).containsExactly(List.of("a", "b", "c"));
+        assertThat(loader.queuedCount()).isZero();
+    }
+
+    @Test
+    void testDispatch_FailedFetchFailsFuturesAndForgetsKeys() {
+        // Given
+        boolean[] fail = {true};
+        BatchLoader<String, String> loader = new BatchLoader<>(keys -> {
+            if (fail[0]) throw new IllegalStateException("Backend down");
+            return fetch(keys);
+        });
+        CompletableFuture<String> a = loader.load("a");
+
+        // When
+        assertThatThrownBy(loader::dispatch).isInstanceOf(IllegalStateException.class).hasMessage("Backend down");
+        fail[0] = false;
+
+        // Then
+        assertThat(a).isCompletedExceptionally();
+        assertThat(loader.get("a")).isEqualTo("A");
+        assertThat(loader.fetchCount()).isEqualTo(2);
+    }
+}
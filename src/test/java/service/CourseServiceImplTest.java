@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import repository.CascadeDeleteCoordinator;
 import repository.CourseRepository;
 
 import java.util.List;
@@ -107,4 +108,14 @@ class CourseServiceImplTest {
         verify(courseRepository).listByDepartment(department);
     }
 
+    @Test
+    void deleteCourse_WithCascade_DeletesThroughCoordinator() {
+        CascadeDeleteCoordinator coordinator = mock(CascadeDeleteCoordinator.class);
+        CourseServiceImpl cascading = new CourseServiceImpl(courseRepository, coordinator);
+
+        cascading.deleteCourse("CS101");
+
+        verify(coordinator).deleteCourse("CS101");
+        verifyNoInteractions(courseRepository);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package service;
+
+import model.EnrollmentStatus;
+import model.PriorityTier;
+import model.dto.AdmissionTicket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryEnrollmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnrollmentAdmissionControllerTest {
+
+    private EnrollmentAdmissionController controller;
+
+    @AfterEach
+    void tearDown() {
+        if (controller != null) {
+            controller.close();
+        }
+    }
+
+    @Test
+    void constructor_NonPositiveSettings_ThrowsException() {
+        EnrollmentService service = mock(EnrollmentService.class);
+
+        assertThatThrownBy(() -> new EnrollmentAdmissionController(service, 0, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Queue capacity, batch size and worker threads must be positive");
+    }
+
+    @Test
+    void submit_ReturnsQueuePositionPerTier() {
+        controller = new EnrollmentAdmissionController(mock(EnrollmentService.class), 10, 5, 1);
+
+        AdmissionTicket first = controller.submit("S1", "CS101", "Fall2025", PriorityTier.GENERAL);
+        AdmissionTicket second = controller.submit("S2", "CS101", "Fall2025", PriorityTier.GENERAL);
+        AdmissionTicket senior = controller.submit("S3", "CS101", "Fall2025", PriorityTier.SENIOR);
+
+        assertThat(first.accepted()).isTrue();
+        assertThat(first.queuePosition()).isEqualTo(1);
+        assertThat(second.queuePosition()).isEqualTo(2);
+        assertThat(senior.queuePosition()).isEqualTo(1);
+        assertThat(controller.queueDepth(PriorityTier.GENERAL)).isEqualTo(2);
+    }
+
+    @Test
+    void submit_FullQueue_RejectsWithBackpressure() {
+        controller = new EnrollmentAdmissionController(mock(EnrollmentService.class), 2, 5, 1);
+        controller.submit("S1", "CS101", "Fall2025", PriorityTier.GENERAL);
+        controller.submit("S2", "CS101", "Fall2025", PriorityTier.GENERAL);
+
+        AdmissionTicket rejected = controller.submit("S3", "CS101", "Fall2025", PriorityTier.GENERAL);
+        AdmissionTicket otherTier = controller.submit("S4", "CS101", "Fall2025", PriorityTier.HONORS);
+
+        assertThat(rejected.accepted()).isFalse();
+        assertThat(rejected.queuePosition()).isEqualTo(-1);
+        assertThat(rejected.result()).isCompletedExceptionally();
+        assertThatThrownBy(() -> rejected.result().get())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(otherTier.accepted()).isTrue();
+        assertThat(controller.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nextBatch_UsesWeightedRoundRobin() {
+        controller = new EnrollmentAdmissionController(mock(EnrollmentService.class), 20, 10, 1);
+        for (int i = 1; i <= 6; i++) {
+            controller.submit("G" + i, "CS101", "Fall2025", PriorityTier.GENERAL);
+            controller.submit("S" + i, "CS101", "Fall2025", PriorityTier.SENIOR);
+        }
+        for (int i = 1; i <= 3; i++) {
+            controller.submit("H" + i, "CS101", "Fall2025", PriorityTier.HONORS);
+        }
+
+        List<String> order = new ArrayList<>();
+        for (EnrollmentAdmissionController.PendingRequest request : controller.nextBatch()) {
+            order.add(request.studentId());
+        }
+
+        assertThat(order).containsExactly("S1", "S2", "S3", "S4", "H1", "H2", "G1", "S5", "S6", "H3");
+        assertThat(controller.queueDepth(PriorityTier.GENERAL)).isEqualTo(5);
+    }
+
+    @Test
+    void start_SeniorsGetSeatsBeforeEarlierGeneralRequests() throws Exception {
+        InMemoryEnrollmentRepository repository = new InMemoryEnrollmentRepository();
+        repository.setCapacity("CS101", 2);
+        controller = new EnrollmentAdmissionController(new EnrollmentServiceImpl(repository), 10, 10, 2);
+
+        List<AdmissionTicket> general = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            general.add(controller.submit("G" + i, "CS101", "Fall2025", PriorityTier.GENERAL));
+        }
+        AdmissionTicket senior1 = controller.submit("S1", "CS101", "Fall2025", PriorityTier.SENIOR);
+        AdmissionTicket senior2 = controller.submit("S2", "CS101", "Fall2025", PriorityTier.SENIOR);
+
+        controller.start();
+
+        assertThat(senior1.result().get(5, TimeUnit.SECONDS)).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(senior2.result().get(5, TimeUnit.SECONDS)).isEqualTo(EnrollmentStatus.ENROLLED);
+        for (AdmissionTicket ticket : general) {
+            assertThat(ticket.result().get(5, TimeUnit.SECONDS)).isEqualTo(EnrollmentStatus.WAITLISTED);
+        }
+        assertThat(repository.getWaitlist("CS101", "Fall2025")).containsExactly("G1", "G2", "G3");
+        assertThat(controller.processedCount()).isEqualTo(5);
+    }
+
+    @Test
+    void start_ServiceFailure_CompletesTicketExceptionally() throws Exception {
+        EnrollmentService service = mock(EnrollmentService.class);
+        when(service.enrollStudent("S1", "CS101", "Fall2025"))
+                .thenThrow(new IllegalArgumentException("Student not found"));
+        when(service.enrollStudent("S2", "CS101", "Fall2025")).thenReturn(EnrollmentStatus.ENROLLED);
+        controller = new EnrollmentAdmissionController(service, 10, 10, 1);
+        controller.start();
+
+        AdmissionTicket failing = controller.submit("S1", "CS101", "Fall2025", PriorityTier.GENERAL);
+        AdmissionTicket ok = controller.submit("S2", "CS101", "Fall2025", PriorityTier.GENERAL);
+
+        assertThat(ok.result().get(5, TimeUnit.SECONDS)).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThatThrownBy(() -> failing.result().get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void close_CancelsQueuedRequests() {
+        controller = new EnrollmentAdmissionController(mock(EnrollmentService.class), 10, 10, 1);
+        AdmissionTicket ticket = controller.submit("S1", "CS101", "Fall2025", PriorityTier.GENERAL);
+
+        controller.close();
+
+        assertThat(ticket.result()).isCancelled();
+        assertThatThrownBy(() -> ticket.result().get())
+                .isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void submit_AfterClose_RejectsInsteadOfQueueing() {
+        controller = new EnrollmentAdmissionController(mock(EnrollmentService.class), 10, 10, 1);
+        controller.start();
+        controller.close();
+
+        AdmissionTicket ticket = controller.submit("S1", "CS101", "Fall2025", PriorityTier.GENERAL);
+
+        assertThat(ticket.accepted()).isFalse();
+        assertThat(ticket.queuePosition()).isEqualTo(-1);
+        assertThatThrownBy(() -> ticket.result().get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(controller.queueDepth(PriorityTier.GENERAL)).isZero();
+        assertThat(controller.rejectedCount()).isZero();
+    }
+}
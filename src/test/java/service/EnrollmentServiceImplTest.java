@@ -1,6 +1,11 @@
 package service;
 
+import jobs.HoldExpirySweeper;
+import model.Course;
 import model.Enrollment;
+import model.EnrollmentStatus;
+import model.GradeType;
+import model.dto.SeatHold;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +13,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import repository.EnrollmentRepository;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -118,4 +125,147 @@ class EnrollmentServiceImplTest {
         assertThat(result).isEqualTo(expectedStudentIds);
         verify(enrollmentRepository).getStudentsForCourse(courseCode);
     }
-}
\ No newline at end of file
+
+    @Test
+    void enrollStudent_ReturnsRepositoryStatus() {
+        when(enrollmentRepository.enroll("S001", "CS101", "Fall2024")).thenReturn(EnrollmentStatus.WAITLISTED);
+
+        EnrollmentStatus status = enrollmentService.enrollStudent("S001", "CS101", "Fall2024");
+
+        assertThat(status).isEqualTo(EnrollmentStatus.WAITLISTED);
+    }
+
+    @Test
+    void applyCourseCapacity_ValidCourse_SetsRepositoryCapacity() {
+        Course course = Course.builder().code("CS101").capacity(30).build();
+
+        enrollmentService.applyCourseCapacity(course);
+
+        verify(enrollmentRepository).setCapacity("CS101", 30);
+    }
+
+    @Test
+    void applyCourseCapacity_NullCourse_ThrowsException() {
+        assertThatThrownBy(() -> enrollmentService.applyCourseCapacity(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course and its code cannot be null");
+    }
+
+    @Test
+    void setSemesterCapacity_ValidParameters_CallsRepository() {
+        enrollmentService.setSemesterCapacity("CS101", "Fall2024", 10);
+
+        verify(enrollmentRepository).setCapacity("CS101", "Fall2024", 10);
+    }
+
+    @Test
+    void getWaitlist_ReturnsRepositoryWaitlist() {
+        when(enrollmentRepository.getWaitlist("CS101", "Fall2024")).thenReturn(List.of("S002", "S003"));
+
+        assertThat(enrollmentService.getWaitlist("CS101", "Fall2024")).containsExactly("S002", "S003");
+    }
+
+    @Test
+    void holdSeat_TracksHoldWithSweeper() {
+        HoldExpirySweeper sweeper = mock(HoldExpirySweeper.class);
+        EnrollmentServiceImpl service = new EnrollmentServiceImpl(enrollmentRepository, sweeper);
+        SeatHold hold = new SeatHold("S001", "CS101", "Fall2024", Instant.parse("2024-09-01T10:00:00Z"));
+        when(enrollmentRepository.placeHold("S001", "CS101", "Fall2024", Duration.ofMinutes(15))).thenReturn(hold);
+
+        SeatHold result = service.holdSeat("S001", "CS101", "Fall2024", Duration.ofMinutes(15));
+
+        assertThat(result).isEqualTo(hold);
+        verify(sweeper).track(hold);
+    }
+
+    @Test
+    void holdSeat_WithoutSweeper_ThrowsException() {
+        assertThatThrownBy(() -> enrollmentService.holdSeat("S001", "CS101", "Fall2024", Duration.ofMinutes(15)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Seat holds require a HoldExpirySweeper");
+        verify(enrollmentRepository, never()).placeHold(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void confirmHold_CallsRepository() {
+        when(enrollmentRepository.confirmHold("S001", "CS101", "Fall2024")).thenReturn(EnrollmentStatus.ENROLLED);
+
+        assertThat(enrollmentService.confirmHold("S001", "CS101", "Fall2024")).isEqualTo(EnrollmentStatus.ENROLLED);
+    }
+
+    @Test
+    void releaseHold_NullParameters_ThrowsException() {
+        assertThatThrownBy(() -> enrollmentService.releaseHold(null, "CS101", "Fall2024"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student ID, Course Code, and Semester cannot be null");
+    }
+
+    @Test
+    void recordGrade_ValidParameters_DelegatesToRepository() {
+        Enrollment graded = new Enrollment();
+        when(enrollmentRepository.recordGrade("S001", "CS101", "Fall2024", GradeType.MIDTERM, 88.0)).thenReturn(graded);
+
+        Enrollment result = enrollmentService.recordGrade("S001", "CS101", "Fall2024", GradeType.MIDTERM, 88.0);
+
+        assertThat(result).isSameAs(graded);
+    }
+
+    @Test
+    void recordGrade_NullGradeType_ThrowsException() {
+        assertThatThrownBy(() -> enrollmentService.recordGrade("S001", "CS101", "Fall2024", null, 88.0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student ID, Course Code, Semester and Grade Type cannot be null");
+        verifyNoInteractions(enrollmentRepository);
+    }
+
+    @Test
+    void withdrawStudent_ValidParameters_DelegatesToRepository() {
+        enrollmentService.withdrawStudent("S001", "CS101", "Fall2024");
+
+        verify(enrollmentRepository).withdraw("S001", "CS101", "Fall2024");
+    }
+
+    @Test
+    void completeEnrollment_NullParameters_ThrowsException() {
+        assertThatThrownBy(() -> enrollmentService.completeEnrollment("S001", null, "Fall2024"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student ID, Course Code, and Semester cannot be null");
+        verifyNoInteractions(enrollmentRepository);
+    }
+
+    @Test
+    void enrollStudent_RetriedRequestId_EnrollsOnce() {
+        when(enrollmentRepository.enroll("S001", "CS101", "Fall2024")).thenReturn(EnrollmentStatus.ENROLLED);
+
+        EnrollmentStatus first = enrollmentService.enrollStudent("req-1", "S001", "CS101", "Fall2024");
+        EnrollmentStatus retry = enrollmentService.enrollStudent("req-1", "S001", "CS101", "Fall2024");
+
+        assertThat(first).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(retry).isEqualTo(EnrollmentStatus.ENROLLED);
+        verify(enrollmentRepository, times(1)).enroll("S001", "CS101", "Fall2024");
+    }
+
+    @Test
+    void enrollStudent_RequestIdReusedForOtherCourse_ThrowsException() {
+        enrollmentService.enrollStudent("req-1", "S001", "CS101", "Fall2024");
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudent("req-1", "S001", "CS102", "Fall2024"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already used for a different request");
+    }
+
+    @Test
+    void dropStudent_RetriedRequestId_DropsOnce() {
+        enrollmentService.dropStudent("req-2", "S001", "CS101", "Fall2024");
+        enrollmentService.dropStudent("req-2", "S001", "CS101", "Fall2024");
+
+        verify(enrollmentRepository, times(1)).drop("S001", "CS101", "Fall2024");
+    }
+
+    @Test
+    void enrollStudent_NullRequestId_ThrowsException() {
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(null, "S001", "CS101", "Fall2024"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Request ID cannot be null");
+    }
+}
@@ -0,0 +1,90 @@
+package service;
+
+import model.Course;
+import model.Enrollment;
+import model.EnrollmentStatus;
+import model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RosterServiceImplTest {
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private StudentService studentService;
+
+    @Mock
+    private CourseService courseService;
+
+    private RosterServiceImpl rosterService;
+
+    @BeforeEach
+    void setUp() {
+        rosterService = new RosterServiceImpl(enrollmentService, studentService, courseService);
+    }
+
+    @Test
+    void getRoster_OneBulkLookupInRosterOrder() {
+        List<String> ids = List.of("S2", "S1", "S3");
+        when(enrollmentService.getStudentsForCourse("CS101")).thenReturn(ids);
+        Map<String, Student> found = new LinkedHashMap<>();
+        found.put("S1", Student.builder().id("S1").build());
+        found.put("S2", Student.builder().id("S2").build());
+        when(studentService.getStudentsByIds(ids)).thenReturn(found);
+
+        List<Student> roster = rosterService.getRoster("CS101");
+
+        assertThat(roster).extracting(Student::getId).containsExactly("S2", "S1");
+        verify(studentService, never()).getStudentById(anyString());
+    }
+
+    @Test
+    void getCoursesForStudent_FetchesEnrolledCoursesTogether() {
+        when(enrollmentService.getEnrollmentsForStudent("S1")).thenReturn(List.of(
+                Enrollment.builder().studentId("S1").courseCode("CS101").semester("Fall 2025")
+                        .status(EnrollmentStatus.ENROLLED).build(),
+                Enrollment.builder().studentId("S1").courseCode("MA201").semester("Fall 2025")
+                        .status(EnrollmentStatus.ENROLLED).build()));
+        Course cs101 = Course.builder().code("CS101").build();
+        when(courseService.getCoursesByCodes(List.of("CS101", "MA201"))).thenReturn(Map.of("CS101", cs101));
+
+        Map<String, Course> courses = rosterService.getCoursesForStudent("S1");
+
+        assertThat(courses).containsOnly(entry("CS101", cs101));
+        verify(courseService, never()).getCourseByCode(anyString());
+    }
+
+    @Test
+    void getCoursesForStudent_SkipsDroppedEnrollments() {
+        when(enrollmentService.getEnrollmentsForStudent("S1")).thenReturn(List.of(
+                Enrollment.builder().studentId("S1").courseCode("CS101").semester("Fall 2025")
+                        .status(EnrollmentStatus.DROPPED).build(),
+                Enrollment.builder().studentId("S1").courseCode("MA201").semester("Fall 2025")
+                        .status(EnrollmentStatus.ENROLLED).build()));
+        Course ma201 = Course.builder().code("MA201").build();
+        when(courseService.getCoursesByCodes(List.of("MA201"))).thenReturn(Map.of("MA201", ma201));
+
+        Map<String, Course> courses = rosterService.getCoursesForStudent("S1");
+
+        assertThat(courses).containsOnly(entry("MA201", ma201));
+    }
+
+    @Test
+    void getRoster_NullCourse_Throws() {
+        assertThatThrownBy(() -> rosterService.getRoster(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
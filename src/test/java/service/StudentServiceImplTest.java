@@ -4,8 +4,10 @@ import model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import repository.CascadeDeleteCoordinator;
 import repository.StudentRepository;
 
 import java.util.HashMap;
@@ -72,6 +74,23 @@ class StudentServiceImplTest {
                 .hasMessage("Student ID and email cannot be null");
     }
 
+    @Test
+    void getStudentsByIds_DelegatesOneBulkLookup() {
+        Map<String, Student> found = Map.of("S001", Student.builder().id("S001").build());
+        when(studentRepository.getByIds(List.of("S001", "S002"))).thenReturn(found);
+
+        Map<String, Student> result = studentService.getStudentsByIds(List.of("S001", "S002"));
+
+        assertThat(result).isSameAs(found);
+        verify(studentRepository, never()).getById(anyString());
+    }
+
+    @Test
+    void getStudentsByIds_NullIds_ThrowsException() {
+        assertThatThrownBy(() -> studentService.getStudentsByIds(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void getStudentById_ValidId_ReturnsStudent() {
         String studentId = "S001";
@@ -116,15 +135,20 @@ class StudentServiceImplTest {
                 .fullName("John Doe")
                 .email("old@example.com")
                 .phone("000-000-0000")
+                .version(3)
                 .build();
 
         when(studentRepository.getById(studentId)).thenReturn(student);
+        when(studentRepository.compareAndSet(eq(studentId), eq(3L), any(Student.class))).thenReturn(true);
 
         studentService.updateContact(studentId, newEmail, newPhone);
 
-        assertThat(student.getEmail()).isEqualTo(newEmail);
-        assertThat(student.getPhone()).isEqualTo(newPhone);
-        verify(studentRepository).getById(studentId);
+        ArgumentCaptor<Student> updated = ArgumentCaptor.forClass(Student.class);
+        verify(studentRepository).compareAndSet(eq(studentId), eq(3L), updated.capture());
+        assertThat(updated.getValue()).isNotSameAs(student);
+        assertThat(updated.getValue().getEmail()).isEqualTo(newEmail);
+        assertThat(updated.getValue().getPhone()).isEqualTo(newPhone);
+        assertThat(student.getEmail()).isEqualTo("old@example.com");
     }
 
     @Test
@@ -150,11 +174,14 @@ class StudentServiceImplTest {
                 .build();
 
         when(studentRepository.getById(studentId)).thenReturn(student);
+        when(studentRepository.compareAndSet(eq(studentId), eq(0L), any(Student.class))).thenReturn(true);
 
         studentService.updateContact(studentId, null, newPhone);
 
-        assertThat(student.getEmail()).isEqualTo("old@example.com");
-        assertThat(student.getPhone()).isEqualTo(newPhone);
+        ArgumentCaptor<Student> updated = ArgumentCaptor.forClass(Student.class);
+        verify(studentRepository).compareAndSet(eq(studentId), eq(0L), updated.capture());
+        assertThat(updated.getValue().getEmail()).isEqualTo("old@example.com");
+        assertThat(updated.getValue().getPhone()).isEqualTo(newPhone);
     }
 
     @Test
@@ -170,11 +197,32 @@ class StudentServiceImplTest {
                 .build();
 
         when(studentRepository.getById(studentId)).thenReturn(student);
+        when(studentRepository.compareAndSet(eq(studentId), eq(0L), any(Student.class))).thenReturn(true);
 
         studentService.updateContact(studentId, "  ", newPhone);
 
-        assertThat(student.getEmail()).isEqualTo("old@example.com");
-        assertThat(student.getPhone()).isEqualTo(newPhone);
+        ArgumentCaptor<Student> updated = ArgumentCaptor.forClass(Student.class);
+        verify(studentRepository).compareAndSet(eq(studentId), eq(0L), updated.capture());
+        assertThat(updated.getValue().getEmail()).isEqualTo("old@example.com");
+        assertThat(updated.getValue().getPhone()).isEqualTo(newPhone);
+    }
+
+    @Test
+    void updateContact_ConcurrentWriterWins_RetriesOnLatestVersion() {
+        String studentId = "S001";
+        Student stale = Student.builder().id(studentId).email("old@example.com").phone("000").version(1).build();
+        Student latest = Student.builder().id(studentId).email("other@example.com").phone("000").version(2).build();
+
+        when(studentRepository.getById(studentId)).thenReturn(stale, latest);
+        when(studentRepository.compareAndSet(eq(studentId), eq(1L), any(Student.class))).thenReturn(false);
+        when(studentRepository.compareAndSet(eq(studentId), eq(2L), any(Student.class))).thenReturn(true);
+
+        studentService.updateContact(studentId, null, "123");
+
+        ArgumentCaptor<Student> updated = ArgumentCaptor.forClass(Student.class);
+        verify(studentRepository).compareAndSet(eq(studentId), eq(2L), updated.capture());
+        assertThat(updated.getValue().getEmail()).isEqualTo("other@example.com");
+        assertThat(updated.getValue().getPhone()).isEqualTo("123");
     }
 
     @Test
@@ -193,11 +241,14 @@ class StudentServiceImplTest {
                 .build();
 
         when(studentRepository.getById(studentId)).thenReturn(student);
+        when(studentRepository.compareAndSet(eq(studentId), eq(0L), any(Student.class))).thenReturn(true);
 
         studentService.updateAttributes(studentId, newAttributes);
 
-        assertThat(student.getAttributes()).containsAllEntriesOf(newAttributes);
-        verify(studentRepository).getById(studentId);
+        ArgumentCaptor<Student> updated = ArgumentCaptor.forClass(Student.class);
+        verify(studentRepository).compareAndSet(eq(studentId), eq(0L), updated.capture());
+        assertThat(updated.getValue().getAttributes()).containsAllEntriesOf(newAttributes);
+        assertThat(student.getAttributes()).isEmpty();
     }
 
     @Test
@@ -220,4 +271,15 @@ class StudentServiceImplTest {
 
         verify(studentRepository).deleteStudent(studentId);
     }
+
+    @Test
+    void deleteStudent_WithCascade_DeletesThroughCoordinator() {
+        CascadeDeleteCoordinator coordinator = mock(CascadeDeleteCoordinator.class);
+        StudentServiceImpl cascading = new StudentServiceImpl(studentRepository, coordinator);
+
+        cascading.deleteStudent("S001");
+
+        verify(coordinator).deleteStudent("S001");
+        verifyNoInteractions(studentRepository);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package service;
+
+import model.Course;
+import model.Instructor;
+import model.TimeSlot;
+import model.dto.ScheduleConflict;
+import model.dto.TeachingLoad;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repository.CourseRepository;
+import repository.InstructorRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimetableServiceImplTest {
+
+    @Mock
+    private InstructorRepository instructorRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    private TimetableServiceImpl timetableService;
+
+    @BeforeEach
+    void setUp() {
+        timetableService = new TimetableServiceImpl(instructorRepository, courseRepository);
+    }
+
+    private static Course course(String code, int credits, TimeSlot... slots) {
+        return Course.builder()
+                .code(code)
+                .credits(credits)
+                .department("CS")
+                .prerequisites(new HashSet<>())
+                .scheduledSlots(new TreeSet<>(List.of(slots)))
+                .build();
+    }
+
+    /**
+     * Makes the mocked repository run the assignment check against the given courses taught.
+     */
+    private void checkAgainst(Set<String> taught) {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Set<String>>>getArgument(2).accept(taught);
+            return null;
+        }).when(instructorRepository).assignCourse(anyString(), anyString(), any());
+    }
+
+    private static TimeSlot slot(DayOfWeek day, int startHour, int endHour) {
+        return new TimeSlot(day, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0));
+    }
+
+    @Test
+    void findConflicts_OverlappingCourses_ReturnsConflict() {
+        Course cs101 = course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 11));
+        Course cs201 = course("CS201", 3, slot(DayOfWeek.MONDAY, 10, 12), slot(DayOfWeek.FRIDAY, 9, 10));
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>(Set.of("CS101", "CS201"))));
+        when(courseRepository.getByCode("CS101")).thenReturn(cs101);
+        when(courseRepository.getByCode("CS201")).thenReturn(cs201);
+
+        List<ScheduleConflict> conflicts = timetableService.findConflicts("I1");
+
+        assertThat(conflicts).hasSize(1);
+        assertThat(Set.of(conflicts.get(0).courseCode(), conflicts.get(0).conflictingCourseCode()))
+                .containsExactlyInAnyOrder("CS101", "CS201");
+    }
+
+    @Test
+    void findConflicts_BackToBackCourses_ReturnsEmpty() {
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>(Set.of("CS101", "CS201"))));
+        when(courseRepository.getByCode("CS101")).thenReturn(course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 10)));
+        when(courseRepository.getByCode("CS201")).thenReturn(course("CS201", 3, slot(DayOfWeek.MONDAY, 10, 11)));
+
+        assertThat(timetableService.findConflicts("I1")).isEmpty();
+    }
+
+    @Test
+    void findConflicts_UnknownInstructor_ThrowsException() {
+        assertThatThrownBy(() -> timetableService.findConflicts("missing"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Instructor not found: missing");
+    }
+
+    @Test
+    void assignCourse_NoConflict_CallsRepository() {
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>(Set.of("CS101"))));
+        when(courseRepository.getByCode("CS101")).thenReturn(course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 10)));
+        when(courseRepository.getByCode("CS201")).thenReturn(course("CS201", 3, slot(DayOfWeek.TUESDAY, 9, 10)));
+        checkAgainst(Set.of("CS101"));
+
+        timetableService.assignCourse("I1", "CS201");
+
+        verify(instructorRepository).assignCourse(eq("I1"), eq("CS201"), any());
+    }
+
+    @Test
+    void assignCourse_Conflict_ThrowsAndDoesNotAssign() {
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>(Set.of("CS101"))));
+        when(courseRepository.getByCode("CS101")).thenReturn(course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 11)));
+        when(courseRepository.getByCode("CS201")).thenReturn(course("CS201", 3, slot(DayOfWeek.MONDAY, 10, 12)));
+        checkAgainst(Set.of("CS101"));
+
+        assertThatThrownBy(() -> timetableService.assignCourse("I1", "CS201"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("conflicts with CS101");
+        verify(instructorRepository, never()).assignCourse(anyString(), anyString());
+    }
+
+    @Test
+    void assignCourse_ChecksCoursesTaughtAtAssignmentTime() {
+        // The instructor looked free when read, but CS101 was assigned before the write.
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>()));
+        when(courseRepository.getByCode("CS101")).thenReturn(course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 11)));
+        when(courseRepository.getByCode("CS201")).thenReturn(course("CS201", 3, slot(DayOfWeek.MONDAY, 10, 12)));
+        checkAgainst(Set.of("CS101"));
+
+        assertThatThrownBy(() -> timetableService.assignCourse("I1", "CS201"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("conflicts with CS101");
+    }
+
+    @Test
+    void assignCourse_CourseBuiltWithoutSlots_HasNoConflicts() {
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>(Set.of("CS101"))));
+        when(courseRepository.getByCode("CS101")).thenReturn(course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 11)));
+        when(courseRepository.getByCode("CS301")).thenReturn(Course.builder().code("CS301").build());
+        checkAgainst(Set.of("CS101"));
+
+        timetableService.assignCourse("I1", "CS301");
+
+        verify(instructorRepository).assignCourse(eq("I1"), eq("CS301"), any());
+        assertThat(timetableService.checkAssignment("I1", "CS301")).isEmpty();
+    }
+
+    @Test
+    void assignCourse_UnknownCourse_ThrowsException() {
+        when(instructorRepository.getById("I1"))
+                .thenReturn(new Instructor("I1", "John Doe", new HashSet<>()));
+
+        assertThatThrownBy(() -> timetableService.assignCourse("I1", "NOPE"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course not found: NOPE");
+    }
+
+    @Test
+    void computeTeachingLoads_FetchesEachCourseOnce() {
+        when(instructorRepository.listAll()).thenReturn(List.of(
+                new Instructor("I1", "John Doe", new HashSet<>(Set.of("CS101", "CS201"))),
+                new Instructor("I2", "Jane Smith", new HashSet<>(Set.of("CS101")))));
+        when(courseRepository.getByCode("CS101")).thenReturn(course("CS101", 3, slot(DayOfWeek.MONDAY, 9, 11)));
+        when(courseRepository.getByCode("CS201")).thenReturn(course("CS201", 4,
+                slot(DayOfWeek.MONDAY, 10, 11), slot(DayOfWeek.WEDNESDAY, 9, 10)));
+
+        Map<String, TeachingLoad> loads = timetableService.computeTeachingLoads();
+
+        assertThat(loads.get("I1")).isEqualTo(new TeachingLoad("I1", 2, 7, 240, 1));
+        assertThat(loads.get("I2")).isEqualTo(new TeachingLoad("I2", 1, 3, 120, 0));
+        verify(courseRepository, times(1)).getByCode("CS101");
+        verify(courseRepository, times(1)).getByCode("CS201");
+    }
+}
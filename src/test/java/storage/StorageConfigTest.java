@@ -0,0 +1,51 @@
+package storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageConfigTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLoad_ReadsPropertiesFile() throws Exception {
+        // Given
+        Path file = directory.resolve("sms.properties");
+        Files.writeString(file, "storage.backend = jdbc\nstorage.directory = /var/sms\nstorage.mode =\n");
+
+        // When
+        StorageConfig config = StorageConfig.load(file);
+
+        // Then
+        assertThat(config.getBackend()).isEqualTo("jdbc");
+        assertThat(config.require(StorageConfig.DIRECTORY)).isEqualTo("/var/sms");
+        assertThat(config.get(StorageConfig.MODE)).isNull();
+        assertThat(config.get(StorageConfig.MODE, "STANDARD")).isEqualTo("STANDARD");
+    }
+
+    @Test
+    void testWith_ReturnsChangedCopy() {
+        // Given
+        Properties properties = new Properties();
+        StorageConfig original = new StorageConfig(properties);
+
+        // When
+        StorageConfig changed = original.with(StorageConfig.BACKEND, "jdbc");
+        properties.setProperty(StorageConfig.BACKEND, "other");
+
+        // Then
+        assertThat(original.getBackend()).isEqualTo(StorageConfig.DEFAULT_BACKEND);
+        assertThat(changed.getBackend()).isEqualTo("jdbc");
+        assertThatThrownBy(() -> original.require(StorageConfig.JDBC_URL))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Missing storage setting: storage.jdbc.url");
+    }
+}
@@ -0,0 +1,125 @@
+package storage;
+
+import model.EnrollmentStatus;
+import model.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.InMemoryStudentRepository;
+import repository.JdbcStudentRepository;
+import repository.ShardedStudentRepository;
+import repository.StorageMode;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageFactoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testProviders_DiscoveredThroughServiceLoader() {
+        // When / Then
+        assertThat(StorageFactory.providers()).extracting(StorageProvider::name)
+                .contains(InMemoryStorageProvider.NAME, JdbcStorageProvider.NAME, ShardedStorageProvider.NAME);
+        assertThat(StorageFactory.provider("jdbc").capabilities())
+                .isEqualTo(new StorageCapabilities(true, false, true, false));
+        assertThat(StorageFactory.provider("in-memory").capabilities().snapshots()).isTrue();
+    }
+
+    @Test
+    void testProvider_UnknownBackendRejected() {
+        // Then
+        assertThatThrownBy(() -> StorageFactory.open(StorageConfig.backend("cassandra")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unknown storage backend: cassandra");
+    }
+
+    @Test
+    void testOpen_DefaultsToInMemoryBackend() {
+        // Given
+        StorageConfig config = new StorageConfig(new Properties())
+                .with(StorageConfig.MODE, StorageMode.DICTIONARY_ENCODED.name());
+
+        // When
+        try (ServiceGraph app = StorageFactory.open(config)) {
+            app.getStudentService().registerStudent(student("S1"));
+            EnrollmentStatus status = app.getEnrollmentService().enrollStudent("S1", "CS101", "Fall 2025");
+
+            // Then
+            assertThat(app.getRepositories().getBackend()).isEqualTo(InMemoryStorageProvider.NAME);
+            assertThat(app.getRepositories().getStudents()).isInstanceOf(InMemoryStudentRepository.class);
+            assertThat(app.getRepositories().getStorageContext().isDictionaryEncoded()).isTrue();
+            assertThat(app.getCapabilities().durable()).isFalse();
+            assertThat(status).isEqualTo(EnrollmentStatus.ENROLLED);
+            assertThat(app.getStudentService().getStudentById("S1").getEmail()).isEqualTo("S1@example.edu");
+        }
+    }
+
+    @Test
+    void testOpen_JdbcBackendSurvivesReopen() {
+        // Given
+        StorageConfig config = StorageConfig.backend(JdbcStorageProvider.NAME)
+                .with(StorageConfig.DIRECTORY, directory.toString());
+        try (ServiceGraph app = StorageFactory.open(config)) {
+            app.getStudentService().registerStudent(student("S1"));
+            app.getEnrollmentService().enrollStudent("S1", "CS101", "Fall 2025");
+        }
+
+        // When
+        try (ServiceGraph app = StorageFactory.open(config)) {
+
+            // Then
+            assertThat(app.getRepositories().getStudents()).isInstanceOf(JdbcStudentRepository.class);
+            assertThat(app.getCapabilities().durable()).isTrue();
+            assertThat(app.getStudentService().getStudentById("S1")).isNotNull();
+            assertThat(app.getEnrollmentService().getStudentsForCourse("CS101")).containsExactly("S1");
+        }
+    }
+
+    @Test
+    void testOpen_ShardedBackendUsesConfiguredShardCount() {
+        // Given
+        StorageConfig config = StorageConfig.backend(ShardedStorageProvider.NAME).with(StorageConfig.SHARDS, "3");
+
+        // When
+        try (ServiceGraph app = StorageFactory.open(config)) {
+            app.getStudentService().registerStudent(student("S1"));
+            app.getStudentService().registerStudent(student("S2"));
+            EnrollmentStatus status = app.getEnrollmentService().enrollStudent("S1", "CS101", "Fall 2025");
+
+            // Then
+            assertThat(app.getRepositories().getStudents()).isInstanceOfSatisfying(ShardedStudentRepository.class,
+                    students -> assertThat(students.shardCount()).isEqualTo(3));
+            assertThat(status).isEqualTo(EnrollmentStatus.ENROLLED);
+            assertThat(app.getStudentService().searchStudentsByName("student")).hasSize(2);
+        }
+    }
+
+    @Test
+    void testOpen_MissingOrInvalidSettingsRejected() {
+        // Then
+        assertThatThrownBy(() -> StorageFactory.open(StorageConfig.backend(JdbcStorageProvider.NAME)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Missing storage setting: storage.directory");
+        assertThatThrownBy(() -> StorageFactory.open(StorageConfig.backend(InMemoryStorageProvider.NAME)
+                .with(StorageConfig.MODE, "COLUMNAR")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Unknown storage mode: COLUMNAR");
+        assertThatThrownBy(() -> StorageFactory.open(StorageConfig.backend(ShardedStorageProvider.NAME)
+                .with(StorageConfig.SHARDS, "0")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Invalid shard count: 0");
+    }
+
+    private static Student student(String id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setFullName("Student " + id);
+        student.setEmail(id + "@example.edu");
+        return student;
+    }
+}
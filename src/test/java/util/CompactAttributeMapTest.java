@@ -0,0 +1,112 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class CompactAttributeMapTest {
+
+    private StringDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new StringDictionary();
+    }
+
+    @Test
+    void put_shouldAddAndOverrideValues() {
+        Map<String, String> attributes = new CompactAttributeMap(dictionary);
+
+        assertThat(attributes.put("nationality", "Canadian")).isNull();
+        attributes.put("guardianName", "John Smith");
+        assertThat(attributes.put("nationality", "American")).isEqualTo("Canadian");
+
+        assertThat(attributes).hasSize(2);
+        assertThat(attributes).containsEntry("nationality", "American");
+        assertThat(attributes).containsEntry("guardianName", "John Smith");
+    }
+
+    @Test
+    void constructor_shouldCopySourceMap() {
+        Map<String, String> source = new HashMap<>();
+        source.put("program", "BSc");
+        source.put("residence", "Hall A");
+
+        Map<String, String> attributes = new CompactAttributeMap(dictionary, source);
+
+        assertThat(attributes).isEqualTo(source);
+        assertThat(attributes.hashCode()).isEqualTo(source.hashCode());
+    }
+
+    @Test
+    void keys_shouldBeSharedThroughDictionary() {
+        Map<String, String> first = new CompactAttributeMap(dictionary);
+        Map<String, String> second = new CompactAttributeMap(dictionary);
+
+        first.put(new String("program"), "BSc");
+        second.put(new String("program"), "MSc");
+
+        assertThat(dictionary.size()).isEqualTo(1);
+        assertThat(first.keySet().iterator().next()).isSameAs(second.keySet().iterator().next());
+    }
+
+    @Test
+    void get_shouldReturnNullForUnknownOrNonStringKeys() {
+        Map<String, String> attributes = new CompactAttributeMap(dictionary);
+        attributes.put("program", "BSc");
+
+        assertThat(attributes.get("residence")).isNull();
+        assertThat(attributes.get(42)).isNull();
+        assertThat(attributes.containsKey("program")).isTrue();
+        assertThat(dictionary.codeOf("residence")).isEqualTo(StringDictionary.NO_CODE);
+    }
+
+    @Test
+    void remove_shouldShiftRemainingEntries() {
+        Map<String, String> attributes = new CompactAttributeMap(dictionary);
+        attributes.put("a", "1");
+        attributes.put("b", "2");
+        attributes.put("c", "3");
+
+        assertThat(attributes.remove("b")).isEqualTo("2");
+        assertThat(attributes.remove("missing")).isNull();
+
+        assertThat(attributes).containsOnly(entry("a", "1"), entry("c", "3"));
+    }
+
+    @Test
+    void entryIterator_shouldSupportRemoveAndSetValue() {
+        Map<String, String> attributes = new CompactAttributeMap(dictionary);
+        attributes.put("a", "1");
+        attributes.put("b", "2");
+        attributes.put("c", "3");
+
+        Iterator<Map.Entry<String, String>> it = attributes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> e = it.next();
+            if (e.getKey().equals("a")) {
+                it.remove();
+            } else {
+                e.setValue(e.getValue() + "!");
+            }
+        }
+
+        assertThat(attributes).containsOnly(entry("b", "2!"), entry("c", "3!"));
+    }
+
+    @Test
+    void clear_shouldEmptyMap() {
+        Map<String, String> attributes = new CompactAttributeMap(dictionary);
+        attributes.put("a", "1");
+
+        attributes.clear();
+
+        assertThat(attributes).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    private MutableClock clock;
+
+    private IdempotencyCache<String> cache;
+
+    private AtomicInteger runs;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-09-01T08:00:00Z"));
+        cache = new IdempotencyCache<>(100, Duration.ofMinutes(10), clock);
+        runs = new AtomicInteger();
+    }
+
+    @Test
+    void testExecute_RetryReturnsRecordedResult() {
+        // When
+        String first = cache.execute("r1", "payload", () -> "result-" + runs.incrementAndGet());
+        String retry = cache.execute("r1", "payload", () -> "result-" + runs.incrementAndGet());
+
+        // Then
+        assertThat(first).isEqualTo("result-1");
+        assertThat(retry).isEqualTo("result-1");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testExecute_RetryAfterRetentionRunsAgain() {
+        // Given
+        cache.execute("r1", "payload", () -> "result-" + runs.incrementAndGet());
+
+        // When
+        clock.advance(Duration.ofMinutes(10));
+        String later = cache.execute("r1", "payload", () -> "result-" + runs.incrementAndGet());
+
+        // Then
+        assertThat(later).isEqualTo("result-2");
+    }
+
+    @Test
+    void testExecute_FailureIsNotRecorded() {
+        // Given
+        assertThatThrownBy(() -> cache.execute("r1", "payload", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // When
+        String retry = cache.execute("r1", "payload", () -> "ok");
+
+        // Then
+        assertThat(retry).isEqualTo("ok");
+    }
+
+    @Test
+    void testExecute_ReusedIdWithDifferentPayloadRejected() {
+        // Given
+        cache.execute("r1", "payload", () -> "ok");
+
+        // Then
+        assertThatThrownBy(() -> cache.execute("r1", "other", () -> "ok"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Request ID r1 was already used for a different request");
+    }
+
+    @Test
+    void testExecute_EvictsOldestBeyondMaxEntries() {
+        // Given
+        IdempotencyCache<String> small = new IdempotencyCache<>(2, Duration.ofMinutes(10), clock);
+        small.execute("r1", null, () -> "a");
+        small.execute("r2", null, () -> "b");
+
+        // When
+        small.execute("r3", null, () -> "c");
+        String replayed = small.execute("r1", null, () -> "again");
+
+        // Then
+        assertThat(replayed).isEqualTo("again");
+        assertThat(small.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testExecute_ConcurrentRetriesRunOnce() throws Exception {
+        // Given
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return cache.execute("r1", "payload", () -> "result-" + runs.incrementAndGet());
+            }));
+        }
+
+        // When
+        start.countDown();
+
+        // Then
+        for (Future<String> f : futures) {
+            assertThat(f.get(10, TimeUnit.SECONDS)).isEqualTo("result-1");
+        }
+        assertThat(runs).hasValue(1);
+        pool.shutdown();
+    }
+
+    @Test
+    void testConstructor_InvalidSettingsRejected() {
+        // Then
+        assertThatThrownBy(() -> new IdempotencyCache<String>(0, Duration.ofMinutes(1), clock))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max entries and retention must be positive");
+    }
+}
@@ -0,0 +1,89 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringDictionaryTest {
+
+    @Test
+    void encode_shouldAssignDenseCodesInFirstSeenOrder() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertThat(dictionary.encode("Fall 2025")).isEqualTo(0);
+        assertThat(dictionary.encode("CS101")).isEqualTo(1);
+        assertThat(dictionary.encode(new String("Fall 2025"))).isEqualTo(0);
+        assertThat(dictionary.size()).isEqualTo(2);
+    }
+
+    @Test
+    void decode_shouldReturnOriginalValue() {
+        StringDictionary dictionary = new StringDictionary();
+        int code = dictionary.encode("nationality");
+
+        assertThat(dictionary.decode(code)).isEqualTo("nationality");
+    }
+
+    @Test
+    void decode_shouldRejectUnknownCode() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertThatThrownBy(() -> dictionary.decode(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown dictionary code");
+    }
+
+    @Test
+    void codeOf_shouldNotAssignCodes() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertThat(dictionary.codeOf("MATH")).isEqualTo(StringDictionary.NO_CODE);
+        assertThat(dictionary.codeOf(null)).isEqualTo(StringDictionary.NO_CODE);
+        assertThat(dictionary.size()).isZero();
+    }
+
+    @Test
+    void canonical_shouldReturnSharedInstance() {
+        StringDictionary dictionary = new StringDictionary();
+        String first = new String("Spring 2026");
+        String second = new String("Spring 2026");
+
+        assertThat(dictionary.canonical(first)).isSameAs(first);
+        assertThat(dictionary.canonical(second)).isSameAs(first);
+        assertThat(dictionary.canonical(null)).isNull();
+    }
+
+    @Test
+    void encode_shouldGrowBeyondInitialCapacity() {
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(dictionary.encode("value" + i)).isEqualTo(i);
+        }
+
+        assertThat(dictionary.decode(999)).isEqualTo("value999");
+        assertThat(dictionary.size()).isEqualTo(1000);
+    }
+
+    @Test
+    void encode_shouldBeConsistentUnderConcurrency() {
+        StringDictionary dictionary = new StringDictionary();
+        Set<Integer> codes = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 10_000).parallel()
+                .forEach(i -> codes.add(dictionary.encode("key" + (i % 500))));
+
+        assertThat(dictionary.size()).isEqualTo(500);
+        assertThat(codes).hasSize(500);
+        List<Integer> all = IntStream.range(0, 500).boxed().toList();
+        assertThat(codes).containsExactlyInAnyOrderElementsOf(all);
+        for (int i = 0; i < 500; i++) {
+            assertThat(dictionary.decode(dictionary.codeOf("key" + i))).isEqualTo("key" + i);
+        }
+    }
+}